@@ -20,6 +20,7 @@ import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.hetu.core.plugin.carbondata.impl.CarbondataTableReader;
+import io.prestosql.plugin.hive.DirectoryLister;
 import io.prestosql.plugin.hive.ForHive;
 import io.prestosql.plugin.hive.ForHiveMetastore;
 import io.prestosql.plugin.hive.ForHiveTransactionHeartbeats;
@@ -30,6 +31,7 @@ import io.prestosql.plugin.hive.HivePartitionManager;
 import io.prestosql.plugin.hive.LocationService;
 import io.prestosql.plugin.hive.NodeVersion;
 import io.prestosql.plugin.hive.PartitionUpdate;
+import io.prestosql.plugin.hive.TableInvalidationCallback;
 import io.prestosql.plugin.hive.TypeTranslator;
 import io.prestosql.plugin.hive.metastore.CachingHiveMetastore;
 import io.prestosql.plugin.hive.metastore.HiveMetastore;
@@ -88,7 +90,8 @@ public class CarbondataMetadataFactory
                                      JsonCodec<CarbondataSegmentInfoUtil> segmentInfoCodec,
                                      TypeTranslator typeTranslator, NodeVersion nodeVersion,
                                      AccessControlMetadataFactory accessControlMetadataFactory,
-                                     CarbondataTableReader carbondataTableReader)
+                                     CarbondataTableReader carbondataTableReader,
+                                     DirectoryLister directoryLister)
     {
         this(metastore, hdfsEnvironment, partitionManager,
                 carbondataConfig.getMaxConcurrentFileRenames(),
@@ -104,7 +107,7 @@ public class CarbondataMetadataFactory
                 vacuumExecutorService, heartbeatService, hiveMetastoreClientService, typeTranslator, nodeVersion.toString(),
                 accessControlMetadataFactory, carbondataTableReader, carbondataConfig.getStoreLocation(),
                 carbondataConfig.getMajorVacuumSegSize(), carbondataConfig.getMinorVacuumSegCount(),
-                carbondataConfig.getAutoVacuumEnable(), carbondataConfig.getMetastoreWriteBatchSize());
+                carbondataConfig.getAutoVacuumEnable(), carbondataConfig.getMetastoreWriteBatchSize(), directoryLister);
     }
 
     public CarbondataMetadataFactory(HiveMetastore metastore, HdfsEnvironment hdfsEnvironment,
@@ -124,7 +127,8 @@ public class CarbondataMetadataFactory
                                      TypeTranslator typeTranslator, String hetuVersion,
                                      AccessControlMetadataFactory accessControlMetadataFactory,
                                      CarbondataTableReader carbondataTableReader, String storeLocation, long majorVacuumSegSize, long minorVacuumSegCount,
-                                     boolean autoVacuumEnable, int hmsWriteBatchSize)
+                                     boolean autoVacuumEnable, int hmsWriteBatchSize,
+                                     TableInvalidationCallback tableInvalidationCallback)
     {
         super(metastore,
                 hdfsEnvironment,
@@ -150,7 +154,8 @@ public class CarbondataMetadataFactory
                 accessControlMetadataFactory,
                 2, 0.0, false,
                 Optional.of(new Duration(5, TimeUnit.MINUTES)),
-                hmsWriteBatchSize);
+                hmsWriteBatchSize,
+                tableInvalidationCallback);
         this.skipDeletionForAlter = skipDeletionForAlter;
         this.skipTargetCleanupOnRollback = skipTargetCleanupOnRollback;
         this.writesToNonManagedTablesEnabled = writesToNonManagedTablesEnabled;
@@ -198,7 +203,7 @@ public class CarbondataMetadataFactory
                         vacuumExecutorService, this.vacuumCleanupInterval, this.skipDeletionForAlter,
                         this.skipTargetCleanupOnRollback,
                         this.hiveTransactionHeartbeatInterval,
-                        this.heartbeatService, hiveMetastoreClientService, hmsWriteBatchSize);
+                        this.heartbeatService, hiveMetastoreClientService, hmsWriteBatchSize, tableInvalidationCallback);
 
         return new CarbondataMetadata(metastore,
                 this.hdfsEnvironment,
@@ -24,7 +24,11 @@ public enum CubeAggregateFunction
     COUNT("count"),
     AVG("avg"),
     MIN("min"),
-    MAX("max");
+    MAX("max"),
+    // stored as a serialized HyperLogLog
+    APPROX_DISTINCT("approx_distinct"),
+    // stored as a serialized quantile digest, the percentile is chosen by the query
+    APPROX_PERCENTILE("approx_percentile");
 
     private final String name;
 
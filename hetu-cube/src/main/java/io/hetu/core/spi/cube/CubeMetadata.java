@@ -15,6 +15,7 @@
 
 package io.hetu.core.spi.cube;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.hetu.core.spi.cube.aggregator.AggregationSignature;
 
 import java.io.Serializable;
@@ -57,7 +58,8 @@ public interface CubeMetadata
     List<String> getAggregations();
 
     /**
-     * Cube selection filter
+     * Cube selection filter. The cube predicate of the filter records the ranges of the source table data
+     * which were inserted into the cube.
      */
     CubeFilter getCubeFilter();
 
@@ -114,4 +116,19 @@ public interface CubeMetadata
      * Return the status of the cube
      */
     CubeStatus getCubeStatus();
+
+    /**
+     * Checks if new data of the source table can be inserted into the cube without rebuilding it.
+     * The cube must cover a range of the source table data, so that the new data can be inserted for another range,
+     * and all aggregations must be algebraic, so that the rows of both ranges can be merged at query time.
+     * @return true - if the cube can be refreshed incrementally
+     *         false - otherwise
+     */
+    @JsonIgnore
+    default boolean isIncrementallyRefreshable()
+    {
+        return getCubeFilter() != null
+                && getCubeFilter().getCubePredicate() != null
+                && getAggregationSignatures().stream().allMatch(AggregationSignature::isAlgebraic);
+    }
 }
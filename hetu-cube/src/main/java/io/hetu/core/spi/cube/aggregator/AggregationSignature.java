@@ -16,11 +16,14 @@
 package io.hetu.core.spi.cube.aggregator;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.io.Serializable;
 import java.util.Objects;
 
+import static io.hetu.core.spi.cube.CubeAggregateFunction.APPROX_DISTINCT;
+import static io.hetu.core.spi.cube.CubeAggregateFunction.APPROX_PERCENTILE;
 import static io.hetu.core.spi.cube.CubeAggregateFunction.AVG;
 import static io.hetu.core.spi.cube.CubeAggregateFunction.COUNT;
 import static io.hetu.core.spi.cube.CubeAggregateFunction.MAX;
@@ -77,6 +80,16 @@ public class AggregationSignature
         return new AggregationSignature(MAX.getName(), dimension, distinct);
     }
 
+    public static AggregationSignature approxDistinct(String dimension)
+    {
+        return new AggregationSignature(APPROX_DISTINCT.getName(), dimension, false);
+    }
+
+    public static AggregationSignature approxPercentile(String dimension)
+    {
+        return new AggregationSignature(APPROX_PERCENTILE.getName(), dimension, false);
+    }
+
     @JsonProperty
     public String getFunction()
     {
@@ -95,6 +108,20 @@ public class AggregationSignature
         return distinct;
     }
 
+    /**
+     * Checks if the aggregated values of disjoint sets of rows can be merged by aggregating them again.
+     * Count and sum values are merged by sum, min and max values by min and max, avg is derived from sum and count.
+     * The sketches of approx_distinct and approx_percentile are merged by merge.
+     * Distinct aggregations cannot be merged.
+     * @return true - if the values can be merged
+     *         false - otherwise
+     */
+    @JsonIgnore
+    public boolean isAlgebraic()
+    {
+        return !distinct;
+    }
+
     @Override
     public int hashCode()
     {
@@ -24,11 +24,15 @@ import io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule;
 import io.prestosql.spi.function.Mandatory;
 
 import javax.annotation.Nullable;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import java.net.URI;
 import java.util.concurrent.TimeUnit;
 
+import static io.prestosql.client.DataCenterFetchWindow.MAX_PIPELINED_REQUESTS;
+
 /**
  * Data center config.
  *
@@ -121,6 +125,16 @@ public class DataCenterConfig
 
     private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
 
+    private int maxPipelinedRequests = 1;
+
+    private boolean isResultCacheEnabled;
+
+    private String resultCacheDirectory;
+
+    private DataSize resultCacheMaxSize = new DataSize(1, DataSize.Unit.GIGABYTE);
+
+    private Duration resultCacheTtl = new Duration(1, TimeUnit.HOURS);
+
     private Duration updateThreshold = new Duration(1, TimeUnit.MINUTES);
 
     @NotNull
@@ -844,4 +858,104 @@ public class DataCenterConfig
         this.maxIdleConnections = maxIdleConnectionsParameter;
         return this;
     }
+
+    @Min(1)
+    @Max(MAX_PIPELINED_REQUESTS)
+    public int getMaxPipelinedRequests()
+    {
+        return this.maxPipelinedRequests;
+    }
+
+    /**
+     * set maximum number of outstanding page requests of each split.
+     *
+     * @param maxPipelinedRequestsParameter maximum outstanding page requests, 1 fetches the pages one by one.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.pipelined-fetch.max-requests")
+    @ConfigDescription("maximum number of outstanding page requests of each split, the number of requests adapts to the round trip time up to this value")
+    public DataCenterConfig setMaxPipelinedRequests(int maxPipelinedRequestsParameter)
+    {
+        this.maxPipelinedRequests = maxPipelinedRequestsParameter;
+        return this;
+    }
+
+    public boolean isResultCacheEnabled()
+    {
+        return this.isResultCacheEnabled;
+    }
+
+    /**
+     * set result cache enabled.
+     *
+     * @param isResultCacheEnabledParameter cache the results of remote queries on local disk or not.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.result-cache.enabled")
+    @ConfigDescription("cache the results of the remote queries on the local disks, the results are read again while the remote tables are not modified")
+    public DataCenterConfig setResultCacheEnabled(boolean isResultCacheEnabledParameter)
+    {
+        this.isResultCacheEnabled = isResultCacheEnabledParameter;
+        return this;
+    }
+
+    @Nullable
+    public String getResultCacheDirectory()
+    {
+        return this.resultCacheDirectory;
+    }
+
+    /**
+     * set result cache directory.
+     *
+     * @param resultCacheDirectoryParameter local directory of the cached results.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.result-cache.directory")
+    @ConfigDescription("local directory of the cached results, the content of the directory is deleted when the connector starts")
+    public DataCenterConfig setResultCacheDirectory(String resultCacheDirectoryParameter)
+    {
+        this.resultCacheDirectory = resultCacheDirectoryParameter;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxSize()
+    {
+        return this.resultCacheMaxSize;
+    }
+
+    /**
+     * set result cache max size.
+     *
+     * @param resultCacheMaxSizeParameter maximum size of the cached results on the local disk of each node.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.result-cache.max-size")
+    @ConfigDescription("maximum size of the cached results on each node, the least recently used results are evicted first")
+    public DataCenterConfig setResultCacheMaxSize(DataSize resultCacheMaxSizeParameter)
+    {
+        this.resultCacheMaxSize = resultCacheMaxSizeParameter;
+        return this;
+    }
+
+    @NotNull
+    public Duration getResultCacheTtl()
+    {
+        return this.resultCacheTtl;
+    }
+
+    /**
+     * set result cache ttl.
+     *
+     * @param resultCacheTtlParameter time after which the cached results expire.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.result-cache.ttl")
+    @ConfigDescription("time after which the cached results expire, bounds the time modifications not changing the version of the remote table are missed")
+    public DataCenterConfig setResultCacheTtl(Duration resultCacheTtlParameter)
+    {
+        this.resultCacheTtl = resultCacheTtlParameter;
+        return this;
+    }
 }
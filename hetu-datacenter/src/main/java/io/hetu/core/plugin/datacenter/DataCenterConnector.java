@@ -22,7 +22,9 @@ import io.hetu.core.plugin.datacenter.client.DataCenterClient;
 import io.hetu.core.plugin.datacenter.client.DataCenterStatementClientFactory;
 import io.hetu.core.plugin.datacenter.optimization.DataCenterPlanOptimizer;
 import io.hetu.core.plugin.datacenter.pagesource.DataCenterPageSourceProvider;
+import io.hetu.core.plugin.datacenter.pagesource.DataCenterResultCache;
 import io.prestosql.spi.ConnectorPlanOptimizer;
+import io.prestosql.spi.NodeManager;
 import io.prestosql.spi.connector.CachedConnectorMetadata;
 import io.prestosql.spi.connector.Connector;
 import io.prestosql.spi.connector.ConnectorMetadata;
@@ -73,19 +75,23 @@ public class DataCenterConnector
      * @param lifeCycleManager data center connector life cycle manager.
      * @param dataCenterConfig data center config.
      * @param typeManager the type manager.
+     * @param planOptimizer the plan optimizer pushing down the queries.
+     * @param nodeManager the node manager.
      */
     @Inject
     public DataCenterConnector(
             LifeCycleManager lifeCycleManager,
             DataCenterConfig dataCenterConfig,
             TypeManager typeManager,
-            DataCenterPlanOptimizer planOptimizer)
+            DataCenterPlanOptimizer planOptimizer,
+            NodeManager nodeManager)
     {
         this.lifeCycleManager = requireNonNull(lifeCycleManager, "lifeCycleManager is null");
         this.httpClient = DataCenterStatementClientFactory.newHttpClient(dataCenterConfig);
         this.dataCenterClient = new DataCenterClient(dataCenterConfig, this.httpClient, typeManager);
-        this.splitManager = new DataCenterSplitManager(dataCenterConfig, this.dataCenterClient);
-        this.pageSourceProvider = new DataCenterPageSourceProvider(dataCenterConfig, this.httpClient, typeManager);
+        this.splitManager = new DataCenterSplitManager(dataCenterConfig, this.dataCenterClient, nodeManager);
+        this.pageSourceProvider = new DataCenterPageSourceProvider(dataCenterConfig, this.httpClient, typeManager,
+                new DataCenterResultCache(dataCenterConfig, typeManager));
         this.planOptimizer = planOptimizer;
         if (dataCenterConfig.isMetadataCacheEnabled()) {
             this.metadata = new CachedConnectorMetadata(new DataCenterMetadata(dataCenterClient, dataCenterConfig),
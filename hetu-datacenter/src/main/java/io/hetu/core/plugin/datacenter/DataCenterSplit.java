@@ -22,6 +22,7 @@ import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.connector.ConnectorSplit;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -37,15 +38,35 @@ public class DataCenterSplit
 
     private final boolean isRemotelyAccessible;
 
+    private final OptionalLong tableVersion;
+
+    private final List<HostAddress> addresses;
+
     /**
      * Constructor of data center split.
      *
      * @param queryId query id.
      */
+    public DataCenterSplit(String queryId)
+    {
+        this(queryId, OptionalLong.empty(), ImmutableList.of());
+    }
+
+    /**
+     * Constructor of data center split.
+     *
+     * @param queryId query id.
+     * @param tableVersion version of the remote table, present when the results of the split can be cached.
+     * @param addresses preferred nodes of the split, the node caching its results.
+     */
     @JsonCreator
-    public DataCenterSplit(@JsonProperty("queryId") String queryId)
+    public DataCenterSplit(@JsonProperty("queryId") String queryId,
+            @JsonProperty("tableVersion") OptionalLong tableVersion,
+            @JsonProperty("addresses") List<HostAddress> addresses)
     {
         this.queryId = requireNonNull(queryId, "queryId is null");
+        this.tableVersion = requireNonNull(tableVersion, "tableVersion is null");
+        this.addresses = ImmutableList.copyOf(requireNonNull(addresses, "addresses is null"));
         isRemotelyAccessible = true;
     }
 
@@ -55,6 +76,12 @@ public class DataCenterSplit
         return queryId;
     }
 
+    @JsonProperty
+    public OptionalLong getTableVersion()
+    {
+        return tableVersion;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
@@ -62,10 +89,11 @@ public class DataCenterSplit
         return isRemotelyAccessible;
     }
 
+    @JsonProperty
     @Override
     public List<HostAddress> getAddresses()
     {
-        return ImmutableList.of();
+        return addresses;
     }
 
     @Override
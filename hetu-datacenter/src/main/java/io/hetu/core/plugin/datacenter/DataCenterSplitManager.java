@@ -15,7 +15,13 @@
 
 package io.hetu.core.plugin.datacenter;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import io.hetu.core.plugin.datacenter.client.DataCenterClient;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.Node;
+import io.prestosql.spi.NodeManager;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitManager;
@@ -25,8 +31,13 @@ import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 
 /**
  * Data center split manager.
@@ -36,20 +47,34 @@ import java.util.Optional;
 public class DataCenterSplitManager
         implements ConnectorSplitManager
 {
+    private static final int MAX_SCANNED_TABLE_VERSIONS = 10_000;
+
     private final DataCenterClient client;
 
     private final GlobalQueryIdGenerator globalQueryIdGenerator;
 
+    private final boolean isResultCacheEnabled;
+
+    private final NodeManager nodeManager;
+
+    // the versions of the tables scanned before, a repeated scan is read by a caching split
+    private final Cache<String, Boolean> scannedTableVersions = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SCANNED_TABLE_VERSIONS)
+            .build();
+
     /**
      * Constructor of data center split manager.
      *
      * @param config data center config.
      * @param client data center client.
+     * @param nodeManager node manager.
      */
-    public DataCenterSplitManager(DataCenterConfig config, DataCenterClient client)
+    public DataCenterSplitManager(DataCenterConfig config, DataCenterClient client, NodeManager nodeManager)
     {
         this.client = client;
         this.globalQueryIdGenerator = new GlobalQueryIdGenerator(Optional.ofNullable(config.getRemoteClusterId()));
+        this.isResultCacheEnabled = config.isResultCacheEnabled();
+        this.nodeManager = nodeManager;
     }
 
     @Override
@@ -57,6 +82,17 @@ public class DataCenterSplitManager
             ConnectorTableHandle connectorTableHandle, SplitSchedulingStrategy splitSchedulingStrategy)
     {
         String queryId = globalQueryIdGenerator.createId();
+        if (isResultCacheEnabled) {
+            DataCenterTableHandle tableHandle = (DataCenterTableHandle) connectorTableHandle;
+            OptionalLong tableVersion = getTableVersion(tableHandle);
+            if (tableVersion.isPresent() && isScannedBefore(tableHandle, tableVersion.getAsLong())) {
+                // The results of a repeated scan are read by a single split, so that they are cached
+                // completely by one node, the node is chosen by the table to read the cached results again.
+                // The first scan of a table version keeps the parallel splits, it may never be repeated.
+                return new FixedSplitSource(ImmutableList.of(new DataCenterSplit(queryId, tableVersion,
+                        getCachingNode(tableHandle))));
+            }
+        }
         int splitCount = this.client.getSplits(queryId);
         List<ConnectorSplit> splits = new ArrayList<>(splitCount);
         for (int i = 0; i < splitCount; i++) {
@@ -65,4 +101,36 @@ public class DataCenterSplitManager
 
         return new FixedSplitSource(splits);
     }
+
+    private OptionalLong getTableVersion(DataCenterTableHandle tableHandle)
+    {
+        if (isNullOrEmpty(tableHandle.getCatalogName()) || isNullOrEmpty(tableHandle.getSchemaName())
+                || isNullOrEmpty(tableHandle.getTableName())) {
+            return OptionalLong.empty();
+        }
+        if (!isNullOrEmpty(tableHandle.getPushDownSql())) {
+            // a pushed down join or union reads other tables than the one the handle is named after
+            return OptionalLong.empty();
+        }
+        return client.getTableVersion(tableHandle.getCatalogName(), tableHandle.getSchemaName(),
+                tableHandle.getTableName());
+    }
+
+    private boolean isScannedBefore(DataCenterTableHandle tableHandle, long tableVersion)
+    {
+        String key = tableHandle.getSchemaPrefixedTableName() + "@" + tableVersion;
+        return scannedTableVersions.asMap().putIfAbsent(key, Boolean.TRUE) != null;
+    }
+
+    private List<HostAddress> getCachingNode(DataCenterTableHandle tableHandle)
+    {
+        List<Node> nodes = nodeManager.getWorkerNodes().stream()
+                .sorted(Comparator.comparing(Node::getNodeIdentifier))
+                .collect(toImmutableList());
+        if (nodes.isEmpty()) {
+            return ImmutableList.of();
+        }
+        int index = Math.floorMod(tableHandle.getSchemaPrefixedTableName().hashCode(), nodes.size());
+        return ImmutableList.of(nodes.get(index).getHostAndPort());
+    }
 }
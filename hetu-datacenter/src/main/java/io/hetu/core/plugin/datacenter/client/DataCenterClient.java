@@ -18,6 +18,7 @@ package io.hetu.core.plugin.datacenter.client;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import io.airlift.json.JsonCodec;
+import io.airlift.log.Logger;
 import io.hetu.core.plugin.datacenter.DataCenterColumn;
 import io.hetu.core.plugin.datacenter.DataCenterColumnHandle;
 import io.hetu.core.plugin.datacenter.DataCenterConfig;
@@ -57,6 +58,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Verify.verify;
@@ -76,8 +78,12 @@ import static java.util.Objects.requireNonNull;
  */
 public class DataCenterClient
 {
+    private static final Logger log = Logger.get(DataCenterClient.class);
+
     private static final JsonCodec<Integer> INTEGER_JSON_CODEC = jsonCodec(Integer.class);
 
+    private static final JsonCodec<Long> LONG_JSON_CODEC = jsonCodec(Long.class);
+
     private static final String EXCHANGE_COMPRESSION = "exchange_compression";
 
     private static final String SPLIT_DOT = ".";
@@ -357,6 +363,39 @@ public class DataCenterClient
         return DEFAULT_SPLIT_COUNT;
     }
 
+    /**
+     * Get the version of a remote table, which changes whenever the table is modified.
+     *
+     * @param catalog catalog name.
+     * @param schema schema name.
+     * @param table table name.
+     * @return the version of the table, empty if the remote connector or server does not provide it
+     */
+    public OptionalLong getTableVersion(String catalog, String schema, String table)
+    {
+        HttpUrl url = this.serverUri.newBuilder()
+                .encodedPath("/v1/dc/table/version")
+                .addPathSegment(catalog)
+                .addPathSegment(schema)
+                .addPathSegment(table)
+                .build();
+        Request request = HttpUtil.prepareRequest(url, this.clientSession).build();
+        try {
+            JsonResponse<Long> response = JsonResponse.execute(LONG_JSON_CODEC, httpClient, request);
+            if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
+                Long version = response.getValue();
+                if (version != null && version >= 0) {
+                    return OptionalLong.of(version);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            // servers of older versions do not provide the table versions
+            log.debug(e, "Failed to get the version of table %s.%s.%s", catalog, schema, table);
+        }
+        return OptionalLong.empty();
+    }
+
     /**
      * Execute a query by client session.
      *
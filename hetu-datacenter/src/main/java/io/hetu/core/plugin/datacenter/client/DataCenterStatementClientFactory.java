@@ -85,6 +85,7 @@ public class DataCenterStatementClientFactory
                 .withClientTimeout(config.getClientTimeout())
                 .withMaxAnticipatedDelay(config.getMaxAnticipatedDelay())
                 .withCompression(config.isCompressionEnabled())
+                .withMaxPipelinedRequests(config.getMaxPipelinedRequests())
                 .withProperties(properties)
                 .withTypeManager(typeManager);
         return builder.build();
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.datacenter.pagesource;
+
+import io.airlift.slice.SliceInput;
+import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorPageSource;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import static io.hetu.core.transport.execution.buffer.PagesSerdeUtil.readPages;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Page source reading the results of a remote query from the local result cache.
+ */
+public class DataCenterCachedPageSource
+        implements ConnectorPageSource
+{
+    private final long startTime;
+    private final SliceInput input;
+    private final Iterator<Page> pages;
+    private long readBytes;
+    private boolean closed;
+
+    DataCenterCachedPageSource(PagesSerde pagesSerde, SliceInput input)
+    {
+        this.startTime = System.nanoTime();
+        this.input = requireNonNull(input, "input is null");
+        this.pages = readPages(requireNonNull(pagesSerde, "pagesSerde is null"), input);
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return this.readBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return System.nanoTime() - this.startTime;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return this.closed || !this.pages.hasNext();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (isFinished()) {
+            return null;
+        }
+        Page page = this.pages.next();
+        this.readBytes += page.getSizeInBytes();
+        return page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return 0;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (!this.closed) {
+            this.closed = true;
+            this.input.close();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.datacenter.pagesource;
+
+import io.airlift.log.Logger;
+import io.airlift.slice.SliceOutput;
+import io.hetu.core.plugin.datacenter.pagesource.DataCenterResultCache.CacheKey;
+import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorPageSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static io.hetu.core.transport.execution.buffer.PagesSerdeUtil.writePages;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Page source writing the pages read from the remote data center to the local result cache. The results are
+ * only added to the cache when the remote query finished successfully, and are dropped when they exceed the
+ * maximum size of the cache or the page source is closed early.
+ */
+public class DataCenterCachingPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger LOGGER = Logger.get(DataCenterCachingPageSource.class);
+
+    private final ConnectorPageSource delegate;
+    private final DataCenterResultCache resultCache;
+    private final CacheKey key;
+    private final PagesSerde pagesSerde;
+    private final Path file;
+    private final long maxSizeInBytes;
+    private SliceOutput output;
+
+    DataCenterCachingPageSource(ConnectorPageSource delegate, DataCenterResultCache resultCache, CacheKey key,
+            PagesSerde pagesSerde, Path file, SliceOutput output, long maxSizeInBytes)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
+        this.key = requireNonNull(key, "key is null");
+        this.pagesSerde = requireNonNull(pagesSerde, "pagesSerde is null");
+        this.file = requireNonNull(file, "file is null");
+        this.output = requireNonNull(output, "output is null");
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        Page page;
+        try {
+            page = delegate.getNextPage();
+        }
+        catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+        if (output != null) {
+            if (page != null) {
+                writePages(pagesSerde, output, page);
+                if (output.size() > maxSizeInBytes) {
+                    LOGGER.debug("Results of the remote query exceed the maximum size of the result cache, they are not cached");
+                    abort();
+                }
+            }
+            if (output != null && delegate.isFinished()) {
+                commit();
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try {
+            delegate.close();
+        }
+        finally {
+            abort();
+        }
+    }
+
+    private void commit()
+    {
+        long size = output.size();
+        try {
+            output.close();
+        }
+        catch (IOException e) {
+            LOGGER.warn(e, "Failed to write cached result %s", file);
+            abort();
+            return;
+        }
+        output = null;
+        resultCache.put(key, file, size);
+    }
+
+    private void abort()
+    {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        }
+        catch (IOException e) {
+            LOGGER.debug(e, "Failed to close cached result %s", file);
+        }
+        output = null;
+        DataCenterResultCache.deleteFile(file);
+    }
+}
@@ -19,6 +19,7 @@ import io.hetu.core.plugin.datacenter.DataCenterConfig;
 import io.hetu.core.plugin.datacenter.DataCenterSplit;
 import io.hetu.core.plugin.datacenter.DataCenterTableHandle;
 import io.hetu.core.plugin.datacenter.client.DataCenterStatementClientFactory;
+import io.hetu.core.plugin.datacenter.pagesource.DataCenterResultCache.CacheKey;
 import io.prestosql.client.DataCenterClientSession;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
@@ -58,18 +59,23 @@ public class DataCenterPageSourceProvider
 
     private final TypeManager typeManager;
 
+    private final DataCenterResultCache resultCache;
+
     /**
      * Constructor of data center page source provider.
      *
      * @param config data center config.
      * @param httpClient http client.
      * @param typeManager type manager.
+     * @param resultCache cache of the remote query results.
      */
-    public DataCenterPageSourceProvider(DataCenterConfig config, OkHttpClient httpClient, TypeManager typeManager)
+    public DataCenterPageSourceProvider(DataCenterConfig config, OkHttpClient httpClient, TypeManager typeManager,
+            DataCenterResultCache resultCache)
     {
         this.config = config;
         this.httpClient = httpClient;
         this.typeManager = typeManager;
+        this.resultCache = resultCache;
     }
 
     private static String buildSql(DataCenterTableHandle tableHandler, List<ColumnHandle> columnHandles,
@@ -123,7 +129,21 @@ public class DataCenterPageSourceProvider
             Optional<DynamicFilterSupplier> dynamicFilterSupplier)
     {
         // Build the sql
-        String query = buildSql((DataCenterTableHandle) table, columns, ((DataCenterTableHandle) table).getLimit());
+        DataCenterTableHandle tableHandle = (DataCenterTableHandle) table;
+        DataCenterSplit dataCenterSplit = (DataCenterSplit) split;
+        String query = buildSql(tableHandle, columns, tableHandle.getLimit());
+
+        // The results filtered by dynamic filters are not cached, they depend on the other side of the join
+        Optional<CacheKey> cacheKey = Optional.empty();
+        if (resultCache.isEnabled() && dataCenterSplit.getTableVersion().isPresent()
+                && (dynamicFilterSupplier == null || !dynamicFilterSupplier.isPresent())) {
+            cacheKey = Optional.of(new CacheKey(query, tableHandle.getSchemaPrefixedTableName(),
+                    dataCenterSplit.getTableVersion().getAsLong()));
+            Optional<DataCenterCachedPageSource> cachedPageSource = resultCache.get(cacheKey.get());
+            if (cachedPageSource.isPresent()) {
+                return cachedPageSource.get();
+            }
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -137,7 +157,11 @@ public class DataCenterPageSourceProvider
         // Create a new client session
         DataCenterClientSession clientSession = DataCenterStatementClientFactory.createClientSession(this.config,
                 this.typeManager, properties);
-        return new DataCenterPageSource(this.httpClient, clientSession, query, ((DataCenterSplit) split).getQueryId(),
-                columns, dynamicFilterSupplier);
+        DataCenterPageSource pageSource = new DataCenterPageSource(this.httpClient, clientSession, query,
+                dataCenterSplit.getQueryId(), columns, dynamicFilterSupplier);
+        if (cacheKey.isPresent()) {
+            return resultCache.cache(cacheKey.get(), pageSource);
+        }
+        return pageSource;
     }
 }
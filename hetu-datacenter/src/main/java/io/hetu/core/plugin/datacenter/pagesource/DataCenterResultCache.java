@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.datacenter.pagesource;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.airlift.log.Logger;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.hetu.core.plugin.datacenter.DataCenterConfig;
+import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.hetu.core.transport.execution.buffer.PagesSerdeFactory;
+import io.prestosql.client.block.ExternalBlockEncodingSerde;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.TypeManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the results of the remote queries on the local disk, as serialized pages.
+ * <p>
+ * The results are keyed by the query sent to the remote data center and the version of the remote table,
+ * which is the last modification time reported by the remote cluster, so a modification of the remote table
+ * makes the cached results unreachable. The results expire after a time to live, which bounds how long the
+ * modifications not reported by the version are missed. The least recently used results are evicted when the
+ * cached results exceed the maximum size. The cache is not persistent, the files of a previous run are deleted on startup.
+ */
+public class DataCenterResultCache
+{
+    private static final Logger log = Logger.get(DataCenterResultCache.class);
+
+    private static final String FILE_SUFFIX = ".pages";
+
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final long maxSizeInBytes;
+
+    private final PagesSerde pagesSerde;
+
+    private final Cache<CacheKey, CachedResult> cache;
+
+    /**
+     * Constructor of data center result cache.
+     *
+     * @param config data center config.
+     * @param typeManager type manager.
+     */
+    public DataCenterResultCache(DataCenterConfig config, TypeManager typeManager)
+    {
+        this(config, typeManager, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    DataCenterResultCache(DataCenterConfig config, TypeManager typeManager, Ticker ticker)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isResultCacheEnabled();
+        this.maxSizeInBytes = config.getResultCacheMaxSize().toBytes();
+        this.pagesSerde = new PagesSerdeFactory(new ExternalBlockEncodingSerde(requireNonNull(typeManager, "typeManager is null")),
+                true).createPagesSerde();
+        // a single segment, so that the maximum size applies to all the results and not to each segment
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxSizeInBytes)
+                .expireAfterWrite(config.getResultCacheTtl().toMillis(), MILLISECONDS)
+                .ticker(ticker)
+                .<CacheKey, CachedResult>weigher((key, result) -> (int) Math.min(Integer.MAX_VALUE, result.getSizeInBytes()))
+                .removalListener(DataCenterResultCache::deleteFile)
+                .build();
+        if (enabled) {
+            checkArgument(config.getResultCacheDirectory() != null,
+                    "dc.result-cache.directory must be set when dc.result-cache.enabled is true");
+            this.directory = Paths.get(config.getResultCacheDirectory());
+            cleanDirectory(directory);
+        }
+        else {
+            this.directory = null;
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Get the cached results of a query.
+     *
+     * @param key the query and the version of the remote table.
+     * @return a page source reading the cached pages, empty if the results are not cached.
+     */
+    public Optional<DataCenterCachedPageSource> get(CacheKey key)
+    {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedResult result = cache.getIfPresent(key);
+        if (result == null) {
+            // deletes the files of the expired results
+            cache.cleanUp();
+            return Optional.empty();
+        }
+        try {
+            // an open file can still be read when the result is evicted concurrently
+            InputStreamSliceInput input = new InputStreamSliceInput(Files.newInputStream(result.getFile()), BUFFER_SIZE);
+            return Optional.of(new DataCenterCachedPageSource(pagesSerde, input));
+        }
+        catch (IOException e) {
+            log.debug(e, "Failed to open cached result %s", result.getFile());
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Wrap a page source of the remote query, its pages are cached when it finishes successfully.
+     *
+     * @param key the query and the version of the remote table.
+     * @param delegate page source reading the results from the remote data center.
+     * @return page source caching the pages of the delegate.
+     */
+    public DataCenterCachingPageSource cache(CacheKey key, ConnectorPageSource delegate)
+    {
+        checkArgument(enabled, "result cache is not enabled");
+        Path file = directory.resolve(UUID.randomUUID().toString() + FILE_SUFFIX);
+        try {
+            OutputStreamSliceOutput output = new OutputStreamSliceOutput(Files.newOutputStream(file), BUFFER_SIZE);
+            return new DataCenterCachingPageSource(delegate, this, key, pagesSerde, file, output, maxSizeInBytes);
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to create cached result " + file, e);
+        }
+    }
+
+    void put(CacheKey key, Path file, long sizeInBytes)
+    {
+        // replaces and deletes the results written concurrently by another query
+        cache.put(key, new CachedResult(file, sizeInBytes));
+    }
+
+    long getSize()
+    {
+        return cache.size();
+    }
+
+    private static void deleteFile(RemovalNotification<CacheKey, CachedResult> notification)
+    {
+        deleteFile(notification.getValue().getFile());
+    }
+
+    static void deleteFile(Path file)
+    {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to delete cached result %s", file);
+        }
+    }
+
+    private static void cleanDirectory(Path directory)
+    {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                        .forEach(DataCenterResultCache::deleteFile);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize result cache directory " + directory, e);
+        }
+    }
+
+    /**
+     * Key of the cached results.
+     */
+    public static final class CacheKey
+    {
+        private final String query;
+
+        private final String tableName;
+
+        private final long tableVersion;
+
+        /**
+         * Constructor of the cache key.
+         *
+         * @param query the query sent to the remote data center.
+         * @param tableName fully qualified name of the remote table.
+         * @param tableVersion version of the remote table.
+         */
+        public CacheKey(String query, String tableName, long tableVersion)
+        {
+            this.query = requireNonNull(query, "query is null");
+            this.tableName = requireNonNull(tableName, "tableName is null");
+            this.tableVersion = tableVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return tableVersion == other.tableVersion &&
+                    query.equals(other.query) &&
+                    tableName.equals(other.tableName);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(query, tableName, tableVersion);
+        }
+    }
+
+    private static final class CachedResult
+    {
+        private final Path file;
+
+        private final long sizeInBytes;
+
+        private CachedResult(Path file, long sizeInBytes)
+        {
+            this.file = file;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        private Path getFile()
+        {
+            return file;
+        }
+
+        private long getSizeInBytes()
+        {
+            return sizeInBytes;
+        }
+    }
+}
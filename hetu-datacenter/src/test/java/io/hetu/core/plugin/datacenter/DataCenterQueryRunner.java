@@ -61,7 +61,7 @@ final class DataCenterQueryRunner
             queryRunner.installPlugin(new DataCenterPlugin());
             queryRunner.createDCCatalog("dc", "dc", connectorProperties);
             queryRunner.installPlugin(new TpchPlugin());
-            queryRunner.createCatalog("tpch", "tpch", properties);
+            queryRunner.createCatalog("tpch", "tpch");
 
             return queryRunner;
         }
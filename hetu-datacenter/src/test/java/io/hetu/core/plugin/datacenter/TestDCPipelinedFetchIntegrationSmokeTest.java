@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.hetu.core.plugin.datacenter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.server.testing.TestingPrestoServer;
+import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.AfterClass;
+
+import java.io.IOException;
+
+import static io.airlift.tpch.TpchTable.ORDERS;
+import static io.hetu.core.plugin.datacenter.DataCenterQueryRunner.createDCQueryRunner;
+
+public class TestDCPipelinedFetchIntegrationSmokeTest
+        extends AbstractTestIntegrationSmokeTest
+{
+    private final TestingPrestoServer hetuServer;
+
+    public TestDCPipelinedFetchIntegrationSmokeTest()
+            throws Exception
+    {
+        this(new TestingPrestoServer(
+                ImmutableMap.<String, String>builder().put("node-scheduler.include-coordinator", "true").build()));
+    }
+
+    public TestDCPipelinedFetchIntegrationSmokeTest(TestingPrestoServer hetuServer)
+    {
+        super(() -> createDCQueryRunner(hetuServer, ImmutableMap.of("dc.pipelined-fetch.max-requests", "8"), ImmutableList.of(ORDERS)));
+        this.hetuServer = hetuServer;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public final void destroy()
+            throws IOException
+    {
+        hetuServer.close();
+    }
+}
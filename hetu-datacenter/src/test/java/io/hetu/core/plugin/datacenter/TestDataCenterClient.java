@@ -43,6 +43,7 @@ import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
 import static io.prestosql.spi.type.VarcharType.createVarcharType;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 public class TestDataCenterClient
@@ -209,6 +210,15 @@ public class TestDataCenterClient
         assertEquals(splits, 5);
     }
 
+    @Test
+    public void testGetTableVersion()
+    {
+        DataCenterClient client = new DataCenterClient(this.config, httpClient, typeManager);
+        // the tpch connector does not track the modifications of its tables
+        assertFalse(client.getTableVersion("tpch", "tiny", "orders").isPresent());
+        assertFalse(client.getTableVersion("tpch", "tiny", "unknown").isPresent());
+    }
+
     @Test(expectedExceptions = RuntimeException.class)
     public void testPasswordWithoutSSL()
     {
@@ -69,7 +69,12 @@ public class TestDataCenterConfig
                 .setCompressionEnabled(false)
                 .setMaxAnticipatedDelay(new Duration(10, TimeUnit.MINUTES))
                 .setUpdateThreshold(new Duration(1, TimeUnit.MINUTES))
-                .setMaxIdleConnections(20));
+                .setMaxIdleConnections(20)
+                .setMaxPipelinedRequests(1)
+                .setResultCacheEnabled(false)
+                .setResultCacheDirectory(null)
+                .setResultCacheMaxSize(DataSize.valueOf("1GB"))
+                .setResultCacheTtl(new Duration(1, TimeUnit.HOURS)));
     }
 
     @Test
@@ -110,6 +115,11 @@ public class TestDataCenterConfig
                 .put("dc.max.anticipated.delay", "5s")
                 .put("hetu.dc.catalog.update.threshold", "2m")
                 .put("dc.httpclient.maximum.idle.connections", "10")
+                .put("dc.pipelined-fetch.max-requests", "8")
+                .put("dc.result-cache.enabled", "true")
+                .put("dc.result-cache.directory", "/tmp/dc-result-cache")
+                .put("dc.result-cache.max-size", "16GB")
+                .put("dc.result-cache.ttl", "10m")
                 .build();
 
         DataCenterConfig expected = new DataCenterConfig().setConnectionUrl(URI.create("http://127.0.0.1:9002"))
@@ -145,7 +155,12 @@ public class TestDataCenterConfig
                 .setCompressionEnabled(true)
                 .setMaxAnticipatedDelay(new Duration(5, TimeUnit.SECONDS))
                 .setUpdateThreshold(new Duration(2, TimeUnit.MINUTES))
-                .setMaxIdleConnections(10);
+                .setMaxIdleConnections(10)
+                .setMaxPipelinedRequests(8)
+                .setResultCacheEnabled(true)
+                .setResultCacheDirectory("/tmp/dc-result-cache")
+                .setResultCacheMaxSize(DataSize.valueOf("16GB"))
+                .setResultCacheTtl(new Duration(10, TimeUnit.MINUTES));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
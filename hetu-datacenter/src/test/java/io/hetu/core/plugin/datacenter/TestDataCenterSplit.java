@@ -15,9 +15,12 @@
 
 package io.hetu.core.plugin.datacenter;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
+import io.prestosql.spi.HostAddress;
 import org.testng.annotations.Test;
 
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import static io.airlift.json.JsonCodec.jsonCodec;
@@ -48,4 +51,16 @@ public class TestDataCenterSplit
 
         assertEquals(copy.isRemotelyAccessible(), true);
     }
+
+    @Test
+    public void testCachingSplitJsonRoundTrip()
+    {
+        JsonCodec<DataCenterSplit> codec = jsonCodec(DataCenterSplit.class);
+        DataCenterSplit cachingSplit = new DataCenterSplit(queryId, OptionalLong.of(1234L),
+                ImmutableList.of(HostAddress.fromParts("127.0.0.1", 8080)));
+        DataCenterSplit copy = codec.fromJson(codec.toJson(cachingSplit));
+        assertEquals(copy.getQueryId(), queryId);
+        assertEquals(copy.getTableVersion(), OptionalLong.of(1234L));
+        assertEquals(copy.getAddresses(), ImmutableList.of(HostAddress.fromParts("127.0.0.1", 8080)));
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.datacenter;
+
+import io.hetu.core.plugin.datacenter.client.DataCenterClient;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.spi.connector.ConnectorSplitSource;
+import io.prestosql.spi.type.testing.TestingTypeManager;
+import io.prestosql.testing.TestingNodeManager;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static io.prestosql.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy.UNGROUPED_SCHEDULING;
+import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestDataCenterSplitManager
+{
+    private static final int SPLIT_COUNT = 3;
+    private static final long TABLE_VERSION = 1234L;
+
+    @Test
+    public void testRepeatedScanIsReadBySingleSplit()
+            throws Exception
+    {
+        DataCenterSplitManager splitManager = createSplitManager();
+        DataCenterTableHandle tableHandle = new DataCenterTableHandle("hive", "tpch", "orders", OptionalLong.empty());
+
+        // the first scan of a table version keeps the parallel splits and is not cached
+        List<ConnectorSplit> splits = getSplits(splitManager, tableHandle);
+        assertEquals(splits.size(), SPLIT_COUNT);
+        assertFalse(((DataCenterSplit) splits.get(0)).getTableVersion().isPresent());
+
+        splits = getSplits(splitManager, tableHandle);
+        assertEquals(splits.size(), 1);
+        assertEquals(((DataCenterSplit) splits.get(0)).getTableVersion(), OptionalLong.of(TABLE_VERSION));
+    }
+
+    @Test
+    public void testPushedDownQueryIsNotCached()
+            throws Exception
+    {
+        DataCenterSplitManager splitManager = createSplitManager();
+        DataCenterTableHandle tableHandle = new DataCenterTableHandle("hive", "tpch", "orders", OptionalLong.empty(),
+                "SELECT * FROM hive.tpch.orders JOIN hive.tpch.lineitem USING (orderkey)");
+
+        for (int i = 0; i < 2; i++) {
+            List<ConnectorSplit> splits = getSplits(splitManager, tableHandle);
+            assertEquals(splits.size(), SPLIT_COUNT);
+            assertFalse(((DataCenterSplit) splits.get(0)).getTableVersion().isPresent());
+        }
+    }
+
+    private static DataCenterSplitManager createSplitManager()
+    {
+        DataCenterConfig config = new DataCenterConfig()
+                .setConnectionUrl(URI.create("http://127.0.0.1:8080"))
+                .setResultCacheEnabled(true);
+        DataCenterClient client = new DataCenterClient(config, null, new TestingTypeManager())
+        {
+            @Override
+            public int getSplits(String globalQueryId)
+            {
+                return SPLIT_COUNT;
+            }
+
+            @Override
+            public OptionalLong getTableVersion(String catalog, String schema, String table)
+            {
+                return OptionalLong.of(TABLE_VERSION);
+            }
+        };
+        return new DataCenterSplitManager(config, client, new TestingNodeManager());
+    }
+
+    private static List<ConnectorSplit> getSplits(DataCenterSplitManager splitManager, DataCenterTableHandle tableHandle)
+            throws Exception
+    {
+        ConnectorSplitSource splitSource = splitManager.getSplits(null, null, tableHandle, UNGROUPED_SCHEDULING);
+        return splitSource.getNextBatch(NOT_PARTITIONED, 1000).get().getSplits();
+    }
+}
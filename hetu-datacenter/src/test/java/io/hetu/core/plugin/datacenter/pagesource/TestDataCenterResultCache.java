@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.datacenter.pagesource;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.hetu.core.plugin.datacenter.DataCenterConfig;
+import io.hetu.core.plugin.datacenter.pagesource.DataCenterResultCache.CacheKey;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.FixedPageSource;
+import io.prestosql.spi.type.testing.TestingTypeManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestDataCenterResultCache
+{
+    private static final String QUERY = "SELECT orderkey FROM tpch.tiny.orders";
+    private static final String TABLE = "tpch.tiny.orders";
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        directory = Files.createTempDirectory("dc-result-cache");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(directory, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testCacheResults()
+            throws IOException
+    {
+        DataCenterResultCache cache = createCache(DataSize.valueOf("1MB"));
+        CacheKey key = new CacheKey(QUERY, TABLE, 1);
+        List<Page> pages = ImmutableList.of(createPage(0, 100), createPage(100, 50));
+        assertEquals(readAll(cache.cache(key, new FixedPageSource(pages))), 150);
+
+        assertEquals(readAll(cache.get(key).get()), 150);
+        // the results of another version of the table are not reused
+        assertFalse(cache.get(new CacheKey(QUERY, TABLE, 2)).isPresent());
+        assertFalse(cache.get(new CacheKey("SELECT custkey FROM tpch.tiny.orders", TABLE, 1)).isPresent());
+    }
+
+    @Test
+    public void testDropIncompleteResults()
+            throws IOException
+    {
+        DataCenterResultCache cache = createCache(DataSize.valueOf("1MB"));
+        CacheKey key = new CacheKey(QUERY, TABLE, 1);
+        ConnectorPageSource pageSource = cache.cache(key, new FixedPageSource(ImmutableList.of(createPage(0, 100), createPage(100, 100))));
+        pageSource.getNextPage();
+        pageSource.close();
+
+        assertFalse(cache.get(key).isPresent());
+        assertEquals(countFiles(), 0);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed()
+            throws IOException
+    {
+        DataCenterResultCache cache = createCache(DataSize.valueOf("20kB"));
+        CacheKey first = new CacheKey(QUERY, TABLE, 1);
+        CacheKey second = new CacheKey(QUERY, TABLE, 2);
+        CacheKey third = new CacheKey(QUERY, TABLE, 3);
+        readAll(cache.cache(first, new FixedPageSource(ImmutableList.of(createPage(0, 1000)))));
+        readAll(cache.cache(second, new FixedPageSource(ImmutableList.of(createPage(0, 1000)))));
+        readAll(cache.get(first).get());
+        readAll(cache.cache(third, new FixedPageSource(ImmutableList.of(createPage(0, 1000)))));
+
+        assertTrue(cache.get(first).isPresent());
+        assertFalse(cache.get(second).isPresent());
+        assertTrue(cache.get(third).isPresent());
+        assertEquals(countFiles(), 2);
+    }
+
+    @Test
+    public void testExpireResults()
+            throws IOException
+    {
+        TestingTicker ticker = new TestingTicker();
+        DataCenterConfig config = createConfig(DataSize.valueOf("1MB"))
+                .setResultCacheTtl(new Duration(10, MINUTES));
+        DataCenterResultCache cache = new DataCenterResultCache(config, new TestingTypeManager(), ticker);
+        CacheKey key = new CacheKey(QUERY, TABLE, 1);
+        readAll(cache.cache(key, new FixedPageSource(ImmutableList.of(createPage(0, 100)))));
+
+        ticker.increment(9, MINUTES);
+        assertTrue(cache.get(key).isPresent());
+        // a modification not changing the version of the table is read after the results expire
+        ticker.increment(1, MINUTES);
+        assertFalse(cache.get(key).isPresent());
+        assertEquals(countFiles(), 0);
+    }
+
+    @Test
+    public void testResultsLargerThanCache()
+            throws IOException
+    {
+        DataCenterResultCache cache = createCache(DataSize.valueOf("4kB"));
+        CacheKey key = new CacheKey(QUERY, TABLE, 1);
+        assertEquals(readAll(cache.cache(key, new FixedPageSource(ImmutableList.of(createPage(0, 1000), createPage(0, 1000))))), 2000);
+
+        assertFalse(cache.get(key).isPresent());
+        assertEquals(countFiles(), 0);
+    }
+
+    private DataCenterResultCache createCache(DataSize maxSize)
+    {
+        return new DataCenterResultCache(createConfig(maxSize), new TestingTypeManager());
+    }
+
+    private DataCenterConfig createConfig(DataSize maxSize)
+    {
+        return new DataCenterConfig()
+                .setResultCacheEnabled(true)
+                .setResultCacheDirectory(directory.toString())
+                .setResultCacheMaxSize(maxSize);
+    }
+
+    private long countFiles()
+            throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static long readAll(ConnectorPageSource pageSource)
+            throws IOException
+    {
+        long positions = 0;
+        try {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    positions += page.getPositionCount();
+                }
+            }
+        }
+        finally {
+            pageSource.close();
+        }
+        return positions;
+    }
+
+    private static Page createPage(long start, int positions)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, positions);
+        for (int i = 0; i < positions; i++) {
+            // scrambled values, the pages are compressed in the cache
+            BIGINT.writeLong(blockBuilder, (start + i) * 0x9E3779B97F4A7C15L);
+        }
+        return new Page(blockBuilder.build());
+    }
+}
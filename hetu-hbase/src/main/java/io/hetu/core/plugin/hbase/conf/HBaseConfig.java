@@ -15,8 +15,12 @@
 package io.hetu.core.plugin.hbase.conf;
 
 import io.airlift.configuration.Config;
+import io.airlift.units.DataSize;
+import io.hetu.core.plugin.hbase.utils.Constants;
 import io.prestosql.spi.function.Mandatory;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+
 /**
  * hbase.properties
  *
@@ -42,6 +46,9 @@ public class HBaseConfig
     private String principalUsername; // principal username
     private String kerberos;
     private boolean isClientSideEnable; // use client side mode
+    private int scanCaching = Constants.SCAN_CACHING_SIZE; // rows fetched per scanner rpc
+    private boolean isSplitByRegionEnable; // create the scan splits from the regions instead of split_by_char
+    private DataSize splitRegionSize = new DataSize(1, GIGABYTE); // larger regions are read by several splits
 
     public int getRetryNumber()
     {
@@ -254,4 +261,37 @@ public class HBaseConfig
     {
         this.retryCreateSnapshotNumber = retryCreateSnapshotNumber;
     }
+
+    public int getScanCaching()
+    {
+        return scanCaching;
+    }
+
+    @Config("hbase.scan.caching")
+    public void setScanCaching(int scanCaching)
+    {
+        this.scanCaching = scanCaching;
+    }
+
+    public boolean isSplitByRegionEnable()
+    {
+        return isSplitByRegionEnable;
+    }
+
+    @Config("hbase.split.by.region.enable")
+    public void setSplitByRegionEnable(boolean isSplitByRegionEnable)
+    {
+        this.isSplitByRegionEnable = isSplitByRegionEnable;
+    }
+
+    public DataSize getSplitRegionSize()
+    {
+        return splitRegionSize;
+    }
+
+    @Config("hbase.split.region.size")
+    public void setSplitRegionSize(DataSize splitRegionSize)
+    {
+        this.splitRegionSize = splitRegionSize;
+    }
 }
@@ -15,13 +15,12 @@
 package io.hetu.core.plugin.hbase.query;
 
 import io.airlift.log.Logger;
-import io.airlift.slice.Slice;
 import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.split.HBaseSplit;
 import io.hetu.core.plugin.hbase.utils.HBaseErrorCode;
+import io.hetu.core.plugin.hbase.utils.Utils;
 import io.hetu.core.plugin.hbase.utils.serializers.HBaseRowSerializer;
 import io.prestosql.spi.PrestoException;
-import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.type.Type;
 import org.apache.hadoop.hbase.TableName;
@@ -34,6 +33,8 @@ import org.apache.hadoop.hbase.util.Bytes;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
@@ -74,13 +75,7 @@ public class HBaseGetRecordCursor
 
             if (hBaseSplit.getRanges().containsKey(hBaseSplit.getTableHandle().getRowIdOrdinal())) {
                 for (Range range : hBaseSplit.getRanges().get(hBaseSplit.getTableHandle().getRowIdOrdinal())) {
-                    Object object = range.getSingleValue();
-                    if (object instanceof Slice) {
-                        rowKeys.add(((Slice) object).toStringUtf8());
-                    }
-                    else {
-                        rowKeys.add(range.getSingleValue().toString());
-                    }
+                    rowKeys.add(Utils.getRowKey(range));
                 }
             }
 
@@ -95,25 +90,28 @@ public class HBaseGetRecordCursor
 
     private Result[] getResults(List<String> rowKeys, Table table)
     {
+        Map<String, Set<String>> projection =
+                Utils.getColumnFamilyProjection(columnHandles, split.getTableHandle().getColumns(), rowIdName);
         List<Get> gets =
                 rowKeys.stream()
                         .map(
                                 rowKey -> {
                                     Get get = new Get(Bytes.toBytes(rowKey));
-                                    for (ColumnHandle ch : columnHandles) {
-                                        if (ch instanceof HBaseColumnHandle) {
-                                            HBaseColumnHandle hch = (HBaseColumnHandle) ch;
-                                            if (!this.rowIdName.equals(hch.getColumnName())) {
-                                                get.addColumn(
-                                                        Bytes.toBytes(hch.getFamily().get()),
-                                                        Bytes.toBytes(hch.getQualifier().get()));
-                                            }
-                                        }
-                                    }
+                                    projection.forEach(
+                                            (family, qualifiers) -> {
+                                                if (qualifiers.isEmpty()) {
+                                                    get.addFamily(Bytes.toBytes(family));
+                                                }
+                                                for (String qualifier : qualifiers) {
+                                                    get.addColumn(Bytes.toBytes(family), Bytes.toBytes(qualifier));
+                                                }
+                                            });
                                     return get;
                                 })
                         .collect(Collectors.toList());
 
+        // the rowKeys of a split are hosted by the same region server, they are fetched by one multi-get
+        long start = System.nanoTime();
         try {
             return table.get(gets);
         }
@@ -121,6 +119,9 @@ public class HBaseGetRecordCursor
             LOG.error(e.getMessage(), e);
             return new Result[0];
         }
+        finally {
+            readTimeNanos += System.nanoTime() - start;
+        }
     }
 
     @Override
@@ -135,6 +136,7 @@ public class HBaseGetRecordCursor
                 serializer.reset();
                 if (record.getRow() != null) {
                     serializer.deserialize(record, this.defaultValue);
+                    bytesRead += Result.getTotalSizeOfCells(record);
                 }
                 this.currentRecordIndex++;
                 return true;
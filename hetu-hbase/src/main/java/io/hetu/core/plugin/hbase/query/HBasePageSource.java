@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.hbase.query;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * HBasePageSource reads the rows of a split into pages. A page holds at most as many rows as one scanner rpc
+ * fetches, so that every page is built from the rows already transferred from the region server.
+ */
+public class HBasePageSource
+        implements ConnectorPageSource
+{
+    private final HBaseRecordCursor cursor;
+
+    private final List<Type> types;
+
+    private final PageBuilder pageBuilder;
+
+    private final int maxRowsPerPage;
+
+    private boolean finished;
+
+    private boolean closed;
+
+    /**
+     * constructor
+     *
+     * @param recordSet recordSet
+     * @param maxRowsPerPage maxRowsPerPage
+     */
+    public HBasePageSource(HBaseRecordSet recordSet, int maxRowsPerPage)
+    {
+        requireNonNull(recordSet, "recordSet is null");
+        checkArgument(maxRowsPerPage > 0, "maxRowsPerPage must be positive");
+        this.cursor = (HBaseRecordCursor) requireNonNull(recordSet.cursor(), "cursor is null");
+        this.types = recordSet.getColumnTypes();
+        this.pageBuilder = new PageBuilder(types);
+        this.maxRowsPerPage = maxRowsPerPage;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return cursor.getCompletedBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return cursor.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return closed || (finished && pageBuilder.isEmpty());
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        while (!finished && !pageBuilder.isFull() && pageBuilder.getPositionCount() < maxRowsPerPage) {
+            if (!cursor.advanceNextPosition()) {
+                finished = true;
+                break;
+            }
+            pageBuilder.declarePosition();
+            for (int column = 0; column < types.size(); column++) {
+                appendValue(column, pageBuilder.getBlockBuilder(column));
+            }
+        }
+
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    private void appendValue(int column, BlockBuilder output)
+    {
+        Type type = types.get(column);
+        if (cursor.isNull(column)) {
+            output.appendNull();
+            return;
+        }
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            type.writeBoolean(output, cursor.getBoolean(column));
+        }
+        else if (javaType == long.class) {
+            type.writeLong(output, cursor.getLong(column));
+        }
+        else if (javaType == double.class) {
+            type.writeDouble(output, cursor.getDouble(column));
+        }
+        else if (javaType == Slice.class) {
+            Slice slice = cursor.getSlice(column);
+            type.writeSlice(output, slice, 0, slice.length());
+        }
+        else {
+            type.writeObject(output, cursor.getObject(column));
+        }
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return pageBuilder.getSizeInBytes();
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        cursor.close();
+    }
+}
@@ -25,7 +25,6 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
-import io.prestosql.spi.connector.RecordPageSource;
 import io.prestosql.spi.connector.RecordSet;
 
 import javax.inject.Inject;
@@ -96,7 +95,7 @@ public class HBasePageSourceProvider
             return new HBaseUpdatablePageSource(hbaseRecordSet, hbaseConnection);
         }
         else {
-            return new RecordPageSource(recordSet);
+            return new HBasePageSource(hbaseRecordSet, hbaseConnection.getHbaseConfig().getScanCaching());
         }
     }
 }
@@ -93,6 +93,11 @@ public class HBaseRecordCursor
      */
     public long bytesRead;
 
+    /**
+     * read time
+     */
+    public long readTimeNanos;
+
     /**
      * hbase split
      */
@@ -176,7 +181,7 @@ public class HBaseRecordCursor
     @Override
     public long getReadTimeNanos()
     {
-        return 0;
+        return readTimeNanos;
     }
 
     @Override
@@ -189,13 +194,20 @@ public class HBaseRecordCursor
     @Override
     public boolean advanceNextPosition()
     {
-        if (iterator.hasNext()) {
-            serializer.reset();
-            Result row = iterator.next();
-            serializer.deserialize(row, this.defaultValue);
-            return true;
+        long start = System.nanoTime();
+        try {
+            if (iterator.hasNext()) {
+                serializer.reset();
+                Result row = iterator.next();
+                serializer.deserialize(row, this.defaultValue);
+                bytesRead += Result.getTotalSizeOfCells(row);
+                return true;
+            }
+            return false;
+        }
+        finally {
+            readTimeNanos += System.nanoTime() - start;
         }
-        return false;
     }
 
     @Override
@@ -22,7 +22,6 @@ import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.hetu.core.plugin.hbase.connector.HBaseTableHandle;
 import io.hetu.core.plugin.hbase.split.HBaseSplit;
-import io.hetu.core.plugin.hbase.utils.Constants;
 import io.hetu.core.plugin.hbase.utils.Utils;
 import io.hetu.core.plugin.hbase.utils.serializers.HBaseRowSerializer;
 import io.prestosql.spi.connector.ConnectorSession;
@@ -57,7 +56,6 @@ import org.apache.hadoop.hbase.snapshot.SnapshotManifest;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -143,9 +141,6 @@ public class HBaseRecordSet
             fieldToColumnName[i] = hc.getName();
 
             if (!hc.getName().equals(rowIdName)) {
-                scan.addColumn(
-                        hc.getFamily().get().getBytes(Charset.forName("UTF-8")),
-                        hc.getQualifier().get().getBytes(Charset.forName("UTF-8")));
                 this.serializer.setMapping(hc.getName(), hc.getFamily().get(), hc.getQualifier().get());
             }
         }
@@ -235,14 +230,15 @@ public class HBaseRecordSet
      */
     public void setAttributeToScan(boolean setFilter)
     {
-        columnHandles.stream()
+        // only read the families of the requested columns, and the whole family if all its columns are requested
+        Utils.getColumnFamilyProjection(columnHandles, table.getColumns(), rowIdName)
                 .forEach(
-                        columnHandle -> {
-                            if (this.rowIdName == null
-                                    || !this.rowIdName.equals(columnHandle.getColumnName())) {
-                                scan.addColumn(
-                                        Bytes.toBytes(columnHandle.getFamily().get()),
-                                        Bytes.toBytes(columnHandle.getQualifier().get()));
+                        (family, qualifiers) -> {
+                            if (qualifiers.isEmpty()) {
+                                scan.addFamily(Bytes.toBytes(family));
+                            }
+                            for (String qualifier : qualifiers) {
+                                scan.addColumn(Bytes.toBytes(family), Bytes.toBytes(qualifier));
                             }
                         });
 
@@ -255,13 +251,18 @@ public class HBaseRecordSet
         }
 
         if (split.getStartRow() != null && !split.getStartRow().isEmpty()) {
-            scan.withStartRow(Bytes.toBytes(split.getStartRow()));
+            scan.withStartRow(Bytes.toBytesBinary(split.getStartRow()));
         }
         if (split.getEndRow() != null && !split.getEndRow().isEmpty()) {
-            scan.withStopRow(Bytes.toBytes(split.getEndRow()));
+            scan.withStopRow(Bytes.toBytesBinary(split.getEndRow()));
         }
 
-        scan.setCaching(Constants.SCAN_CACHING_SIZE);
+        // a scan with limit does not need to fetch more rows per rpc than the limit
+        int caching = hBaseConnection.getHbaseConfig().getScanCaching();
+        if (table.getLimit().isPresent()) {
+            caching = (int) Math.max(1, Math.min(caching, table.getLimit().getAsLong()));
+        }
+        scan.setCaching(caching);
         scan.setLoadColumnFamiliesOnDemand(true);
         scan.setCacheBlocks(true);
     }
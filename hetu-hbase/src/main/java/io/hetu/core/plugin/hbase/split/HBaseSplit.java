@@ -56,8 +56,8 @@ public class HBaseSplit
      * @param rowKeyName rowKeyName
      * @param tableHandle table
      * @param addresses addresses
-     * @param startRow startRow
-     * @param endRow endRow
+     * @param startRow startRow, as string of Bytes.toStringBinary
+     * @param endRow endRow, as string of Bytes.toStringBinary
      * @param ranges search ranges
      * @param regionIndex regionIndex
      * @param randomSplit randomSplit
@@ -14,6 +14,7 @@
  */
 package io.hetu.core.plugin.hbase.split;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
 import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
@@ -35,15 +36,25 @@ import io.prestosql.spi.connector.FixedSplitSource;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.RegionMetrics;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.Size;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -85,6 +96,9 @@ public class HBaseSplitManager
         else if (hbaseConnection.getHbaseConfig().isClientSideEnable()) {
             splits = getSplitsForClientSide(tupleDomain, tableHandle);
         }
+        else if (hbaseConnection.getHbaseConfig().isSplitByRegionEnable()) {
+            splits = getSplitsForRegions(tupleDomain, tableHandle);
+        }
         else {
             splits = getSplitsForScan(tupleDomain, tableHandle);
         }
@@ -120,8 +134,8 @@ public class HBaseSplitManager
                             tableHandle.getRowId(),
                             tableHandle,
                             hostAddresses,
-                            String.valueOf(startAndEndRowKey.getStart()),
-                            startAndEndRowKey.getEnd() + Constants.ROWKEY_TAIL,
+                            Bytes.toStringBinary(Bytes.toBytes(String.valueOf(startAndEndRowKey.getStart()))),
+                            Bytes.toStringBinary(Bytes.toBytes(startAndEndRowKey.getEnd() + Constants.ROWKEY_TAIL)),
                             ranges,
                             -1,
                             false,
@@ -132,6 +146,51 @@ public class HBaseSplitManager
         return splits;
     }
 
+    /**
+     * Create one split per region of the table, so that every split is read from a single region server and the
+     * scheduler can assign it to a worker running on the same host. Regions larger than hbase.split.region.size are
+     * divided into several splits, which read the region in parallel.
+     *
+     * @param tupleDomain tupleDomain
+     * @param tableHandle tableHandle
+     * @return splits
+     */
+    private List<HBaseSplit> getSplitsForRegions(TupleDomain<ColumnHandle> tupleDomain, HBaseTableHandle tableHandle)
+    {
+        List<HBaseSplit> splits = new ArrayList<>();
+        TableName hbaseTableName = TableName.valueOf(tableHandle.getHbaseTableName().get());
+        Map<Integer, List<Range>> ranges = predicateTransferToRanges(tupleDomain.getDomains().get());
+        List<HRegionLocation> locations;
+        try (RegionLocator regionLocator = hbaseConnection.getConn().getRegionLocator(hbaseTableName)) {
+            locations = regionLocator.getAllRegionLocations();
+        }
+        catch (IOException e) {
+            throw new PrestoException(HBaseErrorCode.UNEXPECTED_HBASE_ERROR,
+                    format("Failed to get the regions of %s", hbaseTableName.getNameAsString()), e);
+        }
+
+        Map<String, Long> regionSizes = getRegionSizes(hbaseTableName, locations);
+        for (HRegionLocation location : locations) {
+            List<HostAddress> hostAddresses = getHostAddresses(location);
+            List<byte[]> keys = getSplitKeys(location.getRegion(), regionSizes);
+            for (int index = 0; index < keys.size() - 1; index++) {
+                splits.add(new HBaseSplit(
+                        tableHandle.getRowId(),
+                        tableHandle,
+                        hostAddresses,
+                        Bytes.toStringBinary(keys.get(index)),
+                        Bytes.toStringBinary(keys.get(index + 1)),
+                        ranges,
+                        -1,
+                        false,
+                        null));
+            }
+        }
+
+        printSplits("Region", splits);
+        return splits;
+    }
+
     /**
      * In order to get more splits to improve concurrency of tableScan, we slice the split by different character.
      * HBase server support to use startRow and EndRow to get scanner.
@@ -227,7 +286,8 @@ public class HBaseSplitManager
         // get regions from snapshot
         List<RegionInfo> regionInfos = Utils.getRegionInfos(snapshotName, hbaseConnection);
         List<HostAddress> hostAddresses = new ArrayList<>();
-        // create splits
+        // create splits, the regions of the snapshot are not divided, as the live region sizes and locations
+        // may not match the snapshot
         for (int index = 0; index < regionInfos.size(); index++) {
             // Client side region scanner using no startKey and endKey.
             splits.add(new HBaseSplit(tableHandle.getRowId(),
@@ -248,6 +308,8 @@ public class HBaseSplitManager
     /**
      * If the predicate of sql includes "rowKey='xxx'" or "rowKey in ('xxx','xxx')",
      * we can specify rowkey values in each split, then performance will be good.
+     * The rowKeys are grouped by the region server hosting them, so that the multi-get of every split
+     * is sent to a single region server, from a worker running on the same host if there is one.
      *
      * @param tupleDomain tupleDomain
      * @param tableHandle tableHandle
@@ -278,21 +340,139 @@ public class HBaseSplitManager
             maxSplitSize = Constants.BATCHGET_SPLIT_RECORD_COUNT;
         }
 
-        List<HostAddress> hostAddresses = new ArrayList<>();
-        int rangeSize = rowIds.size();
-        int currentIndex = 0;
-        while (currentIndex < rangeSize) {
-            int endIndex = rangeSize - currentIndex > maxSplitSize ? (currentIndex + maxSplitSize) : rangeSize;
-            Map<Integer, List<Range>> splitRange = new HashMap<>();
-            splitRange.put(tableHandle.getRowIdOrdinal(), rowIds.subList(currentIndex, endIndex));
-            splits.add(new HBaseSplit(tableHandle.getRowId(), tableHandle, hostAddresses, null, null, splitRange, -1, false, null));
-            currentIndex = endIndex;
+        Map<String, List<Range>> rowIdsByServer = new LinkedHashMap<>();
+        Map<String, List<HostAddress>> hostAddressesByServer = new HashMap<>();
+        TableName hbaseTableName = TableName.valueOf(tableHandle.getHbaseTableName().get());
+        try (RegionLocator regionLocator = hbaseConnection.getConn().getRegionLocator(hbaseTableName)) {
+            for (Range rowId : rowIds) {
+                HRegionLocation location = rowId.isSingleValue()
+                        ? regionLocator.getRegionLocation(Bytes.toBytes(Utils.getRowKey(rowId)))
+                        : null;
+                String server = (location != null && location.getServerName() != null)
+                        ? location.getServerName().getServerName()
+                        : "";
+                rowIdsByServer.computeIfAbsent(server, key -> new ArrayList<>()).add(rowId);
+                hostAddressesByServer.computeIfAbsent(server, key -> getHostAddresses(location));
+            }
+        }
+        catch (IOException e) {
+            LOG.warn(e, "Failed to locate the rowKeys of %s", hbaseTableName.getNameAsString());
+            rowIdsByServer.clear();
+            rowIdsByServer.put("", rowIds);
+            hostAddressesByServer.put("", new ArrayList<>());
+        }
+
+        for (Map.Entry<String, List<Range>> entry : rowIdsByServer.entrySet()) {
+            List<Range> serverRowIds = entry.getValue();
+            List<HostAddress> hostAddresses = hostAddressesByServer.get(entry.getKey());
+            int rangeSize = serverRowIds.size();
+            int currentIndex = 0;
+            while (currentIndex < rangeSize) {
+                int endIndex = rangeSize - currentIndex > maxSplitSize ? (currentIndex + maxSplitSize) : rangeSize;
+                Map<Integer, List<Range>> splitRange = new HashMap<>();
+                splitRange.put(tableHandle.getRowIdOrdinal(), new ArrayList<>(serverRowIds.subList(currentIndex, endIndex)));
+                splits.add(new HBaseSplit(tableHandle.getRowId(), tableHandle, hostAddresses, null, null, splitRange, -1, false, null));
+                currentIndex = endIndex;
+            }
         }
 
         printSplits("Batch Get", splits);
         return splits;
     }
 
+    /**
+     * Get the store file size of the regions of the table, by region name
+     *
+     * @param tableName tableName
+     * @param locations locations of the regions
+     * @return region sizes
+     */
+    private Map<String, Long> getRegionSizes(TableName tableName, List<HRegionLocation> locations)
+    {
+        Map<String, Long> regionSizes = new HashMap<>();
+        Set<ServerName> servers = locations.stream()
+                .map(HRegionLocation::getServerName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        for (ServerName server : servers) {
+            try {
+                for (RegionMetrics regionMetrics : hbaseConnection.getHbaseAdmin().getRegionMetrics(server, tableName)) {
+                    regionSizes.put(
+                            Bytes.toStringBinary(regionMetrics.getRegionName()),
+                            (long) regionMetrics.getStoreFileSize().get(Size.Unit.BYTE));
+                }
+            }
+            catch (IOException e) {
+                LOG.warn(e, "Failed to get the region sizes of %s from %s", tableName.getNameAsString(), server);
+            }
+        }
+        return regionSizes;
+    }
+
+    /**
+     * Get the keys dividing the region into splits, a region larger than hbase.split.region.size is divided into
+     * one split per hbase.split.region.size of data.
+     *
+     * @param regionInfo regionInfo
+     * @param regionSizes region sizes by region name
+     * @return split keys
+     */
+    private List<byte[]> getSplitKeys(RegionInfo regionInfo, Map<String, Long> regionSizes)
+    {
+        long splitSize = hbaseConnection.getHbaseConfig().getSplitRegionSize().toBytes();
+        long regionSize = regionSizes.getOrDefault(Bytes.toStringBinary(regionInfo.getRegionName()), 0L);
+        int splitCount = (int) Math.min(Constants.SPLIT_MAX_COUNT_PER_REGION, (regionSize + splitSize - 1) / Math.max(splitSize, 1));
+        return getSplitKeys(regionInfo.getStartKey(), regionInfo.getEndKey(), splitCount);
+    }
+
+    /**
+     * Divide the rowKey range of a region evenly, the keys are computed from the region boundaries without reading
+     * the region. The first key is the start key and the last key the end key of the region.
+     *
+     * @param startKey start key of the region, empty for the first region
+     * @param endKey end key of the region, empty for the last region
+     * @param splitCount number of splits
+     * @return split keys
+     */
+    static List<byte[]> getSplitKeys(byte[] startKey, byte[] endKey, int splitCount)
+    {
+        List<byte[]> keys = new ArrayList<>();
+        keys.add(startKey);
+        if (splitCount > 1) {
+            // the rowKeys of the last region are divided up to the largest key as long as the start key
+            byte[] upperKey = endKey;
+            if (endKey.length == 0) {
+                upperKey = new byte[Math.max(startKey.length, 1)];
+                Arrays.fill(upperKey, (byte) 0xFF);
+            }
+            byte[][] splitKeys = Bytes.compareTo(startKey, upperKey) < 0 ? Bytes.split(startKey, upperKey, splitCount - 1) : null;
+            if (splitKeys != null) {
+                // the first and last keys are the padded region boundaries
+                for (int index = 1; index < splitKeys.length - 1; index++) {
+                    if (Bytes.compareTo(splitKeys[index], keys.get(keys.size() - 1)) > 0) {
+                        keys.add(splitKeys[index]);
+                    }
+                }
+            }
+        }
+        keys.add(endKey);
+        return keys;
+    }
+
+    /**
+     * The scheduler prefers the workers running on the host of the region server, if there are any.
+     *
+     * @param location region location
+     * @return host addresses
+     */
+    private static List<HostAddress> getHostAddresses(HRegionLocation location)
+    {
+        if (location == null || location.getHostname() == null) {
+            return new ArrayList<>();
+        }
+        return ImmutableList.of(HostAddress.fromString(location.getHostname()));
+    }
+
     private Map<Integer, List<Range>> predicateTransferToRanges(Map<ColumnHandle, Domain> predicates)
     {
         Map<Integer, List<Range>> ranges = new HashMap<>();
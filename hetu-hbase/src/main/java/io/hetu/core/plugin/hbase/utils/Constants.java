@@ -111,6 +111,11 @@ public class Constants
      */
     public static final int SCAN_CACHING_SIZE = 10000;
 
+    /**
+     * max number of splits a large region is divided into
+     */
+    public static final int SPLIT_MAX_COUNT_PER_REGION = 100;
+
     /**
      * PUT_BATCH_SIZE
      */
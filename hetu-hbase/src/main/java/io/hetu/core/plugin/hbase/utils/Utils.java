@@ -15,6 +15,7 @@
 package io.hetu.core.plugin.hbase.utils;
 
 import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
 import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.prestosql.spi.connector.ColumnHandle;
@@ -36,9 +37,12 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static io.hetu.core.plugin.hbase.utils.Constants.HBASE_DATA_TYPE_NAME_LIST;
 
@@ -82,6 +86,57 @@ public class Utils
         return false;
     }
 
+    /**
+     * Get the rowkey of a single value range of the rowkey column, as it is stored in hbase
+     *
+     * @param range single value range
+     * @return rowKey
+     */
+    public static String getRowKey(Range range)
+    {
+        Object value = range.getSingleValue();
+        if (value instanceof Slice) {
+            return ((Slice) value).toStringUtf8();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Get the column families and qualifiers to read for the columns of a query. A family all columns of which are
+     * read is mapped to an empty set, it is read as a whole instead of column by column.
+     *
+     * @param columns columns of the query
+     * @param tableColumns all columns of the table
+     * @param rowIdName rowIdName
+     * @return qualifiers by family
+     */
+    public static Map<String, Set<String>> getColumnFamilyProjection(
+            List<HBaseColumnHandle> columns, List<HBaseColumnHandle> tableColumns, String rowIdName)
+    {
+        Map<String, Set<String>> projection = new LinkedHashMap<>();
+        for (HBaseColumnHandle column : columns) {
+            if (!column.getName().equals(rowIdName)) {
+                projection.computeIfAbsent(column.getFamily().get(), family -> new HashSet<>())
+                        .add(column.getQualifier().get());
+            }
+        }
+        Map<String, Set<String>> familyColumns = new LinkedHashMap<>();
+        if (tableColumns != null) {
+            for (HBaseColumnHandle column : tableColumns) {
+                if (!column.getName().equals(rowIdName) && column.getFamily().isPresent()) {
+                    familyColumns.computeIfAbsent(column.getFamily().get(), family -> new HashSet<>())
+                            .add(column.getQualifier().get());
+                }
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : projection.entrySet()) {
+            if (entry.getValue().equals(familyColumns.get(entry.getKey()))) {
+                entry.setValue(new HashSet<>());
+            }
+        }
+        return projection;
+    }
+
     /**
      * createTypeByName
      *
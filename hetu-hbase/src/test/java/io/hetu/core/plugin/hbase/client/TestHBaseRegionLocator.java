@@ -14,9 +14,13 @@
  */
 package io.hetu.core.plugin.hbase.client;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionInfoBuilder;
 import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 
 import java.io.IOException;
@@ -31,20 +35,34 @@ import java.util.Optional;
 public class TestHBaseRegionLocator
         implements RegionLocator
 {
+    private static final TableName TABLE_NAME = TableName.valueOf("hbase", "test_table");
+
+    /**
+     * two regions split at the rowKey "m", hosted by the region servers on host1 and host2
+     */
+    public static final List<HRegionLocation> LOCATIONS = ImmutableList.of(
+            new HRegionLocation(
+                    RegionInfoBuilder.newBuilder(TABLE_NAME).setEndKey(Bytes.toBytes("m")).build(),
+                    ServerName.valueOf("host1", 16020, 1L)),
+            new HRegionLocation(
+                    RegionInfoBuilder.newBuilder(TABLE_NAME).setStartKey(Bytes.toBytes("m")).build(),
+                    ServerName.valueOf("host2", 16020, 1L)));
+
     @Override
     public HRegionLocation getRegionLocation(byte[] row)
             throws IOException
     {
-        HRegionLocation getRegionLocation = null;
-        return Optional.ofNullable(getRegionLocation).orElse(getRegionLocation);
+        return LOCATIONS.stream()
+                .filter(location -> location.getRegion().containsRow(row))
+                .findFirst()
+                .orElse(null);
     }
 
     @Override
     public HRegionLocation getRegionLocation(byte[] row, boolean reload)
             throws IOException
     {
-        HRegionLocation getRegionLocation = null;
-        return Optional.ofNullable(getRegionLocation).orElse(getRegionLocation);
+        return getRegionLocation(row);
     }
 
     @Override
@@ -68,8 +86,7 @@ public class TestHBaseRegionLocator
     public List<HRegionLocation> getAllRegionLocations()
             throws IOException
     {
-        List<HRegionLocation> hrls = null;
-        return Optional.ofNullable(hrls).orElse(hrls);
+        return LOCATIONS;
     }
 
     @Override
@@ -14,8 +14,10 @@
  */
 package io.hetu.core.plugin.hbase.conf;
 
+import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -86,6 +88,15 @@ public class TestHBaseClientConf
 
         hcc.setRetryCreateSnapshotNumber(10);
         assertEquals(10, hcc.getRetryCreateSnapshotNumber());
+
+        hcc.setScanCaching(100);
+        assertEquals(100, hcc.getScanCaching());
+
+        hcc.setSplitByRegionEnable(true);
+        assertEquals(true, hcc.isSplitByRegionEnable());
+
+        hcc.setSplitRegionSize(new DataSize(256, MEGABYTE));
+        assertEquals(new DataSize(256, MEGABYTE), hcc.getSplitRegionSize());
     }
 
     /**
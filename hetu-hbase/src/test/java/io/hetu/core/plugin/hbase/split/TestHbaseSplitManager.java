@@ -14,21 +14,39 @@
  */
 package io.hetu.core.plugin.hbase.split;
 
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
 import io.hetu.core.plugin.hbase.client.TestUtils;
 import io.hetu.core.plugin.hbase.conf.HBaseConfig;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.hetu.core.plugin.hbase.connector.HBaseTableHandle;
 import io.hetu.core.plugin.hbase.connector.TestHBaseClientConnection;
 import io.hetu.core.plugin.hbase.metadata.TestingHetuMetastore;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.stream.Collectors;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * TestHbaseSplitManager
@@ -101,4 +119,88 @@ public class TestHbaseSplitManager
 
         hsm.getSplits(null, null, tableHandle, null);
     }
+
+    /**
+     * testGetSplitsGroupedByRegionServer
+     */
+    @Test
+    public void testGetSplitsGroupedByRegionServer()
+    {
+        Map<ColumnHandle, Domain> domains = new HashMap<>();
+        domains.put(
+                TestUtils.createHBaseColumnHandle("rowkey", "f", "rowkey"),
+                Domain.multipleValues(VARCHAR, ImmutableList.of(
+                        utf8Slice("apple"), utf8Slice("melon"), utf8Slice("banana"), utf8Slice("zebra"), utf8Slice("kiwi"))));
+        HBaseTableHandle tableHandle =
+                new HBaseTableHandle(
+                        "hbase",
+                        "test_table",
+                        "rowkey",
+                        false,
+                        "StringRowSerializer",
+                        Optional.of("test_table"),
+                        "",
+                        TupleDomain.withColumnDomains(domains),
+                        TestUtils.createColumnList(),
+                        0,
+                        OptionalLong.empty());
+
+        List<ConnectorSplit> splits = getFutureValue(hsm.getSplits(null, null, tableHandle, null)
+                .getNextBatch(NOT_PARTITIONED, 100))
+                .getSplits();
+
+        // the rowKeys before "m" are in the region of host1, the others in the region of host2
+        Map<String, List<String>> rowKeysByHost = new HashMap<>();
+        for (ConnectorSplit split : splits) {
+            HBaseSplit hbaseSplit = (HBaseSplit) split;
+            List<HostAddress> addresses = hbaseSplit.getAddresses();
+            assertEquals(addresses.size(), 1);
+            rowKeysByHost.put(
+                    addresses.get(0).getHostText(),
+                    hbaseSplit.getRanges().get(0).stream()
+                            .map(Range::getSingleValue)
+                            .map(value -> ((Slice) value).toStringUtf8())
+                            .collect(Collectors.toList()));
+        }
+        assertEquals(rowKeysByHost.get("host1"), ImmutableList.of("apple", "banana", "kiwi"));
+        assertEquals(rowKeysByHost.get("host2"), ImmutableList.of("melon", "zebra"));
+    }
+
+    /**
+     * testGetSplitKeys
+     */
+    @Test
+    public void testGetSplitKeys()
+    {
+        // a region which is not divided
+        assertSplitKeys(HBaseSplitManager.getSplitKeys(Bytes.toBytes("a"), Bytes.toBytes("b"), 1), "a", "b");
+
+        // the rowKey range is divided evenly, the region boundaries are kept
+        List<byte[]> keys = HBaseSplitManager.getSplitKeys(Bytes.toBytes("a"), Bytes.toBytes("e"), 4);
+        assertSplitKeys(keys, "a", "b", "c", "d", "e");
+
+        // the first and the last region have no start and end key
+        keys = HBaseSplitManager.getSplitKeys(new byte[0], new byte[0], 4);
+        assertEquals(keys.size(), 5);
+        assertEquals(keys.get(0).length, 0);
+        assertEquals(keys.get(4).length, 0);
+        assertIncreasing(keys.subList(0, 4));
+
+        keys = HBaseSplitManager.getSplitKeys(Bytes.toBytes("row5"), new byte[0], 3);
+        assertEquals(keys.size(), 4);
+        assertEquals(keys.get(3).length, 0);
+        assertIncreasing(keys.subList(0, 3));
+    }
+
+    private static void assertSplitKeys(List<byte[]> keys, String... expected)
+    {
+        assertEquals(keys.stream().map(Bytes::toString).collect(Collectors.toList()), ImmutableList.copyOf(expected));
+    }
+
+    private static void assertIncreasing(List<byte[]> keys)
+    {
+        for (int index = 1; index < keys.size(); index++) {
+            assertTrue(Bytes.compareTo(keys.get(index - 1), keys.get(index)) < 0);
+        }
+    }
 }
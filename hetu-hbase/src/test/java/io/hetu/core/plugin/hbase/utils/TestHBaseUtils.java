@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.hbase.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.hetu.core.plugin.hbase.client.TestUtils.createHBaseColumnHandle;
+import static io.hetu.core.plugin.hbase.client.TestUtils.createHBaseColumnRowId;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * TestHBaseUtils
+ *
+ * @since 2020-03-20
+ */
+public class TestHBaseUtils
+{
+    private static final List<HBaseColumnHandle> TABLE_COLUMNS = ImmutableList.of(
+            createHBaseColumnRowId("rowkey"),
+            createHBaseColumnHandle("a", "f1", "q_a", 1),
+            createHBaseColumnHandle("b", "f1", "q_b", 2),
+            createHBaseColumnHandle("c", "f2", "q_c", 3));
+
+    /**
+     * testGetColumnFamilyProjection
+     */
+    @Test
+    public void testGetColumnFamilyProjection()
+    {
+        // all mapped columns of f2 are read, f2 is read as a whole
+        Map<String, Set<String>> projection = Utils.getColumnFamilyProjection(
+                ImmutableList.of(TABLE_COLUMNS.get(0), TABLE_COLUMNS.get(1), TABLE_COLUMNS.get(3)), TABLE_COLUMNS, "rowkey");
+        assertEquals(projection, ImmutableMap.of("f1", ImmutableSet.of("q_a"), "f2", ImmutableSet.of()));
+
+        projection = Utils.getColumnFamilyProjection(TABLE_COLUMNS, TABLE_COLUMNS, "rowkey");
+        assertEquals(projection, ImmutableMap.of("f1", ImmutableSet.of(), "f2", ImmutableSet.of()));
+
+        // the rowKey is not read from a family
+        projection = Utils.getColumnFamilyProjection(ImmutableList.of(TABLE_COLUMNS.get(0)), TABLE_COLUMNS, "rowkey");
+        assertEquals(projection, ImmutableMap.of());
+
+        // without the table columns, every column is read by its qualifier
+        projection = Utils.getColumnFamilyProjection(TABLE_COLUMNS, null, "rowkey");
+        assertEquals(projection, ImmutableMap.of("f1", ImmutableSet.of("q_a", "q_b"), "f2", ImmutableSet.of("q_c")));
+    }
+}
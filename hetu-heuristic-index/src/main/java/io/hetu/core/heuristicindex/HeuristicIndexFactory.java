@@ -22,6 +22,7 @@ import io.hetu.core.plugin.heuristicindex.index.bitmap.BitmapIndex;
 import io.hetu.core.plugin.heuristicindex.index.bloom.BloomIndex;
 import io.hetu.core.plugin.heuristicindex.index.btree.BTreeIndex;
 import io.hetu.core.plugin.heuristicindex.index.minmax.MinMaxIndex;
+import io.hetu.core.plugin.heuristicindex.index.ngram.NgramIndex;
 import io.prestosql.spi.HetuConstant;
 import io.prestosql.spi.connector.CreateIndexMetadata;
 import io.prestosql.spi.filesystem.HetuFileSystemClient;
@@ -51,7 +52,7 @@ public class HeuristicIndexFactory
         implements IndexFactory
 {
     private static final Logger LOG = Logger.get(HeuristicIndexFactory.class);
-    private static final List<Index> supportedIndices = ImmutableList.of(new BloomIndex(), new MinMaxIndex(), new BitmapIndex(), new BTreeIndex());
+    private static final List<Index> supportedIndices = ImmutableList.of(new BloomIndex(), new MinMaxIndex(), new BitmapIndex(), new BTreeIndex(), new NgramIndex());
 
     public HeuristicIndexFactory()
     {
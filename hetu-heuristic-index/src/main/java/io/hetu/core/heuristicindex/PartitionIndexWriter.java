@@ -30,7 +30,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -187,10 +187,7 @@ public class PartitionIndexWriter
                 partitionIndex = HeuristicIndexFactory.createIndex(createIndexMetadata.getIndexType());
             }
 
-            List<Pair<Comparable<? extends Comparable<?>>, String>> values = new ArrayList<>(dataMap.size());
-            for (Map.Entry<Comparable<? extends Comparable<?>>, String> entry : dataMap.entrySet()) {
-                values.add(new Pair<>(entry.getKey(), entry.getValue()));
-            }
+            List<Pair<Comparable<? extends Comparable<?>>, String>> values = sortByKey(dataMap);
             String columnName = createIndexMetadata.getIndexColumns().get(0).getFirst().toLowerCase(Locale.ENGLISH);
             partitionIndex.addKeyValues(Collections.singletonList(new Pair<>(columnName, values)));
 
@@ -225,6 +222,21 @@ public class PartitionIndexWriter
         }
     }
 
+    /**
+     * Sorts the entries by key using all available cores, so the index can be bulk loaded in key order
+     * instead of inserting the keys one at a time.
+     */
+    @VisibleForTesting
+    static List<Pair<Comparable<? extends Comparable<?>>, String>> sortByKey(Map<Comparable<? extends Comparable<?>>, String> dataMap)
+    {
+        @SuppressWarnings("unchecked")
+        Pair<Comparable<? extends Comparable<?>>, String>[] entries = dataMap.entrySet().stream()
+                .map(entry -> new Pair<>(entry.getKey(), entry.getValue()))
+                .toArray(Pair[]::new);
+        Arrays.parallelSort(entries, (first, second) -> ((Comparable) first.getFirst()).compareTo(second.getFirst()));
+        return Arrays.asList(entries);
+    }
+
     @VisibleForTesting
     protected Map<Comparable<? extends Comparable<?>>, String> getDataMap()
     {
@@ -15,10 +15,12 @@
 
 package io.hetu.core.heuristicindex.filter;
 
+import io.hetu.core.plugin.heuristicindex.index.ngram.NgramIndex;
 import io.prestosql.spi.heuristicindex.IndexMetadata;
 import io.prestosql.spi.relation.RowExpression;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class HeuristicIndexSelector
 {
@@ -28,7 +30,25 @@ public class HeuristicIndexSelector
 
     public static List<IndexMetadata> select(RowExpression expression, List<IndexMetadata> candidates)
     {
-        return candidates;
+        if (candidates == null) {
+            return null;
+        }
+        // other index types can not evaluate LIKE and regexp_like, so they would keep every stripe
+        if (NgramIndex.isPatternMatch(expression)) {
+            return candidates.stream()
+                    .filter(HeuristicIndexSelector::isNgramIndex)
+                    .collect(Collectors.toList());
+        }
+        // the candidates are ORed, a matching NGRAM index would keep the stripes the other indexes prune
+        List<IndexMetadata> others = candidates.stream()
+                .filter(candidate -> !isNgramIndex(candidate))
+                .collect(Collectors.toList());
+        return others.isEmpty() ? candidates : others;
+    }
+
+    private static boolean isNgramIndex(IndexMetadata candidate)
+    {
+        return candidate.getIndex() != null && NgramIndex.ID.equals(candidate.getIndex().getId());
     }
 
     public static IndexMetadata pickOne(RowExpression exception, List<IndexMetadata> candidates)
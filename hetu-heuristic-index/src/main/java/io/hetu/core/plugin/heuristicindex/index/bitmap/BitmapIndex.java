@@ -23,7 +23,6 @@ import io.prestosql.spi.predicate.Marker;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.SortedRangeSet;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.mapdb.BTreeMap;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
@@ -140,12 +139,13 @@ public class BitmapIndex
 
         List<Object> columnValues = values.get(0).getSecond();
 
-        Map<Object, ArrayList<Integer>> positions = new HashMap<>();
+        // positions are visited in ascending order, so they are appended to the bitmaps without boxing
+        Map<Object, RoaringBitmap> positions = new HashMap<>();
 
         for (int i = 0; i < columnValues.size(); i++) {
             Object value = columnValues.get(i);
             if (value != null) {
-                positions.computeIfAbsent(value, k -> new ArrayList<>()).add(i);
+                positions.computeIfAbsent(value, k -> new RoaringBitmap()).add(i);
             }
         }
 
@@ -154,9 +154,8 @@ public class BitmapIndex
         }
 
         List<kotlin.Pair> bitmaps = new ArrayList<>(positions.size());
-        for (Map.Entry<Object, ArrayList<Integer>> e : positions.entrySet()) {
-            int[] valuePositions = ArrayUtils.toPrimitive(e.getValue().toArray(new Integer[0]));
-            RoaringBitmap rr = RoaringBitmap.bitmapOf(valuePositions);
+        for (Map.Entry<Object, RoaringBitmap> e : positions.entrySet()) {
+            RoaringBitmap rr = e.getValue();
             rr.runOptimize();
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
             DataOutputStream dos = new DataOutputStream(bos);
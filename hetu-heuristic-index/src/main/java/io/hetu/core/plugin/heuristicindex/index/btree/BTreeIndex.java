@@ -14,6 +14,7 @@
  */
 package io.hetu.core.plugin.heuristicindex.index.btree;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import io.hetu.core.common.filesystem.TempFolder;
 import io.hetu.core.heuristicindex.PartitionIndexWriter;
@@ -48,6 +49,7 @@ import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -76,6 +78,8 @@ public class BTreeIndex
     // when the lookup result's weight in dataMap is larger than this, not much values can be filtered so filtering is not worth
     private static final double TERMINATE_LOOKUP_WEIGHT_THRESHOLD = 0.1;
 
+    private static final Comparator<kotlin.Pair<? extends Comparable<?>, String>> KEY_COMPARATOR = (o1, o2) -> ((Comparable) o1.getFirst()).compareTo(o2.getFirst());
+
     protected Map<String, String> symbolTable;
     protected BTreeMap<Object, String> dataMap;
     protected AtomicBoolean isDBCreated = new AtomicBoolean(false);
@@ -83,7 +87,8 @@ public class BTreeIndex
     protected DB db;
     protected TempFolder dataDir;
     protected File dataFile;
-    protected Set<kotlin.Pair<? extends Comparable<?>, String>> source;
+    // key-value pairs ordered by key, the B-tree is bulk loaded from them when the index is serialized
+    protected Collection<kotlin.Pair<? extends Comparable<?>, String>> source;
     protected String keyType;
     protected String valueType;
 
@@ -189,24 +194,44 @@ public class BTreeIndex
         if (!isDBCreated.get()) {
             setupDB();
         }
+        if (input.size() != 1) {
+            throw new UnsupportedOperationException("Composite B Tree index is not supported");
+        }
+        List<Pair<Comparable<? extends Comparable<?>>, String>> pairs = input.get(0).getSecond();
         if (source == null) {
-            keyType = IndexServiceUtils.extractType(input.get(0).getSecond().get(0).getFirst());
-            valueType = IndexServiceUtils.extractType(input.get(0).getSecond().get(0).getSecond());
-            source = new TreeSet<>((o1, o2) -> {
-                if (input.get(0).getSecond().get(0).getFirst() instanceof Comparable) {
-                    return ((Comparable) o1.getFirst()).compareTo(o2.getFirst());
-                }
-                throw new RuntimeException("Type is not supported");
-            });
+            keyType = IndexServiceUtils.extractType(pairs.get(0).getFirst());
+            valueType = IndexServiceUtils.extractType(pairs.get(0).getSecond());
+            source = new ArrayList<>(pairs.size());
         }
-        if (input.size() == 1) {
-            for (Pair<Comparable<? extends Comparable<?>>, String> pair : input.get(0).getSecond()) {
-                source.add(new kotlin.Pair<Comparable<? extends Comparable<?>>, String>(pair.getFirst(), pair.getSecond()));
-            }
+
+        List<kotlin.Pair<? extends Comparable<?>, String>> entries = new ArrayList<>(pairs.size());
+        for (Pair<Comparable<? extends Comparable<?>>, String> pair : pairs) {
+            entries.add(new kotlin.Pair<Comparable<? extends Comparable<?>>, String>(pair.getFirst(), pair.getSecond()));
+        }
+        if (source instanceof List && isAscending(entries, Iterables.getLast(source, null))) {
+            // keys arriving in ascending order, e.g. pre-sorted by the writer, are appended without a tree insert per key
+            source.addAll(entries);
         }
         else {
-            throw new UnsupportedOperationException("Composite B Tree index is not supported");
+            if (source instanceof List) {
+                TreeSet<kotlin.Pair<? extends Comparable<?>, String>> sorted = new TreeSet<>(KEY_COMPARATOR);
+                sorted.addAll(source);
+                source = sorted;
+            }
+            source.addAll(entries);
+        }
+    }
+
+    private static boolean isAscending(List<kotlin.Pair<? extends Comparable<?>, String>> entries, kotlin.Pair<? extends Comparable<?>, String> previous)
+    {
+        kotlin.Pair<? extends Comparable<?>, String> last = previous;
+        for (kotlin.Pair<? extends Comparable<?>, String> entry : entries) {
+            if (last != null && KEY_COMPARATOR.compare(last, entry) >= 0) {
+                return false;
+            }
+            last = entry;
         }
+        return true;
     }
 
     @Override
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.hetu.core.plugin.heuristicindex.index.ngram;
+
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decomposes strings and search patterns into trigrams.
+ * <p>
+ * A trigram is three consecutive UTF-16 chars packed into a long. For patterns, only the grams of the
+ * literal fragments every matching value must contain are returned. The extraction is conservative:
+ * when a pattern cannot be decomposed safely (e.g. a regular expression with alternation) no gram is
+ * required, so the index never filters out data which could match.
+ */
+public final class NgramExtractor
+{
+    public static final int GRAM_SIZE = 3;
+
+    private static final long[] NO_GRAMS = new long[0];
+
+    private NgramExtractor()
+    {
+    }
+
+    public static void addGrams(String value, LongSet grams)
+    {
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(encode(value, i));
+        }
+    }
+
+    public static long[] fromLiteral(String value)
+    {
+        return fromFragments(ImmutableList.of(value));
+    }
+
+    /**
+     * Grams required by a SQL {@code LIKE} pattern: the literal runs between the {@code %} and {@code _} wildcards.
+     */
+    public static long[] fromLikePattern(String pattern, Optional<Character> escape)
+    {
+        ImmutableList.Builder<String> fragments = ImmutableList.builder();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (escape.isPresent() && c == escape.get() && i + 1 < pattern.length()) {
+                current.append(pattern.charAt(++i));
+            }
+            else if (c == '%' || c == '_') {
+                fragments.add(current.toString());
+                current.setLength(0);
+            }
+            else {
+                current.append(c);
+            }
+        }
+        fragments.add(current.toString());
+        return fromFragments(fragments.build());
+    }
+
+    /**
+     * Grams required by a regular expression: the literal runs outside of groups which are not made optional
+     * by a quantifier. Regular expressions with alternation or inline flags require no gram.
+     */
+    public static long[] fromRegex(String regex)
+    {
+        if (regex.indexOf('|') >= 0 || regex.contains("(?")) {
+            return NO_GRAMS;
+        }
+
+        ImmutableList.Builder<String> fragments = ImmutableList.builder();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i++);
+            switch (c) {
+                case '\\':
+                    if (i < regex.length() && !Character.isLetterOrDigit(regex.charAt(i))) {
+                        // escaped metacharacter, e.g. \. matches a literal dot
+                        appendLiteral(current, regex.charAt(i++), depth);
+                        break;
+                    }
+                    // character classes and code point escapes such as \d, \x41, \p{L}
+                    flush(fragments, current);
+                    while (i < regex.length() && Character.isLetterOrDigit(regex.charAt(i))) {
+                        i++;
+                    }
+                    i = skipBlock(regex, i, '{', '}');
+                    break;
+                case '[':
+                    flush(fragments, current);
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '(':
+                    flush(fragments, current);
+                    depth++;
+                    break;
+                case ')':
+                    flush(fragments, current);
+                    depth = Math.max(depth - 1, 0);
+                    break;
+                case '*':
+                case '?':
+                case '{':
+                    // the preceding char may not be present
+                    if (current.length() > 0) {
+                        current.setLength(current.length() - 1);
+                    }
+                    flush(fragments, current);
+                    if (c == '{') {
+                        i = skipBlock(regex, i - 1, '{', '}');
+                    }
+                    break;
+                case '+':
+                    // the preceding char may be repeated, so it is not followed by the next one
+                    flush(fragments, current);
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                    flush(fragments, current);
+                    break;
+                default:
+                    appendLiteral(current, c, depth);
+            }
+        }
+        flush(fragments, current);
+        return fromFragments(fragments.build());
+    }
+
+    private static void appendLiteral(StringBuilder current, char c, int depth)
+    {
+        // literals inside of groups are ignored, the group may be optional or repeated
+        if (depth == 0) {
+            current.append(c);
+        }
+    }
+
+    private static void flush(ImmutableList.Builder<String> fragments, StringBuilder current)
+    {
+        fragments.add(current.toString());
+        current.setLength(0);
+    }
+
+    private static int skipBlock(String regex, int start, char open, char close)
+    {
+        if (start >= regex.length() || regex.charAt(start) != open) {
+            return start;
+        }
+        int end = regex.indexOf(close, start);
+        return end < 0 ? regex.length() : end + 1;
+    }
+
+    private static int skipCharacterClass(String regex, int start)
+    {
+        int i = start;
+        // a leading ] (after an optional ^) is a literal member of the class
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int nested = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i++);
+            if (c == '\\') {
+                i++;
+            }
+            else if (c == '[') {
+                nested++;
+            }
+            else if (c == ']') {
+                if (nested == 0) {
+                    return i;
+                }
+                nested--;
+            }
+        }
+        return i;
+    }
+
+    private static long[] fromFragments(List<String> fragments)
+    {
+        LongSet grams = new LongOpenHashSet();
+        for (String fragment : fragments) {
+            addGrams(fragment, grams);
+        }
+        return grams.isEmpty() ? NO_GRAMS : grams.toLongArray();
+    }
+
+    private static long encode(String value, int offset)
+    {
+        long gram = 0;
+        for (int i = offset; i < offset + GRAM_SIZE; i++) {
+            gram = (gram << Character.SIZE) | value.charAt(i);
+        }
+        return gram;
+    }
+}
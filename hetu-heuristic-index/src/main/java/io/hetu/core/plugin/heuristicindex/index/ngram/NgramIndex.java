@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.hetu.core.plugin.heuristicindex.index.ngram;
+
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.spi.connector.CreateIndexMetadata;
+import io.prestosql.spi.function.BuiltInFunctionHandle;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.function.Signature;
+import io.prestosql.spi.heuristicindex.Index;
+import io.prestosql.spi.heuristicindex.Pair;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.relation.CallExpression;
+import io.prestosql.spi.relation.RowExpression;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+import static io.prestosql.spi.heuristicindex.TypeUtils.extractValueFromRowExpression;
+import static io.prestosql.spi.heuristicindex.TypeUtils.getActualValue;
+
+/**
+ * N-gram index implementation
+ * <p>
+ * Stores the set of trigrams of all values of a column in a stripe. A stripe can only contain a value
+ * matching {@code col = 'value'}, {@code col LIKE 'pattern'} or {@code regexp_like(col, 'pattern')}
+ * if it contains every trigram of the literal fragments the predicate requires, see {@link NgramExtractor}.
+ */
+public class NgramIndex
+        implements Index
+{
+    public static final String ID = "NGRAM";
+
+    private static final String LIKE_FUNCTION = "like";
+    private static final String LIKE_PATTERN_FUNCTION = "like_pattern";
+    private static final String REGEXP_LIKE_FUNCTION = "regexp_like";
+
+    private static final int SERIALIZATION_VERSION = 1;
+
+    private Properties properties;
+    private final LongOpenHashSet grams = new LongOpenHashSet();
+    // sorted copy of the grams, created when the index is serialized or deserialized
+    private long[] sortedGrams;
+
+    @Override
+    public String getId()
+    {
+        return ID;
+    }
+
+    @Override
+    public Set<CreateIndexMetadata.Level> getSupportedIndexLevels()
+    {
+        return ImmutableSet.of(CreateIndexMetadata.Level.STRIPE);
+    }
+
+    /**
+     * Check if the expression is a string pattern match which can only be evaluated by an n-gram index
+     *
+     * @param expression the expression to check
+     * @return true for {@code LIKE} and {@code regexp_like} calls
+     */
+    public static boolean isPatternMatch(RowExpression expression)
+    {
+        Optional<String> functionName = getFunctionName(expression);
+        return functionName.isPresent() && (functionName.get().equals(LIKE_FUNCTION) || functionName.get().equals(REGEXP_LIKE_FUNCTION));
+    }
+
+    @Override
+    public synchronized boolean addValues(List<Pair<String, List<Object>>> values)
+    {
+        if (sortedGrams != null) {
+            // keep the grams of a deserialized index
+            grams.addAll(LongArrayList.wrap(sortedGrams));
+            sortedGrams = null;
+        }
+        // Currently expecting only one column
+        List<Object> columnIdxValue = values.get(0).getSecond();
+        for (Object value : columnIdxValue) {
+            if (value != null) {
+                NgramExtractor.addGrams(value.toString(), grams);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean matches(Object expression)
+    {
+        // test Domain matching
+        if (expression instanceof Domain) {
+            Domain predicate = (Domain) expression;
+            if (predicate.isSingleValue()) {
+                Object value = getActualValue(predicate.getType(), predicate.getSingleValue());
+                return containsAll(NgramExtractor.fromLiteral(value.toString()));
+            }
+        }
+        else if (expression instanceof CallExpression) {
+            return containsAll(getRequiredGrams((CallExpression) expression));
+        }
+        throw new UnsupportedOperationException("Expression not supported by " + ID + " index.");
+    }
+
+    private static long[] getRequiredGrams(CallExpression callExp)
+    {
+        String functionName = getFunctionName(callExp)
+                .orElseThrow(() -> new UnsupportedOperationException("Unsupported function: " + callExp.getDisplayName()));
+        RowExpression pattern = callExp.getArguments().get(1);
+
+        switch (functionName) {
+            case LIKE_FUNCTION:
+                if (getFunctionName(pattern).filter(LIKE_PATTERN_FUNCTION::equals).isPresent()) {
+                    // LIKE with an ESCAPE clause, the pattern is like_pattern(pattern, escape)
+                    List<RowExpression> arguments = ((CallExpression) pattern).getArguments();
+                    String escape = getStringValue(arguments.get(1));
+                    if (escape.length() != 1) {
+                        throw new UnsupportedOperationException("Escape must be a single character: " + escape);
+                    }
+                    return NgramExtractor.fromLikePattern(getStringValue(arguments.get(0)), Optional.of(escape.charAt(0)));
+                }
+                return NgramExtractor.fromLikePattern(getStringValue(pattern), Optional.empty());
+            case REGEXP_LIKE_FUNCTION:
+                return NgramExtractor.fromRegex(getStringValue(pattern));
+            default:
+                Optional<OperatorType> operator = Signature.getOperatorType(functionName);
+                if (operator.isPresent() && operator.get() == OperatorType.EQUAL) {
+                    return NgramExtractor.fromLiteral(getStringValue(pattern));
+                }
+                throw new UnsupportedOperationException("Unsupported function: " + callExp.getDisplayName());
+        }
+    }
+
+    private static Optional<String> getFunctionName(RowExpression expression)
+    {
+        if (expression instanceof CallExpression && ((CallExpression) expression).getFunctionHandle() instanceof BuiltInFunctionHandle) {
+            Signature signature = ((BuiltInFunctionHandle) ((CallExpression) expression).getFunctionHandle()).getSignature();
+            return Optional.of(signature.getNameSuffix().toLowerCase(Locale.ENGLISH));
+        }
+        return Optional.empty();
+    }
+
+    private static String getStringValue(RowExpression expression)
+    {
+        Object value = extractValueFromRowExpression(expression);
+        if (!(value instanceof String)) {
+            throw new UnsupportedOperationException("Expected a string literal: " + expression);
+        }
+        return (String) value;
+    }
+
+    private boolean containsAll(long[] required)
+    {
+        if (required.length == 0) {
+            // e.g. literals shorter than a gram, the index can not tell whether the stripe matches
+            throw new UnsupportedOperationException("No " + ID + " grams can be extracted from the predicate");
+        }
+        long[] indexed = getSortedGrams();
+        for (long gram : required) {
+            if (Arrays.binarySearch(indexed, gram) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long[] getSortedGrams()
+    {
+        if (sortedGrams == null) {
+            sortedGrams = grams.toLongArray();
+            Arrays.sort(sortedGrams);
+        }
+        return sortedGrams;
+    }
+
+    @Override
+    public synchronized void serialize(OutputStream out)
+            throws IOException
+    {
+        // grams are written in ascending order as variable length deltas
+        long[] values = getSortedGrams();
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(SERIALIZATION_VERSION);
+        output.writeInt(values.length);
+        long previous = 0;
+        for (long value : values) {
+            writeVarLong(output, value - previous);
+            previous = value;
+        }
+        output.flush();
+    }
+
+    @Override
+    public synchronized Index deserialize(InputStream in)
+            throws IOException
+    {
+        DataInputStream input = new DataInputStream(in);
+        int version = input.readInt();
+        if (version != SERIALIZATION_VERSION) {
+            throw new IOException("Unsupported " + ID + " index version: " + version);
+        }
+        long[] values = new long[input.readInt()];
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            previous += readVarLong(input);
+            values[i] = previous;
+        }
+        grams.clear();
+        grams.trim();
+        sortedGrams = values;
+        return this;
+    }
+
+    private static void writeVarLong(DataOutputStream output, long value)
+            throws IOException
+    {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(DataInputStream input)
+            throws IOException
+    {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = input.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public Properties getProperties()
+    {
+        return properties;
+    }
+
+    @Override
+    public void setProperties(Properties properties)
+    {
+        this.properties = properties;
+    }
+
+    @Override
+    public long getMemoryUsage()
+    {
+        return (long) grams.size() * Long.BYTES * 2 + (sortedGrams == null ? 0 : (long) sortedGrams.length * Long.BYTES);
+    }
+}
@@ -14,6 +14,8 @@
  */
 package io.hetu.core;
 
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.connector.QualifiedObjectName;
 import io.prestosql.spi.function.BuiltInFunctionHandle;
 import io.prestosql.spi.function.OperatorType;
 import io.prestosql.spi.function.Signature;
@@ -27,8 +29,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static io.prestosql.spi.function.FunctionKind.SCALAR;
 import static io.prestosql.spi.function.Signature.internalOperator;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.LikePatternType.LIKE_PATTERN;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 
 public class HeuristicIndexTestUtils
@@ -47,6 +51,29 @@ public class HeuristicIndexTestUtils
         return new CallExpression(operatorType.name(), new BuiltInFunctionHandle(sig), BOOLEAN, arguments, Optional.empty());
     }
 
+    /**
+     * construct a CallExpression instance for {@code name LIKE pattern}
+     */
+    public static CallExpression likePredicate(String name, String pattern)
+    {
+        Signature like = new Signature(QualifiedObjectName.valueOfDefaultFunction("like"), SCALAR, BOOLEAN.getTypeSignature(), VARCHAR.getTypeSignature(), LIKE_PATTERN.getTypeSignature());
+        Signature cast = internalOperator(OperatorType.CAST, LIKE_PATTERN.getTypeSignature(), VARCHAR.getTypeSignature());
+        CallExpression patternExpression = new CallExpression(OperatorType.CAST.name(), new BuiltInFunctionHandle(cast), LIKE_PATTERN,
+                ImmutableList.of(new ConstantExpression(pattern, VARCHAR)), Optional.empty());
+        return new CallExpression("LIKE", new BuiltInFunctionHandle(like), BOOLEAN,
+                ImmutableList.of(new VariableReferenceExpression(name, VARCHAR), patternExpression), Optional.empty());
+    }
+
+    /**
+     * construct a CallExpression instance for {@code regexp_like(name, pattern)}
+     */
+    public static CallExpression regexpLikePredicate(String name, String pattern)
+    {
+        Signature regexpLike = new Signature(QualifiedObjectName.valueOfDefaultFunction("regexp_like"), SCALAR, BOOLEAN.getTypeSignature(), VARCHAR.getTypeSignature(), VARCHAR.getTypeSignature());
+        return new CallExpression("regexp_like", new BuiltInFunctionHandle(regexpLike), BOOLEAN,
+                ImmutableList.of(new VariableReferenceExpression(name, VARCHAR), new ConstantExpression(pattern, VARCHAR)), Optional.empty());
+    }
+
     private HeuristicIndexTestUtils()
     {
     }
@@ -42,6 +42,21 @@ public class TestPartitionIndexWriter
     private String tableName = "testTable";
     private String columnName = "testColumn";
 
+    @Test
+    public void testSortByKey()
+    {
+        Map<Comparable<? extends Comparable<?>>, String> dataMap = new HashMap<>();
+        for (long i = 1000; i > 0; i--) {
+            dataMap.put(i * 7 % 1000, String.valueOf(i));
+        }
+        List<Pair<Comparable<? extends Comparable<?>>, String>> sorted = PartitionIndexWriter.sortByKey(dataMap);
+        assertEquals(sorted.size(), dataMap.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i).getFirst(), (long) i);
+            assertEquals(sorted.get(i).getSecond(), dataMap.get((long) i));
+        }
+    }
+
     @Test
     public void testAddValue()
             throws IOException
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import io.hetu.core.common.filesystem.TempFolder;
 import io.hetu.core.plugin.heuristicindex.index.bloom.BloomIndex;
 import io.hetu.core.plugin.heuristicindex.index.minmax.MinMaxIndex;
+import io.hetu.core.plugin.heuristicindex.index.ngram.NgramIndex;
 import io.prestosql.expressions.LogicalRowExpressions;
 import io.prestosql.spi.function.OperatorType;
 import io.prestosql.spi.heuristicindex.IndexMetadata;
@@ -37,6 +38,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 
+import static io.hetu.core.HeuristicIndexTestUtils.likePredicate;
+import static io.hetu.core.HeuristicIndexTestUtils.regexpLikePredicate;
 import static io.hetu.core.HeuristicIndexTestUtils.simplePredicate;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
@@ -50,6 +53,7 @@ public class TestHeuristicIndexFilter
     BloomIndex bloomIndex2;
     MinMaxIndex minMaxIndex1;
     MinMaxIndex minMaxIndex2;
+    NgramIndex ngramIndex1;
 
     @BeforeClass
     public void setup()
@@ -88,6 +92,9 @@ public class TestHeuristicIndexFilter
 
             minMaxIndex2 = new MinMaxIndex();
             minMaxIndex2.addValues(Collections.singletonList(new Pair<>("testColumn", ImmutableList.of(50L, 80L, 100L))));
+
+            ngramIndex1 = new NgramIndex();
+            ngramIndex1.addValues(Collections.singletonList(new Pair<>("testColumn", ImmutableList.of("abcd", "cdef"))));
         }
     }
 
@@ -165,4 +172,36 @@ public class TestHeuristicIndexFilter
         assertFalse(filter.matches(expression5));
         assertTrue(filter.matches(expression6));
     }
+
+    @Test
+    public void testFilterWithNgramIndices()
+    {
+        RowExpression expression1 = LogicalRowExpressions.and(
+                simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "a"),
+                likePredicate("testColumn", "%bcd%"));
+        RowExpression expression2 = LogicalRowExpressions.and(
+                simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "a"),
+                likePredicate("testColumn", "%xyz%"));
+        RowExpression expression3 = LogicalRowExpressions.or(
+                regexpLikePredicate("testColumn", "^def"),
+                regexpLikePredicate("testColumn", "xyz"));
+        RowExpression expression4 = regexpLikePredicate("testColumn", "xyz");
+
+        // the bloom index can not evaluate LIKE, only the ngram index is used for it
+        HeuristicIndexFilter filter = new HeuristicIndexFilter(ImmutableMap.of("testColumn", ImmutableList.of(
+                new IndexMetadata(bloomIndex1, "testTable", new String[] {"testColumn"}, null, null, 0, 0),
+                new IndexMetadata(ngramIndex1, "testTable", new String[] {"testColumn"}, null, null, 0, 0))));
+
+        assertTrue(filter.matches(expression1));
+        assertFalse(filter.matches(expression2));
+        assertTrue(filter.matches(expression3));
+        assertFalse(filter.matches(expression4));
+        // equality is left to the bloom index, a value too short for a gram does not keep the stripe
+        assertFalse(filter.matches(simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "c")));
+
+        // without an ngram index nothing is filtered out
+        HeuristicIndexFilter bloomFilter = new HeuristicIndexFilter(ImmutableMap.of("testColumn", ImmutableList.of(
+                new IndexMetadata(bloomIndex1, "testTable", new String[] {"testColumn"}, null, null, 0, 0))));
+        assertTrue(bloomFilter.matches(expression2));
+    }
 }
@@ -110,6 +110,36 @@ public class TestBTreeIndex
         index.close();
     }
 
+    @Test
+    public void testOutOfOrderKeys()
+            throws IOException, IndexLookUpException
+    {
+        BTreeIndex index = new BTreeIndex();
+        // an ascending batch is followed by batches overlapping and preceding it
+        index.addKeyValues(Collections.singletonList(new Pair("dummyCol", keyValues(10, 20))));
+        index.addKeyValues(Collections.singletonList(new Pair("dummyCol", keyValues(25, 30))));
+        index.addKeyValues(Collections.singletonList(new Pair("dummyCol", keyValues(0, 15))));
+        File file = getFile();
+        index.serialize(new FileOutputStream(file));
+        BTreeIndex readIndex = new BTreeIndex();
+        readIndex.deserialize(new FileInputStream(file));
+        for (long key : new long[] {0L, 12L, 19L, 25L, 29L}) {
+            Iterator<String> result = readIndex.lookUp(simplePredicate(OperatorType.EQUAL, "dummyCol", BIGINT, key));
+            assertEquals(result.next(), "value" + key);
+        }
+        assertFalse(readIndex.lookUp(simplePredicate(OperatorType.EQUAL, "dummyCol", BIGINT, 22L)).hasNext());
+        index.close();
+    }
+
+    private static List<Pair> keyValues(int from, int to)
+    {
+        List<Pair> pairs = new ArrayList<>();
+        for (long key = from; key < to; key++) {
+            pairs.add(new Pair(key, "value" + key));
+        }
+        return pairs;
+    }
+
     @Test
     public void testBetween()
             throws IOException, IndexLookUpException
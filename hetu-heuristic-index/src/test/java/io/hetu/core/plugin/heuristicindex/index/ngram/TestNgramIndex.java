@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.heuristicindex.index.ngram;
+
+import com.google.common.collect.ImmutableList;
+import io.hetu.core.common.filesystem.TempFolder;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.heuristicindex.Pair;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.ValueSet;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static io.hetu.core.HeuristicIndexTestUtils.likePredicate;
+import static io.hetu.core.HeuristicIndexTestUtils.regexpLikePredicate;
+import static io.hetu.core.HeuristicIndexTestUtils.simplePredicate;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TestNgramIndex
+{
+    private static final List<Object> VALUES = ImmutableList.of(
+            "GET /index.html HTTP/1.1",
+            "POST /api/login HTTP/1.1",
+            "connection reset by peer",
+            "测试数据");
+
+    @Test
+    public void testGetId()
+    {
+        assertEquals("NGRAM", new NgramIndex().getId());
+    }
+
+    @Test
+    public void testLikeMatching()
+            throws IOException
+    {
+        NgramIndex index = createIndex(VALUES);
+
+        assertTrue(index.matches(likePredicate("testColumn", "%/api/login%")));
+        assertTrue(index.matches(likePredicate("testColumn", "GET %.html%")));
+        assertTrue(index.matches(likePredicate("testColumn", "%reset_by%")));
+        assertTrue(index.matches(likePredicate("testColumn", "%测试数%")));
+        assertFalse(index.matches(likePredicate("testColumn", "%/api/logout%")));
+        assertFalse(index.matches(likePredicate("testColumn", "%timeout%")));
+        // fragments shorter than a gram can not be checked
+        assertThrows(UnsupportedOperationException.class, () -> index.matches(likePredicate("testColumn", "%xy%")));
+    }
+
+    @Test
+    public void testRegexpMatching()
+            throws IOException
+    {
+        NgramIndex index = createIndex(VALUES);
+
+        assertTrue(index.matches(regexpLikePredicate("testColumn", "POST /api/[a-z]+ HTTP")));
+        assertTrue(index.matches(regexpLikePredicate("testColumn", "conn.*peer$")));
+        assertFalse(index.matches(regexpLikePredicate("testColumn", "DELETE /api/[a-z]+")));
+        assertFalse(index.matches(regexpLikePredicate("testColumn", "refused\\.")));
+        // alternation is not decomposed
+        assertThrows(UnsupportedOperationException.class, () -> index.matches(regexpLikePredicate("testColumn", "DELETE|PATCH")));
+    }
+
+    @Test
+    public void testEqualityMatching()
+            throws IOException
+    {
+        NgramIndex index = createIndex(VALUES);
+
+        assertTrue(index.matches(simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "connection reset by peer")));
+        assertFalse(index.matches(simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "connection refused")));
+        assertThrows(UnsupportedOperationException.class, () -> index.matches(simplePredicate(OperatorType.EQUAL, "testColumn", VARCHAR, "ab")));
+
+        ValueSet valueSet = mock(ValueSet.class);
+        when(valueSet.isSingleValue()).thenReturn(true);
+        when(valueSet.getType()).thenReturn(VARCHAR);
+
+        when(valueSet.getSingleValue()).thenReturn("测试数据");
+        assertTrue(index.matches(Domain.create(valueSet, false)));
+
+        when(valueSet.getSingleValue()).thenReturn("missing");
+        assertFalse(index.matches(Domain.create(valueSet, false)));
+    }
+
+    @Test
+    public void testLikePatternExtraction()
+    {
+        assertEquals(NgramExtractor.fromLikePattern("%ab%", Optional.empty()).length, 0);
+        assertEquals(NgramExtractor.fromLikePattern("abc_de%", Optional.empty()).length, 1);
+        // the escaped wildcard is part of the literal fragment "a%bc"
+        assertEquals(NgramExtractor.fromLikePattern("a\\%bc", Optional.of('\\')).length, 2);
+    }
+
+    @Test
+    public void testRegexExtraction()
+    {
+        assertEquals(NgramExtractor.fromRegex("abcd").length, 2);
+        // optional and repeated chars split the literal
+        assertEquals(NgramExtractor.fromRegex("abcd?").length, 1);
+        assertEquals(NgramExtractor.fromRegex("abc+d").length, 1);
+        // groups, classes and escapes do not contribute literals
+        assertEquals(NgramExtractor.fromRegex("(abcd)?").length, 0);
+        assertEquals(NgramExtractor.fromRegex("[abcd]\\d{3}").length, 0);
+        assertEquals(NgramExtractor.fromRegex("\\x41bc").length, 0);
+        assertEquals(NgramExtractor.fromRegex("(?i)abcd").length, 0);
+        assertEquals(NgramExtractor.fromRegex("a\\.bc").length, 2);
+    }
+
+    @Test
+    public void testSerialization()
+            throws IOException
+    {
+        NgramIndex index = createIndex(VALUES);
+
+        NgramIndex emptyIndex = createIndex(ImmutableList.of("ab"));
+        assertFalse(emptyIndex.matches(likePredicate("testColumn", "%abc%")));
+        assertThrows(UnsupportedOperationException.class, () -> emptyIndex.matches(likePredicate("testColumn", "%ab%")));
+
+        // a new value invalidates the sorted grams
+        index.addValues(Collections.singletonList(new Pair<>("testColumn", ImmutableList.of("timeout"))));
+        assertTrue(index.matches(likePredicate("testColumn", "%timeout%")));
+    }
+
+    private static NgramIndex createIndex(List<Object> values)
+            throws IOException
+    {
+        try (TempFolder folder = new TempFolder()) {
+            folder.create();
+            File testFile = folder.newFile();
+
+            NgramIndex index = new NgramIndex();
+            index.addValues(Collections.singletonList(new Pair<>("testColumn", values)));
+
+            try (FileOutputStream fo = new FileOutputStream(testFile)) {
+                index.serialize(fo);
+            }
+
+            NgramIndex deserialized = new NgramIndex();
+            try (FileInputStream fi = new FileInputStream(testFile)) {
+                deserialized.deserialize(fi);
+            }
+            return deserialized;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.mongodb;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregate computed by a $group stage of MongoDB for every group of a split. The engine combines the
+ * results of the splits, e.g. it adds up the counts of the splits.
+ */
+public final class MongoAggregate
+{
+    public enum Function
+    {
+        COUNT,
+        SUM,
+        MIN,
+        MAX
+    }
+
+    private final Function function;
+    private final Optional<MongoColumnHandle> argument;
+    private final MongoColumnHandle output;
+
+    /**
+     * @param argument the aggregated column, absent for count(*)
+     * @param output the column of the aggregate in the pages of the splits
+     */
+    @JsonCreator
+    public MongoAggregate(
+            @JsonProperty("function") Function function,
+            @JsonProperty("argument") Optional<MongoColumnHandle> argument,
+            @JsonProperty("output") MongoColumnHandle output)
+    {
+        this.function = requireNonNull(function, "function is null");
+        this.argument = requireNonNull(argument, "argument is null");
+        this.output = requireNonNull(output, "output is null");
+    }
+
+    @JsonProperty
+    public Function getFunction()
+    {
+        return function;
+    }
+
+    @JsonProperty
+    public Optional<MongoColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    @JsonProperty
+    public MongoColumnHandle getOutput()
+    {
+        return output;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MongoAggregate that = (MongoAggregate) o;
+        return function == that.function &&
+                argument.equals(that.argument) &&
+                output.equals(that.output);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(function, argument, output);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("function", function)
+                .add("argument", argument.map(MongoColumnHandle::getName).orElse("*"))
+                .add("output", output.getName())
+                .toString();
+    }
+}
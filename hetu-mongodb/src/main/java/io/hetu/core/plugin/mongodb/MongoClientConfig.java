@@ -19,6 +19,7 @@ import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
 import io.airlift.configuration.Config;
 import io.airlift.configuration.DefunctConfig;
+import io.airlift.units.DataSize;
 
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -29,6 +30,7 @@ import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.mongodb.MongoCredential.createCredential;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 @DefunctConfig("mongodb.connection-per-host")
 public class MongoClientConfig
@@ -52,6 +54,8 @@ public class MongoClientConfig
 
     // query configurations
     private int cursorBatchSize; // use driver default
+    private DataSize splitSize = new DataSize(64, MEGABYTE);
+    private boolean aggregationPushDownEnabled = true;
 
     private ReadPreferenceType readPreference = ReadPreferenceType.PRIMARY;
     private WriteConcernType writeConcern = WriteConcernType.ACKNOWLEDGED;
@@ -284,6 +288,31 @@ public class MongoClientConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getSplitSize()
+    {
+        return splitSize;
+    }
+
+    @Config("mongodb.split-size")
+    public MongoClientConfig setSplitSize(DataSize splitSize)
+    {
+        this.splitSize = splitSize;
+        return this;
+    }
+
+    public boolean isAggregationPushDownEnabled()
+    {
+        return aggregationPushDownEnabled;
+    }
+
+    @Config("mongodb.aggregation-push-down-enabled")
+    public MongoClientConfig setAggregationPushDownEnabled(boolean aggregationPushDownEnabled)
+    {
+        this.aggregationPushDownEnabled = aggregationPushDownEnabled;
+        return this;
+    }
+
     @NotNull
     public String getImplicitRowFieldPrefix()
     {
@@ -36,6 +36,8 @@ public class MongoClientModule
         binder.bind(MongoSplitManager.class).in(Scopes.SINGLETON);
         binder.bind(MongoPageSourceProvider.class).in(Scopes.SINGLETON);
         binder.bind(MongoPageSinkProvider.class).in(Scopes.SINGLETON);
+        binder.bind(MongoPlanOptimizer.class).in(Scopes.SINGLETON);
+        binder.bind(MongoPlanOptimizerProvider.class).in(Scopes.SINGLETON);
 
         configBinder(binder).bindConfig(MongoClientConfig.class);
     }
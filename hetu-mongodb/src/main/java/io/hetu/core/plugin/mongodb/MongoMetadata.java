@@ -31,6 +31,7 @@ import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.LimitApplicationResult;
 import io.prestosql.spi.connector.LocalProperty;
 import io.prestosql.spi.connector.NotFoundException;
 import io.prestosql.spi.connector.SchemaTableName;
@@ -44,6 +45,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -254,6 +256,10 @@ public class MongoMetadata
     public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(ConnectorSession session, ConnectorTableHandle table, Constraint constraint)
     {
         MongoTableHandle handle = (MongoTableHandle) table;
+        if (handle.getLimit().isPresent() || handle.getAggregation().isPresent()) {
+            // the filter would be applied after the limit or the aggregation
+            return Optional.empty();
+        }
 
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
@@ -268,6 +274,28 @@ public class MongoMetadata
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
 
+    @Override
+    public Optional<LimitApplicationResult<ConnectorTableHandle>> applyLimit(ConnectorSession session, ConnectorTableHandle table, long limit)
+    {
+        MongoTableHandle handle = (MongoTableHandle) table;
+        if (handle.getAggregation().isPresent() || (handle.getLimit().isPresent() && handle.getLimit().getAsLong() <= limit)) {
+            return Optional.empty();
+        }
+        // MongoDB reads all documents with a limit of 0
+        if (limit == 0 || limit > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+
+        handle = new MongoTableHandle(
+                handle.getSchemaTableName(),
+                handle.getConstraint(),
+                OptionalLong.of(limit),
+                Optional.empty());
+
+        // every split applies the limit
+        return Optional.of(new LimitApplicationResult<>(handle, false));
+    }
+
     private void setRollback(Runnable action)
     {
         checkState(rollbackAction.compareAndSet(null, action), "rollback action is already set");
@@ -13,8 +13,10 @@
  */
 package io.hetu.core.plugin.mongodb;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Shorts;
 import com.google.common.primitives.SignedBytes;
+import com.mongodb.MongoClient;
 import com.mongodb.client.MongoCursor;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.Page;
@@ -29,15 +31,25 @@ import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeSignatureParameter;
 import io.prestosql.spi.type.VarbinaryType;
 import io.prestosql.spi.type.VarcharType;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.ByteBufferBsonInput;
 import org.bson.types.Binary;
 import org.bson.types.Decimal128;
 import org.bson.types.ObjectId;
 import org.joda.time.chrono.ISOChronology;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -52,11 +64,13 @@ import static io.hetu.core.plugin.mongodb.TypeUtils.isMapType;
 import static io.hetu.core.plugin.mongodb.TypeUtils.isRowType;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.Chars.truncateToLengthAndTrimSpaces;
 import static io.prestosql.spi.type.DateTimeEncoding.packDateTimeWithZone;
 import static io.prestosql.spi.type.DateType.DATE;
 import static io.prestosql.spi.type.Decimals.encodeScaledValue;
 import static io.prestosql.spi.type.Decimals.encodeShortScaledValue;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.RealType.REAL;
 import static io.prestosql.spi.type.SmallintType.SMALLINT;
@@ -69,44 +83,82 @@ import static java.lang.Float.floatToIntBits;
 import static java.lang.String.join;
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Reads the documents of a split into pages. The fields of the columns are decoded directly from the bson
+ * of the documents, the values of the common types are written into the blocks without creating objects.
+ */
 public class MongoPageSource
         implements ConnectorPageSource
 {
     private static final ISOChronology UTC_CHRONOLOGY = ISOChronology.getInstanceUTC();
     private static final int ROWS_PER_REQUEST = 1024;
+    private static final CodecRegistry CODEC_REGISTRY = MongoClient.getDefaultCodecRegistry();
+    private static final BsonTypeClassMap BSON_TYPE_CLASS_MAP = new BsonTypeClassMap();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
 
-    private final MongoCursor<Document> cursor;
-    private final List<String> columnNames;
+    private final MongoCursor<RawBsonDocument> cursor;
     private final List<Type> columnTypes;
-    private Document currentDoc;
-    private long count;
+    // the columns of every field, a field may be read by several columns
+    private final Map<String, int[]> fieldColumns;
+    private final boolean[] written;
+    // the count columns of an aggregation without grouping columns, which returns a row even for no documents
+    private final boolean[] globalAggregationCounts;
+    private long completedBytes;
+    private long readTimeNanos;
+    private long rows;
     private boolean finished;
 
     private final PageBuilder pageBuilder;
 
     public MongoPageSource(
             MongoSession mongoSession,
+            MongoSplit split,
             MongoTableHandle tableHandle,
             List<MongoColumnHandle> columns)
     {
-        this.columnNames = columns.stream().map(MongoColumnHandle::getName).collect(toList());
         this.columnTypes = columns.stream().map(MongoColumnHandle::getType).collect(toList());
-        this.cursor = mongoSession.execute(tableHandle, columns);
-        currentDoc = null;
+        Map<String, int[]> columnsByName = new HashMap<>();
+        for (int column = 0; column < columns.size(); column++) {
+            int[] indexes = columnsByName.getOrDefault(columns.get(column).getName(), new int[0]);
+            indexes = Arrays.copyOf(indexes, indexes.length + 1);
+            indexes[indexes.length - 1] = column;
+            columnsByName.put(columns.get(column).getName(), indexes);
+        }
+        this.fieldColumns = ImmutableMap.copyOf(columnsByName);
+        this.written = new boolean[columns.size()];
+        this.globalAggregationCounts = tableHandle.getAggregation()
+                .filter(aggregation -> aggregation.getGroupingColumns().isEmpty())
+                .map(aggregation -> getCountColumns(aggregation, columns))
+                .orElse(null);
+        this.cursor = mongoSession.execute(split, tableHandle, columns);
 
         pageBuilder = new PageBuilder(columnTypes);
     }
 
+    private static boolean[] getCountColumns(MongoAggregation aggregation, List<MongoColumnHandle> columns)
+    {
+        boolean[] counts = new boolean[columns.size()];
+        for (MongoAggregate aggregate : aggregation.getAggregates()) {
+            if (aggregate.getFunction() == MongoAggregate.Function.COUNT) {
+                int column = columns.indexOf(aggregate.getOutput());
+                if (column >= 0) {
+                    counts[column] = true;
+                }
+            }
+        }
+        return counts;
+    }
+
     @Override
     public long getCompletedBytes()
     {
-        return count;
+        return completedBytes;
     }
 
     @Override
     public long getReadTimeNanos()
     {
-        return 0;
+        return readTimeNanos;
     }
 
     @Override
@@ -125,19 +177,31 @@ public class MongoPageSource
     public Page getNextPage()
     {
         verify(pageBuilder.isEmpty());
-        count = 0;
         for (int i = 0; i < ROWS_PER_REQUEST; i++) {
-            if (!cursor.hasNext()) {
+            long start = System.nanoTime();
+            boolean hasNext = cursor.hasNext();
+            RawBsonDocument document = hasNext ? cursor.next() : null;
+            readTimeNanos += System.nanoTime() - start;
+            if (!hasNext) {
                 finished = true;
                 break;
             }
-            currentDoc = cursor.next();
-            count++;
+            rows++;
+
+            pageBuilder.declarePosition();
+            appendDocument(document);
+        }
 
+        if (finished && rows == 0 && globalAggregationCounts != null) {
+            // MongoDB returns no group for no documents, the engine a count of 0
             pageBuilder.declarePosition();
             for (int column = 0; column < columnTypes.size(); column++) {
-                BlockBuilder output = pageBuilder.getBlockBuilder(column);
-                appendTo(columnTypes.get(column), currentDoc.get(columnNames.get(column)), output);
+                if (globalAggregationCounts[column]) {
+                    columnTypes.get(column).writeLong(pageBuilder.getBlockBuilder(column), 0);
+                }
+                else {
+                    pageBuilder.getBlockBuilder(column).appendNull();
+                }
             }
         }
 
@@ -146,6 +210,120 @@ public class MongoPageSource
         return page;
     }
 
+    private void appendDocument(RawBsonDocument document)
+    {
+        Arrays.fill(written, false);
+        completedBytes += document.getByteBuffer().remaining();
+        try (BsonBinaryReader reader = new BsonBinaryReader(new ByteBufferBsonInput(document.getByteBuffer()))) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                int[] columns = fieldColumns.get(reader.readName());
+                if (columns == null || written[columns[0]]) {
+                    reader.skipValue();
+                    continue;
+                }
+                if (columns.length == 1) {
+                    appendValue(columnTypes.get(columns[0]), reader, pageBuilder.getBlockBuilder(columns[0]));
+                }
+                else {
+                    Object value = readValue(reader);
+                    for (int column : columns) {
+                        appendTo(columnTypes.get(column), value, pageBuilder.getBlockBuilder(column));
+                    }
+                }
+                for (int column : columns) {
+                    written[column] = true;
+                }
+            }
+            reader.readEndDocument();
+        }
+
+        // the fields missing in the document are null
+        for (int column = 0; column < written.length; column++) {
+            if (!written[column]) {
+                pageBuilder.getBlockBuilder(column).appendNull();
+            }
+        }
+    }
+
+    private void appendValue(Type type, BsonReader reader, BlockBuilder output)
+    {
+        // the common types are written without decoding the value into an object
+        BsonType bsonType = reader.getCurrentBsonType();
+        switch (bsonType) {
+            case NULL:
+                reader.readNull();
+                output.appendNull();
+                return;
+            case INT32:
+                if (type.equals(BIGINT) || type.equals(INTEGER)) {
+                    type.writeLong(output, reader.readInt32());
+                    return;
+                }
+                if (type.equals(DOUBLE)) {
+                    type.writeDouble(output, reader.readInt32());
+                    return;
+                }
+                break;
+            case INT64:
+                if (type.equals(BIGINT)) {
+                    type.writeLong(output, reader.readInt64());
+                    return;
+                }
+                if (type.equals(DOUBLE)) {
+                    type.writeDouble(output, reader.readInt64());
+                    return;
+                }
+                break;
+            case DOUBLE:
+                if (type.equals(DOUBLE)) {
+                    type.writeDouble(output, reader.readDouble());
+                    return;
+                }
+                break;
+            case BOOLEAN:
+                if (type.equals(BOOLEAN)) {
+                    type.writeBoolean(output, reader.readBoolean());
+                    return;
+                }
+                break;
+            case STRING:
+                if (type instanceof VarcharType) {
+                    type.writeSlice(output, utf8Slice(reader.readString()));
+                    return;
+                }
+                break;
+            case OBJECT_ID:
+                if (type.equals(OBJECT_ID)) {
+                    type.writeSlice(output, wrappedBuffer(reader.readObjectId().toByteArray()));
+                    return;
+                }
+                break;
+            case DATE_TIME:
+                if (type.equals(TIMESTAMP)) {
+                    type.writeLong(output, reader.readDateTime());
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        appendTo(type, readValue(reader), output);
+    }
+
+    /**
+     * Decode a value into the object the document codec of the driver would decode it into
+     */
+    private static Object readValue(BsonReader reader)
+    {
+        BsonType bsonType = reader.getCurrentBsonType();
+        if (bsonType == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return CODEC_REGISTRY.get(BSON_TYPE_CLASS_MAP.get(bsonType)).decode(reader, DECODER_CONTEXT);
+    }
+
     private void appendTo(Type type, Object value, BlockBuilder output)
     {
         if (value == null) {
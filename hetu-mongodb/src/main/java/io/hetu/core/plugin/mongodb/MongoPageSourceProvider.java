@@ -54,6 +54,6 @@ public class MongoPageSourceProvider
             handles.add((MongoColumnHandle) handle);
         }
 
-        return new MongoPageSource(mongoSession, tableHandle, handles.build());
+        return new MongoPageSource(mongoSession, (MongoSplit) split, tableHandle, handles.build());
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.mongodb;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.plugin.base.aggregation.AggregationPushDownOptimizer;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.type.Type;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pushes count, sum, min and max aggregations over MongoDB collections into the aggregation pipeline.
+ */
+public class MongoPlanOptimizer
+        extends AggregationPushDownOptimizer<MongoColumnHandle>
+{
+    @Inject
+    public MongoPlanOptimizer(MongoClientConfig config)
+    {
+        super(requireNonNull(config, "config is null").isAggregationPushDownEnabled());
+    }
+
+    @Override
+    protected boolean canPushDown(ConnectorTableHandle table)
+    {
+        return table instanceof MongoTableHandle &&
+                !((MongoTableHandle) table).getAggregation().isPresent() &&
+                !((MongoTableHandle) table).getLimit().isPresent();
+    }
+
+    @Override
+    protected boolean isGroupable(MongoColumnHandle column)
+    {
+        Type type = column.getType();
+        return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE) || type.equals(BOOLEAN) || type.equals(VARCHAR);
+    }
+
+    @Override
+    protected boolean isAggregatable(Function function, MongoColumnHandle column)
+    {
+        if (!isGroupable(column)) {
+            return false;
+        }
+        if (function == Function.COUNT) {
+            return true;
+        }
+        // the metrics are computed from the numeric values of the field
+        Type type = column.getType();
+        return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE);
+    }
+
+    @Override
+    protected MongoColumnHandle createAggregateColumn(String name, Type type)
+    {
+        return new MongoColumnHandle(name, type, false);
+    }
+
+    @Override
+    protected ConnectorTableHandle applyAggregation(ConnectorTableHandle table, List<MongoColumnHandle> groupingColumns, List<Aggregate<MongoColumnHandle>> aggregates)
+    {
+        MongoTableHandle handle = (MongoTableHandle) table;
+        List<MongoAggregate> mongoAggregates = aggregates.stream()
+                .map(aggregate -> new MongoAggregate(
+                        MongoAggregate.Function.valueOf(aggregate.getFunction().name()),
+                        aggregate.getArgument(),
+                        aggregate.getOutput()))
+                .collect(toImmutableList());
+        return new MongoTableHandle(
+                handle.getSchemaTableName(),
+                handle.getConstraint(),
+                OptionalLong.empty(),
+                Optional.of(new MongoAggregation(ImmutableList.copyOf(groupingColumns), mongoAggregates)));
+    }
+}
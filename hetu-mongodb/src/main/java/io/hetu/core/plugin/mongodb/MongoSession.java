@@ -25,6 +25,7 @@ import com.google.common.primitives.Shorts;
 import com.google.common.primitives.SignedBytes;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.mongodb.MongoClient;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
@@ -52,6 +53,7 @@ import io.prestosql.spi.type.TypeSignature;
 import io.prestosql.spi.type.TypeSignatureParameter;
 import io.prestosql.spi.type.VarcharType;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
@@ -60,6 +62,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -80,6 +83,7 @@ import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.HOURS;
@@ -99,6 +103,7 @@ public class MongoSession
     private static final String FIELDS_HIDDEN_KEY = "hidden";
 
     private static final String OR_OP = "$or";
+    private static final String AND_OP = "$and";
 
     private static final String EQ_OP = "$eq";
     private static final String NOT_EQ_OP = "$ne";
@@ -108,6 +113,11 @@ public class MongoSession
     private static final String LTE_OP = "$lte";
     private static final String IN_OP = "$in";
 
+    private static final String ID_FIELD = "_id";
+    private static final String GROUP_KEY_PREFIX = "k";
+    private static final String AGGREGATE_PREFIX = "a";
+    private static final String AGGREGATE_COUNT_PREFIX = "n";
+
     private final TypeManager typeManager;
     private final MongoClient client;
 
@@ -266,17 +276,41 @@ public class MongoSession
         return MongoIndex.parse(getCollection(tableName).listIndexes());
     }
 
-    public MongoCursor<Document> execute(MongoTableHandle tableHandle, List<MongoColumnHandle> columns)
+    /**
+     * Find the documents of a split, or the groups of its documents if the table handle has an aggregation.
+     * The documents are not decoded, the page source reads the requested fields from their bson.
+     */
+    public MongoCursor<RawBsonDocument> execute(MongoSplit split, MongoTableHandle tableHandle, List<MongoColumnHandle> columns)
     {
+        MongoCollection<RawBsonDocument> collection = getCollection(tableHandle.getSchemaTableName()).withDocumentClass(RawBsonDocument.class);
+        Document query = buildQuery(tableHandle.getConstraint());
+        if (split.getRangeFilter().isPresent()) {
+            Document rangeFilter = Document.parse(split.getRangeFilter().get());
+            query = query.isEmpty() ? rangeFilter : new Document(AND_OP, ImmutableList.of(query, rangeFilter));
+        }
+
+        if (tableHandle.getAggregation().isPresent()) {
+            List<Document> pipeline = buildAggregationPipeline(query, tableHandle.getAggregation().get());
+            AggregateIterable<RawBsonDocument> iterable = collection.aggregate(pipeline).allowDiskUse(true);
+            log.debug("Aggregate documents: collection: %s, pipeline: %s", tableHandle.getSchemaTableName(), pipeline);
+
+            if (cursorBatchSize != 0) {
+                iterable.batchSize(cursorBatchSize);
+            }
+
+            return iterable.iterator();
+        }
+
         Document output = new Document();
         for (MongoColumnHandle column : columns) {
             output.append(column.getName(), 1);
         }
-        MongoCollection<Document> collection = getCollection(tableHandle.getSchemaTableName());
-        Document query = buildQuery(tableHandle.getConstraint());
-        FindIterable<Document> iterable = collection.find(query).projection(output);
+        FindIterable<RawBsonDocument> iterable = collection.find(query).projection(output);
         log.debug("Find documents: collection: %s, filter: %s, projection: %s", tableHandle.getSchemaTableName(), query.toJson(), output.toJson());
 
+        if (tableHandle.getLimit().isPresent()) {
+            iterable.limit(toIntExact(tableHandle.getLimit().getAsLong()));
+        }
         if (cursorBatchSize != 0) {
             iterable.batchSize(cursorBatchSize);
         }
@@ -284,6 +318,147 @@ public class MongoSession
         return iterable.iterator();
     }
 
+    /**
+     * Build the pipeline computing an aggregation. The $group stage groups the documents by a key document with
+     * a field for every grouping column, the $project stage renames the group key fields and the accumulators
+     * to the columns of the aggregation. The accumulators only consider the values which the page source would
+     * not read as null, so MongoDB computes the same counts, sums, minimums and maximums as the engine.
+     */
+    @VisibleForTesting
+    static List<Document> buildAggregationPipeline(Document query, MongoAggregation aggregation)
+    {
+        ImmutableList.Builder<Document> pipeline = ImmutableList.builder();
+        if (!query.isEmpty()) {
+            pipeline.add(new Document("$match", query));
+        }
+
+        Document groupKey = new Document();
+        Document project = new Document();
+        List<MongoColumnHandle> groupingColumns = aggregation.getGroupingColumns();
+        for (int i = 0; i < groupingColumns.size(); i++) {
+            groupKey.append(GROUP_KEY_PREFIX + i, "$" + groupingColumns.get(i).getName());
+            project.append(groupingColumns.get(i).getName(), "$" + ID_FIELD + "." + GROUP_KEY_PREFIX + i);
+        }
+        Document group = new Document(ID_FIELD, groupKey.isEmpty() ? null : groupKey);
+
+        List<MongoAggregate> aggregates = aggregation.getAggregates();
+        for (int i = 0; i < aggregates.size(); i++) {
+            MongoAggregate aggregate = aggregates.get(i);
+            String field = AGGREGATE_PREFIX + i;
+            String output = aggregate.getOutput().getName();
+            Optional<MongoColumnHandle> argument = aggregate.getArgument();
+            switch (aggregate.getFunction()) {
+                case COUNT:
+                    group.append(field, new Document("$sum", argument.isPresent() ? condition(hasValue(argument.get()), 1, 0) : 1));
+                    project.append(output, "$" + field);
+                    break;
+                case SUM:
+                    // $sum returns 0 for groups without values, the engine returns null
+                    String countField = AGGREGATE_COUNT_PREFIX + i;
+                    group.append(field, new Document("$sum", valueOf(argument.get())));
+                    group.append(countField, new Document("$sum", condition(hasValue(argument.get()), 1, 0)));
+                    project.append(output, condition(new Document("$gt", asList("$" + countField, 0)), "$" + field, null));
+                    break;
+                case MIN:
+                    group.append(field, new Document("$min", valueOf(argument.get())));
+                    project.append(output, "$" + field);
+                    break;
+                case MAX:
+                    group.append(field, new Document("$max", valueOf(argument.get())));
+                    project.append(output, "$" + field);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported aggregate: " + aggregate);
+            }
+        }
+        if (groupingColumns.stream().noneMatch(column -> column.getName().equals(ID_FIELD))) {
+            project.append(ID_FIELD, 0);
+        }
+
+        pipeline.add(new Document("$group", group));
+        pipeline.add(new Document("$project", project));
+        return pipeline.build();
+    }
+
+    private static Document hasValue(MongoColumnHandle column)
+    {
+        Document type = new Document("$type", "$" + column.getName());
+        Type columnType = column.getType();
+        if (columnType.equals(BIGINT) || columnType.equals(IntegerType.INTEGER)) {
+            return new Document(IN_OP, asList(type, asList("int", "long")));
+        }
+        if (columnType.equals(DOUBLE)) {
+            return new Document(IN_OP, asList(type, asList("double", "int", "long")));
+        }
+        if (columnType.equals(BOOLEAN)) {
+            return new Document(IN_OP, asList(type, asList("bool")));
+        }
+        // any value can be read as varchar
+        return new Document("$not", asList(new Document(IN_OP, asList(type, asList("missing", "null")))));
+    }
+
+    private static Document valueOf(MongoColumnHandle column)
+    {
+        return condition(hasValue(column), "$" + column.getName(), null);
+    }
+
+    private static Document condition(Document condition, Object value, Object otherwise)
+    {
+        return new Document("$cond", asList(condition, value, otherwise));
+    }
+
+    /**
+     * Get the size of the documents of a collection in bytes
+     */
+    public long getCollectionSize(SchemaTableName tableName)
+    {
+        MongoCollection<Document> collection = getCollection(tableName);
+        Document stats = client.getDatabase(collection.getNamespace().getDatabaseName())
+                .runCommand(new Document("collStats", collection.getNamespace().getCollectionName()));
+        return ((Number) stats.get("size")).longValue();
+    }
+
+    /**
+     * Get the field by which a collection is split into key ranges, which is the first field of the shard key
+     * of a sharded collection and _id otherwise. Both are indexed and have no array values.
+     */
+    public String getRangeKey(SchemaTableName tableName)
+    {
+        MongoCollection<Document> collection = getCollection(tableName);
+        Document sharding = client.getDatabase("config").getCollection("collections")
+                .find(new Document(ID_FIELD, collection.getNamespace().getFullName()))
+                .first();
+        if (sharding == null || Boolean.TRUE.equals(sharding.getBoolean("dropped")) || sharding.get("key", Document.class) == null) {
+            return ID_FIELD;
+        }
+        String key = sharding.get("key", Document.class).keySet().iterator().next();
+        return key.contains(".") ? ID_FIELD : key;
+    }
+
+    /**
+     * Sample the values of a field of the documents of a collection
+     *
+     * @return the sampled values in ascending order, without nulls
+     */
+    public List<Object> sampleKeys(SchemaTableName tableName, String key, int sampleSize)
+    {
+        Document projection = new Document(key, 1);
+        if (!key.equals(ID_FIELD)) {
+            projection.append(ID_FIELD, 0);
+        }
+        List<Document> pipeline = ImmutableList.of(
+                new Document("$sample", new Document("size", sampleSize)),
+                new Document("$project", projection),
+                new Document("$sort", new Document(key, 1)));
+        List<Object> keys = new ArrayList<>();
+        for (Document document : getCollection(tableName).aggregate(pipeline).allowDiskUse(true)) {
+            keys.add(document.get(key));
+        }
+        return keys.stream()
+                .filter(Objects::nonNull)
+                .collect(toImmutableList());
+    }
+
     @VisibleForTesting
     static Document buildQuery(TupleDomain<ColumnHandle> tupleDomain)
     {
@@ -403,6 +578,10 @@ public class MongoSession
             return Optional.of(prestoNativeValue);
         }
 
+        if (type == DOUBLE || type == BOOLEAN) {
+            return Optional.of(prestoNativeValue);
+        }
+
         if (type instanceof ObjectIdType) {
             return Optional.of(new ObjectId(((Slice) prestoNativeValue).getBytes()));
         }
@@ -20,6 +20,7 @@ import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.connector.ConnectorSplit;
 
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -27,11 +28,23 @@ public class MongoSplit
         implements ConnectorSplit
 {
     private final List<HostAddress> addresses;
+    private final Optional<String> rangeFilter;
 
+    public MongoSplit(List<HostAddress> addresses)
+    {
+        this(addresses, Optional.empty());
+    }
+
+    /**
+     * @param rangeFilter the filter selecting the key range of the split as extended json, absent if the split reads the whole collection
+     */
     @JsonCreator
-    public MongoSplit(@JsonProperty("addresses") List<HostAddress> addresses)
+    public MongoSplit(
+            @JsonProperty("addresses") List<HostAddress> addresses,
+            @JsonProperty("rangeFilter") Optional<String> rangeFilter)
     {
         this.addresses = ImmutableList.copyOf(requireNonNull(addresses, "addresses is null"));
+        this.rangeFilter = requireNonNull(rangeFilter, "rangeFilter is null");
     }
 
     @Override
@@ -47,6 +60,12 @@ public class MongoSplit
         return addresses;
     }
 
+    @JsonProperty
+    public Optional<String> getRangeFilter()
+    {
+        return rangeFilter;
+    }
+
     @Override
     public Object getInfo()
     {
@@ -14,6 +14,8 @@
 package io.hetu.core.plugin.mongodb;
 
 import com.google.common.collect.ImmutableList;
+import com.mongodb.MongoException;
+import io.airlift.log.Logger;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitManager;
@@ -21,32 +23,114 @@ import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
+import io.prestosql.spi.connector.SchemaTableName;
+import org.bson.Document;
 
 import javax.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static io.prestosql.spi.HostAddress.fromParts;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Splits large collections into ranges of a key, which is _id or the shard key of a sharded collection.
+ * The boundaries of the ranges are quantiles of a $sample of the keys, so the ranges have about the same
+ * number of documents even if the keys are not evenly distributed.
+ */
 public class MongoSplitManager
         implements ConnectorSplitManager
 {
+    private static final Logger log = Logger.get(MongoSplitManager.class);
+
+    private static final int MAX_SPLITS_PER_COLLECTION = 1000;
+    private static final int SAMPLES_PER_SPLIT = 10;
+
+    private final MongoSession mongoSession;
     private final List<HostAddress> addresses;
+    private final long splitSize;
 
     @Inject
-    public MongoSplitManager(MongoClientConfig config)
+    public MongoSplitManager(MongoSession mongoSession, MongoClientConfig config)
     {
+        this.mongoSession = requireNonNull(mongoSession, "mongoSession is null");
         this.addresses = config.getSeeds().stream()
                 .map(s -> fromParts(s.getHost(), s.getPort()))
                 .collect(toList());
+        this.splitSize = config.getSplitSize().toBytes();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
-        MongoSplit split = new MongoSplit(addresses);
+        MongoTableHandle tableHandle = (MongoTableHandle) table;
+        // a query with a limit reads few documents
+        if (tableHandle.getLimit().isPresent() || splitSize <= 0) {
+            return new FixedSplitSource(ImmutableList.of(new MongoSplit(addresses)));
+        }
+
+        return new FixedSplitSource(getRangeFilters(tableHandle.getSchemaTableName()).stream()
+                .map(rangeFilter -> new MongoSplit(addresses, rangeFilter))
+                .collect(toList()));
+    }
+
+    private List<Optional<String>> getRangeFilters(SchemaTableName tableName)
+    {
+        List<Object> boundaries;
+        String key;
+        try {
+            long splitCount = (mongoSession.getCollectionSize(tableName) + splitSize - 1) / splitSize;
+            if (splitCount <= 1) {
+                return ImmutableList.of(Optional.empty());
+            }
+            splitCount = Math.min(splitCount, MAX_SPLITS_PER_COLLECTION);
+            key = mongoSession.getRangeKey(tableName);
+            boundaries = getBoundaries(mongoSession.sampleKeys(tableName, key, (int) splitCount * SAMPLES_PER_SPLIT), (int) splitCount);
+        }
+        catch (MongoException e) {
+            // e.g. views have no statistics
+            log.debug(e, "Failed to split collection %s, reading it with a single split", tableName);
+            return ImmutableList.of(Optional.empty());
+        }
+        if (boundaries.isEmpty()) {
+            return ImmutableList.of(Optional.empty());
+        }
 
-        return new FixedSplitSource(ImmutableList.of(split));
+        // the first range also has the documents whose keys have another type than the boundaries
+        ImmutableList.Builder<Optional<String>> rangeFilters = ImmutableList.builder();
+        rangeFilters.add(Optional.of(new Document(key, new Document("$not", new Document("$gte", boundaries.get(0)))).toJson()));
+        for (int i = 1; i < boundaries.size(); i++) {
+            rangeFilters.add(Optional.of(new Document(key, new Document("$gte", boundaries.get(i - 1)).append("$lt", boundaries.get(i))).toJson()));
+        }
+        rangeFilters.add(Optional.of(new Document(key, new Document("$gte", boundaries.get(boundaries.size() - 1))).toJson()));
+        return rangeFilters.build();
+    }
+
+    /**
+     * Get the boundaries of the ranges from the sorted samples of the keys. The ranges of the key
+     * values of another type than the boundaries would be empty, so the boundaries must be
+     * of the same type, or all numbers which MongoDB compares with each other.
+     */
+    private static List<Object> getBoundaries(List<Object> samples, int splitCount)
+    {
+        if (samples.isEmpty()) {
+            return ImmutableList.of();
+        }
+        List<Object> boundaries = new ArrayList<>();
+        for (int i = 1; i < splitCount; i++) {
+            Object boundary = samples.get(i * samples.size() / splitCount);
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+        Class<?> type = boundaries.get(0).getClass();
+        boolean numbers = boundaries.stream().allMatch(Number.class::isInstance);
+        if (!numbers && !boundaries.stream().allMatch(type::isInstance)) {
+            return ImmutableList.of();
+        }
+        return boundaries;
     }
 }
@@ -21,6 +21,8 @@ import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.TupleDomain;
 
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,19 +31,34 @@ public class MongoTableHandle
 {
     private final SchemaTableName schemaTableName;
     private final TupleDomain<ColumnHandle> constraint;
+    private final OptionalLong limit;
+    private final Optional<MongoAggregation> aggregation;
 
     public MongoTableHandle(SchemaTableName schemaTableName)
     {
         this(schemaTableName, TupleDomain.all());
     }
 
+    public MongoTableHandle(SchemaTableName schemaTableName, TupleDomain<ColumnHandle> constraint)
+    {
+        this(schemaTableName, constraint, OptionalLong.empty(), Optional.empty());
+    }
+
+    /**
+     * @param limit the maximum number of documents every split reads
+     * @param aggregation the aggregation computed by MongoDB, the splits return its groups instead of the documents
+     */
     @JsonCreator
     public MongoTableHandle(
             @JsonProperty("schemaTableName") SchemaTableName schemaTableName,
-            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint)
+            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("aggregation") Optional<MongoAggregation> aggregation)
     {
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
+        this.limit = requireNonNull(limit, "limit is null");
+        this.aggregation = requireNonNull(aggregation, "aggregation is null");
     }
 
     @JsonProperty
@@ -56,10 +73,22 @@ public class MongoTableHandle
         return constraint;
     }
 
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    @JsonProperty
+    public Optional<MongoAggregation> getAggregation()
+    {
+        return aggregation;
+    }
+
     @Override
     public int hashCode()
     {
-        return Objects.hash(schemaTableName, constraint);
+        return Objects.hash(schemaTableName, constraint, limit, aggregation);
     }
 
     @Override
@@ -73,7 +102,9 @@ public class MongoTableHandle
         }
         MongoTableHandle other = (MongoTableHandle) obj;
         return Objects.equals(this.schemaTableName, other.schemaTableName) &&
-                Objects.equals(this.constraint, other.constraint);
+                Objects.equals(this.constraint, other.constraint) &&
+                Objects.equals(this.limit, other.limit) &&
+                Objects.equals(this.aggregation, other.aggregation);
     }
 
     @Override
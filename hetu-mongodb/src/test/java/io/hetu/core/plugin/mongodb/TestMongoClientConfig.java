@@ -15,6 +15,7 @@ package io.hetu.core.plugin.mongodb;
 
 import com.google.common.collect.ImmutableMap;
 import com.mongodb.MongoCredential;
+import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -22,6 +23,7 @@ import java.util.Map;
 import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static org.testng.Assert.assertEquals;
 
 public class TestMongoClientConfig
@@ -43,6 +45,8 @@ public class TestMongoClientConfig
                 .setSslEnabled(false)
                 .setMaxConnectionIdleTime(0)
                 .setCursorBatchSize(0)
+                .setSplitSize(new DataSize(64, MEGABYTE))
+                .setAggregationPushDownEnabled(true)
                 .setReadPreference(ReadPreferenceType.PRIMARY)
                 .setWriteConcern(WriteConcernType.ACKNOWLEDGED)
                 .setRequiredReplicaSetName(null)
@@ -66,6 +70,8 @@ public class TestMongoClientConfig
                 .put("mongodb.ssl.enabled", "true")
                 .put("mongodb.max-connection-idle-time", "180000")
                 .put("mongodb.cursor-batch-size", "1")
+                .put("mongodb.split-size", "16MB")
+                .put("mongodb.aggregation-push-down-enabled", "false")
                 .put("mongodb.read-preference", "NEAREST")
                 .put("mongodb.write-concern", "UNACKNOWLEDGED")
                 .put("mongodb.required-replica-set", "replica_set")
@@ -86,6 +92,8 @@ public class TestMongoClientConfig
                 .setSslEnabled(true)
                 .setMaxConnectionIdleTime(180_000)
                 .setCursorBatchSize(1)
+                .setSplitSize(new DataSize(16, MEGABYTE))
+                .setAggregationPushDownEnabled(false)
                 .setReadPreference(ReadPreferenceType.NEAREST)
                 .setWriteConcern(WriteConcernType.UNACKNOWLEDGED)
                 .setRequiredReplicaSetName("replica_set")
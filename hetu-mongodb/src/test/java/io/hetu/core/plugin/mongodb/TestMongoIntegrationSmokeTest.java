@@ -321,6 +321,27 @@ public class TestMongoIntegrationSmokeTest
         assertUpdate("DROP TABLE testcase.testinsensitive");
     }
 
+    @Test
+    public void testAggregationPushDown()
+    {
+        MongoCollection<Document> collection = client.getDatabase("test").getCollection("tmp_aggregation");
+        collection.insertMany(ImmutableList.of(
+                new Document("key", "a").append("value", 1L),
+                new Document("key", "a").append("value", 2L),
+                new Document("key", "b").append("value", null),
+                new Document("key", "b"),
+                new Document("value", 5L)));
+
+        assertQuery(
+                "SELECT key, count(*), count(value), sum(value), min(value), max(value) FROM test.tmp_aggregation GROUP BY key",
+                "VALUES ('a', 2, 2, 3, 1, 2), ('b', 2, 0, NULL, NULL, NULL), (NULL, 1, 1, 5, 5, 5)");
+        assertQuery("SELECT count(*), count(key), max(key) FROM test.tmp_aggregation", "VALUES (5, 4, 'b')");
+
+        assertUpdate("CREATE TABLE test.tmp_empty_aggregation (value bigint)");
+        assertQuery("SELECT count(*), count(value), sum(value) FROM test.tmp_empty_aggregation", "VALUES (0, 0, NULL)");
+        assertUpdate("DROP TABLE test.tmp_empty_aggregation");
+    }
+
     @Test
     public void testSelectView()
     {
@@ -22,6 +22,9 @@ import io.prestosql.spi.predicate.ValueSet;
 import org.bson.Document;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
+
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.spi.predicate.Range.equal;
 import static io.prestosql.spi.predicate.Range.greaterThan;
@@ -29,6 +32,8 @@ import static io.prestosql.spi.predicate.Range.greaterThanOrEqual;
 import static io.prestosql.spi.predicate.Range.lessThan;
 import static io.prestosql.spi.predicate.Range.range;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
@@ -38,6 +43,8 @@ public class TestMongoSession
     private static final MongoColumnHandle COL1 = new MongoColumnHandle("col1", BIGINT, false);
     private static final MongoColumnHandle COL2 = new MongoColumnHandle("col2", createUnboundedVarcharType(), false);
     private static final MongoColumnHandle COL3 = new MongoColumnHandle("col3", createUnboundedVarcharType(), false);
+    private static final MongoColumnHandle COL4 = new MongoColumnHandle("col4", DOUBLE, false);
+    private static final MongoColumnHandle COL5 = new MongoColumnHandle("col5", BOOLEAN, false);
 
     @Test
     public void testBuildQuery()
@@ -103,4 +110,66 @@ public class TestMongoSession
                 new Document(COL1.getName(), new Document("$eq", null))));
         assertEquals(query, expected);
     }
+
+    @Test
+    public void testBuildQueryDoubleAndBoolean()
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                COL4, Domain.create(ValueSet.ofRanges(greaterThanOrEqual(DOUBLE, 1.5)), false),
+                COL5, Domain.singleValue(BOOLEAN, true)));
+
+        Document query = MongoSession.buildQuery(tupleDomain);
+        Document expected = new Document()
+                .append(COL4.getName(), new Document("$gte", 1.5))
+                .append(COL5.getName(), new Document("$eq", true));
+        assertEquals(query, expected);
+    }
+
+    @Test
+    public void testBuildAggregationPipeline()
+    {
+        MongoColumnHandle count = new MongoColumnHandle("count", BIGINT, false);
+        MongoColumnHandle sum = new MongoColumnHandle("sum", BIGINT, false);
+        MongoAggregation aggregation = new MongoAggregation(
+                ImmutableList.of(COL2),
+                ImmutableList.of(
+                        new MongoAggregate(MongoAggregate.Function.COUNT, Optional.empty(), count),
+                        new MongoAggregate(MongoAggregate.Function.SUM, Optional.of(COL1), sum)));
+
+        List<Document> pipeline = MongoSession.buildAggregationPipeline(new Document(COL1.getName(), new Document("$gt", 100L)), aggregation);
+
+        Document bigintValue = new Document("$in", asList(new Document("$type", "$col1"), asList("int", "long")));
+        assertEquals(pipeline, ImmutableList.of(
+                new Document("$match", new Document(COL1.getName(), new Document("$gt", 100L))),
+                new Document("$group", new Document()
+                        .append("_id", new Document("k0", "$col2"))
+                        .append("a0", new Document("$sum", 1))
+                        .append("a1", new Document("$sum", new Document("$cond", asList(bigintValue, "$col1", null))))
+                        .append("n1", new Document("$sum", new Document("$cond", asList(bigintValue, 1, 0))))),
+                new Document("$project", new Document()
+                        .append("col2", "$_id.k0")
+                        .append("count", "$a0")
+                        .append("sum", new Document("$cond", asList(new Document("$gt", asList("$n1", 0)), "$a1", null)))
+                        .append("_id", 0))));
+    }
+
+    @Test
+    public void testBuildGlobalAggregationPipeline()
+    {
+        MongoColumnHandle max = new MongoColumnHandle("max", DOUBLE, false);
+        MongoAggregation aggregation = new MongoAggregation(
+                ImmutableList.of(),
+                ImmutableList.of(new MongoAggregate(MongoAggregate.Function.MAX, Optional.of(COL4), max)));
+
+        List<Document> pipeline = MongoSession.buildAggregationPipeline(new Document(), aggregation);
+
+        Document doubleValue = new Document("$in", asList(new Document("$type", "$col4"), asList("double", "int", "long")));
+        assertEquals(pipeline, ImmutableList.of(
+                new Document("$group", new Document()
+                        .append("_id", null)
+                        .append("a0", new Document("$max", new Document("$cond", asList(doubleValue, "$col4", null))))),
+                new Document("$project", new Document()
+                        .append("max", "$a0")
+                        .append("_id", 0))));
+    }
 }
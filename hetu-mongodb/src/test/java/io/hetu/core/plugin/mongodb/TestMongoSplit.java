@@ -15,8 +15,11 @@ package io.hetu.core.plugin.mongodb;
 
 import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
+import org.bson.Document;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+
 import static org.testng.Assert.assertEquals;
 
 public class TestMongoSplit
@@ -32,5 +35,18 @@ public class TestMongoSplit
         MongoSplit actual = codec.fromJson(json);
 
         assertEquals(actual.getAddresses(), ImmutableList.of());
+        assertEquals(actual.getRangeFilter(), Optional.empty());
+    }
+
+    @Test
+    public void testRangeFilterJsonRoundTrip()
+    {
+        Document filter = new Document("_id", new Document("$gte", 10L).append("$lt", 20L));
+        MongoSplit expected = new MongoSplit(ImmutableList.of(), Optional.of(filter.toJson()));
+
+        MongoSplit actual = codec.fromJson(codec.toJson(expected));
+
+        assertEquals(actual.getRangeFilter(), expected.getRangeFilter());
+        assertEquals(Document.parse(actual.getRangeFilter().get()), filter);
     }
 }
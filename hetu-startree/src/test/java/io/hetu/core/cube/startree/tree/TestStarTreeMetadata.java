@@ -17,11 +17,16 @@ package io.hetu.core.cube.startree.tree;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.hetu.core.spi.cube.CubeFilter;
 import io.hetu.core.spi.cube.CubeMetadata;
 import io.hetu.core.spi.cube.CubeStatement;
 import io.hetu.core.spi.cube.CubeStatus;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+
+import static io.hetu.core.spi.cube.aggregator.AggregationSignature.approxDistinct;
+import static io.hetu.core.spi.cube.aggregator.AggregationSignature.approxPercentile;
 import static io.hetu.core.spi.cube.aggregator.AggregationSignature.avg;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -117,4 +122,65 @@ public class TestStarTreeMetadata
                 .build();
         assertTrue(emptyGroupMetadata.matches(statement));
     }
+
+    @Test
+    public void testMatchSketchAggregations()
+    {
+        CubeMetadata sketchMetadata = createMetadata(null, new AggregateColumn("approx_distinct_quantity", "approx_distinct", "quantity", false),
+                new AggregateColumn("approx_percentile_discount", "approx_percentile", "discount", false));
+        CubeStatement statement = CubeStatement.newBuilder()
+                .select("returnflag")
+                .aggregate(approxDistinct("quantity"))
+                .aggregate(approxPercentile("discount"))
+                .from("tpch.tiny.lineitem")
+                .groupBy("returnflag")
+                .build();
+        assertTrue(sketchMetadata.matches(statement));
+        assertEquals(sketchMetadata.getColumn(approxDistinct("quantity")), Optional.of("approx_distinct_quantity"));
+
+        CubeStatement unknownSketch = CubeStatement.newBuilder()
+                .select("returnflag")
+                .aggregate(approxPercentile("quantity"))
+                .from("tpch.tiny.lineitem")
+                .groupBy("returnflag")
+                .build();
+        assertFalse(sketchMetadata.matches(unknownSketch));
+    }
+
+    @Test
+    public void testIncrementallyRefreshable()
+    {
+        // cube was built for the entire table
+        assertFalse(metadata.isIncrementallyRefreshable());
+
+        CubeFilter coveredRange = new CubeFilter(null, "shipdate BETWEEN DATE '1998-01-01' AND DATE '1998-01-31'");
+        assertTrue(createMetadata(coveredRange, new AggregateColumn("sum_quantity", "sum", "quantity", false),
+                new AggregateColumn("avg_quantity", "avg", "quantity", false),
+                new AggregateColumn("count_all", "count", "*", false)).isIncrementallyRefreshable());
+        // sketches of two ranges are merged
+        assertTrue(createMetadata(coveredRange, new AggregateColumn("approx_distinct_quantity", "approx_distinct", "quantity", false),
+                new AggregateColumn("approx_percentile_quantity", "approx_percentile", "quantity", false)).isIncrementallyRefreshable());
+        // distinct counts of two ranges cannot be merged
+        assertFalse(createMetadata(coveredRange, new AggregateColumn("sum_quantity", "sum", "quantity", false),
+                new AggregateColumn("count_quantity_distinct", "count", "quantity", true)).isIncrementallyRefreshable());
+        // cube was built for a subset of the table, but without a covered range
+        assertFalse(createMetadata(new CubeFilter("returnflag = 'A'"), new AggregateColumn("sum_quantity", "sum", "quantity", false)).isIncrementallyRefreshable());
+    }
+
+    private static CubeMetadata createMetadata(CubeFilter cubeFilter, AggregateColumn... aggregateColumns)
+    {
+        return new StarTreeMetadata(
+                "memory.default.cube2",
+                "tpch.tiny.lineitem",
+                100,
+                ImmutableList.<StarTreeColumn>builder()
+                        .add(new DimensionColumn("returnflag", "returnflag"))
+                        .add(new DimensionColumn("shipdate", "shipdate"))
+                        .add(aggregateColumns)
+                        .build(),
+                ImmutableList.of(ImmutableSet.of("returnflag", "shipdate")),
+                cubeFilter,
+                1000,
+                CubeStatus.READY);
+    }
 }
@@ -14,14 +14,21 @@
  */
 package io.hetu.core.statestore;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.prestosql.spi.statestore.CipherService;
 import io.prestosql.spi.statestore.StateMap;
+import io.prestosql.spi.statestore.listener.EntryAddedListener;
+import io.prestosql.spi.statestore.listener.EntryEvent;
+import io.prestosql.spi.statestore.listener.EntryRemovedListener;
+import io.prestosql.spi.statestore.listener.EntryUpdatedListener;
 import io.prestosql.spi.statestore.listener.MapListener;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import static java.util.Objects.requireNonNull;
@@ -29,6 +36,7 @@ import static java.util.Objects.requireNonNull;
 /**
  * EncryptedStateMap is a StateMap but have all the values encrypted using configured encryption algorithms
  * Only values are encrypted, keys are not
+ * The entry listeners receive the decrypted values
  *
  * @param <K> type of keys
  * @param <V> type of values
@@ -39,6 +47,8 @@ public class EncryptedStateMap<K, V extends Serializable>
 {
     private final StateMap encryptedValues;
     private final CipherService cipherService;
+    // listeners registered on the wrapped StateMap, which decrypt the values of the events
+    private final Map<MapListener, List<MapListener>> decryptingListeners = new ConcurrentHashMap<>();
 
     /**
      * Create an EncryptedStateMap
@@ -139,13 +149,46 @@ public class EncryptedStateMap<K, V extends Serializable>
     @Override
     public void addEntryListener(MapListener listener)
     {
-        encryptedValues.addEntryListener(listener);
+        ImmutableList.Builder<MapListener> listeners = ImmutableList.builder();
+        if (listener instanceof EntryAddedListener) {
+            listeners.add((EntryAddedListener<K, String>) event -> ((EntryAddedListener<K, V>) listener).entryAdded(decrypt(event)));
+        }
+        if (listener instanceof EntryUpdatedListener) {
+            listeners.add((EntryUpdatedListener<K, String>) event -> ((EntryUpdatedListener<K, V>) listener).entryUpdated(decrypt(event)));
+        }
+        if (listener instanceof EntryRemovedListener) {
+            listeners.add((EntryRemovedListener<K, String>) event -> ((EntryRemovedListener<K, V>) listener).entryRemoved(decrypt(event)));
+        }
+        List<MapListener> registeredListeners = listeners.build();
+        registeredListeners.forEach(encryptedValues::addEntryListener);
+        decryptingListeners.put(listener, registeredListeners);
     }
 
     @Override
     public void removeEntryListener(MapListener listener)
     {
-        encryptedValues.removeEntryListener(listener);
+        List<MapListener> registeredListeners = decryptingListeners.remove(listener);
+        if (registeredListeners != null) {
+            registeredListeners.forEach(encryptedValues::removeEntryListener);
+        }
+    }
+
+    private EntryEvent<K, V> decrypt(EntryEvent<K, String> event)
+    {
+        return new EntryEvent<>(
+                event.getMember(),
+                event.getEventType().getTypeId(),
+                event.getKey(),
+                decrypt(event.getOldValue()),
+                decrypt(event.getValue()));
+    }
+
+    private V decrypt(String value)
+    {
+        if (value == null) {
+            return null;
+        }
+        return (V) cipherService.decrypt(value);
     }
 
     @Override
@@ -30,7 +30,15 @@ public class HazelCastSliceSerializer
     @Override
     public void write(ObjectDataOutput objectDataOutput, Slice slice) throws IOException
     {
-        objectDataOutput.writeByteArray(slice.getBytes());
+        // same format as writeByteArray, without copying the bytes of the slice
+        int length = slice.length();
+        objectDataOutput.writeInt(length);
+        if (slice.hasByteArray()) {
+            objectDataOutput.write(slice.byteArray(), slice.byteArrayOffset(), length);
+        }
+        else {
+            objectDataOutput.write(slice.getBytes());
+        }
     }
 
     @Override
@@ -15,6 +15,7 @@
 package io.hetu.core.statestore.hazelcast;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.StreamSerializer;
@@ -27,20 +28,22 @@ import static io.hetu.core.statestore.hazelcast.HazelCastSerializationConstants.
 public class HazelcastCatalogSerializer
         implements StreamSerializer<CatalogEntity>
 {
-    private ObjectMapper mapper = new ObjectMapper();
+    private ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+    // entities written as json text by the state store members of previous versions
+    private ObjectMapper jsonMapper = new ObjectMapper();
 
     @Override
     public void write(ObjectDataOutput objectDataOutput, CatalogEntity catalogEntity)
             throws IOException
     {
-        objectDataOutput.writeByteArray(mapper.writeValueAsString(catalogEntity).getBytes());
+        objectDataOutput.writeByteArray(mapper.writeValueAsBytes(catalogEntity));
     }
 
     @Override
     public CatalogEntity read(ObjectDataInput objectDataInput)
             throws IOException
     {
-        return mapper.readValue(objectDataInput.readByteArray(), CatalogEntity.class);
+        return HazelcastSerializers.readEntity(mapper, jsonMapper, objectDataInput.readByteArray(), CatalogEntity.class);
     }
 
     @Override
@@ -137,6 +137,26 @@ public final class HazelcastConstants
      */
     public static final String HEARTBEAT_TIMEOUT_SECONDS = "hazelcast.heartbeat.timeout.seconds";
 
+    /**
+     * Comma separated names of the maps cached in a Hazelcast near cache, wildcards are allowed
+     */
+    public static final String NEAR_CACHE_MAPS = "hazelcast.near-cache.maps";
+
+    /**
+     * Maximum number of entries of a map in the near cache
+     */
+    public static final String NEAR_CACHE_MAX_SIZE = "hazelcast.near-cache.max-size";
+
+    /**
+     * Default maximum number of entries of a map in the near cache
+     */
+    public static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 10000;
+
+    /**
+     * Maximum time in seconds an entry stays in the near cache, 0 for no limit
+     */
+    public static final String NEAR_CACHE_TIME_TO_LIVE_SECONDS = "hazelcast.near-cache.time-to-live-seconds";
+
     private HazelcastConstants()
     {
     }
@@ -15,6 +15,7 @@
 package io.hetu.core.statestore.hazelcast;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -28,20 +29,22 @@ import static io.hetu.core.statestore.hazelcast.HazelCastSerializationConstants.
 public class HazelcastDatabaseEntitySerializer
         implements StreamSerializer<DatabaseEntity>
 {
-    private ObjectMapper mapper = new ObjectMapper().registerModule(new Jdk8Module());
+    private ObjectMapper mapper = new ObjectMapper(new SmileFactory()).registerModule(new Jdk8Module());
+    // entities written as json text by the state store members of previous versions
+    private ObjectMapper jsonMapper = new ObjectMapper().registerModule(new Jdk8Module());
 
     @Override
     public void write(ObjectDataOutput objectDataOutput, DatabaseEntity databaseEntity)
             throws IOException
     {
-        objectDataOutput.writeByteArray(mapper.writeValueAsString(databaseEntity).getBytes());
+        objectDataOutput.writeByteArray(mapper.writeValueAsBytes(databaseEntity));
     }
 
     @Override
     public DatabaseEntity read(ObjectDataInput objectDataInput)
             throws IOException
     {
-        return mapper.readValue(objectDataInput.readByteArray(), DatabaseEntity.class);
+        return HazelcastSerializers.readEntity(mapper, jsonMapper, objectDataInput.readByteArray(), DatabaseEntity.class);
     }
 
     @Override
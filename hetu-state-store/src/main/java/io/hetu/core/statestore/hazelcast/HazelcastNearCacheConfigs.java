@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.statestore.hazelcast;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import io.prestosql.spi.PrestoException;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DEFAULT_NEAR_CACHE_MAX_SIZE;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAPS;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAX_SIZE;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_TIME_TO_LIVE_SECONDS;
+import static io.prestosql.spi.StandardErrorCode.CONFIGURATION_INVALID;
+
+/**
+ * Near cache configs for read-mostly state maps. A near cache keeps the entries read by a member or client
+ * locally, so reading them again does not go to the member owning the entry. The cached entries are
+ * invalidated when they are updated or removed on any member, the invalidation is eventually consistent.
+ */
+public final class HazelcastNearCacheConfigs
+{
+    private HazelcastNearCacheConfigs()
+    {
+    }
+
+    /**
+     * Create the near cache configs for the maps configured in the state store properties
+     *
+     * @param properties state store properties
+     * @return near cache configs, empty if no near cache is configured
+     */
+    public static List<NearCacheConfig> createNearCacheConfigs(Map<String, String> properties)
+    {
+        String maps = properties.get(NEAR_CACHE_MAPS);
+        if (maps == null || maps.trim().isEmpty()) {
+            return ImmutableList.of();
+        }
+        int maxSize = getIntProperty(properties, NEAR_CACHE_MAX_SIZE, DEFAULT_NEAR_CACHE_MAX_SIZE);
+        int timeToLiveSeconds = getIntProperty(properties, NEAR_CACHE_TIME_TO_LIVE_SECONDS, NearCacheConfig.DEFAULT_TTL_SECONDS);
+
+        ImmutableList.Builder<NearCacheConfig> configs = ImmutableList.builder();
+        for (String map : Splitter.on(',').trimResults().omitEmptyStrings().split(maps)) {
+            EvictionConfig evictionConfig = new EvictionConfig()
+                    .setEvictionPolicy(EvictionPolicy.LRU)
+                    .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                    .setSize(maxSize);
+            configs.add(new NearCacheConfig(map)
+                    .setInvalidateOnChange(true)
+                    // values are deserialized on every read, so callers never share an instance
+                    .setInMemoryFormat(InMemoryFormat.BINARY)
+                    .setTimeToLiveSeconds(timeToLiveSeconds)
+                    .setEvictionConfig(evictionConfig));
+        }
+        return configs.build();
+    }
+
+    private static int getIntProperty(Map<String, String> properties, String name, int defaultValue)
+    {
+        String value = properties.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue < 0) {
+                throw new PrestoException(CONFIGURATION_INVALID, name + " must not be negative: " + value);
+            }
+            return intValue;
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(CONFIGURATION_INVALID, name + " is not a number: " + value);
+        }
+    }
+}
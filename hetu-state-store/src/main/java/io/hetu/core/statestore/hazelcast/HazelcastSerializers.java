@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.statestore.hazelcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.metastore.model.CatalogEntity;
+import io.prestosql.spi.metastore.model.DatabaseEntity;
+import io.prestosql.spi.metastore.model.TableEntity;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_1;
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_2;
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_3;
+
+/**
+ * Serializers of the values stored in the state store which are not supported natively by Hazelcast,
+ * state store members and clients must register the same serializers
+ */
+public final class HazelcastSerializers
+{
+    private HazelcastSerializers()
+    {
+    }
+
+    /**
+     * Add the serializers to a member or client serialization config
+     *
+     * @param serializationConfig Hazelcast serialization config
+     */
+    public static void addSerializers(SerializationConfig serializationConfig)
+    {
+        // Add serialization for Slice
+        serializationConfig.addSerializerConfig(new SerializerConfig().setImplementation(new HazelCastSliceSerializer()).setTypeClass(Slice.class));
+        serializationConfig.addSerializerConfig(new SerializerConfig().setImplementation(new HazelcastCatalogSerializer()).setTypeClass(CatalogEntity.class));
+        serializationConfig.addSerializerConfig(new SerializerConfig().setImplementation(new HazelcastDatabaseEntitySerializer()).setTypeClass(DatabaseEntity.class));
+        serializationConfig.addSerializerConfig(new SerializerConfig().setImplementation(new HazelcastTableEntitySerializer()).setTypeClass(TableEntity.class));
+        serializationConfig.addSerializerConfig(new SerializerConfig().setImplementation(new HazelcastOptionalSerializer()).setTypeClass(Optional.class));
+    }
+
+    /**
+     * Read a metastore entity written as Smile, or as json text by the state store members of previous versions
+     *
+     * @param smileMapper mapper reading Smile
+     * @param jsonMapper mapper reading json text
+     * @param bytes serialized entity
+     * @param type class of the entity
+     * @return the entity
+     * @throws IOException when the entity cannot be read
+     */
+    static <T> T readEntity(ObjectMapper smileMapper, ObjectMapper jsonMapper, byte[] bytes, Class<T> type)
+            throws IOException
+    {
+        if (bytes.length >= 3 && bytes[0] == HEADER_BYTE_1 && bytes[1] == HEADER_BYTE_2 && bytes[2] == HEADER_BYTE_3) {
+            return smileMapper.readValue(bytes, type);
+        }
+        return jsonMapper.readValue(bytes, type);
+    }
+}
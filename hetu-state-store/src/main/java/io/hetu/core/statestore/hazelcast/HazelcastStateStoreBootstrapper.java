@@ -22,23 +22,18 @@ import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.JoinConfig;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NetworkConfig;
-import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
-import io.airlift.slice.Slice;
 import io.hetu.core.security.authentication.kerberos.KerberosConfig;
 import io.hetu.core.security.networking.ssl.SslConfig;
 import io.prestosql.spi.PrestoException;
-import io.prestosql.spi.metastore.model.CatalogEntity;
-import io.prestosql.spi.metastore.model.DatabaseEntity;
-import io.prestosql.spi.metastore.model.TableEntity;
 import io.prestosql.spi.statestore.CipherService;
 import io.prestosql.spi.statestore.StateStoreBootstrapper;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.Optional;
 
 import static io.hetu.core.statestore.Constants.STATE_STORE_CLUSTER_CONFIG_NAME;
 import static io.hetu.core.statestore.StateStoreUtils.getEncryptionTypeFromConfig;
@@ -93,21 +88,7 @@ public class HazelcastStateStoreBootstrapper
         Config hzConfig = new Config();
         // Config hazelcast cluster name
 
-        // Add serialization for Slice
-        SerializerConfig sc = new SerializerConfig().setImplementation(new HazelCastSliceSerializer()).setTypeClass(Slice.class);
-        hzConfig.getSerializationConfig().addSerializerConfig(sc);
-
-        SerializerConfig catalogEntity = new SerializerConfig().setImplementation(new HazelcastCatalogSerializer()).setTypeClass(CatalogEntity.class);
-        hzConfig.getSerializationConfig().addSerializerConfig(catalogEntity);
-
-        SerializerConfig dataEntity = new SerializerConfig().setImplementation(new HazelcastDatabaseEntitySerializer()).setTypeClass(DatabaseEntity.class);
-        hzConfig.getSerializationConfig().addSerializerConfig(dataEntity);
-
-        SerializerConfig tableEntity = new SerializerConfig().setImplementation(new HazelcastTableEntitySerializer()).setTypeClass(TableEntity.class);
-        hzConfig.getSerializationConfig().addSerializerConfig(tableEntity);
-
-        SerializerConfig op = new SerializerConfig().setImplementation(new HazelcastOptionalSerializer()).setTypeClass(Optional.class);
-        hzConfig.getSerializationConfig().addSerializerConfig(op);
+        HazelcastSerializers.addSerializers(hzConfig.getSerializationConfig());
 
         String clusterId = config.get(STATE_STORE_CLUSTER_CONFIG_NAME);
         if (clusterId == null) {
@@ -120,6 +101,11 @@ public class HazelcastStateStoreBootstrapper
         // Set eviction rules
         hzConfig = setEvictionConfigs(hzConfig, MERGED_DYNAMIC_FILTERS);
 
+        // Set near cache rules
+        for (NearCacheConfig nearCacheConfig : HazelcastNearCacheConfigs.createNearCacheConfigs(config)) {
+            hzConfig.getMapConfig(nearCacheConfig.getName()).setNearCacheConfig(nearCacheConfig);
+        }
+
         // Set discovery port
         hzConfig = setPortConfigs(config, hzConfig);
 
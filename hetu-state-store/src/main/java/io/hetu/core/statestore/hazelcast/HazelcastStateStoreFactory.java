@@ -18,17 +18,12 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hazelcast.client.HazelcastClient;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.DiscoveryStrategyConfig;
-import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.HazelcastInstance;
 import io.airlift.log.Logger;
-import io.airlift.slice.Slice;
 import io.hetu.core.security.authentication.kerberos.KerberosConfig;
 import io.hetu.core.security.networking.ssl.SslConfig;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.classloader.ThreadContextClassLoader;
-import io.prestosql.spi.metastore.model.CatalogEntity;
-import io.prestosql.spi.metastore.model.DatabaseEntity;
-import io.prestosql.spi.metastore.model.TableEntity;
 import io.prestosql.spi.seedstore.Seed;
 import io.prestosql.spi.seedstore.SeedStore;
 import io.prestosql.spi.statestore.CipherService;
@@ -39,7 +34,6 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -111,21 +105,8 @@ public class HazelcastStateStoreFactory
         }
 
         ClientConfig clientConfig = new ClientConfig();
-        // Add serialization for Slice
-        SerializerConfig sc = new SerializerConfig().setImplementation(new HazelCastSliceSerializer()).setTypeClass(Slice.class);
-        clientConfig.getSerializationConfig().addSerializerConfig(sc);
-
-        SerializerConfig catalogEntity = new SerializerConfig().setImplementation(new HazelcastCatalogSerializer()).setTypeClass(CatalogEntity.class);
-        clientConfig.getSerializationConfig().addSerializerConfig(catalogEntity);
-
-        SerializerConfig dataEntity = new SerializerConfig().setImplementation(new HazelcastDatabaseEntitySerializer()).setTypeClass(DatabaseEntity.class);
-        clientConfig.getSerializationConfig().addSerializerConfig(dataEntity);
-
-        SerializerConfig tableEntity = new SerializerConfig().setImplementation(new HazelcastTableEntitySerializer()).setTypeClass(TableEntity.class);
-        clientConfig.getSerializationConfig().addSerializerConfig(tableEntity);
-
-        SerializerConfig op = new SerializerConfig().setImplementation(new HazelcastOptionalSerializer()).setTypeClass(Optional.class);
-        clientConfig.getSerializationConfig().addSerializerConfig(op);
+        HazelcastSerializers.addSerializers(clientConfig.getSerializationConfig());
+        HazelcastNearCacheConfigs.createNearCacheConfigs(properties).forEach(clientConfig::addNearCacheConfig);
 
         clientConfig.setClusterName(clusterId);
 
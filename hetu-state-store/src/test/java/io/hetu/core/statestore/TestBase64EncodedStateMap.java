@@ -23,13 +23,20 @@ import com.hazelcast.core.HazelcastInstance;
 import io.hetu.core.statestore.hazelcast.HazelcastStateMap;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
+import io.prestosql.spi.statestore.listener.EntryAddedListener;
+import io.prestosql.spi.statestore.listener.EntryEvent;
+import io.prestosql.spi.statestore.listener.EntryRemovedListener;
+import io.prestosql.spi.statestore.listener.EntryUpdatedListener;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
@@ -213,4 +220,69 @@ public class TestBase64EncodedStateMap
         originalValue = encryptedStateMap.replace(TEST_KEY_2, TEST_VALUE_2);
         assertNull(originalValue);
     }
+
+    /**
+     * Test the entry listeners receive decrypted values
+     */
+    @Test
+    public void testEntryListener()
+            throws InterruptedException
+    {
+        final int timeout = 10;
+        StateMap<String, String> originalMap =
+                new HazelcastStateMap(hzInstance, "testEntryListener");
+        EncryptedStateMap<String, String> encryptedStateMap =
+                new EncryptedStateMap(originalMap, new Base64CipherService<String>());
+        BlockingQueue<EntryEvent<String, String>> events = new LinkedBlockingQueue<>();
+        TestListener listener = new TestListener(events);
+        encryptedStateMap.addEntryListener(listener);
+
+        encryptedStateMap.put(TEST_KEY_1, TEST_VALUE_1);
+        EntryEvent<String, String> event = events.poll(timeout, SECONDS);
+        assertEquals(event.getKey(), TEST_KEY_1);
+        assertEquals(event.getValue(), TEST_VALUE_1);
+
+        encryptedStateMap.put(TEST_KEY_1, TEST_VALUE_2);
+        event = events.poll(timeout, SECONDS);
+        assertEquals(event.getOldValue(), TEST_VALUE_1);
+        assertEquals(event.getValue(), TEST_VALUE_2);
+
+        encryptedStateMap.remove(TEST_KEY_1);
+        event = events.poll(timeout, SECONDS);
+        assertEquals(event.getKey(), TEST_KEY_1);
+        assertEquals(event.getOldValue(), TEST_VALUE_2);
+
+        encryptedStateMap.removeEntryListener(listener);
+        encryptedStateMap.put(TEST_KEY_2, TEST_VALUE_2);
+        assertNull(events.poll(1, SECONDS));
+    }
+
+    private static class TestListener
+            implements EntryAddedListener<String, String>, EntryUpdatedListener<String, String>, EntryRemovedListener<String, String>
+    {
+        private final BlockingQueue<EntryEvent<String, String>> events;
+
+        private TestListener(BlockingQueue<EntryEvent<String, String>> events)
+        {
+            this.events = events;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, String> event)
+        {
+            events.add(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, String> event)
+        {
+            events.add(event);
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, String> event)
+        {
+            events.add(event);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.statestore.hazelcast;
+
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.spi.statestore.StateCollection;
+import io.prestosql.spi.statestore.StateMap;
+import io.prestosql.spi.statestore.StateStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.hetu.core.statestore.Constants.STATE_STORE_CLUSTER_CONFIG_NAME;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_MODE_CONFIG_NAME;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_MODE_TCPIP;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_PORT_CONFIG_NAME;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_TCPIP_SEEDS;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAPS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+/**
+ * Get and put latency of a state map of a client of the embedded state store, with and without near cache
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Benchmark)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(AverageTime)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = SECONDS)
+public class BenchmarkHazelcastStateMap
+{
+    private static final String PORT = "5748";
+    private static final String MEMBER_ADDRESS = "127.0.0.1:" + PORT;
+    private static final String MAP_NAME = "benchmark-map";
+    private static final int KEYS = 1000;
+
+    @Param({"false", "true"})
+    private boolean nearCache;
+
+    @Param({"100", "10000"})
+    private int valueSize;
+
+    private StateStore member;
+    private StateStore client;
+    private StateMap<String, byte[]> map;
+    private byte[] value;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Map<String, String> config = new HashMap<>(0);
+        config.put(DISCOVERY_MODE_CONFIG_NAME, DISCOVERY_MODE_TCPIP);
+        config.put(STATE_STORE_CLUSTER_CONFIG_NAME, "benchmark-" + UUID.randomUUID());
+        config.put(DISCOVERY_PORT_CONFIG_NAME, PORT);
+        config.put(DISCOVERY_TCPIP_SEEDS, MEMBER_ADDRESS);
+        if (nearCache) {
+            config.put(NEAR_CACHE_MAPS, MAP_NAME);
+        }
+        member = new HazelcastStateStoreBootstrapper().bootstrap(ImmutableSet.of(MEMBER_ADDRESS), config);
+        client = new HazelcastStateStoreFactory().create("benchmark-state-store", null, config);
+        map = (StateMap<String, byte[]>) client.createStateCollection(MAP_NAME, StateCollection.Type.MAP);
+
+        value = new byte[valueSize];
+        ThreadLocalRandom.current().nextBytes(value);
+        for (int i = 0; i < KEYS; i++) {
+            map.put(String.valueOf(i), value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ((HazelcastStateStore) client).shutdown();
+        ((HazelcastStateStore) member).shutdown();
+    }
+
+    @Benchmark
+    public byte[] get()
+    {
+        return map.get(String.valueOf(ThreadLocalRandom.current().nextInt(KEYS)));
+    }
+
+    @Benchmark
+    public byte[] put()
+    {
+        return map.put(String.valueOf(ThreadLocalRandom.current().nextInt(KEYS)), value);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkHazelcastStateMap.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
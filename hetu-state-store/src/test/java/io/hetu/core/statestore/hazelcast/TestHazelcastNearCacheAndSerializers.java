@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.statestore.hazelcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.metastore.model.CatalogEntity;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAPS;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAX_SIZE;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_TIME_TO_LIVE_SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test for HazelcastNearCacheConfigs and HazelcastSerializers
+ */
+public class TestHazelcastNearCacheAndSerializers
+{
+    @Test
+    public void testNoNearCache()
+    {
+        assertTrue(HazelcastNearCacheConfigs.createNearCacheConfigs(ImmutableMap.of()).isEmpty());
+        assertTrue(HazelcastNearCacheConfigs.createNearCacheConfigs(ImmutableMap.of(NEAR_CACHE_MAPS, " ")).isEmpty());
+    }
+
+    @Test
+    public void testNearCacheConfigs()
+    {
+        List<NearCacheConfig> configs = HazelcastNearCacheConfigs.createNearCacheConfigs(ImmutableMap.of(
+                NEAR_CACHE_MAPS, "merged-dynamic-filters, *Cache",
+                NEAR_CACHE_MAX_SIZE, "100",
+                NEAR_CACHE_TIME_TO_LIVE_SECONDS, "60"));
+        assertEquals(configs.size(), 2);
+        assertEquals(configs.get(0).getName(), "merged-dynamic-filters");
+        assertEquals(configs.get(1).getName(), "*Cache");
+        for (NearCacheConfig config : configs) {
+            assertTrue(config.isInvalidateOnChange());
+            assertEquals(config.getInMemoryFormat(), InMemoryFormat.BINARY);
+            assertEquals(config.getEvictionConfig().getSize(), 100);
+            assertEquals(config.getTimeToLiveSeconds(), 60);
+        }
+    }
+
+    @Test(expectedExceptions = PrestoException.class)
+    public void testInvalidNearCacheSize()
+    {
+        HazelcastNearCacheConfigs.createNearCacheConfigs(ImmutableMap.of(NEAR_CACHE_MAPS, "map", NEAR_CACHE_MAX_SIZE, "many"));
+    }
+
+    @Test
+    public void testSerializers()
+    {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        HazelcastSerializers.addSerializers(serializationConfig);
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+
+        // a slice which does not start at the beginning of its byte array
+        Slice slice = Slices.utf8Slice("state store slice").slice(6, 5);
+        assertEquals(serializationService.toObject(serializationService.toData(slice)), Slices.utf8Slice("store"));
+        assertEquals(serializationService.toObject(serializationService.toData(Slices.EMPTY_SLICE)), Slices.EMPTY_SLICE);
+
+        CatalogEntity catalog = CatalogEntity.builder()
+                .setCatalogName("hive")
+                .setOwner("root")
+                .setCreateTime(1000L)
+                .setComment(Optional.of("catalog"))
+                .setParameters(ImmutableMap.of("key", "value"))
+                .build();
+        assertEquals(serializationService.toObject(serializationService.toData(catalog)), catalog);
+        assertEquals(serializationService.toObject(serializationService.toData(Optional.of(slice))), Optional.of(Slices.utf8Slice("store")));
+    }
+
+    @Test
+    public void testReadJsonEntity()
+            throws IOException
+    {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        CatalogEntity catalog = CatalogEntity.builder()
+                .setCatalogName("hive")
+                .setOwner("root")
+                .setCreateTime(1000L)
+                .setComment(Optional.of("catalog"))
+                .setParameters(ImmutableMap.of("key", "value"))
+                .build();
+
+        // written as json text by a state store member of a previous version
+        BufferObjectDataOutput output = serializationService.createObjectDataOutput();
+        output.writeByteArray(new ObjectMapper().writeValueAsString(catalog).getBytes());
+        assertEquals(new HazelcastCatalogSerializer().read(serializationService.createObjectDataInput(output.toByteArray())), catalog);
+    }
+}
@@ -37,6 +37,7 @@ import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_MOD
 import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_MODE_TCPIP;
 import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_PORT_CONFIG_NAME;
 import static io.hetu.core.statestore.hazelcast.HazelcastConstants.DISCOVERY_TCPIP_SEEDS;
+import static io.hetu.core.statestore.hazelcast.HazelcastConstants.NEAR_CACHE_MAPS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -51,8 +52,10 @@ public class TestHazelcastStateStoreFactory
     private static final String LOCALHOST = "127.0.0.1";
     private static final String PORT = "5708";
     private static final String PORT2 = "5728";
+    private static final String PORT3 = "5738";
     private static final String MEMBER_ADDRESS = LOCALHOST + ":" + PORT;
     private static final String MEMBER_ADDRESS2 = LOCALHOST + ":" + PORT2;
+    private static final String MEMBER_ADDRESS3 = LOCALHOST + ":" + PORT3;
     private static final String TEST_STATE_STORE_NAME = "test-state-store";
     private static final String TEST_CLUSTER_NAME = "cluster-" + UUID.randomUUID();
     private static final String TEST_KEY = "test-key";
@@ -127,6 +130,41 @@ public class TestHazelcastStateStoreFactory
         ((HazelcastStateStore) stateStore).shutdown();
     }
 
+    /**
+     * Test that near cached values are invalidated when they are updated by another member
+     *
+     * @throws InterruptedException if interrupted while waiting for the invalidation
+     */
+    @Test
+    public void testNearCacheInvalidation()
+            throws InterruptedException
+    {
+        Map<String, String> config = new HashMap<>(0);
+        config.put(DISCOVERY_MODE_CONFIG_NAME, DISCOVERY_MODE_TCPIP);
+        config.put(STATE_STORE_CLUSTER_CONFIG_NAME, "near-cache-cluster");
+        config.put(DISCOVERY_PORT_CONFIG_NAME, PORT3);
+        config.put(DISCOVERY_TCPIP_SEEDS, MEMBER_ADDRESS3);
+        config.put(NEAR_CACHE_MAPS, "near-cache-*");
+        StateStoreBootstrapper bootstrapper = new HazelcastStateStoreBootstrapper();
+        StateStore member = bootstrapper.bootstrap(ImmutableSet.of(MEMBER_ADDRESS3), config);
+        StateStore client = new HazelcastStateStoreFactory().create("near-cache-state-store", null, config);
+
+        StateMap<String, String> memberMap = (StateMap<String, String>) member.createStateCollection("near-cache-test", StateCollection.Type.MAP);
+        StateMap<String, String> clientMap = (StateMap<String, String>) client.createStateCollection("near-cache-test", StateCollection.Type.MAP);
+        memberMap.put(TEST_KEY, TEST_VALUE);
+        assertEquals(clientMap.get(TEST_KEY), TEST_VALUE);
+        assertEquals(clientMap.get(TEST_KEY), TEST_VALUE);
+
+        memberMap.put(TEST_KEY, "updated-value");
+        for (int i = 0; i < 100 && !"updated-value".equals(clientMap.get(TEST_KEY)); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(clientMap.get(TEST_KEY), "updated-value");
+
+        ((HazelcastStateStore) client).shutdown();
+        ((HazelcastStateStore) member).shutdown();
+    }
+
     /**
      * Test what happens to hazelcast factory if no seeds get from seed store
      *
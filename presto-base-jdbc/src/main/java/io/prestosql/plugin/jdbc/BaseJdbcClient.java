@@ -51,6 +51,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -82,6 +83,7 @@ import static io.prestosql.plugin.jdbc.StandardColumnMappings.smallintWriteFunct
 import static io.prestosql.plugin.jdbc.StandardColumnMappings.tinyintWriteFunction;
 import static io.prestosql.plugin.jdbc.StandardColumnMappings.varbinaryWriteFunction;
 import static io.prestosql.plugin.jdbc.StandardColumnMappings.varcharWriteFunction;
+import static io.prestosql.plugin.splitmanager.TableSplitUtil.isSplitFieldTypeSupported;
 import static io.prestosql.spi.StandardErrorCode.NOT_FOUND;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -962,4 +964,55 @@ public class BaseJdbcClient
         }
         return value;
     }
+
+    @Override
+    public Optional<String> getTableSplitField(Connection connection, JdbcTableHandle tableHandle)
+    {
+        try {
+            DatabaseMetaData metadata = connection.getMetaData();
+            Map<String, Integer> columnTypes = new HashMap<>();
+            try (ResultSet resultSet = getColumns(tableHandle, metadata)) {
+                while (resultSet.next()) {
+                    columnTypes.put(resultSet.getString("COLUMN_NAME"), resultSet.getInt("DATA_TYPE"));
+                }
+            }
+
+            // the leading column of the primary key, then of the unique indexes, then of the other indexes
+            List<String> candidates = new ArrayList<>();
+            try (ResultSet resultSet = metadata.getPrimaryKeys(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName())) {
+                while (resultSet.next()) {
+                    if (resultSet.getShort("KEY_SEQ") == 1) {
+                        candidates.add(resultSet.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+            List<String> nonUniqueCandidates = new ArrayList<>();
+            try (ResultSet resultSet = metadata.getIndexInfo(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName(), false, true)) {
+                while (resultSet.next()) {
+                    String columnName = resultSet.getString("COLUMN_NAME");
+                    // table statistics rows have no column
+                    if (columnName == null || resultSet.getShort("ORDINAL_POSITION") != 1) {
+                        continue;
+                    }
+                    if (resultSet.getBoolean("NON_UNIQUE")) {
+                        nonUniqueCandidates.add(columnName);
+                    }
+                    else {
+                        candidates.add(columnName);
+                    }
+                }
+            }
+            candidates.addAll(nonUniqueCandidates);
+
+            return candidates.stream()
+                    .filter(column -> columnTypes.containsKey(column) && isSplitFieldTypeSupported(columnTypes.get(column)))
+                    .findFirst()
+                    // the split field is written into the split predicates and the min and max query as is
+                    .map(this::quoted);
+        }
+        catch (SQLException e) {
+            log.warn("Failed to find split field of table %s: %s", tableHandle.getSchemaTableName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
 }
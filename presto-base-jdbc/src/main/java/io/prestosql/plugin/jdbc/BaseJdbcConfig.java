@@ -16,6 +16,7 @@ package io.prestosql.plugin.jdbc;
 import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 import io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule;
@@ -30,10 +31,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.sql.builder.functioncall.BaseFunctionUtil.parserExternalFunctionCatalogSchema;
 import static io.prestosql.sql.builder.functioncall.BaseFunctionUtil.parserPushDownSupportedRemoteCatalogSchema;
 import static io.prestosql.sql.builder.functioncall.FunctionCallConstants.REMOTE_FUNCTION_CATALOG_SCHEMA;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class BaseJdbcConfig
 {
@@ -77,6 +80,14 @@ public class BaseJdbcConfig
 
     private Duration stepCalcRefreshInterval = new Duration(5, TimeUnit.MINUTES);
     private int stepCalcThreads = 4;
+    private boolean tableSplitAutoDetectEnable;
+    private int tableSplitAutoSplitsPerWorker = 2;
+    private boolean tableSplitAutoStepCalcEnable;
+    private boolean pageSourceEnable;
+    private boolean resultCacheEnabled;
+    private Duration resultCacheTtl = new Duration(30, SECONDS);
+    private DataSize resultCacheMaxSize = new DataSize(100, MEGABYTE);
+    private DataSize resultCacheMaxEntrySize = new DataSize(10, MEGABYTE);
 
     public Optional<CatalogSchemaName> getConnectorRegistryFunctionNamespace()
     {
@@ -517,4 +528,112 @@ public class BaseJdbcConfig
     {
         return stepCalcThreads;
     }
+
+    @Config("jdbc.table-split-auto-detect-enabled")
+    @ConfigDescription("Split the tables without jdbc.table-split-fields by the first integer column of their primary key or indexes")
+    public BaseJdbcConfig setTableSplitAutoDetectEnable(boolean tableSplitAutoDetectEnable)
+    {
+        this.tableSplitAutoDetectEnable = tableSplitAutoDetectEnable;
+        return this;
+    }
+
+    public boolean getTableSplitAutoDetectEnable()
+    {
+        return tableSplitAutoDetectEnable;
+    }
+
+    @Config("jdbc.table-split-auto-splits-per-worker")
+    @ConfigDescription("Number of range splits per worker node for the automatically split tables")
+    public BaseJdbcConfig setTableSplitAutoSplitsPerWorker(int tableSplitAutoSplitsPerWorker)
+    {
+        this.tableSplitAutoSplitsPerWorker = tableSplitAutoSplitsPerWorker;
+        return this;
+    }
+
+    @Min(1)
+    public int getTableSplitAutoSplitsPerWorker()
+    {
+        return tableSplitAutoSplitsPerWorker;
+    }
+
+    @Config("jdbc.table-split-auto-stepCalc-enabled")
+    @ConfigDescription("Adjust the split ranges of the automatically split tables to the row counts of their previous scans")
+    public BaseJdbcConfig setTableSplitAutoStepCalcEnable(boolean tableSplitAutoStepCalcEnable)
+    {
+        this.tableSplitAutoStepCalcEnable = tableSplitAutoStepCalcEnable;
+        return this;
+    }
+
+    public boolean getTableSplitAutoStepCalcEnable()
+    {
+        return tableSplitAutoStepCalcEnable;
+    }
+
+    @Config("jdbc.page-source-enabled")
+    @ConfigDescription("Read the query results into pages on a background thread instead of row by row through a record cursor")
+    public BaseJdbcConfig setPageSourceEnable(boolean pageSourceEnable)
+    {
+        this.pageSourceEnable = pageSourceEnable;
+        return this;
+    }
+
+    public boolean getPageSourceEnable()
+    {
+        return pageSourceEnable;
+    }
+
+    public boolean isResultCacheEnabled()
+    {
+        return resultCacheEnabled;
+    }
+
+    @Config("jdbc.result-cache.enabled")
+    @ConfigDescription("Cache the results of the queries pushed down to the data source")
+    public BaseJdbcConfig setResultCacheEnabled(boolean resultCacheEnabled)
+    {
+        this.resultCacheEnabled = resultCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public Duration getResultCacheTtl()
+    {
+        return resultCacheTtl;
+    }
+
+    @Config("jdbc.result-cache.ttl")
+    @ConfigDescription("Duration for which the results of the pushed down queries are cached")
+    public BaseJdbcConfig setResultCacheTtl(Duration resultCacheTtl)
+    {
+        this.resultCacheTtl = resultCacheTtl;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxSize()
+    {
+        return resultCacheMaxSize;
+    }
+
+    @Config("jdbc.result-cache.max-size")
+    @ConfigDescription("Maximum size of the cached results on each node")
+    public BaseJdbcConfig setResultCacheMaxSize(DataSize resultCacheMaxSize)
+    {
+        this.resultCacheMaxSize = resultCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxEntrySize()
+    {
+        return resultCacheMaxEntrySize;
+    }
+
+    @Config("jdbc.result-cache.max-entry-size")
+    @ConfigDescription("Maximum size of the results of a query to be cached")
+    public BaseJdbcConfig setResultCacheMaxEntrySize(DataSize resultCacheMaxEntrySize)
+    {
+        this.resultCacheMaxEntrySize = resultCacheMaxEntrySize;
+        return this;
+    }
 }
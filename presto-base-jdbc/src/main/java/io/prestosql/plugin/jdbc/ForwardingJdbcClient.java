@@ -383,6 +383,12 @@ public abstract class ForwardingJdbcClient
         return getDelegate().getSplitFieldMinAndMaxValue(conf, connection, tableHandle);
     }
 
+    @Override
+    public Optional<String> getTableSplitField(Connection connection, JdbcTableHandle tableHandle)
+    {
+        return getDelegate().getTableSplitField(connection, tableHandle);
+    }
+
     @Override
     public long getTableModificationTime(ConnectorSession session, JdbcTableHandle tableHandle)
     {
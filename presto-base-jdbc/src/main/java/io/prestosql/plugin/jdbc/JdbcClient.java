@@ -257,6 +257,16 @@ public interface JdbcClient
         return null;
     }
 
+    /**
+     * Find a column to split the table by ranges, the first integer column of the primary key or of an index
+     *
+     * @return the name of the column, quoted for the data source
+     */
+    default Optional<String> getTableSplitField(Connection connection, JdbcTableHandle tableHandle)
+    {
+        return Optional.empty();
+    }
+
     default long getTableModificationTime(ConnectorSession session, JdbcTableHandle tableHandle)
     {
         throw new PrestoException(NOT_SUPPORTED, "this connector does not support table modification times");
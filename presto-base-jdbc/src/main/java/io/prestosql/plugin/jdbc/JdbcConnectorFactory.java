@@ -16,6 +16,8 @@ package io.prestosql.plugin.jdbc;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import io.airlift.bootstrap.Bootstrap;
+import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.hetu.core.transport.execution.buffer.PagesSerdeFactory;
 import io.prestosql.plugin.base.jmx.MBeanServerModule;
 import io.prestosql.spi.NodeManager;
 import io.prestosql.spi.classloader.ThreadContextClassLoader;
@@ -78,6 +80,7 @@ public class JdbcConnectorFactory
                         binder.bind(RowExpressionService.class).toInstance(context.getRowExpressionService());
                         binder.bind(DeterminismEvaluator.class).toInstance(context.getRowExpressionService().getDeterminismEvaluator());
                         binder.bind(NodeManager.class).toInstance(context.getNodeManager());
+                        binder.bind(PagesSerde.class).toProvider(() -> new PagesSerdeFactory(context.getBlockEncodingSerde(), true).createPagesSerde());
                     },
                     new JdbcModule(catalogName),
                     new MBeanServerModule(),
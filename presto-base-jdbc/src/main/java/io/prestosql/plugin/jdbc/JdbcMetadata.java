@@ -55,13 +55,20 @@ public class JdbcMetadata
 {
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
+    private final Optional<JdbcResultCache> resultCache;
 
     private final AtomicReference<Runnable> rollbackAction = new AtomicReference<>();
 
     public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable)
+    {
+        this(jdbcClient, allowDropTable, Optional.empty());
+    }
+
+    public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable, Optional<JdbcResultCache> resultCache)
     {
         this.jdbcClient = requireNonNull(jdbcClient, "client is null");
         this.allowDropTable = allowDropTable;
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
     }
 
     @Override
@@ -217,6 +224,7 @@ public class JdbcMetadata
         }
         JdbcTableHandle handle = (JdbcTableHandle) tableHandle;
         jdbcClient.dropTable(JdbcIdentity.from(session), handle);
+        invalidateResultCache();
     }
 
     @Override
@@ -239,6 +247,7 @@ public class JdbcMetadata
         JdbcOutputTableHandle handle = (JdbcOutputTableHandle) tableHandle;
         jdbcClient.commitCreateTable(JdbcIdentity.from(session), handle);
         clearRollback();
+        invalidateResultCache();
         return Optional.empty();
     }
 
@@ -257,6 +266,11 @@ public class JdbcMetadata
         Optional.ofNullable(rollbackAction.getAndSet(null)).ifPresent(Runnable::run);
     }
 
+    private void invalidateResultCache()
+    {
+        resultCache.ifPresent(JdbcResultCache::invalidate);
+    }
+
     @Override
     public ConnectorInsertTableHandle beginInsert(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
@@ -270,6 +284,7 @@ public class JdbcMetadata
     {
         JdbcOutputTableHandle jdbcInsertHandle = (JdbcOutputTableHandle) tableHandle;
         jdbcClient.finishInsertTable(JdbcIdentity.from(session), jdbcInsertHandle);
+        invalidateResultCache();
         return Optional.empty();
     }
 
@@ -301,6 +316,7 @@ public class JdbcMetadata
     {
         JdbcTableHandle tableHandle = (JdbcTableHandle) table;
         jdbcClient.renameTable(JdbcIdentity.from(session), tableHandle, newTableName);
+        invalidateResultCache();
     }
 
     @Override
@@ -331,13 +347,17 @@ public class JdbcMetadata
     @Override
     public OptionalLong executeDelete(ConnectorSession session, ConnectorTableHandle handle)
     {
-        return jdbcClient.executeDelete(session, handle);
+        OptionalLong rowCount = jdbcClient.executeDelete(session, handle);
+        invalidateResultCache();
+        return rowCount;
     }
 
     @Override
     public OptionalLong executeUpdate(ConnectorSession session, ConnectorTableHandle handle)
     {
-        return jdbcClient.executeUpdate(session, handle);
+        OptionalLong rowCount = jdbcClient.executeUpdate(session, handle);
+        invalidateResultCache();
+        return rowCount;
     }
 
     @Override
@@ -350,6 +370,7 @@ public class JdbcMetadata
     public void finishDelete(ConnectorSession session, ConnectorTableHandle tableHandle, Collection<Slice> fragments)
     {
         jdbcClient.finishDelete(session, tableHandle, fragments);
+        invalidateResultCache();
     }
 
     @Override
@@ -362,6 +383,7 @@ public class JdbcMetadata
     public void finishUpdate(ConnectorSession session, ConnectorTableHandle tableHandle, Collection<Slice> fragments)
     {
         jdbcClient.finishUpdate(session, tableHandle, fragments);
+        invalidateResultCache();
     }
 
     @Override
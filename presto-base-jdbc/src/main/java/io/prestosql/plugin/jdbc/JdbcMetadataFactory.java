@@ -18,6 +18,8 @@ import io.prestosql.plugin.splitmanager.TableSplitFieldCheck;
 
 import javax.inject.Inject;
 
+import java.util.Optional;
+
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadataFactory
@@ -25,12 +27,14 @@ public class JdbcMetadataFactory
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
     private final DataSourceTableSplitManager tableSplitManager;
+    private final JdbcResultCache resultCache;
 
     @Inject
-    public JdbcMetadataFactory(@InternalBaseJdbc JdbcClient jdbcClient, JdbcMetadataConfig config, DataSourceTableSplitManager tableSplitManager)
+    public JdbcMetadataFactory(@InternalBaseJdbc JdbcClient jdbcClient, JdbcMetadataConfig config, DataSourceTableSplitManager tableSplitManager, JdbcResultCache resultCache)
     {
         this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
         this.tableSplitManager = requireNonNull(tableSplitManager, "tableSplitManager is null");
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
         requireNonNull(config, "config is null");
         this.allowDropTable = config.isAllowDropTable();
     }
@@ -48,6 +52,6 @@ public class JdbcMetadataFactory
 
     public JdbcMetadata create()
     {
-        return new JdbcMetadata(new TableSplitFieldCheck(new TransactionScopeCachingJdbcClient(jdbcClient), tableSplitManager), allowDropTable);
+        return new JdbcMetadata(new TableSplitFieldCheck(new TransactionScopeCachingJdbcClient(jdbcClient), tableSplitManager), allowDropTable, Optional.of(resultCache));
     }
 }
@@ -55,10 +55,14 @@ public class JdbcModule
         binder.bind(JdbcConnector.class).in(Scopes.SINGLETON);
         binder.bind(JdbcPageSourceProvider.class).in(Scopes.SINGLETON);
         binder.bind(DataSourceTableSplitManager.class).in(Scopes.SINGLETON);
+        binder.bind(JdbcResultCache.class).in(Scopes.SINGLETON);
+        binder.bind(JdbcSessionProperties.class).in(Scopes.SINGLETON);
         configBinder(binder).bindConfig(JdbcMetadataConfig.class);
 
         newExporter(binder).export(Key.get(JdbcClient.class, InternalBaseJdbc.class))
                 .as(generator -> generator.generatedNameOf(JdbcClient.class, catalogName));
+        newExporter(binder).export(JdbcResultCache.class)
+                .as(generator -> generator.generatedNameOf(JdbcResultCache.class, catalogName));
     }
 
     @Provides
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.base.VerifyException;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.prestosql.plugin.jdbc.JdbcErrorCode.JDBC_ERROR;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Reads the result set of a split into pages, decoding the values directly into the block builders of the columns.
+ * The query is executed and the pages are read on a background thread, the next page is read while the engine
+ * processes the current one.
+ */
+public class JdbcPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(JdbcPageSource.class);
+
+    private static final int MAX_ROWS_PER_PAGE = 8192;
+
+    private final JdbcClient jdbcClient;
+    private final ConnectorSession session;
+    private final JdbcSplit split;
+    private final JdbcTableHandle table;
+    private final List<JdbcColumnHandle> columnHandles;
+    private final List<Type> types;
+    private final Executor executor;
+
+    private final BooleanReadFunction[] booleanReadFunctions;
+    private final DoubleReadFunction[] doubleReadFunctions;
+    private final LongReadFunction[] longReadFunctions;
+    private final SliceReadFunction[] sliceReadFunctions;
+    private final BlockReadFunction[] blockReadFunctions;
+
+    // JDBC objects and page builder are only used by the reading task, one task at a time,
+    // except for the statement which is cancelled by close
+    private final PageBuilder pageBuilder;
+    private Connection connection;
+    private volatile PreparedStatement statement;
+    private ResultSet resultSet;
+    private volatile boolean endOfData;
+    private boolean resourcesClosed;
+
+    private CompletableFuture<Page> nextPage;
+    private CompletableFuture<?> blocked;
+    private boolean finished;
+    private volatile boolean closed;
+
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private long completedBytes;
+    private volatile long bufferedBytes;
+
+    public JdbcPageSource(JdbcClient jdbcClient, ConnectorSession session, JdbcSplit split, JdbcTableHandle table, List<JdbcColumnHandle> columnHandles, Executor executor)
+    {
+        this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
+        this.session = requireNonNull(session, "session is null");
+        this.split = requireNonNull(split, "split is null");
+        this.table = requireNonNull(table, "table is null");
+        this.columnHandles = requireNonNull(columnHandles, "columnHandles is null");
+        this.types = columnHandles.stream()
+                .map(JdbcColumnHandle::getColumnType)
+                .collect(toImmutableList());
+        this.executor = requireNonNull(executor, "executor is null");
+
+        booleanReadFunctions = new BooleanReadFunction[columnHandles.size()];
+        doubleReadFunctions = new DoubleReadFunction[columnHandles.size()];
+        longReadFunctions = new LongReadFunction[columnHandles.size()];
+        sliceReadFunctions = new SliceReadFunction[columnHandles.size()];
+        blockReadFunctions = new BlockReadFunction[columnHandles.size()];
+        pageBuilder = new PageBuilder(types);
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos.get();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        if (nextPage == null || nextPage.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return blocked;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (finished) {
+            return null;
+        }
+        if (nextPage == null) {
+            readNextPage();
+            return null;
+        }
+        if (!nextPage.isDone()) {
+            return null;
+        }
+
+        Page page = getFutureValue(nextPage);
+        if (endOfData) {
+            finished = true;
+            nextPage = null;
+        }
+        else {
+            // prefetch the next page while the engine processes this one
+            readNextPage();
+        }
+        completedBytes += page.getSizeInBytes();
+        return page.getPositionCount() == 0 ? null : page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return bufferedBytes;
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finished = true;
+
+        CompletableFuture<Page> future = nextPage;
+        if (future != null && !future.isDone()) {
+            // the running query is cancelled on the data source, the reading task stops at the next row,
+            // JDBC objects are not thread safe so they are closed once the task completes
+            cancelStatement();
+            future.whenComplete((page, throwable) -> closeResources());
+        }
+        else {
+            closeResources();
+        }
+    }
+
+    private void cancelStatement()
+    {
+        PreparedStatement statement = this.statement;
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.cancel();
+        }
+        catch (SQLException e) {
+            log.debug(e, "Failed to cancel statement");
+        }
+    }
+
+    private void readNextPage()
+    {
+        nextPage = supplyAsync(this::readPage, executor);
+        // the engine does not observe the failures through the blocked future, they are thrown by getNextPage
+        blocked = nextPage.handle((page, throwable) -> null);
+    }
+
+    private Page readPage()
+    {
+        long start = System.nanoTime();
+        try {
+            if (resultSet == null) {
+                open();
+            }
+            while (!closed && !pageBuilder.isFull() && pageBuilder.getPositionCount() < MAX_ROWS_PER_PAGE) {
+                if (!resultSet.next()) {
+                    endOfData = true;
+                    break;
+                }
+                pageBuilder.declarePosition();
+                for (int column = 0; column < types.size(); column++) {
+                    appendValue(column, pageBuilder.getBlockBuilder(column));
+                }
+            }
+            if (closed) {
+                endOfData = true;
+            }
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            bufferedBytes = page.getRetainedSizeInBytes();
+            return page;
+        }
+        catch (SQLException | RuntimeException e) {
+            endOfData = true;
+            closeResources();
+            if (closed) {
+                return new Page(0);
+            }
+            throw e instanceof PrestoException ? (PrestoException) e : new PrestoException(JDBC_ERROR, e);
+        }
+        finally {
+            readTimeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void open()
+            throws SQLException
+    {
+        connection = jdbcClient.getConnection(JdbcIdentity.from(session), split);
+        for (int i = 0; i < columnHandles.size(); i++) {
+            ColumnMapping columnMapping = jdbcClient.toPrestoType(session, connection, columnHandles.get(i).getJdbcTypeHandle())
+                    .orElseThrow(() -> new VerifyException("Unsupported column type"));
+            Class<?> javaType = columnMapping.getType().getJavaType();
+            ReadFunction readFunction = columnMapping.getReadFunction();
+
+            if (javaType == boolean.class) {
+                booleanReadFunctions[i] = (BooleanReadFunction) readFunction;
+            }
+            else if (javaType == double.class) {
+                doubleReadFunctions[i] = (DoubleReadFunction) readFunction;
+            }
+            else if (javaType == long.class) {
+                longReadFunctions[i] = (LongReadFunction) readFunction;
+            }
+            else if (javaType == Slice.class) {
+                sliceReadFunctions[i] = (SliceReadFunction) readFunction;
+            }
+            else if (javaType == Block.class) {
+                blockReadFunctions[i] = (BlockReadFunction) readFunction;
+            }
+            else {
+                throw new IllegalStateException(format("Unsupported java type %s", javaType));
+            }
+        }
+
+        statement = jdbcClient.buildSql(session, connection, split, table, columnHandles);
+        // the statement is published before checking closed, so either close cancels it or it is not executed
+        if (closed) {
+            return;
+        }
+        log.debug("Executing: %s", statement.toString());
+        resultSet = statement.executeQuery();
+    }
+
+    private void appendValue(int column, BlockBuilder output)
+            throws SQLException
+    {
+        int columnIndex = column + 1;
+        // the read functions do not handle null values
+        resultSet.getObject(columnIndex);
+        if (resultSet.wasNull()) {
+            output.appendNull();
+            return;
+        }
+
+        Type type = types.get(column);
+        if (longReadFunctions[column] != null) {
+            type.writeLong(output, longReadFunctions[column].readLong(resultSet, columnIndex));
+        }
+        else if (sliceReadFunctions[column] != null) {
+            type.writeSlice(output, sliceReadFunctions[column].readSlice(resultSet, columnIndex));
+        }
+        else if (doubleReadFunctions[column] != null) {
+            type.writeDouble(output, doubleReadFunctions[column].readDouble(resultSet, columnIndex));
+        }
+        else if (booleanReadFunctions[column] != null) {
+            type.writeBoolean(output, booleanReadFunctions[column].readBoolean(resultSet, columnIndex));
+        }
+        else {
+            type.writeObject(output, blockReadFunctions[column].readBlock(resultSet, columnIndex));
+        }
+    }
+
+    private synchronized void closeResources()
+    {
+        if (resourcesClosed) {
+            return;
+        }
+        resourcesClosed = true;
+        bufferedBytes = 0;
+
+        // use try with resources to close everything properly
+        try (Connection connection = this.connection;
+                Statement statement = this.statement;
+                ResultSet resultSet = this.resultSet) {
+            if (connection != null) {
+                jdbcClient.abortReadConnection(connection);
+            }
+        }
+        catch (SQLException e) {
+            // ignore exception from close
+        }
+    }
+}
@@ -14,6 +14,7 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import io.prestosql.spi.Page;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorPageSourceProvider;
@@ -21,14 +22,22 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.FixedPageSource;
 import io.prestosql.spi.connector.RecordPageSource;
 import io.prestosql.spi.connector.RecordSet;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.plugin.jdbc.JdbcSessionProperties.isBypassResultCache;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
 public class JdbcPageSourceProvider
         implements ConnectorPageSourceProvider
@@ -36,25 +45,63 @@ public class JdbcPageSourceProvider
     private JdbcRecordSetProvider recordSetProvider;
     private final JdbcClient jdbcClient;
     private final BaseJdbcConfig config;
+    private final JdbcResultCache resultCache;
+    private final ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("jdbc-page-source-%s"));
 
     @Inject
-    public JdbcPageSourceProvider(@InternalBaseJdbc JdbcClient jdbcClient, BaseJdbcConfig config, JdbcRecordSetProvider recordSetProvider)
+    public JdbcPageSourceProvider(@InternalBaseJdbc JdbcClient jdbcClient, BaseJdbcConfig config, JdbcRecordSetProvider recordSetProvider, JdbcResultCache resultCache)
     {
         this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
         this.config = requireNonNull(config, "config is null");
         this.recordSetProvider = requireNonNull(recordSetProvider, "recordSetProvider is null");
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
     }
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns)
     {
         JdbcTableHandle jdbcTableHandle = (JdbcTableHandle) table;
-        RecordSet recordSet = recordSetProvider.getRecordSet(transaction, session, split, table, columns);
-        if (jdbcTableHandle.getDeleteOrUpdate()) {
-            return new JdbcUpdatablePageSource(recordSet, session, table, jdbcClient, config, (JdbcSplit) split);
+        if (isResultCacheable(session, jdbcTableHandle)) {
+            List<JdbcColumnHandle> columnHandles = columns.stream()
+                    .map(JdbcColumnHandle.class::cast)
+                    .collect(toImmutableList());
+            JdbcResultCache.CacheKey cacheKey = new JdbcResultCache.CacheKey(jdbcTableHandle.getGeneratedSql().get(), columnHandles, jdbcTableHandle, (JdbcSplit) split, JdbcIdentity.from(session));
+            Optional<List<Page>> pages = resultCache.get(cacheKey);
+            if (pages.isPresent()) {
+                return new FixedPageSource(pages.get());
+            }
+            return new JdbcResultCachePageSource(createReadPageSource(transaction, session, split, jdbcTableHandle, columns), resultCache, cacheKey);
+        }
+        if (!jdbcTableHandle.getDeleteOrUpdate()) {
+            return createReadPageSource(transaction, session, split, jdbcTableHandle, columns);
         }
-        else {
-            return new RecordPageSource(recordSet);
+        RecordSet recordSet = recordSetProvider.getRecordSet(transaction, session, split, table, columns);
+        return new JdbcUpdatablePageSource(recordSet, session, table, jdbcClient, config, (JdbcSplit) split);
+    }
+
+    private boolean isResultCacheable(ConnectorSession session, JdbcTableHandle table)
+    {
+        // only the results of the queries generated by the push down optimizer are cached
+        return resultCache.isEnabled()
+                && !table.getDeleteOrUpdate()
+                && table.getGeneratedSql().isPresent()
+                && !isBypassResultCache(session);
+    }
+
+    private ConnectorPageSource createReadPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, JdbcTableHandle table, List<ColumnHandle> columns)
+    {
+        if (config.getPageSourceEnable()) {
+            List<JdbcColumnHandle> columnHandles = columns.stream()
+                    .map(JdbcColumnHandle.class::cast)
+                    .collect(toImmutableList());
+            return new JdbcPageSource(jdbcClient, session, (JdbcSplit) split, table, columnHandles, executor);
         }
+        return new RecordPageSource(recordSetProvider.getRecordSet(transaction, session, split, table, columns));
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
     }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.hetu.core.transport.execution.buffer.SerializedPage;
+import io.prestosql.plugin.jdbc.optimization.JdbcQueryGeneratorResult.GeneratedSql;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caches the results of the queries pushed down to the data source, as serialized pages.
+ * <p>
+ * The results are cached on the nodes reading them, keyed by the pushed down sql and a version of the
+ * data written through this catalog. The coordinator increments the version when a write of the connector
+ * commits, and stamps it on the pushed down queries it plans, so that the workers do not serve results
+ * read before the write.
+ * <p>
+ * The version is only tracked by the coordinator which planned the write, so with several coordinators the
+ * queries planned by the others may serve stale results until the cached entries expire. The cache is only
+ * safe with a single coordinator.
+ */
+public class JdbcResultCache
+{
+    private final boolean enabled;
+    private final long maxEntrySizeInBytes;
+    private final Optional<PagesSerde> pagesSerde;
+    private final Cache<CacheKey, List<SerializedPage>> cache;
+    // starts from the current time, so that the versions are not reused when the coordinator restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    @Inject
+    public JdbcResultCache(BaseJdbcConfig config, Provider<PagesSerde> pagesSerde)
+    {
+        requireNonNull(config, "config is null");
+        requireNonNull(pagesSerde, "pagesSerde is null");
+        this.enabled = config.isResultCacheEnabled();
+        this.maxEntrySizeInBytes = config.getResultCacheMaxEntrySize().toBytes();
+        // the serde is only created when the cache is enabled, not every connector context provides a block encoding serde
+        this.pagesSerde = enabled ? Optional.of(pagesSerde.get()) : Optional.empty();
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(config.getResultCacheTtl().toMillis(), MILLISECONDS)
+                .maximumWeight(config.getResultCacheMaxSize().toBytes())
+                .<CacheKey, List<SerializedPage>>weigher((key, pages) -> (int) Math.min(Integer.MAX_VALUE, pages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum()))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    public long getVersion()
+    {
+        return version.get();
+    }
+
+    /**
+     * Invalidate the cached results after a write of the connector committed
+     */
+    public void invalidate()
+    {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Optional<List<Page>> get(CacheKey key)
+    {
+        List<SerializedPage> pages = cache.getIfPresent(key);
+        if (pages == null) {
+            return Optional.empty();
+        }
+        return Optional.of(pages.stream()
+                .map(pagesSerde.get()::deserialize)
+                .collect(toImmutableList()));
+    }
+
+    public void put(CacheKey key, List<SerializedPage> pages)
+    {
+        cache.put(key, ImmutableList.copyOf(pages));
+    }
+
+    public SerializedPage serialize(Page page)
+    {
+        return pagesSerde.get().serialize(page);
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    public static class CacheKey
+    {
+        private final String sql;
+        private final long version;
+        private final List<String> columns;
+        private final TupleDomain<ColumnHandle> constraint;
+        private final Optional<String> additionalPredicate;
+        private final List<String> splitRange;
+        private final OptionalLong limit;
+        private final JdbcIdentity identity;
+
+        public CacheKey(GeneratedSql generatedSql, List<JdbcColumnHandle> columns, JdbcTableHandle table, JdbcSplit split, JdbcIdentity identity)
+        {
+            this.sql = generatedSql.getSql();
+            this.version = generatedSql.getResultCacheVersion();
+            this.columns = columns.stream()
+                    .map(JdbcColumnHandle::getColumnName)
+                    .collect(toImmutableList());
+            this.constraint = table.getConstraint();
+            this.additionalPredicate = split.getAdditionalPredicate();
+            this.splitRange = Arrays.asList(split.getSplitField(), split.getRangeStart(), split.getRangEnd());
+            this.limit = table.getLimit();
+            this.identity = requireNonNull(identity, "identity is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return version == that.version &&
+                    sql.equals(that.sql) &&
+                    columns.equals(that.columns) &&
+                    constraint.equals(that.constraint) &&
+                    additionalPredicate.equals(that.additionalPredicate) &&
+                    splitRange.equals(that.splitRange) &&
+                    limit.equals(that.limit) &&
+                    identity.equals(that.identity);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(sql, version, columns, constraint, additionalPredicate, splitRange, limit, identity);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import io.hetu.core.transport.execution.buffer.SerializedPage;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorPageSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the pages read by the delegate page source, and caches them when all the results were read
+ * within the maximum entry size of the cache.
+ */
+public class JdbcResultCachePageSource
+        implements ConnectorPageSource
+{
+    private final ConnectorPageSource delegate;
+    private final JdbcResultCache resultCache;
+    private final JdbcResultCache.CacheKey cacheKey;
+
+    private List<SerializedPage> pages = new ArrayList<>();
+    private long pagesSizeInBytes;
+
+    public JdbcResultCachePageSource(ConnectorPageSource delegate, JdbcResultCache resultCache, JdbcResultCache.CacheKey cacheKey)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
+        this.cacheKey = requireNonNull(cacheKey, "cacheKey is null");
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        Page page = delegate.getNextPage();
+        if (pages == null) {
+            return page;
+        }
+
+        if (page != null) {
+            page = page.getLoadedPage();
+            SerializedPage serializedPage = resultCache.serialize(page);
+            pagesSizeInBytes += serializedPage.getRetainedSizeInBytes();
+            if (pagesSizeInBytes > resultCache.getMaxEntrySizeInBytes()) {
+                // too large to be cached
+                pages = null;
+                pagesSizeInBytes = 0;
+                return page;
+            }
+            pages.add(serializedPage);
+        }
+        if (delegate.isFinished()) {
+            resultCache.put(cacheKey, pages);
+            pages = null;
+            pagesSizeInBytes = 0;
+        }
+        return page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage() + pagesSizeInBytes;
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return delegate.isBlocked();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        // the results are not cached when the query did not read all of them
+        pages = null;
+        pagesSizeInBytes = 0;
+        delegate.close();
+    }
+}
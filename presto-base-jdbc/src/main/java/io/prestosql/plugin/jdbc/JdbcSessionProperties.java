@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.session.PropertyMetadata;
+
+import javax.inject.Inject;
+
+import java.util.List;
+
+import static io.prestosql.spi.session.PropertyMetadata.booleanProperty;
+
+public final class JdbcSessionProperties
+{
+    private static final String BYPASS_RESULT_CACHE = "bypass_result_cache";
+
+    private final List<PropertyMetadata<?>> sessionProperties;
+
+    @Inject
+    public JdbcSessionProperties()
+    {
+        sessionProperties = ImmutableList.of(
+                booleanProperty(
+                        BYPASS_RESULT_CACHE,
+                        "Read the results of the pushed down queries from the data source instead of the result cache",
+                        false,
+                        false));
+    }
+
+    public List<PropertyMetadata<?>> getSessionProperties()
+    {
+        return sessionProperties;
+    }
+
+    public static boolean isBypassResultCache(ConnectorSession session)
+    {
+        return session.getProperty(BYPASS_RESULT_CACHE, Boolean.class);
+    }
+}
@@ -22,6 +22,7 @@ import io.prestosql.expressions.LogicalRowExpressions;
 import io.prestosql.plugin.jdbc.BaseJdbcConfig;
 import io.prestosql.plugin.jdbc.JdbcClient;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
+import io.prestosql.plugin.jdbc.JdbcResultCache;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.plugin.jdbc.optimization.JdbcQueryGeneratorResult.GeneratedSql;
 import io.prestosql.spi.ConnectorPlanOptimizer;
@@ -84,8 +85,8 @@ public class JdbcPlanOptimizer
     private final Optional<QueryGenerator<JdbcQueryGeneratorResult, JdbcConverterContext>> queryGenerator;
     private final StandardFunctionResolution functionResolution;
     private final LogicalRowExpressions logicalRowExpressions;
+    private final Optional<JdbcResultCache> resultCache;
 
-    @Inject
     public JdbcPlanOptimizer(
             JdbcClient client,
             TypeManager typeManager,
@@ -95,6 +96,34 @@ public class JdbcPlanOptimizer
             FunctionMetadataManager functionManager,
             StandardFunctionResolution functionResolution)
     {
+        this(client, typeManager, config, rowExpressionService, determinismEvaluator, functionManager, functionResolution, Optional.empty());
+    }
+
+    @Inject
+    public JdbcPlanOptimizer(
+            JdbcClient client,
+            TypeManager typeManager,
+            BaseJdbcConfig config,
+            RowExpressionService rowExpressionService,
+            DeterminismEvaluator determinismEvaluator,
+            FunctionMetadataManager functionManager,
+            StandardFunctionResolution functionResolution,
+            JdbcResultCache resultCache)
+    {
+        this(client, typeManager, config, rowExpressionService, determinismEvaluator, functionManager, functionResolution, Optional.of(resultCache));
+    }
+
+    private JdbcPlanOptimizer(
+            JdbcClient client,
+            TypeManager typeManager,
+            BaseJdbcConfig config,
+            RowExpressionService rowExpressionService,
+            DeterminismEvaluator determinismEvaluator,
+            FunctionMetadataManager functionManager,
+            StandardFunctionResolution functionResolution,
+            Optional<JdbcResultCache> resultCache)
+    {
+        this.resultCache = resultCache;
         this.client = client;
         this.config = config;
         this.typeManager = typeManager;
@@ -124,6 +153,13 @@ public class JdbcPlanOptimizer
         return maxSubPlan.accept(new Visitor(idAllocator, types, session, symbolAllocator), null);
     }
 
+    private long getResultCacheVersion()
+    {
+        return resultCache.filter(JdbcResultCache::isEnabled)
+                .map(JdbcResultCache::getVersion)
+                .orElse(0L);
+    }
+
     private static PlanNode replaceChildren(PlanNode node, List<PlanNode> children)
     {
         List<PlanNode> childrenNodes = node.getSources();
@@ -286,7 +322,7 @@ public class JdbcPlanOptimizer
                             context.getSchemaTableName().get().getTableName(),
                             TupleDomain.all(),
                             OptionalLong.empty(),
-                            Optional.of(new GeneratedSql(sql, true)),
+                            Optional.of(new GeneratedSql(sql, true, getResultCacheVersion())),
                             false),
                     context.getTransaction().get(),
                     Optional.empty());
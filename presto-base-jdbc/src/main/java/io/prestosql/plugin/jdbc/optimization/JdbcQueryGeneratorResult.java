@@ -46,14 +46,22 @@ public class JdbcQueryGeneratorResult
     {
         private final String sql;
         private final boolean isPushDown;
+        private final long resultCacheVersion;
+
+        public GeneratedSql(String sql, boolean isPushDown)
+        {
+            this(sql, isPushDown, 0);
+        }
 
         @JsonCreator
         public GeneratedSql(
                 @JsonProperty("sql") String sql,
-                @JsonProperty("isPushDown") boolean isPushDown)
+                @JsonProperty("isPushDown") boolean isPushDown,
+                @JsonProperty("resultCacheVersion") long resultCacheVersion)
         {
             this.sql = sql;
             this.isPushDown = isPushDown;
+            this.resultCacheVersion = resultCacheVersion;
         }
 
         @JsonProperty("sql")
@@ -68,6 +76,15 @@ public class JdbcQueryGeneratorResult
             return isPushDown;
         }
 
+        /**
+         * The version of the data written through the catalog when the query was planned, part of the result cache key
+         */
+        @JsonProperty("resultCacheVersion")
+        public long getResultCacheVersion()
+        {
+            return resultCacheVersion;
+        }
+
         @Override
         public String toString()
         {
@@ -17,6 +17,10 @@ package io.prestosql.plugin.splitmanager;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.prestosql.plugin.jdbc.BaseJdbcConfig;
@@ -38,6 +42,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,11 +61,37 @@ public class DataSourceTableSplitManager
 
     private JdbcClient jdbcClient;
 
+    private NodeManager nodeManager;
+
+    private boolean autoDetectSplitField;
+
+    private int autoSplitsPerWorker;
+
+    private boolean autoStepCalcEnable;
+
+    // tables without jdbc.table-split-fields config, empty when no split field was found
+    // the entries expire, so new indexes and the current number of workers are picked up
+    private final Cache<String, Optional<TableSplitConfig>> detectedTableSplitsMap;
+
     @Inject
     public DataSourceTableSplitManager(BaseJdbcConfig config, JdbcClient jdbcClient, NodeManager nodeManager)
+    {
+        this(config, jdbcClient, nodeManager, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    DataSourceTableSplitManager(BaseJdbcConfig config, JdbcClient jdbcClient, NodeManager nodeManager, Ticker ticker)
     {
         this.enableTableSplit = config.getTableSplitEnable();
         this.jdbcClient = jdbcClient;
+        this.nodeManager = nodeManager;
+        this.autoDetectSplitField = config.getTableSplitAutoDetectEnable();
+        this.autoSplitsPerWorker = config.getTableSplitAutoSplitsPerWorker();
+        this.autoStepCalcEnable = config.getTableSplitAutoStepCalcEnable();
+        this.detectedTableSplitsMap = CacheBuilder.newBuilder()
+                .expireAfterWrite(config.getTableSplitStepCalcRefreshInterval().toMillis(), TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
         if (enableTableSplit && nodeManager.getCurrentNode().isCoordinator()) {
             List<TableSplitConfig> splitConfigs = loadTableSplitFiledConfig(config.getTableSplitFields());
             tableSplitsMap = splitConfigs.stream().collect(Collectors.toMap(
@@ -119,6 +150,9 @@ public class DataSourceTableSplitManager
     {
         List<JdbcSplit> jdbcSplitsList = new ArrayList<>();
         TableSplitConfig splitConfig = tableSplitsMap.get(generateTableFullName(jdbcTableHandle.getCatalogName(), jdbcTableHandle.getSchemaName(), jdbcTableHandle.getTableName()));
+        if (splitConfig == null && autoDetectSplitField) {
+            splitConfig = getDetectedTableSplitConfig(identity, jdbcTableHandle).orElse(null);
+        }
         if (splitConfig == null) {
             return getFixedSplitSource(jdbcTableHandle);
         }
@@ -190,6 +224,56 @@ public class DataSourceTableSplitManager
         return new DataSourceSplitSource(jdbcSplitsList);
     }
 
+    /**
+     * Split the table by the first integer column of its primary key or indexes. The tables are split into
+     * a number of ranges proportional to the number of workers, between the min and max values of the column.
+     */
+    private Optional<TableSplitConfig> getDetectedTableSplitConfig(JdbcIdentity identity, JdbcTableHandle jdbcTableHandle)
+    {
+        String tableFullName = generateTableFullName(jdbcTableHandle.getCatalogName(), jdbcTableHandle.getSchemaName(), jdbcTableHandle.getTableName());
+        Optional<TableSplitConfig> detectedConfig = detectedTableSplitsMap.getIfPresent(tableFullName);
+        if (detectedConfig != null) {
+            return detectedConfig;
+        }
+
+        Optional<String> splitField;
+        try (Connection connection = jdbcClient.getConnection(identity, (JdbcSplit) null)) {
+            splitField = jdbcClient.getTableSplitField(connection, jdbcTableHandle);
+        }
+        catch (SQLException e) {
+            // not cached, the detection is retried by the next query
+            log.warn("Detect table(%s) split field failed, error info: %s", tableFullName, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (!splitField.isPresent()) {
+            log.debug("Table(%s) has no integer like primary key or index column, not split", tableFullName);
+            detectedTableSplitsMap.asMap().putIfAbsent(tableFullName, Optional.empty());
+            return Optional.empty();
+        }
+
+        TableSplitConfig splitConfig = new TableSplitConfig();
+        splitConfig.setCatalogName(jdbcTableHandle.getCatalogName());
+        splitConfig.setSchemaName(jdbcTableHandle.getSchemaName());
+        splitConfig.setTableName(jdbcTableHandle.getTableName());
+        splitConfig.setSplitField(splitField.get());
+        splitConfig.setTableSplitFieldValid(true);
+        // rows may be inserted outside of the current min and max values
+        splitConfig.setDataReadOnly(false);
+        splitConfig.setCalcStepEnable(autoStepCalcEnable);
+        splitConfig.setSplitCount(Math.max(1, nodeManager.getWorkerNodes().size()) * autoSplitsPerWorker);
+
+        detectedConfig = detectedTableSplitsMap.asMap().putIfAbsent(tableFullName, Optional.of(splitConfig));
+        if (detectedConfig != null) {
+            return detectedConfig;
+        }
+        if (autoStepCalcEnable && stepCalcManager != null) {
+            stepCalcManager.addTableConfig(splitConfig);
+        }
+        log.info("Table(%s) is split by field(%s) into %s ranges", tableFullName, splitField.get(), splitConfig.getSplitCount());
+        return Optional.of(splitConfig);
+    }
+
     private FixedSplitSource getFixedSplitSource(JdbcTableHandle tableHandle)
     {
         return new FixedSplitSource(ImmutableList.of(new JdbcSplit(tableHandle.getCatalogName(),
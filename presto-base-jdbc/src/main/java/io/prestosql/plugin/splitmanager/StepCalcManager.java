@@ -119,6 +119,12 @@ public class StepCalcManager
         }
     }
 
+    public void addTableConfig(TableSplitConfig table)
+    {
+        requireNonNull(table, "Table split config is null.");
+        this.tableList.put(generateTableFullName(table.getCatalogName(), table.getSchemaName(), table.getTableName()), table);
+    }
+
     private static List<SplitStatLog> copySplitStatLogList(List<SplitStatLog> list)
     {
         if ((list == null) || (list.isEmpty())) {
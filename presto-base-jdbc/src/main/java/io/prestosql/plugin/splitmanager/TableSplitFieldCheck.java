@@ -20,10 +20,9 @@ import io.prestosql.plugin.jdbc.JdbcColumnHandle;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 
-import java.sql.Types;
-import java.util.Arrays;
 import java.util.List;
 
+import static io.prestosql.plugin.splitmanager.TableSplitUtil.isSplitFieldTypeSupported;
 import static java.util.Objects.requireNonNull;
 
 public class TableSplitFieldCheck
@@ -33,8 +32,6 @@ public class TableSplitFieldCheck
 
     private final DataSourceTableSplitManager tableSplitManager;
 
-    private static final List<Integer> SPLITFIELD_SUPPORT_JDBC_TYPE = Arrays.asList(Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT);
-
     public TableSplitFieldCheck(JdbcClient delegate, DataSourceTableSplitManager tableSplitManager)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
@@ -57,7 +54,7 @@ public class TableSplitFieldCheck
             long matchCoutn = columnHandleList.stream().filter(columnHandle ->
             {
                 int jdbcType = columnHandle.getJdbcTypeHandle().getJdbcType();
-                if (!SPLITFIELD_SUPPORT_JDBC_TYPE.contains(jdbcType)) {
+                if (!isSplitFieldTypeSupported(jdbcType)) {
                     return false;
                 }
                 return columnHandle.getColumnName().equals(tableSplitField);
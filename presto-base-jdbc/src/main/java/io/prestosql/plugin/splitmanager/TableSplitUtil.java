@@ -13,12 +13,18 @@ package io.prestosql.plugin.splitmanager;
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+import com.google.common.collect.ImmutableSet;
+
+import java.sql.Types;
+import java.util.Set;
 import java.util.StringJoiner;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
 public final class TableSplitUtil
 {
+    private static final Set<Integer> SPLIT_FIELD_SUPPORTED_JDBC_TYPES = ImmutableSet.of(Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT);
+
     private TableSplitUtil()
     {
     }
@@ -41,4 +47,12 @@ public final class TableSplitUtil
 
         return joiner.toString();
     }
+
+    /**
+     * The tables are split by ranges of integer like values only
+     */
+    public static boolean isSplitFieldTypeSupported(int jdbcType)
+    {
+        return SPLIT_FIELD_SUPPORTED_JDBC_TYPES.contains(jdbcType);
+    }
 }
@@ -14,6 +14,7 @@
 package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.tpch.TpchTable;
 import io.prestosql.Session;
 import io.prestosql.plugin.tpch.TpchPlugin;
@@ -23,6 +24,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
 import java.util.Map;
 
 import static io.airlift.testing.Closeables.closeAllSuppress;
@@ -46,6 +48,12 @@ public final class JdbcQueryRunner
 
     public static DistributedQueryRunner createJdbcQueryRunner(Iterable<TpchTable<?>> tables)
             throws Exception
+    {
+        return createJdbcQueryRunner(ImmutableMap.of(), tables);
+    }
+
+    public static DistributedQueryRunner createJdbcQueryRunner(Map<String, String> connectorProperties, Iterable<TpchTable<?>> tables)
+            throws Exception
     {
         DistributedQueryRunner queryRunner = null;
         try {
@@ -54,7 +62,8 @@ public final class JdbcQueryRunner
             queryRunner.installPlugin(new TpchPlugin());
             queryRunner.createCatalog("tpch", "tpch");
 
-            Map<String, String> properties = TestingH2JdbcModule.createProperties();
+            Map<String, String> properties = new HashMap<>(TestingH2JdbcModule.createProperties());
+            properties.putAll(connectorProperties);
             createSchema(properties, "tpch");
 
             queryRunner.installPlugin(new JdbcPlugin("base-jdbc", new TestingH2JdbcModule()));
@@ -15,11 +15,14 @@ package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule.BASE_PUSHDOWN;
 import static io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule.DEFAULT;
 import static io.prestosql.sql.builder.functioncall.FunctionCallConstants.REMOTE_FUNCTION_CATALOG_SCHEMA;
@@ -65,7 +68,15 @@ public class TestBaseJdbcConfig
                 .setTableSplitEnable(false)
                 .setTableSplitFields(null)
                 .setTableSplitStepCalcRefreshInterval(new Duration(5, MINUTES))
-                .setTableSplitStepCalcCalcThreads(4));
+                .setTableSplitStepCalcCalcThreads(4)
+                .setTableSplitAutoDetectEnable(false)
+                .setTableSplitAutoSplitsPerWorker(2)
+                .setTableSplitAutoStepCalcEnable(false)
+                .setPageSourceEnable(false)
+                .setResultCacheEnabled(false)
+                .setResultCacheTtl(new Duration(30, SECONDS))
+                .setResultCacheMaxSize(new DataSize(100, MEGABYTE))
+                .setResultCacheMaxEntrySize(new DataSize(10, MEGABYTE)));
     }
 
     @Test
@@ -105,6 +116,14 @@ public class TestBaseJdbcConfig
                 .put("jdbc.table-split-fields", "test_field")
                 .put("jdbc.table-split-stepCalc-refresh-interval", "20s")
                 .put("jdbc.table-split-stepCalc-threads", "2")
+                .put("jdbc.table-split-auto-detect-enabled", "true")
+                .put("jdbc.table-split-auto-splits-per-worker", "4")
+                .put("jdbc.table-split-auto-stepCalc-enabled", "true")
+                .put("jdbc.page-source-enabled", "true")
+                .put("jdbc.result-cache.enabled", "true")
+                .put("jdbc.result-cache.ttl", "5m")
+                .put("jdbc.result-cache.max-size", "1GB")
+                .put("jdbc.result-cache.max-entry-size", "32MB")
                 .build();
 
         BaseJdbcConfig expected = new BaseJdbcConfig()
@@ -140,7 +159,15 @@ public class TestBaseJdbcConfig
                 .setTableSplitEnable(true)
                 .setTableSplitFields("test_field")
                 .setTableSplitStepCalcRefreshInterval(new Duration(20, SECONDS))
-                .setTableSplitStepCalcCalcThreads(2);
+                .setTableSplitStepCalcCalcThreads(2)
+                .setTableSplitAutoDetectEnable(true)
+                .setTableSplitAutoSplitsPerWorker(4)
+                .setTableSplitAutoStepCalcEnable(true)
+                .setPageSourceEnable(true)
+                .setResultCacheEnabled(true)
+                .setResultCacheTtl(new Duration(5, MINUTES))
+                .setResultCacheMaxSize(new DataSize(1, GIGABYTE))
+                .setResultCacheMaxEntrySize(new DataSize(32, MEGABYTE));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.SchemaTableName;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestJdbcPageSource
+{
+    private TestingDatabase database;
+    private JdbcClient jdbcClient;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        database = new TestingDatabase();
+        jdbcClient = database.getJdbcClient();
+        executor = newCachedThreadPool(daemonThreadsNamed("test-jdbc-page-source-%s"));
+        database.getConnection().createStatement().execute("INSERT INTO exa_ple.table_with_float_col VALUES (1, 1.5, 2.5, 3.5), (2, NULL, NULL, NULL), (NULL, 4.5, NULL, NULL)");
+        database.getConnection().commit();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        executor.shutdownNow();
+        database.close();
+    }
+
+    @Test
+    public void testGetNextPage()
+    {
+        JdbcTableHandle table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        Map<String, JdbcColumnHandle> columns = database.getColumnHandles(SESSION, table);
+        List<Page> pages = readPages(table, ImmutableList.of(columns.get("text"), columns.get("text_short"), columns.get("value")));
+
+        Map<String, Long> data = new LinkedHashMap<>();
+        for (Page page : pages) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                String text = VARCHAR.getSlice(page.getBlock(0), position).toStringUtf8();
+                assertEquals(VARCHAR.getSlice(page.getBlock(1), position).toStringUtf8(), text);
+                data.put(text, BIGINT.getLong(page.getBlock(2), position));
+            }
+        }
+        assertEquals(data, ImmutableMap.<String, Long>builder()
+                .put("one", 1L)
+                .put("two", 2L)
+                .put("three", 3L)
+                .put("ten", 10L)
+                .put("eleven", 11L)
+                .put("twelve", 12L)
+                .build());
+    }
+
+    @Test
+    public void testNullValues()
+    {
+        JdbcTableHandle table = database.getTableHandle(SESSION, new SchemaTableName("exa_ple", "table_with_float_col"));
+        Map<String, JdbcColumnHandle> columns = database.getColumnHandles(SESSION, table);
+        List<Page> pages = readPages(table, ImmutableList.of(columns.get("col1"), columns.get("col2")));
+
+        assertEquals(pages.size(), 1);
+        Block keys = pages.get(0).getBlock(0);
+        Block values = pages.get(0).getBlock(1);
+        assertEquals(keys.getPositionCount(), 3);
+        assertEquals(BIGINT.getLong(keys, 0), 1L);
+        assertEquals(DOUBLE.getDouble(values, 0), 1.5);
+        assertEquals(BIGINT.getLong(keys, 1), 2L);
+        assertTrue(values.isNull(1));
+        assertTrue(keys.isNull(2));
+        assertEquals(DOUBLE.getDouble(values, 2), 4.5);
+    }
+
+    @Test
+    public void testNoColumns()
+    {
+        JdbcTableHandle table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        List<Page> pages = readPages(table, ImmutableList.of());
+        assertEquals(pages.stream().mapToInt(Page::getPositionCount).sum(), 6);
+    }
+
+    @Test
+    public void testCloseBeforeFinished()
+    {
+        JdbcTableHandle table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        Map<String, JdbcColumnHandle> columns = database.getColumnHandles(SESSION, table);
+        JdbcPageSource pageSource = createPageSource(table, ImmutableList.of(columns.get("value")));
+        assertEquals(pageSource.getNextPage(), null);
+        pageSource.close();
+        assertTrue(pageSource.isFinished());
+        assertEquals(pageSource.getNextPage(), null);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testCloseCancelsRunningQuery()
+            throws Exception
+    {
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        JdbcClient blockingClient = new ForwardingJdbcClient()
+        {
+            @Override
+            protected JdbcClient getDelegate()
+            {
+                return jdbcClient;
+            }
+
+            @Override
+            public PreparedStatement buildSql(ConnectorSession session, Connection connection, JdbcSplit split, JdbcTableHandle tableHandle, List<JdbcColumnHandle> columnHandles)
+                    throws SQLException
+            {
+                PreparedStatement statement = super.buildSql(session, connection, split, tableHandle, columnHandles);
+                // the query runs until it is cancelled
+                return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("executeQuery")) {
+                        executing.countDown();
+                        cancelled.await();
+                        throw new SQLException("Statement cancelled");
+                    }
+                    if (method.getName().equals("cancel")) {
+                        cancelled.countDown();
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    }
+                    catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+            }
+        };
+
+        JdbcTableHandle table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        Map<String, JdbcColumnHandle> columns = database.getColumnHandles(SESSION, table);
+        JdbcPageSource pageSource = new JdbcPageSource(blockingClient, SESSION, database.getSplit(SESSION, table), table, ImmutableList.of(columns.get("value")), executor);
+        assertEquals(pageSource.getNextPage(), null);
+        executing.await();
+        pageSource.close();
+        assertTrue(cancelled.await(10, SECONDS));
+        assertTrue(pageSource.isFinished());
+        assertEquals(pageSource.getNextPage(), null);
+    }
+
+    private List<Page> readPages(JdbcTableHandle table, List<JdbcColumnHandle> columns)
+    {
+        List<Page> pages = new ArrayList<>();
+        try (JdbcPageSource pageSource = createPageSource(table, columns)) {
+            while (!pageSource.isFinished()) {
+                getFutureValue(pageSource.isBlocked());
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    pages.add(page);
+                }
+            }
+            assertTrue(pageSource.getCompletedBytes() > 0 || columns.isEmpty());
+        }
+        return pages;
+    }
+
+    private JdbcPageSource createPageSource(JdbcTableHandle table, List<JdbcColumnHandle> columns)
+    {
+        JdbcSplit split = database.getSplit(SESSION, table);
+        return new JdbcPageSource(jdbcClient, SESSION, split, table, columns, executor);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+
+import static io.airlift.tpch.TpchTable.ORDERS;
+import static io.prestosql.plugin.jdbc.JdbcQueryRunner.createJdbcQueryRunner;
+
+public class TestJdbcPageSourceIntegrationSmokeTest
+        extends AbstractTestIntegrationSmokeTest
+{
+    public TestJdbcPageSourceIntegrationSmokeTest()
+    {
+        super(() -> createJdbcQueryRunner(ImmutableMap.of("jdbc.page-source-enabled", "true"), ImmutableList.of(ORDERS)));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.jdbc.optimization.JdbcQueryGeneratorResult.GeneratedSql;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.FixedPageSource;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.testing.TestingPagesSerdeFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestJdbcResultCache
+{
+    private static final String SQL = "SELECT \"value\" FROM \"example\".\"numbers\"";
+
+    private TestingDatabase database;
+    private JdbcTableHandle table;
+    private List<JdbcColumnHandle> columns;
+    private JdbcSplit split;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        database = new TestingDatabase();
+        table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        columns = ImmutableList.of(database.getColumnHandles(SESSION, table).get("value"));
+        split = database.getSplit(SESSION, table);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        database.close();
+    }
+
+    @Test
+    public void testCacheResults()
+            throws Exception
+    {
+        JdbcResultCache resultCache = createResultCache(new DataSize(1, MEGABYTE));
+        JdbcResultCache.CacheKey key = createCacheKey(resultCache);
+        assertFalse(resultCache.get(key).isPresent());
+        assertEquals(resultCache.getMissCount(), 1);
+
+        List<Page> pages = ImmutableList.of(createPage(1, 2, 3), createPage(10, 11));
+        assertEquals(readAll(new JdbcResultCachePageSource(new FixedPageSource(pages), resultCache, key)), 5);
+
+        Optional<List<Page>> cachedPages = resultCache.get(key);
+        assertTrue(cachedPages.isPresent());
+        assertEquals(resultCache.getHitCount(), 1);
+        assertEquals(cachedPages.get().size(), 2);
+        assertEquals(BIGINT.getLong(cachedPages.get().get(1).getBlock(0), 1), 11L);
+    }
+
+    @Test
+    public void testInvalidate()
+            throws Exception
+    {
+        JdbcResultCache resultCache = createResultCache(new DataSize(1, MEGABYTE));
+        JdbcResultCache.CacheKey key = createCacheKey(resultCache);
+        readAll(new JdbcResultCachePageSource(new FixedPageSource(ImmutableList.of(createPage(1))), resultCache, key));
+        assertTrue(resultCache.get(key).isPresent());
+
+        long version = resultCache.getVersion();
+        resultCache.invalidate();
+        assertNotEquals(resultCache.getVersion(), version);
+        assertFalse(resultCache.get(key).isPresent());
+        // the queries planned after the write use a new key
+        assertNotEquals(createCacheKey(resultCache), key);
+    }
+
+    @Test
+    public void testResultsNotCached()
+            throws Exception
+    {
+        JdbcResultCache resultCache = createResultCache(new DataSize(1, BYTE));
+        JdbcResultCache.CacheKey key = createCacheKey(resultCache);
+        readAll(new JdbcResultCachePageSource(new FixedPageSource(ImmutableList.of(createPage(1, 2, 3))), resultCache, key));
+        assertFalse(resultCache.get(key).isPresent());
+
+        // the results are not cached when the page source is closed before it finished
+        resultCache = createResultCache(new DataSize(1, MEGABYTE));
+        ConnectorPageSource pageSource = new JdbcResultCachePageSource(new FixedPageSource(ImmutableList.of(createPage(1), createPage(2))), resultCache, key);
+        pageSource.getNextPage();
+        pageSource.close();
+        assertFalse(resultCache.get(key).isPresent());
+    }
+
+    private JdbcResultCache.CacheKey createCacheKey(JdbcResultCache resultCache)
+    {
+        return new JdbcResultCache.CacheKey(new GeneratedSql(SQL, true, resultCache.getVersion()), columns, table, split, JdbcIdentity.from(SESSION));
+    }
+
+    private static JdbcResultCache createResultCache(DataSize maxEntrySize)
+    {
+        BaseJdbcConfig config = new BaseJdbcConfig()
+                .setResultCacheEnabled(true)
+                .setResultCacheMaxEntrySize(maxEntrySize);
+        return new JdbcResultCache(config, () -> new TestingPagesSerdeFactory().createPagesSerde());
+    }
+
+    private static Page createPage(long... values)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, values.length);
+        for (long value : values) {
+            BIGINT.writeLong(blockBuilder, value);
+        }
+        return new Page(blockBuilder.build());
+    }
+
+    private static int readAll(ConnectorPageSource pageSource)
+            throws Exception
+    {
+        int positions = 0;
+        try (ConnectorPageSource ignored = pageSource) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    positions += page.getPositionCount();
+                }
+            }
+        }
+        return positions;
+    }
+}
@@ -14,6 +14,10 @@
  */
 package io.prestosql.plugin.splitmanager;
 
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.Duration;
+import io.prestosql.client.NodeVersion;
+import io.prestosql.metadata.InternalNode;
 import io.prestosql.plugin.jdbc.BaseJdbcClient;
 import io.prestosql.plugin.jdbc.BaseJdbcConfig;
 import io.prestosql.plugin.jdbc.DriverConnectionFactory;
@@ -30,6 +34,7 @@ import org.h2.Driver;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.net.URI;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -41,8 +46,11 @@ import java.util.concurrent.ThreadLocalRandom;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestDataSourceTableSplitManager
 {
@@ -352,6 +360,101 @@ public class TestDataSourceTableSplitManager
         }
     }
 
+    // split field detected from the index of the table
+    @Test
+    public void testGetTableSplitsAutoDetect()
+    {
+        long[][] rangeArray = new long[][]
+                {
+                        {0, 6},
+                        {6, 12},
+                        {12, Long.MAX_VALUE},
+                        {Long.MIN_VALUE, 0}
+                };
+        BaseJdbcConfig config = new BaseJdbcConfig();
+        config.setPushDownEnable(true)
+                .setTableSplitEnable(true)
+                .setTableSplitAutoDetectEnable(true)
+                .setTableSplitAutoSplitsPerWorker(2);
+        JdbcTableHandle autoDetectTableHandle = getTableHandle(new SchemaTableName("example", "indexed_numbers"));
+        DataSourceTableSplitManager autoDetectSplitManager = new DataSourceTableSplitManager(config, jdbcClient, nodeManager);
+        ConnectorSplitSource splitSource = autoDetectSplitManager.getSplits(JdbcIdentity.from(SESSION), autoDetectTableHandle);
+        List<ConnectorSplit> splits = getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits();
+        assertEquals(splits.size(), 4);
+        int index = 0;
+        for (ConnectorSplit split : splits) {
+            JdbcSplit jdbcSplit = (JdbcSplit) split;
+            assertEquals(jdbcSplit.getSplitField(), "\"VALUE\"");
+            assertEquals(Long.parseLong(jdbcSplit.getRangeStart()), rangeArray[index][0]);
+            assertEquals(Long.parseLong(jdbcSplit.getRangEnd()), rangeArray[index][1]);
+            index++;
+        }
+    }
+
+    // the detected split field is quoted in the split predicates and in the min and max query
+    @Test
+    public void testGetTableSplitsAutoDetectQuotedField()
+    {
+        BaseJdbcConfig config = new BaseJdbcConfig();
+        config.setPushDownEnable(true)
+                .setTableSplitEnable(true)
+                .setTableSplitAutoDetectEnable(true)
+                .setTableSplitAutoSplitsPerWorker(2);
+        JdbcTableHandle autoDetectTableHandle = getTableHandle(new SchemaTableName("example", "order_numbers"));
+        DataSourceTableSplitManager autoDetectSplitManager = new DataSourceTableSplitManager(config, jdbcClient, nodeManager);
+        ConnectorSplitSource splitSource = autoDetectSplitManager.getSplits(JdbcIdentity.from(SESSION), autoDetectTableHandle);
+        List<ConnectorSplit> splits = getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits();
+        assertEquals(splits.size(), 4);
+        for (ConnectorSplit split : splits) {
+            JdbcSplit jdbcSplit = (JdbcSplit) split;
+            assertEquals(jdbcSplit.getSplitField(), "\"order id\"");
+            assertTrue(jdbcSplit.getAdditionalPredicate().get().startsWith("\"order id\" "));
+        }
+    }
+
+    // no integer like primary key or index column
+    @Test
+    public void testGetTableSplitsAutoDetectNoSplitField()
+    {
+        BaseJdbcConfig config = new BaseJdbcConfig();
+        config.setPushDownEnable(true)
+                .setTableSplitEnable(true)
+                .setTableSplitAutoDetectEnable(true);
+        JdbcTableHandle autoDetectTableHandle = getTableHandle(new SchemaTableName("example", "numbers"));
+        DataSourceTableSplitManager autoDetectSplitManager = new DataSourceTableSplitManager(config, jdbcClient, nodeManager);
+        ConnectorSplitSource splitSource = autoDetectSplitManager.getSplits(JdbcIdentity.from(SESSION), autoDetectTableHandle);
+        assertEquals(splitSource.getClass(), FixedSplitSource.class);
+    }
+
+    // the detected split configs expire, so the number of splits follows the number of workers
+    @Test
+    public void testGetTableSplitsAutoDetectExpires()
+    {
+        BaseJdbcConfig config = new BaseJdbcConfig();
+        config.setPushDownEnable(true)
+                .setTableSplitEnable(true)
+                .setTableSplitAutoDetectEnable(true)
+                .setTableSplitAutoSplitsPerWorker(2)
+                .setTableSplitStepCalcRefreshInterval(new Duration(1, SECONDS));
+        JdbcTableHandle indexedTableHandle = getTableHandle(new SchemaTableName("example", "indexed_numbers"));
+        TestingNodeManager workerNodeManager = new TestingNodeManager();
+        TestingTicker ticker = new TestingTicker();
+        DataSourceTableSplitManager autoDetectSplitManager = new DataSourceTableSplitManager(config, jdbcClient, workerNodeManager, ticker);
+        // the ranges of the split count plus the rows below the minimum and above the maximum value
+        assertEquals(getSplitCount(autoDetectSplitManager, indexedTableHandle), 2 + 2);
+
+        workerNodeManager.addNode(new InternalNode("worker", URI.create("http://127.0.0.2"), NodeVersion.UNKNOWN, false));
+        assertEquals(getSplitCount(autoDetectSplitManager, indexedTableHandle), 2 + 2);
+        ticker.increment(1500, MILLISECONDS);
+        assertEquals(getSplitCount(autoDetectSplitManager, indexedTableHandle), 4 + 2);
+    }
+
+    private static int getSplitCount(DataSourceTableSplitManager splitManager, JdbcTableHandle tableHandle)
+    {
+        ConnectorSplitSource splitSource = splitManager.getSplits(JdbcIdentity.from(SESSION), tableHandle);
+        return getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits().size();
+    }
+
     private void initSplitDatabase()
             throws SQLException
     {
@@ -412,6 +515,21 @@ public class TestDataSourceTableSplitManager
                 "('twelve', 'twelve', 12)" +
                 "");
 
+        connection.createStatement().execute("CREATE TABLE example.indexed_numbers(text varchar primary key, text_short varchar(32), value bigint)");
+        connection.createStatement().execute("CREATE INDEX indexed_numbers_value ON example.indexed_numbers(value)");
+        connection.createStatement().execute("INSERT INTO example.indexed_numbers(text, text_short, value) VALUES " +
+                "('one', 'one', 1)," +
+                "('two', 'two', 2)," +
+                "('three', 'three', 3)," +
+                "('ten', 'ten', 10)," +
+                "('eleven', 'eleven', 11)," +
+                "('twelve', 'twelve', 12)" +
+                "");
+
+        connection.createStatement().execute("CREATE TABLE example.order_numbers(text varchar primary key, \"order id\" bigint)");
+        connection.createStatement().execute("CREATE INDEX order_numbers_order_id ON example.order_numbers(\"order id\")");
+        connection.createStatement().execute("INSERT INTO example.order_numbers(text, \"order id\") VALUES ('one', 1), ('six', 6), ('twelve', 12)");
+
         connection.createStatement().execute("CREATE TABLE example.same_numbers(text varchar primary key, text_short varchar(32), value bigint)");
         int times = 100;
         for (int i = 0; i < times; i++) {
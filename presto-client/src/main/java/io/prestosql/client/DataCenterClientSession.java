@@ -32,13 +32,15 @@ public class DataCenterClientSession
 {
     private final Duration maxAnticipatedDelay;
     private final boolean compressionEnabled;
+    private final int maxPipelinedRequests;
     private TypeManager typeManager;
 
-    private DataCenterClientSession(URI server, String user, String source, Optional<String> traceToken, Set<String> clientTags, String clientInfo, String catalog, String schema, String path, ZoneId timeZone, Locale locale, Map<String, String> resourceEstimates, Map<String, String> properties, Map<String, String> preparedStatements, Map<String, ClientSelectedRole> roles, Map<String, String> extraCredentials, String transactionId, Duration clientRequestTimeout, Duration maxAnticipatedDelay, boolean compressionEnabled, TypeManager typeManager)
+    private DataCenterClientSession(URI server, String user, String source, Optional<String> traceToken, Set<String> clientTags, String clientInfo, String catalog, String schema, String path, ZoneId timeZone, Locale locale, Map<String, String> resourceEstimates, Map<String, String> properties, Map<String, String> preparedStatements, Map<String, ClientSelectedRole> roles, Map<String, String> extraCredentials, String transactionId, Duration clientRequestTimeout, Duration maxAnticipatedDelay, boolean compressionEnabled, int maxPipelinedRequests, TypeManager typeManager)
     {
         super(server, user, source, traceToken, clientTags, clientInfo, catalog, schema, path, timeZone, locale, resourceEstimates, properties, preparedStatements, roles, extraCredentials, transactionId, clientRequestTimeout);
         this.maxAnticipatedDelay = maxAnticipatedDelay;
         this.compressionEnabled = compressionEnabled;
+        this.maxPipelinedRequests = maxPipelinedRequests;
         this.typeManager = typeManager;
     }
 
@@ -62,6 +64,14 @@ public class DataCenterClientSession
         return compressionEnabled;
     }
 
+    /**
+     * The maximum number of outstanding page requests of a statement client, 1 fetches the pages one by one
+     */
+    public int getMaxPipelinedRequests()
+    {
+        return maxPipelinedRequests;
+    }
+
     public TypeManager getTypeManager()
     {
         return typeManager;
@@ -92,6 +102,7 @@ public class DataCenterClientSession
         private Duration clientRequestTimeout;
         private Duration maxAnticipatedDelay;
         private boolean compressionEnabled;
+        private int maxPipelinedRequests = 1;
         private TypeManager typeManager;
 
         private Builder(URI server, String user)
@@ -130,6 +141,7 @@ public class DataCenterClientSession
             clientRequestTimeout = clientSession.getClientRequestTimeout();
             maxAnticipatedDelay = clientSession.getMaxAnticipatedDelay();
             compressionEnabled = clientSession.isCompressionEnabled();
+            maxPipelinedRequests = clientSession.getMaxPipelinedRequests();
             typeManager = clientSession.getTypeManager();
         }
 
@@ -199,6 +211,12 @@ public class DataCenterClientSession
             return this;
         }
 
+        public Builder withMaxPipelinedRequests(int maxPipelinedRequests)
+        {
+            this.maxPipelinedRequests = maxPipelinedRequests;
+            return this;
+        }
+
         public Builder withSource(String source)
         {
             this.source = source;
@@ -264,6 +282,7 @@ public class DataCenterClientSession
                     clientRequestTimeout,
                     maxAnticipatedDelay,
                     compressionEnabled,
+                    maxPipelinedRequests,
                     typeManager);
         }
     }
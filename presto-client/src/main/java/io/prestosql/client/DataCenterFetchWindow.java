@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Adaptive number of outstanding page requests of a pipelined data center statement client.
+ * <p>
+ * The window grows by one request when a response carries data and its round trip time stays close to the
+ * lowest one measured, which means that fetching is bound by the latency of the link. It is halved when a
+ * response carries no data, since the remote cluster has no buffered results left, or when the round trip
+ * time grows beyond twice the lowest one, since the responses then queue up on the link.
+ */
+public class DataCenterFetchWindow
+{
+    /**
+     * The maximum number of outstanding page requests, the remote cluster parks at most this many requests
+     * ahead of the next token
+     */
+    public static final int MAX_PIPELINED_REQUESTS = 16;
+
+    private static final int ROUND_TRIP_TIME_INCREASE_FACTOR = 2;
+
+    private final int maxSize;
+    private int size = 1;
+    private long minRoundTripNanos = Long.MAX_VALUE;
+
+    public DataCenterFetchWindow(int maxSize)
+    {
+        checkArgument(maxSize > 0 && maxSize <= MAX_PIPELINED_REQUESTS, "maxSize must be between 1 and %s", MAX_PIPELINED_REQUESTS);
+        this.maxSize = maxSize;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public long getMinRoundTripNanos()
+    {
+        return minRoundTripNanos;
+    }
+
+    /**
+     * Update the window after a response was received
+     *
+     * @param roundTripNanos time between sending the request and receiving its response
+     * @param hasData whether the response carried pages
+     */
+    public void update(long roundTripNanos, boolean hasData)
+    {
+        minRoundTripNanos = Math.min(minRoundTripNanos, roundTripNanos);
+        if (!hasData || roundTripNanos > minRoundTripNanos * ROUND_TRIP_TIME_INCREASE_FACTOR) {
+            size = Math.max(1, size / 2);
+        }
+        else {
+            size = Math.min(maxSize, size + 1);
+        }
+    }
+}
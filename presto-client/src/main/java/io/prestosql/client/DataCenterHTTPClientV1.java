@@ -31,6 +31,7 @@ import io.prestosql.client.protocol.DataCenterRowIterable;
 import io.prestosql.client.util.HttpUtil;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.TypeManager;
+import okhttp3.Call;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -50,11 +51,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static io.airlift.json.JsonCodec.jsonCodec;
 import static io.prestosql.client.PrestoHeaders.PRESTO_ADDED_PREPARE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
@@ -108,6 +113,12 @@ public class DataCenterHTTPClientV1
     private final String clientId;
 
     private long token;
+    // outstanding page requests by token, when the pages are fetched in a pipeline
+    private final Map<Long, CompletableFuture<TimedResponse>> pipelinedRequests = new ConcurrentHashMap<>();
+    // tags the page requests of this client, so that the outstanding ones can be cancelled on the dispatcher
+    private final Object requestTag = new Object();
+    private final Optional<DataCenterFetchWindow> fetchWindow;
+    private long nextRequestToken;
     private final PagesSerde serde;
     private final DataCenterClientSession session;
     private TypeManager typeManager;
@@ -128,6 +139,8 @@ public class DataCenterHTTPClientV1
         this.typeManager = session.getTypeManager();
         this.serde = new PagesSerdeFactory(new ExternalBlockEncodingSerde(this.typeManager),
                 true).createPagesSerde();
+        int maxPipelinedRequests = session.getMaxPipelinedRequests();
+        this.fetchWindow = maxPipelinedRequests > 1 ? Optional.of(new DataCenterFetchWindow(maxPipelinedRequests)) : Optional.empty();
 
         // Submit the query
         DataCenterResponse result = null;
@@ -191,9 +204,9 @@ public class DataCenterHTTPClientV1
                 true));
     }
 
-    private HttpUrl nextURL()
+    private HttpUrl nextURL(long token)
     {
-        return this.serverURI.newBuilder().encodedPath(ROOT_URL + DataCenterResponseType.HTTP_PULL + "/" + this.clientId + "/" + this.queryId + "/" + this.slug + "/" + this.token).build();
+        return this.serverURI.newBuilder().encodedPath(ROOT_URL + DataCenterResponseType.HTTP_PULL + "/" + this.clientId + "/" + this.queryId + "/" + this.slug + "/" + token).build();
     }
 
     @Override
@@ -378,17 +391,99 @@ public class DataCenterHTTPClientV1
                 throw new RuntimeException("fetching next result failed.");
             }
             state.compareAndSet(State.RUNNING, State.FINISHED);
+            cancelPipelinedRequests();
             return false;
         }
-        Request request = prepareRequest(this.nextURL(), this.session).build();
+        JsonResponse<DataCenterQueryResults> response;
+        try {
+            if (fetchWindow.isPresent()) {
+                response = advancePipelined(fetchWindow.get());
+            }
+            else {
+                response = fetch(this.token);
+            }
+        }
+        catch (RuntimeException e) {
+            state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+            cancelPipelinedRequests();
+            throw e;
+        }
+        if (response == null) {
+            return false;
+        }
+        processResponse(response.getHeaders(), response.getValue());
+        return true;
+    }
+
+    /**
+     * Keep up to the size of the fetch window requests for the next tokens outstanding, and wait for the
+     * response of the current token. The remote cluster answers the requests in token order.
+     */
+    private JsonResponse<DataCenterQueryResults> advancePipelined(DataCenterFetchWindow window)
+    {
+        nextRequestToken = Math.max(nextRequestToken, this.token);
+        while (nextRequestToken < this.token + window.getSize()) {
+            long requestToken = nextRequestToken++;
+            long start = System.nanoTime();
+            pipelinedRequests.put(requestToken, CompletableFuture.supplyAsync(
+                    () -> new TimedResponse(fetch(requestToken), System.nanoTime() - start),
+                    httpClient.dispatcher().executorService()));
+        }
+
+        CompletableFuture<TimedResponse> request = pipelinedRequests.remove(this.token);
+        if (request == null) {
+            // cancelled by close
+            return null;
+        }
+        TimedResponse timedResponse;
+        try {
+            timedResponse = request.get();
+        }
+        catch (CancellationException e) {
+            return null;
+        }
+        catch (InterruptedException e) {
+            try {
+                close();
+            }
+            finally {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("StatementClient thread was interrupted");
+        }
+        catch (ExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+
+        JsonResponse<DataCenterQueryResults> response = timedResponse.response;
+        if (response != null) {
+            List<SerializedPage> data = response.getValue().getData();
+            window.update(timedResponse.roundTripNanos, data != null && !data.isEmpty());
+        }
+        return response;
+    }
+
+    /**
+     * Fetch the results of the given token, retrying until the client request timeout. The requests of a
+     * pipeline may run on other threads, so only the caller of advance updates the state of the client.
+     *
+     * @return the response, or null if the client was aborted
+     */
+    private JsonResponse<DataCenterQueryResults> fetch(long requestToken)
+    {
+        Request request = prepareRequest(this.nextURL(requestToken), this.session)
+                .tag(requestTag)
+                .build();
 
         Exception cause = null;
         long start = System.nanoTime();
         long attempts = 0;
 
         while (true) {
-            if (isClientAborted()) {
-                return false;
+            if (!isRunning()) {
+                // aborted, or the requests of a pipeline after the results finished
+                return null;
             }
 
             Duration sinceStart = Duration.nanosSince(start);
@@ -396,7 +491,6 @@ public class DataCenterHTTPClientV1
                 // requestTimeoutNanos is used for internal purpose
                 // The client retries upt to a maximum of requestTimeoutNanos and then fail
                 // This value is controlled by the ClientSession#clientRequestTimeout
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
                 throw new RuntimeException(format("Error fetching next (attempts: %s, duration: %s)", attempts, sinceStart), cause);
             }
 
@@ -413,7 +507,6 @@ public class DataCenterHTTPClientV1
                         Thread.currentThread().interrupt();
                     }
                     //todo: 02/12 : add DataResponse state
-                    state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
                     throw new RuntimeException("StatementClient thread was interrupted");
                 }
             }
@@ -430,12 +523,10 @@ public class DataCenterHTTPClientV1
             }
 
             if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
-                processResponse(response.getHeaders(), response.getValue());
-                return true;
+                return response;
             }
 
             if (response.getStatusCode() != HTTP_UNAVAILABLE) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
                 log.error("response.getStatusCode=%s", response.getStatusCode());
                 if (response.getException() != null) {
                     throw new RuntimeException("fetching next result: " + response.toString(), response.getException());
@@ -525,6 +616,39 @@ public class DataCenterHTTPClientV1
                 httpDelete(uri);
             }
         }
+        cancelPipelinedRequests();
+    }
+
+    /**
+     * Cancel the requests that are queued or waiting for the remote cluster. The page requests are
+     * executed by dispatcher threads, so the calls are found by the tag of this client.
+     */
+    private void cancelPipelinedRequests()
+    {
+        if (!fetchWindow.isPresent()) {
+            return;
+        }
+        for (CompletableFuture<TimedResponse> request : pipelinedRequests.values()) {
+            request.cancel(true);
+        }
+        pipelinedRequests.clear();
+        for (Call call : httpClient.dispatcher().runningCalls()) {
+            if (call.request().tag() == requestTag) {
+                call.cancel();
+            }
+        }
+    }
+
+    private static class TimedResponse
+    {
+        private final JsonResponse<DataCenterQueryResults> response;
+        private final long roundTripNanos;
+
+        private TimedResponse(JsonResponse<DataCenterQueryResults> response, long roundTripNanos)
+        {
+            this.response = response;
+            this.roundTripNanos = roundTripNanos;
+        }
     }
 
     private void httpDelete(URI uri)
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+public class TestDataCenterFetchWindow
+{
+    @Test
+    public void testGrowWhileLatencyBound()
+    {
+        DataCenterFetchWindow window = new DataCenterFetchWindow(4);
+        assertEquals(window.getSize(), 1);
+        for (int i = 0; i < 10; i++) {
+            window.update(100_000_000L, true);
+        }
+        assertEquals(window.getSize(), 4);
+        assertEquals(window.getMinRoundTripNanos(), 100_000_000L);
+    }
+
+    @Test
+    public void testShrinkWithoutData()
+    {
+        DataCenterFetchWindow window = new DataCenterFetchWindow(8);
+        for (int i = 0; i < 7; i++) {
+            window.update(100_000_000L, true);
+        }
+        assertEquals(window.getSize(), 8);
+        window.update(100_000_000L, false);
+        assertEquals(window.getSize(), 4);
+        window.update(100_000_000L, false);
+        window.update(100_000_000L, false);
+        window.update(100_000_000L, false);
+        assertEquals(window.getSize(), 1);
+    }
+
+    @Test
+    public void testShrinkWhenRoundTripTimeIncreases()
+    {
+        DataCenterFetchWindow window = new DataCenterFetchWindow(8);
+        for (int i = 0; i < 7; i++) {
+            window.update(100_000_000L, true);
+        }
+        // the responses queue up on the link
+        window.update(250_000_000L, true);
+        assertEquals(window.getSize(), 4);
+        window.update(150_000_000L, true);
+        assertEquals(window.getSize(), 5);
+    }
+}
@@ -60,6 +60,6 @@ enum BuiltinColumns
 
     public ColumnHandle getColumnHandle()
     {
-        return new ElasticsearchColumnHandle(name, type);
+        return new ElasticsearchColumnHandle(name, type, false);
     }
 }
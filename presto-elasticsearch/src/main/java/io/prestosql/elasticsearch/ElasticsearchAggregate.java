@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregate computed by Elasticsearch for every group of a shard. The engine combines the
+ * results of the shards, e.g. it adds up the counts of the shards.
+ */
+public final class ElasticsearchAggregate
+{
+    public enum Function
+    {
+        COUNT,
+        SUM,
+        MIN,
+        MAX
+    }
+
+    private final Function function;
+    private final Optional<ElasticsearchColumnHandle> argument;
+    private final ElasticsearchColumnHandle output;
+
+    /**
+     * @param argument the aggregated column, absent for count(*)
+     * @param output the column of the aggregate in the pages of the shards
+     */
+    @JsonCreator
+    public ElasticsearchAggregate(
+            @JsonProperty("function") Function function,
+            @JsonProperty("argument") Optional<ElasticsearchColumnHandle> argument,
+            @JsonProperty("output") ElasticsearchColumnHandle output)
+    {
+        this.function = requireNonNull(function, "function is null");
+        this.argument = requireNonNull(argument, "argument is null");
+        this.output = requireNonNull(output, "output is null");
+    }
+
+    @JsonProperty
+    public Function getFunction()
+    {
+        return function;
+    }
+
+    @JsonProperty
+    public Optional<ElasticsearchColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    @JsonProperty
+    public ElasticsearchColumnHandle getOutput()
+    {
+        return output;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ElasticsearchAggregate that = (ElasticsearchAggregate) o;
+        return function == that.function &&
+                argument.equals(that.argument) &&
+                output.equals(that.output);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(function, argument, output);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("function", function)
+                .add("argument", argument.map(ElasticsearchColumnHandle::getName).orElse("*"))
+                .add("output", output.getName())
+                .toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The aggregation pushed down into Elasticsearch. Every split returns one row per group of its shard,
+ * with the grouping columns and the outputs of the aggregates.
+ */
+public final class ElasticsearchAggregation
+{
+    private final List<ElasticsearchColumnHandle> groupingColumns;
+    private final List<ElasticsearchAggregate> aggregates;
+
+    @JsonCreator
+    public ElasticsearchAggregation(
+            @JsonProperty("groupingColumns") List<ElasticsearchColumnHandle> groupingColumns,
+            @JsonProperty("aggregates") List<ElasticsearchAggregate> aggregates)
+    {
+        this.groupingColumns = ImmutableList.copyOf(requireNonNull(groupingColumns, "groupingColumns is null"));
+        this.aggregates = ImmutableList.copyOf(requireNonNull(aggregates, "aggregates is null"));
+    }
+
+    @JsonProperty
+    public List<ElasticsearchColumnHandle> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<ElasticsearchAggregate> getAggregates()
+    {
+        return aggregates;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ElasticsearchAggregation that = (ElasticsearchAggregation) o;
+        return groupingColumns.equals(that.groupingColumns) &&
+                aggregates.equals(that.aggregates);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(groupingColumns, aggregates);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("groupingColumns", groupingColumns)
+                .add("aggregates", aggregates)
+                .toString();
+    }
+}
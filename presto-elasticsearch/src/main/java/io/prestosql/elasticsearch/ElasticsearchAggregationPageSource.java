@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import io.prestosql.elasticsearch.ElasticsearchAggregate.Function;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.missing.Missing;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.max.Max;
+import org.elasticsearch.search.aggregations.metrics.min.Min;
+import org.elasticsearch.search.aggregations.metrics.sum.Sum;
+import org.elasticsearch.search.aggregations.metrics.valuecount.ValueCount;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.elasticsearch.ElasticsearchErrorCode.ELASTICSEARCH_TOO_MANY_BUCKETS;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.aggregateName;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildAggregations;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildSearchQuery;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.groupName;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.missingName;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.valueCountName;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the groups of an aggregation of one shard, computed by Elasticsearch from the buckets
+ * of nested terms aggregations, instead of the documents of the shard.
+ */
+public class ElasticsearchAggregationPageSource
+        implements ConnectorPageSource
+{
+    private final ElasticsearchClient client;
+    private final ElasticsearchTableHandle table;
+    private final ElasticsearchSplit split;
+    private final ElasticsearchAggregation aggregation;
+    private final int maxBuckets;
+    private final List<Type> types;
+    // for every output column, the index of its grouping column, or of its aggregate offset by the number of grouping columns
+    private final int[] outputs;
+
+    private final PageBuilder pageBuilder;
+    private final Queue<Page> pages = new ArrayDeque<>();
+    private boolean searched;
+    private long readTimeNanos;
+
+    public ElasticsearchAggregationPageSource(
+            ElasticsearchClient client,
+            ElasticsearchTableHandle table,
+            ElasticsearchSplit split,
+            List<ElasticsearchColumnHandle> columns,
+            int maxBuckets)
+    {
+        this.client = requireNonNull(client, "client is null");
+        this.table = requireNonNull(table, "table is null");
+        this.split = requireNonNull(split, "split is null");
+        this.aggregation = table.getAggregation().orElseThrow(() -> new IllegalArgumentException("table is not aggregated"));
+        this.maxBuckets = maxBuckets;
+        this.types = columns.stream()
+                .map(ElasticsearchColumnHandle::getType)
+                .collect(toImmutableList());
+
+        List<ElasticsearchColumnHandle> aggregateOutputs = aggregation.getAggregates().stream()
+                .map(ElasticsearchAggregate::getOutput)
+                .collect(toImmutableList());
+        int groupingColumnCount = aggregation.getGroupingColumns().size();
+        outputs = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            int aggregate = aggregateOutputs.indexOf(columns.get(i));
+            if (aggregate >= 0) {
+                outputs[i] = groupingColumnCount + aggregate;
+            }
+            else {
+                outputs[i] = aggregation.getGroupingColumns().indexOf(columns.get(i));
+                checkArgument(outputs[i] >= 0, "Column is not an output of the aggregation: %s", columns.get(i));
+            }
+        }
+        pageBuilder = new PageBuilder(types);
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return searched && pages.isEmpty();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (!searched) {
+            long start = System.nanoTime();
+            SearchResponse response = client.aggregate(
+                    table.getIndex(),
+                    split.getShard(),
+                    buildSearchQuery(table.getConstraint(), table.getQuery()),
+                    buildAggregations(aggregation, maxBuckets));
+            readTimeNanos += System.nanoTime() - start;
+
+            Object[] groupingValues = new Object[aggregation.getGroupingColumns().size()];
+            appendGroups(Optional.ofNullable(response.getAggregations()), 0, groupingValues, response.getHits().getTotalHits());
+            if (!pageBuilder.isEmpty()) {
+                pages.add(pageBuilder.build());
+            }
+            searched = true;
+        }
+        return pages.poll();
+    }
+
+    private void appendGroups(Optional<Aggregations> aggregations, int level, Object[] groupingValues, long documentCount)
+    {
+        if (level == groupingValues.length) {
+            appendRow(aggregations, groupingValues, documentCount);
+            return;
+        }
+
+        // the groups are nested, every level has buckets for the values of one grouping column and a bucket for null
+        Aggregations levelAggregations = aggregations.get();
+        Terms terms = levelAggregations.get(groupName(level));
+        if (terms.getSumOfOtherDocCounts() > 0) {
+            throw new PrestoException(ELASTICSEARCH_TOO_MANY_BUCKETS, format(
+                    "Column %s has more than %s values in shard %s of %s, increase elasticsearch.aggregation-max-buckets or disable elasticsearch.aggregation-push-down-enabled",
+                    aggregation.getGroupingColumns().get(level).getName(),
+                    maxBuckets,
+                    split.getShard(),
+                    table.getIndex()));
+        }
+        for (Terms.Bucket bucket : terms.getBuckets()) {
+            groupingValues[level] = getGroupingValue(aggregation.getGroupingColumns().get(level).getType(), bucket);
+            appendGroups(Optional.of(bucket.getAggregations()), level + 1, groupingValues, bucket.getDocCount());
+        }
+
+        Missing missing = levelAggregations.get(missingName(level));
+        if (missing.getDocCount() > 0) {
+            groupingValues[level] = null;
+            appendGroups(Optional.of(missing.getAggregations()), level + 1, groupingValues, missing.getDocCount());
+        }
+    }
+
+    private void appendRow(Optional<Aggregations> aggregations, Object[] groupingValues, long documentCount)
+    {
+        if (pageBuilder.isFull()) {
+            pages.add(pageBuilder.build());
+            pageBuilder.reset();
+        }
+
+        pageBuilder.declarePosition();
+        for (int i = 0; i < outputs.length; i++) {
+            Object value;
+            if (outputs[i] < groupingValues.length) {
+                value = groupingValues[outputs[i]];
+            }
+            else {
+                int aggregate = outputs[i] - groupingValues.length;
+                value = getAggregateValue(aggregation.getAggregates().get(aggregate), aggregate, aggregations, documentCount);
+            }
+            writeValue(types.get(i), pageBuilder.getBlockBuilder(i), value);
+        }
+    }
+
+    private static Object getGroupingValue(Type type, Terms.Bucket bucket)
+    {
+        if (type.equals(BIGINT) || type.equals(INTEGER)) {
+            return ((Number) bucket.getKey()).longValue();
+        }
+        if (type.equals(DOUBLE)) {
+            return ((Number) bucket.getKey()).doubleValue();
+        }
+        if (type.equals(BOOLEAN)) {
+            // boolean terms are keyed by 0 and 1
+            return ((Number) bucket.getKey()).longValue() != 0;
+        }
+        if (type.equals(VARCHAR)) {
+            return bucket.getKeyAsString();
+        }
+        throw new IllegalArgumentException("Unhandled type: " + type);
+    }
+
+    private static Object getAggregateValue(ElasticsearchAggregate aggregate, int index, Optional<Aggregations> aggregations, long documentCount)
+    {
+        if (!aggregate.getArgument().isPresent()) {
+            return documentCount;
+        }
+
+        Aggregations metrics = aggregations.get();
+        Function function = aggregate.getFunction();
+        double value;
+        switch (function) {
+            case COUNT:
+                return ((ValueCount) metrics.get(aggregateName(index))).getValue();
+            case SUM:
+                if (((ValueCount) metrics.get(valueCountName(index))).getValue() == 0) {
+                    return null;
+                }
+                value = ((Sum) metrics.get(aggregateName(index))).getValue();
+                break;
+            case MIN:
+                value = ((Min) metrics.get(aggregateName(index))).getValue();
+                break;
+            case MAX:
+                value = ((Max) metrics.get(aggregateName(index))).getValue();
+                break;
+            default:
+                throw new AssertionError("Unhandled function: " + function);
+        }
+
+        // the min and max of a bucket without values are infinite
+        if (Double.isInfinite(value)) {
+            return null;
+        }
+        // Elasticsearch computes all metrics as doubles, the metrics of INTEGER fields are exact
+        if (aggregate.getOutput().getType().equals(DOUBLE)) {
+            return value;
+        }
+        return (long) value;
+    }
+
+    private static void writeValue(Type type, BlockBuilder output, Object value)
+    {
+        if (value == null) {
+            output.appendNull();
+        }
+        else if (value instanceof Boolean) {
+            type.writeBoolean(output, (Boolean) value);
+        }
+        else if (value instanceof Long) {
+            type.writeLong(output, (Long) value);
+        }
+        else if (value instanceof Double) {
+            type.writeDouble(output, (Double) value);
+        }
+        else {
+            type.writeSlice(output, utf8Slice((String) value));
+        }
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return pageBuilder.getRetainedSizeInBytes() + pages.stream()
+                .mapToLong(Page::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    @Override
+    public void close()
+    {
+        pages.clear();
+    }
+}
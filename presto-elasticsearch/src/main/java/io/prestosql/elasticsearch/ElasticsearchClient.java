@@ -52,7 +52,9 @@ import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -462,7 +464,8 @@ public class ElasticsearchClient
                     result.add(new IndexMetadata.Field(isArray, name, new IndexMetadata.DateTimeType(formats)));
                 }
                 else {
-                    result.add(new IndexMetadata.Field(isArray, name, new IndexMetadata.PrimitiveType(type)));
+                    boolean exactValues = !value.has("normalizer") && !value.has("ignore_above");
+                    result.add(new IndexMetadata.Field(isArray, name, new IndexMetadata.PrimitiveType(type, exactValues)));
                 }
             }
             else if (value.has("properties")) {
@@ -481,7 +484,7 @@ public class ElasticsearchClient
         return jsonNode.get(name);
     }
 
-    public SearchResponse beginSearch(String index, int shard, QueryBuilder query, Optional<List<String>> fields, List<String> documentFields)
+    public SearchResponse beginSearch(String index, int shard, int slice, int sliceCount, QueryBuilder query, Optional<List<String>> fields, List<String> documentFields)
     {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
                 .query(query)
@@ -497,12 +500,41 @@ public class ElasticsearchClient
         });
         documentFields.forEach(sourceBuilder::docValueField);
 
+        SearchRequest request = new SearchRequest(index)
+                .searchType(QUERY_THEN_FETCH)
+                .scroll(new TimeValue(scrollTimeout.toMillis()));
+
+        if (sliceCount > 1) {
+            // slices are computed over all shards of the index, restricting the search to one shard would skip documents
+            sourceBuilder.slice(new SliceBuilder(slice, sliceCount));
+        }
+        else {
+            request.preference("_shards:" + shard);
+        }
+
+        return search(request.source(sourceBuilder));
+    }
+
+    /**
+     * Aggregate the matching documents of one shard, without fetching any of them
+     */
+    public SearchResponse aggregate(String index, int shard, QueryBuilder query, List<AggregationBuilder> aggregations)
+    {
+        SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
+                .query(query)
+                .size(0);
+        aggregations.forEach(sourceBuilder::aggregation);
+
         SearchRequest request = new SearchRequest(index)
                 .searchType(QUERY_THEN_FETCH)
                 .preference("_shards:" + shard)
-                .scroll(new TimeValue(scrollTimeout.toMillis()))
                 .source(sourceBuilder);
 
+        return search(request);
+    }
+
+    private SearchResponse search(SearchRequest request)
+    {
         try {
             return client.search(request);
         }
@@ -28,14 +28,21 @@ public final class ElasticsearchColumnHandle
 {
     private final String name;
     private final Type type;
+    private final boolean supportsPredicates;
 
+    /**
+     * @param supportsPredicates whether Elasticsearch matches and groups the values of the field exactly,
+     * like keyword, numeric and boolean fields, but unlike analyzed text fields
+     */
     @JsonCreator
     public ElasticsearchColumnHandle(
             @JsonProperty("name") String name,
-            @JsonProperty("type") Type type)
+            @JsonProperty("type") Type type,
+            @JsonProperty("supportsPredicates") boolean supportsPredicates)
     {
         this.name = requireNonNull(name, "name is null");
         this.type = requireNonNull(type, "type is null");
+        this.supportsPredicates = supportsPredicates;
     }
 
     @JsonProperty
@@ -50,10 +57,16 @@ public final class ElasticsearchColumnHandle
         return type;
     }
 
+    @JsonProperty
+    public boolean isSupportsPredicates()
+    {
+        return supportsPredicates;
+    }
+
     @Override
     public int hashCode()
     {
-        return Objects.hash(name, type);
+        return Objects.hash(name, type, supportsPredicates);
     }
 
     @Override
@@ -68,7 +81,8 @@ public final class ElasticsearchColumnHandle
 
         ElasticsearchColumnHandle other = (ElasticsearchColumnHandle) obj;
         return Objects.equals(this.getName(), other.getName()) &&
-                Objects.equals(this.getType(), other.getType());
+                Objects.equals(this.getType(), other.getType()) &&
+                this.isSupportsPredicates() == other.isSupportsPredicates();
     }
 
     @Override
@@ -77,6 +91,7 @@ public final class ElasticsearchColumnHandle
         return toStringHelper(this)
                 .add("columnName", getName())
                 .add("columnType", getType())
+                .add("supportsPredicates", isSupportsPredicates())
                 .toString();
     }
 }
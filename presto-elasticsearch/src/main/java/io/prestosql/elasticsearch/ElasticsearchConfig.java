@@ -57,6 +57,9 @@ public class ElasticsearchConfig
     private String defaultSchema = "default";
     private int scrollSize = 1_000;
     private Duration scrollTimeout = new Duration(1, MINUTES);
+    private int scrollSlicesPerShard = 1;
+    private boolean aggregationPushDownEnabled = true;
+    private int aggregationMaxBuckets = 10_000;
     private Duration requestTimeout = new Duration(10, SECONDS);
     private Duration connectTimeout = new Duration(1, SECONDS);
     private Duration maxRetryTime = new Duration(30, SECONDS);
@@ -157,6 +160,47 @@ public class ElasticsearchConfig
         return this;
     }
 
+    @Min(1)
+    public int getScrollSlicesPerShard()
+    {
+        return scrollSlicesPerShard;
+    }
+
+    @Config("elasticsearch.scroll-slices-per-shard")
+    @ConfigDescription("Number of splits reading each shard in parallel with sliced scrolls")
+    public ElasticsearchConfig setScrollSlicesPerShard(int scrollSlicesPerShard)
+    {
+        this.scrollSlicesPerShard = scrollSlicesPerShard;
+        return this;
+    }
+
+    public boolean isAggregationPushDownEnabled()
+    {
+        return aggregationPushDownEnabled;
+    }
+
+    @Config("elasticsearch.aggregation-push-down-enabled")
+    @ConfigDescription("Compute count, sum, min and max aggregations in Elasticsearch")
+    public ElasticsearchConfig setAggregationPushDownEnabled(boolean aggregationPushDownEnabled)
+    {
+        this.aggregationPushDownEnabled = aggregationPushDownEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getAggregationMaxBuckets()
+    {
+        return aggregationMaxBuckets;
+    }
+
+    @Config("elasticsearch.aggregation-max-buckets")
+    @ConfigDescription("Maximum number of buckets of a pushed down group by, per grouping column and shard")
+    public ElasticsearchConfig setAggregationMaxBuckets(int aggregationMaxBuckets)
+    {
+        this.aggregationMaxBuckets = aggregationMaxBuckets;
+        return this;
+    }
+
     @NotNull
     public Duration getRequestTimeout()
     {
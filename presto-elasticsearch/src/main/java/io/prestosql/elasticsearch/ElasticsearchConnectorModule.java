@@ -43,6 +43,8 @@ public class ElasticsearchConnectorModule
         binder.bind(ElasticsearchMetadata.class).in(Scopes.SINGLETON);
         binder.bind(ElasticsearchSplitManager.class).in(Scopes.SINGLETON);
         binder.bind(ElasticsearchPageSourceProvider.class).in(Scopes.SINGLETON);
+        binder.bind(ElasticsearchPlanOptimizer.class).in(Scopes.SINGLETON);
+        binder.bind(ElasticsearchPlanOptimizerProvider.class).in(Scopes.SINGLETON);
         binder.bind(ElasticsearchClient.class).in(Scopes.SINGLETON);
 
         newExporter(binder).export(ElasticsearchClient.class).withGeneratedName();
@@ -26,7 +26,8 @@ public enum ElasticsearchErrorCode
     ELASTICSEARCH_CONNECTION_ERROR(0, EXTERNAL),
     ELASTICSEARCH_INVALID_RESPONSE(1, EXTERNAL),
     ELASTICSEARCH_SSL_INITIALIZATION_FAILURE(2, EXTERNAL),
-    ELASTICSEARCH_QUERY_FAILURE(3, USER_ERROR);
+    ELASTICSEARCH_QUERY_FAILURE(3, USER_ERROR),
+    ELASTICSEARCH_TOO_MANY_BUCKETS(4, USER_ERROR);
 
     private final ErrorCode errorCode;
 
@@ -30,6 +30,7 @@ import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.ArrayType;
 import io.prestosql.spi.type.RowType;
@@ -40,6 +41,7 @@ import io.prestosql.spi.type.TypeSignature;
 
 import javax.inject.Inject;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -203,6 +205,26 @@ public class ElasticsearchMetadata
         return null;
     }
 
+    private static boolean supportsPredicates(IndexMetadata.Field field)
+    {
+        if (field.isArray() || !(field.getType() instanceof PrimitiveType)) {
+            return false;
+        }
+        PrimitiveType type = (PrimitiveType) field.getType();
+        switch (type.getName()) {
+            case "boolean":
+            case "integer":
+            case "long":
+            case "double":
+                return true;
+            case "keyword":
+                // normalized keywords do not match the values exactly, values longer than ignore_above are not indexed
+                return type.isExactValues();
+            default:
+                return false;
+        }
+    }
+
     @Override
     public List<SchemaTableName> listTables(ConnectorSession session, Optional<String> schemaName)
     {
@@ -263,8 +285,23 @@ public class ElasticsearchMetadata
     {
         ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
 
+        // the predicates on the other columns, e.g. on analyzed text fields, are evaluated by the engine
+        Map<ColumnHandle, Domain> supported = new HashMap<>();
+        Map<ColumnHandle, Domain> unsupported = new HashMap<>();
+        if (constraint.getSummary().getDomains().isPresent()) {
+            for (Map.Entry<ColumnHandle, Domain> entry : constraint.getSummary().getDomains().get().entrySet()) {
+                ElasticsearchColumnHandle column = (ElasticsearchColumnHandle) entry.getKey();
+                if (column.isSupportsPredicates()) {
+                    supported.put(column, entry.getValue());
+                }
+                else {
+                    unsupported.put(column, entry.getValue());
+                }
+            }
+        }
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
-        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
+        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(TupleDomain.withColumnDomains(supported));
         if (oldDomain.equals(newDomain)) {
             return Optional.empty();
         }
@@ -272,10 +309,11 @@ public class ElasticsearchMetadata
         handle = new ElasticsearchTableHandle(
                 handle.getSchema(),
                 handle.getIndex(),
-                handle.getConstraint(),
-                handle.getQuery());
+                newDomain,
+                handle.getQuery(),
+                handle.getAggregation());
 
-        return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
+        return Optional.of(new ConstraintApplicationResult<>(handle, TupleDomain.withColumnDomains(unsupported)));
     }
 
     private List<ColumnMetadata> makeColumnMetadata(List<IndexMetadata.Field> fields)
@@ -303,7 +341,8 @@ public class ElasticsearchMetadata
         for (IndexMetadata.Field field : fields) {
             result.put(field.getName(), new ElasticsearchColumnHandle(
                     field.getName(),
-                    toPrestoType(field)));
+                    toPrestoType(field),
+                    supportsPredicates(field)));
         }
 
         return result.build();
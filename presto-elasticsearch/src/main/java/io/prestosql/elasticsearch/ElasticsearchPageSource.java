@@ -126,7 +126,9 @@ public class ElasticsearchPageSource
         SearchResponse searchResponse = client.beginSearch(
                 table.getIndex(),
                 split.getShard(),
-                buildSearchQuery(table.getConstraint(), columns, table.getQuery()),
+                split.getSlice(),
+                split.getSliceCount(),
+                buildSearchQuery(table.getConstraint(), table.getQuery()),
                 needAllFields ? Optional.empty() : Optional.of(requiredFields),
                 documentFields);
         readTimeNanos += System.nanoTime() - start;
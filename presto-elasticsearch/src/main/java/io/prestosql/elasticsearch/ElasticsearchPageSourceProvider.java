@@ -32,11 +32,13 @@ public class ElasticsearchPageSourceProvider
         implements ConnectorPageSourceProvider
 {
     private final ElasticsearchClient client;
+    private final int aggregationMaxBuckets;
 
     @Inject
-    public ElasticsearchPageSourceProvider(ElasticsearchClient client)
+    public ElasticsearchPageSourceProvider(ElasticsearchClient client, ElasticsearchConfig config)
     {
         this.client = requireNonNull(client, "client is null");
+        this.aggregationMaxBuckets = requireNonNull(config, "config is null").getAggregationMaxBuckets();
     }
 
     @Override
@@ -45,11 +47,18 @@ public class ElasticsearchPageSourceProvider
         requireNonNull(split, "split is null");
         requireNonNull(table, "table is null");
 
+        ElasticsearchTableHandle tableHandle = (ElasticsearchTableHandle) table;
+        List<ElasticsearchColumnHandle> columnHandles = columns.stream()
+                .map(ElasticsearchColumnHandle.class::cast)
+                .collect(toImmutableList());
+
+        if (tableHandle.getAggregation().isPresent()) {
+            return new ElasticsearchAggregationPageSource(client, tableHandle, (ElasticsearchSplit) split, columnHandles, aggregationMaxBuckets);
+        }
+
         return new ElasticsearchPageSource(
                 client,
-                (ElasticsearchTableHandle) table, (ElasticsearchSplit) split,
-                columns.stream()
-                        .map(ElasticsearchColumnHandle.class::cast)
-                        .collect(toImmutableList()));
+                tableHandle, (ElasticsearchSplit) split,
+                columnHandles);
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.plugin.base.aggregation.AggregationPushDownOptimizer;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.type.Type;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pushes count, sum, min and max aggregations over Elasticsearch tables into Elasticsearch, the groups are
+ * computed for every shard.
+ */
+public class ElasticsearchPlanOptimizer
+        extends AggregationPushDownOptimizer<ElasticsearchColumnHandle>
+{
+    @Inject
+    public ElasticsearchPlanOptimizer(ElasticsearchConfig config)
+    {
+        super(requireNonNull(config, "config is null").isAggregationPushDownEnabled());
+    }
+
+    @Override
+    protected boolean canPushDown(ConnectorTableHandle table)
+    {
+        return table instanceof ElasticsearchTableHandle && !((ElasticsearchTableHandle) table).getAggregation().isPresent();
+    }
+
+    @Override
+    protected boolean isGroupable(ElasticsearchColumnHandle column)
+    {
+        Type type = column.getType();
+        return column.isSupportsPredicates() &&
+                (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE) || type.equals(BOOLEAN) || type.equals(VARCHAR));
+    }
+
+    @Override
+    protected boolean isAggregatable(Function function, ElasticsearchColumnHandle column)
+    {
+        if (!isGroupable(column)) {
+            return false;
+        }
+        if (function == Function.COUNT) {
+            return true;
+        }
+        // Elasticsearch computes the metrics as doubles, which do not represent every BIGINT value exactly
+        Type type = column.getType();
+        return type.equals(INTEGER) || type.equals(DOUBLE);
+    }
+
+    @Override
+    protected ElasticsearchColumnHandle createAggregateColumn(String name, Type type)
+    {
+        return new ElasticsearchColumnHandle(name, type, false);
+    }
+
+    @Override
+    protected ConnectorTableHandle applyAggregation(ConnectorTableHandle table, List<ElasticsearchColumnHandle> groupingColumns, List<Aggregate<ElasticsearchColumnHandle>> aggregates)
+    {
+        ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+        List<ElasticsearchAggregate> elasticsearchAggregates = aggregates.stream()
+                .map(aggregate -> new ElasticsearchAggregate(
+                        ElasticsearchAggregate.Function.valueOf(aggregate.getFunction().name()),
+                        aggregate.getArgument(),
+                        aggregate.getOutput()))
+                .collect(toImmutableList());
+        return new ElasticsearchTableHandle(
+                handle.getSchema(),
+                handle.getIndex(),
+                handle.getConstraint(),
+                handle.getQuery(),
+                Optional.of(new ElasticsearchAggregation(ImmutableList.copyOf(groupingColumns), elasticsearchAggregates)));
+    }
+}
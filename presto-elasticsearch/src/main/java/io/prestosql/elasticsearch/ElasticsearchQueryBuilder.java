@@ -13,6 +13,7 @@
  */
 package io.prestosql.elasticsearch;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.predicate.Domain;
@@ -26,9 +27,12 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryStringQueryBuilder;
 import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -45,18 +49,18 @@ public class ElasticsearchQueryBuilder
 {
     private ElasticsearchQueryBuilder() {}
 
-    public static QueryBuilder buildSearchQuery(TupleDomain<ColumnHandle> constraint, List<ElasticsearchColumnHandle> columns, Optional<String> query)
+    public static QueryBuilder buildSearchQuery(TupleDomain<ColumnHandle> constraint, Optional<String> query)
     {
+        if (constraint.isNone()) {
+            return new BoolQueryBuilder().mustNot(new MatchAllQueryBuilder());
+        }
+
+        // the constraint is enforced by Elasticsearch, it includes the columns which are only filtered on
         BoolQueryBuilder boolQueryBuilder = new BoolQueryBuilder();
-        for (ElasticsearchColumnHandle column : columns) {
+        for (Map.Entry<ColumnHandle, Domain> entry : constraint.getDomains().get().entrySet()) {
+            ElasticsearchColumnHandle column = (ElasticsearchColumnHandle) entry.getKey();
             BoolQueryBuilder columnQueryBuilder = new BoolQueryBuilder();
-            Type type = column.getType();
-            if (constraint.getDomains().isPresent()) {
-                Domain domain = constraint.getDomains().get().get(column);
-                if (domain != null) {
-                    columnQueryBuilder.should(buildPredicate(column.getName(), domain, type));
-                }
-            }
+            columnQueryBuilder.should(buildPredicate(column.getName(), entry.getValue(), column.getType()));
             boolQueryBuilder.must(columnQueryBuilder);
         }
 
@@ -84,7 +88,11 @@ public class ElasticsearchQueryBuilder
             return boolQueryBuilder;
         }
 
-        return buildTermQuery(boolQueryBuilder, columnName, domain, type);
+        buildTermQuery(boolQueryBuilder, columnName, domain, type);
+        if (domain.isNullAllowed()) {
+            boolQueryBuilder.should(new BoolQueryBuilder().mustNot(new ExistsQueryBuilder(columnName)));
+        }
+        return boolQueryBuilder;
     }
 
     private static QueryBuilder buildTermQuery(BoolQueryBuilder queryBuilder, String columnName, Domain domain, Type type)
@@ -135,6 +143,86 @@ public class ElasticsearchQueryBuilder
         return queryBuilder;
     }
 
+    /**
+     * Build the aggregations computing the groups of a shard: one terms aggregation per grouping column, nested in
+     * the order of the grouping columns, each with a sibling missing aggregation collecting the documents without
+     * a value, and the metric aggregations of the aggregates inside the innermost buckets.
+     */
+    public static List<AggregationBuilder> buildAggregations(ElasticsearchAggregation aggregation, int maxBuckets)
+    {
+        return buildAggregations(aggregation, 0, maxBuckets);
+    }
+
+    private static List<AggregationBuilder> buildAggregations(ElasticsearchAggregation aggregation, int level, int maxBuckets)
+    {
+        if (level == aggregation.getGroupingColumns().size()) {
+            return buildMetricAggregations(aggregation.getAggregates());
+        }
+
+        String field = aggregation.getGroupingColumns().get(level).getName();
+        AggregationBuilder terms = AggregationBuilders.terms(groupName(level))
+                .field(field)
+                .size(maxBuckets);
+        AggregationBuilder missing = AggregationBuilders.missing(missingName(level))
+                .field(field);
+        buildAggregations(aggregation, level + 1, maxBuckets).forEach(terms::subAggregation);
+        buildAggregations(aggregation, level + 1, maxBuckets).forEach(missing::subAggregation);
+        return ImmutableList.of(terms, missing);
+    }
+
+    private static List<AggregationBuilder> buildMetricAggregations(List<ElasticsearchAggregate> aggregates)
+    {
+        ImmutableList.Builder<AggregationBuilder> result = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            ElasticsearchAggregate aggregate = aggregates.get(i);
+            if (!aggregate.getArgument().isPresent()) {
+                // count(*) is the document count of the bucket
+                continue;
+            }
+
+            String field = aggregate.getArgument().get().getName();
+            switch (aggregate.getFunction()) {
+                case COUNT:
+                    result.add(AggregationBuilders.count(aggregateName(i)).field(field));
+                    break;
+                case SUM:
+                    // the sum of a bucket without values is 0 instead of null
+                    result.add(AggregationBuilders.sum(aggregateName(i)).field(field));
+                    result.add(AggregationBuilders.count(valueCountName(i)).field(field));
+                    break;
+                case MIN:
+                    result.add(AggregationBuilders.min(aggregateName(i)).field(field));
+                    break;
+                case MAX:
+                    result.add(AggregationBuilders.max(aggregateName(i)).field(field));
+                    break;
+                default:
+                    throw new AssertionError("Unhandled function: " + aggregate.getFunction());
+            }
+        }
+        return result.build();
+    }
+
+    static String groupName(int level)
+    {
+        return "group_" + level;
+    }
+
+    static String missingName(int level)
+    {
+        return "missing_" + level;
+    }
+
+    static String aggregateName(int index)
+    {
+        return "aggregate_" + index;
+    }
+
+    static String valueCountName(int index)
+    {
+        return "value_count_" + index;
+    }
+
     private static Object getValue(Type type, Object value)
     {
         if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE) || type.equals(BOOLEAN)) {
@@ -22,6 +22,7 @@ import io.prestosql.spi.connector.ConnectorSplit;
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchSplit
@@ -29,14 +30,31 @@ public class ElasticsearchSplit
 {
     private final int shard;
     private final String address;
+    private final int slice;
+    private final int sliceCount;
 
+    public ElasticsearchSplit(int shard, String address)
+    {
+        this(shard, address, 0, 1);
+    }
+
+    /**
+     * A slice count of 1 reads the whole shard. Otherwise the split reads one slice of a sliced scroll over
+     * the whole index, and the shard is only used to place the split next to the data of the slice.
+     */
     @JsonCreator
     public ElasticsearchSplit(
             @JsonProperty("shard") int shard,
-            @JsonProperty("address") String address)
+            @JsonProperty("address") String address,
+            @JsonProperty("slice") int slice,
+            @JsonProperty("sliceCount") int sliceCount)
     {
+        checkArgument(sliceCount > 0, "sliceCount must be positive");
+        checkArgument(slice >= 0 && slice < sliceCount, "slice must be between 0 and sliceCount");
         this.shard = shard;
         this.address = requireNonNull(address, "address is null");
+        this.slice = slice;
+        this.sliceCount = sliceCount;
     }
 
     @JsonProperty
@@ -51,6 +69,18 @@ public class ElasticsearchSplit
         return address;
     }
 
+    @JsonProperty
+    public int getSlice()
+    {
+        return slice;
+    }
+
+    @JsonProperty
+    public int getSliceCount()
+    {
+        return sliceCount;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
@@ -74,6 +104,8 @@ public class ElasticsearchSplit
     {
         return toStringHelper(this)
                 .addValue(shard)
+                .add("slice", slice)
+                .add("sliceCount", sliceCount)
                 .toString();
     }
 }
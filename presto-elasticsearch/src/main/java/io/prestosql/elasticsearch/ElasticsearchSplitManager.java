@@ -13,6 +13,7 @@
  */
 package io.prestosql.elasticsearch;
 
+import io.prestosql.elasticsearch.client.Shard;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitManager;
 import io.prestosql.spi.connector.ConnectorSplitSource;
@@ -23,6 +24,7 @@ import io.prestosql.spi.connector.FixedSplitSource;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
@@ -31,11 +33,13 @@ public class ElasticsearchSplitManager
         implements ConnectorSplitManager
 {
     private final ElasticsearchClient client;
+    private final int scrollSlicesPerShard;
 
     @Inject
-    public ElasticsearchSplitManager(ElasticsearchClient client)
+    public ElasticsearchSplitManager(ElasticsearchClient client, ElasticsearchConfig config)
     {
         this.client = requireNonNull(client, "client is null");
+        this.scrollSlicesPerShard = requireNonNull(config, "config is null").getScrollSlicesPerShard();
     }
 
     @Override
@@ -43,8 +47,22 @@ public class ElasticsearchSplitManager
     {
         ElasticsearchTableHandle tableHandle = (ElasticsearchTableHandle) table;
 
-        List<ElasticsearchSplit> splits = client.getSearchShards(tableHandle.getIndex()).stream()
-                .map(shard -> new ElasticsearchSplit(shard.getId(), shard.getAddress()))
+        List<Shard> shards = client.getSearchShards(tableHandle.getIndex());
+
+        // aggregations are not scrolled, every shard is aggregated by a single request
+        if (scrollSlicesPerShard == 1 || tableHandle.getAggregation().isPresent()) {
+            return new FixedSplitSource(shards.stream()
+                    .map(shard -> new ElasticsearchSplit(shard.getId(), shard.getAddress()))
+                    .collect(toImmutableList()));
+        }
+
+        // Elasticsearch assigns slice i to shard i % shards, when there are more slices than shards
+        int sliceCount = shards.size() * scrollSlicesPerShard;
+        List<ElasticsearchSplit> splits = IntStream.range(0, sliceCount)
+                .mapToObj(slice -> {
+                    Shard shard = shards.get(slice % shards.size());
+                    return new ElasticsearchSplit(shard.getId(), shard.getAddress(), slice, sliceCount);
+                })
                 .collect(toImmutableList());
 
         return new FixedSplitSource(splits);
@@ -31,6 +31,7 @@ public final class ElasticsearchTableHandle
     private final String index;
     private final TupleDomain<ColumnHandle> constraint;
     private final Optional<String> query;
+    private final Optional<ElasticsearchAggregation> aggregation;
 
     public ElasticsearchTableHandle(String schema, String index, Optional<String> query)
     {
@@ -39,6 +40,7 @@ public final class ElasticsearchTableHandle
         this.query = requireNonNull(query, "query is null");
 
         constraint = TupleDomain.all();
+        aggregation = Optional.empty();
     }
 
     @JsonCreator
@@ -46,12 +48,14 @@ public final class ElasticsearchTableHandle
             @JsonProperty("schema") String schema,
             @JsonProperty("index") String index,
             @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
-            @JsonProperty("query") Optional<String> query)
+            @JsonProperty("query") Optional<String> query,
+            @JsonProperty("aggregation") Optional<ElasticsearchAggregation> aggregation)
     {
         this.schema = requireNonNull(schema, "schema is null");
         this.index = requireNonNull(index, "index is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.query = requireNonNull(query, "query is null");
+        this.aggregation = requireNonNull(aggregation, "aggregation is null");
     }
 
     @JsonProperty
@@ -78,6 +82,12 @@ public final class ElasticsearchTableHandle
         return query;
     }
 
+    @JsonProperty
+    public Optional<ElasticsearchAggregation> getAggregation()
+    {
+        return aggregation;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -91,12 +101,13 @@ public final class ElasticsearchTableHandle
         return schema.equals(that.schema) &&
                 index.equals(that.index) &&
                 constraint.equals(that.constraint) &&
-                query.equals(that.query);
+                query.equals(that.query) &&
+                aggregation.equals(that.aggregation);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(schema, index, constraint, query);
+        return Objects.hash(schema, index, constraint, query, aggregation);
     }
 }
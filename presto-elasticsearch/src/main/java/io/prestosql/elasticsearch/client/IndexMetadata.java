@@ -68,16 +68,32 @@ public class IndexMetadata
             implements Type
     {
         private final String name;
+        private final boolean exactValues;
 
         public PrimitiveType(String name)
+        {
+            this(name, true);
+        }
+
+        /**
+         * @param exactValues whether the values are indexed as they are, which is not the case for keywords with
+         * a normalizer, or for keywords longer than ignore_above, which are not indexed at all
+         */
+        public PrimitiveType(String name, boolean exactValues)
         {
             this.name = requireNonNull(name, "name is null");
+            this.exactValues = exactValues;
         }
 
         public String getName()
         {
             return name;
         }
+
+        public boolean isExactValues()
+        {
+            return exactValues;
+        }
     }
 
     public static class DateTimeType
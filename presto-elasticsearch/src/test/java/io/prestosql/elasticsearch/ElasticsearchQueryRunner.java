@@ -81,7 +81,12 @@ public final class ElasticsearchQueryRunner
             throws Exception
     {
         queryRunner.installPlugin(new ElasticsearchPlugin(factory));
-        Map<String, String> config = ImmutableMap.<String, String>builder()
+        queryRunner.createCatalog("elasticsearch", "elasticsearch", getCatalogProperties());
+    }
+
+    public static Map<String, String> getCatalogProperties()
+    {
+        return ImmutableMap.<String, String>builder()
                 .put("elasticsearch.host", "localhost")
                 .put("elasticsearch.port", "9200")
                 .put("elasticsearch.default-schema-name", TPCH_SCHEMA)
@@ -89,8 +94,6 @@ public final class ElasticsearchQueryRunner
                 .put("elasticsearch.scroll-timeout", "1m")
                 .put("elasticsearch.request-timeout", "2m")
                 .build();
-
-        queryRunner.createCatalog("elasticsearch", "elasticsearch", config);
     }
 
     private static void loadTpchTopic(EmbeddedElasticsearchNode embeddedElasticsearchNode, TestingPrestoClient prestoClient, TpchTable<?> table)
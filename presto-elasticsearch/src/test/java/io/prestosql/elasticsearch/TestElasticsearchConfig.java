@@ -40,6 +40,9 @@ public class TestElasticsearchConfig
                 .setDefaultSchema("default")
                 .setScrollSize(1000)
                 .setScrollTimeout(new Duration(1, MINUTES))
+                .setScrollSlicesPerShard(1)
+                .setAggregationPushDownEnabled(true)
+                .setAggregationMaxBuckets(10_000)
                 .setRequestTimeout(new Duration(10, SECONDS))
                 .setConnectTimeout(new Duration(1, SECONDS))
                 .setMaxRetryTime(new Duration(30, SECONDS))
@@ -68,6 +71,9 @@ public class TestElasticsearchConfig
                 .put("elasticsearch.default-schema-name", "test")
                 .put("elasticsearch.scroll-size", "4000")
                 .put("elasticsearch.scroll-timeout", "20s")
+                .put("elasticsearch.scroll-slices-per-shard", "4")
+                .put("elasticsearch.aggregation-push-down-enabled", "false")
+                .put("elasticsearch.aggregation-max-buckets", "500")
                 .put("elasticsearch.request-timeout", "1s")
                 .put("elasticsearch.connect-timeout", "10s")
                 .put("elasticsearch.max-retry-time", "10s")
@@ -89,6 +95,9 @@ public class TestElasticsearchConfig
                 .setDefaultSchema("test")
                 .setScrollSize(4000)
                 .setScrollTimeout(new Duration(20, SECONDS))
+                .setScrollSlicesPerShard(4)
+                .setAggregationPushDownEnabled(false)
+                .setAggregationMaxBuckets(500)
                 .setRequestTimeout(new Duration(1, SECONDS))
                 .setConnectTimeout(new Duration(10, SECONDS))
                 .setMaxRetryTime(new Duration(10, SECONDS))
@@ -28,9 +28,11 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 import static io.prestosql.elasticsearch.ElasticsearchQueryRunner.createElasticsearchQueryRunner;
+import static io.prestosql.elasticsearch.ElasticsearchQueryRunner.getCatalogProperties;
 import static io.prestosql.elasticsearch.EmbeddedElasticsearchNode.createEmbeddedElasticsearchNode;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
@@ -61,6 +63,15 @@ public class TestElasticsearchIntegrationSmokeTest
     public void setUp()
     {
         queryRunner = getQueryRunner();
+        createCatalog("elasticsearch_sliced", "elasticsearch.scroll-slices-per-shard", "3");
+        createCatalog("elasticsearch_small_buckets", "elasticsearch.aggregation-max-buckets", "10");
+    }
+
+    private void createCatalog(String catalogName, String propertyName, String propertyValue)
+    {
+        Map<String, String> properties = new HashMap<>(getCatalogProperties());
+        properties.put(propertyName, propertyValue);
+        queryRunner.createCatalog(catalogName, "elasticsearch", properties);
     }
 
     @AfterClass(alwaysRun = true)
@@ -100,6 +111,73 @@ public class TestElasticsearchIntegrationSmokeTest
                 "WHERE orderkey BETWEEN 10 AND 50 OR orderkey BETWEEN 100 AND 150");
     }
 
+    @Test
+    public void testAggregationPushDown()
+    {
+        assertQuery("SELECT custkey, count(*), count(orderkey), sum(orderkey), min(orderkey), max(shippriority) FROM orders GROUP BY custkey");
+        assertQuery("SELECT custkey, shippriority, count(*) FROM orders WHERE orderkey < 1000 GROUP BY custkey, shippriority");
+        assertQuery("SELECT count(*), sum(custkey), min(orderkey), max(orderkey) FROM orders WHERE orderkey BETWEEN 10 AND 50");
+        assertQuery("SELECT count(*), sum(custkey), min(orderkey) FROM orders WHERE orderkey < 0", "VALUES (0, NULL, NULL)");
+    }
+
+    @Test
+    public void testSlicedScroll()
+    {
+        // every shard is read by 3 splits
+        assertQuery(
+                "SELECT orderkey, custkey, orderstatus, totalprice, orderdate, orderpriority, clerk, shippriority, comment FROM elasticsearch_sliced.tpch.orders",
+                "SELECT orderkey, custkey, orderstatus, totalprice, orderdate, orderpriority, clerk, shippriority, comment FROM orders");
+        assertQuery("SELECT count(*) FROM elasticsearch_sliced.tpch.orders WHERE orderkey BETWEEN 10 AND 50", "SELECT count(*) FROM orders WHERE orderkey BETWEEN 10 AND 50");
+    }
+
+    @Test
+    public void testAggregationTooManyBuckets()
+    {
+        assertQueryFails(
+                "SELECT custkey, count(*) FROM elasticsearch_small_buckets.tpch.orders GROUP BY custkey",
+                "Column custkey has more than 10 values in shard .*");
+        // the groups of a grouping column with fewer values fit into the buckets
+        assertQuery(
+                "SELECT orderstatus, count(*) FROM elasticsearch_small_buckets.tpch.orders GROUP BY orderstatus",
+                "SELECT orderstatus, count(*) FROM orders GROUP BY orderstatus");
+    }
+
+    @Test
+    public void testKeywordOptions()
+    {
+        String indexName = "keyword_options";
+
+        embeddedElasticsearchNode.getClient()
+                .admin()
+                .indices()
+                .prepareCreate(indexName)
+                .setSettings("{\"analysis\": {\"normalizer\": {\"lowercase\": {\"type\": \"custom\", \"filter\": [\"lowercase\"]}}}}", XContentType.JSON)
+                .addMapping("doc", "" +
+                                "{" +
+                                "  \"properties\": {" +
+                                "    \"normalized\": { \"type\": \"keyword\", \"normalizer\": \"lowercase\" }," +
+                                "    \"limited\":    { \"type\": \"keyword\", \"ignore_above\": 4 }" +
+                                "  }" +
+                                "}",
+                        XContentType.JSON)
+                .get();
+
+        index(indexName, ImmutableMap.of("normalized", "Cool", "limited", "abc"));
+        index(indexName, ImmutableMap.of("normalized", "cool", "limited", "abcdef"));
+
+        embeddedElasticsearchNode.getClient()
+                .admin()
+                .indices()
+                .refresh(refreshRequest(indexName))
+                .actionGet();
+
+        // Elasticsearch matches and groups the normalized values, and does not index the values longer than ignore_above
+        assertQuery("SELECT limited FROM keyword_options WHERE normalized = 'cool'", "VALUES 'abcdef'");
+        assertQuery("SELECT normalized, count(*) FROM keyword_options GROUP BY normalized", "VALUES ('Cool', 1), ('cool', 1)");
+        assertQuery("SELECT normalized FROM keyword_options WHERE limited = 'abcdef'", "VALUES 'cool'");
+        assertQuery("SELECT limited, count(*) FROM keyword_options GROUP BY limited", "VALUES ('abc', 1), ('abcdef', 1)");
+    }
+
     @Test
     @Override
     public void testDescribeTable()
@@ -20,7 +20,9 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Streams;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.log.Logger;
 import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
 import io.prestosql.plugin.hive.HiveBucketing.BucketingVersion;
@@ -48,6 +50,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.hive.common.ValidCompactorWriteIdList;
 import org.apache.hadoop.hive.common.ValidWriteIdList;
 import org.apache.hadoop.hive.ql.io.AcidUtils;
@@ -66,11 +69,14 @@ import org.apache.hudi.hadoop.HoodieParquetInputFormat;
 import org.apache.hudi.hadoop.HoodieROTablePathFilter;
 import org.apache.hudi.hadoop.realtime.HoodieParquetRealtimeInputFormat;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
@@ -84,6 +90,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.IntPredicate;
 import java.util.function.Supplier;
@@ -94,6 +101,7 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isDynamicFilteringSplitFilteringEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isForceLocalScheduling;
 import static io.prestosql.plugin.hive.HiveUtil.checkCondition;
@@ -130,6 +138,7 @@ public class BackgroundHiveSplitLoader
     private final HdfsContext hdfsContext;
     private final NamenodeStats namenodeStats;
     private final DirectoryLister directoryLister;
+    private final DirectoryLister fileIteratorLister;
     private final int loaderConcurrency;
     private final boolean recursiveDirWalkerEnabled;
     private final Executor executor;
@@ -140,6 +149,16 @@ public class BackgroundHiveSplitLoader
     private final Supplier<List<Set<DynamicFilter>>> dynamicFilterSupplier;
     private final Configuration configuration;
     private final Supplier<HoodieROTablePathFilter> hoodiePathFilterSupplier;
+    private final Optional<Executor> listingExecutor;
+    private final int listingLookahead;
+    private final HiveSplitSourceStats splitSourceStats;
+
+    // parallel listing mode: partitions taken from the queue whose directories are being listed ahead of loading
+    @GuardedBy("lookaheadPartitions")
+    private final Deque<HivePartitionMetadata> lookaheadPartitions = new ArrayDeque<>();
+    private final Map<Path, ListenableFuture<List<LocatedFileStatus>>> prefetchedListings = new ConcurrentHashMap<>();
+    private final AtomicBoolean firstSplitLoaded = new AtomicBoolean();
+    private volatile long startNanos;
 
     // Purpose of this lock:
     // * Write lock: when you need a consistent view across partitions, fileIterators, and hiveSplitSource.
@@ -184,6 +203,53 @@ public class BackgroundHiveSplitLoader
             Optional<QueryType> queryType,
             Map<String, Object> queryInfo,
             TypeManager typeManager)
+    {
+        this(
+                table,
+                partitions,
+                compactEffectivePredicate,
+                tableBucketInfo,
+                session,
+                hdfsEnvironment,
+                namenodeStats,
+                directoryLister,
+                executor,
+                loaderConcurrency,
+                recursiveDirWalkerEnabled,
+                validWriteIds,
+                dynamicFilterSupplier,
+                queryType,
+                queryInfo,
+                typeManager,
+                Optional.empty(),
+                0,
+                new HiveSplitSourceStats());
+    }
+
+    /**
+     * @param listingExecutor if present, directories of upcoming partitions are listed in parallel on this
+     * executor, up to {@code listingConcurrency} partitions ahead of the loader tasks
+     */
+    public BackgroundHiveSplitLoader(
+            Table table,
+            Iterable<HivePartitionMetadata> partitions,
+            TupleDomain<? extends ColumnHandle> compactEffectivePredicate,
+            Optional<BucketSplitInfo> tableBucketInfo,
+            ConnectorSession session,
+            HdfsEnvironment hdfsEnvironment,
+            NamenodeStats namenodeStats,
+            DirectoryLister directoryLister,
+            Executor executor,
+            int loaderConcurrency,
+            boolean recursiveDirWalkerEnabled,
+            Optional<ValidWriteIdList> validWriteIds,
+            Supplier<List<Set<DynamicFilter>>> dynamicFilterSupplier,
+            Optional<QueryType> queryType,
+            Map<String, Object> queryInfo,
+            TypeManager typeManager,
+            Optional<Executor> listingExecutor,
+            int listingConcurrency,
+            HiveSplitSourceStats splitSourceStats)
     {
         this.table = table;
         this.compactEffectivePredicate = compactEffectivePredicate;
@@ -193,7 +259,12 @@ public class BackgroundHiveSplitLoader
         this.session = session;
         this.hdfsEnvironment = hdfsEnvironment;
         this.namenodeStats = namenodeStats;
+        this.listingExecutor = requireNonNull(listingExecutor, "listingExecutor is null");
+        // keep the listing executor busy while the loader tasks consume listed partitions
+        this.listingLookahead = listingConcurrency * 2;
+        this.splitSourceStats = requireNonNull(splitSourceStats, "splitSourceStats is null");
         this.directoryLister = directoryLister;
+        this.fileIteratorLister = listingExecutor.isPresent() ? new PrefetchedDirectoryLister() : directoryLister;
         this.recursiveDirWalkerEnabled = recursiveDirWalkerEnabled;
         this.executor = executor;
         this.hdfsContext = new HdfsContext(session, table.getDatabaseName(), table.getTableName());
@@ -233,6 +304,7 @@ public class BackgroundHiveSplitLoader
     public void start(HiveSplitSource splitSource)
     {
         this.hiveSplitSource = splitSource;
+        this.startNanos = System.nanoTime();
         for (int i = 0; i < loaderConcurrency; i++) {
             ResumableTasks.submit(executor, new HiveSplitLoaderTask());
         }
@@ -242,6 +314,8 @@ public class BackgroundHiveSplitLoader
     public void stop()
     {
         stopped = true;
+        prefetchedListings.values().forEach(listing -> listing.cancel(true));
+        prefetchedListings.clear();
     }
 
     private class HiveSplitLoaderTask
@@ -293,7 +367,7 @@ public class BackgroundHiveSplitLoader
         taskExecutionLock.readLock().lock();
         try {
             // This is an opportunistic check to avoid getting the write lock unnecessarily
-            if (!partitions.isEmpty() || !fileIterators.isEmpty()) {
+            if (hasPendingPartitions() || !fileIterators.isEmpty()) {
                 return;
             }
         }
@@ -309,7 +383,7 @@ public class BackgroundHiveSplitLoader
         taskExecutionLock.writeLock().lock();
         try {
             // the write lock guarantees that no one is operating on the partitions, fileIterators, or hiveSplitSource, or half way through doing so.
-            if (partitions.isEmpty() && fileIterators.isEmpty()) {
+            if (!hasPendingPartitions() && fileIterators.isEmpty()) {
                 // It is legal to call `noMoreSplits` multiple times or after `stop` was called.
                 // Nothing bad will happen if `noMoreSplits` implementation calls methods that will try to obtain a read lock because the lock is re-entrant.
                 hiveSplitSource.noMoreSplits();
@@ -329,15 +403,16 @@ public class BackgroundHiveSplitLoader
     {
         Iterator<InternalHiveSplit> splits = fileIterators.poll();
         if (splits == null) {
-            HivePartitionMetadata partition = partitions.poll();
+            HivePartitionMetadata partition = pollPartition();
             if (partition == null) {
-                return COMPLETED_FUTURE;
+                // the listing may run on the same threads as the loader tasks, so yield instead of waiting for it
+                return getPendingListing().orElse(COMPLETED_FUTURE);
             }
             return loadPartition(partition);
         }
 
         while (splits.hasNext() && !stopped) {
-            ListenableFuture<?> future = hiveSplitSource.addToQueue(splits.next());
+            ListenableFuture<?> future = addToQueue(splits.next());
             if (!future.isDone()) {
                 fileIterators.addFirst(splits);
                 return future;
@@ -348,6 +423,141 @@ public class BackgroundHiveSplitLoader
         return COMPLETED_FUTURE;
     }
 
+    private boolean hasPendingPartitions()
+    {
+        synchronized (lookaheadPartitions) {
+            if (!lookaheadPartitions.isEmpty()) {
+                return true;
+            }
+        }
+        return !partitions.isEmpty();
+    }
+
+    private HivePartitionMetadata pollPartition()
+    {
+        if (!listingExecutor.isPresent()) {
+            return partitions.poll();
+        }
+        synchronized (lookaheadPartitions) {
+            while (lookaheadPartitions.size() < listingLookahead && !stopped) {
+                HivePartitionMetadata partition = partitions.poll();
+                if (partition == null) {
+                    break;
+                }
+                // partitions pruned by dynamic filters do not take up listing capacity
+                if (isPrunedByDynamicFilter(getPartitionKeys(table, partition.getPartition()))) {
+                    continue;
+                }
+                lookaheadPartitions.addLast(partition);
+                prefetchListing(partition);
+            }
+            // the partitions are loaded in the order their listings complete, a slow listing does not hold up the others
+            Iterator<HivePartitionMetadata> iterator = lookaheadPartitions.iterator();
+            while (iterator.hasNext()) {
+                HivePartitionMetadata partition = iterator.next();
+                if (!isListingPending(partition)) {
+                    iterator.remove();
+                    return partition;
+                }
+            }
+            return null;
+        }
+    }
+
+    private void prefetchListing(HivePartitionMetadata partition)
+    {
+        // transactional tables are listed through AcidUtils
+        if (AcidUtils.isTransactionalTable(table.getParameters())) {
+            return;
+        }
+        Path path = new Path(getPartitionLocation(table, partition.getPartition()));
+        ListenableFutureTask<List<LocatedFileStatus>> listing = ListenableFutureTask.create(() -> listDirectory(path));
+        if (prefetchedListings.putIfAbsent(path, listing) == null) {
+            listingExecutor.get().execute(listing);
+        }
+    }
+
+    private boolean isListingPending(HivePartitionMetadata partition)
+    {
+        ListenableFuture<List<LocatedFileStatus>> listing = prefetchedListings.get(new Path(getPartitionLocation(table, partition.getPartition())));
+        return listing != null && !listing.isDone();
+    }
+
+    /**
+     * @return a future completed when the first of the pending listings of the lookahead partitions completes
+     */
+    private Optional<ListenableFuture<?>> getPendingListing()
+    {
+        if (!listingExecutor.isPresent()) {
+            return Optional.empty();
+        }
+        List<ListenableFuture<List<LocatedFileStatus>>> pendingListings = new ArrayList<>();
+        synchronized (lookaheadPartitions) {
+            for (HivePartitionMetadata partition : lookaheadPartitions) {
+                ListenableFuture<List<LocatedFileStatus>> listing = prefetchedListings.get(new Path(getPartitionLocation(table, partition.getPartition())));
+                if (listing != null && !listing.isDone()) {
+                    pendingListings.add(listing);
+                }
+            }
+        }
+        if (pendingListings.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Futures.inCompletionOrder(pendingListings).get(0));
+    }
+
+    private List<LocatedFileStatus> listDirectory(Path path)
+            throws IOException
+    {
+        long start = System.nanoTime();
+        FileSystem fs = hdfsEnvironment.getFileSystem(hdfsContext, path);
+        ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builder();
+        RemoteIterator<LocatedFileStatus> iterator = directoryLister.list(fs, table, path);
+        int fileCount = 0;
+        while (iterator.hasNext() && !stopped) {
+            files.add(iterator.next());
+            fileCount++;
+        }
+        splitSourceStats.addPartitionListing(System.nanoTime() - start, fileCount);
+        return files.build();
+    }
+
+    private void cancelPrefetchedListing(Path path)
+    {
+        ListenableFuture<List<LocatedFileStatus>> listing = prefetchedListings.remove(path);
+        if (listing != null) {
+            listing.cancel(true);
+        }
+    }
+
+    private boolean isPrunedByDynamicFilter(List<HivePartitionKey> partitionKeys)
+    {
+        return dynamicFilterSupplier != null
+                && isDynamicFilteringSplitFilteringEnabled(session)
+                && isPartitionFiltered(partitionKeys, dynamicFilterSupplier.get(), typeManager);
+    }
+
+    private ListenableFuture<?> addToQueue(InternalHiveSplit split)
+    {
+        recordFirstSplit();
+        return hiveSplitSource.addToQueue(split);
+    }
+
+    private ListenableFuture<?> addToQueue(List<InternalHiveSplit> splits)
+    {
+        if (!splits.isEmpty()) {
+            recordFirstSplit();
+        }
+        return hiveSplitSource.addToQueue(splits);
+    }
+
+    private void recordFirstSplit()
+    {
+        if (!firstSplitLoaded.get() && firstSplitLoaded.compareAndSet(false, true)) {
+            splitSourceStats.addFirstSplitLatency(System.nanoTime() - startNanos);
+        }
+    }
+
     private ListenableFuture<?> loadPartition(HivePartitionMetadata partition)
             throws IOException
     {
@@ -357,19 +567,19 @@ public class BackgroundHiveSplitLoader
         List<HivePartitionKey> partitionKeys = getPartitionKeys(table, partition.getPartition());
         TupleDomain<HiveColumnHandle> effectivePredicate = (TupleDomain<HiveColumnHandle>) compactEffectivePredicate;
 
-        if (dynamicFilterSupplier != null && isDynamicFilteringSplitFilteringEnabled(session)) {
-            if (isPartitionFiltered(partitionKeys, dynamicFilterSupplier.get(), typeManager)) {
-                // Avoid listing files and creating splits from a partition if it has been pruned due to dynamic filters
-                return COMPLETED_FUTURE;
-            }
+        Path path = new Path(getPartitionLocation(table, partition.getPartition()));
+        if (isPrunedByDynamicFilter(partitionKeys)) {
+            // Avoid listing files and creating splits from a partition if it has been pruned due to dynamic filters
+            cancelPrefetchedListing(path);
+            return COMPLETED_FUTURE;
         }
 
-        Path path = new Path(getPartitionLocation(table, partition.getPartition()));
         InputFormat<?, ?> inputFormat = getInputFormat(configuration, schema, false, jobConf);
         FileSystem fs = hdfsEnvironment.getFileSystem(hdfsContext, path);
         boolean s3SelectPushdownEnabled = shouldEnablePushdownForTable(session, table, path.toString(), partition.getPartition());
 
         if (inputFormat instanceof SymlinkTextInputFormat) {
+            cancelPrefetchedListing(path);
             if (tableBucketInfo.isPresent()) {
                 throw new PrestoException(NOT_SUPPORTED, "Bucketed table in SymlinkTextInputFormat is not yet supported");
             }
@@ -439,6 +649,7 @@ public class BackgroundHiveSplitLoader
         // To support custom input formats, we want to call getSplits()
         // on the input format to obtain file splits.
         if (!isHudiParquetInputFormat(inputFormat) && shouldUseFileSplitsFromInputFormat(inputFormat)) {
+            cancelPrefetchedListing(path);
             if (tableBucketInfo.isPresent()) {
                 throw new PrestoException(NOT_SUPPORTED, "Presto cannot read bucketed partition in an input format with UseFileSplitsFromInputFormat annotation: " + inputFormat.getClass().getSimpleName());
             }
@@ -592,7 +803,7 @@ public class BackgroundHiveSplitLoader
         if (tableBucketInfo.isPresent()) {
             ListenableFuture<?> lastResult = immediateFuture(null); // TODO document in addToQueue() that it is sufficient to hold on to last returned future
             for (Path readPath : readPaths) {
-                lastResult = hiveSplitSource.addToQueue(getBucketedSplits(readPath, fs, splitFactory,
+                lastResult = addToQueue(getBucketedSplits(readPath, fs, splitFactory,
                         tableBucketInfo.get(), bucketConversion, getDeleteDeltaLocationFor(readPath, deleteDeltaLocations), pathFilter));
             }
             return lastResult;
@@ -639,7 +850,7 @@ public class BackgroundHiveSplitLoader
         for (InputSplit inputSplit : targetSplits) {
             Optional<InternalHiveSplit> internalHiveSplit = splitFactory.createInternalHiveSplit((FileSplit) inputSplit);
             if (internalHiveSplit.isPresent()) {
-                lastResult = hiveSplitSource.addToQueue(internalHiveSplit.get());
+                lastResult = addToQueue(internalHiveSplit.get());
             }
             if (stopped) {
                 return COMPLETED_FUTURE;
@@ -666,7 +877,7 @@ public class BackgroundHiveSplitLoader
 
     private Iterator<InternalHiveSplit> createInternalHiveSplitIterator(Path path, FileSystem fileSystem, InternalHiveSplitFactory splitFactory, boolean splittable, Optional<DeleteDeltaLocations> deleteDeltaLocations, Optional<Long> startRowOffsetOfFile, PathFilter pathFilter)
     {
-        return Streams.stream(new HiveFileIterator(table, path, fileSystem, directoryLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED, pathFilter))
+        return Streams.stream(new HiveFileIterator(table, path, fileSystem, fileIteratorLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED, pathFilter))
                 .map(status -> splitFactory.createInternalHiveSplit(status, splittable, deleteDeltaLocations, startRowOffsetOfFile))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
@@ -683,7 +894,7 @@ public class BackgroundHiveSplitLoader
         // list all files in the partition
         List<LocatedFileStatus> files = new ArrayList<>(partitionBucketCount);
         try {
-            Iterators.addAll(files, new HiveFileIterator(table, path, fileSystem, directoryLister, namenodeStats, FAIL, pathFilter));
+            Iterators.addAll(files, new HiveFileIterator(table, path, fileSystem, fileIteratorLister, namenodeStats, FAIL, pathFilter));
         }
         catch (NestedDirectoryNotAllowedException e) {
             // Fail here to be on the safe side. This seems to be the same as what Hive does
@@ -837,6 +1048,52 @@ public class BackgroundHiveSplitLoader
         return table;
     }
 
+    /**
+     * Serves the listings of partition directories listed ahead by the listing executor,
+     * and lists any other directory synchronously. A partition is only loaded once its
+     * listing is done, see {@link #loadSplits()}, so serving it does not block.
+     */
+    private class PrefetchedDirectoryLister
+            implements DirectoryLister
+    {
+        @Override
+        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
+                throws IOException
+        {
+            ListenableFuture<List<LocatedFileStatus>> listing = prefetchedListings.remove(path);
+            if (listing == null) {
+                return directoryLister.list(fs, table, path);
+            }
+            Iterator<LocatedFileStatus> files = getFutureValue(listing, IOException.class).iterator();
+            return new RemoteIterator<LocatedFileStatus>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return files.hasNext();
+                }
+
+                @Override
+                public LocatedFileStatus next()
+                {
+                    return files.next();
+                }
+            };
+        }
+
+        @Override
+        public void invalidate(Partition partition)
+        {
+            directoryLister.invalidate(partition);
+        }
+
+        @Override
+        public void invalidate(Table table)
+        {
+            directoryLister.invalidate(table);
+        }
+    }
+
     public static class BucketSplitInfo
     {
         private final List<HiveColumnHandle> bucketColumns;
@@ -13,11 +13,15 @@
  */
 package io.prestosql.plugin.hive;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
 import io.airlift.units.Duration;
+import io.prestosql.plugin.hive.metastore.Partition;
 import io.prestosql.plugin.hive.metastore.Table;
 import io.prestosql.spi.connector.SchemaTableName;
 import org.apache.hadoop.fs.FileSystem;
@@ -26,25 +30,67 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RemoteIterator;
 import org.weakref.jmx.Managed;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
 
+/**
+ * Caches directory listings of the configured tables ({@code *} caches all tables).
+ * <p>
+ * Entries are invalidated when a transaction that wrote to or dropped a table or partition
+ * finishes, see {@link TableInvalidationCallback}, so files written through this catalog are
+ * visible to the next query. Files written by other systems become visible when the entry
+ * expires or, if a refresh interval is configured, when an accessed entry older than the
+ * interval is reloaded in the background. The stale listing is returned until the reload
+ * completes.
+ */
 public class CachingDirectoryLister
         implements DirectoryLister
 {
-    private final Cache<Path, List<LocatedFileStatus>> cache;
+    private static final Logger log = Logger.get(CachingDirectoryLister.class);
+    private static final String ALL_TABLES = "*";
+
+    private final Cache<Path, CachedListing> cache;
     private final Set<SchemaTableName> tableNames;
+    private final boolean cacheAllTables;
+    private final Optional<Duration> refreshInterval;
+    private final Executor refreshExecutor;
+    private final Ticker ticker;
+    private final Set<Path> refreshingPaths = ConcurrentHashMap.newKeySet();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final Map<SchemaTableName, TableListings> tableListings = new ConcurrentHashMap<>();
 
     @Inject
+    public CachingDirectoryLister(HiveConfig hiveClientConfig, @ForHive ExecutorService executorService)
+    {
+        this(
+                hiveClientConfig.getFileStatusCacheExpireAfterWrite(),
+                hiveClientConfig.getFileStatusCacheMaxSize(),
+                hiveClientConfig.getFileStatusCacheTables(),
+                hiveClientConfig.getFileStatusCacheRefreshInterval(),
+                executorService,
+                Ticker.systemTicker());
+    }
+
     public CachingDirectoryLister(HiveConfig hiveClientConfig)
     {
         this(hiveClientConfig.getFileStatusCacheExpireAfterWrite(), hiveClientConfig.getFileStatusCacheMaxSize(), hiveClientConfig.getFileStatusCacheTables());
@@ -52,15 +98,36 @@ public class CachingDirectoryLister
 
     public CachingDirectoryLister(Duration expireAfterWrite, long maxSize, List<String> tables)
     {
+        this(expireAfterWrite, maxSize, tables, Optional.empty(), directExecutor(), Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    CachingDirectoryLister(Duration expireAfterWrite, long maxSize, List<String> tables, Optional<Duration> refreshInterval, Executor refreshExecutor, Ticker ticker)
+    {
+        this.ticker = requireNonNull(ticker, "ticker is null");
         this.cache = CacheBuilder.newBuilder()
                 .maximumWeight(maxSize)
-                .weigher((Weigher<Path, List<LocatedFileStatus>>) (key, value) -> value.size())
+                .weigher((Weigher<Path, CachedListing>) (key, value) -> value.getFiles().size())
                 .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .removalListener(notification -> {
+                    CachedListing listing = notification.getValue();
+                    if (listing != null) {
+                        TableListings listings = tableListings.get(listing.getTableName());
+                        if (listings != null) {
+                            listings.remove(notification.getKey(), listing);
+                        }
+                    }
+                })
                 .recordStats()
                 .build();
+        this.cacheAllTables = tables.contains(ALL_TABLES);
         this.tableNames = tables.stream()
+                .filter(tableName -> !tableName.equals(ALL_TABLES))
                 .map(CachingDirectoryLister::parseTableName)
                 .collect(Collectors.toSet());
+        this.refreshInterval = requireNonNull(refreshInterval, "refreshInterval is null");
+        this.refreshExecutor = requireNonNull(refreshExecutor, "refreshExecutor is null");
     }
 
     private static SchemaTableName parseTableName(String tableName)
@@ -74,19 +141,132 @@ public class CachingDirectoryLister
     public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
             throws IOException
     {
-        List<LocatedFileStatus> files = cache.getIfPresent(path);
-        if (files != null) {
-            return simpleRemoteIterator(files);
+        CachedListing cachedListing = cache.getIfPresent(path);
+        if (cachedListing != null) {
+            refreshIfNeeded(fs, path, cachedListing);
+            return simpleRemoteIterator(cachedListing.getFiles());
+        }
+
+        if (!isCached(table.getSchemaTableName())) {
+            return fs.listLocatedStatus(path);
+        }
+        TableListings listings = getTableListings(table.getSchemaTableName());
+        long generation = listings.getGeneration();
+        return cachingRemoteIterator(fs.listLocatedStatus(path), listings, path, generation);
+    }
+
+    private void refreshIfNeeded(FileSystem fs, Path path, CachedListing cachedListing)
+    {
+        if (!refreshInterval.isPresent() || ticker.read() - cachedListing.getLoadTimeNanos() < refreshInterval.get().roundTo(TimeUnit.NANOSECONDS)) {
+            return;
+        }
+        if (!refreshingPaths.add(path)) {
+            // a refresh of this path is already running
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    TableListings listings = getTableListings(cachedListing.getTableName());
+                    long generation = listings.getGeneration();
+                    ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builder();
+                    RemoteIterator<LocatedFileStatus> iterator = fs.listLocatedStatus(path);
+                    while (iterator.hasNext()) {
+                        files.add(iterator.next());
+                    }
+                    // replace only the listing that triggered the refresh, an invalidated or reloaded entry wins
+                    synchronized (listings) {
+                        CachedListing refreshedListing = new CachedListing(cachedListing.getTableName(), files.build(), ticker.read());
+                        if (generation == listings.getGeneration() && cache.asMap().replace(path, cachedListing, refreshedListing)) {
+                            listings.put(path, refreshedListing);
+                            refreshCount.incrementAndGet();
+                        }
+                    }
+                }
+                catch (IOException | RuntimeException e) {
+                    log.debug(e, "Failed to refresh cached listing of %s", path);
+                }
+                finally {
+                    refreshingPaths.remove(path);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            refreshingPaths.remove(path);
+            throw e;
+        }
+    }
+
+    private TableListings getTableListings(SchemaTableName tableName)
+    {
+        return tableListings.computeIfAbsent(tableName, TableListings::new);
+    }
+
+    private void putIfNotInvalidated(TableListings listings, Path path, List<LocatedFileStatus> files, long generation)
+    {
+        synchronized (listings) {
+            if (generation == listings.getGeneration()) {
+                CachedListing listing = new CachedListing(listings.getTableName(), ImmutableList.copyOf(files), ticker.read());
+                cache.put(path, listing);
+                listings.put(path, listing);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Table table)
+    {
+        if (isCached(table.getSchemaTableName())) {
+            // partitions may live outside of the table location, drop every listing of the table
+            invalidateListings(table.getSchemaTableName(), Optional.empty());
+        }
+    }
+
+    @Override
+    public void invalidate(Partition partition)
+    {
+        if (isCached(partition.getSchemaTableName()) && !partition.getStorage().getLocation().isEmpty()) {
+            invalidateListings(partition.getSchemaTableName(), Optional.of(new Path(partition.getStorage().getLocation())));
+        }
+    }
+
+    private boolean isCached(SchemaTableName tableName)
+    {
+        return cacheAllTables || tableNames.contains(tableName);
+    }
+
+    private void invalidateListings(SchemaTableName tableName, Optional<Path> location)
+    {
+        invalidationCount.incrementAndGet();
+        TableListings listings = tableListings.get(tableName);
+        if (listings == null) {
+            return;
         }
-        RemoteIterator<LocatedFileStatus> iterator = fs.listLocatedStatus(path);
+        List<Path> invalidatedPaths;
+        synchronized (listings) {
+            // a listing of the table started before the invalidation must not be cached after it
+            listings.incrementGeneration();
+            // nested directories are cached separately when listing recursively
+            invalidatedPaths = listings.getPaths().stream()
+                    .filter(path -> !location.isPresent() || isSameOrChild(path, location.get()))
+                    .collect(toImmutableList());
+        }
+        cache.invalidateAll(invalidatedPaths);
+    }
 
-        if (!tableNames.contains(table.getSchemaTableName())) {
-            return iterator;
+    private static boolean isSameOrChild(Path path, Path location)
+    {
+        Path current = path;
+        while (current != null) {
+            if (current.equals(location)) {
+                return true;
+            }
+            current = current.getParent();
         }
-        return cachingRemoteIterator(iterator, path);
+        return false;
     }
 
-    private RemoteIterator<LocatedFileStatus> cachingRemoteIterator(RemoteIterator<LocatedFileStatus> iterator, Path path)
+    private RemoteIterator<LocatedFileStatus> cachingRemoteIterator(RemoteIterator<LocatedFileStatus> iterator, TableListings listings, Path path, long generation)
     {
         return new RemoteIterator<LocatedFileStatus>()
         {
@@ -98,7 +278,7 @@ public class CachingDirectoryLister
             {
                 boolean hasNext = iterator.hasNext();
                 if (!hasNext) {
-                    cache.put(path, ImmutableList.copyOf(files));
+                    putIfNotInvalidated(listings, path, files, generation);
                 }
                 return hasNext;
             }
@@ -169,4 +349,90 @@ public class CachingDirectoryLister
     {
         return cache.stats().requestCount();
     }
+
+    @Managed
+    public long getRefreshCount()
+    {
+        return refreshCount.get();
+    }
+
+    @Managed
+    public long getInvalidationCount()
+    {
+        return invalidationCount.get();
+    }
+
+    private static class TableListings
+    {
+        private final SchemaTableName tableName;
+        // cached listings of the table, so invalidating it does not scan the whole cache
+        private final Map<Path, CachedListing> listings = new ConcurrentHashMap<>();
+        @GuardedBy("this")
+        private long generation;
+
+        public TableListings(SchemaTableName tableName)
+        {
+            this.tableName = requireNonNull(tableName, "tableName is null");
+        }
+
+        public SchemaTableName getTableName()
+        {
+            return tableName;
+        }
+
+        public Set<Path> getPaths()
+        {
+            return listings.keySet();
+        }
+
+        public void put(Path path, CachedListing listing)
+        {
+            listings.put(path, listing);
+        }
+
+        public void remove(Path path, CachedListing listing)
+        {
+            // the removal of an evicted or replaced listing must not drop the listing that superseded it
+            listings.remove(path, listing);
+        }
+
+        public synchronized long getGeneration()
+        {
+            return generation;
+        }
+
+        public synchronized void incrementGeneration()
+        {
+            generation++;
+        }
+    }
+
+    private static class CachedListing
+    {
+        private final SchemaTableName tableName;
+        private final List<LocatedFileStatus> files;
+        private final long loadTimeNanos;
+
+        public CachedListing(SchemaTableName tableName, List<LocatedFileStatus> files, long loadTimeNanos)
+        {
+            this.tableName = requireNonNull(tableName, "tableName is null");
+            this.files = requireNonNull(files, "files is null");
+            this.loadTimeNanos = loadTimeNanos;
+        }
+
+        public SchemaTableName getTableName()
+        {
+            return tableName;
+        }
+
+        public List<LocatedFileStatus> getFiles()
+        {
+            return files;
+        }
+
+        public long getLoadTimeNanos()
+        {
+            return loadTimeNanos;
+        }
+    }
 }
@@ -22,6 +22,7 @@ import org.apache.hadoop.fs.RemoteIterator;
 import java.io.IOException;
 
 public interface DirectoryLister
+        extends TableInvalidationCallback
 {
     RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
             throws IOException;
@@ -13,6 +13,7 @@
  */
 package io.prestosql.plugin.hive;
 
+import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
@@ -29,6 +30,9 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final TimeStat orcStripePrefetchBlockedTime = new TimeStat(MILLISECONDS);
+    private final TimeStat orcStripePrefetchReadTime = new TimeStat(MILLISECONDS);
+    private final CounterStat orcRowsSkippedByIndex = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +76,27 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public TimeStat getOrcStripePrefetchBlockedTime()
+    {
+        return orcStripePrefetchBlockedTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getOrcStripePrefetchReadTime()
+    {
+        return orcStripePrefetchReadTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getOrcRowsSkippedByIndex()
+    {
+        return orcRowsSkippedByIndex;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +118,15 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    public void addOrcStripePrefetchTime(long blockedNanos, long prefetchReadNanos)
+    {
+        orcStripePrefetchBlockedTime.add(blockedNanos, NANOSECONDS);
+        orcStripePrefetchReadTime.add(prefetchReadNanos, NANOSECONDS);
+    }
+
+    public void addOrcRowsSkippedByIndex(long rows)
+    {
+        orcRowsSkippedByIndex.update(rows);
+    }
 }
@@ -72,6 +72,8 @@ public class HiveConfig
     private int maxPartitionBatchSize = 100;
     private int maxInitialSplits = 200;
     private int splitLoaderConcurrency = 4;
+    private boolean splitLoaderParallelListingEnabled;
+    private int splitLoaderListingConcurrency = 16;
     private Integer maxSplitsPerSecond;
     private DataSize maxInitialSplitSize;
     private int domainCompactionThreshold = 100;
@@ -90,6 +92,7 @@ public class HiveConfig
     private Duration metastoreDBRefreshInterval = new Duration(1, TimeUnit.SECONDS);
 
     private long metastoreCacheMaximumSize = 10000;
+    private long metastoreCacheMaximumWeight;
     private long perTransactionMetastoreCacheMaximumSize = 1000;
     private int maxMetastoreRefreshThreads = 100;
     private HostAndPort metastoreSocksProxy;
@@ -136,6 +139,8 @@ public class HiveConfig
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcMaxReadBlockSize = new DataSize(16, MEGABYTE);
     private boolean orcLazyReadSmallRanges = true;
+    private boolean orcStripePrefetchEnabled;
+    private int orcStripePrefetchThreads = 32;
     private boolean orcWriteLegacyVersion;
     private double orcWriterValidationPercentage;
     private OrcWriteValidationMode orcWriterValidationMode = OrcWriteValidationMode.BOTH;
@@ -193,6 +198,7 @@ public class HiveConfig
     private Duration fileStatusCacheExpireAfterWrite = new Duration(24, TimeUnit.HOURS);
     private long fileStatusCacheMaxSize = 1000 * 1000;
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private Optional<Duration> fileStatusCacheRefreshInterval = Optional.empty();
 
     private Optional<Duration> hiveTransactionHeartbeatInterval = Optional.empty();
     private int hiveTransactionHeartbeatThreads = 5;
@@ -261,6 +267,33 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isSplitLoaderParallelListingEnabled()
+    {
+        return splitLoaderParallelListingEnabled;
+    }
+
+    @Config("hive.split-loader-parallel-listing-enabled")
+    @ConfigDescription("List the directories of upcoming partitions in parallel while splits are loaded")
+    public HiveConfig setSplitLoaderParallelListingEnabled(boolean splitLoaderParallelListingEnabled)
+    {
+        this.splitLoaderParallelListingEnabled = splitLoaderParallelListingEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getSplitLoaderListingConcurrency()
+    {
+        return splitLoaderListingConcurrency;
+    }
+
+    @Config("hive.split-loader-listing-concurrency")
+    @ConfigDescription("Maximum number of partition directories listed in parallel for a table scan")
+    public HiveConfig setSplitLoaderListingConcurrency(int splitLoaderListingConcurrency)
+    {
+        this.splitLoaderListingConcurrency = splitLoaderListingConcurrency;
+        return this;
+    }
+
     @Min(1)
     @Nullable
     public Integer getMaxSplitsPerSecond()
@@ -489,6 +522,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(0)
+    public long getMetastoreCacheMaximumWeight()
+    {
+        return metastoreCacheMaximumWeight;
+    }
+
+    @Config("hive.metastore-cache-maximum-weight")
+    @ConfigDescription("Maximum total weight of cached partitions and partition statistics, where an entry weighs one plus its number of columns and parameters. 0 limits these caches by hive.metastore-cache-maximum-size instead")
+    public HiveConfig setMetastoreCacheMaximumWeight(long metastoreCacheMaximumWeight)
+    {
+        this.metastoreCacheMaximumWeight = metastoreCacheMaximumWeight;
+        return this;
+    }
+
     @Min(1)
     public long getPerTransactionMetastoreCacheMaximumSize()
     {
@@ -895,6 +942,33 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isOrcStripePrefetchEnabled()
+    {
+        return orcStripePrefetchEnabled;
+    }
+
+    @Config("hive.orc.stripe-prefetch.enabled")
+    @ConfigDescription("Read the next ORC stripe in the background while the current stripe is decoded")
+    public HiveConfig setOrcStripePrefetchEnabled(boolean orcStripePrefetchEnabled)
+    {
+        this.orcStripePrefetchEnabled = orcStripePrefetchEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getOrcStripePrefetchThreads()
+    {
+        return orcStripePrefetchThreads;
+    }
+
+    @Config("hive.orc.stripe-prefetch.threads")
+    @ConfigDescription("Maximum number of threads used to prefetch ORC stripes")
+    public HiveConfig setOrcStripePrefetchThreads(int orcStripePrefetchThreads)
+    {
+        this.orcStripePrefetchThreads = orcStripePrefetchThreads;
+        return this;
+    }
+
     public boolean isOrcBloomFiltersEnabled()
     {
         return orcBloomFiltersEnabled;
@@ -1147,6 +1221,20 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public Optional<Duration> getFileStatusCacheRefreshInterval()
+    {
+        return fileStatusCacheRefreshInterval;
+    }
+
+    @Config("hive.file-status-cache-refresh-interval")
+    @ConfigDescription("Interval after which a cached directory listing is reloaded in the background when it is accessed")
+    public HiveConfig setFileStatusCacheRefreshInterval(Duration fileStatusCacheRefreshInterval)
+    {
+        this.fileStatusCacheRefreshInterval = Optional.ofNullable(fileStatusCacheRefreshInterval);
+        return this;
+    }
+
     public int getMetastoreWriteBatchSize()
     {
         return hmsWriteBatchSize;
@@ -651,16 +651,41 @@ public class HiveMetadata
                 .collect(toImmutableMap(HiveColumnHandle::getName, identity()));
     }
 
+    /**
+     * Returns the modification time of the table directory, or the latest modification time of the partition
+     * directories if the handle was constrained to a subset of the partitions by {@link #applyFilter}.
+     */
     @Override
     public long getTableModificationTime(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
-        SchemaTableName tableName = ((HiveTableHandle) tableHandle).getSchemaTableName();
-        Table table = metastore.getTable(new HiveIdentity(session), tableName.getSchemaName(), tableName.getTableName())
+        HiveTableHandle hiveTableHandle = (HiveTableHandle) tableHandle;
+        SchemaTableName tableName = hiveTableHandle.getSchemaTableName();
+        HiveIdentity identity = new HiveIdentity(session);
+        Table table = metastore.getTable(identity, tableName.getSchemaName(), tableName.getTableName())
                 .orElseThrow(() -> new TableNotFoundException(tableName));
-        String tableLocation = table.getStorage().getLocation();
-        Path tablePath = new Path(tableLocation);
         try {
-            FileSystem fileSystem = this.hdfsEnvironment.getFileSystem(new HdfsContext(session, tableName.getSchemaName()), tablePath);
+            HdfsContext context = new HdfsContext(session, tableName.getSchemaName());
+            List<String> partitionNames = hiveTableHandle.getPartitions()
+                    .map(partitions -> partitions.stream()
+                            .map(HivePartition::getPartitionId)
+                            .filter(partitionId -> !partitionId.equals(HivePartition.UNPARTITIONED_ID))
+                            .collect(toImmutableList()))
+                    .orElse(ImmutableList.of());
+            if (!table.getPartitionColumns().isEmpty() && !partitionNames.isEmpty()) {
+                long modificationTime = -1L;
+                for (Optional<Partition> partition : metastore.getPartitionsByNames(identity, tableName.getSchemaName(), tableName.getTableName(), partitionNames).values()) {
+                    if (!partition.isPresent()) {
+                        // the partition was dropped after the handle was constrained
+                        return -1L;
+                    }
+                    Path partitionPath = new Path(partition.get().getStorage().getLocation());
+                    FileSystem fileSystem = this.hdfsEnvironment.getFileSystem(context, partitionPath);
+                    modificationTime = Math.max(modificationTime, fileSystem.getFileStatus(partitionPath).getModificationTime());
+                }
+                return modificationTime;
+            }
+            Path tablePath = new Path(table.getStorage().getLocation());
+            FileSystem fileSystem = this.hdfsEnvironment.getFileSystem(context, tablePath);
             // We use the directory modification time to represent the table modification time
             // since HDFS is append-only and any table modification will trigger directory update.
             return fileSystem.getFileStatus(tablePath).getModificationTime();
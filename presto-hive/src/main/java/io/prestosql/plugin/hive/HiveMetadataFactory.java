@@ -68,6 +68,7 @@ public class HiveMetadataFactory
     private final boolean autoVacuumEnabled;
     private Optional<Duration> vacuumCollectorInterval;
     protected final int hmsWriteBatchSize;
+    protected final TableInvalidationCallback tableInvalidationCallback;
 
     @Inject
     @SuppressWarnings("deprecation")
@@ -85,7 +86,8 @@ public class HiveMetadataFactory
             JsonCodec<PartitionUpdate> partitionUpdateCodec,
             TypeTranslator typeTranslator,
             NodeVersion nodeVersion,
-            AccessControlMetadataFactory accessControlMetadataFactory)
+            AccessControlMetadataFactory accessControlMetadataFactory,
+            DirectoryLister directoryLister)
     {
         this(
                 metastore,
@@ -114,7 +116,8 @@ public class HiveMetadataFactory
                 hiveConfig.getVacuumDeltaPercentThreshold(),
                 hiveConfig.getAutoVacuumEnabled(),
                 hiveConfig.getVacuumCollectorInterval(),
-                hiveConfig.getMetastoreWriteBatchSize());
+                hiveConfig.getMetastoreWriteBatchSize(),
+                directoryLister);
     }
 
     public HiveMetadataFactory(
@@ -144,7 +147,8 @@ public class HiveMetadataFactory
             double vacuumDeltaPercentThreshold,
             boolean autoVacuumEnabled,
             Optional<Duration> vacuumCollectorInterval,
-            int hmsWriteBatchSize)
+            int hmsWriteBatchSize,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this.skipDeletionForAlter = skipDeletionForAlter;
         this.skipTargetCleanupOnRollback = skipTargetCleanupOnRollback;
@@ -174,6 +178,7 @@ public class HiveMetadataFactory
         this.autoVacuumEnabled = autoVacuumEnabled;
         this.vacuumCollectorInterval = vacuumCollectorInterval;
         this.hmsWriteBatchSize = hmsWriteBatchSize;
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
     }
 
     @Override
@@ -190,7 +195,8 @@ public class HiveMetadataFactory
                 hiveTransactionHeartbeatInterval,
                 heartbeatService,
                 hiveMetastoreClientService,
-                hmsWriteBatchSize);
+                hmsWriteBatchSize,
+                tableInvalidationCallback);
 
         return new HiveMetadata(
                 metastore,
@@ -190,6 +190,16 @@ public class HiveModule
                 (int) Math.max(hiveConfig.getMaxMetastoreRefreshThreads() * 0.9, 9));
     }
 
+    @ForOrcStripePrefetch
+    @Singleton
+    @Provides
+    public Executor createOrcStripePrefetchExecutor(HiveCatalogName catalogName, HiveConfig hiveConfig)
+    {
+        return new BoundedExecutor(
+                newCachedThreadPool(daemonThreadsNamed("hive-orc-prefetch-" + catalogName + "-%s")),
+                hiveConfig.getOrcStripePrefetchThreads());
+    }
+
     @ForCachingHiveMetastoreTableRefresh
     @Singleton
     @Provides
@@ -50,6 +50,7 @@ public final class HiveSessionProperties
     private static final String ORC_TINY_STRIPE_THRESHOLD = "orc_tiny_stripe_threshold";
     private static final String ORC_MAX_READ_BLOCK_SIZE = "orc_max_read_block_size";
     private static final String ORC_LAZY_READ_SMALL_RANGES = "orc_lazy_read_small_ranges";
+    private static final String ORC_STRIPE_PREFETCH_ENABLED = "orc_stripe_prefetch_enabled";
     private static final String ORC_NESTED_LAZY_ENABLED = "orc_nested_lazy_enabled";
     private static final String ORC_STRING_STATISTICS_LIMIT = "orc_string_statistics_limit";
     private static final String ORC_OPTIMIZED_WRITER_VALIDATE = "orc_optimized_writer_validate";
@@ -59,6 +60,7 @@ public final class HiveSessionProperties
     private static final String ORC_OPTIMIZED_WRITER_MAX_STRIPE_SIZE = "orc_optimized_writer_max_stripe_size";
     private static final String ORC_OPTIMIZED_WRITER_MAX_STRIPE_ROWS = "orc_optimized_writer_max_stripe_rows";
     private static final String ORC_OPTIMIZED_WRITER_MAX_DICTIONARY_MEMORY = "orc_optimized_writer_max_dictionary_memory";
+    private static final String ORC_OPTIMIZED_WRITER_ADAPTIVE_ENCODING_ENABLED = "orc_optimized_writer_adaptive_encoding_enabled";
     private static final String ORC_FILE_TAIL_CACHE_ENABLED = "orc_file_tail_cache_enabled";
     private static final String ORC_STRIPE_FOOTER_CACHE_ENABLED = "orc_stripe_footer_cache_enabled";
     private static final String ORC_ROW_INDEX_CACHE_ENABLED = "orc_row_index_cache_enabled";
@@ -74,6 +76,7 @@ public final class HiveSessionProperties
     private static final String PARQUET_WRITER_PAGE_SIZE = "parquet_writer_page_size";
     private static final String MAX_SPLIT_SIZE = "max_split_size";
     private static final String MAX_INITIAL_SPLIT_SIZE = "max_initial_split_size";
+    private static final String SPLIT_LOADER_PARALLEL_LISTING_ENABLED = "split_loader_parallel_listing_enabled";
     private static final String RCFILE_OPTIMIZED_WRITER_VALIDATE = "rcfile_optimized_writer_validate";
     private static final String SORTED_WRITING_ENABLED = "sorted_writing_enabled";
     private static final String STATISTICS_ENABLED = "statistics_enabled";
@@ -179,6 +182,11 @@ public final class HiveSessionProperties
                         "Experimental: ORC: Read small file segments lazily",
                         hiveConfig.isOrcLazyReadSmallRanges(),
                         false),
+                booleanProperty(
+                        ORC_STRIPE_PREFETCH_ENABLED,
+                        "ORC: Read the next stripe in the background while the current stripe is decoded",
+                        hiveConfig.isOrcStripePrefetchEnabled(),
+                        false),
                 booleanProperty(
                         ORC_NESTED_LAZY_ENABLED,
                         "Experimental: ORC: Lazily read nested data",
@@ -237,6 +245,11 @@ public final class HiveSessionProperties
                         "Experimental: ORC: Max dictionary memory",
                         orcFileWriterConfig.getDictionaryMaxMemory(),
                         false),
+                booleanProperty(
+                        ORC_OPTIMIZED_WRITER_ADAPTIVE_ENCODING_ENABLED,
+                        "Experimental: ORC: Choose dictionary or direct encoding of string columns by trial encoding",
+                        orcFileWriterConfig.isAdaptiveEncodingEnabled(),
+                        false),
                 booleanProperty(
                         ORC_FILE_TAIL_CACHE_ENABLED,
                         "Cache Orc file tail",
@@ -312,6 +325,11 @@ public final class HiveSessionProperties
                         "Max initial split size",
                         hiveConfig.getMaxInitialSplitSize(),
                         true),
+                booleanProperty(
+                        SPLIT_LOADER_PARALLEL_LISTING_ENABLED,
+                        "List the directories of upcoming partitions in parallel while splits are loaded",
+                        hiveConfig.isSplitLoaderParallelListingEnabled(),
+                        false),
                 booleanProperty(
                         RCFILE_OPTIMIZED_WRITER_VALIDATE,
                         "Experimental: RCFile: Validate writer files",
@@ -459,6 +477,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_LAZY_READ_SMALL_RANGES, Boolean.class);
     }
 
+    public static boolean isOrcStripePrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_STRIPE_PREFETCH_ENABLED, Boolean.class);
+    }
+
     public static boolean isOrcNestedLazy(ConnectorSession session)
     {
         return session.getProperty(ORC_NESTED_LAZY_ENABLED, Boolean.class);
@@ -512,6 +535,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_OPTIMIZED_WRITER_MAX_DICTIONARY_MEMORY, DataSize.class);
     }
 
+    public static boolean isOrcOptimizedWriterAdaptiveEncodingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_OPTIMIZED_WRITER_ADAPTIVE_ENCODING_ENABLED, Boolean.class);
+    }
+
     public static boolean isOrcFileTailCacheEnabled(ConnectorSession session)
     {
         return session.getProperty(ORC_FILE_TAIL_CACHE_ENABLED, Boolean.class);
@@ -587,6 +615,11 @@ public final class HiveSessionProperties
         return session.getProperty(MAX_INITIAL_SPLIT_SIZE, DataSize.class);
     }
 
+    public static boolean isSplitLoaderParallelListingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(SPLIT_LOADER_PARALLEL_LISTING_ENABLED, Boolean.class);
+    }
+
     public static boolean isRcfileOptimizedWriterValidate(ConnectorSession session)
     {
         return session.getProperty(RCFILE_OPTIMIZED_WRITER_VALIDATE, Boolean.class);
@@ -67,6 +67,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.transform;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isSplitLoaderParallelListingEnabled;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.StandardErrorCode.SERVER_SHUTTING_DOWN;
@@ -97,6 +98,7 @@ public class HiveSplitManager
     private final int maxSplitsPerSecond;
     private final boolean recursiveDfsWalkerEnabled;
     private final CounterStat highMemorySplitSourceCounter;
+    private final HiveSplitSourceStats splitSourceStats = new HiveSplitSourceStats();
     private final TypeManager typeManager;
     private final HiveConfig hiveConfig;
 
@@ -252,7 +254,10 @@ public class HiveSplitManager
                 dynamicFilterSupplier,
                 queryType,
                 queryInfo,
-                typeManager);
+                typeManager,
+                isSplitLoaderParallelListingEnabled(session) ? Optional.of(new BoundedExecutor(executor, hiveConfig.getSplitLoaderListingConcurrency())) : Optional.empty(),
+                hiveConfig.getSplitLoaderListingConcurrency(),
+                splitSourceStats);
 
         HiveSplitSource splitSource;
         HiveStorageFormat hiveStorageFormat = HiveMetadata.extractHiveStorageFormat(table);
@@ -313,6 +318,13 @@ public class HiveSplitManager
         return highMemorySplitSourceCounter;
     }
 
+    @Managed
+    @Nested
+    public HiveSplitSourceStats getSplitSourceStats()
+    {
+        return splitSourceStats;
+    }
+
     private Iterable<HivePartitionMetadata> getPartitionMetadata(ConnectorSession session, SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, List<HivePartition> hivePartitions, Optional<HiveBucketProperty> bucketProperty)
     {
         if (hivePartitions.isEmpty()) {
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.concurrent.TimeUnit;
+
+public class HiveSplitSourceStats
+{
+    private final TimeStat firstSplitLatency = new TimeStat(TimeUnit.MILLISECONDS);
+    private final TimeStat partitionListingTime = new TimeStat(TimeUnit.MILLISECONDS);
+    private final CounterStat listedPartitions = new CounterStat();
+    private final CounterStat listedFiles = new CounterStat();
+
+    public void addFirstSplitLatency(long nanos)
+    {
+        firstSplitLatency.add(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void addPartitionListing(long nanos, int fileCount)
+    {
+        partitionListingTime.add(nanos, TimeUnit.NANOSECONDS);
+        listedPartitions.update(1);
+        listedFiles.update(fileCount);
+    }
+
+    /**
+     * Time from the start of split loading until the first split is handed to the split source.
+     */
+    @Managed
+    @Nested
+    public TimeStat getFirstSplitLatency()
+    {
+        return firstSplitLatency;
+    }
+
+    /**
+     * Time to list a partition directory in parallel listing mode.
+     */
+    @Managed
+    @Nested
+    public TimeStat getPartitionListingTime()
+    {
+        return partitionListingTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListedPartitions()
+    {
+        return listedPartitions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListedFiles()
+    {
+        return listedFiles;
+    }
+}
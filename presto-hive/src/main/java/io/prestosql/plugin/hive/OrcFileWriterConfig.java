@@ -14,13 +14,20 @@
 package io.prestosql.plugin.hive;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 import io.prestosql.orc.OrcWriterOptions;
 
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
 @SuppressWarnings("unused")
 public class OrcFileWriterConfig
 {
     private OrcWriterOptions options = new OrcWriterOptions();
+    private boolean adaptiveEncodingEnabled;
+    private double adaptiveEncodingCpuWeight;
+    private int adaptiveEncodingSampleRowCount = 10_000;
 
     public OrcWriterOptions toOrcWriterOptions()
     {
@@ -110,4 +117,44 @@ public class OrcFileWriterConfig
         options = options.withMaxCompressionBufferSize(maxCompressionBufferSize);
         return this;
     }
+
+    public boolean isAdaptiveEncodingEnabled()
+    {
+        return adaptiveEncodingEnabled;
+    }
+
+    @Config("hive.orc.writer.adaptive-encoding-enabled")
+    public OrcFileWriterConfig setAdaptiveEncodingEnabled(boolean adaptiveEncodingEnabled)
+    {
+        this.adaptiveEncodingEnabled = adaptiveEncodingEnabled;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    public double getAdaptiveEncodingCpuWeight()
+    {
+        return adaptiveEncodingCpuWeight;
+    }
+
+    @Config("hive.orc.writer.adaptive-encoding-cpu-weight")
+    @ConfigDescription("Bytes of output one millisecond of encoding time is worth when choosing a column encoding")
+    public OrcFileWriterConfig setAdaptiveEncodingCpuWeight(double adaptiveEncodingCpuWeight)
+    {
+        this.adaptiveEncodingCpuWeight = adaptiveEncodingCpuWeight;
+        return this;
+    }
+
+    @Min(1)
+    public int getAdaptiveEncodingSampleRowCount()
+    {
+        return adaptiveEncodingSampleRowCount;
+    }
+
+    @Config("hive.orc.writer.adaptive-encoding-sample-rows")
+    @ConfigDescription("Number of rows of a column encoded with each candidate encoding before choosing one")
+    public OrcFileWriterConfig setAdaptiveEncodingSampleRowCount(int adaptiveEncodingSampleRowCount)
+    {
+        this.adaptiveEncodingSampleRowCount = adaptiveEncodingSampleRowCount;
+        return this;
+    }
 }
@@ -13,8 +13,11 @@
  */
 package io.prestosql.plugin.hive;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.prestosql.orc.AdaptiveEncodingSelector;
 import io.prestosql.orc.OrcDataSink;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
@@ -56,7 +59,9 @@ import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.stream.Collectors.toList;
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_NAME;
 
 public class OrcFileWriterFactory
         implements HiveFileWriterFactory
@@ -68,6 +73,13 @@ public class OrcFileWriterFactory
     private final OrcWriterStats stats = new OrcWriterStats();
     private final OrcWriterOptions orcWriterOptions;
     private final boolean writeLegacyVersion;
+    private final double adaptiveEncodingCpuWeight;
+    private final int adaptiveEncodingSampleRowCount;
+    // encoding choices are remembered per table and expire so that they follow changes in the data
+    private final Cache<String, AdaptiveEncodingSelector> adaptiveEncodingSelectors = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(1, HOURS)
+            .build();
 
     @Inject
     public OrcFileWriterFactory(
@@ -84,7 +96,9 @@ public class OrcFileWriterFactory
                 nodeVersion,
                 hiveConfig.isOrcWriteLegacyVersion(),
                 readStats,
-                requireNonNull(config, "config is null").toOrcWriterOptions());
+                requireNonNull(config, "config is null").toOrcWriterOptions(),
+                config.getAdaptiveEncodingCpuWeight(),
+                config.getAdaptiveEncodingSampleRowCount());
     }
 
     public OrcFileWriterFactory(
@@ -94,6 +108,19 @@ public class OrcFileWriterFactory
             boolean writeLegacyVersion,
             FileFormatDataSourceStats readStats,
             OrcWriterOptions orcWriterOptions)
+    {
+        this(hdfsEnvironment, typeManager, nodeVersion, writeLegacyVersion, readStats, orcWriterOptions, 0, 10_000);
+    }
+
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            boolean writeLegacyVersion,
+            FileFormatDataSourceStats readStats,
+            OrcWriterOptions orcWriterOptions,
+            double adaptiveEncodingCpuWeight,
+            int adaptiveEncodingSampleRowCount)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
@@ -101,6 +128,8 @@ public class OrcFileWriterFactory
         this.writeLegacyVersion = writeLegacyVersion;
         this.readStats = requireNonNull(readStats, "stats is null");
         this.orcWriterOptions = requireNonNull(orcWriterOptions, "orcWriterOptions is null");
+        this.adaptiveEncodingCpuWeight = adaptiveEncodingCpuWeight;
+        this.adaptiveEncodingSampleRowCount = adaptiveEncodingSampleRowCount;
     }
 
     @Managed
@@ -211,7 +240,8 @@ public class OrcFileWriterFactory
                             .withStripeMaxSize(HiveSessionProperties.getOrcOptimizedWriterMaxStripeSize(session))
                             .withStripeMaxRowCount(HiveSessionProperties.getOrcOptimizedWriterMaxStripeRows(session))
                             .withDictionaryMaxMemory(HiveSessionProperties.getOrcOptimizedWriterMaxDictionaryMemory(session))
-                            .withMaxStringStatisticsLimit(HiveSessionProperties.getOrcStringStatisticsLimit(session)),
+                            .withMaxStringStatisticsLimit(HiveSessionProperties.getOrcStringStatisticsLimit(session))
+                            .withAdaptiveEncodingSelector(getAdaptiveEncodingSelector(session, schema)),
                     writeLegacyVersion,
                     fileInputColumnIndexes,
                     ImmutableMap.<String, String>builder()
@@ -232,6 +262,15 @@ public class OrcFileWriterFactory
         }
     }
 
+    private Optional<AdaptiveEncodingSelector> getAdaptiveEncodingSelector(ConnectorSession session, Properties schema)
+    {
+        String tableName = schema.getProperty(META_TABLE_NAME);
+        if (!HiveSessionProperties.isOrcOptimizedWriterAdaptiveEncodingEnabled(session) || tableName == null) {
+            return Optional.empty();
+        }
+        return Optional.of(adaptiveEncodingSelectors.asMap().computeIfAbsent(tableName, ignored -> new AdaptiveEncodingSelector(adaptiveEncodingCpuWeight, adaptiveEncodingSampleRowCount)));
+    }
+
     /**
      * Allow subclass to replace data sink implementation.
      */
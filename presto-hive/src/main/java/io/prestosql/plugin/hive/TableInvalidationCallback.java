@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import io.prestosql.plugin.hive.metastore.Partition;
+import io.prestosql.plugin.hive.metastore.Table;
+
+/**
+ * Notified when the files of a table or partition may have changed, e.g. after
+ * a write or a drop was committed or rolled back.
+ */
+public interface TableInvalidationCallback
+{
+    void invalidate(Partition partition);
+
+    /**
+     * Invalidates the table location and everything below it, including the
+     * partitions stored in sub-directories of the table.
+     */
+    void invalidate(Table table);
+}
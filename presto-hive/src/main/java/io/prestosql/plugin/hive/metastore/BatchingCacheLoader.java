@@ -0,0 +1,250 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.DistributionStat;
+import io.airlift.units.Duration;
+import io.prestosql.spi.PrestoException;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Cache loader that coalesces concurrent misses into bulk metastore calls.
+ * <p>
+ * Keys requested by any caller are queued together with a future. The caller drains the queue,
+ * groups the keys (for example per table) and submits one task per group of at most {@code maxBatchSize}
+ * keys to the executor, so keys requested concurrently by other queries are folded into the same call
+ * and the batches are loaded in parallel. The caller only waits for the futures of its own keys and
+ * never runs the loads of other queries. Keys already being loaded are not requested again, the
+ * caller waits for the outstanding load instead. Reloads triggered by {@code refreshAfterWrite}
+ * are queued the same way, so refreshes of hot entries are batched as well and never block the reader.
+ * <p>
+ * Keys requested while loading a batch, for example partitions needed to load their statistics, are
+ * loaded on the calling thread, so a bounded executor cannot deadlock waiting for its own tasks.
+ */
+@ThreadSafe
+public class BatchingCacheLoader<K, V>
+        extends CacheLoader<K, V>
+{
+    // set on the threads loading a batch, of any loader
+    private static final ThreadLocal<Boolean> LOADING_BATCH = ThreadLocal.withInitial(() -> false);
+
+    private final Function<? super K, ?> groupingFunction;
+    private final Function<List<K>, Map<K, V>> bulkLoader;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final Duration loadTimeout;
+    private final DistributionStat batchSizes;
+    private final CounterStat coalescedLoads;
+
+    private final ConcurrentMap<K, SettableFuture<V>> loading = new ConcurrentHashMap<>();
+    @GuardedBy("this")
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    public BatchingCacheLoader(
+            Function<? super K, ?> groupingFunction,
+            Function<List<K>, Map<K, V>> bulkLoader,
+            int maxBatchSize,
+            Executor executor,
+            Duration loadTimeout,
+            DistributionStat batchSizes,
+            CounterStat coalescedLoads)
+    {
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be greater than zero");
+        this.groupingFunction = requireNonNull(groupingFunction, "groupingFunction is null");
+        this.bulkLoader = requireNonNull(bulkLoader, "bulkLoader is null");
+        this.maxBatchSize = maxBatchSize;
+        this.executor = requireNonNull(executor, "executor is null");
+        this.loadTimeout = requireNonNull(loadTimeout, "loadTimeout is null");
+        this.batchSizes = requireNonNull(batchSizes, "batchSizes is null");
+        this.coalescedLoads = requireNonNull(coalescedLoads, "coalescedLoads is null");
+    }
+
+    @Override
+    public V load(K key)
+            throws Exception
+    {
+        return loadAll(ImmutableList.of(key)).get(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys)
+            throws Exception
+    {
+        Map<K, ListenableFuture<V>> futures = enqueue(keys);
+        dispatchPending(LOADING_BATCH.get());
+
+        long deadline = System.nanoTime() + loadTimeout.roundTo(NANOSECONDS);
+        ImmutableMap.Builder<K, V> result = ImmutableMap.builder();
+        for (Map.Entry<K, ListenableFuture<V>> entry : futures.entrySet()) {
+            result.put(entry.getKey(), getFutureValue(entry.getKey(), entry.getValue(), deadline));
+        }
+        return result.build();
+    }
+
+    @Override
+    public ListenableFuture<V> reload(K key, V oldValue)
+    {
+        ListenableFuture<V> future = enqueue(ImmutableList.of(key)).get(key);
+        dispatchPending(false);
+        return future;
+    }
+
+    private Map<K, ListenableFuture<V>> enqueue(Iterable<? extends K> keys)
+    {
+        Map<K, ListenableFuture<V>> futures = new LinkedHashMap<>();
+        List<K> newKeys = new ArrayList<>();
+        for (K key : keys) {
+            if (futures.containsKey(key)) {
+                continue;
+            }
+            SettableFuture<V> future = SettableFuture.create();
+            SettableFuture<V> existing = loading.putIfAbsent(key, future);
+            if (existing != null) {
+                coalescedLoads.update(1);
+                futures.put(key, existing);
+            }
+            else {
+                futures.put(key, future);
+                newKeys.add(key);
+            }
+        }
+        synchronized (this) {
+            pending.addAll(newKeys);
+        }
+        return futures;
+    }
+
+    private synchronized List<K> drainPending()
+    {
+        List<K> keys = ImmutableList.copyOf(pending);
+        pending.clear();
+        return keys;
+    }
+
+    private void dispatchPending(boolean loadOnCallerThread)
+    {
+        List<K> keys = drainPending();
+        if (keys.isEmpty()) {
+            return;
+        }
+        Multimap<Object, K> groups = LinkedHashMultimap.create();
+        for (K key : keys) {
+            groups.put(groupingFunction.apply(key), key);
+        }
+        for (Collection<K> group : groups.asMap().values()) {
+            for (List<K> batch : Iterables.partition(group, maxBatchSize)) {
+                if (loadOnCallerThread) {
+                    loadBatch(batch);
+                    continue;
+                }
+                try {
+                    executor.execute(() -> loadBatch(batch));
+                }
+                catch (RejectedExecutionException e) {
+                    for (K key : batch) {
+                        complete(key).setException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadBatch(List<K> batch)
+    {
+        batchSizes.add(batch.size());
+        boolean nested = LOADING_BATCH.get();
+        LOADING_BATCH.set(true);
+        try {
+            Map<K, V> values = bulkLoader.apply(batch);
+            for (K key : batch) {
+                V value = values.get(key);
+                if (value == null) {
+                    complete(key).setException(new InvalidCacheLoadException("bulk load did not return a value for " + key));
+                }
+                else {
+                    complete(key).set(value);
+                }
+            }
+        }
+        catch (Throwable t) {
+            for (K key : batch) {
+                complete(key).setException(t);
+            }
+        }
+        finally {
+            LOADING_BATCH.set(nested);
+        }
+    }
+
+    private SettableFuture<V> complete(K key)
+    {
+        return loading.remove(key);
+    }
+
+    private V getFutureValue(K key, ListenableFuture<V> future, long deadline)
+            throws Exception
+    {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+        }
+        catch (TimeoutException e) {
+            throw new PrestoException(HIVE_METASTORE_ERROR, format("Timed out after %s loading %s", loadTimeout, key), e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throwIfUnchecked(cause);
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
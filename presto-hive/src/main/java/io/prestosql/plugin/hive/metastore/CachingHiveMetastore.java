@@ -16,12 +16,14 @@ package io.prestosql.plugin.hive.metastore;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.airlift.log.Logger;
+import io.airlift.stats.TimeStat.BlockTimer;
 import io.airlift.units.Duration;
 import io.prestosql.plugin.hive.ForCachingHiveMetastore;
 import io.prestosql.plugin.hive.ForCachingHiveMetastoreTableRefresh;
@@ -45,6 +47,7 @@ import org.apache.hadoop.hive.metastore.api.DataOperationType;
 import org.apache.hadoop.hive.metastore.api.ShowLocksRequest;
 import org.apache.hadoop.hive.metastore.api.ShowLocksResponse;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
@@ -72,7 +75,6 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Maps.immutableEntry;
-import static com.google.common.collect.Streams.stream;
 import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.prestosql.plugin.hive.HivePartitionManager.extractPartitionValues;
 import static io.prestosql.plugin.hive.metastore.HivePartitionName.hivePartitionName;
@@ -80,6 +82,7 @@ import static io.prestosql.plugin.hive.metastore.HiveTableName.hiveTableName;
 import static io.prestosql.plugin.hive.metastore.MetastoreUtil.makePartitionName;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 /**
  * Hive Metastore Cache
@@ -92,6 +95,9 @@ public class CachingHiveMetastore
     public static final int PASSIVE_CACHE_VERIFICATION_THRESHOLD = 300 * 1000;
     public static final int TABLE_CACHE_CLEANUP_TIME = 2000;
     public static final int TABLE_CACHE_REFRESH_TIME = 1000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    // bounds the wait of a query for a batch, the thrift calls of the batch retry for up to the metastore retry time
+    private static final Duration BATCH_LOAD_TIMEOUT = new Duration(5, MINUTES);
 
     protected final HiveMetastore delegate;
     private final LoadingCache<String, Optional<Database>> databaseCache;
@@ -113,6 +119,8 @@ public class CachingHiveMetastore
     private final boolean skipTableCache;
     private final boolean dontVerifyCacheEntry;
 
+    private final CachingHiveMetastoreStats stats = new CachingHiveMetastoreStats();
+
     @Inject
     public CachingHiveMetastore(@ForCachingHiveMetastore HiveMetastore delegate,
                                 @ForCachingHiveMetastore Executor executor,
@@ -129,12 +137,21 @@ public class CachingHiveMetastore
                 hiveConfig.getMetastoreDBCacheTtl(),
                 hiveConfig.getMetastoreDBRefreshInterval(),
                 hiveConfig.getMetastoreCacheMaximumSize(),
+                hiveConfig.getMetastoreCacheMaximumWeight(),
+                hiveConfig.getMaxPartitionBatchSize(),
                 !(nodeManager.getCurrentNode().isCoordinator() || hiveConfig.getWorkerMetaStoreCacheEnabled()));
     }
 
     public CachingHiveMetastore(HiveMetastore delegate, Executor executor, Executor tableRefreshExecutor, Duration cacheTtl, Duration refreshInterval,
                                 Duration dbCacheTtl, Duration dbRefreshInterval,
                                 long maximumSize, boolean skipCache)
+    {
+        this(delegate, executor, tableRefreshExecutor, cacheTtl, refreshInterval, dbCacheTtl, dbRefreshInterval, maximumSize, 0, DEFAULT_MAX_BATCH_SIZE, skipCache);
+    }
+
+    public CachingHiveMetastore(HiveMetastore delegate, Executor executor, Executor tableRefreshExecutor, Duration cacheTtl, Duration refreshInterval,
+                                Duration dbCacheTtl, Duration dbRefreshInterval,
+                                long maximumSize, long maximumWeight, int maxBatchSize, boolean skipCache)
     {
         this(
                 delegate,
@@ -144,6 +161,8 @@ public class CachingHiveMetastore
                 OptionalLong.of(dbCacheTtl.toMillis()),
                 dbRefreshInterval.toMillis() >= dbCacheTtl.toMillis() ? OptionalLong.empty() : OptionalLong.of(dbRefreshInterval.toMillis()),
                 maximumSize,
+                maximumWeight,
+                maxBatchSize,
                 skipCache);
     }
 
@@ -159,13 +178,15 @@ public class CachingHiveMetastore
                 OptionalLong.empty(),
                 OptionalLong.empty(),
                 maximumSize,
+                0,
+                DEFAULT_MAX_BATCH_SIZE,
                 false || delegate instanceof CachingHiveMetastore);
     }
 
     private CachingHiveMetastore(HiveMetastore delegate, Executor executor, Executor tableRefreshExecutor,
                                  OptionalLong expiresAfterWriteMillisTable, OptionalLong refreshMillsTable,
                                  OptionalLong expiresAfterWriteMillisDB, OptionalLong refreshMillsDB,
-                                 long maximumSize, boolean skipCache)
+                                 long maximumSize, long maximumWeight, int maxBatchSize, boolean skipCache)
     {
         boolean dontVerifyCache;
         this.delegate = requireNonNull(delegate, "delegate is null");
@@ -228,40 +249,37 @@ public class CachingHiveMetastore
                     }
                 }, executor));
 
-        partitionStatisticsCache = newCacheBuilder(expiresAfterWriteMillisTable, refreshMillsTable, maximumSize)
-                .build(asyncReloading(new CacheLoader<WithIdentity<HivePartitionName>, WithValidation<Table, PartitionStatistics>>()
-                {
-                    @Override
-                    public WithValidation<Table, PartitionStatistics> load(WithIdentity<HivePartitionName> key)
-                    {
-                        return loadPartitionColumnStatistics(key);
-                    }
-
-                    @Override
-                    public Map<WithIdentity<HivePartitionName>, WithValidation<Table, PartitionStatistics>> loadAll(Iterable<? extends WithIdentity<HivePartitionName>> keys)
-                    {
-                        return loadPartitionColumnStatistics(keys);
-                    }
-                }, executor));
+        // misses and refreshes of partitions and their statistics are coalesced into per table bulk calls
+        partitionStatisticsCache = buildCache(
+                newCacheBuilder(expiresAfterWriteMillisTable, refreshMillsTable),
+                maximumSize,
+                maximumWeight,
+                (key, value) -> 1 + value.get().getColumnStatistics().size(),
+                new BatchingCacheLoader<>(
+                        key -> new WithIdentity<>(key.getIdentity(), key.getKey().getHiveTableName()),
+                        this::loadPartitionColumnStatistics,
+                        maxBatchSize,
+                        executor,
+                        BATCH_LOAD_TIMEOUT,
+                        stats.getPartitionStatisticsBatchSize(),
+                        stats.getCoalescedPartitionStatisticsLoads()));
 
         partitionFilterCache = newCacheBuilder(expiresAfterWriteMillisTable, refreshMillsTable, maximumSize)
                 .build(asyncReloading(CacheLoader.from(this::loadPartitionNamesByParts), executor));
 
-        partitionCache = newCacheBuilder(expiresAfterWriteMillisTable, refreshMillsTable, maximumSize)
-                .build(asyncReloading(new CacheLoader<WithIdentity<HivePartitionName>, Optional<WithValidation<Table, Partition>>>()
-                {
-                    @Override
-                    public Optional<WithValidation<Table, Partition>> load(WithIdentity<HivePartitionName> partitionName)
-                    {
-                        return loadPartitionByName(partitionName);
-                    }
-
-                    @Override
-                    public Map<WithIdentity<HivePartitionName>, Optional<WithValidation<Table, Partition>>> loadAll(Iterable<? extends WithIdentity<HivePartitionName>> partitionNames)
-                    {
-                        return loadPartitionsByNames(partitionNames);
-                    }
-                }, executor));
+        partitionCache = buildCache(
+                newCacheBuilder(expiresAfterWriteMillisTable, refreshMillsTable),
+                maximumSize,
+                maximumWeight,
+                (key, value) -> value.map(partition -> 1 + partition.get().getColumns().size() + partition.get().getParameters().size()).orElse(1),
+                new BatchingCacheLoader<>(
+                        key -> new WithIdentity<>(key.getIdentity(), key.getKey().getHiveTableName()),
+                        this::loadPartitions,
+                        maxBatchSize,
+                        executor,
+                        BATCH_LOAD_TIMEOUT,
+                        stats.getPartitionBatchSize(),
+                        stats.getCoalescedPartitionLoads()));
 
         rolesCache = newCacheBuilder(expiresAfterWriteMillisDB, refreshMillsDB, maximumSize)
                 .build(asyncReloading(CacheLoader.from(() -> loadRoles()), executor));
@@ -282,6 +300,13 @@ public class CachingHiveMetastore
         flushCache();
     }
 
+    @Managed
+    @Nested
+    public CachingHiveMetastoreStats getStats()
+    {
+        return stats;
+    }
+
     @Managed
     public void flushCache()
     {
@@ -432,7 +457,10 @@ public class CachingHiveMetastore
 
     private Optional<Table> loadTable(WithIdentity<HiveTableName> hiveTableName)
     {
-        Optional<Table> table = delegate.getTable(hiveTableName.getIdentity(), hiveTableName.getKey().getDatabaseName(), hiveTableName.getKey().getTableName());
+        Optional<Table> table;
+        try (BlockTimer ignored = stats.getGetTable().time()) {
+            table = delegate.getTable(hiveTableName.getIdentity(), hiveTableName.getKey().getDatabaseName(), hiveTableName.getKey().getTableName());
+        }
         Map<String, Optional<List<String>>> map = tableNamesCache.asMap();
         String databaseName = hiveTableName.getKey().getDatabaseName();
 
@@ -470,7 +498,9 @@ public class CachingHiveMetastore
 
     private PartitionStatistics loadTableColumnStatistics(WithIdentity<HiveTableName> hiveTableName, Table table)
     {
-        return delegate.getTableStatistics(hiveTableName.getIdentity(), table);
+        try (BlockTimer ignored = stats.getGetTableStatistics().time()) {
+            return delegate.getTableStatistics(hiveTableName.getIdentity(), table);
+        }
     }
 
     @Override
@@ -516,28 +546,9 @@ public class CachingHiveMetastore
                         entry -> entry.getValue().get()));
     }
 
-    private WithValidation<Table, PartitionStatistics> loadPartitionColumnStatistics(WithIdentity<HivePartitionName> partition)
-    {
-        HiveTableName hiveTableName = partition.getKey().getHiveTableName();
-        HiveIdentity identity = partition.getIdentity();
-
-        Table table = getExistingTable(identity, hiveTableName.getDatabaseName(), hiveTableName.getTableName());
-        String partitionName = partition.getKey().getPartitionName().get();
-        Map<String, PartitionStatistics> partitionStatistics = delegate.getPartitionStatistics(
-                identity,
-                table,
-                ImmutableList.of(getExistingPartition(identity, table, partition.getKey().getPartitionValues())));
-        if (!partitionStatistics.containsKey(partitionName)) {
-            throw new PrestoException(HiveErrorCode.HIVE_PARTITION_DROPPED_DURING_QUERY, "Statistics result does not contain entry for partition: " + partition.getKey().getPartitionName());
-        }
-
-        PartitionStatistics value = partitionStatistics.get(partitionName);
-        return new WithValidation<>(getCacheValidationPartitionParams(table, value.getBasicStatistics()), value);
-    }
-
-    private Map<WithIdentity<HivePartitionName>, WithValidation<Table, PartitionStatistics>> loadPartitionColumnStatistics(Iterable<? extends WithIdentity<HivePartitionName>> keys)
+    private Map<WithIdentity<HivePartitionName>, WithValidation<Table, PartitionStatistics>> loadPartitionColumnStatistics(List<WithIdentity<HivePartitionName>> keys)
     {
-        SetMultimap<WithIdentity<HiveTableName>, WithIdentity<HivePartitionName>> tablePartitions = stream(keys)
+        SetMultimap<WithIdentity<HiveTableName>, WithIdentity<HivePartitionName>> tablePartitions = keys.stream()
                 .collect(toImmutableSetMultimap(value -> new WithIdentity<>(value.getIdentity(), value.getKey().getHiveTableName()), key -> key));
         ImmutableMap.Builder<WithIdentity<HivePartitionName>, WithValidation<Table, PartitionStatistics>> result = ImmutableMap.builder();
         tablePartitions.keySet().forEach(tableName -> {
@@ -547,7 +558,10 @@ public class CachingHiveMetastore
                     .collect(toImmutableSet());
             Table table = getExistingTable(tableName.getIdentity(), tableName.getKey().getDatabaseName(), tableName.getKey().getTableName());
             List<Partition> partitions = getExistingPartitionsByNames(tableName.getIdentity(), table, ImmutableList.copyOf(partitionNameStrings));
-            Map<String, PartitionStatistics> statisticsByPartitionName = delegate.getPartitionStatistics(tableName.getIdentity(), table, partitions);
+            Map<String, PartitionStatistics> statisticsByPartitionName;
+            try (BlockTimer ignored = stats.getGetPartitionStatistics().time()) {
+                statisticsByPartitionName = delegate.getPartitionStatistics(tableName.getIdentity(), table, partitions);
+            }
             for (WithIdentity<HivePartitionName> partitionName : partitionNames) {
                 String stringNameForPartition = partitionName.getKey().getPartitionName().get();
                 PartitionStatistics value = statisticsByPartitionName.get(stringNameForPartition);
@@ -782,12 +796,6 @@ public class CachingHiveMetastore
         invalidatePartitionCache(databaseName, tableName);
     }
 
-    private Partition getExistingPartition(HiveIdentity identity, Table table, List<String> partitionValues)
-    {
-        return getPartition(identity, table.getDatabaseName(), table.getTableName(), partitionValues)
-                .orElseThrow(() -> new PartitionNotFoundException(table.getSchemaTableName(), partitionValues));
-    }
-
     private List<Partition> getExistingPartitionsByNames(HiveIdentity identity, Table table, List<String> partitionNames)
     {
         Map<String, Partition> partitions = getPartitionsByNames(identity, table.getDatabaseName(), table.getTableName(), partitionNames).entrySet().stream()
@@ -852,7 +860,9 @@ public class CachingHiveMetastore
 
     private Optional<List<String>> loadPartitionNames(WithIdentity<HiveTableName> hiveTableName)
     {
-        return delegate.getPartitionNames(hiveTableName.getIdentity(), hiveTableName.getKey().getDatabaseName(), hiveTableName.getKey().getTableName());
+        try (BlockTimer ignored = stats.getGetPartitionNames().time()) {
+            return delegate.getPartitionNames(hiveTableName.getIdentity(), hiveTableName.getKey().getDatabaseName(), hiveTableName.getKey().getTableName());
+        }
     }
 
     @Override
@@ -935,6 +945,24 @@ public class CachingHiveMetastore
         return partitionsByName.build();
     }
 
+    private Map<WithIdentity<HivePartitionName>, Optional<WithValidation<Table, Partition>>> loadPartitions(List<WithIdentity<HivePartitionName>> partitionNames)
+    {
+        // partitions looked up by values have no name and cannot be part of a bulk call
+        List<WithIdentity<HivePartitionName>> named = partitionNames.stream()
+                .filter(partitionName -> partitionName.getKey().getPartitionName().isPresent())
+                .collect(toImmutableList());
+        ImmutableMap.Builder<WithIdentity<HivePartitionName>, Optional<WithValidation<Table, Partition>>> partitions = ImmutableMap.builder();
+        if (!named.isEmpty()) {
+            partitions.putAll(loadPartitionsByNames(named));
+        }
+        for (WithIdentity<HivePartitionName> partitionName : partitionNames) {
+            if (!partitionName.getKey().getPartitionName().isPresent()) {
+                partitions.put(partitionName, loadPartitionByName(partitionName));
+            }
+        }
+        return partitions.build();
+    }
+
     private Optional<WithValidation<Table, Partition>> loadPartitionByName(WithIdentity<HivePartitionName> partitionName)
     {
         Optional<Partition> result = delegate.getPartition(
@@ -973,7 +1001,10 @@ public class CachingHiveMetastore
         }
 
         ImmutableMap.Builder<WithIdentity<HivePartitionName>, Optional<WithValidation<Table, Partition>>> partitions = ImmutableMap.builder();
-        Map<String, Optional<Partition>> partitionsByNames = delegate.getPartitionsByNames(identity, databaseName, tableName, partitionsToFetch);
+        Map<String, Optional<Partition>> partitionsByNames;
+        try (BlockTimer ignored = stats.getGetPartitionsByNames().time()) {
+            partitionsByNames = delegate.getPartitionsByNames(identity, databaseName, tableName, partitionsToFetch);
+        }
         Table table = getCacheValidationParams(identity, databaseName, tableName);
         for (Entry<String, Optional<Partition>> entry : partitionsByNames.entrySet()) {
             partitions.put(new WithIdentity<>(identity, HivePartitionName.hivePartitionName(hiveTableName, entry.getKey())),
@@ -1207,6 +1238,11 @@ public class CachingHiveMetastore
     }
 
     private static CacheBuilder<Object, Object> newCacheBuilder(OptionalLong expiresAfterWriteMillis, OptionalLong refreshMillis, long maximumSize)
+    {
+        return newCacheBuilder(expiresAfterWriteMillis, refreshMillis).maximumSize(maximumSize);
+    }
+
+    private static CacheBuilder<Object, Object> newCacheBuilder(OptionalLong expiresAfterWriteMillis, OptionalLong refreshMillis)
     {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
         if (expiresAfterWriteMillis.isPresent()) {
@@ -1215,10 +1251,17 @@ public class CachingHiveMetastore
         if (refreshMillis.isPresent() && (!expiresAfterWriteMillis.isPresent() || expiresAfterWriteMillis.getAsLong() > refreshMillis.getAsLong())) {
             cacheBuilder = cacheBuilder.refreshAfterWrite(refreshMillis.getAsLong(), MILLISECONDS);
         }
-        cacheBuilder = cacheBuilder.maximumSize(maximumSize);
         return cacheBuilder;
     }
 
+    private static <K, V> LoadingCache<K, V> buildCache(CacheBuilder<Object, Object> cacheBuilder, long maximumSize, long maximumWeight, Weigher<K, V> weigher, CacheLoader<K, V> cacheLoader)
+    {
+        if (maximumWeight > 0) {
+            return cacheBuilder.maximumWeight(maximumWeight).weigher(weigher).build(cacheLoader);
+        }
+        return cacheBuilder.maximumSize(maximumSize).build(cacheLoader);
+    }
+
     /**
      * list the privilege of db
      *
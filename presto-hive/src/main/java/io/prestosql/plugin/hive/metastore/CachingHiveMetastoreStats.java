@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Latency of the calls {@link CachingHiveMetastore} makes to its delegate on cache misses and refreshes.
+ */
+@ThreadSafe
+public class CachingHiveMetastoreStats
+{
+    private final TimeStat getTable = new TimeStat(MILLISECONDS);
+    private final TimeStat getPartitionNames = new TimeStat(MILLISECONDS);
+    private final TimeStat getPartitionsByNames = new TimeStat(MILLISECONDS);
+    private final TimeStat getTableStatistics = new TimeStat(MILLISECONDS);
+    private final TimeStat getPartitionStatistics = new TimeStat(MILLISECONDS);
+    private final DistributionStat partitionBatchSize = new DistributionStat();
+    private final DistributionStat partitionStatisticsBatchSize = new DistributionStat();
+    private final CounterStat coalescedPartitionLoads = new CounterStat();
+    private final CounterStat coalescedPartitionStatisticsLoads = new CounterStat();
+
+    @Managed
+    @Nested
+    public TimeStat getGetTable()
+    {
+        return getTable;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getGetPartitionNames()
+    {
+        return getPartitionNames;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getGetPartitionsByNames()
+    {
+        return getPartitionsByNames;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getGetTableStatistics()
+    {
+        return getTableStatistics;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getGetPartitionStatistics()
+    {
+        return getPartitionStatistics;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getPartitionBatchSize()
+    {
+        return partitionBatchSize;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getPartitionStatisticsBatchSize()
+    {
+        return partitionStatisticsBatchSize;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCoalescedPartitionLoads()
+    {
+        return coalescedPartitionLoads;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCoalescedPartitionStatisticsLoads()
+    {
+        return coalescedPartitionStatisticsLoads;
+    }
+}
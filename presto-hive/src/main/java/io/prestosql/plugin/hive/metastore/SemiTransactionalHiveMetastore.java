@@ -42,6 +42,7 @@ import io.prestosql.plugin.hive.LocationHandle.WriteMode;
 import io.prestosql.plugin.hive.PartitionNotFoundException;
 import io.prestosql.plugin.hive.PartitionStatistics;
 import io.prestosql.plugin.hive.PartitionUpdate;
+import io.prestosql.plugin.hive.TableInvalidationCallback;
 import io.prestosql.plugin.hive.VacuumCleaner;
 import io.prestosql.plugin.hive.VacuumEligibleTableCollector;
 import io.prestosql.plugin.hive.VacuumTableInfoForCleaner;
@@ -138,6 +139,7 @@ public class SemiTransactionalHiveMetastore
     private final ScheduledExecutorService heartbeatExecutor;
     private final Optional<Duration> configuredTransactionHeartbeatInterval;
     private final ListeningExecutorService hiveMetastoreClientService;
+    private final TableInvalidationCallback tableInvalidationCallback;
 
     private boolean throwOnCleanupFailure;
     private int partitionCommitBatchSize;
@@ -182,7 +184,8 @@ public class SemiTransactionalHiveMetastore
             Optional<Duration> hiveTransactionHeartbeatInterval,
             ScheduledExecutorService heartbeatService,
             ScheduledExecutorService hiveMetastoreClientService,
-            int hmsWriteBatchSize)
+            int hmsWriteBatchSize,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.delegate = requireNonNull(delegate, "delegate is null");
@@ -196,6 +199,7 @@ public class SemiTransactionalHiveMetastore
         this.hiveMetastoreClientService = MoreExecutors.listeningDecorator(hiveMetastoreClientService);
         this.closure = new HiveMetastoreClosure(delegate);
         this.partitionCommitBatchSize = hmsWriteBatchSize;
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
     }
 
     public synchronized List<String> getAllDatabases()
@@ -1049,7 +1053,12 @@ public class SemiTransactionalHiveMetastore
                     commitTransaction();
                     break;
                 case SHARED_OPERATION_BUFFERED:
-                    commitShared();
+                    try {
+                        commitShared();
+                    }
+                    finally {
+                        invalidateModifiedLocations();
+                    }
                     break;
                 case EXCLUSIVE_OPERATION_BUFFERED:
                     requireNonNull(bufferedExclusiveOperation, "bufferedExclusiveOperation is null");
@@ -1086,7 +1095,12 @@ public class SemiTransactionalHiveMetastore
                 case EXCLUSIVE_OPERATION_BUFFERED:
                     break;
                 case SHARED_OPERATION_BUFFERED:
-                    rollbackShared();
+                    try {
+                        rollbackShared();
+                    }
+                    finally {
+                        invalidateModifiedLocations();
+                    }
                     break;
                 case FINISHED:
                     throw new IllegalStateException("Tried to rollback buffered metastore operations after transaction has been committed/aborted");
@@ -2024,6 +2038,8 @@ public class SemiTransactionalHiveMetastore
                                 false,
                                 format("target_existing directory rollback for table %s", schemaTableName));
                     }
+                    // files were written to and deleted from existing directories, which may have been listed meanwhile
+                    table.ifPresent(tableInvalidationCallback::invalidate);
 
                     break;
                 }
@@ -2033,6 +2049,40 @@ public class SemiTransactionalHiveMetastore
         }
     }
 
+    /**
+     * Invalidates cached directory listings of the tables and partitions modified by this transaction,
+     * whether it committed or rolled back. Dropped partitions invalidate their whole table, since the
+     * partition location is no longer known.
+     */
+    @GuardedBy("this")
+    private void invalidateModifiedLocations()
+    {
+        checkHoldsLock();
+
+        try {
+            for (Action<TableAndMore> action : tableActions.values()) {
+                if (action.getType() != ActionType.DROP) {
+                    tableInvalidationCallback.invalidate(action.getData().getTable());
+                }
+            }
+            for (Map.Entry<SchemaTableName, Map<List<String>, Action<PartitionAndMore>>> tableEntry : partitionActions.entrySet()) {
+                SchemaTableName schemaTableName = tableEntry.getKey();
+                for (Action<PartitionAndMore> action : tableEntry.getValue().values()) {
+                    if (action.getType() == ActionType.DROP) {
+                        delegate.getTable(action.getIdentity(), schemaTableName.getSchemaName(), schemaTableName.getTableName())
+                                .ifPresent(tableInvalidationCallback::invalidate);
+                    }
+                    else {
+                        tableInvalidationCallback.invalidate(action.getData().getPartition());
+                    }
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            log.warn(e, "Failed to invalidate cached directory listings");
+        }
+    }
+
     @VisibleForTesting
     public synchronized void testOnlyCheckIsReadOnly()
     {
@@ -19,6 +19,7 @@ import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
 import io.prestosql.orc.OrcRecordReader;
+import io.prestosql.orc.PrefetchingOrcDataSource;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.HiveErrorCode;
 import io.prestosql.plugin.hive.HiveType;
@@ -152,6 +153,11 @@ public class OrcPageSource
         try {
             deletedRows.close();
             stats.addMaxCombinedBytesPerRow(recordReader.getMaxCombinedBytesPerRow());
+            stats.addOrcRowsSkippedByIndex(recordReader.getIndexSkippedRows());
+            if (orcDataSource instanceof PrefetchingOrcDataSource) {
+                PrefetchingOrcDataSource prefetchingDataSource = (PrefetchingOrcDataSource) orcDataSource;
+                stats.addOrcStripePrefetchTime(prefetchingDataSource.getBlockedTimeNanos(), prefetchingDataSource.getPrefetchReadTimeNanos());
+            }
             recordReader.close();
         }
         catch (IOException e) {
@@ -30,11 +30,13 @@ import io.prestosql.orc.OrcFileTail;
 import io.prestosql.orc.OrcFileTailCacheKey;
 import io.prestosql.orc.OrcReader;
 import io.prestosql.orc.OrcRecordReader;
+import io.prestosql.orc.PrefetchingOrcDataSource;
 import io.prestosql.orc.TupleDomainOrcPredicate;
 import io.prestosql.orc.TupleDomainOrcPredicate.TupleDomainOrcPredicateBuilder;
 import io.prestosql.orc.metadata.OrcType.OrcTypeKind;
 import io.prestosql.plugin.hive.DeleteDeltaLocations;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.ForOrcStripePrefetch;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
@@ -66,6 +68,7 @@ import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.joda.time.DateTimeZone;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
 
 import java.io.FileNotFoundException;
@@ -77,12 +80,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.Maps.uniqueIndex;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.OrcReader.handleCacheLoadException;
@@ -105,6 +110,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcFileTailCacheE
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcRowDataCacheEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcRowIndexCacheEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcStripeFooterCacheEnabled;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static io.prestosql.plugin.hive.orc.OrcPageSource.handleException;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
@@ -134,11 +140,17 @@ public class OrcPageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final OrcCacheStore orcCacheStore;
+    private final Executor stripePrefetchExecutor;
     private final int domainCompactionThreshold;
     private final DateTimeZone legacyTimeZone;
 
-    @Inject
     public OrcPageSourceFactory(TypeManager typeManager, HiveConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, OrcCacheStore orcCacheStore)
+    {
+        this(typeManager, config, hdfsEnvironment, stats, orcCacheStore, directExecutor());
+    }
+
+    @Inject
+    public OrcPageSourceFactory(TypeManager typeManager, HiveConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, OrcCacheStore orcCacheStore, @ForOrcStripePrefetch Executor stripePrefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         requireNonNull(config, "config is null");
@@ -146,6 +158,7 @@ public class OrcPageSourceFactory
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.orcCacheStore = orcCacheStore;
+        this.stripePrefetchExecutor = requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null");
         this.domainCompactionThreshold = config.getDomainCompactionThreshold();
         this.legacyTimeZone = requireNonNull(config, "hiveConfig is null").getOrcLegacyDateTimeZone();
     }
@@ -205,6 +218,7 @@ public class OrcPageSourceFactory
                 getOrcLazyReadSmallRanges(session),
                 isOrcBloomFiltersEnabled(session),
                 stats,
+                getStripePrefetchExecutor(session),
                 dynamicFilters,
                 deleteDeltaLocations,
                 startRowOffsetOfFile,
@@ -217,6 +231,14 @@ public class OrcPageSourceFactory
                 dataSourceLastModifiedTime));
     }
 
+    private Optional<Executor> getStripePrefetchExecutor(ConnectorSession session)
+    {
+        if (isOrcStripePrefetchEnabled(session)) {
+            return Optional.of(stripePrefetchExecutor);
+        }
+        return Optional.empty();
+    }
+
     public static OrcPageSource createOrcPageSource(
             HdfsEnvironment hdfsEnvironment,
             String sessionUser,
@@ -239,6 +261,7 @@ public class OrcPageSourceFactory
             boolean lazyReadSmallRanges,
             boolean orcBloomFiltersEnabled,
             FileFormatDataSourceStats stats,
+            Optional<Executor> stripePrefetchExecutor,
             Optional<DynamicFilterSupplier> dynamicFilters,
             Optional<DeleteDeltaLocations> deleteDeltaLocations,
             Optional<Long> startRowOffsetOfFile,
@@ -257,6 +280,7 @@ public class OrcPageSourceFactory
         }
         checkArgument(!effectivePredicate.isNone());
 
+        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         OrcDataSource orcDataSource;
         try {
             //Always create a lazy Stream. HDFS stream opened only when required.
@@ -264,16 +288,20 @@ public class OrcPageSourceFactory
                 FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
                 return hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path));
             }));
-            orcDataSource = new HdfsOrcDataSource(
-                    new OrcDataSourceId(path.toString()),
-                    fileSize,
+            orcDataSource = wrapWithStripePrefetch(new HdfsOrcDataSource(
+                            new OrcDataSourceId(path.toString()),
+                            fileSize,
+                            maxMergeDistance,
+                            maxBufferSize,
+                            streamBufferSize,
+                            lazyReadSmallRanges,
+                            inputStream,
+                            stats,
+                            dataSourceLastModifiedTime),
+                    stripePrefetchExecutor,
                     maxMergeDistance,
                     maxBufferSize,
-                    streamBufferSize,
-                    lazyReadSmallRanges,
-                    inputStream,
-                    stats,
-                    dataSourceLastModifiedTime);
+                    systemMemoryUsage);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -283,7 +311,6 @@ public class OrcPageSourceFactory
             throw new PrestoException(HIVE_CANNOT_OPEN_SPLIT, splitError(e, path, start, length), e);
         }
 
-        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
             OrcDataSource readerLocalDataSource = OrcReader.wrapWithCacheIfTiny(orcDataSource, tinyStripeThreshold);
             OrcFileTail fileTail;
@@ -459,8 +486,10 @@ public class OrcPageSourceFactory
             implements Seekable, PositionedReadable
     {
         private FSDataInputStreamProvider fsDataInputStreamProvider;
-        private FSDataInputStream fsDataInputStream;
-        private boolean isStreamAvailable;
+        // the stream is read by the reading thread and, with stripe prefetching, by the prefetch thread
+        private volatile FSDataInputStream fsDataInputStream;
+        @GuardedBy("this")
+        private boolean closed;
 
         public LazyFSInputStream(FSDataInputStreamProvider fsDataInputStreamProvider)
         {
@@ -471,83 +500,94 @@ public class OrcPageSourceFactory
         public int read(long position, byte[] buffer, int offset, int length)
                 throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.read(position, buffer, offset, length);
+            return ensureActualStream().read(position, buffer, offset, length);
         }
 
         @Override
         public void readFully(long position, byte[] buffer, int offset, int length)
                 throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.readFully(position, buffer, offset, length);
+            ensureActualStream().readFully(position, buffer, offset, length);
         }
 
         @Override
         public void readFully(long position, byte[] buffer)
                 throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.readFully(position, buffer);
+            ensureActualStream().readFully(position, buffer);
         }
 
         @Override
         public void seek(long pos)
                 throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.seek(pos);
+            ensureActualStream().seek(pos);
         }
 
         @Override
         public long getPos()
                 throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.getPos();
+            return ensureActualStream().getPos();
         }
 
         @Override
         public boolean seekToNewSource(long targetPos)
                 throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.seekToNewSource(targetPos);
+            return ensureActualStream().seekToNewSource(targetPos);
         }
 
         @Override
         public int read()
                 throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.read();
+            return ensureActualStream().read();
         }
 
         @Override
-        public void close()
+        public synchronized void close()
                 throws IOException
         {
-            if (isStreamAvailable) {
+            closed = true;
+            if (fsDataInputStream != null) {
                 fsDataInputStream.close();
-                isStreamAvailable = false;
+                fsDataInputStream = null;
             }
         }
 
-        private void ensureActualStream()
+        private FSDataInputStream ensureActualStream()
                 throws IOException
         {
-            if (isStreamAvailable) {
-                return;
+            FSDataInputStream stream = fsDataInputStream;
+            if (stream != null) {
+                return stream;
             }
             synchronized (this) {
-                if (!isStreamAvailable) {
+                if (closed) {
+                    throw new IOException("Stream is closed");
+                }
+                if (fsDataInputStream == null) {
                     fsDataInputStream = fsDataInputStreamProvider.provide();
                 }
+                return fsDataInputStream;
             }
-            isStreamAvailable = true;
         }
     }
 
+    static OrcDataSource wrapWithStripePrefetch(OrcDataSource orcDataSource, Optional<Executor> stripePrefetchExecutor, DataSize maxMergeDistance, DataSize maxBufferSize, AggregatedMemoryContext systemMemoryUsage)
+    {
+        if (!stripePrefetchExecutor.isPresent()) {
+            return orcDataSource;
+        }
+        return new PrefetchingOrcDataSource(
+                orcDataSource,
+                stripePrefetchExecutor.get(),
+                maxMergeDistance,
+                maxBufferSize,
+                systemMemoryUsage.newLocalMemoryContext(PrefetchingOrcDataSource.class.getSimpleName()));
+    }
+
     private static OrcFileTail createFileTail(OrcDataSource orcDataSource)
             throws IOException
     {
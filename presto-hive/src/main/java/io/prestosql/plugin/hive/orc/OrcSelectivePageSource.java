@@ -17,6 +17,7 @@ import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcSelectiveRecordReader;
+import io.prestosql.orc.PrefetchingOrcDataSource;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMapping;
@@ -127,6 +128,11 @@ public class OrcSelectivePageSource
 
         try {
             stats.addMaxCombinedBytesPerRow(recordReader.getMaxCombinedBytesPerRow());
+            stats.addOrcRowsSkippedByIndex(recordReader.getIndexSkippedRows());
+            if (orcDataSource instanceof PrefetchingOrcDataSource) {
+                PrefetchingOrcDataSource prefetchingDataSource = (PrefetchingOrcDataSource) orcDataSource;
+                stats.addOrcStripePrefetchTime(prefetchingDataSource.getBlockedTimeNanos(), prefetchingDataSource.getPrefetchReadTimeNanos());
+            }
             recordReader.close();
         }
         catch (IOException e) {
@@ -36,6 +36,7 @@ import io.prestosql.orc.TupleDomainOrcPredicate.TupleDomainOrcPredicateBuilder;
 import io.prestosql.orc.metadata.OrcType.OrcTypeKind;
 import io.prestosql.plugin.hive.DeleteDeltaLocations;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.ForOrcStripePrefetch;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
@@ -67,6 +68,7 @@ import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.joda.time.DateTimeZone;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
 
 import java.io.FileNotFoundException;
@@ -81,6 +83,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -89,6 +92,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Maps.uniqueIndex;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.metadata.OrcType.OrcTypeKind.INT;
@@ -110,8 +114,10 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcFileTailCacheE
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcRowDataCacheEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcRowIndexCacheEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcStripeFooterCacheEnabled;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static io.prestosql.plugin.hive.HiveUtil.typedPartitionKey;
 import static io.prestosql.plugin.hive.orc.OrcPageSource.handleException;
+import static io.prestosql.plugin.hive.orc.OrcPageSourceFactory.wrapWithStripePrefetch;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static java.lang.String.format;
@@ -137,10 +143,16 @@ public class OrcSelectivePageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final OrcCacheStore orcCacheStore;
+    private final Executor stripePrefetchExecutor;
     private final DateTimeZone legacyTimeZone;
 
-    @Inject
     public OrcSelectivePageSourceFactory(TypeManager typeManager, HiveConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, OrcCacheStore orcCacheStore)
+    {
+        this(typeManager, config, hdfsEnvironment, stats, orcCacheStore, directExecutor());
+    }
+
+    @Inject
+    public OrcSelectivePageSourceFactory(TypeManager typeManager, HiveConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, OrcCacheStore orcCacheStore, @ForOrcStripePrefetch Executor stripePrefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         requireNonNull(config, "config is null");
@@ -148,6 +160,7 @@ public class OrcSelectivePageSourceFactory
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.orcCacheStore = orcCacheStore;
+        this.stripePrefetchExecutor = requireNonNull(stripePrefetchExecutor, "stripePrefetchExecutor is null");
         this.legacyTimeZone = requireNonNull(config, "hiveConfig is null").getOrcLegacyDateTimeZone();
     }
 
@@ -218,6 +231,7 @@ public class OrcSelectivePageSourceFactory
                     getOrcLazyReadSmallRanges(session),
                     isOrcBloomFiltersEnabled(session),
                     stats,
+                    getStripePrefetchExecutor(session),
                     deleteDeltaLocations,
                     startRowOffsetOfFile,
                     indexes,
@@ -292,6 +306,7 @@ public class OrcSelectivePageSourceFactory
                 getOrcLazyReadSmallRanges(session),
                 isOrcBloomFiltersEnabled(session),
                 stats,
+                getStripePrefetchExecutor(session),
                 deleteDeltaLocations,
                 startRowOffsetOfFile,
                 indexes,
@@ -304,6 +319,14 @@ public class OrcSelectivePageSourceFactory
                 dataSourceLastModifiedTime));
     }
 
+    private Optional<Executor> getStripePrefetchExecutor(ConnectorSession session)
+    {
+        if (isOrcStripePrefetchEnabled(session)) {
+            return Optional.of(stripePrefetchExecutor);
+        }
+        return Optional.empty();
+    }
+
     public static OrcSelectivePageSource createOrcPageSource(
             HdfsEnvironment hdfsEnvironment,
             ConnectorSession session,
@@ -328,6 +351,7 @@ public class OrcSelectivePageSourceFactory
             boolean lazyReadSmallRanges,
             boolean orcBloomFiltersEnabled,
             FileFormatDataSourceStats stats,
+            Optional<Executor> stripePrefetchExecutor,
             Optional<DeleteDeltaLocations> deleteDeltaLocations,
             Optional<Long> startRowOffsetOfFile,
             Optional<List<IndexMetadata>> indexes,
@@ -341,6 +365,7 @@ public class OrcSelectivePageSourceFactory
     {
         checkArgument(!domainPredicate.isNone(), "Unexpected NONE domain");
         String sessionUser = session.getUser();
+        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         OrcDataSource orcDataSource;
         try {
             //Always create a lazy Stream. HDFS stream opened only when required.
@@ -348,16 +373,20 @@ public class OrcSelectivePageSourceFactory
                 FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
                 return hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path));
             }));
-            orcDataSource = new HdfsOrcDataSource(
-                    new OrcDataSourceId(path.toString()),
-                    fileSize,
+            orcDataSource = wrapWithStripePrefetch(new HdfsOrcDataSource(
+                            new OrcDataSourceId(path.toString()),
+                            fileSize,
+                            maxMergeDistance,
+                            maxBufferSize,
+                            streamBufferSize,
+                            lazyReadSmallRanges,
+                            inputStream,
+                            stats,
+                            dataSourceLastModifiedTime),
+                    stripePrefetchExecutor,
                     maxMergeDistance,
                     maxBufferSize,
-                    streamBufferSize,
-                    lazyReadSmallRanges,
-                    inputStream,
-                    stats,
-                    dataSourceLastModifiedTime);
+                    systemMemoryUsage);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -367,7 +396,6 @@ public class OrcSelectivePageSourceFactory
             throw new PrestoException(HIVE_CANNOT_OPEN_SPLIT, splitError(e, path, start, length), e);
         }
 
-        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
             OrcDataSource readerLocalDataSource = OrcReader.wrapWithCacheIfTiny(orcDataSource, tinyStripeThreshold);
             OrcFileTail fileTail;
@@ -587,8 +615,10 @@ public class OrcSelectivePageSourceFactory
             implements Seekable, PositionedReadable
     {
         private FSDataInputStreamProvider fsDataInputStreamProvider;
-        private FSDataInputStream fsDataInputStream;
-        private boolean isStreamAvailable;
+        // the stream is read by the reading thread and, with stripe prefetching, by the prefetch thread
+        private volatile FSDataInputStream fsDataInputStream;
+        @GuardedBy("this")
+        private boolean closed;
 
         public LazyFSInputStream(FSDataInputStreamProvider fsDataInputStreamProvider)
         {
@@ -598,72 +628,72 @@ public class OrcSelectivePageSourceFactory
         @Override
         public int read(long position, byte[] buffer, int offset, int length) throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.read(position, buffer, offset, length);
+            return ensureActualStream().read(position, buffer, offset, length);
         }
 
         @Override
         public void readFully(long position, byte[] buffer, int offset, int length) throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.readFully(position, buffer, offset, length);
+            ensureActualStream().readFully(position, buffer, offset, length);
         }
 
         @Override
         public void readFully(long position, byte[] buffer) throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.readFully(position, buffer);
+            ensureActualStream().readFully(position, buffer);
         }
 
         @Override
         public void seek(long pos) throws IOException
         {
-            ensureActualStream();
-            fsDataInputStream.seek(pos);
+            ensureActualStream().seek(pos);
         }
 
         @Override
         public long getPos() throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.getPos();
+            return ensureActualStream().getPos();
         }
 
         @Override
         public boolean seekToNewSource(long targetPos) throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.seekToNewSource(targetPos);
+            return ensureActualStream().seekToNewSource(targetPos);
         }
 
         @Override
         public int read() throws IOException
         {
-            ensureActualStream();
-            return fsDataInputStream.read();
+            return ensureActualStream().read();
         }
 
         @Override
-        public void close() throws IOException
+        public synchronized void close()
+                throws IOException
         {
-            if (isStreamAvailable) {
+            closed = true;
+            if (fsDataInputStream != null) {
                 fsDataInputStream.close();
-                isStreamAvailable = false;
+                fsDataInputStream = null;
             }
         }
 
-        private void ensureActualStream() throws IOException
+        private FSDataInputStream ensureActualStream()
+                throws IOException
         {
-            if (isStreamAvailable) {
-                return;
+            FSDataInputStream stream = fsDataInputStream;
+            if (stream != null) {
+                return stream;
             }
             synchronized (this) {
-                if (!isStreamAvailable) {
+                if (closed) {
+                    throw new IOException("Stream is closed");
+                }
+                if (fsDataInputStream == null) {
                     fsDataInputStream = fsDataInputStreamProvider.provide();
                 }
+                return fsDataInputStream;
             }
-            isStreamAvailable = true;
         }
     }
 
@@ -735,6 +735,7 @@ public abstract class AbstractTestHive
         hdfsEnvironment = new HdfsEnvironment(hdfsConfiguration, hiveConfig, new NoHdfsAuthentication());
         locationService = new HiveLocationService(hdfsEnvironment);
         JsonCodec<PartitionUpdate> partitionUpdateCodec = JsonCodec.jsonCodec(PartitionUpdate.class);
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(hiveConfig);
         metadataFactory = new HiveMetadataFactory(
                 metastoreClient,
                 hdfsEnvironment,
@@ -759,14 +760,15 @@ public abstract class AbstractTestHive
                 TEST_SERVER_VERSION,
                 SqlStandardAccessControlMetadata::new,
                 10, 0.1, false,
-                Optional.of(Duration.valueOf("5m")), hiveConfig.getMetastoreWriteBatchSize());
+                Optional.of(Duration.valueOf("5m")), hiveConfig.getMetastoreWriteBatchSize(),
+                directoryLister);
         transactionManager = new HiveTransactionManager();
         splitManager = new HiveSplitManager(
                 transactionHandle -> ((HiveMetadata) transactionManager.get(transactionHandle)).getMetastore(),
                 partitionManager,
                 new NamenodeStats(),
                 hdfsEnvironment,
-                new CachingDirectoryLister(hiveConfig),
+                directoryLister,
                 directExecutor(),
                 new HiveCoercionPolicy(TYPE_MANAGER),
                 new CounterStat(),
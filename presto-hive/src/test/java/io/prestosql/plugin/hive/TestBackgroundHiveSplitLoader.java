@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.MoreFiles;
+import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -98,6 +99,7 @@ import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -670,6 +672,203 @@ public class TestBackgroundHiveSplitLoader
         assertEquals(splits.size(), 0, "Splits should be filtered");
     }
 
+    @Test
+    public void testParallelListing()
+            throws Exception
+    {
+        ImmutableList.Builder<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.builder();
+        for (int i = 0; i < 10; i++) {
+            Storage storage = new Storage(
+                    StorageFormat.create(
+                            "com.facebook.hive.orc.OrcSerde",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat"),
+                    "hdfs://VOL1:9000/db_name/table_name/partitionColumn=" + i,
+                    Optional.empty(),
+                    false,
+                    ImmutableMap.of());
+            hivePartitionMetadatas.add(new HivePartitionMetadata(
+                    new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                    Optional.of(new Partition("testSchema", "table_name", ImmutableList.of(String.valueOf(i)), storage, ImmutableList.of(TABLE_COLUMN), ImmutableMap.of())),
+                    ImmutableMap.of()));
+        }
+
+        ConnectorSession connectorSession = new TestingConnectorSession(
+                new HiveSessionProperties(
+                        new HiveConfig()
+                                .setMaxSplitSize(new DataSize(1.0, GIGABYTE))
+                                .setDynamicFilterPartitionFilteringEnabled(true),
+                        new OrcFileWriterConfig(),
+                        new ParquetFileWriterConfig()).getSessionProperties());
+
+        HiveSplitSourceStats stats = new HiveSplitSourceStats();
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = new BackgroundHiveSplitLoader(
+                PARTITIONED_TABLE,
+                hivePartitionMetadatas.build(),
+                TupleDomain.all(),
+                Optional.empty(),
+                connectorSession,
+                new TestingHdfsEnvironment(TEST_FILES),
+                new NamenodeStats(),
+                new CachingDirectoryLister(new HiveConfig()),
+                EXECUTOR,
+                2,
+                false,
+                Optional.empty(),
+                createTestDynamicFilterSupplier("partitionColumn", ImmutableList.of(0L, 2L, 3L)),
+                Optional.empty(),
+                ImmutableMap.of(),
+                new TestingTypeManager(),
+                Optional.of(EXECUTOR),
+                4,
+                stats);
+
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        List<HiveSplit> splits = drainSplits(hiveSplitSource);
+        assertEquals(splits.size(), 3 * TEST_FILES.size());
+        // partitions pruned by the dynamic filter are not listed
+        assertEquals(stats.getListedPartitions().getTotalCount(), 3);
+        assertEquals(stats.getListedFiles().getTotalCount(), 3 * TEST_FILES.size());
+        assertEquals(stats.getFirstSplitLatency().getAllTime().getCount(), 1.0);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testParallelListingSharingLoaderThreads()
+            throws Exception
+    {
+        ImmutableList.Builder<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.builder();
+        for (int i = 0; i < 10; i++) {
+            Storage storage = new Storage(
+                    StorageFormat.create(
+                            "com.facebook.hive.orc.OrcSerde",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat"),
+                    "hdfs://VOL1:9000/db_name/table_name/partitionColumn=" + i,
+                    Optional.empty(),
+                    false,
+                    ImmutableMap.of());
+            hivePartitionMetadatas.add(new HivePartitionMetadata(
+                    new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                    Optional.of(new Partition("testSchema", "table_name", ImmutableList.of(String.valueOf(i)), storage, ImmutableList.of(TABLE_COLUMN), ImmutableMap.of())),
+                    ImmutableMap.of()));
+        }
+
+        // the listings are queued behind the loader task on the only thread, which must yield to them
+        ExecutorService executor = newSingleThreadExecutor(daemonThreadsNamed("test-%s"));
+        try {
+            HiveSplitSourceStats stats = new HiveSplitSourceStats();
+            BackgroundHiveSplitLoader backgroundHiveSplitLoader = new BackgroundHiveSplitLoader(
+                    PARTITIONED_TABLE,
+                    hivePartitionMetadatas.build(),
+                    TupleDomain.all(),
+                    Optional.empty(),
+                    HiveTestUtils.SESSION,
+                    new TestingHdfsEnvironment(TEST_FILES),
+                    new NamenodeStats(),
+                    new CachingDirectoryLister(new HiveConfig()),
+                    executor,
+                    1,
+                    false,
+                    Optional.empty(),
+                    null,
+                    Optional.empty(),
+                    ImmutableMap.of(),
+                    new TestingTypeManager(),
+                    Optional.of(new BoundedExecutor(executor, 2)),
+                    2,
+                    stats);
+
+            HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+            backgroundHiveSplitLoader.start(hiveSplitSource);
+
+            assertEquals(drainSplits(hiveSplitSource).size(), 10 * TEST_FILES.size());
+            assertEquals(stats.getListedPartitions().getTotalCount(), 10);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void testParallelListingSlowFirstPartition()
+            throws Exception
+    {
+        ImmutableList.Builder<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.builder();
+        for (int i = 0; i < 3; i++) {
+            Storage storage = new Storage(
+                    StorageFormat.create(
+                            "com.facebook.hive.orc.OrcSerde",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat"),
+                    "hdfs://VOL1:9000/db_name/table_name/partitionColumn=" + i,
+                    Optional.empty(),
+                    false,
+                    ImmutableMap.of());
+            hivePartitionMetadatas.add(new HivePartitionMetadata(
+                    new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                    Optional.of(new Partition("testSchema", "table_name", ImmutableList.of(String.valueOf(i)), storage, ImmutableList.of(TABLE_COLUMN), ImmutableMap.of())),
+                    ImmutableMap.of()));
+        }
+
+        // the listing of the first partition does not complete until the other partitions were loaded
+        CountDownLatch firstListingReleased = new CountDownLatch(1);
+        DirectoryLister directoryLister = new CachingDirectoryLister(new HiveConfig())
+        {
+            @Override
+            public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
+                    throws IOException
+            {
+                if (path.getName().equals("partitionColumn=0")) {
+                    try {
+                        firstListingReleased.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+                return super.list(fs, table, path);
+            }
+        };
+
+        HiveSplitSourceStats stats = new HiveSplitSourceStats();
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = new BackgroundHiveSplitLoader(
+                PARTITIONED_TABLE,
+                hivePartitionMetadatas.build(),
+                TupleDomain.all(),
+                Optional.empty(),
+                HiveTestUtils.SESSION,
+                new TestingHdfsEnvironment(TEST_FILES),
+                new NamenodeStats(),
+                directoryLister,
+                EXECUTOR,
+                1,
+                false,
+                Optional.empty(),
+                null,
+                Optional.empty(),
+                ImmutableMap.of(),
+                new TestingTypeManager(),
+                Optional.of(EXECUTOR),
+                2,
+                stats);
+
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        int splitCount = 0;
+        while (splitCount < 2 * TEST_FILES.size()) {
+            splitCount += hiveSplitSource.getNextBatch(NOT_PARTITIONED, 100).get().getSplits().size();
+        }
+        assertEquals(stats.getListedPartitions().getTotalCount(), 2);
+
+        firstListingReleased.countDown();
+        assertEquals(drainSplits(hiveSplitSource).size(), TEST_FILES.size());
+        assertEquals(stats.getListedPartitions().getTotalCount(), 3);
+    }
+
     private static List<String> drain(HiveSplitSource source)
             throws Exception
     {
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.Duration;
+import io.prestosql.plugin.hive.metastore.Column;
+import io.prestosql.plugin.hive.metastore.Partition;
+import io.prestosql.plugin.hive.metastore.StorageFormat;
+import io.prestosql.plugin.hive.metastore.Table;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hive.metastore.TableType;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
+import static java.nio.file.Files.createTempDirectory;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestCachingDirectoryLister
+{
+    private static final StorageFormat STORAGE_FORMAT = StorageFormat.fromHiveStorageFormat(HiveStorageFormat.ORC);
+
+    private java.nio.file.Path tempDirectory;
+    private FileSystem fileSystem;
+    private Path tablePath;
+    private Path partitionPath;
+    private Table table;
+    private Partition partition;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        tempDirectory = createTempDirectory("TestCachingDirectoryLister");
+        fileSystem = new RawLocalFileSystem();
+        fileSystem.initialize(URI.create("file:///"), new Configuration());
+        tablePath = new Path(tempDirectory.toUri());
+        partitionPath = new Path(tablePath, "ds=2020-01-01");
+        fileSystem.mkdirs(partitionPath);
+        fileSystem.create(new Path(partitionPath, "file1")).close();
+
+        table = Table.builder()
+                .setDatabaseName("test_dbname")
+                .setTableName("test_table")
+                .setOwner("testOwner")
+                .setTableType(TableType.MANAGED_TABLE.toString())
+                .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty())))
+                .setPartitionColumns(ImmutableList.of(new Column("ds", HIVE_STRING, Optional.empty())))
+                .setParameters(ImmutableMap.of())
+                .withStorage(storage -> storage
+                        .setStorageFormat(STORAGE_FORMAT)
+                        .setLocation(tablePath.toString()))
+                .build();
+        partition = Partition.builder()
+                .setDatabaseName("test_dbname")
+                .setTableName("test_table")
+                .setValues(ImmutableList.of("2020-01-01"))
+                .setColumns(table.getDataColumns())
+                .withStorage(storage -> storage
+                        .setStorageFormat(STORAGE_FORMAT)
+                        .setLocation(partitionPath.toString()))
+                .build();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDirectory, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testInvalidatePartition()
+            throws IOException
+    {
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(new Duration(1, TimeUnit.HOURS), 1000, ImmutableList.of("test_dbname.test_table"));
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+
+        fileSystem.create(new Path(partitionPath, "file2")).close();
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+        assertEquals(directoryLister.getHitCount(), 1);
+
+        directoryLister.invalidate(partition);
+        assertEquals(list(directoryLister, partitionPath).size(), 2);
+        assertEquals(directoryLister.getMissCount(), 2);
+    }
+
+    @Test
+    public void testInvalidateTable()
+            throws IOException
+    {
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(new Duration(1, TimeUnit.HOURS), 1000, ImmutableList.of("*"));
+        assertEquals(list(directoryLister, tablePath).size(), 1);
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+
+        fileSystem.create(new Path(partitionPath, "file2")).close();
+        directoryLister.invalidate(table);
+        assertEquals(list(directoryLister, partitionPath).size(), 2);
+        assertEquals(directoryLister.getHitCount(), 0);
+        assertEquals(directoryLister.getInvalidationCount(), 1);
+    }
+
+    @Test
+    public void testListingIsNotCachedAcrossInvalidation()
+            throws IOException
+    {
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(new Duration(1, TimeUnit.HOURS), 1000, ImmutableList.of("test_dbname.test_table"));
+        RemoteIterator<LocatedFileStatus> iterator = directoryLister.list(fileSystem, table, partitionPath);
+        iterator.next();
+
+        // the write finishes while the listing is still being consumed
+        fileSystem.create(new Path(partitionPath, "file2")).close();
+        directoryLister.invalidate(partition);
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+
+        assertEquals(list(directoryLister, partitionPath).size(), 2);
+    }
+
+    @Test
+    public void testInvalidationIsScopedToTable()
+            throws IOException
+    {
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(new Duration(1, TimeUnit.HOURS), 1000, ImmutableList.of("*"));
+        Table otherTable = Table.builder(table)
+                .setTableName("other_table")
+                .build();
+        Path otherPath = new Path(tablePath, "other");
+        fileSystem.mkdirs(otherPath);
+        fileSystem.create(new Path(otherPath, "file1")).close();
+        assertEquals(list(directoryLister, otherTable, otherPath).size(), 1);
+        RemoteIterator<LocatedFileStatus> iterator = directoryLister.list(fileSystem, otherTable, partitionPath);
+
+        // a write to another table neither drops nor blocks the listings of this table
+        directoryLister.invalidate(table);
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        fileSystem.create(new Path(otherPath, "file2")).close();
+        assertEquals(list(directoryLister, otherTable, otherPath).size(), 1);
+        assertEquals(list(directoryLister, otherTable, partitionPath).size(), 1);
+        assertEquals(directoryLister.getHitCount(), 2);
+
+        directoryLister.invalidate(otherTable);
+        assertEquals(list(directoryLister, otherTable, otherPath).size(), 2);
+    }
+
+    @Test
+    public void testRefresh()
+            throws IOException
+    {
+        TestingTicker ticker = new TestingTicker();
+        CachingDirectoryLister directoryLister = new CachingDirectoryLister(
+                new Duration(1, TimeUnit.HOURS),
+                1000,
+                ImmutableList.of("test_dbname.test_table"),
+                Optional.of(new Duration(1, TimeUnit.MINUTES)),
+                directExecutor(),
+                ticker);
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+
+        fileSystem.create(new Path(partitionPath, "file2")).close();
+        ticker.increment(30, TimeUnit.SECONDS);
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+        assertEquals(directoryLister.getRefreshCount(), 0);
+
+        // the access that triggers the refresh is served from the previous listing
+        ticker.increment(1, TimeUnit.MINUTES);
+        assertEquals(list(directoryLister, partitionPath).size(), 1);
+        assertEquals(directoryLister.getRefreshCount(), 1);
+        assertEquals(list(directoryLister, partitionPath).size(), 2);
+        assertEquals(directoryLister.getMissCount(), 1);
+    }
+
+    private List<LocatedFileStatus> list(DirectoryLister directoryLister, Path path)
+            throws IOException
+    {
+        return list(directoryLister, table, path);
+    }
+
+    private List<LocatedFileStatus> list(DirectoryLister directoryLister, Table table, Path path)
+            throws IOException
+    {
+        ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builder();
+        RemoteIterator<LocatedFileStatus> iterator = directoryLister.list(fileSystem, table, path);
+        while (iterator.hasNext()) {
+            files.add(iterator.next());
+        }
+        return files.build();
+    }
+}
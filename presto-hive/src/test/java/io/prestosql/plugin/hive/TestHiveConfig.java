@@ -49,6 +49,7 @@ public class TestHiveConfig
                 .setMetastoreDBCacheTtl(new Duration(0, TimeUnit.SECONDS))
                 .setMetastoreDBRefreshInterval(new Duration(1, TimeUnit.SECONDS))
                 .setMetastoreCacheMaximumSize(10000)
+                .setMetastoreCacheMaximumWeight(0)
                 .setPerTransactionMetastoreCacheMaximumSize(1000)
                 .setMaxMetastoreRefreshThreads(100)
                 .setMetastoreSocksProxy(null)
@@ -58,6 +59,8 @@ public class TestHiveConfig
                 .setMaxInitialSplits(200)
                 .setMaxInitialSplitSize(new DataSize(32, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(4)
+                .setSplitLoaderParallelListingEnabled(false)
+                .setSplitLoaderListingConcurrency(16)
                 .setMaxSplitsPerSecond(null)
                 .setDomainCompactionThreshold(100)
                 .setWriterSortBufferSize(new DataSize(64, Unit.MEGABYTE))
@@ -103,6 +106,8 @@ public class TestHiveConfig
                 .setOrcBloomFiltersCacheEnabled(false).setOrcBloomFiltersCacheTtl(new Duration(4, TimeUnit.HOURS)).setOrcBloomFiltersCacheLimit(250_000)
                 .setOrcRowDataCacheEnabled(false).setOrcRowDataCacheTtl(new Duration(4, TimeUnit.HOURS)).setOrcRowDataCacheMaximumWeight(new DataSize(20, GIGABYTE))
                 .setOrcLazyReadSmallRanges(true)
+                .setOrcStripePrefetchEnabled(false)
+                .setOrcStripePrefetchThreads(32)
                 .setRcfileTimeZone(TimeZone.getDefault().getID())
                 .setRcfileWriterValidate(false)
                 .setOrcWriteLegacyVersion(false)
@@ -133,6 +138,7 @@ public class TestHiveConfig
                 .setFileStatusCacheExpireAfterWrite(new Duration(24, TimeUnit.HOURS))
                 .setFileStatusCacheMaxSize(1000 * 1000)
                 .setFileStatusCacheTables("")
+                .setFileStatusCacheRefreshInterval(null)
                 .setHiveTransactionHeartbeatInterval(null)
                 .setHiveTransactionHeartbeatThreads(5)
                 .setTableCreatesWithLocationAllowed(true)
@@ -168,6 +174,7 @@ public class TestHiveConfig
                 .put("hive.metastore-db-cache-ttl", "2h")
                 .put("hive.metastore-db-refresh-interval", "30m")
                 .put("hive.metastore-cache-maximum-size", "5000")
+                .put("hive.metastore-cache-maximum-weight", "100000")
                 .put("hive.per-transaction-metastore-cache-maximum-size", "500")
                 .put("hive.metastore-refresh-max-threads", "2500")
                 .put("hive.metastore.thrift.client.socks-proxy", "localhost:1080")
@@ -188,6 +195,8 @@ public class TestHiveConfig
                 .put("hive.max-initial-splits", "10")
                 .put("hive.max-initial-split-size", "16MB")
                 .put("hive.split-loader-concurrency", "1")
+                .put("hive.split-loader-parallel-listing-enabled", "true")
+                .put("hive.split-loader-listing-concurrency", "4")
                 .put("hive.max-splits-per-second", "1")
                 .put("hive.domain-compaction-threshold", "42")
                 .put("hive.writer-sort-buffer-size", "13MB")
@@ -233,6 +242,8 @@ public class TestHiveConfig
                 .put("hive.orc.row-data.block.cache.ttl", "1h")
                 .put("hive.orc.row-data.block.cache.max.weight", "1MB")
                 .put("hive.orc.lazy-read-small-ranges", "false")
+                .put("hive.orc.stripe-prefetch.enabled", "true")
+                .put("hive.orc.stripe-prefetch.threads", "8")
                 .put("hive.rcfile.time-zone", nonDefaultTimeZone().getID())
                 .put("hive.rcfile.writer.validate", "true")
                 .put("hive.orc.writer.use-legacy-version-number", "true")
@@ -264,6 +275,7 @@ public class TestHiveConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-status-cache-refresh-interval", "1m")
                 .put("hive.transaction-heartbeat-interval", "10s")
                 .put("hive.transaction-heartbeat-threads", "10")
                 .put("hive.metastore.thrift.client.ssl.enabled", "true")
@@ -294,6 +306,7 @@ public class TestHiveConfig
                 .setMetastoreDBCacheTtl(new Duration(2, TimeUnit.HOURS))
                 .setMetastoreDBRefreshInterval(new Duration(30, TimeUnit.MINUTES))
                 .setMetastoreCacheMaximumSize(5000)
+                .setMetastoreCacheMaximumWeight(100000)
                 .setPerTransactionMetastoreCacheMaximumSize(500)
                 .setMaxMetastoreRefreshThreads(2500)
                 .setMetastoreSocksProxy(HostAndPort.fromParts("localhost", 1080))
@@ -303,6 +316,8 @@ public class TestHiveConfig
                 .setMaxInitialSplits(10)
                 .setMaxInitialSplitSize(new DataSize(16, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(1)
+                .setSplitLoaderParallelListingEnabled(true)
+                .setSplitLoaderListingConcurrency(4)
                 .setMaxSplitsPerSecond(1)
                 .setDomainCompactionThreshold(42)
                 .setWriterSortBufferSize(new DataSize(13, Unit.MEGABYTE))
@@ -348,6 +363,8 @@ public class TestHiveConfig
                 .setOrcBloomFiltersCacheEnabled(true).setOrcBloomFiltersCacheTtl(new Duration(1, TimeUnit.HOURS)).setOrcBloomFiltersCacheLimit(100)
                 .setOrcRowDataCacheEnabled(true).setOrcRowDataCacheTtl(new Duration(1, TimeUnit.HOURS)).setOrcRowDataCacheMaximumWeight(new DataSize(1, MEGABYTE))
                 .setOrcLazyReadSmallRanges(false)
+                .setOrcStripePrefetchEnabled(true)
+                .setOrcStripePrefetchThreads(8)
                 .setRcfileTimeZone(nonDefaultTimeZone().getID())
                 .setRcfileWriterValidate(true)
                 .setOrcWriteLegacyVersion(true)
@@ -379,6 +396,7 @@ public class TestHiveConfig
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileStatusCacheRefreshInterval(new Duration(1, TimeUnit.MINUTES))
                 .setHiveTransactionHeartbeatInterval(new Duration(10, TimeUnit.SECONDS))
                 .setHiveTransactionHeartbeatThreads(10)
                 .setTableCreatesWithLocationAllowed(false)
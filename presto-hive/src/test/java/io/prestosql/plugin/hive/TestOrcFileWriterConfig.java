@@ -38,7 +38,10 @@ public class TestOrcFileWriterConfig
                 .setRowGroupMaxRowCount(10_000)
                 .setDictionaryMaxMemory(new DataSize(16, MEGABYTE))
                 .setStringStatisticsLimit(new DataSize(64, BYTE))
-                .setMaxCompressionBufferSize(new DataSize(256, KILOBYTE)));
+                .setMaxCompressionBufferSize(new DataSize(256, KILOBYTE))
+                .setAdaptiveEncodingEnabled(false)
+                .setAdaptiveEncodingCpuWeight(0)
+                .setAdaptiveEncodingSampleRowCount(10_000));
     }
 
     @Test
@@ -52,6 +55,9 @@ public class TestOrcFileWriterConfig
                 .put("hive.orc.writer.dictionary-max-memory", "13MB")
                 .put("hive.orc.writer.string-statistics-limit", "17MB")
                 .put("hive.orc.writer.max-compression-buffer-size", "19MB")
+                .put("hive.orc.writer.adaptive-encoding-enabled", "true")
+                .put("hive.orc.writer.adaptive-encoding-cpu-weight", "1024.5")
+                .put("hive.orc.writer.adaptive-encoding-sample-rows", "5000")
                 .build();
 
         OrcFileWriterConfig expected = new OrcFileWriterConfig()
@@ -61,7 +67,10 @@ public class TestOrcFileWriterConfig
                 .setRowGroupMaxRowCount(11)
                 .setDictionaryMaxMemory(new DataSize(13, MEGABYTE))
                 .setStringStatisticsLimit(new DataSize(17, MEGABYTE))
-                .setMaxCompressionBufferSize(new DataSize(19, MEGABYTE));
+                .setMaxCompressionBufferSize(new DataSize(19, MEGABYTE))
+                .setAdaptiveEncodingEnabled(true)
+                .setAdaptiveEncodingCpuWeight(1024.5)
+                .setAdaptiveEncodingSampleRowCount(5000);
 
         assertFullMapping(properties, expected);
     }
@@ -0,0 +1,285 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.DistributionStat;
+import io.airlift.units.Duration;
+import io.prestosql.spi.PrestoException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestBatchingCacheLoader
+{
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-batching-cache-loader-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGroupsAndSplitsBatches()
+            throws Exception
+    {
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                key -> key.substring(0, 1),
+                keys -> {
+                    calls.add(keys);
+                    return toValues(keys);
+                },
+                2,
+                directExecutor(),
+                new Duration(10, SECONDS),
+                new DistributionStat(),
+                new CounterStat());
+
+        Map<String, String> values = loader.loadAll(ImmutableList.of("a1", "b1", "a2", "a3", "b1"));
+
+        assertEquals(values, ImmutableMap.of("a1", "A1", "b1", "B1", "a2", "A2", "a3", "A3"));
+        assertEquals(calls, ImmutableList.of(ImmutableList.of("a1", "a2"), ImmutableList.of("a3"), ImmutableList.of("b1")));
+    }
+
+    @Test
+    public void testCoalescesConcurrentMisses()
+            throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CounterStat coalesced = new CounterStat();
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                key -> "table",
+                keys -> {
+                    calls.add(keys);
+                    started.countDown();
+                    await(release);
+                    return toValues(keys);
+                },
+                100,
+                directExecutor(),
+                new Duration(10, SECONDS),
+                new DistributionStat(),
+                coalesced);
+
+        Future<Map<String, String>> first = executor.submit(() -> loader.loadAll(ImmutableList.of("a", "b")));
+        await(started);
+        Future<Map<String, String>> second = executor.submit(() -> loader.loadAll(ImmutableList.of("b", "c", "d")));
+        while (coalesced.getTotalCount() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertEquals(first.get(10, SECONDS), ImmutableMap.of("a", "A", "b", "B"));
+        assertEquals(second.get(10, SECONDS), ImmutableMap.of("b", "B", "c", "C", "d", "D"));
+        assertEquals(coalesced.getTotalCount(), 1);
+        // the key already being loaded is not requested again
+        assertEquals(calls, ImmutableList.of(ImmutableList.of("a", "b"), ImmutableList.of("c", "d")));
+    }
+
+    @Test
+    public void testLoadsRunOnExecutor()
+            throws Exception
+    {
+        List<Thread> loadThreads = new CopyOnWriteArrayList<>();
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                key -> "table",
+                keys -> {
+                    loadThreads.add(Thread.currentThread());
+                    return toValues(keys);
+                },
+                100,
+                executor,
+                new Duration(10, SECONDS),
+                new DistributionStat(),
+                new CounterStat());
+
+        assertEquals(loader.loadAll(ImmutableList.of("a", "b")), ImmutableMap.of("a", "A", "b", "B"));
+        assertEquals(loader.load("c"), "C");
+        assertEquals(loadThreads.size(), 2);
+        // the caller only waits for its keys, the batches are loaded on the executor
+        assertFalse(loadThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testFailurePropagatesToBatch()
+            throws Exception
+    {
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                Function.identity(),
+                keys -> {
+                    throw new IllegalStateException("metastore failure");
+                },
+                100,
+                directExecutor(),
+                new Duration(10, SECONDS),
+                new DistributionStat(),
+                new CounterStat());
+
+        try {
+            loader.load("a");
+            fail("expected exception");
+        }
+        catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "metastore failure");
+        }
+
+        // failed keys are not left behind as in-flight loads
+        assertTrue(loader.reload("a", "A").isDone());
+    }
+
+    @Test(timeOut = 30_000)
+    public void testNestedLoadOnBoundedExecutor()
+            throws Exception
+    {
+        ExecutorService singleThreadExecutor = newSingleThreadExecutor(daemonThreadsNamed("test-batching-cache-loader-single-%s"));
+        try {
+            BatchingCacheLoader<String, String> partitions = new BatchingCacheLoader<>(
+                    key -> "table",
+                    TestBatchingCacheLoader::toValues,
+                    100,
+                    singleThreadExecutor,
+                    new Duration(10, SECONDS),
+                    new DistributionStat(),
+                    new CounterStat());
+            // the statistics are loaded from the partitions, which are loaded on the thread loading the statistics
+            BatchingCacheLoader<String, String> statistics = new BatchingCacheLoader<>(
+                    key -> "table",
+                    keys -> {
+                        try {
+                            return partitions.loadAll(keys);
+                        }
+                        catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    },
+                    100,
+                    singleThreadExecutor,
+                    new Duration(10, SECONDS),
+                    new DistributionStat(),
+                    new CounterStat());
+
+            assertEquals(statistics.loadAll(ImmutableList.of("a", "b")), ImmutableMap.of("a", "A", "b", "B"));
+        }
+        finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedExecution()
+            throws Exception
+    {
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                key -> "table",
+                TestBatchingCacheLoader::toValues,
+                100,
+                command -> {
+                    throw new RejectedExecutionException("executor is full");
+                },
+                new Duration(10, SECONDS),
+                new DistributionStat(),
+                new CounterStat());
+
+        try {
+            loader.loadAll(ImmutableList.of("a", "b"));
+            fail("expected exception");
+        }
+        catch (RejectedExecutionException e) {
+            assertEquals(e.getMessage(), "executor is full");
+        }
+
+        // the rejected keys are not left behind as in-flight loads
+        assertTrue(loader.reload("a", "A").isDone());
+    }
+
+    @Test
+    public void testLoadTimeout()
+            throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingCacheLoader<String, String> loader = new BatchingCacheLoader<>(
+                key -> "table",
+                keys -> {
+                    await(release);
+                    return toValues(keys);
+                },
+                100,
+                executor,
+                new Duration(100, MILLISECONDS),
+                new DistributionStat(),
+                new CounterStat());
+
+        try {
+            loader.load("a");
+            fail("expected exception");
+        }
+        catch (PrestoException e) {
+            assertEquals(e.getErrorCode(), HIVE_METASTORE_ERROR.toErrorCode());
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    private static Map<String, String> toValues(List<String> keys)
+    {
+        return keys.stream()
+                .collect(toImmutableMap(key -> key, String::toUpperCase));
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try {
+            assertTrue(latch.await(10, SECONDS));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
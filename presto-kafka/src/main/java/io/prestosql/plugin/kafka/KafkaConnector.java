@@ -17,7 +17,7 @@ import io.airlift.bootstrap.LifeCycleManager;
 import io.airlift.log.Logger;
 import io.prestosql.spi.connector.Connector;
 import io.prestosql.spi.connector.ConnectorMetadata;
-import io.prestosql.spi.connector.ConnectorRecordSetProvider;
+import io.prestosql.spi.connector.ConnectorPageSourceProvider;
 import io.prestosql.spi.connector.ConnectorSplitManager;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.transaction.IsolationLevel;
@@ -39,19 +39,19 @@ public class KafkaConnector
     private final LifeCycleManager lifeCycleManager;
     private final KafkaMetadata metadata;
     private final KafkaSplitManager splitManager;
-    private final KafkaRecordSetProvider recordSetProvider;
+    private final KafkaPageSourceProvider pageSourceProvider;
 
     @Inject
     public KafkaConnector(
             LifeCycleManager lifeCycleManager,
             KafkaMetadata metadata,
             KafkaSplitManager splitManager,
-            KafkaRecordSetProvider recordSetProvider)
+            KafkaPageSourceProvider pageSourceProvider)
     {
         this.lifeCycleManager = requireNonNull(lifeCycleManager, "lifeCycleManager is null");
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.splitManager = requireNonNull(splitManager, "splitManager is null");
-        this.recordSetProvider = requireNonNull(recordSetProvider, "recordSetProvider is null");
+        this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
     }
 
     @Override
@@ -74,9 +74,9 @@ public class KafkaConnector
     }
 
     @Override
-    public ConnectorRecordSetProvider getRecordSetProvider()
+    public ConnectorPageSourceProvider getPageSourceProvider()
     {
-        return recordSetProvider;
+        return pageSourceProvider;
     }
 
     @Override
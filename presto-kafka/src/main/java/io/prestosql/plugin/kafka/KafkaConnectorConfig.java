@@ -23,6 +23,7 @@ import io.airlift.units.MinDuration;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.function.Mandatory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -70,6 +71,21 @@ public class KafkaConnectorConfig
      */
     private boolean hideInternalColumns = true;
 
+    /**
+     * Maximum number of messages read by a single split. Partitions holding more messages are read by multiple splits in parallel.
+     */
+    private int messagesPerSplit = 100_000;
+
+    /**
+     * Maximum number of messages returned by a single poll of the Kafka consumer.
+     */
+    private int maxPollRecords = 10_000;
+
+    /**
+     * Whether an upper bound on the message timestamp is used to limit the offsets read from a partition.
+     */
+    private boolean timestampUpperBoundPushDownEnabled;
+
     @NotNull
     public File getTableDescriptionDir()
     {
@@ -170,6 +186,44 @@ public class KafkaConnectorConfig
         return this;
     }
 
+    @Min(1)
+    public int getMessagesPerSplit()
+    {
+        return messagesPerSplit;
+    }
+
+    @Config("kafka.messages-per-split")
+    public KafkaConnectorConfig setMessagesPerSplit(int messagesPerSplit)
+    {
+        this.messagesPerSplit = messagesPerSplit;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxPollRecords()
+    {
+        return maxPollRecords;
+    }
+
+    @Config("kafka.max-poll-records")
+    public KafkaConnectorConfig setMaxPollRecords(int maxPollRecords)
+    {
+        this.maxPollRecords = maxPollRecords;
+        return this;
+    }
+
+    public boolean isTimestampUpperBoundPushDownEnabled()
+    {
+        return timestampUpperBoundPushDownEnabled;
+    }
+
+    @Config("kafka.timestamp-upper-bound-push-down-enabled")
+    public KafkaConnectorConfig setTimestampUpperBoundPushDownEnabled(boolean timestampUpperBoundPushDownEnabled)
+    {
+        this.timestampUpperBoundPushDownEnabled = timestampUpperBoundPushDownEnabled;
+        return this;
+    }
+
     public static ImmutableSet<HostAddress> parseNodes(String nodes)
     {
         Splitter splitter = Splitter.on(',').omitEmptyStrings().trimResults();
@@ -43,9 +43,9 @@ public class KafkaConnectorModule
 
         binder.bind(KafkaMetadata.class).in(Scopes.SINGLETON);
         binder.bind(KafkaSplitManager.class).in(Scopes.SINGLETON);
-        binder.bind(KafkaRecordSetProvider.class).in(Scopes.SINGLETON);
+        binder.bind(KafkaPageSourceProvider.class).in(Scopes.SINGLETON);
 
-        binder.bind(KafkaSimpleConsumerManager.class).in(Scopes.SINGLETON);
+        binder.bind(KafkaConsumerFactory.class).in(Scopes.SINGLETON);
 
         configBinder(binder).bindConfig(KafkaConnectorConfig.class);
 
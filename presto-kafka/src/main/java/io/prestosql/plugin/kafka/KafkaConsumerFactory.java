@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.NodeManager;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+
+import javax.inject.Inject;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.CLIENT_ID_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.RECEIVE_BUFFER_CONFIG;
+
+/**
+ * Creates the Kafka consumers used to list the partitions of a topic and to read the messages of a split. A {@link KafkaConsumer}
+ * is not thread-safe, so every split gets its own consumer, which is assigned to the partition of the split and closed with it.
+ * The consumers never join a consumer group and never commit offsets.
+ */
+public class KafkaConsumerFactory
+{
+    private final Set<HostAddress> nodes;
+    private final NodeManager nodeManager;
+    private final int bufferSizeBytes;
+    private final int maxPollRecords;
+    private final AtomicLong consumerCount = new AtomicLong();
+
+    @Inject
+    public KafkaConsumerFactory(
+            KafkaConnectorConfig kafkaConnectorConfig,
+            NodeManager nodeManager)
+    {
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+
+        requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
+        this.nodes = kafkaConnectorConfig.getNodes();
+        this.bufferSizeBytes = toIntExact(kafkaConnectorConfig.getKafkaBufferSize().toBytes());
+        this.maxPollRecords = kafkaConnectorConfig.getMaxPollRecords();
+    }
+
+    public KafkaConsumer<byte[], byte[]> create()
+    {
+        Properties properties = new Properties();
+        properties.put(BOOTSTRAP_SERVERS_CONFIG, nodes.stream()
+                .map(HostAddress::toString)
+                .collect(joining(",")));
+        // the client id is part of the name of the metrics MBeans, which must be unique
+        properties.put(CLIENT_ID_CONFIG, "presto-kafka-" + nodeManager.getCurrentNode().getNodeIdentifier() + "-" + consumerCount.incrementAndGet());
+        properties.put(ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(RECEIVE_BUFFER_CONFIG, bufferSizeBytes);
+        properties.put(MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        // the deserializers are passed as instances, Kafka would load them with the thread context class loader otherwise
+        return new KafkaConsumer<>(properties, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+}
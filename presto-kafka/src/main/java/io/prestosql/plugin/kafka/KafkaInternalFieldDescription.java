@@ -16,6 +16,7 @@ package io.prestosql.plugin.kafka;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.BooleanType;
+import io.prestosql.spi.type.TimestampType;
 import io.prestosql.spi.type.Type;
 
 import java.util.Map;
@@ -32,7 +33,7 @@ import static java.util.function.Function.identity;
  * Describes an internal (managed by the connector) field which is added to each table row. The definition itself makes the row
  * show up in the tables (the columns are hidden by default, so they must be explicitly selected) but unless the field is hooked in using the
  * forBooleanValue/forLongValue/forBytesValue methods and the resulting FieldValueProvider is then passed into the appropriate row decoder, the fields
- * will be null. Most values are assigned in the {@link io.prestosql.plugin.kafka.KafkaRecordSet}.
+ * will be null. Most values are assigned in the {@link io.prestosql.plugin.kafka.KafkaPageSource}.
  */
 public enum KafkaInternalFieldDescription
 {
@@ -89,7 +90,12 @@ public enum KafkaInternalFieldDescription
     /**
      * <tt>_key_length</tt> - length in bytes of the key.
      */
-    KEY_LENGTH_FIELD("_key_length", BigintType.BIGINT, "Total number of key bytes");
+    KEY_LENGTH_FIELD("_key_length", BigintType.BIGINT, "Total number of key bytes"),
+
+    /**
+     * <tt>_timestamp</tt> - The timestamp of the message. Null for messages written in the message format of Kafka versions before 0.10.
+     */
+    TIMESTAMP_FIELD("_timestamp", TimestampType.TIMESTAMP, "Message timestamp");
 
     private static final Map<String, KafkaInternalFieldDescription> BY_COLUMN_NAME =
             stream(KafkaInternalFieldDescription.values())
@@ -24,9 +24,12 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.predicate.TupleDomain;
 
 import javax.inject.Inject;
 
@@ -38,6 +41,7 @@ import java.util.function.Supplier;
 
 import static io.prestosql.plugin.kafka.KafkaHandleResolver.convertColumnHandle;
 import static io.prestosql.plugin.kafka.KafkaHandleResolver.convertTableHandle;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.TIMESTAMP_FIELD;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -88,7 +92,8 @@ public class KafkaMetadata
                 getDataFormat(table.getKey()),
                 getDataFormat(table.getMessage()),
                 table.getKey().flatMap(KafkaTopicFieldGroup::getDataSchema),
-                table.getMessage().flatMap(KafkaTopicFieldGroup::getDataSchema));
+                table.getMessage().flatMap(KafkaTopicFieldGroup::getDataSchema),
+                TupleDomain.all());
     }
 
     private static String getDataFormat(Optional<KafkaTopicFieldGroup> fieldGroup)
@@ -236,4 +241,28 @@ public class KafkaMetadata
     {
         return new ConnectorTableProperties();
     }
+
+    @Override
+    public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(ConnectorSession session, ConnectorTableHandle table, Constraint constraint)
+    {
+        KafkaTableHandle handle = convertTableHandle(table);
+
+        // only the message timestamp is used to limit the offsets read, the split manager translates it to offsets
+        TupleDomain<ColumnHandle> timestampDomain = constraint.getSummary().transform(column -> isTimestampColumn(column) ? column : null);
+
+        TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
+        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(timestampDomain);
+        if (oldDomain.equals(newDomain)) {
+            return Optional.empty();
+        }
+
+        // offsets are only a coarse filter, the engine still evaluates the whole predicate
+        return Optional.of(new ConstraintApplicationResult<>(handle.withConstraint(newDomain), constraint.getSummary()));
+    }
+
+    private static boolean isTimestampColumn(ColumnHandle column)
+    {
+        KafkaColumnHandle kafkaColumn = convertColumnHandle(column);
+        return kafkaColumn.isInternal() && kafkaColumn.getName().equals(TIMESTAMP_FIELD.getColumnName());
+    }
 }
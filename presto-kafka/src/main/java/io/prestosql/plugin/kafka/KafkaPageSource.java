@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.decoder.DecoderColumnHandle;
+import io.prestosql.decoder.FieldValueProvider;
+import io.prestosql.decoder.RowDecoder;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.plugin.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
+import static java.lang.String.format;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Kafka specific page source. Reads the messages of a split with a Kafka {@link Consumer} which is assigned to the partition
+ * of the split, in batches of up to {@link KafkaConnectorConfig#getMaxPollRecords()} messages, and decodes the messages of
+ * a batch into the blocks of a page. The internal columns are written directly, the key and message columns are decoded by
+ * the row decoder of their data format.
+ */
+public class KafkaPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(KafkaPageSource.class);
+
+    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+    private final KafkaSplit split;
+    private final TopicPartition topicPartition;
+    private final Consumer<byte[], byte[]> consumer;
+    private final long pollTimeoutMillis;
+
+    private final RowDecoder keyDecoder;
+    private final RowDecoder messageDecoder;
+
+    private final List<KafkaColumnHandle> columnHandles;
+    private final PageBuilder pageBuilder;
+
+    private Iterator<ConsumerRecord<byte[], byte[]>> records = emptyIterator();
+    private long totalBytes;
+    private long totalMessages;
+    private long cursorOffset;
+    private long readTimeNanos;
+    private boolean finished;
+    private boolean closed;
+
+    KafkaPageSource(KafkaSplit split,
+            Consumer<byte[], byte[]> consumer,
+            long pollTimeoutMillis,
+            List<KafkaColumnHandle> columnHandles,
+            RowDecoder keyDecoder,
+            RowDecoder messageDecoder)
+    {
+        this.split = requireNonNull(split, "split is null");
+        this.consumer = requireNonNull(consumer, "consumer is null");
+        this.pollTimeoutMillis = pollTimeoutMillis;
+
+        this.keyDecoder = requireNonNull(keyDecoder, "rowDecoder is null");
+        this.messageDecoder = requireNonNull(messageDecoder, "rowDecoder is null");
+
+        this.columnHandles = ImmutableList.copyOf(requireNonNull(columnHandles, "columnHandles is null"));
+        this.pageBuilder = new PageBuilder(columnHandles.stream()
+                .map(KafkaColumnHandle::getType)
+                .collect(toImmutableList()));
+
+        this.topicPartition = new TopicPartition(split.getTopicName(), split.getPartitionId());
+        this.cursorOffset = split.getStart();
+        try {
+            consumer.assign(ImmutableList.of(topicPartition));
+            consumer.seek(topicPartition, split.getStart());
+        }
+        catch (RuntimeException e) {
+            consumer.close();
+            throw splitError(e);
+        }
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return totalBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        while (!finished && !pageBuilder.isFull()) {
+            if (!records.hasNext()) {
+                if (!pageBuilder.isEmpty()) {
+                    // return the messages of the current batch before waiting for the next one
+                    break;
+                }
+                pollRecords();
+                continue;
+            }
+
+            ConsumerRecord<byte[], byte[]> record = records.next();
+            if (record.offset() >= split.getEnd()) {
+                endOfData(); // Past our split end. Bail.
+                break;
+            }
+            appendRow(record);
+        }
+
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    private void pollRecords()
+    {
+        try {
+            // Split end is exclusive. The position skips the offsets removed by log compaction.
+            if (consumer.position(topicPartition) >= split.getEnd()) {
+                endOfData();
+                return;
+            }
+
+            long start = System.nanoTime();
+            ConsumerRecords<byte[], byte[]> batch = consumer.poll(pollTimeoutMillis);
+            readTimeNanos += System.nanoTime() - start;
+
+            if (batch.isEmpty() && consumer.position(topicPartition) < split.getEnd()) {
+                throw new PrestoException(KAFKA_SPLIT_ERROR, format("No messages received from topic '%s', partition '%s' within %s ms, offset %s, endOffset %s, leader %s",
+                        split.getTopicName(),
+                        split.getPartitionId(),
+                        pollTimeoutMillis,
+                        cursorOffset,
+                        split.getEnd(),
+                        split.getLeader()));
+            }
+            records = batch.records(topicPartition).iterator();
+        }
+        catch (RuntimeException e) { // Catch all exceptions because the Kafka consumer throws unchecked exceptions for all errors.
+            throw splitError(e);
+        }
+    }
+
+    private void endOfData()
+    {
+        if (!finished) {
+            finished = true;
+            log.debug("Found a total of %d messages with %d bytes (%d messages expected). Last Offset: %d (%d, %d)",
+                    totalMessages, totalBytes, split.getEnd() - split.getStart(),
+                    cursorOffset, split.getStart(), split.getEnd());
+        }
+    }
+
+    private void appendRow(ConsumerRecord<byte[], byte[]> record)
+    {
+        cursorOffset = record.offset() + 1; // Cursor now points to the next message.
+        totalMessages++;
+
+        byte[] keyData = record.key() == null ? EMPTY_BYTE_ARRAY : record.key();
+        byte[] messageData = record.value() == null ? EMPTY_BYTE_ARRAY : record.value();
+        totalBytes += messageData.length;
+
+        Optional<Map<DecoderColumnHandle, FieldValueProvider>> decodedKey = keyDecoder.decodeRow(keyData, null);
+        Optional<Map<DecoderColumnHandle, FieldValueProvider>> decodedValue = messageDecoder.decodeRow(messageData, null);
+
+        for (int i = 0; i < columnHandles.size(); i++) {
+            KafkaColumnHandle columnHandle = columnHandles.get(i);
+            BlockBuilder output = pageBuilder.getBlockBuilder(i);
+            if (columnHandle.isInternal()) {
+                writeInternalField(output, columnHandle, record, keyData, messageData, decodedKey.isPresent(), decodedValue.isPresent());
+            }
+            else {
+                Optional<Map<DecoderColumnHandle, FieldValueProvider>> decodedRow = columnHandle.isKeyDecoder() ? decodedKey : decodedValue;
+                writeValue(output, columnHandle.getType(), decodedRow.map(values -> values.get(columnHandle)).orElse(null));
+            }
+        }
+        pageBuilder.declarePosition();
+    }
+
+    private void writeInternalField(BlockBuilder output, KafkaColumnHandle columnHandle, ConsumerRecord<byte[], byte[]> record,
+            byte[] keyData, byte[] messageData, boolean keyDecoded, boolean messageDecoded)
+    {
+        Type type = columnHandle.getType();
+        KafkaInternalFieldDescription fieldDescription = KafkaInternalFieldDescription.forColumnName(columnHandle.getName());
+        switch (fieldDescription) {
+            case SEGMENT_COUNT_FIELD:
+                type.writeLong(output, totalMessages);
+                break;
+            case PARTITION_OFFSET_FIELD:
+                type.writeLong(output, record.offset());
+                break;
+            case MESSAGE_FIELD:
+                type.writeSlice(output, Slices.wrappedBuffer(messageData));
+                break;
+            case MESSAGE_LENGTH_FIELD:
+                type.writeLong(output, messageData.length);
+                break;
+            case KEY_FIELD:
+                type.writeSlice(output, Slices.wrappedBuffer(keyData));
+                break;
+            case KEY_LENGTH_FIELD:
+                type.writeLong(output, keyData.length);
+                break;
+            case KEY_CORRUPT_FIELD:
+                type.writeBoolean(output, !keyDecoded);
+                break;
+            case MESSAGE_CORRUPT_FIELD:
+                type.writeBoolean(output, !messageDecoded);
+                break;
+            case PARTITION_ID_FIELD:
+                type.writeLong(output, split.getPartitionId());
+                break;
+            case SEGMENT_START_FIELD:
+                type.writeLong(output, split.getStart());
+                break;
+            case SEGMENT_END_FIELD:
+                type.writeLong(output, split.getEnd());
+                break;
+            case TIMESTAMP_FIELD:
+                // messages written with the message format before Kafka 0.10 have no timestamp
+                if (record.timestamp() >= 0) {
+                    type.writeLong(output, record.timestamp());
+                }
+                else {
+                    output.appendNull();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unknown internal field " + fieldDescription);
+        }
+    }
+
+    private static void writeValue(BlockBuilder output, Type type, FieldValueProvider value)
+    {
+        if (value == null || value.isNull()) {
+            output.appendNull();
+            return;
+        }
+
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            type.writeBoolean(output, value.getBoolean());
+        }
+        else if (javaType == long.class) {
+            type.writeLong(output, value.getLong());
+        }
+        else if (javaType == double.class) {
+            type.writeDouble(output, value.getDouble());
+        }
+        else if (javaType == Slice.class) {
+            type.writeSlice(output, value.getSlice());
+        }
+        else {
+            type.writeObject(output, value.getBlock());
+        }
+    }
+
+    private PrestoException splitError(RuntimeException e)
+    {
+        if (e instanceof PrestoException) {
+            return (PrestoException) e;
+        }
+        return new PrestoException(
+                KAFKA_SPLIT_ERROR,
+                format(
+                        "Cannot read data from topic '%s', partition '%s', startOffset %s, endOffset %s, leader %s ",
+                        split.getTopicName(),
+                        split.getPartitionId(),
+                        split.getStart(),
+                        split.getEnd(),
+                        split.getLeader()),
+                e);
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return pageBuilder.getRetainedSizeInBytes();
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            consumer.close();
+        }
+        catch (RuntimeException e) {
+            log.warn(e, "Failed to close the consumer of topic %s partition %s", split.getTopicName(), split.getPartitionId());
+        }
+    }
+}
@@ -1,4 +1,5 @@
 /*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
@@ -18,12 +19,12 @@ import com.google.common.collect.ImmutableMap;
 import io.prestosql.decoder.DispatchingRowDecoderFactory;
 import io.prestosql.decoder.RowDecoder;
 import io.prestosql.spi.connector.ColumnHandle;
-import io.prestosql.spi.connector.ConnectorRecordSetProvider;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.ConnectorPageSourceProvider;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
-import io.prestosql.spi.connector.RecordSet;
 
 import javax.inject.Inject;
 
@@ -36,23 +37,27 @@ import static io.prestosql.plugin.kafka.KafkaHandleResolver.convertSplit;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Factory for Kafka specific {@link RecordSet} instances.
+ * Factory for Kafka specific {@link ConnectorPageSource} instances.
  */
-public class KafkaRecordSetProvider
-        implements ConnectorRecordSetProvider
+public class KafkaPageSourceProvider
+        implements ConnectorPageSourceProvider
 {
-    private DispatchingRowDecoderFactory decoderFactory;
-    private final KafkaSimpleConsumerManager consumerManager;
+    private final DispatchingRowDecoderFactory decoderFactory;
+    private final KafkaConsumerFactory consumerFactory;
+    private final long pollTimeoutMillis;
 
     @Inject
-    public KafkaRecordSetProvider(DispatchingRowDecoderFactory decoderFactory, KafkaSimpleConsumerManager consumerManager)
+    public KafkaPageSourceProvider(KafkaConnectorConfig kafkaConnectorConfig, DispatchingRowDecoderFactory decoderFactory, KafkaConsumerFactory consumerFactory)
     {
         this.decoderFactory = requireNonNull(decoderFactory, "decoderFactory is null");
-        this.consumerManager = requireNonNull(consumerManager, "consumerManager is null");
+        this.consumerFactory = requireNonNull(consumerFactory, "consumerFactory is null");
+
+        requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
+        this.pollTimeoutMillis = kafkaConnectorConfig.getKafkaConnectTimeout().toMillis();
     }
 
     @Override
-    public RecordSet getRecordSet(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<? extends ColumnHandle> columns)
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns)
     {
         KafkaSplit kafkaSplit = convertSplit(split);
 
@@ -76,7 +81,7 @@ public class KafkaRecordSetProvider
                         .filter(col -> !col.isKeyDecoder())
                         .collect(toImmutableSet()));
 
-        return new KafkaRecordSet(kafkaSplit, consumerManager, kafkaColumns, keyDecoder, messageDecoder);
+        return new KafkaPageSource(kafkaSplit, consumerFactory.create(), pollTimeoutMillis, kafkaColumns, keyDecoder, messageDecoder);
     }
 
     private Map<String, String> getDecoderParameters(Optional<String> dataSchema)
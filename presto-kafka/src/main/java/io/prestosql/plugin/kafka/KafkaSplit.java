@@ -26,10 +26,10 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Represents a kafka specific {@link ConnectorSplit}. Each split is mapped to a segment file on disk (based off the segment offset start() and end() values) so that
- * a partition can be processed by reading segment files from partition leader. Otherwise, a Kafka topic could only be processed along partition boundaries.
+ * Represents a kafka specific {@link ConnectorSplit}. Each split is mapped to a range of offsets of a partition (start() is inclusive and end() is exclusive),
+ * so that a partition can be processed by multiple workers in parallel. Otherwise, a Kafka topic could only be processed along partition boundaries.
  * <p/>
- * When planning to process a Kafka topic with Presto, using smaller than the recommended segment size (default is 1G) allows Presto to optimize early and process a topic
+ * The number of messages of a split is limited by {@link KafkaConnectorConfig#getMessagesPerSplit()}, lowering it allows Presto to process a topic
  * with more workers in parallel.
  */
 public class KafkaSplit
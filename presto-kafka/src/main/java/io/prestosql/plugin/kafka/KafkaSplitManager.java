@@ -14,12 +14,11 @@
 package io.prestosql.plugin.kafka;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
 import io.airlift.log.Logger;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitManager;
@@ -27,16 +26,15 @@ import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
-import kafka.api.PartitionOffsetRequestInfo;
-import kafka.cluster.BrokerEndPoint;
-import kafka.common.TopicAndPartition;
-import kafka.javaapi.OffsetRequest;
-import kafka.javaapi.OffsetResponse;
-import kafka.javaapi.PartitionMetadata;
-import kafka.javaapi.TopicMetadata;
-import kafka.javaapi.TopicMetadataRequest;
-import kafka.javaapi.TopicMetadataResponse;
-import kafka.javaapi.consumer.SimpleConsumer;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 
 import javax.inject.Inject;
 
@@ -47,86 +45,107 @@ import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
+import java.util.Optional;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.plugin.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 
 /**
- * Kafka specific implementation of {@link ConnectorSplitManager}.
+ * Kafka specific implementation of {@link ConnectorSplitManager}. Every partition of the topic is divided into splits
+ * of at most {@link KafkaConnectorConfig#getMessagesPerSplit()} offsets, which are read in parallel. A predicate on the
+ * message timestamp is translated to the offsets of the messages with the timestamp bounds, so the messages outside
+ * of the bounds are not read at all.
  */
 public class KafkaSplitManager
         implements ConnectorSplitManager
 {
     private static final Logger log = Logger.get(KafkaSplitManager.class);
 
-    private final KafkaSimpleConsumerManager consumerManager;
-    private final Set<HostAddress> nodes;
+    private final KafkaConsumerFactory consumerFactory;
+    private final int messagesPerSplit;
+    private final boolean timestampUpperBoundPushDownEnabled;
 
     @Inject
     public KafkaSplitManager(
             KafkaConnectorConfig kafkaConnectorConfig,
-            KafkaSimpleConsumerManager consumerManager)
+            KafkaConsumerFactory consumerFactory)
     {
-        this.consumerManager = requireNonNull(consumerManager, "consumerManager is null");
+        this.consumerFactory = requireNonNull(consumerFactory, "consumerFactory is null");
 
         requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
-        this.nodes = ImmutableSet.copyOf(kafkaConnectorConfig.getNodes());
+        this.messagesPerSplit = kafkaConnectorConfig.getMessagesPerSplit();
+        this.timestampUpperBoundPushDownEnabled = kafkaConnectorConfig.isTimestampUpperBoundPushDownEnabled();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
         KafkaTableHandle kafkaTableHandle = (KafkaTableHandle) table;
-        try {
-            SimpleConsumer simpleConsumer = consumerManager.getConsumer(selectRandom(nodes));
+        if (kafkaTableHandle.getConstraint().isNone()) {
+            return new FixedSplitSource(ImmutableList.of());
+        }
+
+        try (KafkaConsumer<byte[], byte[]> consumer = consumerFactory.create()) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(kafkaTableHandle.getTopicName());
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return new FixedSplitSource(ImmutableList.of());
+            }
+
+            List<TopicPartition> topicPartitions = partitionInfos.stream()
+                    .map(partitionInfo -> new TopicPartition(partitionInfo.topic(), partitionInfo.partition()))
+                    .collect(toImmutableList());
+            Map<TopicPartition, Long> startOffsets = new HashMap<>(consumer.beginningOffsets(topicPartitions));
+            Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(topicPartitions));
+            applyTimestampBounds(consumer, kafkaTableHandle.getConstraint(), startOffsets, endOffsets);
 
-            TopicMetadataRequest topicMetadataRequest = new TopicMetadataRequest(ImmutableList.of(kafkaTableHandle.getTopicName()));
-            TopicMetadataResponse topicMetadataResponse = simpleConsumer.send(topicMetadataRequest);
+            // the schemas are read once, not once per split
+            Optional<String> keyDataSchemaContents = kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema);
+            Optional<String> messageDataSchemaContents = kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema);
 
             ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
 
-            for (TopicMetadata metadata : topicMetadataResponse.topicsMetadata()) {
-                for (PartitionMetadata part : metadata.partitionsMetadata()) {
-                    log.debug("Adding Partition %s/%s", metadata.topic(), part.partitionId());
-
-                    BrokerEndPoint leader = part.leader();
-                    if (leader == null) {
-                        throw new PrestoException(GENERIC_INTERNAL_ERROR, format("Leader election in progress for Kafka topic '%s' partition %s", metadata.topic(), part.partitionId()));
-                    }
-
-                    HostAddress partitionLeader = HostAddress.fromParts(leader.host(), leader.port());
-
-                    SimpleConsumer leaderConsumer = consumerManager.getConsumer(partitionLeader);
-                    // Kafka contains a reverse list of "end - start" pairs for the splits
-
-                    long[] offsets = findAllOffsets(leaderConsumer, metadata.topic(), part.partitionId());
-
-                    for (int i = offsets.length - 1; i > 0; i--) {
-                        KafkaSplit split = new KafkaSplit(
-                                metadata.topic(),
-                                kafkaTableHandle.getKeyDataFormat(),
-                                kafkaTableHandle.getMessageDataFormat(),
-                                kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                                kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                                part.partitionId(),
-                                offsets[i],
-                                offsets[i - 1],
-                                partitionLeader);
-                        splits.add(split);
-                    }
+            for (PartitionInfo partitionInfo : partitionInfos) {
+                log.debug("Adding Partition %s/%s", partitionInfo.topic(), partitionInfo.partition());
+
+                Node leader = partitionInfo.leader();
+                if (leader == null) {
+                    throw new PrestoException(GENERIC_INTERNAL_ERROR, format("Leader election in progress for Kafka topic '%s' partition %s", partitionInfo.topic(), partitionInfo.partition()));
+                }
+
+                HostAddress partitionLeader = HostAddress.fromParts(leader.host(), leader.port());
+
+                TopicPartition topicPartition = new TopicPartition(partitionInfo.topic(), partitionInfo.partition());
+                long endOffset = endOffsets.get(topicPartition);
+                for (long start = startOffsets.get(topicPartition); start < endOffset; start += messagesPerSplit) {
+                    KafkaSplit split = new KafkaSplit(
+                            partitionInfo.topic(),
+                            kafkaTableHandle.getKeyDataFormat(),
+                            kafkaTableHandle.getMessageDataFormat(),
+                            keyDataSchemaContents,
+                            messageDataSchemaContents,
+                            partitionInfo.partition(),
+                            start,
+                            min(start + messagesPerSplit, endOffset),
+                            partitionLeader);
+                    splits.add(split);
                 }
             }
 
             return new FixedSplitSource(splits.build());
         }
-        catch (Exception e) { // Catch all exceptions because Kafka library is written in scala and checked exceptions are not declared in method signature.
+        catch (Exception e) { // Catch all exceptions because the Kafka consumer throws unchecked exceptions for all errors.
             if (e instanceof PrestoException) {
                 throw e;
             }
@@ -134,6 +153,70 @@ public class KafkaSplitManager
         }
     }
 
+    /**
+     * Narrow the offsets of the partitions to the messages within the bounds of the predicate on the message timestamp.
+     * The offsets are looked up from the time index of the partitions, which returns the first message with a timestamp
+     * at or after the given one. Unless the timestamps are assigned by the broker, they are not ordered by offset, so the
+     * upper bound may skip matching messages and is only used when enabled.
+     */
+    private void applyTimestampBounds(KafkaConsumer<byte[], byte[]> consumer, TupleDomain<ColumnHandle> constraint, Map<TopicPartition, Long> startOffsets, Map<TopicPartition, Long> endOffsets)
+    {
+        Optional<Range> timestampRange = getTimestampRange(constraint);
+        if (!timestampRange.isPresent()) {
+            return;
+        }
+
+        Marker low = timestampRange.get().getLow();
+        if (!low.isLowerUnbounded()) {
+            long lowTimestamp = (long) low.getValue();
+            if (low.getBound() == Marker.Bound.ABOVE) {
+                lowTimestamp++;
+            }
+            Map<TopicPartition, OffsetAndTimestamp> offsets = findOffsetsForTimestamp(consumer, startOffsets, lowTimestamp);
+            for (Map.Entry<TopicPartition, OffsetAndTimestamp> entry : offsets.entrySet()) {
+                TopicPartition topicPartition = entry.getKey();
+                // there is no message at or after the lower bound in the partition
+                long offset = entry.getValue() == null ? endOffsets.get(topicPartition) : entry.getValue().offset();
+                startOffsets.put(topicPartition, max(startOffsets.get(topicPartition), offset));
+            }
+        }
+
+        Marker high = timestampRange.get().getHigh();
+        if (timestampUpperBoundPushDownEnabled && !high.isUpperUnbounded()) {
+            // the end offset is exclusive, it is the offset of the first message after the upper bound
+            long highTimestamp = (long) high.getValue();
+            if (high.getBound() == Marker.Bound.EXACTLY) {
+                highTimestamp++;
+            }
+            Map<TopicPartition, OffsetAndTimestamp> offsets = findOffsetsForTimestamp(consumer, endOffsets, highTimestamp);
+            for (Map.Entry<TopicPartition, OffsetAndTimestamp> entry : offsets.entrySet()) {
+                if (entry.getValue() != null) {
+                    endOffsets.put(entry.getKey(), min(endOffsets.get(entry.getKey()), entry.getValue().offset()));
+                }
+            }
+        }
+    }
+
+    private static Optional<Range> getTimestampRange(TupleDomain<ColumnHandle> constraint)
+    {
+        if (!constraint.getDomains().isPresent() || constraint.getDomains().get().isEmpty()) {
+            return Optional.empty();
+        }
+        // the constraint of the table handle only holds the message timestamp
+        Domain domain = constraint.getDomains().get().values().iterator().next();
+        // messages without timestamp have a null timestamp and cannot be found by timestamp
+        if (domain.isNullAllowed() || domain.getValues().isNone() || domain.getValues().isAll()) {
+            return Optional.empty();
+        }
+        return Optional.of(domain.getValues().getRanges().getSpan());
+    }
+
+    private static Map<TopicPartition, OffsetAndTimestamp> findOffsetsForTimestamp(KafkaConsumer<byte[], byte[]> consumer, Map<TopicPartition, Long> offsets, long timestamp)
+    {
+        return consumer.offsetsForTimes(offsets.keySet().stream()
+                .collect(toImmutableMap(identity(), topicPartition -> timestamp)));
+    }
+
     private static String readSchema(String dataSchemaLocation)
     {
         InputStream inputStream = null;
@@ -181,31 +264,4 @@ public class KafkaSplitManager
         }
         return true;
     }
-
-    private static long[] findAllOffsets(SimpleConsumer consumer, String topicName, int partitionId)
-    {
-        TopicAndPartition topicAndPartition = new TopicAndPartition(topicName, partitionId);
-
-        // The API implies that this will always return all of the offsets. So it seems a partition can not have
-        // more than Integer.MAX_VALUE-1 segments.
-        //
-        // This also assumes that the lowest value returned will be the first segment available. So if segments have been dropped off, this value
-        // should not be 0.
-        PartitionOffsetRequestInfo partitionOffsetRequestInfo = new PartitionOffsetRequestInfo(kafka.api.OffsetRequest.LatestTime(), Integer.MAX_VALUE);
-        OffsetRequest offsetRequest = new OffsetRequest(ImmutableMap.of(topicAndPartition, partitionOffsetRequestInfo), kafka.api.OffsetRequest.CurrentVersion(), consumer.clientId());
-        OffsetResponse offsetResponse = consumer.getOffsetsBefore(offsetRequest);
-
-        if (offsetResponse.hasError()) {
-            short errorCode = offsetResponse.errorCode(topicName, partitionId);
-            throw new RuntimeException("could not fetch data from Kafka, error code is '" + errorCode + "'");
-        }
-
-        return offsetResponse.offsets(topicName, partitionId);
-    }
-
-    private static <T> T selectRandom(Iterable<T> iterable)
-    {
-        List<T> list = ImmutableList.copyOf(iterable);
-        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
-    }
 }
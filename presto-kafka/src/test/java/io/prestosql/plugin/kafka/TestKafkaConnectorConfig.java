@@ -32,7 +32,10 @@ public class TestKafkaConnectorConfig
                 .setDefaultSchema("default")
                 .setTableNames("")
                 .setTableDescriptionDir(new File("etc/kafka/"))
-                .setHideInternalColumns(true));
+                .setHideInternalColumns(true)
+                .setMessagesPerSplit(100_000)
+                .setMaxPollRecords(10_000)
+                .setTimestampUpperBoundPushDownEnabled(false));
     }
 
     @Test
@@ -46,6 +49,9 @@ public class TestKafkaConnectorConfig
                 .put("kafka.connect-timeout", "1h")
                 .put("kafka.buffer-size", "1MB")
                 .put("kafka.hide-internal-columns", "false")
+                .put("kafka.messages-per-split", "1000")
+                .put("kafka.max-poll-records", "100")
+                .put("kafka.timestamp-upper-bound-push-down-enabled", "true")
                 .build();
 
         KafkaConnectorConfig expected = new KafkaConnectorConfig()
@@ -55,7 +61,10 @@ public class TestKafkaConnectorConfig
                 .setNodes("localhost:12345, localhost:23456")
                 .setKafkaConnectTimeout("1h")
                 .setKafkaBufferSize("1MB")
-                .setHideInternalColumns(false);
+                .setHideInternalColumns(false)
+                .setMessagesPerSplit(1000)
+                .setMaxPollRecords(100)
+                .setTimestampUpperBoundPushDownEnabled(true);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
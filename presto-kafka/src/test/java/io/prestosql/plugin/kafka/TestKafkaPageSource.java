@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.decoder.csv.CsvRowDecoder;
+import io.prestosql.decoder.dummy.DummyRowDecoder;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.record.TimestampType;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.MESSAGE_FIELD;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.PARTITION_OFFSET_FIELD;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.TIMESTAMP_FIELD;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class TestKafkaPageSource
+{
+    private static final String TOPIC = "test";
+    private static final int PARTITION = 1;
+
+    private static final KafkaColumnHandle ID_COLUMN = new KafkaColumnHandle(0, "id", BIGINT, "0", null, null, false, false, false);
+    private static final KafkaColumnHandle NAME_COLUMN = new KafkaColumnHandle(1, "name", VARCHAR, "1", null, null, false, false, false);
+    private static final List<KafkaColumnHandle> COLUMNS = ImmutableList.of(
+            ID_COLUMN,
+            NAME_COLUMN,
+            PARTITION_OFFSET_FIELD.getColumnHandle(2, false),
+            TIMESTAMP_FIELD.getColumnHandle(3, false),
+            MESSAGE_FIELD.getColumnHandle(4, false));
+
+    @Test
+    public void testReadSplitRange()
+    {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        KafkaPageSource pageSource = createPageSource(consumer, 2, 7);
+        for (int offset = 0; offset < 10; offset++) {
+            // the message at offset 4 was written without a timestamp
+            consumer.addRecord(createRecord(offset, offset == 4 ? -1 : 1000 + offset));
+        }
+
+        Page page = pageSource.getNextPage();
+        assertEquals(page.getPositionCount(), 5);
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            long offset = 2 + position;
+            assertEquals(BIGINT.getLong(page.getBlock(0), position), offset);
+            assertEquals(VARCHAR.getSlice(page.getBlock(1), position).toStringUtf8(), "name" + offset);
+            assertEquals(BIGINT.getLong(page.getBlock(2), position), offset);
+            Block timestamps = page.getBlock(3);
+            if (offset == 4) {
+                assertTrue(timestamps.isNull(position));
+            }
+            else {
+                assertEquals(TIMESTAMP.getLong(timestamps, position), 1000 + offset);
+            }
+            assertEquals(VARCHAR.getSlice(page.getBlock(4), position).toStringUtf8(), offset + ",name" + offset);
+        }
+
+        // the messages past the end of the split are not read
+        assertNull(pageSource.getNextPage());
+        assertTrue(pageSource.isFinished());
+        assertEquals(pageSource.getCompletedBytes(), 5 * 7);
+
+        pageSource.close();
+        assertTrue(consumer.closed());
+    }
+
+    @Test
+    public void testSplitEndsAtPosition()
+    {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        KafkaPageSource pageSource = createPageSource(consumer, 0, 3);
+        for (int offset = 0; offset < 3; offset++) {
+            consumer.addRecord(createRecord(offset, 1000 + offset));
+        }
+
+        Page page = pageSource.getNextPage();
+        assertEquals(page.getPositionCount(), 3);
+        assertFalse(pageSource.isFinished());
+
+        // the position reached the end of the split, so the consumer is not polled again
+        assertNull(pageSource.getNextPage());
+        assertTrue(pageSource.isFinished());
+        pageSource.close();
+    }
+
+    @Test
+    public void testNoMessagesWithinPollTimeout()
+    {
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        KafkaPageSource pageSource = createPageSource(consumer, 0, 3);
+
+        PrestoException exception = expectThrows(PrestoException.class, pageSource::getNextPage);
+        assertTrue(exception.getMessage().startsWith("No messages received from topic 'test', partition '1'"), exception.getMessage());
+        pageSource.close();
+    }
+
+    private static KafkaPageSource createPageSource(MockConsumer<byte[], byte[]> consumer, long start, long end)
+    {
+        KafkaSplit split = new KafkaSplit(TOPIC, DummyRowDecoder.NAME, "csv", Optional.empty(), Optional.empty(), PARTITION, start, end,
+                HostAddress.fromParts("localhost", 9092));
+        return new KafkaPageSource(split, consumer, 10, COLUMNS, new DummyRowDecoder(), new CsvRowDecoder(ImmutableSet.of(ID_COLUMN, NAME_COLUMN)));
+    }
+
+    private static ConsumerRecord<byte[], byte[]> createRecord(long offset, long timestamp)
+    {
+        byte[] value = (offset + ",name" + offset).getBytes(UTF_8);
+        return new ConsumerRecord<>(TOPIC, PARTITION, offset, timestamp, TimestampType.CREATE_TIME, 0, -1, value.length, null, value);
+    }
+}
@@ -114,4 +114,25 @@ public class TestManySegments
 
         assertEquals(result, expected);
     }
+
+    @Test
+    public void testManySplits()
+    {
+        try (StandaloneQueryRunner splitQueryRunner = new StandaloneQueryRunner(SESSION)) {
+            // each partition is read by many splits of 1000 offsets
+            TestUtils.installKafkaPlugin(embeddedKafka, splitQueryRunner,
+                    ImmutableMap.<SchemaTableName, KafkaTopicDescription>builder()
+                            .put(createEmptyTopicDescription(topicName, new SchemaTableName("default", topicName)))
+                            .build(),
+                    1000);
+
+            MaterializedResult result = splitQueryRunner.execute("SELECT count(_message), count(DISTINCT _partition_offset), count(DISTINCT _segment_start) from " + topicName);
+
+            MaterializedResult expected = MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT, BigintType.BIGINT, BigintType.BIGINT)
+                    .row(100000L, 100000L, 100L)
+                    .build();
+
+            assertEquals(result, expected);
+        }
+    }
 }
@@ -139,4 +139,22 @@ public class TestMinimalFunctionality
 
         assertEquals(result, expected);
     }
+
+    @Test
+    public void testTimestampPushDown()
+    {
+        int count = 100;
+        createMessages(topicName, count);
+
+        // no message is found at or after the lower bound
+        MaterializedResult result = queryRunner.execute("SELECT count(1) from " + topicName + " WHERE _timestamp >= TIMESTAMP '2100-01-01 00:00:00'");
+        assertEquals(result, MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT)
+                .row(0L)
+                .build());
+
+        result = queryRunner.execute("SELECT count(1) from " + topicName + " WHERE _timestamp < TIMESTAMP '2100-01-01 00:00:00' OR _timestamp IS NULL");
+        assertEquals(result, MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT)
+                .row((long) count)
+                .build());
+    }
 }
@@ -47,6 +47,11 @@ public final class TestUtils
     }
 
     public static void installKafkaPlugin(EmbeddedKafka embeddedKafka, QueryRunner queryRunner, Map<SchemaTableName, KafkaTopicDescription> topicDescriptions)
+    {
+        installKafkaPlugin(embeddedKafka, queryRunner, topicDescriptions, 10_000);
+    }
+
+    public static void installKafkaPlugin(EmbeddedKafka embeddedKafka, QueryRunner queryRunner, Map<SchemaTableName, KafkaTopicDescription> topicDescriptions, int messagesPerSplit)
     {
         KafkaPlugin kafkaPlugin = new KafkaPlugin();
         kafkaPlugin.setTableDescriptionSupplier(() -> topicDescriptions);
@@ -56,6 +61,7 @@ public final class TestUtils
                 "kafka.nodes", embeddedKafka.getConnectString(),
                 "kafka.table-names", Joiner.on(",").join(topicDescriptions.keySet()),
                 "kafka.connect-timeout", "120s",
+                "kafka.messages-per-split", String.valueOf(messagesPerSplit),
                 "kafka.default-schema", "default");
         queryRunner.createCatalog("kafka", "kafka", kafkaConfig);
     }
@@ -144,7 +144,9 @@ public final class SystemSessionProperties
     public static final String ENABLE_EXECUTION_PLAN_CACHE = "enable_execution_plan_cache";
     public static final String ENABLE_CROSS_REGION_DYNAMIC_FILTER = "cross_region_dynamic_filter_enabled";
     public static final String ENABLE_HEURISTICINDEX_FILTER = "heuristicindex_filter_enabled";
+    public static final String HEURISTICINDEX_FILTER_DISABLE_UNUSED_AFTER_SPLITS = "heuristicindex_filter_disable_unused_after_splits";
     public static final String ENABLE_STAR_TREE_INDEX = "enable_star_tree_index";
+    public static final String CUBE_INCREMENTAL_REFRESH_ENABLED = "cube_incremental_refresh_enabled";
     public static final String PUSH_TABLE_THROUGH_SUBQUERY = "push_table_through_subquery";
     public static final String OPTIMIZE_DYNAMIC_FILTER_GENERATION = "optimize_dynamic_filter_generation";
     public static final String TRANSFORM_SELF_JOIN_TO_GROUPBY = "transform_self_join_to_groupby";
@@ -685,6 +687,15 @@ public final class SystemSessionProperties
                         "Enable heuristic index filter",
                         hetuConfig.isFilterEnabled(),
                         false),
+                new PropertyMetadata<>(
+                        HEURISTICINDEX_FILTER_DISABLE_UNUSED_AFTER_SPLITS,
+                        "Stop using an index type for the rest of the query if it did not filter any of this many splits, 0 to always use it",
+                        INTEGER,
+                        Integer.class,
+                        hetuConfig.getIndexDisableUnusedAfterSplits(),
+                        false,
+                        value -> validateIntegerValue(value, HEURISTICINDEX_FILTER_DISABLE_UNUSED_AFTER_SPLITS, 0, false),
+                        object -> object),
                 booleanProperty(
                         PUSH_TABLE_THROUGH_SUBQUERY,
                         "Allow pushing outer tables into subqueries if there is a join between the two",
@@ -725,6 +736,11 @@ public final class SystemSessionProperties
                         "Enable star-tree index",
                         featuresConfig.isEnableStarTreeIndex(),
                         false),
+                booleanProperty(
+                        CUBE_INCREMENTAL_REFRESH_ENABLED,
+                        "Allow inserting new data ranges into cubes whose source table was modified, and using them for queries within the ranges they cover",
+                        featuresConfig.isCubeIncrementalRefreshEnabled(),
+                        false),
                 booleanProperty(
                         LIST_BUILT_IN_FUNCTIONS_ONLY,
                         "Only List built-in functions in SHOW FUNCTIONS",
@@ -1279,6 +1295,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(ENABLE_HEURISTICINDEX_FILTER, Boolean.class);
     }
 
+    public static int getHeuristicIndexFilterDisableUnusedAfterSplits(Session session)
+    {
+        return session.getSystemProperty(HEURISTICINDEX_FILTER_DISABLE_UNUSED_AFTER_SPLITS, Integer.class);
+    }
+
     public static boolean shouldEnableTablePushdown(Session session)
     {
         return session.getSystemProperty(PUSH_TABLE_THROUGH_SUBQUERY, Boolean.class);
@@ -1319,6 +1340,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(ENABLE_STAR_TREE_INDEX, Boolean.class);
     }
 
+    public static boolean isCubeIncrementalRefreshEnabled(Session session)
+    {
+        return session.getSystemProperty(CUBE_INCREMENTAL_REFRESH_ENABLED, Boolean.class);
+    }
+
     public static boolean isListBuiltInFunctionsOnly(Session session)
     {
         return session.getSystemProperty(LIST_BUILT_IN_FUNCTIONS_ONLY, Boolean.class);
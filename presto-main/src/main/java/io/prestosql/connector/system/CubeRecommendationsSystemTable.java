@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.connector.system;
+
+import com.google.common.collect.ImmutableList;
+import io.hetu.core.spi.cube.CubeMetadata;
+import io.hetu.core.spi.cube.CubeStatement;
+import io.hetu.core.spi.cube.io.CubeMetaStore;
+import io.prestosql.cube.CubeAdvisor;
+import io.prestosql.cube.CubeManager;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.InMemoryRecordSet;
+import io.prestosql.spi.connector.RecordCursor;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.connector.SystemTable;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.TypeSignatureParameter;
+import io.prestosql.spi.type.VarcharType;
+
+import javax.inject.Inject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.cube.CubeManager.STAR_TREE;
+import static io.prestosql.metadata.MetadataUtil.TableMetadataBuilder.tableMetadataBuilder;
+import static io.prestosql.spi.connector.SystemTable.Distribution.SINGLE_COORDINATOR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.StandardTypes.ARRAY;
+import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The cubes recommended by the {@link CubeAdvisor}, the most beneficial first.
+ * Candidates which are already covered by an existing cube are not listed.
+ */
+public class CubeRecommendationsSystemTable
+        implements SystemTable
+{
+    public static final SchemaTableName CUBE_RECOMMENDATIONS_TABLE_NAME = new SchemaTableName("runtime", "cube_recommendations");
+
+    private final ConnectorTableMetadata cubeRecommendationsTable;
+    private final CubeManager cubeManager;
+
+    @Inject
+    public CubeRecommendationsSystemTable(Metadata metadata, CubeManager cubeManager)
+    {
+        this.cubeRecommendationsTable = tableMetadataBuilder(CUBE_RECOMMENDATIONS_TABLE_NAME)
+                .column("cube_name", createUnboundedVarcharType())
+                .column("source_table", createUnboundedVarcharType())
+                .column("group_columns", metadata.getFunctionAndTypeManager().getParameterizedType(ARRAY, ImmutableList.of(TypeSignatureParameter.of(createUnboundedVarcharType().getTypeSignature()))))
+                .column("aggregations", metadata.getFunctionAndTypeManager().getParameterizedType(ARRAY, ImmutableList.of(TypeSignatureParameter.of(createUnboundedVarcharType().getTypeSignature()))))
+                .column("query_count", BIGINT)
+                .column("source_rows", DOUBLE)
+                .column("estimated_cube_rows", DOUBLE)
+                .column("estimated_benefit", DOUBLE)
+                .column("create_cube_statement", createUnboundedVarcharType())
+                .build();
+        this.cubeManager = requireNonNull(cubeManager, "cubeManager is null");
+    }
+
+    @Override
+    public Distribution getDistribution()
+    {
+        return SINGLE_COORDINATOR;
+    }
+
+    @Override
+    public ConnectorTableMetadata getTableMetadata()
+    {
+        return cubeRecommendationsTable;
+    }
+
+    @Override
+    public RecordCursor cursor(ConnectorTransactionHandle transactionHandle, ConnectorSession session, TupleDomain<Integer> constraint)
+    {
+        InMemoryRecordSet.Builder table = InMemoryRecordSet.builder(cubeRecommendationsTable);
+        Optional<CubeMetaStore> cubeMetaStore = cubeManager.getMetaStore(STAR_TREE);
+        for (CubeAdvisor.Candidate candidate : cubeManager.getCubeAdvisor().getRecommendations()) {
+            if (cubeMetaStore.isPresent() && isCovered(cubeMetaStore.get(), candidate)) {
+                continue;
+            }
+            table.addRow(
+                    candidate.getCubeName(),
+                    candidate.getSourceTable(),
+                    createStringsBlock(candidate.getDimensions()),
+                    createStringsBlock(candidate.getAggregations().stream().map(Object::toString).collect(toImmutableList())),
+                    candidate.getQueryCount(),
+                    toNullable(candidate.getSourceRows()),
+                    toNullable(candidate.getEstimatedCubeRows()),
+                    toNullable(candidate.getEstimatedBenefit()),
+                    candidate.getCreateCubeStatement());
+        }
+        return table.build().cursor();
+    }
+
+    private static boolean isCovered(CubeMetaStore cubeMetaStore, CubeAdvisor.Candidate candidate)
+    {
+        CubeStatement.Builder statement = CubeStatement.newBuilder()
+                .from(candidate.getSourceTable())
+                .groupBy(candidate.getDimensions().toArray(new String[0]));
+        candidate.getDimensions().forEach(statement::select);
+        candidate.getAggregations().forEach(statement::aggregate);
+        List<CubeMetadata> cubes = cubeMetaStore.getMetadataList(candidate.getSourceTable());
+        return !CubeMetadata.filter(cubes, statement.build()).isEmpty();
+    }
+
+    private static Double toNullable(double value)
+    {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static Block createStringsBlock(Collection<String> values)
+    {
+        VarcharType varchar = createUnboundedVarcharType();
+        BlockBuilder builder = varchar.createBlockBuilder(null, values.size());
+        for (String value : values) {
+            varchar.writeString(builder, value);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.connector.system;
+
+import io.hetu.core.spi.cube.CubeMetadata;
+import io.hetu.core.spi.cube.io.CubeMetaStore;
+import io.prestosql.cube.CubeAdvisor;
+import io.prestosql.cube.CubeManager;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.InMemoryRecordSet;
+import io.prestosql.spi.connector.RecordCursor;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.connector.SystemTable;
+import io.prestosql.spi.predicate.TupleDomain;
+
+import javax.inject.Inject;
+
+import java.util.Optional;
+
+import static io.prestosql.cube.CubeManager.STAR_TREE;
+import static io.prestosql.metadata.MetadataUtil.TableMetadataBuilder.tableMetadataBuilder;
+import static io.prestosql.spi.connector.SystemTable.Distribution.SINGLE_COORDINATOR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The number of queries answered by each cube since the coordinator started, as recorded by the {@link CubeAdvisor}.
+ * Cubes which were never used have a query count of 0.
+ */
+public class CubeUsageSystemTable
+        implements SystemTable
+{
+    public static final SchemaTableName CUBE_USAGE_TABLE_NAME = new SchemaTableName("runtime", "cube_usage");
+
+    private static final ConnectorTableMetadata CUBE_USAGE_TABLE = tableMetadataBuilder(CUBE_USAGE_TABLE_NAME)
+            .column("cube_name", createUnboundedVarcharType())
+            .column("source_table", createUnboundedVarcharType())
+            .column("cube_status", createUnboundedVarcharType())
+            .column("query_count", BIGINT)
+            .column("last_used", TIMESTAMP)
+            .build();
+
+    private final CubeManager cubeManager;
+
+    @Inject
+    public CubeUsageSystemTable(CubeManager cubeManager)
+    {
+        this.cubeManager = requireNonNull(cubeManager, "cubeManager is null");
+    }
+
+    @Override
+    public Distribution getDistribution()
+    {
+        return SINGLE_COORDINATOR;
+    }
+
+    @Override
+    public ConnectorTableMetadata getTableMetadata()
+    {
+        return CUBE_USAGE_TABLE;
+    }
+
+    @Override
+    public RecordCursor cursor(ConnectorTransactionHandle transactionHandle, ConnectorSession session, TupleDomain<Integer> constraint)
+    {
+        InMemoryRecordSet.Builder table = InMemoryRecordSet.builder(CUBE_USAGE_TABLE);
+        Optional<CubeMetaStore> cubeMetaStore = cubeManager.getMetaStore(STAR_TREE);
+        if (!cubeMetaStore.isPresent()) {
+            return table.build().cursor();
+        }
+        for (CubeMetadata cube : cubeMetaStore.get().getAllCubes()) {
+            Optional<CubeAdvisor.CubeUsage> usage = cubeManager.getCubeAdvisor().getCubeUsage(cube.getCubeName());
+            table.addRow(
+                    cube.getCubeName(),
+                    cube.getSourceTableName(),
+                    cube.getCubeStatus().toString(),
+                    usage.map(CubeAdvisor.CubeUsage::getQueryCount).orElse(0L),
+                    usage.map(CubeAdvisor.CubeUsage::getLastUsedTime).orElse(null));
+        }
+        return table.build().cursor();
+    }
+}
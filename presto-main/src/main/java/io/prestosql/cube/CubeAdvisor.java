@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.cube;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import io.hetu.core.spi.cube.aggregator.AggregationSignature;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Recommends cubes from the aggregations over table scans of the queries.
+ * <p>
+ * Every aggregation which is not answered by a cube is recorded as a candidate cube with the grouping and filter
+ * columns of the query as its group, the candidates with the same source table and group are merged and collect
+ * the aggregations of all their queries. The size of a candidate cube is estimated from the table statistics as
+ * the product of the number of distinct values of its group columns, and its benefit as the number of rows its
+ * queries would not have read from the source table. The advisor also counts how often every cube was used to
+ * answer a query, since the coordinator started.
+ * <p>
+ * The optimizer may apply its rules more than once to the same query, so the candidates and cubes recorded for
+ * every query are remembered for a while to count each query only once.
+ */
+@ThreadSafe
+public class CubeAdvisor
+{
+    private static final int MAX_TRACKED_QUERIES = 10_000;
+
+    private final boolean enabled;
+    @GuardedBy("this")
+    private final Map<CandidateKey, Candidate> candidates;
+    private final Map<String, CubeUsage> cubeUsages = new ConcurrentHashMap<>();
+    // query id -> the candidate keys and cube names already recorded for the query
+    private final LoadingCache<String, Set<Object>> queryRecords = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TRACKED_QUERIES)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build(CacheLoader.from(() -> ConcurrentHashMap.newKeySet()));
+
+    public CubeAdvisor(boolean enabled, int maxCandidates)
+    {
+        checkArgument(maxCandidates > 0, "maxCandidates must be positive");
+        this.enabled = enabled;
+        this.candidates = new LinkedHashMap<CandidateKey, Candidate>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CandidateKey, Candidate> eldest)
+            {
+                return size() > maxCandidates;
+            }
+        };
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Record an aggregation of a query which could be answered by a cube
+     *
+     * @param queryId the query, an aggregation is counted once per query
+     * @param sourceTable the fully qualified name of the table
+     * @param dimensions the grouping and filter columns of the aggregation
+     * @param aggregations the aggregations
+     * @param sizeEstimator estimates the size of the source table and the cube, it is only called for new candidates
+     */
+    public void recordAggregation(String queryId, String sourceTable, Set<String> dimensions, Collection<AggregationSignature> aggregations, Supplier<SizeEstimate> sizeEstimator)
+    {
+        if (!enabled) {
+            return;
+        }
+        CandidateKey key = new CandidateKey(sourceTable, ImmutableSortedSet.copyOf(dimensions));
+        Candidate candidate;
+        synchronized (this) {
+            candidate = candidates.get(key);
+        }
+        if (candidate == null) {
+            // table statistics are fetched outside the lock
+            Candidate newCandidate = new Candidate(key, sizeEstimator.get());
+            synchronized (this) {
+                candidate = candidates.computeIfAbsent(key, ignored -> newCandidate);
+            }
+        }
+        candidate.record(aggregations, isFirstRecord(queryId, key));
+    }
+
+    /**
+     * Record that a cube was used to answer a query
+     *
+     * @param queryId the query, a cube is counted once per query
+     * @param cubeName the name of the cube
+     */
+    public void recordCubeUsage(String queryId, String cubeName)
+    {
+        if (!enabled || !isFirstRecord(queryId, cubeName)) {
+            return;
+        }
+        cubeUsages.computeIfAbsent(cubeName, name -> new CubeUsage()).record(System.currentTimeMillis());
+    }
+
+    private boolean isFirstRecord(String queryId, Object recorded)
+    {
+        return queryRecords.getUnchecked(queryId).add(recorded);
+    }
+
+    public Optional<CubeUsage> getCubeUsage(String cubeName)
+    {
+        return Optional.ofNullable(cubeUsages.get(cubeName));
+    }
+
+    /**
+     * Get the candidate cubes, the most beneficial first. The candidates without size estimate come last.
+     */
+    public List<Candidate> getRecommendations()
+    {
+        List<Candidate> snapshot;
+        synchronized (this) {
+            snapshot = ImmutableList.copyOf(candidates.values());
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparing((Candidate candidate) -> Double.isNaN(candidate.getEstimatedBenefit()))
+                        .thenComparing(Comparator.comparingDouble(Candidate::getEstimatedBenefit).reversed())
+                        .thenComparing(Comparator.comparingLong(Candidate::getQueryCount).reversed()))
+                .collect(toImmutableList());
+    }
+
+    public static class SizeEstimate
+    {
+        public static final SizeEstimate UNKNOWN = new SizeEstimate(Double.NaN, Double.NaN);
+
+        private final double sourceRows;
+        private final double cubeRows;
+
+        public SizeEstimate(double sourceRows, double cubeRows)
+        {
+            this.sourceRows = sourceRows;
+            this.cubeRows = cubeRows;
+        }
+
+        public double getSourceRows()
+        {
+            return sourceRows;
+        }
+
+        public double getCubeRows()
+        {
+            return cubeRows;
+        }
+    }
+
+    @ThreadSafe
+    public static class Candidate
+    {
+        private final CandidateKey key;
+        private final SizeEstimate sizeEstimate;
+        @GuardedBy("this")
+        private final SortedSet<AggregationSignature> aggregations = new TreeSet<>();
+        @GuardedBy("this")
+        private long queryCount;
+
+        private Candidate(CandidateKey key, SizeEstimate sizeEstimate)
+        {
+            this.key = key;
+            this.sizeEstimate = requireNonNull(sizeEstimate, "sizeEstimate is null");
+        }
+
+        private synchronized void record(Collection<AggregationSignature> queryAggregations, boolean newQuery)
+        {
+            aggregations.addAll(queryAggregations);
+            if (newQuery) {
+                queryCount++;
+            }
+        }
+
+        public String getSourceTable()
+        {
+            return key.sourceTable;
+        }
+
+        public SortedSet<String> getDimensions()
+        {
+            return key.dimensions;
+        }
+
+        public synchronized List<AggregationSignature> getAggregations()
+        {
+            return ImmutableList.copyOf(aggregations);
+        }
+
+        public synchronized long getQueryCount()
+        {
+            return queryCount;
+        }
+
+        public double getSourceRows()
+        {
+            return sizeEstimate.getSourceRows();
+        }
+
+        public double getEstimatedCubeRows()
+        {
+            return sizeEstimate.getCubeRows();
+        }
+
+        /**
+         * The number of rows the queries of this candidate would not have read with the cube
+         */
+        public double getEstimatedBenefit()
+        {
+            return getQueryCount() * Math.max(0, sizeEstimate.getSourceRows() - sizeEstimate.getCubeRows());
+        }
+
+        public String getCubeName()
+        {
+            StringBuilder name = new StringBuilder(key.sourceTable);
+            key.dimensions.forEach(dimension -> name.append('_').append(dimension));
+            return name.append("_cube").toString();
+        }
+
+        public String getCreateCubeStatement()
+        {
+            return "CREATE CUBE " + getCubeName() + " ON " + key.sourceTable + " WITH (" +
+                    "AGGREGATIONS = (" + getAggregations().stream().map(AggregationSignature::toString).collect(joining(", ")) + "), " +
+                    "GROUP = (" + String.join(", ", key.dimensions) + "))";
+        }
+    }
+
+    @ThreadSafe
+    public static class CubeUsage
+    {
+        @GuardedBy("this")
+        private long queryCount;
+        @GuardedBy("this")
+        private long lastUsedTime;
+
+        private synchronized void record(long time)
+        {
+            queryCount++;
+            lastUsedTime = time;
+        }
+
+        public synchronized long getQueryCount()
+        {
+            return queryCount;
+        }
+
+        public synchronized long getLastUsedTime()
+        {
+            return lastUsedTime;
+        }
+    }
+
+    private static class CandidateKey
+    {
+        private final String sourceTable;
+        private final SortedSet<String> dimensions;
+
+        private CandidateKey(String sourceTable, SortedSet<String> dimensions)
+        {
+            this.sourceTable = requireNonNull(sourceTable, "sourceTable is null");
+            this.dimensions = requireNonNull(dimensions, "dimensions is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CandidateKey that = (CandidateKey) o;
+            return sourceTable.equals(that.sourceTable) &&
+                    dimensions.equals(that.dimensions);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(sourceTable, dimensions);
+        }
+    }
+}
@@ -41,11 +41,13 @@ public class CubeManager
     private final Map<String, CubeMetaStore> cubeMetaStores = new HashMap<>();
     private final HetuMetaStoreManager metaStoreManager;
     private final Properties properties = new Properties();
+    private final CubeAdvisor cubeAdvisor;
 
     @Inject
     public CubeManager(FeaturesConfig config, HetuMetaStoreManager metaStoreManager)
     {
         this.metaStoreManager = requireNonNull(metaStoreManager, "metaStoreManager is null");
+        this.cubeAdvisor = new CubeAdvisor(config.isCubeAdvisorEnabled(), config.getCubeAdvisorMaxCandidates());
         properties.setProperty("cache-ttl", Long.toString(config.getCubeMetadataCacheTtl().toMillis()));
         properties.setProperty("cache-size", Long.toString(config.getCubeMetadataCacheSize()));
     }
@@ -53,6 +55,7 @@ public class CubeManager
     private CubeManager(HetuMetaStoreManager hetuMetaStoreManager)
     {
         this.metaStoreManager = requireNonNull(hetuMetaStoreManager, "metaStoreManager is null");
+        this.cubeAdvisor = new CubeAdvisor(false, 1);
     }
 
     public static CubeManager getNoOpCubeManager()
@@ -72,6 +75,11 @@ public class CubeManager
         return Optional.ofNullable(this.cubeProviders.get(name));
     }
 
+    public CubeAdvisor getCubeAdvisor()
+    {
+        return cubeAdvisor;
+    }
+
     public synchronized Optional<CubeMetaStore> getMetaStore(String name)
     {
         CubeMetaStore cubeMetaStore = this.cubeMetaStores.get(name);
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.cube;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.type.StandardTypes;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.TypeSignature;
+import io.prestosql.spi.type.TypeSignatureParameter;
+import io.prestosql.sql.tree.Cast;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.QualifiedName;
+
+import static io.hetu.core.spi.cube.CubeAggregateFunction.APPROX_DISTINCT;
+import static io.hetu.core.spi.cube.CubeAggregateFunction.APPROX_PERCENTILE;
+import static io.prestosql.spi.type.TypeSignature.parseTypeSignature;
+
+/**
+ * Cubes store approx_distinct and approx_percentile aggregations as serialized sketches, a HyperLogLog
+ * and a quantile digest, in varbinary columns. The sketches of the cube rows are merged at query time
+ * and the result is computed from the merged sketch.
+ */
+public class CubeSketchFunctions
+{
+    public static final String MERGE = "merge";
+    public static final String CARDINALITY = "cardinality";
+    public static final String VALUE_AT_QUANTILE = "value_at_quantile";
+
+    private static final String APPROX_SET = "approx_set";
+    private static final String QDIGEST_AGG = "qdigest_agg";
+
+    private CubeSketchFunctions()
+    {
+        //utility class
+    }
+
+    public static boolean isSketchFunction(String aggregationFunction)
+    {
+        return APPROX_DISTINCT.getName().equals(aggregationFunction) || APPROX_PERCENTILE.getName().equals(aggregationFunction);
+    }
+
+    /**
+     * Create the aggregation building the sketch of the given column
+     */
+    public static FunctionCall createSketchAggregation(String aggregationFunction, Expression argument)
+    {
+        String sketchFunction = APPROX_DISTINCT.getName().equals(aggregationFunction) ? APPROX_SET : QDIGEST_AGG;
+        return new FunctionCall(QualifiedName.of(sketchFunction), ImmutableList.of(argument));
+    }
+
+    /**
+     * Create the expression serializing the sketch of the given column, as it is inserted into the cube
+     */
+    public static Expression createSerializedSketchAggregation(String aggregationFunction, Expression argument)
+    {
+        return new Cast(createSketchAggregation(aggregationFunction, argument), StandardTypes.VARBINARY);
+    }
+
+    /**
+     * Get the type of the sketch
+     *
+     * @param aggregationFunction approx_distinct or approx_percentile
+     * @param resultType the result type of the aggregation, which is the column type for approx_percentile
+     */
+    public static TypeSignature getSketchType(String aggregationFunction, Type resultType)
+    {
+        if (APPROX_DISTINCT.getName().equals(aggregationFunction)) {
+            return parseTypeSignature(StandardTypes.HYPER_LOG_LOG);
+        }
+        return new TypeSignature(StandardTypes.QDIGEST, TypeSignatureParameter.of(resultType.getTypeSignature()));
+    }
+}
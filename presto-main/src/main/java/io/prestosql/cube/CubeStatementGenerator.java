@@ -25,6 +25,7 @@ import io.prestosql.spi.relation.VariableReferenceExpression;
 import io.prestosql.sql.planner.optimizations.StarTreeAggregationRule;
 import io.prestosql.sql.relational.OriginalExpressionUtils;
 import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.Literal;
 import io.prestosql.sql.tree.LongLiteral;
 import io.prestosql.sql.tree.SymbolReference;
 
@@ -64,15 +65,12 @@ public class CubeStatementGenerator
                     signatures = createSignature(aggregation, symbol, null);
                 }
                 else if (arguments.size() == 1) {
-                    RowExpression argument = arguments.get(0);
-                    if (OriginalExpressionUtils.isExpression(argument)) {
-                        Expression argAsExpr = OriginalExpressionUtils.castToExpression(argument);
-                        if (argAsExpr instanceof SymbolReference) {
-                            signatures = createSignature(aggregation, symbol, symbolMappings.get(((SymbolReference) argAsExpr).getName()));
-                        }
-                    }
-                    else if (argument instanceof VariableReferenceExpression) {
-                        signatures = createSignature(aggregation, symbol, symbolMappings.get(((VariableReferenceExpression) argument).getName()));
+                    signatures = createSignature(aggregation, symbol, getMappedValue(arguments.get(0), symbolMappings));
+                }
+                else if (arguments.size() == 2 && StarTreeAggregationRule.APPROX_PERCENTILE.equals(aggregation.getFunctionCall().getDisplayName())) {
+                    // approx_percentile(column, percentage), any constant percentage can be computed from the cube
+                    if (getMappedValue(arguments.get(1), symbolMappings) instanceof Literal) {
+                        signatures = createSignature(aggregation, symbol, getMappedValue(arguments.get(0), symbolMappings));
                     }
                 }
                 if (signatures.isEmpty()) {
@@ -102,6 +100,20 @@ public class CubeStatementGenerator
         return builder.build();
     }
 
+    private static Object getMappedValue(RowExpression argument, Map<String, Object> symbolMappings)
+    {
+        if (OriginalExpressionUtils.isExpression(argument)) {
+            Expression argAsExpr = OriginalExpressionUtils.castToExpression(argument);
+            if (argAsExpr instanceof SymbolReference) {
+                return symbolMappings.get(((SymbolReference) argAsExpr).getName());
+            }
+        }
+        else if (argument instanceof VariableReferenceExpression) {
+            return symbolMappings.get(((VariableReferenceExpression) argument).getName());
+        }
+        return null;
+    }
+
     public static Map<Symbol, AggregationSignature> createSignature(AggregationNode.Aggregation aggregation, Symbol symbol, Object argument)
     {
         String aggregationName = aggregation.getFunctionCall().getDisplayName();
@@ -129,6 +141,14 @@ public class CubeStatementGenerator
                 // MAX aggregation
                 signature = Collections.singletonMap(symbol, AggregationSignature.max(columnName, distinct));
             }
+            else if (StarTreeAggregationRule.APPROX_DISTINCT.equals(aggregationName) && !distinct) {
+                // APPROX_DISTINCT aggregation
+                signature = Collections.singletonMap(symbol, AggregationSignature.approxDistinct(columnName));
+            }
+            else if (StarTreeAggregationRule.APPROX_PERCENTILE.equals(aggregationName) && !distinct) {
+                // APPROX_PERCENTILE aggregation
+                signature = Collections.singletonMap(symbol, AggregationSignature.approxPercentile(columnName));
+            }
         }
         else if (argument == null || (argument instanceof LongLiteral && ((LongLiteral) argument).getValue() == 1)) {
             // COUNT aggregation
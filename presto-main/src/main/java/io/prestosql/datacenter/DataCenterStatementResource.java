@@ -14,6 +14,7 @@
  */
 package io.prestosql.datacenter;
 
+import io.prestosql.Session;
 import io.prestosql.client.CrossRegionDynamicFilterRequest;
 import io.prestosql.client.CrossRegionDynamicFilterResponse;
 import io.prestosql.client.DataCenterRequest;
@@ -21,15 +22,25 @@ import io.prestosql.client.DataCenterResponse;
 import io.prestosql.client.DataCenterResponseType;
 import io.prestosql.dispatcher.DispatchExecutor;
 import io.prestosql.dispatcher.DispatchManager;
+import io.prestosql.execution.QueryIdGenerator;
 import io.prestosql.execution.QueryManager;
+import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.ExchangeClientSupplier;
+import io.prestosql.security.AccessControl;
 import io.prestosql.server.HttpRequestSessionContext;
 import io.prestosql.server.SessionContext;
+import io.prestosql.server.SessionSupplier;
 import io.prestosql.server.protocol.PagePublisherQueryManager;
 import io.prestosql.server.protocol.PagePublisherQueryRunner;
 import io.prestosql.server.protocol.PageSubscriber;
+import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.BlockEncodingSerde;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.QualifiedObjectName;
+import io.prestosql.spi.metadata.TableHandle;
 import io.prestosql.statestore.StateStoreProvider;
+import io.prestosql.transaction.TransactionManager;
 import io.prestosql.utils.HetuConfig;
 
 import javax.annotation.PreDestroy;
@@ -51,8 +62,14 @@ import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 
+import static io.prestosql.metadata.MetadataUtil.toCatalogSchemaTableName;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.prestosql.transaction.TransactionBuilder.transaction;
 import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
@@ -61,8 +78,15 @@ import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 @Path("/")
 public class DataCenterStatementResource
 {
+    private static final long UNKNOWN_TABLE_VERSION = -1L;
+
     private final PagePublisherQueryManager queryManager;
     private final int splitCount;
+    private final Metadata metadata;
+    private final TransactionManager transactionManager;
+    private final AccessControl accessControl;
+    private final SessionSupplier sessionSupplier;
+    private final QueryIdGenerator queryIdGenerator;
 
     @Inject
     public DataCenterStatementResource(
@@ -72,7 +96,12 @@ public class DataCenterStatementResource
             BlockEncodingSerde blockEncodingSerde,
             ExchangeClientSupplier exchangeClientSupplier,
             DispatchExecutor dispatchExecutor,
-            StateStoreProvider stateStoreProvider)
+            StateStoreProvider stateStoreProvider,
+            Metadata metadata,
+            TransactionManager transactionManager,
+            AccessControl accessControl,
+            SessionSupplier sessionSupplier,
+            QueryIdGenerator queryIdGenerator)
     {
         this.queryManager = new PagePublisherQueryManager(dispatchManager,
                 queryManager,
@@ -84,6 +113,11 @@ public class DataCenterStatementResource
         int noOfSplits = hetuConfig.getDataCenterSplits();
         // If the config value is out of range, use 5 as the default count
         this.splitCount = noOfSplits > 0 && noOfSplits <= 100 ? noOfSplits : 5;
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
+        this.accessControl = requireNonNull(accessControl, "accessControl is null");
+        this.sessionSupplier = requireNonNull(sessionSupplier, "sessionSupplier is null");
+        this.queryIdGenerator = requireNonNull(queryIdGenerator, "queryIdGenerator is null");
     }
 
     @PreDestroy
@@ -100,6 +134,60 @@ public class DataCenterStatementResource
         return Response.ok(this.splitCount).build();
     }
 
+    /**
+     * Get the version of a table, which is the last modification time reported by its connector for the table
+     * and for all its partitions, since inserting into an existing partition does not modify the table itself.
+     * The data center connectors of other clusters use it to validate their cached results of the table.
+     *
+     * @return the version of the table, -1 when the connector does not track the modifications of the table
+     */
+    @GET
+    @Path("/v1/dc/table/version/{catalog}/{schema}/{table}")
+    @Produces(APPLICATION_JSON)
+    public Response getTableVersion(
+            @PathParam("catalog") String catalog,
+            @PathParam("schema") String schema,
+            @PathParam("table") String table,
+            @Context HttpServletRequest servletRequest)
+    {
+        SessionContext context = new HttpRequestSessionContext(servletRequest);
+        Session session = sessionSupplier.createSession(queryIdGenerator.createNextQueryId(), context);
+        QualifiedObjectName tableName = new QualifiedObjectName(catalog, schema, table);
+        long version = transaction(transactionManager, accessControl)
+                .readOnly()
+                .singleStatement()
+                .execute(session, transactionSession -> {
+                    accessControl.checkCanShowColumnsMetadata(transactionSession.getRequiredTransactionId(), transactionSession.getIdentity(), toCatalogSchemaTableName(tableName));
+                    Optional<TableHandle> tableHandle = metadata.getTableHandle(transactionSession, tableName);
+                    if (!tableHandle.isPresent()) {
+                        return UNKNOWN_TABLE_VERSION;
+                    }
+                    try {
+                        long tableVersion = getModificationTime(transactionSession, tableHandle.get());
+                        // constraining the table to all its partitions lets the connector report the modifications of the partitions
+                        Optional<ConstraintApplicationResult<TableHandle>> partitions = metadata.applyFilter(transactionSession, tableHandle.get(), Constraint.alwaysTrue());
+                        if (tableVersion != UNKNOWN_TABLE_VERSION && partitions.isPresent()) {
+                            long partitionsVersion = getModificationTime(transactionSession, partitions.get().getHandle());
+                            tableVersion = partitionsVersion == UNKNOWN_TABLE_VERSION ? UNKNOWN_TABLE_VERSION : Math.max(tableVersion, partitionsVersion);
+                        }
+                        return tableVersion;
+                    }
+                    catch (PrestoException e) {
+                        if (e.getErrorCode().equals(NOT_SUPPORTED.toErrorCode())) {
+                            return UNKNOWN_TABLE_VERSION;
+                        }
+                        throw e;
+                    }
+                });
+        return Response.ok(version).build();
+    }
+
+    private long getModificationTime(Session session, TableHandle tableHandle)
+    {
+        LongSupplier modificationTime = metadata.getTableLastModifiedTimeSupplier(session, tableHandle);
+        return modificationTime == null ? UNKNOWN_TABLE_VERSION : modificationTime.getAsLong();
+    }
+
     @POST
     @Path("/v1/dc/statement/{globalQueryId}")
     @Produces(APPLICATION_JSON)
@@ -59,4 +59,10 @@ public class SingleHTTPSubscriber
     {
         this.asyncResponse.resume(toResponse(query, results));
     }
+
+    @Override
+    public void fail(Throwable cause)
+    {
+        this.asyncResponse.resume(cause);
+    }
 }
@@ -16,6 +16,7 @@ package io.prestosql.dispatcher;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
+import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.execution.QueryIdGenerator;
 import io.prestosql.execution.QueryInfo;
@@ -72,6 +73,7 @@ import static io.prestosql.util.StatementUtils.isTransactionControlStatement;
 import static io.prestosql.utils.StateUtils.isMultiCoordinatorEnabled;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class DispatchManager
 {
@@ -393,11 +395,13 @@ public class DispatchManager
         }
 
         if (stateUpdater == null) {
-            stateUpdater = new StateUpdater(stateStoreProvider, hetuConfig.getStateUpdateInterval());
+            // unchanged states are republished well before they expire on the other coordinators
+            Duration republishInterval = new Duration(hetuConfig.getStateExpireTime().toMillis() / 3, MILLISECONDS);
+            stateUpdater = new StateUpdater(stateStoreProvider, hetuConfig.getStateUpdateInterval(), hetuConfig.isIncrementalStateUpdateEnabled(), republishInterval);
         }
 
         if (stateFetcher == null) {
-            stateFetcher = new StateFetcher(stateStoreProvider, hetuConfig.getStateFetchInterval(), hetuConfig.getStateExpireTime());
+            stateFetcher = new StateFetcher(stateStoreProvider, hetuConfig.getStateFetchInterval(), hetuConfig.getStateExpireTime(), hetuConfig.isIncrementalStateUpdateEnabled());
         }
 
         // Start state updater
@@ -15,6 +15,7 @@ package io.prestosql.event;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
 import io.airlift.node.NodeInfo;
@@ -27,6 +28,7 @@ import io.prestosql.eventlistener.EventListenerManager;
 import io.prestosql.execution.Column;
 import io.prestosql.execution.ExecutionFailureInfo;
 import io.prestosql.execution.Input;
+import io.prestosql.execution.Output;
 import io.prestosql.execution.QueryInfo;
 import io.prestosql.execution.QueryState;
 import io.prestosql.execution.QueryStats;
@@ -63,9 +65,12 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static io.airlift.json.JsonCodec.listJsonCodec;
 import static io.prestosql.execution.QueryState.FAILED;
+import static io.prestosql.execution.QueryState.FINISHED;
 import static io.prestosql.execution.QueryState.QUEUED;
 import static io.prestosql.sql.planner.planprinter.PlanPrinter.textDistributedPlan;
 import static java.lang.Math.max;
@@ -77,6 +82,10 @@ import static java.util.Objects.requireNonNull;
 public class QueryMonitor
 {
     private static final Logger log = Logger.get(QueryMonitor.class);
+    // statements which change the data files of their target table
+    private static final Set<String> TABLE_DATA_UPDATE_TYPES = ImmutableSet.of("INSERT", "INSERT OVERWRITE", "UPDATE", "DELETE", "VACUUM");
+    // connectors like Hive report the names of the written partitions as their output metadata
+    private static final JsonCodec<List<String>> WRITTEN_PARTITIONS_CODEC = listJsonCodec(String.class);
 
     private final JsonCodec<StageInfo> stageInfoCodec;
     private final JsonCodec<OperatorStats> operatorStatsCodec;
@@ -209,9 +218,34 @@ public class QueryMonitor
                         ofEpochMilli(queryStats.getExecutionStartTime().getMillis()),
                         ofEpochMilli(queryStats.getEndTime() != null ? queryStats.getEndTime().getMillis() : 0)));
 
+        if (queryInfo.getState() == FINISHED && queryInfo.getOutput().isPresent() && TABLE_DATA_UPDATE_TYPES.contains(queryInfo.getUpdateType())) {
+            Output output = queryInfo.getOutput().get();
+            heuristicIndexerManager.tableDataUpdated(output.getCatalogName() + "." + output.getSchema() + "." + output.getTable(), getWrittenPartitions(queryInfo));
+        }
+
         logQueryTimeline(queryInfo);
     }
 
+    private static Optional<Set<String>> getWrittenPartitions(QueryInfo queryInfo)
+    {
+        Optional<String> outputMetadata = queryInfo.getQueryStats().getOperatorSummaries().stream()
+                .map(OperatorStats::getInfo)
+                .filter(TableFinishInfo.class::isInstance)
+                .map(TableFinishInfo.class::cast)
+                .findFirst()
+                .map(TableFinishInfo::getConnectorOutputMetadata);
+        if (!outputMetadata.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(ImmutableSet.copyOf(WRITTEN_PARTITIONS_CODEC.fromJson(outputMetadata.get())));
+        }
+        catch (IllegalArgumentException e) {
+            // the connector does not report written partitions
+            return Optional.empty();
+        }
+    }
+
     private QueryMetadata createQueryMetadata(QueryInfo queryInfo)
     {
         return new QueryMetadata(
@@ -171,6 +171,12 @@ public class CreateCubeTask
                 case MIN:
                     aggregations.put(cubeColumnName, AggregationSignature.min(argument, distinct));
                     break;
+                case APPROX_DISTINCT:
+                    aggregations.put(cubeColumnName, AggregationSignature.approxDistinct(argument));
+                    break;
+                case APPROX_PERCENTILE:
+                    aggregations.put(cubeColumnName, AggregationSignature.approxPercentile(argument));
+                    break;
                 default:
                     throw new PrestoException(NOT_SUPPORTED, format("Unsupported aggregation function : %s", aggFunctionName));
             }
@@ -495,6 +495,9 @@ public class QueryStateMachine
 
         long physicalWrittenDataSize = 0;
 
+        long totalIndexEvaluationTime = 0;
+        long indexFilteredSplits = 0;
+
         ImmutableList.Builder<StageGcStatistics> stageGcStatistics = ImmutableList.builder();
 
         boolean fullyBlocked = rootStage.isPresent();
@@ -543,6 +546,9 @@ public class QueryStateMachine
 
             physicalWrittenDataSize += stageStats.getPhysicalWrittenDataSize().toBytes();
 
+            totalIndexEvaluationTime += stageStats.getTotalIndexEvaluationTime().roundTo(MILLISECONDS);
+            indexFilteredSplits += stageStats.getIndexFilteredSplits();
+
             stageGcStatistics.add(stageStats.getGcInfo());
 
             completeInfo = completeInfo && stageInfo.isCompleteInfo();
@@ -617,6 +623,9 @@ public class QueryStateMachine
 
                 succinctBytes(physicalWrittenDataSize),
 
+                new Duration(totalIndexEvaluationTime, MILLISECONDS).convertToMostSuccinctTimeUnit(),
+                indexFilteredSplits,
+
                 stageGcStatistics.build(),
 
                 operatorStatsSummary.build());
@@ -1196,6 +1205,8 @@ public class QueryStateMachine
                 queryStats.getOutputDataSize(),
                 queryStats.getOutputPositions(),
                 queryStats.getPhysicalWrittenDataSize(),
+                queryStats.getTotalIndexEvaluationTime(),
+                queryStats.getIndexFilteredSplits(),
                 queryStats.getStageGcStatistics(),
                 ImmutableList.of()); // Remove the operator summaries as OperatorInfo (especially ExchangeClientStatus) can hold onto a large amount of memory
     }
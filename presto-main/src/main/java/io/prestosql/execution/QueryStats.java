@@ -101,6 +101,9 @@ public class QueryStats
 
     private final DataSize physicalWrittenDataSize;
 
+    private final Duration totalIndexEvaluationTime;
+    private final long indexFilteredSplits;
+
     private final List<StageGcStatistics> stageGcStatistics;
 
     private final List<OperatorStats> operatorSummaries;
@@ -169,6 +172,9 @@ public class QueryStats
 
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
+            @JsonProperty("totalIndexEvaluationTime") Duration totalIndexEvaluationTime,
+            @JsonProperty("indexFilteredSplits") long indexFilteredSplits,
+
             @JsonProperty("stageGcStatistics") List<StageGcStatistics> stageGcStatistics,
 
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
@@ -247,6 +253,10 @@ public class QueryStats
 
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "physicalWrittenDataSize is null");
 
+        this.totalIndexEvaluationTime = requireNonNull(totalIndexEvaluationTime, "totalIndexEvaluationTime is null");
+        checkArgument(indexFilteredSplits >= 0, "indexFilteredSplits is negative");
+        this.indexFilteredSplits = indexFilteredSplits;
+
         this.stageGcStatistics = ImmutableList.copyOf(requireNonNull(stageGcStatistics, "stageGcStatistics is null"));
 
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
@@ -553,6 +563,18 @@ public class QueryStats
         return physicalWrittenDataSize;
     }
 
+    @JsonProperty
+    public Duration getTotalIndexEvaluationTime()
+    {
+        return totalIndexEvaluationTime;
+    }
+
+    @JsonProperty
+    public long getIndexFilteredSplits()
+    {
+        return indexFilteredSplits;
+    }
+
     @JsonProperty
     public long getWrittenPositions()
     {
@@ -562,6 +562,11 @@ public final class SqlStageExecution
         stateMachine.recordGetSplitTime(start);
     }
 
+    public void recordIndexEvaluation(long elapsedNanos, int filteredSplits)
+    {
+        stateMachine.recordIndexEvaluation(elapsedNanos, filteredSplits);
+    }
+
     private static Split newConnectSplit(TaskId taskId, RemoteTask sourceTask)
     {
         return createRemoteSplitFor(taskId, sourceTask.getInstanceId(), sourceTask.getTaskStatus().getSelf());
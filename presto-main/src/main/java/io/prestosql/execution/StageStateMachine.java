@@ -93,6 +93,8 @@ public class StageStateMachine
 
     private final AtomicReference<DateTime> schedulingComplete = new AtomicReference<>();
     private final Distribution getSplitDistribution = new Distribution();
+    private final AtomicLong indexEvaluationNanos = new AtomicLong();
+    private final AtomicLong indexFilteredSplits = new AtomicLong();
 
     private final AtomicLong peakUserMemory = new AtomicLong();
     private final AtomicLong peakRevocableMemory = new AtomicLong();
@@ -582,6 +584,9 @@ public class StageStateMachine
                 outputPositions,
                 succinctBytes(physicalWrittenDataSize),
 
+                succinctDuration(indexEvaluationNanos.get(), NANOSECONDS),
+                indexFilteredSplits.get(),
+
                 new StageGcStatistics(
                         stageId.getId(),
                         totalTasks,
@@ -616,6 +621,12 @@ public class StageStateMachine
         scheduledStats.getGetSplitTime().add(elapsedNanos, NANOSECONDS);
     }
 
+    public void recordIndexEvaluation(long elapsedNanos, int filteredSplits)
+    {
+        indexEvaluationNanos.addAndGet(elapsedNanos);
+        indexFilteredSplits.addAndGet(filteredSplits);
+    }
+
     @Override
     public String toString()
     {
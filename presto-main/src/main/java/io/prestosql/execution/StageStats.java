@@ -84,6 +84,9 @@ public class StageStats
 
     private final DataSize physicalWrittenDataSize;
 
+    private final Duration totalIndexEvaluationTime;
+    private final long indexFilteredSplits;
+
     private final StageGcStatistics gcInfo;
 
     private final List<OperatorStats> operatorSummaries;
@@ -135,6 +138,9 @@ public class StageStats
 
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
+            @JsonProperty("totalIndexEvaluationTime") Duration totalIndexEvaluationTime,
+            @JsonProperty("indexFilteredSplits") long indexFilteredSplits,
+
             @JsonProperty("gcInfo") StageGcStatistics gcInfo,
 
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
@@ -196,6 +202,10 @@ public class StageStats
 
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "writtenDataSize is null");
 
+        this.totalIndexEvaluationTime = requireNonNull(totalIndexEvaluationTime, "totalIndexEvaluationTime is null");
+        checkArgument(indexFilteredSplits >= 0, "indexFilteredSplits is negative");
+        this.indexFilteredSplits = indexFilteredSplits;
+
         this.gcInfo = requireNonNull(gcInfo, "gcInfo is null");
 
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
@@ -399,6 +409,18 @@ public class StageStats
         return physicalWrittenDataSize;
     }
 
+    @JsonProperty
+    public Duration getTotalIndexEvaluationTime()
+    {
+        return totalIndexEvaluationTime;
+    }
+
+    @JsonProperty
+    public long getIndexFilteredSplits()
+    {
+        return indexFilteredSplits;
+    }
+
     @JsonProperty
     public StageGcStatistics getGcInfo()
     {
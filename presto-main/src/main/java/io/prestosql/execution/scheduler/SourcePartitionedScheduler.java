@@ -28,6 +28,7 @@ import io.prestosql.execution.Lifespan;
 import io.prestosql.execution.RemoteTask;
 import io.prestosql.execution.SqlStageExecution;
 import io.prestosql.execution.scheduler.FixedSourcePartitionedScheduler.BucketedSplitPlacementPolicy;
+import io.prestosql.heuristicindex.AdaptiveIndexEvaluator;
 import io.prestosql.heuristicindex.HeuristicIndexerManager;
 import io.prestosql.heuristicindex.SplitFiltering;
 import io.prestosql.metadata.InternalNode;
@@ -61,6 +62,7 @@ import static com.google.common.util.concurrent.Futures.nonCancellationPropagati
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.MoreFutures.whenAnyComplete;
+import static io.prestosql.SystemSessionProperties.getHeuristicIndexFilterDisableUnusedAfterSplits;
 import static io.prestosql.SystemSessionProperties.isHeuristicIndexFilterEnabled;
 import static io.prestosql.execution.scheduler.ScheduleResult.BlockedReason.MIXED_SPLIT_QUEUES_FULL_AND_WAITING_FOR_SOURCE;
 import static io.prestosql.execution.scheduler.ScheduleResult.BlockedReason.NO_ACTIVE_DRIVER_GROUP;
@@ -107,6 +109,7 @@ public class SourcePartitionedScheduler
     private final boolean groupedExecution;
     private final Session session;
     private final HeuristicIndexerManager heuristicIndexerManager;
+    private final AdaptiveIndexEvaluator indexEvaluator;
 
     private final Map<Lifespan, ScheduleGroup> scheduleGroups = new HashMap<>();
     private boolean noMoreScheduleGroups;
@@ -131,6 +134,7 @@ public class SourcePartitionedScheduler
         this.splitPlacementPolicy = requireNonNull(splitPlacementPolicy, "splitPlacementPolicy is null");
         this.session = requireNonNull(session, "session is null");
         this.heuristicIndexerManager = requireNonNull(heuristicIndexerManager, "heuristicIndexerManager is null");
+        this.indexEvaluator = SplitFiltering.createIndexEvaluator(getHeuristicIndexFilterDisableUnusedAfterSplits(session));
 
         checkArgument(splitBatchSize > 0, "splitBatchSize must be at least one");
         this.splitBatchSize = splitBatchSize;
@@ -287,8 +291,16 @@ public class SourcePartitionedScheduler
                         }
                     }
 
-                    List<Split> filteredSplit = applyFilter ? SplitFiltering.getFilteredSplit(pair.getFirst(),
-                            SplitFiltering.getFullyQualifiedName(stage), pair.getSecond(), nextSplits, heuristicIndexerManager) : nextSplits.getSplits();
+                    List<Split> filteredSplit;
+                    if (applyFilter) {
+                        long filterStart = System.nanoTime();
+                        filteredSplit = SplitFiltering.getFilteredSplit(pair.getFirst(),
+                                SplitFiltering.getFullyQualifiedName(stage), pair.getSecond(), nextSplits, heuristicIndexerManager, indexEvaluator);
+                        stage.recordIndexEvaluation(System.nanoTime() - filterStart, nextSplits.getSplits().size() - filteredSplit.size());
+                    }
+                    else {
+                        filteredSplit = nextSplits.getSplits();
+                    }
 
                     //In case of ORC small size files/splits are grouped
                     List<Split> groupedSmallFilesList = splitSource.groupSmallSplits(filteredSplit, lifespan, maxSplitGroup);
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.heuristicindex;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Decides which forward indexes are evaluated for the splits of one table scan, and in which order.
+ * <p>
+ * The index types are ordered by their observed cost per pruned split, the average evaluation time divided by
+ * the (smoothed) rate of splits pruned, so the cheapest effective index is checked first and the evaluation of a
+ * split stops at the first index which prunes it. Index types which were not evaluated yet come first, in the
+ * given default order. An index type which was evaluated for {@code disableAfterSplits} splits without pruning
+ * any is disabled for the rest of the scan, it is neither loaded nor evaluated anymore.
+ */
+@ThreadSafe
+public class AdaptiveIndexEvaluator
+{
+    private final List<String> defaultOrder;
+    private final int disableAfterSplits;
+    private final Map<String, IndexTypeStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param defaultOrder the index types in the order to evaluate them before their cost is known
+     * @param disableAfterSplits the number of evaluated splits after which an index type which did not prune any
+     * split is disabled, or 0 to never disable an index type
+     */
+    public AdaptiveIndexEvaluator(List<String> defaultOrder, int disableAfterSplits)
+    {
+        checkArgument(disableAfterSplits >= 0, "disableAfterSplits is negative");
+        this.defaultOrder = ImmutableList.copyOf(defaultOrder);
+        this.disableAfterSplits = disableAfterSplits;
+    }
+
+    /**
+     * Get the enabled index types, in the order they should be evaluated
+     */
+    public List<String> getEvaluationOrder(Collection<String> indexTypes)
+    {
+        return indexTypes.stream()
+                .filter(this::isEnabled)
+                .sorted(Comparator.comparingDouble(this::getScore)
+                        .thenComparingInt(type -> defaultOrder.contains(type) ? defaultOrder.indexOf(type) : Integer.MAX_VALUE))
+                .collect(toImmutableList());
+    }
+
+    public boolean isEnabled(String indexType)
+    {
+        IndexTypeStats typeStats = stats.get(indexType);
+        return disableAfterSplits == 0 || typeStats == null || typeStats.getPruned() > 0 || typeStats.getEvaluations() < disableAfterSplits;
+    }
+
+    public void record(String indexType, long elapsedNanos, boolean pruned)
+    {
+        stats.computeIfAbsent(indexType, type -> new IndexTypeStats()).record(elapsedNanos, pruned);
+    }
+
+    private double getScore(String indexType)
+    {
+        IndexTypeStats typeStats = stats.get(indexType);
+        if (typeStats == null) {
+            return 0;
+        }
+        long evaluations = typeStats.getEvaluations();
+        if (evaluations == 0) {
+            return 0;
+        }
+        double averageNanos = (double) typeStats.getNanos() / evaluations;
+        double pruneRate = (typeStats.getPruned() + 1.0) / (evaluations + 2.0);
+        return averageNanos / pruneRate;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("disableAfterSplits", disableAfterSplits)
+                .add("stats", stats)
+                .toString();
+    }
+
+    private static class IndexTypeStats
+    {
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder pruned = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long elapsedNanos, boolean isPruned)
+        {
+            nanos.add(elapsedNanos);
+            if (isPruned) {
+                pruned.increment();
+            }
+            evaluations.increment();
+        }
+
+        long getEvaluations()
+        {
+            return evaluations.sum();
+        }
+
+        long getPruned()
+        {
+            return pruned.sum();
+        }
+
+        long getNanos()
+        {
+            return nanos.sum();
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("evaluations", evaluations)
+                    .add("pruned", pruned)
+                    .add("nanos", nanos)
+                    .toString();
+        }
+    }
+}
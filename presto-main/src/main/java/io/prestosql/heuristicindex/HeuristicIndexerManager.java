@@ -41,7 +41,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
 
 public class HeuristicIndexerManager
 {
@@ -55,6 +61,7 @@ public class HeuristicIndexerManager
     private HetuMetastore metastore;
     private IndexClient indexClient = new NoOpIndexClient();
     private IndexWriter indexWriter = new NoOpIndexWriter();
+    private final List<BiConsumer<String, Optional<Set<String>>>> tableDataUpdateListeners = new CopyOnWriteArrayList<>();
 
     @Inject
     public HeuristicIndexerManager(FileSystemClientManager fileSystemClientManager, HetuMetaStoreManager hetuMetaStoreManager)
@@ -176,6 +183,28 @@ public class HeuristicIndexerManager
         }
     }
 
+    /**
+     * Register a listener which is called with the fully qualified name of a table after a query
+     * which changes the data of the table finished, together with the names of the written partitions
+     * if the connector reported them
+     */
+    public void addTableDataUpdateListener(BiConsumer<String, Optional<Set<String>>> listener)
+    {
+        tableDataUpdateListeners.add(requireNonNull(listener, "listener is null"));
+    }
+
+    public void tableDataUpdated(String qualifiedTable, Optional<Set<String>> writtenPartitions)
+    {
+        for (BiConsumer<String, Optional<Set<String>>> listener : tableDataUpdateListeners) {
+            try {
+                listener.accept(qualifiedTable, writtenPartitions);
+            }
+            catch (RuntimeException e) {
+                LOG.warn(e, "Failed to notify index update listener about table %s", qualifiedTable);
+            }
+        }
+    }
+
     public void cleanUpIndexRecord(QueryInfo queryInfo)
     {
         try {
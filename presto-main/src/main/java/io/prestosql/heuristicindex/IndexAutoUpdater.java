@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.heuristicindex;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.Session;
+import io.prestosql.dispatcher.DispatchManager;
+import io.prestosql.dispatcher.DispatchQuery;
+import io.prestosql.execution.QueryManager;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.metadata.SessionPropertyManager;
+import io.prestosql.operator.ExchangeClient;
+import io.prestosql.operator.ExchangeClientSupplier;
+import io.prestosql.server.ForStatementResource;
+import io.prestosql.server.protocol.Query;
+import io.prestosql.spi.QueryId;
+import io.prestosql.spi.block.BlockEncodingSerde;
+import io.prestosql.spi.connector.CreateIndexMetadata;
+import io.prestosql.spi.heuristicindex.IndexRecord;
+import io.prestosql.spi.security.Identity;
+import io.prestosql.utils.HetuConfig;
+import io.prestosql.vacuum.AutoVacuumSessionContext;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keeps STRIPE and PARTITION level indexes up to date after their table is written to.
+ * <p>
+ * When a query changes the data of a table, an {@code UPDATE INDEX} is scheduled for every index on the
+ * table after a delay, so that the writes of an ingest batch are covered by one update. {@code UPDATE INDEX}
+ * reads all data the index covers again, the whole table or the partitions the index was created for, so
+ * an index created for some partitions is only updated when the connector reports a write to one of them.
+ * TABLE level indexes are not updated automatically.
+ */
+@ThreadSafe
+public class IndexAutoUpdater
+{
+    private static final Logger LOG = Logger.get(IndexAutoUpdater.class);
+
+    private enum UpdateState
+    {
+        SCHEDULED,
+        RUNNING,
+        // the table was written to again while the update was running
+        RERUN
+    }
+
+    private final HeuristicIndexerManager heuristicIndexerManager;
+    private final Duration updateDelay;
+    private final ScheduledExecutorService updateExecutor;
+    // submits a statement as the given user, the future completes when the query is done
+    private final BiFunction<String, String, ListenableFuture<?>> statementRunner;
+    private final Map<String, UpdateState> updates = new ConcurrentHashMap<>();
+
+    @Inject
+    public IndexAutoUpdater(HetuConfig hetuConfig,
+            HeuristicIndexerManager heuristicIndexerManager,
+            DispatchManager dispatchManager,
+            SessionPropertyManager sessionPropertyManager,
+            QueryManager queryManager,
+            ExchangeClientSupplier exchangeClientSupplier,
+            BlockEncodingSerde blockEncodingSerde,
+            @ForStatementResource ScheduledExecutorService timeoutExecutor)
+    {
+        this(heuristicIndexerManager,
+                hetuConfig.getIndexAutoUpdateDelay(),
+                newSingleThreadScheduledExecutor(daemonThreadsNamed("index-auto-update-%s")),
+                new StatementRunner(dispatchManager, sessionPropertyManager, queryManager, exchangeClientSupplier, blockEncodingSerde, timeoutExecutor));
+    }
+
+    @VisibleForTesting
+    IndexAutoUpdater(HeuristicIndexerManager heuristicIndexerManager,
+            Duration updateDelay,
+            ScheduledExecutorService updateExecutor,
+            BiFunction<String, String, ListenableFuture<?>> statementRunner)
+    {
+        this.heuristicIndexerManager = requireNonNull(heuristicIndexerManager, "heuristicIndexerManager is null");
+        this.updateDelay = requireNonNull(updateDelay, "updateDelay is null");
+        this.updateExecutor = requireNonNull(updateExecutor, "updateExecutor is null");
+        this.statementRunner = requireNonNull(statementRunner, "statementRunner is null");
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        heuristicIndexerManager.addTableDataUpdateListener(this::tableDataUpdated);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        updateExecutor.shutdownNow();
+    }
+
+    @VisibleForTesting
+    void tableDataUpdated(String qualifiedTable, Optional<Set<String>> writtenPartitions)
+    {
+        List<IndexRecord> records;
+        try {
+            records = heuristicIndexerManager.getIndexClient().getAllIndexRecords();
+        }
+        catch (Exception e) {
+            LOG.warn(e, "Failed to read index records to update the indexes of %s", qualifiedTable);
+            return;
+        }
+
+        for (IndexRecord record : records) {
+            if (record.qualifiedTable.equalsIgnoreCase(qualifiedTable) && !record.isInProgressRecord() && isIncrementallyUpdated(record)
+                    && coversWrittenPartitions(record, writtenPartitions)) {
+                scheduleUpdate(record);
+            }
+        }
+    }
+
+    private static boolean coversWrittenPartitions(IndexRecord record, Optional<Set<String>> writtenPartitions)
+    {
+        if (record.partitions.isEmpty() || !writtenPartitions.isPresent()) {
+            return true;
+        }
+        // the index partitions are single key=value pairs, the written partition names are escaped paths like a=1/b=2
+        return writtenPartitions.get().stream()
+                .flatMap(partitionName -> Arrays.stream(partitionName.split("/")))
+                .map(IndexAutoUpdater::unescapePathName)
+                .anyMatch(written -> record.partitions.stream().anyMatch(partition -> isSamePartition(partition, written)));
+    }
+
+    private static boolean isSamePartition(String indexPartition, String writtenPartition)
+    {
+        int indexSeparator = indexPartition.indexOf('=');
+        int writtenSeparator = writtenPartition.indexOf('=');
+        if (indexSeparator < 0 || writtenSeparator < 0) {
+            return indexPartition.equals(writtenPartition);
+        }
+        // partition column names are case insensitive
+        return indexPartition.substring(0, indexSeparator).equalsIgnoreCase(writtenPartition.substring(0, writtenSeparator))
+                && indexPartition.substring(indexSeparator + 1).equals(writtenPartition.substring(writtenSeparator + 1));
+    }
+
+    private static String unescapePathName(String path)
+    {
+        StringBuilder result = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '%' && i + 2 < path.length()) {
+                try {
+                    result.append((char) Integer.parseInt(path.substring(i + 1, i + 3), 16));
+                    i += 2;
+                    continue;
+                }
+                catch (NumberFormatException e) {
+                    // not an escaped character
+                }
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    private static boolean isIncrementallyUpdated(IndexRecord record)
+    {
+        String level = record.getProperty(CreateIndexMetadata.LEVEL_PROP_KEY);
+        return level != null && CreateIndexMetadata.Level.valueOf(level.toUpperCase(Locale.ROOT)) != CreateIndexMetadata.Level.TABLE;
+    }
+
+    private void scheduleUpdate(IndexRecord record)
+    {
+        while (true) {
+            if (updates.putIfAbsent(record.name, UpdateState.SCHEDULED) == null) {
+                LOG.debug("Index %s will be updated in %s", record.name, updateDelay);
+                updateExecutor.schedule(() -> runUpdate(record), updateDelay.toMillis(), MILLISECONDS);
+                return;
+            }
+            // an update which is already scheduled covers this write, a running one has to run again
+            if (updates.computeIfPresent(record.name, (name, current) -> current == UpdateState.RUNNING ? UpdateState.RERUN : current) != null) {
+                return;
+            }
+        }
+    }
+
+    private void runUpdate(IndexRecord record)
+    {
+        updates.put(record.name, UpdateState.RUNNING);
+        ListenableFuture<?> future;
+        try {
+            future = statementRunner.apply("UPDATE INDEX " + record.name, record.user);
+        }
+        catch (RuntimeException e) {
+            future = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(future, new FutureCallback<Object>()
+        {
+            @Override
+            public void onSuccess(@Nullable Object result)
+            {
+                updateFinished(record);
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                LOG.warn(t, "Failed to update index %s", record.name);
+                updateFinished(record);
+            }
+        }, directExecutor());
+    }
+
+    private void updateFinished(IndexRecord record)
+    {
+        UpdateState state = updates.compute(record.name, (name, current) -> current == UpdateState.RERUN ? UpdateState.SCHEDULED : null);
+        if (state == UpdateState.SCHEDULED) {
+            updateExecutor.schedule(() -> runUpdate(record), updateDelay.toMillis(), MILLISECONDS);
+        }
+    }
+
+    private static class StatementRunner
+            implements BiFunction<String, String, ListenableFuture<?>>
+    {
+        private final DispatchManager dispatchManager;
+        private final SessionPropertyManager sessionPropertyManager;
+        private final QueryManager queryManager;
+        private final ExchangeClientSupplier exchangeClientSupplier;
+        private final BlockEncodingSerde blockEncodingSerde;
+        private final ScheduledExecutorService timeoutExecutor;
+
+        public StatementRunner(DispatchManager dispatchManager,
+                SessionPropertyManager sessionPropertyManager,
+                QueryManager queryManager,
+                ExchangeClientSupplier exchangeClientSupplier,
+                BlockEncodingSerde blockEncodingSerde,
+                ScheduledExecutorService timeoutExecutor)
+        {
+            this.dispatchManager = requireNonNull(dispatchManager, "dispatchManager is null");
+            this.sessionPropertyManager = requireNonNull(sessionPropertyManager, "sessionPropertyManager is null");
+            this.queryManager = requireNonNull(queryManager, "queryManager is null");
+            this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+            this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+            this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+        }
+
+        @Override
+        public ListenableFuture<?> apply(String statement, String user)
+        {
+            QueryId queryId = dispatchManager.createQueryId();
+            String slug = "x" + randomUUID().toString().toLowerCase(ENGLISH).replace("-", "");
+            Session session = Session.builder(sessionPropertyManager)
+                    .setQueryId(queryId)
+                    .setIdentity(new Identity(user, Optional.empty()))
+                    .setSource("index-auto-update")
+                    .build();
+
+            SettableFuture<?> done = SettableFuture.create();
+            Futures.addCallback(dispatchManager.createQuery(queryId, slug, new AutoVacuumSessionContext(session), statement), new FutureCallback<Object>()
+            {
+                @Override
+                public void onSuccess(@Nullable Object result)
+                {
+                    try {
+                        DispatchQuery dispatchQuery = dispatchManager.getQuery(queryId);
+                        AtomicReference<Query> queryReference = new AtomicReference<>();
+                        dispatchQuery.addStateChangeListener(state -> {
+                            // the results have to be fetched for the query to make progress
+                            Query query = queryReference.updateAndGet(current -> current == null ? getQuery(queryId, slug) : current);
+                            if (query != null && !state.isDone()) {
+                                query.waitForResults(0, Duration.valueOf("1s"), DataSize.valueOf("1MB"));
+                            }
+                            if (state.isDone()) {
+                                LOG.debug("%s finished with state %s, query %s", statement, state, queryId);
+                                done.set(null);
+                            }
+                        });
+                    }
+                    catch (Throwable t) {
+                        done.setException(t);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t)
+                {
+                    done.setException(t);
+                }
+            }, directExecutor());
+            return done;
+        }
+
+        private Query getQuery(QueryId queryId, String slug)
+        {
+            Session session;
+            try {
+                if (!queryManager.isQuerySlugValid(queryId, slug)) {
+                    return null;
+                }
+                session = queryManager.getQuerySession(queryId);
+            }
+            catch (NoSuchElementException e) {
+                return null;
+            }
+            if (session == null) {
+                return null;
+            }
+
+            ExchangeClient exchangeClient = exchangeClientSupplier.get(
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), IndexAutoUpdater.class.getSimpleName()));
+            return Query.create(session, slug, queryManager, exchangeClient, directExecutor(), timeoutExecutor, blockEncodingSerde);
+        }
+    }
+}
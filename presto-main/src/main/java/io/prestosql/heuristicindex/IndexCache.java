@@ -37,6 +37,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -57,7 +58,7 @@ public class IndexCache
 {
     private static final Logger LOG = Logger.get(IndexCache.class);
     private static final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Main-IndexCache-pool-%d").setDaemon(true).build();
-    protected static final List<String> INDEX_TYPES = ImmutableList.of("BLOOM", "MINMAX");
+    protected static final List<String> INDEX_TYPES = ImmutableList.of("BLOOM", "MINMAX", "NGRAM");
 
     private static ScheduledExecutorService executor;
 
@@ -167,7 +168,11 @@ public class IndexCache
                         // update operation
                         updated = true;
                         if (newIndexRecord.isAutoloadEnabled()) {
-                            evictFromCache(newIndexRecord);
+                            // the STRIPE level index files of unchanged data files are still valid, they are validated
+                            // against the last modified time of the data file when used and replaced by the reload
+                            if (getLevel(newIndexRecord) != CreateIndexMetadata.Level.STRIPE) {
+                                evictFromCache(newIndexRecord);
+                            }
                             preloadIndex(newIndexRecord);
                             LOG.debug("Index {%s} has been updated in cache.", newIndexRecord);
                         }
@@ -203,7 +208,7 @@ public class IndexCache
         String table = record.qualifiedTable;
         String column = String.join(",", record.columns);
         String type = record.indexType;
-        CreateIndexMetadata.Level level = CreateIndexMetadata.Level.valueOf(record.getProperty(CreateIndexMetadata.LEVEL_PROP_KEY).toUpperCase(Locale.ROOT));
+        CreateIndexMetadata.Level level = getLevel(record);
 
         String filterKeyPath = table + "/" + column + "/" + type;
         IndexCacheKey filterKey = new IndexCacheKey(filterKeyPath, LAST_MODIFIED_TIME_PLACE_HOLDER, record, level);
@@ -218,16 +223,19 @@ public class IndexCache
                 switch (level) {
                     case STRIPE:
                         // break index key from table/column/type to several table/column/type/split-path
+                        Map<IndexCacheKey, List<IndexMetadata>> stripeIndices = new HashMap<>();
                         for (IndexMetadata index : allLoaded) {
                             String indexUri = index.getUri();
                             IndexCacheKey newKey = new IndexCacheKey(filterKeyPath + indexUri, index.getLastModifiedTime(), record);
-                            cache.asMap().putIfAbsent(newKey, new ArrayList<>());
-                            cache.asMap().get(newKey).add(index);
+                            stripeIndices.computeIfAbsent(newKey, key -> new ArrayList<>()).add(index);
                         }
+                        // replace rather than extend the entries, they may have been loaded before the index was updated
+                        cache.putAll(stripeIndices);
                         cache.invalidate(filterKey);
                         break;
                     case PARTITION:
                         // break index key from table/column/type to several table/column/type/partition
+                        Map<IndexCacheKey, List<IndexMetadata>> partitionIndices = new HashMap<>();
                         for (IndexMetadata index : allLoaded) {
                             Path indexUri = Paths.get(index.getUri());
                             String partition = null;
@@ -240,10 +248,10 @@ public class IndexCache
                             }
                             if (partition != null) {
                                 IndexCacheKey newKey = new IndexCacheKey(filterKeyPath + "/" + partition, index.getLastModifiedTime(), record);
-                                cache.asMap().putIfAbsent(newKey, new ArrayList<>());
-                                cache.asMap().get(newKey).add(index);
+                                partitionIndices.computeIfAbsent(newKey, key -> new ArrayList<>()).add(index);
                             }
                         }
+                        cache.putAll(partitionIndices);
                         cache.invalidate(filterKey);
                         break;
                     case TABLE:
@@ -265,6 +273,14 @@ public class IndexCache
     }
 
     public List<IndexMetadata> getIndices(String table, String column, Split split, Map<String, IndexRecord> indexRecordKeyToRecordMap)
+    {
+        return getIndices(table, column, split, indexRecordKeyToRecordMap, INDEX_TYPES);
+    }
+
+    /**
+     * Get the indices of the given types for the split, the indices which are not cached yet are loaded asynchronously
+     */
+    public List<IndexMetadata> getIndices(String table, String column, Split split, Map<String, IndexRecord> indexRecordKeyToRecordMap, Collection<String> indexTypes)
     {
         if (cache == null) {
             return Collections.emptyList();
@@ -274,7 +290,7 @@ public class IndexCache
         long lastModifiedTime = split.getConnectorSplit().getLastModifiedTime();
         List<IndexMetadata> indices = new LinkedList<>();
 
-        for (String indexType : INDEX_TYPES) {
+        for (String indexType : indexTypes) {
             String filterKeyPath = table + "/" + column + "/" + indexType + splitUri.getRawPath();
             String indexRecordKey = table + "/" + column + "/" + indexType;
             IndexRecord record = indexRecordKeyToRecordMap.get(indexRecordKey);
@@ -390,6 +406,11 @@ public class IndexCache
         return cache.size();
     }
 
+    private static CreateIndexMetadata.Level getLevel(IndexRecord record)
+    {
+        return CreateIndexMetadata.Level.valueOf(record.getProperty(CreateIndexMetadata.LEVEL_PROP_KEY).toUpperCase(Locale.ROOT));
+    }
+
     private void evictFromCache(IndexRecord record)
     {
         String recordInCacheKey = String.format("%s/%s/%s", record.qualifiedTable, String.join(",", record.columns), record.indexType);
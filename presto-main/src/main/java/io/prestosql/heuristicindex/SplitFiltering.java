@@ -16,6 +16,7 @@ package io.prestosql.heuristicindex;
 
 import com.google.common.cache.CacheLoader;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import io.airlift.log.Logger;
 import io.prestosql.execution.SqlStageExecution;
@@ -78,7 +79,9 @@ public class SplitFiltering
     private static final Logger LOG = Logger.get(SplitFiltering.class);
     private static final AtomicLong totalSplitsProcessed = new AtomicLong();
     private static final AtomicLong splitsFiltered = new AtomicLong();
-    private static final List<String> FORWARD_INDEX = ImmutableList.of("MINMAX", "BLOOM");
+    private static final List<String> FORWARD_INDEX = ImmutableList.of("MINMAX", "BLOOM", "NGRAM");
+    // string pattern matches, evaluated by the NGRAM index
+    private static final Set<String> PATTERN_MATCH_FUNCTIONS = ImmutableSet.of("like", "regexp_like");
     private static final Set<String> INVERTED_INDEX = Sets.newHashSet("BTREE");
     private static final String MAX_MODIFIED_TIME = "__hetu__maxmodifiedtime";
     private static final String TABLE_LEVEL_KEY = "__index__is__table__level__";
@@ -137,8 +140,23 @@ public class SplitFiltering
         }
     }
 
+    public static AdaptiveIndexEvaluator createIndexEvaluator(int disableAfterSplits)
+    {
+        return new AdaptiveIndexEvaluator(FORWARD_INDEX, disableAfterSplits);
+    }
+
     public static List<Split> getFilteredSplit(Optional<RowExpression> expression, Optional<String> tableName, Map<Symbol, ColumnHandle> assignments,
             SplitSource.SplitBatch nextSplits, HeuristicIndexerManager heuristicIndexerManager)
+    {
+        return getFilteredSplit(expression, tableName, assignments, nextSplits, heuristicIndexerManager, createIndexEvaluator(0));
+    }
+
+    /**
+     * Filter the splits using the indexes of the table. The evaluator keeps the statistics of the forward indexes
+     * across the split batches of the table scan.
+     */
+    public static List<Split> getFilteredSplit(Optional<RowExpression> expression, Optional<String> tableName, Map<Symbol, ColumnHandle> assignments,
+            SplitSource.SplitBatch nextSplits, HeuristicIndexerManager heuristicIndexerManager, AdaptiveIndexEvaluator indexEvaluator)
     {
         if (!expression.isPresent() || !tableName.isPresent()) {
             return nextSplits.getSplits();
@@ -184,12 +202,12 @@ public class SplitFiltering
             splitsToReturn = filterUsingInvertedIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, forwardIndexRecords, heuristicIndexerManager);
         }
         else if (!invertedIndexRecords.isEmpty() && forwardIndexRecords.isEmpty()) {
-            splitsToReturn = filterUsingForwardIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, invertedIndexRecords, heuristicIndexerManager);
+            splitsToReturn = filterUsingForwardIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, invertedIndexRecords, heuristicIndexerManager, indexEvaluator);
         }
         else {
             // filter using both indexes and return the smallest set of splits.
             List<Split> splitsToReturn1 = filterUsingInvertedIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, forwardIndexRecords, heuristicIndexerManager);
-            List<Split> splitsToReturn2 = filterUsingForwardIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, invertedIndexRecords, heuristicIndexerManager);
+            List<Split> splitsToReturn2 = filterUsingForwardIndex(expression.get(), allSplits, fullQualifiedTableName, referencedColumns, invertedIndexRecords, heuristicIndexerManager, indexEvaluator);
             splitsToReturn = splitsToReturn1.size() < splitsToReturn2.size() ? splitsToReturn1 : splitsToReturn2;
         }
 
@@ -201,14 +219,21 @@ public class SplitFiltering
         return splitsToReturn;
     }
 
-    private static List<Split> filterUsingForwardIndex(RowExpression expression, List<Split> inputSplits, String fullQualifiedTableName, Set<String> referencedColumns, Map<String, IndexRecord> indexRecordKeyToRecordMap, HeuristicIndexerManager indexerManager)
+    private static List<Split> filterUsingForwardIndex(RowExpression expression, List<Split> inputSplits, String fullQualifiedTableName, Set<String> referencedColumns, Map<String, IndexRecord> indexRecordKeyToRecordMap, HeuristicIndexerManager indexerManager, AdaptiveIndexEvaluator indexEvaluator)
     {
+        // the order is decided once per batch, the splits of the batch are evaluated in parallel
+        List<String> indexTypes = indexEvaluator.getEvaluationOrder(IndexCache.INDEX_TYPES);
+        if (indexTypes.isEmpty()) {
+            return inputSplits;
+        }
+
         return inputSplits.parallelStream()
                 .filter(split -> {
-                    Map<String, List<IndexMetadata>> allIndices = new HashMap<>();
+                    // index type -> column -> indices of the split
+                    Map<String, Map<String, List<IndexMetadata>>> indicesByType = new HashMap<>();
 
                     for (String col : referencedColumns) {
-                        List<IndexMetadata> splitIndices = getCache(indexerManager.getIndexClient()).getIndices(fullQualifiedTableName, col, split, indexRecordKeyToRecordMap);
+                        List<IndexMetadata> splitIndices = getCache(indexerManager.getIndexClient()).getIndices(fullQualifiedTableName, col, split, indexRecordKeyToRecordMap, indexTypes);
 
                         if (splitIndices == null || splitIndices.size() == 0) {
                             // no index found, keep split
@@ -223,25 +248,28 @@ public class SplitFiltering
                             insert(indexGroup, splitIndex);
                         }
 
-                        List<String> sortedIndexTypeKeys = new LinkedList<>(indexGroupMap.keySet());
-                        sortedIndexTypeKeys.sort(Comparator.comparingInt(e -> FORWARD_INDEX.contains(e) ? FORWARD_INDEX.indexOf(e) : Integer.MAX_VALUE));
-
-                        for (String indexTypeKey : sortedIndexTypeKeys) {
-                            List<IndexMetadata> validIndices = indexGroupMap.get(indexTypeKey);
-                            if (validIndices != null) {
-                                validIndices = RangeUtil.subArray(validIndices, split.getConnectorSplit().getStartIndex(), split.getConnectorSplit().getEndIndex());
-                                List<IndexMetadata> indicesOfCol = allIndices.getOrDefault(col, new LinkedList<>());
-                                indicesOfCol.addAll(validIndices);
-                                allIndices.put(col, indicesOfCol);
-                            }
+                        for (Map.Entry<String, List<IndexMetadata>> indexGroup : indexGroupMap.entrySet()) {
+                            List<IndexMetadata> validIndices = RangeUtil.subArray(indexGroup.getValue(), split.getConnectorSplit().getStartIndex(), split.getConnectorSplit().getEndIndex());
+                            indicesByType.computeIfAbsent(indexGroup.getKey(), k -> new HashMap<>())
+                                    .computeIfAbsent(col, k -> new LinkedList<>())
+                                    .addAll(validIndices);
                         }
                     }
 
-                    if (allIndices.isEmpty()) {
-                        return true;
+                    // each index type can prune the split on its own, stop at the first one which does
+                    for (String indexType : indexTypes) {
+                        Map<String, List<IndexMetadata>> indices = indicesByType.get(indexType);
+                        if (indices == null) {
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        boolean matches = indexerManager.getIndexFilter(indices).matches(expression);
+                        indexEvaluator.record(indexType, System.nanoTime() - start, !matches);
+                        if (!matches) {
+                            return false;
+                        }
                     }
-
-                    return indexerManager.getIndexFilter(allIndices).matches(expression);
+                    return true;
                 })
                 .collect(Collectors.toList());
     }
@@ -496,6 +524,9 @@ public class SplitFiltering
                 if (signature.getName().getObjectName().equals("not")) {
                     return true;
                 }
+                if (isPatternMatchFunction(signature)) {
+                    return true;
+                }
                 try {
                     OperatorType operatorType = Signature.unmangleOperator(signature.getName().getObjectName());
                     if (operatorType.isComparisonOperator() && operatorType != IS_DISTINCT_FROM) {
@@ -614,9 +645,11 @@ public class SplitFiltering
                 else {
                     return;
                 }
-                OperatorType operatorType = Signature.unmangleOperator(signature.getName().getObjectName());
-                if (!operatorType.isComparisonOperator()) {
-                    return;
+                if (!isPatternMatchFunction(signature)) {
+                    OperatorType operatorType = Signature.unmangleOperator(signature.getName().getObjectName());
+                    if (!operatorType.isComparisonOperator()) {
+                        return;
+                    }
                 }
                 RowExpression left = extractExpression(call.getArguments().get(0));
                 if (!(left instanceof VariableReferenceExpression)) {
@@ -638,6 +671,11 @@ public class SplitFiltering
         return;
     }
 
+    private static boolean isPatternMatchFunction(Signature signature)
+    {
+        return PATTERN_MATCH_FUNCTIONS.contains(signature.getName().getObjectName().toLowerCase(Locale.ENGLISH));
+    }
+
     private static RowExpression extractExpression(RowExpression expression)
     {
         if (expression instanceof CallExpression) {
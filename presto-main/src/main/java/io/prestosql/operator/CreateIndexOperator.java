@@ -14,8 +14,12 @@
  */
 package io.prestosql.operator;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.annotations.VisibleForTesting;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
+import io.airlift.units.Duration;
 import io.prestosql.heuristicindex.HeuristicIndexerManager;
 import io.prestosql.spi.HetuConstant;
 import io.prestosql.spi.Page;
@@ -29,6 +33,7 @@ import io.prestosql.spi.snapshot.MarkerPage;
 import io.prestosql.spi.snapshot.RestorableConfig;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeUtils;
+import io.prestosql.util.Mergeable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -44,9 +49,12 @@ import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
 import static io.prestosql.spi.heuristicindex.TypeUtils.getActualValue;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 //TODO-cp-I38S9O: Operator currently not supported for Snapshot
 @RestorableConfig(unsupported = true)
@@ -61,6 +69,11 @@ public class CreateIndexOperator
     private final HeuristicIndexerManager heuristicIndexerManager;
     private static final Logger LOG = Logger.get(CreateIndexOperator.class);
 
+    private long rowsIndexed;
+    private long indexBytesWritten;
+    private long buildStartNanos;
+    private long buildWallNanos;
+
     public CreateIndexOperator(
             OperatorContext operatorContext,
             CreateIndexMetadata createIndexMetadata,
@@ -75,6 +88,7 @@ public class CreateIndexOperator
         this.levelWriter = requireNonNull(levelWriter, "levelWriter is null");
         this.persistBy = requireNonNull(persistBy, "persisted is null");
         this.finished = requireNonNull(finished, "finished is null");
+        this.operatorContext.setInfoSupplier(this::getInfo);
     }
 
     private State state = State.NEEDS_INPUT;
@@ -122,7 +136,7 @@ public class CreateIndexOperator
                 Map.Entry<String, IndexWriter> entry = iterator.next();
                 if (persistBy.get(entry.getValue()) == this) {
                     String writerKey = entry.getKey();
-                    entry.getValue().persist();
+                    indexBytesWritten += entry.getValue().persist();
                     iterator.remove(); // remove reference to writer once persisted so it can be GCed
                     LOG.debug("Writer for %s has finished persisting. Remaining: %d", writerKey, levelWriter.size());
                 }
@@ -131,6 +145,12 @@ public class CreateIndexOperator
         catch (IOException e) {
             throw new UncheckedIOException("Persisting index failed: " + e.getMessage(), e);
         }
+        if (rowsIndexed > 0) {
+            buildWallNanos = System.nanoTime() - buildStartNanos;
+            CreateIndexInfo info = getInfo();
+            LOG.debug("Indexed %d rows of %s in %s (%.0f rows/s), %d bytes written",
+                    rowsIndexed, createIndexMetadata.getTableName(), info.getBuildWallTime(), info.getRowsPerSecond(), indexBytesWritten);
+        }
 
         synchronized (levelWriter) {
             // All writers have finished persisting
@@ -196,6 +216,10 @@ public class CreateIndexOperator
         if (page.getPositionCount() == 0) {
             return;
         }
+        if (rowsIndexed == 0) {
+            buildStartNanos = System.nanoTime();
+        }
+        rowsIndexed += page.getPositionCount();
 
         if (createIndexMetadata.getCreateLevel() == CreateIndexMetadata.Level.UNDEFINED) {
             boolean tableIsPartitioned = getPartitionName(page.getPageMetadata().getProperty(HetuConstant.DATASOURCE_FILE_PATH),
@@ -295,6 +319,85 @@ public class CreateIndexOperator
         return null;
     }
 
+    @VisibleForTesting
+    CreateIndexInfo getInfo()
+    {
+        return new CreateIndexInfo(rowsIndexed, indexBytesWritten, new Duration(buildWallNanos, NANOSECONDS).convertToMostSuccinctTimeUnit());
+    }
+
+    /**
+     * Index build throughput of one operator: the wall time covers adding the rows and persisting the writers it owns.
+     */
+    public static class CreateIndexInfo
+            implements Mergeable<CreateIndexInfo>, OperatorInfo
+    {
+        private final long rowsIndexed;
+        private final long indexBytesWritten;
+        private final Duration buildWallTime;
+
+        @JsonCreator
+        public CreateIndexInfo(
+                @JsonProperty("rowsIndexed") long rowsIndexed,
+                @JsonProperty("indexBytesWritten") long indexBytesWritten,
+                @JsonProperty("buildWallTime") Duration buildWallTime)
+        {
+            this.rowsIndexed = rowsIndexed;
+            this.indexBytesWritten = indexBytesWritten;
+            this.buildWallTime = requireNonNull(buildWallTime, "buildWallTime is null");
+        }
+
+        @JsonProperty
+        public long getRowsIndexed()
+        {
+            return rowsIndexed;
+        }
+
+        @JsonProperty
+        public long getIndexBytesWritten()
+        {
+            return indexBytesWritten;
+        }
+
+        @JsonProperty
+        public Duration getBuildWallTime()
+        {
+            return buildWallTime;
+        }
+
+        public double getRowsPerSecond()
+        {
+            double seconds = buildWallTime.getValue(SECONDS);
+            return seconds == 0 ? 0 : rowsIndexed / seconds;
+        }
+
+        @Override
+        public CreateIndexInfo mergeWith(CreateIndexInfo other)
+        {
+            // operators build in parallel, so the slowest one bounds the build time
+            return new CreateIndexInfo(
+                    rowsIndexed + other.rowsIndexed,
+                    indexBytesWritten + other.indexBytesWritten,
+                    buildWallTime.compareTo(other.buildWallTime) >= 0 ? buildWallTime : other.buildWallTime);
+        }
+
+        @Override
+        public boolean isFinal()
+        {
+            return true;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("rowsIndexed", rowsIndexed)
+                    .add("indexBytesWritten", indexBytesWritten)
+                    .add("buildWallTime", buildWallTime)
+                    .add("rowsPerSecond", getRowsPerSecond())
+                    .toString();
+        }
+    }
+
     public static class CreateIndexOperatorFactory
             implements OperatorFactory
     {
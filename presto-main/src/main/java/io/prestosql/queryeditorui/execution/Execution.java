@@ -369,6 +369,8 @@ public class Execution
                 zeroData,
                 0,
                 zeroData,
+                zeroDuration,
+                0,
                 ImmutableList.of(),
                 ImmutableList.of());
     }
@@ -102,6 +102,7 @@ import io.prestosql.execution.scheduler.ExecutionPolicy;
 import io.prestosql.execution.scheduler.PhasedExecutionPolicy;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
 import io.prestosql.failuredetector.FailureDetectorModule;
+import io.prestosql.heuristicindex.IndexAutoUpdater;
 import io.prestosql.memory.ClusterMemoryManager;
 import io.prestosql.memory.ForMemoryManager;
 import io.prestosql.memory.LowMemoryKiller;
@@ -162,6 +163,7 @@ import io.prestosql.transaction.ForTransactionManager;
 import io.prestosql.transaction.InMemoryTransactionManager;
 import io.prestosql.transaction.TransactionManager;
 import io.prestosql.transaction.TransactionManagerConfig;
+import io.prestosql.utils.HetuConfig;
 import io.prestosql.vacuum.AutoVacuumConfig;
 import io.prestosql.vacuum.AutoVacuumScanner;
 
@@ -335,6 +337,12 @@ public class CoordinatorModule
                 config -> config.isAutoVacuumEnabled(),
                 binder1 -> binder1.bind(AutoVacuumScanner.class).in(Scopes.SINGLETON)));
 
+        // incremental heuristic index maintenance
+        install(installModuleIf(
+                HetuConfig.class,
+                config -> config.isFilterEnabled() && config.isIndexAutoUpdateEnabled(),
+                binder1 -> binder1.bind(IndexAutoUpdater.class).in(Scopes.SINGLETON)));
+
         // query execution
         binder.bind(ExecutorService.class).annotatedWith(ForQueryExecution.class)
                 .toInstance(newCachedThreadPool(threadsNamed("query-execution-%s")));
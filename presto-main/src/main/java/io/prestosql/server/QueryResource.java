@@ -371,6 +371,8 @@ public class QueryResource
                 ZERO_BYTES,
                 0,
                 ZERO_BYTES,
+                ZERO_MILLIS,
+                0,
                 ImmutableList.of(),
                 ImmutableList.of());
 
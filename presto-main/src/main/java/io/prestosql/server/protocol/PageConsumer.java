@@ -20,8 +20,19 @@ import io.prestosql.client.DataCenterQueryResults;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 
+import static io.prestosql.client.DataCenterFetchWindow.MAX_PIPELINED_REQUESTS;
+
+/**
+ * Serves the results of a query to one split of a data center connector, in token order.
+ * <p>
+ * Pipelined clients keep requests for the next tokens outstanding, which may arrive out of order. The
+ * requests ahead of the next token are parked until the requests before them were answered, and the last
+ * results are kept so that a request retried after the following tokens were answered still gets its results.
+ */
 public class PageConsumer
 {
     enum State
@@ -35,6 +46,8 @@ public class PageConsumer
     private final long pageConsumerTimeout;
     private DataCenterQueryResults lastResult;
     private long lastToken = -1;
+    private final Map<Long, DataCenterQueryResults> recentResults = new HashMap<>();
+    private final Map<Long, PageSubscriber> pendingSubscribers = new HashMap<>();
     private State state = State.RUNNING;
     private Query query;
     private boolean sentFinalStatus;
@@ -96,6 +109,8 @@ public class PageConsumer
                 }
             }
             lastToken = token;
+            recentResults.put(token, lastResult);
+            recentResults.remove(token - MAX_PIPELINED_REQUESTS);
             return lastResult;
         }
 
@@ -107,6 +122,12 @@ public class PageConsumer
             return lastResult;
         }
 
+        // a retried request of a pipelined client
+        DataCenterQueryResults recentResult = recentResults.get(token);
+        if (recentResult != null) {
+            return recentResult;
+        }
+
         // if this is a result before the lastResult, the data is gone
         if (token < lastToken) {
             throw new WebApplicationException(Response.Status.GONE);
@@ -116,22 +137,59 @@ public class PageConsumer
         throw new WebApplicationException(Response.Status.NOT_FOUND);
     }
 
-    public void add(Query query, PageSubscriber subscriber, BlockingQueue<DataCenterQueryResults> queryResults)
+    public synchronized void add(Query query, PageSubscriber subscriber, BlockingQueue<DataCenterQueryResults> queryResults)
     {
         if (this.query == null && query != null) {
             this.query = query;
         }
         long clientToken = subscriber.getToken();
         this.lastSubscriberTime = System.currentTimeMillis();
+        if (clientToken > lastToken + 1 && clientToken <= lastToken + MAX_PIPELINED_REQUESTS) {
+            if (this.sentFinalStatus) {
+                // there are no more results for the requests ahead of the final status
+                subscriber.send(this.query, getFinalStatus());
+                return;
+            }
+            // answered once the requests before it were answered, a retried request replaces the earlier one
+            PageSubscriber replaced = pendingSubscribers.put(clientToken, subscriber);
+            if (replaced != null) {
+                replaced.fail(new WebApplicationException(Response.Status.CONFLICT));
+            }
+            return;
+        }
         subscriber.send(this.query, getResult(clientToken, queryResults));
+
+        PageSubscriber nextSubscriber = pendingSubscribers.remove(lastToken + 1);
+        while (nextSubscriber != null) {
+            nextSubscriber.send(this.query, getResult(nextSubscriber.getToken(), queryResults));
+            nextSubscriber = pendingSubscribers.remove(lastToken + 1);
+        }
+        if (this.sentFinalStatus) {
+            releasePendingSubscribers(getFinalStatus());
+        }
     }
 
-    public void stop()
+    public synchronized void stop()
     {
         this.stopped = true;
+        // the query was cancelled, do not leave the parked requests hanging
+        releasePendingSubscribers(this.standardFinished);
+    }
+
+    private DataCenterQueryResults getFinalStatus()
+    {
+        return this.state == State.ERROR ? this.standardFailed : this.standardFinished;
+    }
+
+    private void releasePendingSubscribers(DataCenterQueryResults result)
+    {
+        for (PageSubscriber subscriber : pendingSubscribers.values()) {
+            subscriber.send(this.query, result);
+        }
+        pendingSubscribers.clear();
     }
 
-    public void setState(Query query, State state)
+    public synchronized void setState(Query query, State state)
     {
         this.query = query;
         if (this.state == State.RUNNING) {
@@ -25,4 +25,6 @@ public interface PageSubscriber
     long getToken();
 
     void send(Query query, DataCenterQueryResults results);
+
+    void fail(Throwable cause);
 }
@@ -168,6 +168,9 @@ public class FeaturesConfig
     private boolean enableStarTreeIndex;
     private long cubeMetadataCacheSize = 5;
     private Duration cubeMetadataCacheTtl = new Duration(1, HOURS);
+    private boolean cubeIncrementalRefreshEnabled;
+    private boolean cubeAdvisorEnabled;
+    private int cubeAdvisorMaxCandidates = 1000;
     private boolean sortBasedAggregationEnabled;
     private int prcntDriversForPartialAggr = 5;
     private boolean skipAttachingStatsWithPlan = true;
@@ -1341,6 +1344,47 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isCubeIncrementalRefreshEnabled()
+    {
+        return cubeIncrementalRefreshEnabled;
+    }
+
+    @Config("cube.incremental-refresh-enabled")
+    @ConfigDescription("Allow inserting new data ranges into cubes whose source table was modified, and using such cubes for queries within the data ranges they cover. " +
+            "Requires source tables to be modified only outside the data ranges covered by their cubes")
+    public FeaturesConfig setCubeIncrementalRefreshEnabled(boolean cubeIncrementalRefreshEnabled)
+    {
+        this.cubeIncrementalRefreshEnabled = cubeIncrementalRefreshEnabled;
+        return this;
+    }
+
+    public boolean isCubeAdvisorEnabled()
+    {
+        return cubeAdvisorEnabled;
+    }
+
+    @Config("cube.advisor-enabled")
+    @ConfigDescription("Record the aggregations over table scans of the queries to recommend cubes, and the usage of the existing cubes")
+    public FeaturesConfig setCubeAdvisorEnabled(boolean cubeAdvisorEnabled)
+    {
+        this.cubeAdvisorEnabled = cubeAdvisorEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getCubeAdvisorMaxCandidates()
+    {
+        return cubeAdvisorMaxCandidates;
+    }
+
+    @Config("cube.advisor-max-candidates")
+    @ConfigDescription("The maximum number of candidate cubes kept by the cube advisor, the least recently seen candidates are evicted first")
+    public FeaturesConfig setCubeAdvisorMaxCandidates(int cubeAdvisorMaxCandidates)
+    {
+        this.cubeAdvisorMaxCandidates = cubeAdvisorMaxCandidates;
+        return this;
+    }
+
     public boolean isListBuiltInFunctionsOnly()
     {
         return listBuiltInFunctionsOnly;
@@ -46,6 +46,8 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorViewDefinition;
 import io.prestosql.spi.connector.ConnectorViewDefinition.ViewColumn;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.CreateIndexMetadata;
 import io.prestosql.spi.connector.QualifiedObjectName;
 import io.prestosql.spi.function.FunctionKind;
@@ -54,6 +56,9 @@ import io.prestosql.spi.heuristicindex.IndexClient;
 import io.prestosql.spi.heuristicindex.IndexRecord;
 import io.prestosql.spi.heuristicindex.Pair;
 import io.prestosql.spi.metadata.TableHandle;
+import io.prestosql.spi.plan.Symbol;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.security.AccessDeniedException;
 import io.prestosql.spi.security.Identity;
 import io.prestosql.spi.security.ViewExpression;
@@ -70,6 +75,7 @@ import io.prestosql.sql.ExpressionUtils;
 import io.prestosql.sql.SqlPath;
 import io.prestosql.sql.parser.ParsingException;
 import io.prestosql.sql.parser.SqlParser;
+import io.prestosql.sql.planner.ExpressionDomainTranslator;
 import io.prestosql.sql.planner.ExpressionInterpreter;
 import io.prestosql.sql.planner.SymbolsExtractor;
 import io.prestosql.sql.planner.TypeProvider;
@@ -200,8 +206,11 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.transform;
 import static io.prestosql.SystemSessionProperties.getMaxGroupingSets;
+import static io.prestosql.SystemSessionProperties.isCubeIncrementalRefreshEnabled;
 import static io.prestosql.SystemSessionProperties.isEnableStarTreeIndex;
 import static io.prestosql.cube.CubeManager.STAR_TREE;
+import static io.prestosql.cube.CubeSketchFunctions.createSketchAggregation;
+import static io.prestosql.cube.CubeSketchFunctions.isSketchFunction;
 import static io.prestosql.metadata.MetadataUtil.createQualifiedObjectName;
 import static io.prestosql.spi.StandardErrorCode.INVALID_COLUMN_MASK;
 import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
@@ -222,6 +231,7 @@ import static io.prestosql.spi.sql.expression.Types.WindowFrameType.RANGE;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.UnknownType.UNKNOWN;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.sql.NodeUtils.getSortItemsFromOrderBy;
 import static io.prestosql.sql.NodeUtils.mapFromProperties;
@@ -549,9 +559,18 @@ class StatementAnalyzer
                 throw new SemanticException(TABLE_STATE_INCORRECT, insertCube, "Cannot allow insert into cube. Cube might return incorrect results. Unable to identify last modified of the time source table.");
             }
             // If Original table was updated since Cube was built then We cannot allow any more updates on the Cube.
-            // User must create new cube from the source table and try insert overwrite cube
+            // User must create new cube from the source table and try insert overwrite cube.
+            // With incremental refresh, the new data can still be inserted for a range the cube does not cover yet,
+            // the planner rejects the insert if the range overlaps with the covered ranges.
             if (!insertCube.isOverwrite() && cubeMetadata.getCubeStatus() == CubeStatus.READY && tableLastModifiedTime.getAsLong() > cubeMetadata.getSourceTableLastUpdatedTime()) {
-                throw new SemanticException(TABLE_STATE_INCORRECT, insertCube, "Cannot insert into cube. Source table has been updated since Cube was last updated. Try INSERT OVERWRITE CUBE or Create new a cube");
+                if (!(isCubeIncrementalRefreshEnabled(session) && insertCube.getWhere().isPresent() && cubeMetadata.isIncrementallyRefreshable())) {
+                    throw new SemanticException(TABLE_STATE_INCORRECT, insertCube, "Cannot insert into cube. Source table has been updated since Cube was last updated. Try INSERT OVERWRITE CUBE or Create new a cube");
+                }
+                // The rows of the new range are merged with the rows of the covered ranges, which must still match the source table
+                long coveredRangesLastModifiedTime = getCoveredRangesModificationTime(cubeMetadata, sourceTableHandle);
+                if (coveredRangesLastModifiedTime == -1L || coveredRangesLastModifiedTime > cubeMetadata.getSourceTableLastUpdatedTime()) {
+                    throw new SemanticException(TABLE_STATE_INCORRECT, insertCube, "Cannot insert into cube. Source table data within the ranges covered by the cube has been updated since Cube was last updated. Try INSERT OVERWRITE CUBE");
+                }
             }
 
             Scope queryScope = process(insertCube.getQuery(), scope);
@@ -573,6 +592,33 @@ class StatementAnalyzer
             return createAndAssignScope(insertCube, scope, Field.newUnqualified("rows", BIGINT));
         }
 
+        /**
+         * Returns the modification time of the source table data within the ranges covered by the cube,
+         * or -1 if it cannot be determined. Connectors which cannot constrain the table to the ranges
+         * return the modification time of the entire table.
+         */
+        private long getCoveredRangesModificationTime(CubeMetadata cubeMetadata, TableHandle sourceTableHandle)
+        {
+            Map<String, ColumnHandle> columnHandles = metadata.getColumnHandles(session, sourceTableHandle);
+            Map<Symbol, Type> columnTypes = new HashMap<>();
+            for (Map.Entry<String, ColumnHandle> column : columnHandles.entrySet()) {
+                columnTypes.put(new Symbol(column.getKey()), metadata.getColumnMetadata(session, sourceTableHandle, column.getValue()).getType());
+            }
+            Expression cubePredicate = ExpressionUtils.rewriteIdentifiersToSymbolReferences(sqlParser.createExpression(cubeMetadata.getCubeFilter().getCubePredicate(), createParsingOptions(session)));
+            TupleDomain<Symbol> coveredRanges = ExpressionDomainTranslator.fromPredicate(metadata, session, cubePredicate, TypeProvider.copyOf(columnTypes)).getTupleDomain();
+            TableHandle constrainedHandle = sourceTableHandle;
+            // The parts of the predicate which cannot be translated to domains are left out, which only widens the ranges
+            if (!coveredRanges.isAll() && coveredRanges.getDomains().isPresent()) {
+                Map<ColumnHandle, Domain> columnDomains = coveredRanges.getDomains().get().entrySet().stream()
+                        .collect(toImmutableMap(entry -> columnHandles.get(entry.getKey().getName()), Map.Entry::getValue));
+                constrainedHandle = metadata.applyFilter(session, sourceTableHandle, new Constraint(TupleDomain.withColumnDomains(columnDomains)))
+                        .map(ConstraintApplicationResult::getHandle)
+                        .orElse(sourceTableHandle);
+            }
+            LongSupplier modifiedTimeSupplier = metadata.getTableLastModifiedTimeSupplier(session, constrainedHandle);
+            return modifiedTimeSupplier == null ? -1L : modifiedTimeSupplier.getAsLong();
+        }
+
         @Override
         protected Scope visitDelete(Delete node, Optional<Scope> scope)
         {
@@ -805,7 +851,15 @@ class StatementAnalyzer
                     throw new SemanticException(NOT_SUPPORTED, node, "Distinct is currently only supported for count");
                 }
 
-                if (argument != null) {
+                if (isSketchFunction(aggFunctionName)) {
+                    if (argument == null) {
+                        throw new SemanticException(NOT_SUPPORTED, node, "Aggregate function '%s' requires a column argument", aggFunctionName);
+                    }
+                    // the serialized sketch of the column is stored, the column type must be supported by the sketch
+                    analyzeExpression(createSketchAggregation(aggFunctionName, aggFunction.getArguments().get(0)), queryScope);
+                    outputFields.add(Field.newUnqualified(aggFunctionName + "_" + argument, VARBINARY));
+                }
+                else if (argument != null) {
                     ExpressionAnalysis expressionAnalysis = analyzeExpression(aggFunction, queryScope);
                     Type expressionType = expressionAnalysis.getType(aggFunction);
                     outputFields.add(Field.newUnqualified(aggFunctionName + "_" + argument + (aggFunction.isDistinct() ? "_distinct" : ""), expressionType));
@@ -523,7 +523,8 @@ public class LogicalPlanner
             }
         }
         TableHandle sourceTableHandle = insert.getSourceTable();
-        //At this point it has been verified that source table has not been updated
+        //At this point it has been verified that source table has not been updated,
+        //or that the cube is refreshed incrementally for a range it does not cover yet,
         //so insert into cube should be allowed
         LongSupplier tableLastModifiedTimeSupplier = metadata.getTableLastModifiedTimeSupplier(session, sourceTableHandle);
         checkState(tableLastModifiedTimeSupplier != null, "Table last modified time is null");
@@ -43,6 +43,7 @@ import io.prestosql.spi.plan.ProjectNode;
 import io.prestosql.spi.plan.Symbol;
 import io.prestosql.spi.plan.TableScanNode;
 import io.prestosql.spi.relation.CallExpression;
+import io.prestosql.spi.type.StandardTypes;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeSignature;
 import io.prestosql.sql.analyzer.TypeSignatureProvider;
@@ -55,7 +56,10 @@ import io.prestosql.sql.tree.Cast;
 import io.prestosql.sql.tree.Expression;
 import io.prestosql.sql.tree.ExpressionRewriter;
 import io.prestosql.sql.tree.ExpressionTreeRewriter;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.Literal;
 import io.prestosql.sql.tree.LongLiteral;
+import io.prestosql.sql.tree.QualifiedName;
 import io.prestosql.sql.tree.SymbolReference;
 
 import java.util.ArrayList;
@@ -68,8 +72,13 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static io.hetu.core.spi.cube.CubeAggregateFunction.APPROX_PERCENTILE;
 import static io.hetu.core.spi.cube.CubeAggregateFunction.COUNT;
 import static io.hetu.core.spi.cube.CubeAggregateFunction.SUM;
+import static io.prestosql.cube.CubeSketchFunctions.CARDINALITY;
+import static io.prestosql.cube.CubeSketchFunctions.MERGE;
+import static io.prestosql.cube.CubeSketchFunctions.VALUE_AT_QUANTILE;
+import static io.prestosql.cube.CubeSketchFunctions.getSketchType;
 import static io.prestosql.spi.StandardErrorCode.CUBE_ERROR;
 import static io.prestosql.spi.plan.AggregationNode.singleGroupingSet;
 import static io.prestosql.sql.planner.SymbolUtils.toSymbolReference;
@@ -114,6 +123,27 @@ public class AggregationRewriteWithCube
             planNode = new FilterNode(idAllocator.getNextId(), planNode, castToRowExpression(expression));
         }
 
+        // Deserialize the sketches stored in the cube, so that they can be merged
+        Map<Symbol, Symbol> mergedSketchSymbols = new HashMap<>();
+        if (!cubeRewriteResult.getSketchAggregationColumns().isEmpty()) {
+            Map<Symbol, Expression> assignments = new HashMap<>();
+            for (Symbol symbol : planNode.getOutputSymbols()) {
+                assignments.put(symbol, toSymbolReference(symbol));
+            }
+            for (CubeRewriteResult.SketchAggregatorSource sketchSource : cubeRewriteResult.getSketchAggregationColumns()) {
+                Type sketchType = metadata.getType(getSketchType(sketchSource.getFunction(), typeProvider.get(sketchSource.getOriginalAggSymbol())));
+                Symbol sketchSymbol = symbolAllocator.newSymbol("sketch_" + sketchSource.getOriginalAggSymbol().getName(), sketchType);
+                assignments.put(sketchSymbol, new Cast(toSymbolReference(sketchSource.getScanSymbol()), sketchType.getTypeSignature().toString()));
+                mergedSketchSymbols.put(sketchSource.getOriginalAggSymbol(), sketchSymbol);
+            }
+            planNode = new ProjectNode(idAllocator.getNextId(),
+                    planNode,
+                    new Assignments(assignments
+                            .entrySet()
+                            .stream()
+                            .collect(Collectors.toMap(Map.Entry::getKey, entry -> castToRowExpression(entry.getValue())))));
+        }
+
         // Add group by
         List<Symbol> groupings = new ArrayList<>(originalAggregationNode.getGroupingKeys().size());
         for (Symbol symbol : originalAggregationNode.getGroupingKeys()) {
@@ -147,6 +177,27 @@ public class AggregationRewriteWithCube
                     Optional.empty(),
                     Optional.empty()));
         }
+        Set<Symbol> generatedSymbols = new HashSet<>();
+        for (CubeRewriteResult.SketchAggregatorSource sketchSource : cubeRewriteResult.getSketchAggregationColumns()) {
+            Symbol sketchSymbol = mergedSketchSymbols.get(sketchSource.getOriginalAggSymbol());
+            Type sketchType = typeProvider.get(sketchSymbol);
+            Symbol mergedSymbol = symbolAllocator.newSymbol("merged_" + sketchSource.getOriginalAggSymbol().getName(), sketchType);
+            SymbolReference argument = toSymbolReference(sketchSymbol);
+            FunctionHandle functionHandle = metadata.getFunctionAndTypeManager().lookupFunction(MERGE, TypeSignatureProvider.fromTypeSignatures(sketchType.getTypeSignature()));
+            aggregationsBuilder.put(mergedSymbol, new AggregationNode.Aggregation(
+                    new CallExpression(
+                            MERGE,
+                            functionHandle,
+                            sketchType,
+                            ImmutableList.of(OriginalExpressionUtils.castToRowExpression(argument))),
+                    ImmutableList.of(OriginalExpressionUtils.castToRowExpression(argument)),
+                    false,
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty()));
+            mergedSketchSymbols.put(sketchSource.getOriginalAggSymbol(), mergedSymbol);
+            generatedSymbols.add(mergedSymbol);
+        }
 
         planNode = new AggregationNode(idAllocator.getNextId(),
                 planNode,
@@ -159,26 +210,16 @@ public class AggregationRewriteWithCube
                 AggregationNode.AggregationType.HASH,
                 Optional.empty());
 
-        // If there was an AVG aggregation, map it to AVG = SUM/COUNT
-        if (!cubeRewriteResult.getAvgAggregationColumns().isEmpty()) {
-            Set<Symbol> generatedSymbols = new HashSet<>();
+        // If there was an AVG aggregation, map it to AVG = SUM/COUNT.
+        // The results of APPROX_DISTINCT and APPROX_PERCENTILE are computed from the merged sketches.
+        if (!cubeRewriteResult.getAvgAggregationColumns().isEmpty() || !cubeRewriteResult.getSketchAggregationColumns().isEmpty()) {
             cubeRewriteResult.getAvgAggregationColumns().forEach(source -> {
                 generatedSymbols.add(source.getCount());
                 generatedSymbols.add(source.getSum());
             });
             Map<Symbol, Expression> assignments = new HashMap<>();
-            // Add all original symbols as symbol reference
-            for (Symbol symbol : originalAggregationNode.getOutputSymbols()) {
-                Object originalColumn = symbolMappings.get(symbol.getName());
-                if (originalColumn instanceof ColumnHandle) {
-                    //Refer to outputs of TableScanNode
-                    ColumnHandle cubeColumn = cubeColumnsMap.get(((ColumnHandle) originalColumn).getColumnName());
-                    Symbol cubeScanSymbol = new Symbol(cubeColumn.getColumnName());
-                    generatedSymbols.add(cubeScanSymbol);
-                    assignments.put(cubeScanSymbol, toSymbolReference(cubeScanSymbol));
-                }
-            }
-            for (Symbol symbol : cubeRewriteResult.getTableScanNode().getOutputSymbols()) {
+            // Add all other outputs of the aggregation as symbol reference
+            for (Symbol symbol : planNode.getOutputSymbols()) {
                 if (!generatedSymbols.contains(symbol)) {
                     assignments.put(symbol, toSymbolReference(symbol));
                 }
@@ -191,6 +232,19 @@ public class AggregationRewriteWithCube
                 Type avgType = typeProvider.get(avgAggSource.getOriginalAggSymbol());
                 assignments.put(avgAggSource.getOriginalAggSymbol(), new Cast(division, avgType.getTypeSignature().toString()));
             }
+
+            // Add APPROX_DISTINCT = CARDINALITY(MERGED) and APPROX_PERCENTILE = VALUE_AT_QUANTILE(MERGED, PERCENTAGE)
+            for (CubeRewriteResult.SketchAggregatorSource sketchSource : cubeRewriteResult.getSketchAggregationColumns()) {
+                SymbolReference merged = toSymbolReference(mergedSketchSymbols.get(sketchSource.getOriginalAggSymbol()));
+                Expression result;
+                if (sketchSource.getPercentage().isPresent()) {
+                    result = new FunctionCall(QualifiedName.of(VALUE_AT_QUANTILE), ImmutableList.of(merged, new Cast(sketchSource.getPercentage().get(), StandardTypes.DOUBLE)));
+                }
+                else {
+                    result = new FunctionCall(QualifiedName.of(CARDINALITY), ImmutableList.of(merged));
+                }
+                assignments.put(sketchSource.getOriginalAggSymbol(), result);
+            }
             planNode = new ProjectNode(idAllocator.getNextId(),
                     planNode,
                     new Assignments(assignments
@@ -246,6 +300,7 @@ public class AggregationRewriteWithCube
         Set<CubeRewriteResult.DimensionSource> dimensionSymbols = new HashSet<>();
         Set<CubeRewriteResult.AggregatorSource> aggregationColumns = new HashSet<>();
         Set<CubeRewriteResult.AverageAggregatorSource> averageAggregationColumns = new HashSet<>();
+        Set<CubeRewriteResult.SketchAggregatorSource> sketchAggregationColumns = new HashSet<>();
         Map<Symbol, ColumnMetadata> symbolMetadataMap = new HashMap<>();
 
         Set<Symbol> filterSymbols = new HashSet<>();
@@ -368,6 +423,38 @@ public class AggregationRewriteWithCube
                             }
                             averageAggregationColumns.add(new CubeRewriteResult.AverageAggregatorSource(originalAggOutputSymbol, sumSymbol, countSymbol));
                             break;
+                        case "approx_distinct":
+                        case "approx_percentile":
+                            AggregationSignature sketchSignature = new AggregationSignature(aggFunction, originalColumnName, false);
+                            String sketchColumnName = cubeMetadata.getColumn(sketchSignature)
+                                    .orElseThrow(() -> new PrestoException(CUBE_ERROR, "Cannot find column associated with aggregation " + sketchSignature));
+                            ColumnHandle sketchColumnHandle = cubeColumnsMap.get(sketchColumnName);
+                            Optional<Expression> percentage = Optional.empty();
+                            if (APPROX_PERCENTILE.getName().equals(aggFunction)) {
+                                Object mappedPercentage = arguments.size() == 2 && arguments.get(1) instanceof SymbolReference ? symbolMappings.get(((SymbolReference) arguments.get(1)).getName()) : null;
+                                if (!(mappedPercentage instanceof Literal)) {
+                                    throw new PrestoException(CUBE_ERROR, "Percentage of approx_percentile is not a constant. Arguments = " + arguments);
+                                }
+                                percentage = Optional.of((Literal) mappedPercentage);
+                            }
+                            Symbol sketchSymbol = null;
+                            if (!symbolAssignments.containsValue(sketchColumnHandle)) {
+                                ColumnMetadata columnMetadata = metadata.getColumnMetadata(session, cubeTableHandle, sketchColumnHandle);
+                                sketchSymbol = symbolAllocator.newSymbol(aggFunction + "_" + originalColumnName + "_" + originalAggOutputSymbol.getName(), columnMetadata.getType());
+                                cubeScanSymbols.add(sketchSymbol);
+                                symbolAssignments.put(sketchSymbol, sketchColumnHandle);
+                                symbolMetadataMap.put(sketchSymbol, columnMetadata);
+                            }
+                            else {
+                                for (Map.Entry<Symbol, ColumnHandle> assignment : symbolAssignments.entrySet()) {
+                                    if (assignment.getValue().equals(sketchColumnHandle)) {
+                                        sketchSymbol = assignment.getKey();
+                                        break;
+                                    }
+                                }
+                            }
+                            sketchAggregationColumns.add(new CubeRewriteResult.SketchAggregatorSource(originalAggOutputSymbol, sketchSymbol, aggFunction, percentage));
+                            break;
                         default:
                             throw new PrestoException(StandardErrorCode.GENERIC_INTERNAL_ERROR, "Unsupported aggregation function " + aggFunction);
                     }
@@ -378,6 +465,6 @@ public class AggregationRewriteWithCube
             }
         }
         TableScanNode tableScanNode = TableScanNode.newInstance(idAllocator.getNextId(), cubeTableHandle, new ArrayList<>(cubeScanSymbols), symbolAssignments, ReuseExchangeOperator.STRATEGY.REUSE_STRATEGY_DEFAULT, new UUID(0, 0), 0, false);
-        return new CubeRewriteResult(tableScanNode, symbolMetadataMap, dimensionSymbols, aggregationColumns, averageAggregationColumns);
+        return new CubeRewriteResult(tableScanNode, symbolMetadataMap, dimensionSymbols, aggregationColumns, averageAggregationColumns, sketchAggregationColumns);
     }
 }
@@ -18,9 +18,12 @@ package io.prestosql.sql.planner.optimizations;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.plan.Symbol;
 import io.prestosql.spi.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 public class CubeRewriteResult
@@ -30,14 +33,21 @@ public class CubeRewriteResult
     private final Set<DimensionSource> dimensionColumns;
     private final Set<AggregatorSource> aggregationColumns;
     private final Set<AverageAggregatorSource> avgAggregationColumns;
+    private final Set<SketchAggregatorSource> sketchAggregationColumns;
 
     public CubeRewriteResult(TableScanNode tableScanNode, Map<Symbol, ColumnMetadata> symbolMetadataMap, Set<DimensionSource> dimensionColumns, Set<AggregatorSource> aggregationColumns, Set<AverageAggregatorSource> avgAggregationColumns)
+    {
+        this(tableScanNode, symbolMetadataMap, dimensionColumns, aggregationColumns, avgAggregationColumns, Collections.emptySet());
+    }
+
+    public CubeRewriteResult(TableScanNode tableScanNode, Map<Symbol, ColumnMetadata> symbolMetadataMap, Set<DimensionSource> dimensionColumns, Set<AggregatorSource> aggregationColumns, Set<AverageAggregatorSource> avgAggregationColumns, Set<SketchAggregatorSource> sketchAggregationColumns)
     {
         this.tableScanNode = tableScanNode;
         this.symbolMetadataMap = symbolMetadataMap;
         this.dimensionColumns = dimensionColumns;
         this.aggregationColumns = aggregationColumns;
         this.avgAggregationColumns = avgAggregationColumns;
+        this.sketchAggregationColumns = sketchAggregationColumns;
     }
 
     public TableScanNode getTableScanNode()
@@ -65,6 +75,11 @@ public class CubeRewriteResult
         return avgAggregationColumns;
     }
 
+    public Set<SketchAggregatorSource> getSketchAggregationColumns()
+    {
+        return sketchAggregationColumns;
+    }
+
     public static class DimensionSource
     {
         private final Symbol originalScanSymbol;
@@ -198,4 +213,68 @@ public class CubeRewriteResult
             return Objects.hash(originalAggSymbol, sum, count);
         }
     }
+
+    /**
+     * approx_distinct or approx_percentile aggregation computed from the serialized sketches of a cube column
+     */
+    public static class SketchAggregatorSource
+    {
+        private final Symbol originalAggSymbol;
+        private final Symbol scanSymbol;
+        private final String function;
+        private final Optional<Expression> percentage;
+
+        public SketchAggregatorSource(Symbol originalAggSymbol, Symbol scanSymbol, String function, Optional<Expression> percentage)
+        {
+            this.originalAggSymbol = originalAggSymbol;
+            this.scanSymbol = scanSymbol;
+            this.function = function;
+            this.percentage = percentage;
+        }
+
+        public Symbol getOriginalAggSymbol()
+        {
+            return originalAggSymbol;
+        }
+
+        public Symbol getScanSymbol()
+        {
+            return scanSymbol;
+        }
+
+        public String getFunction()
+        {
+            return function;
+        }
+
+        /**
+         * The percentage of approx_percentile
+         */
+        public Optional<Expression> getPercentage()
+        {
+            return percentage;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SketchAggregatorSource that = (SketchAggregatorSource) o;
+            return Objects.equals(originalAggSymbol, that.originalAggSymbol) &&
+                    Objects.equals(scanSymbol, that.scanSymbol) &&
+                    Objects.equals(function, that.function) &&
+                    Objects.equals(percentage, that.percentage);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(originalAggSymbol, scanSymbol, function, percentage);
+        }
+    }
 }
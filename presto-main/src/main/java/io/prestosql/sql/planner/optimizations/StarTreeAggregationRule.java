@@ -15,6 +15,7 @@
 
 package io.prestosql.sql.planner.optimizations;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.hetu.core.spi.cube.CubeFilter;
@@ -24,6 +25,7 @@ import io.hetu.core.spi.cube.aggregator.AggregationSignature;
 import io.hetu.core.spi.cube.io.CubeMetaStore;
 import io.prestosql.Session;
 import io.prestosql.SystemSessionProperties;
+import io.prestosql.cube.CubeAdvisor;
 import io.prestosql.cube.CubeManager;
 import io.prestosql.cube.CubeStatementGenerator;
 import io.prestosql.execution.warnings.WarningCollector;
@@ -35,6 +37,8 @@ import io.prestosql.metadata.TableMetadata;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.PrestoWarning;
 import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.metadata.TableHandle;
 import io.prestosql.spi.plan.AggregationNode;
 import io.prestosql.spi.plan.FilterNode;
@@ -43,10 +47,13 @@ import io.prestosql.spi.plan.PlanNodeIdAllocator;
 import io.prestosql.spi.plan.ProjectNode;
 import io.prestosql.spi.plan.Symbol;
 import io.prestosql.spi.plan.TableScanNode;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.relation.CallExpression;
 import io.prestosql.spi.relation.RowExpression;
 import io.prestosql.spi.relation.VariableReferenceExpression;
+import io.prestosql.spi.statistics.ColumnStatistics;
+import io.prestosql.spi.statistics.TableStatistics;
 import io.prestosql.sql.ExpressionUtils;
 import io.prestosql.sql.analyzer.FeaturesConfig;
 import io.prestosql.sql.parser.ParsingOptions;
@@ -76,8 +83,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static io.prestosql.SystemSessionProperties.isCubeIncrementalRefreshEnabled;
 import static io.prestosql.SystemSessionProperties.isEnableStarTreeIndex;
 import static io.prestosql.cube.CubeManager.STAR_TREE;
 import static io.prestosql.matching.Capture.newCapture;
@@ -119,10 +128,14 @@ public class StarTreeAggregationRule
 
     public static final String MAX = "max";
 
+    public static final String APPROX_DISTINCT = "approx_distinct";
+
+    public static final String APPROX_PERCENTILE = "approx_percentile";
+
     /**
      * Aggregation functions supported by the Star-Tree index.
      */
-    private static final Set<String> SUPPORTED_FUNCTIONS = ImmutableSet.of(AVG, COUNT, SUM, MIN, MAX);
+    private static final Set<String> SUPPORTED_FUNCTIONS = ImmutableSet.of(AVG, COUNT, SUM, MIN, MAX, APPROX_DISTINCT, APPROX_PERCENTILE);
 
     private static final Capture<Optional<PlanNode>> OPTIONAL_PRE_PROJECT_ONE = newCapture();
 
@@ -180,6 +193,12 @@ public class StarTreeAggregationRule
 
     @Override
     public boolean isEnabled(Session session)
+    {
+        // the cube advisor records the aggregations of the queries, even when they cannot use cubes
+        return isStarTreeEnabled(session) || cubeManager.getCubeAdvisor().isEnabled();
+    }
+
+    private boolean isStarTreeEnabled(Session session)
     {
         if (isEnableStarTreeIndex(session) && this.cubeManager.getCubeProvider(STAR_TREE).isPresent()) {
             if (this.cubeMetaStore == null) {
@@ -275,6 +294,37 @@ public class StarTreeAggregationRule
             return Result.empty();
         }
 
+        Result result = Result.empty();
+        if (isStarTreeEnabled(session)) {
+            result = rewriteWithCube(aggregationNode, filterNode, tableHandle, tableName, statement, symbolMapping, session, symbolAllocator, idAllocator, warningCollector);
+        }
+        CubeAdvisor cubeAdvisor = cubeManager.getCubeAdvisor();
+        if (result.isEmpty() && cubeAdvisor.isEnabled()) {
+            // the grouping and the filter columns of the query must both be dimensions of the cube
+            Set<String> dimensions = new HashSet<>(statement.getGroupBy());
+            if (filterNode != null) {
+                SymbolsExtractor.extractUnique(((FilterNode) filterNode).getPredicate()).stream()
+                        .map(symbol -> symbolMapping.get(symbol.getName()))
+                        .filter(ColumnHandle.class::isInstance)
+                        .forEach(column -> dimensions.add(((ColumnHandle) column).getColumnName()));
+            }
+            cubeAdvisor.recordAggregation(session.getQueryId().toString(), tableName, dimensions, statement.getAggregations(),
+                    () -> estimateCubeSize(session, tableHandle, dimensions));
+        }
+        return result;
+    }
+
+    private Result rewriteWithCube(AggregationNode aggregationNode,
+            PlanNode filterNode,
+            TableHandle tableHandle,
+            String tableName,
+            CubeStatement statement,
+            Map<String, Object> symbolMapping,
+            Session session,
+            PlanSymbolAllocator symbolAllocator,
+            PlanNodeIdAllocator idAllocator,
+            WarningCollector warningCollector)
+    {
         List<CubeMetadata> cubeMetadataList = CubeMetadata.filter(this.cubeMetaStore.getMetadataList(statement.getFrom()), statement);
 
         //Compare FilterNode predicate with Cube predicates to evaluate which cube can be used.
@@ -299,8 +349,14 @@ public class StarTreeAggregationRule
         if (lastModifiedTime == -1L) {
             return Result.empty();
         }
+        //With incremental refresh, the source table may be modified outside the ranges covered by the cubes.
+        //The query predicate was matched to be within the covered ranges, so the cube is still valid for the query
+        //as long as the source data within the range of the query was not modified.
+        boolean incrementalRefreshEnabled = isCubeIncrementalRefreshEnabled(session);
+        Supplier<Long> queryRangeModifiedTime = Suppliers.memoize(() -> getQueryRangeModificationTime((FilterNode) filterNode, tableHandle, symbolMapping, session, symbolAllocator.getTypes()));
         matchedCubeMetadataList = matchedCubeMetadataList.stream()
-                .filter(cubeMetadata -> cubeMetadata.getSourceTableLastUpdatedTime() >= lastModifiedTime)
+                .filter(cubeMetadata -> cubeMetadata.getSourceTableLastUpdatedTime() >= lastModifiedTime
+                        || (incrementalRefreshEnabled && cubeMetadata.isIncrementallyRefreshable() && isQueryRangeUnmodified(cubeMetadata, queryRangeModifiedTime.get())))
                 .collect(Collectors.toList());
 
         if (matchedCubeMetadataList.isEmpty()) {
@@ -313,7 +369,76 @@ public class StarTreeAggregationRule
         matchedCubeMetadataList.sort(Comparator.comparingLong(CubeMetadata::getLastUpdatedTime).reversed());
         CubeMetadata matchedCubeMetadata = matchedCubeMetadataList.get(0);
         AggregationRewriteWithCube aggregationRewriteWithCube = new AggregationRewriteWithCube(metadata, session, symbolAllocator, idAllocator, symbolMapping, matchedCubeMetadata);
-        return Result.ofPlanNode(aggregationRewriteWithCube.rewrite(aggregationNode, rewriteByRemovingSourceFilter(filterNode, matchedCubeMetadata)));
+        PlanNode rewritten = aggregationRewriteWithCube.rewrite(aggregationNode, rewriteByRemovingSourceFilter(filterNode, matchedCubeMetadata));
+        cubeManager.getCubeAdvisor().recordCubeUsage(session.getQueryId().toString(), matchedCubeMetadata.getCubeName());
+        return Result.ofPlanNode(rewritten);
+    }
+
+    private static boolean isQueryRangeUnmodified(CubeMetadata cubeMetadata, long queryRangeModifiedTime)
+    {
+        return queryRangeModifiedTime != -1L && cubeMetadata.getSourceTableLastUpdatedTime() >= queryRangeModifiedTime;
+    }
+
+    /**
+     * Returns the modification time of the source table data within the range of the query predicate,
+     * or -1 if it cannot be determined. Connectors which cannot constrain the table to the range
+     * return the modification time of the entire table.
+     */
+    private long getQueryRangeModificationTime(FilterNode filterNode, TableHandle tableHandle, Map<String, Object> symbolMapping, Session session, TypeProvider types)
+    {
+        if (filterNode == null) {
+            return -1L;
+        }
+        TupleDomain<Symbol> queryDomain = ExpressionDomainTranslator.fromPredicate(metadata, session, castToExpression(filterNode.getPredicate()), types).getTupleDomain();
+        if (queryDomain.isAll() || !queryDomain.getDomains().isPresent()) {
+            return -1L;
+        }
+        // Domains of symbols which are not plain source columns are left out, which only widens the range
+        Map<ColumnHandle, Domain> columnDomains = new HashMap<>();
+        for (Map.Entry<Symbol, Domain> entry : queryDomain.getDomains().get().entrySet()) {
+            Object column = symbolMapping.get(entry.getKey().getName());
+            if (column instanceof ColumnHandle && metadata.getColumnMetadata(session, tableHandle, (ColumnHandle) column).getType().equals(entry.getValue().getType())) {
+                columnDomains.merge((ColumnHandle) column, entry.getValue(), Domain::intersect);
+            }
+        }
+        if (columnDomains.isEmpty()) {
+            return -1L;
+        }
+        TableHandle constrainedHandle = metadata.applyFilter(session, tableHandle, new Constraint(TupleDomain.withColumnDomains(columnDomains)))
+                .map(ConstraintApplicationResult::getHandle)
+                .orElse(tableHandle);
+        LongSupplier modifiedTimeSupplier = metadata.getTableLastModifiedTimeSupplier(session, constrainedHandle);
+        return modifiedTimeSupplier == null ? -1L : modifiedTimeSupplier.getAsLong();
+    }
+
+    /**
+     * Estimate the number of rows of a cube as the product of the number of distinct values of its dimensions
+     */
+    private CubeAdvisor.SizeEstimate estimateCubeSize(Session session, TableHandle tableHandle, Set<String> dimensions)
+    {
+        try {
+            TableStatistics statistics = metadata.getTableStatistics(session, tableHandle, Constraint.alwaysTrue(), true);
+            if (statistics.getRowCount().isUnknown()) {
+                return CubeAdvisor.SizeEstimate.UNKNOWN;
+            }
+            double sourceRows = statistics.getRowCount().getValue();
+            Map<String, ColumnHandle> columnHandles = metadata.getColumnHandles(session, tableHandle);
+            double cubeRows = 1;
+            for (String dimension : dimensions) {
+                ColumnStatistics columnStatistics = statistics.getColumnStatistics().get(columnHandles.get(dimension));
+                if (columnStatistics == null || columnStatistics.getDistinctValuesCount().isUnknown()) {
+                    return new CubeAdvisor.SizeEstimate(sourceRows, Double.NaN);
+                }
+                // null is one more group
+                boolean hasNulls = columnStatistics.getNullsFraction().isUnknown() || columnStatistics.getNullsFraction().getValue() > 0;
+                cubeRows *= columnStatistics.getDistinctValuesCount().getValue() + (hasNulls ? 1 : 0);
+            }
+            return new CubeAdvisor.SizeEstimate(sourceRows, Math.min(sourceRows, cubeRows));
+        }
+        catch (RuntimeException e) {
+            LOGGER.debug(e, "Failed to estimate the size of a cube on %s", tableHandle);
+            return CubeAdvisor.SizeEstimate.UNKNOWN;
+        }
     }
 
     private FilterNode rewriteByRemovingSourceFilter(PlanNode filterNode, CubeMetadata matchedCubeMetadata)
@@ -550,9 +675,12 @@ public class StarTreeAggregationRule
 
     static boolean isSupported(AggregationNode.Aggregation aggregation)
     {
-        return SUPPORTED_FUNCTIONS.contains(aggregation.getFunctionCall().getDisplayName()) &&
-                aggregation.getFunctionCall().getArguments().size() <= 1 &&
-                (!aggregation.isDistinct() || aggregation.getFunctionCall().getDisplayName().equals(COUNT));
+        String functionName = aggregation.getFunctionCall().getDisplayName();
+        int argumentCount = aggregation.getFunctionCall().getArguments().size();
+        return SUPPORTED_FUNCTIONS.contains(functionName) &&
+                // approx_percentile(column, percentage)
+                (argumentCount <= 1 || (argumentCount == 2 && functionName.equals(APPROX_PERCENTILE))) &&
+                (!aggregation.isDistinct() || functionName.equals(COUNT));
     }
 
     /**
@@ -62,6 +62,8 @@ import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import static io.prestosql.cube.CubeManager.STAR_TREE;
+import static io.prestosql.cube.CubeSketchFunctions.createSerializedSketchAggregation;
+import static io.prestosql.cube.CubeSketchFunctions.isSketchFunction;
 import static io.prestosql.metadata.MetadataUtil.createQualifiedObjectName;
 import static java.util.Objects.requireNonNull;
 
@@ -144,6 +146,11 @@ public class InsertCubeRewrite
             List<SelectItem> selectItems = new ArrayList<>();
             cubeMetadata.getAggregations().forEach(aggColumn -> {
                 AggregationSignature aggregationSignature = cubeMetadata.getAggregationSignature(aggColumn).orElseThrow(() -> new PrestoException(StandardErrorCode.CUBE_ERROR, String.format("Cannot find aggregation column '%s'", aggColumn)));
+                insertColumns.add(new Identifier(aggColumn));
+                if (isSketchFunction(aggregationSignature.getFunction())) {
+                    selectItems.add(new SingleColumn(createSerializedSketchAggregation(aggregationSignature.getFunction(), new Identifier(aggregationSignature.getDimension()))));
+                    return;
+                }
                 FunctionCall aggFunction = new FunctionCall(
                         Optional.empty(),
                         QualifiedName.of(aggregationSignature.getFunction()),
@@ -153,7 +160,6 @@ public class InsertCubeRewrite
                         aggregationSignature.isDistinct(),
                         aggregationSignature.getDimension().equals("*") ?
                                 Collections.emptyList() : Lists.newArrayList(new Identifier(aggregationSignature.getDimension())));
-                insertColumns.add(new Identifier(aggColumn));
                 selectItems.add(new SingleColumn(aggFunction));
             });
             cubeMetadata.getDimensions().forEach(dimension -> {
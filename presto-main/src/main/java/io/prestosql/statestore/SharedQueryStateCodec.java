@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.statestore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.airlift.json.ObjectMapperProvider;
+import io.prestosql.protocol.SmileObjectMapperProvider;
+
+import java.io.IOException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes query states stored in the state store, either as json strings or, with incremental state updates,
+ * as Smile encoded byte arrays. Both encodings can always be decoded, so states written by SqlQueryManager
+ * or by coordinators which do not use incremental updates can still be read.
+ */
+public final class SharedQueryStateCodec
+{
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapperProvider().get();
+    private static final ObjectMapper SMILE_MAPPER = new SmileObjectMapperProvider().get();
+
+    private SharedQueryStateCodec()
+    {
+        //utility class
+    }
+
+    /**
+     * Encode a query state
+     *
+     * @param state query state
+     * @param binary encode the state as Smile byte array instead of json string
+     * @return encoded state
+     * @throws JsonProcessingException exception when failed to serialize the state
+     */
+    public static Object encode(SharedQueryState state, boolean binary)
+            throws JsonProcessingException
+    {
+        requireNonNull(state, "state is null");
+        if (binary) {
+            return SMILE_MAPPER.writeValueAsBytes(state);
+        }
+        return JSON_MAPPER.writeValueAsString(state);
+    }
+
+    /**
+     * Decode a query state encoded as json string or Smile byte array
+     *
+     * @param value encoded state
+     * @return query state
+     * @throws IOException exception when failed to deserialize the state
+     */
+    public static SharedQueryState decode(Object value)
+            throws IOException
+    {
+        requireNonNull(value, "value is null");
+        if (value instanceof byte[]) {
+            return SMILE_MAPPER.readerFor(SharedQueryState.class).readValue((byte[]) value);
+        }
+        return JSON_MAPPER.readerFor(SharedQueryState.class).readValue((String) value);
+    }
+}
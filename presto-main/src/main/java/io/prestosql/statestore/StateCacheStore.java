@@ -87,6 +87,57 @@ public class StateCacheStore
         }
     }
 
+    /**
+     * Put a single state in StateCacheStore, the cache is created if it does not exist yet
+     *
+     * @param cacheName name of the cache
+     * @param key key of the state
+     * @param state state to cache
+     */
+    public void putCachedState(String cacheName, Object key, Object state)
+    {
+        requireNonNull(cacheName, "cacheName is null");
+        requireNonNull(key, "key is null");
+        requireNonNull(state, "state is null");
+
+        synchronized (cachedStates) {
+            getMutableCachedStates(cacheName).put(key, state);
+        }
+    }
+
+    /**
+     * Remove a single state from StateCacheStore
+     *
+     * @param cacheName name of the cache
+     * @param key key of the state
+     */
+    public void removeCachedState(String cacheName, Object key)
+    {
+        requireNonNull(cacheName, "cacheName is null");
+        requireNonNull(key, "key is null");
+
+        synchronized (cachedStates) {
+            if (cachedStates.containsKey(cacheName)) {
+                getMutableCachedStates(cacheName).remove(key);
+            }
+        }
+    }
+
+    private Map getMutableCachedStates(String cacheName)
+    {
+        Map states = cachedStates.get(cacheName);
+        if (!(states instanceof ConcurrentHashMap)) {
+            // caches set by a full fetch are immutable
+            Map mutableStates = new ConcurrentHashMap<>();
+            if (states != null) {
+                mutableStates.putAll(states);
+            }
+            cachedStates.put(cacheName, mutableStates);
+            return mutableStates;
+        }
+        return states;
+    }
+
     /**
      * Clear the StateCacheStore instance
      */
@@ -14,10 +14,8 @@
  */
 package io.prestosql.statestore;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import io.airlift.json.ObjectMapperProvider;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.execution.QueryState;
@@ -26,12 +24,19 @@ import io.prestosql.spi.ErrorType;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
 import io.prestosql.spi.statestore.StateStore;
+import io.prestosql.spi.statestore.listener.EntryAddedListener;
+import io.prestosql.spi.statestore.listener.EntryEvent;
+import io.prestosql.spi.statestore.listener.EntryRemovedListener;
+import io.prestosql.spi.statestore.listener.EntryUpdatedListener;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
@@ -55,6 +60,12 @@ import static io.prestosql.utils.StateUtils.removeState;
 
 /**
  * State fetcher service used to fetch externalized query states from external state store
+ * <p>
+ * With incremental fetching, the fetcher subscribes to the state collections with entry listeners
+ * which apply every added, updated or removed state to the StateCacheStore. The state collections are
+ * only fetched completely once per state expire time, to resynchronize the cache, in between the
+ * background task only checks the cached states for expired states. The states changed by the listeners
+ * while a collection is fetched are merged into the fetched states, unless the fetched state is newer.
  *
  * @since 2019-11-29
  */
@@ -67,16 +78,24 @@ public class StateFetcher
     private final Duration stateExpireTime;
     private final Set<String> stateCollections = new HashSet<>();
     private final ScheduledExecutorService stateUpdateExecutor;
+    private final boolean incrementalFetchEnabled;
+    private final Map<String, StateCacheListener> subscribedCollections = new HashMap<>();
+    private long lastFullFetchTime;
     private ScheduledFuture<?> backgroundTask;
 
-    private static final ObjectMapper MAPPER = new ObjectMapperProvider().get();
     private static final int THREAD_POOL_SIZE = 2;
 
     public StateFetcher(StateStoreProvider stateStoreProvider, Duration fetchInterval, Duration stateExpireTime)
+    {
+        this(stateStoreProvider, fetchInterval, stateExpireTime, false);
+    }
+
+    public StateFetcher(StateStoreProvider stateStoreProvider, Duration fetchInterval, Duration stateExpireTime, boolean incrementalFetchEnabled)
     {
         this.stateStoreProvider = stateStoreProvider;
         this.fetchInterval = fetchInterval;
         this.stateExpireTime = stateExpireTime;
+        this.incrementalFetchEnabled = incrementalFetchEnabled;
         this.stateUpdateExecutor = Executors.newScheduledThreadPool(THREAD_POOL_SIZE, threadsNamed("state-fetcher-%s"));
     }
 
@@ -106,6 +125,7 @@ public class StateFetcher
                 backgroundTask.cancel(true);
                 stateCollections.clear();
             }
+            unsubscribeStateCollections();
         }
     }
 
@@ -145,6 +165,12 @@ public class StateFetcher
             }
 
             long start = System.currentTimeMillis();
+            if (incrementalFetchEnabled && start - lastFullFetchTime < stateExpireTime.toMillis()) {
+                // the cached states are kept up to date by the entry listeners
+                handleExpiredCachedStates();
+                return;
+            }
+
             LOG.debug("fetchStates starts at current time milliseconds: %s, at format HH:mm:ss:SSS:%s",
                     start,
                     new SimpleDateFormat("HH:mm:ss:SSS").format(new Date(start)));
@@ -154,19 +180,26 @@ public class StateFetcher
                 if (stateCollection == null) {
                     continue;
                 }
+                StateCacheListener listener = null;
+                if (incrementalFetchEnabled && stateCollection.getType() == StateCollection.Type.MAP) {
+                    // subscribe before fetching the states so no update is missed
+                    listener = subscribeStateCollection(stateCollectionName, (StateMap) stateCollection);
+                    listener.fetchStarted();
+                }
                 if (stateCollectionName.equals(CPU_USAGE_STATE_COLLECTION_NAME)) {
-                    StateCacheStore.get().setCachedStates(stateCollectionName, ((StateMap) stateCollection).getAll());
+                    setFetchedStates(stateCollectionName, ((StateMap) stateCollection).getAll(), listener);
                     continue;
                 }
 
                 if (stateCollection.getType() == StateCollection.Type.MAP) {
-                    Map<String, String> states = ((StateMap<String, String>) stateCollection).getAll();
-                    StateCacheStore.get().setCachedStates(stateCollectionName, deserializeFetchedStates(states));
+                    Map<String, Object> states = ((StateMap<String, Object>) stateCollection).getAll();
+                    setFetchedStates(stateCollectionName, deserializeFetchedStates(states), listener);
                 }
                 else {
                     LOG.warn("Unsupported state collection type: %s", stateCollection.getType());
                 }
             }
+            lastFullFetchTime = start;
             long end = System.currentTimeMillis();
             LOG.debug("fetchStates ends at current time milliseconds: %s, at format HH:mm:ss:SSS:%s, total time use: %s",
                     end,
@@ -195,7 +228,7 @@ public class StateFetcher
 
             StateCacheStore.get().setCachedStates(CPU_USAGE_STATE_COLLECTION_NAME, ((StateMap) cpuUsageCollection).getAll());
 
-            Map<String, String> states = ((StateMap<String, String>) queryStateCollection).getAll();
+            Map<String, Object> states = ((StateMap<String, Object>) queryStateCollection).getAll();
             StateCacheStore.get().setCachedStates(QUERY_STATE_COLLECTION_NAME, deserializeFetchedStates(states));
 
             long end = System.currentTimeMillis();
@@ -206,13 +239,68 @@ public class StateFetcher
         }
     }
 
-    private Map<String, SharedQueryState> deserializeFetchedStates(Map<String, String> states)
-            throws JsonProcessingException
+    private static void setFetchedStates(String stateCollectionName, Map<String, ?> states, StateCacheListener listener)
+    {
+        if (listener == null) {
+            StateCacheStore.get().setCachedStates(stateCollectionName, states);
+        }
+        else {
+            listener.fetchFinished(states);
+        }
+    }
+
+    private StateCacheListener subscribeStateCollection(String stateCollectionName, StateMap<String, Object> stateMap)
+    {
+        StateCacheListener listener = subscribedCollections.get(stateCollectionName);
+        if (listener == null) {
+            listener = new StateCacheListener(stateCollectionName);
+            stateMap.addEntryListener(listener);
+            subscribedCollections.put(stateCollectionName, listener);
+        }
+        return listener;
+    }
+
+    private void unsubscribeStateCollections()
+    {
+        StateStore stateStore = stateStoreProvider.getStateStore();
+        if (stateStore != null) {
+            for (Map.Entry<String, StateCacheListener> entry : subscribedCollections.entrySet()) {
+                StateCollection stateCollection = stateStore.getStateCollection(entry.getKey());
+                if (stateCollection != null) {
+                    ((StateMap) stateCollection).removeEntryListener(entry.getValue());
+                }
+            }
+        }
+        subscribedCollections.clear();
+        lastFullFetchTime = 0;
+    }
+
+    private void handleExpiredCachedStates()
+    {
+        DateTime currentTime = new DateTime(DateTimeZone.UTC);
+        for (String stateCollectionName : stateCollections) {
+            if (stateCollectionName.equals(CPU_USAGE_STATE_COLLECTION_NAME)) {
+                continue;
+            }
+            Map<String, SharedQueryState> states = StateCacheStore.get().getCachedStates(stateCollectionName);
+            if (states == null) {
+                continue;
+            }
+            for (SharedQueryState state : ImmutableList.copyOf(states.values())) {
+                if (isStateExpired(state, currentTime)) {
+                    handleExpiredQueryState(state);
+                }
+            }
+        }
+    }
+
+    private Map<String, SharedQueryState> deserializeFetchedStates(Map<String, Object> states)
+            throws IOException
     {
         DateTime currentTime = new DateTime(DateTimeZone.UTC);
         ImmutableMap.Builder<String, SharedQueryState> queryStatesBuilder = ImmutableMap.builder();
-        for (Map.Entry<String, String> entry : states.entrySet()) {
-            SharedQueryState state = MAPPER.readerFor(SharedQueryState.class).readValue(entry.getValue());
+        for (Map.Entry<String, Object> entry : states.entrySet()) {
+            SharedQueryState state = SharedQueryStateCodec.decode(entry.getValue());
             if (isStateExpired(state, currentTime)) {
                 handleExpiredQueryState(state);
             }
@@ -266,13 +354,13 @@ public class StateFetcher
                 stateCollection = stateStore.getStateCollection(QUERY_STATE_COLLECTION_NAME);
                 StateCollection finishStateCollection = stateStore.getStateCollection(FINISHED_QUERY_STATE_COLLECTION_NAME);
                 if (stateCollection != null && stateCollection.getType().equals(StateCollection.Type.MAP)) {
-                    String queryState = ((StateMap<String, String>) stateCollection).get(state.getBasicQueryInfo().getQueryId().getId());
+                    Object queryState = ((StateMap<String, Object>) stateCollection).get(state.getBasicQueryInfo().getQueryId().getId());
                     if (queryState != null) {
                         BasicQueryInfo oldQueryInfo = state.getBasicQueryInfo();
                         SharedQueryState newState = createExpiredState(oldQueryInfo, state);
 
-                        String stateJson = MAPPER.writeValueAsString(newState);
-                        ((StateMap) finishStateCollection).put(newState.getBasicQueryInfo().getQueryId().getId(), stateJson);
+                        Object encodedState = SharedQueryStateCodec.encode(newState, incrementalFetchEnabled);
+                        ((StateMap) finishStateCollection).put(newState.getBasicQueryInfo().getQueryId().getId(), encodedState);
                         removeState(stateCollection, Optional.of(state.getBasicQueryInfo().getQueryId()), LOG);
                     }
                 }
@@ -315,4 +403,91 @@ public class StateFetcher
 
         return newState;
     }
+
+    /**
+     * Applies the updates of a state collection to the StateCacheStore
+     */
+    private static class StateCacheListener
+            implements EntryAddedListener<String, Object>, EntryUpdatedListener<String, Object>, EntryRemovedListener<String, Object>
+    {
+        private final String stateCollectionName;
+        // keys of the states added, updated or removed since the current full fetch started
+        @GuardedBy("this")
+        private final Set<String> changedKeys = new HashSet<>();
+
+        private StateCacheListener(String stateCollectionName)
+        {
+            this.stateCollectionName = stateCollectionName;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, Object> event)
+        {
+            updateCachedState(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Object> event)
+        {
+            updateCachedState(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public synchronized void entryRemoved(EntryEvent<String, Object> event)
+        {
+            changedKeys.add(event.getKey());
+            StateCacheStore.get().removeCachedState(stateCollectionName, event.getKey());
+        }
+
+        private synchronized void fetchStarted()
+        {
+            changedKeys.clear();
+        }
+
+        /**
+         * Replace the cached states with the fetched states, except for the states changed
+         * since the fetch started, the cached state is kept unless the fetched state is newer
+         */
+        private synchronized void fetchFinished(Map<String, ?> fetchedStates)
+        {
+            Map<String, Object> states = new HashMap<>(fetchedStates);
+            Map<String, Object> cachedStates = StateCacheStore.get().getCachedStates(stateCollectionName);
+            for (String key : changedKeys) {
+                Object cachedState = cachedStates == null ? null : cachedStates.get(key);
+                if (cachedState == null) {
+                    // removed while the states were fetched
+                    states.remove(key);
+                }
+                else if (!isNewer(states.get(key), cachedState)) {
+                    states.put(key, cachedState);
+                }
+            }
+            changedKeys.clear();
+            StateCacheStore.get().setCachedStates(stateCollectionName, states);
+        }
+
+        private static boolean isNewer(Object state, Object other)
+        {
+            return state instanceof SharedQueryState && other instanceof SharedQueryState
+                    && ((SharedQueryState) state).getStateUpdateTime().isAfter(((SharedQueryState) other).getStateUpdateTime());
+        }
+
+        private synchronized void updateCachedState(String key, Object value)
+        {
+            if (value == null) {
+                return;
+            }
+            changedKeys.add(key);
+            if (stateCollectionName.equals(CPU_USAGE_STATE_COLLECTION_NAME)) {
+                StateCacheStore.get().putCachedState(stateCollectionName, key, value);
+                return;
+            }
+            try {
+                StateCacheStore.get().putCachedState(stateCollectionName, key, SharedQueryStateCodec.decode(value));
+            }
+            catch (IOException | RuntimeException e) {
+                LOG.warn("Failed to decode state %s of state collection %s: %s", key, stateCollectionName, e.getMessage());
+            }
+        }
+    }
 }
@@ -15,25 +15,30 @@
 package io.prestosql.statestore;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
-import io.airlift.json.ObjectMapperProvider;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.dispatcher.DispatchQuery;
 import io.prestosql.execution.ManagedQueryExecution;
 import io.prestosql.execution.QueryState;
+import io.prestosql.spi.ErrorCode;
+import io.prestosql.spi.memory.MemoryPoolId;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
 import io.prestosql.spi.statestore.StateStore;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -47,9 +52,14 @@ import static io.prestosql.statestore.StateStoreConstants.FINISHED_QUERY_STATE_C
 import static io.prestosql.statestore.StateStoreConstants.OOM_QUERY_STATE_COLLECTION_NAME;
 import static io.prestosql.statestore.StateStoreConstants.QUERY_STATE_COLLECTION_NAME;
 import static io.prestosql.utils.StateUtils.removeState;
+import static java.util.Objects.requireNonNull;
 
 /**
  * State updater service used to update locally registered query states to external state store
+ * <p>
+ * With incremental updates, the states are Smile encoded and a running query's state is only written
+ * when it changed since it was last written, or when it was not written for the republish interval,
+ * so the state update time seen by the other coordinators does not expire.
  *
  * @since 2019-11-29
  */
@@ -61,15 +71,25 @@ public class StateUpdater
     private final Duration updateInterval;
     private final Multimap<String, DispatchQuery> registeredQueries = Multimaps.synchronizedMultimap(ArrayListMultimap.create());
     private final ScheduledExecutorService stateUpdateExecutor;
+    private final boolean incrementalUpdateEnabled;
+    private final Duration republishInterval;
+    // guarded by registeredQueries
+    private final Map<String, PublishedState> publishedStates = new HashMap<>();
     private ScheduledFuture<?> backgroundTask;
 
-    private static final ObjectMapper MAPPER = new ObjectMapperProvider().get();
     private static final int THREAD_POOL_SIZE = 2;
 
     public StateUpdater(StateStoreProvider stateStoreProvider, Duration updateInterval)
+    {
+        this(stateStoreProvider, updateInterval, false, updateInterval);
+    }
+
+    public StateUpdater(StateStoreProvider stateStoreProvider, Duration updateInterval, boolean incrementalUpdateEnabled, Duration republishInterval)
     {
         this.stateStoreProvider = stateStoreProvider;
         this.updateInterval = updateInterval;
+        this.incrementalUpdateEnabled = incrementalUpdateEnabled;
+        this.republishInterval = requireNonNull(republishInterval, "republishInterval is null");
         this.stateUpdateExecutor = Executors.newScheduledThreadPool(THREAD_POOL_SIZE, threadsNamed("state-updater-%s"));
     }
 
@@ -97,7 +117,10 @@ public class StateUpdater
         synchronized (this) {
             if (backgroundTask != null) {
                 backgroundTask.cancel(true);
-                registeredQueries.clear();
+                synchronized (registeredQueries) {
+                    registeredQueries.clear();
+                    publishedStates.clear();
+                }
             }
         }
     }
@@ -137,7 +160,7 @@ public class StateUpdater
     /**
      * Update local queued query states to state store
      *
-     * @throws JsonProcessingException exception when fail to serialize states to json
+     * @throws JsonProcessingException exception when fail to serialize states
      */
     public void updateStates()
             throws JsonProcessingException
@@ -158,20 +181,34 @@ public class StateUpdater
 
         List<DispatchQuery> queriesToUnregister = new LinkedList<>();
         synchronized (registeredQueries) {
+            Set<String> runningQueryIds = new HashSet<>();
             for (DispatchQuery query : registeredQueries.get(QUERY_STATE_COLLECTION_NAME)) {
                 SharedQueryState state = SharedQueryState.create(query);
-                String stateJson = MAPPER.writeValueAsString(state);
+                String queryId = state.getBasicQueryInfo().getQueryId().getId();
 
                 if (state.getBasicQueryInfo().getState() == QueryState.FINISHED || state.getBasicQueryInfo().getState() == QueryState.FAILED) {
                     // No need to update states for finished queries
                     // also move finished queries to finished-query state collection
                     queriesToUnregister.add(query);
-                    ((StateMap) finishedQueries).put(state.getBasicQueryInfo().getQueryId().getId(), stateJson);
+                    ((StateMap) finishedQueries).put(queryId, SharedQueryStateCodec.encode(state, incrementalUpdateEnabled));
+                    continue;
+                }
+
+                runningQueryIds.add(queryId);
+                if (incrementalUpdateEnabled) {
+                    StateDigest digest = new StateDigest(state);
+                    PublishedState published = publishedStates.get(queryId);
+                    if (published != null && published.digest.equals(digest) && start - published.publishTime < republishInterval.toMillis()) {
+                        continue;
+                    }
+                    ((StateMap) queries).put(queryId, SharedQueryStateCodec.encode(state, true));
+                    publishedStates.put(queryId, new PublishedState(digest, start));
                     continue;
                 }
 
-                ((StateMap) queries).put(state.getBasicQueryInfo().getQueryId().getId(), stateJson);
+                ((StateMap) queries).put(queryId, SharedQueryStateCodec.encode(state, false));
             }
+            publishedStates.keySet().retainAll(runningQueryIds);
         }
 
         for (DispatchQuery query : queriesToUnregister) {
@@ -210,4 +247,77 @@ public class StateUpdater
         StateCollection stateCollection = stateStore.getStateCollection(stateCollectionName);
         removeState(stateCollection, Optional.of(query.getBasicQueryInfo().getQueryId()), LOG);
     }
+
+    private static class PublishedState
+    {
+        private final StateDigest digest;
+        private final long publishTime;
+
+        private PublishedState(StateDigest digest, long publishTime)
+        {
+            this.digest = digest;
+            this.publishTime = publishTime;
+        }
+    }
+
+    /**
+     * The parts of a query state the other coordinators act on, the statistics only shown
+     * in query listings and the CPU time are refreshed when the state is republished. The memory
+     * reservations are rounded to four significant bits, so small changes do not publish the state.
+     */
+    private static class StateDigest
+    {
+        private final QueryState queryState;
+        private final Optional<ErrorCode> errorCode;
+        private final boolean scheduled;
+        private final MemoryPoolId memoryPool;
+        private final long userMemoryReservation;
+        private final long totalMemoryReservation;
+        private final boolean executionStarted;
+
+        private StateDigest(SharedQueryState state)
+        {
+            this.queryState = state.getBasicQueryInfo().getState();
+            this.errorCode = state.getErrorCode();
+            this.scheduled = state.getBasicQueryInfo().isScheduled();
+            this.memoryPool = state.getBasicQueryInfo().getMemoryPool();
+            this.userMemoryReservation = roundMemoryReservation(state.getUserMemoryReservation().toBytes());
+            this.totalMemoryReservation = roundMemoryReservation(state.getTotalMemoryReservation().toBytes());
+            this.executionStarted = state.getExecutionStartTime().isPresent();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            StateDigest that = (StateDigest) o;
+            return queryState == that.queryState &&
+                    scheduled == that.scheduled &&
+                    userMemoryReservation == that.userMemoryReservation &&
+                    totalMemoryReservation == that.totalMemoryReservation &&
+                    executionStarted == that.executionStarted &&
+                    errorCode.equals(that.errorCode) &&
+                    Objects.equals(memoryPool, that.memoryPool);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(queryState, errorCode, scheduled, memoryPool, userMemoryReservation, totalMemoryReservation, executionStarted);
+        }
+
+        /**
+         * Keep the four most significant bits of the reservation
+         */
+        private static long roundMemoryReservation(long bytes)
+        {
+            int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(bytes) - 4);
+            return (bytes >>> shift) << shift;
+        }
+    }
 }
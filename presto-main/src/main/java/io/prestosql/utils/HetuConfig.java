@@ -21,6 +21,7 @@ import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 import io.prestosql.spi.HetuConstant;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import java.util.concurrent.TimeUnit;
@@ -44,12 +45,16 @@ public class HetuConfig
     private String indexStoreFileSystemProfile = "local-config-default";
     private boolean indexAutoload = true;
     private String indexToPreload = "";
+    private int indexDisableUnusedAfterSplits = 1000;
+    private boolean indexAutoUpdateEnabled;
+    private Duration indexAutoUpdateDelay = new Duration(1, TimeUnit.MINUTES);
     private Boolean enableEmbeddedStateStore = Boolean.FALSE;
     private Boolean enableMultipleCoordinator = Boolean.FALSE;
     private Duration stateUpdateInterval = new Duration(100, TimeUnit.MILLISECONDS);
     private Duration stateFetchInterval = new Duration(100, TimeUnit.MILLISECONDS);
     private Duration querySubmitTimeout = new Duration(10, TimeUnit.SECONDS);
     private Duration stateExpireTime = new Duration(60, TimeUnit.SECONDS);
+    private boolean incrementalStateUpdateEnabled;
     private int dataCenterSplits = 5;
     private Duration dataCenterConsumerTimeout = new Duration(10, TimeUnit.MINUTES);
     private boolean executionPlanCacheEnabled;
@@ -144,6 +149,47 @@ public class HetuConfig
         return this;
     }
 
+    @Min(0)
+    public int getIndexDisableUnusedAfterSplits()
+    {
+        return indexDisableUnusedAfterSplits;
+    }
+
+    @Config(HetuConstant.FILTER_DISABLE_UNUSED_AFTER_SPLITS)
+    @ConfigDescription("Stop using an index type for the rest of a query if it did not filter any of this many splits, 0 to always use it")
+    public HetuConfig setIndexDisableUnusedAfterSplits(int indexDisableUnusedAfterSplits)
+    {
+        this.indexDisableUnusedAfterSplits = indexDisableUnusedAfterSplits;
+        return this;
+    }
+
+    public boolean isIndexAutoUpdateEnabled()
+    {
+        return indexAutoUpdateEnabled;
+    }
+
+    @Config(HetuConstant.INDEX_AUTO_UPDATE_ENABLED)
+    @ConfigDescription("Update STRIPE and PARTITION level indexes automatically after their table is written to")
+    public HetuConfig setIndexAutoUpdateEnabled(boolean indexAutoUpdateEnabled)
+    {
+        this.indexAutoUpdateEnabled = indexAutoUpdateEnabled;
+        return this;
+    }
+
+    @MinDuration("1s")
+    public Duration getIndexAutoUpdateDelay()
+    {
+        return indexAutoUpdateDelay;
+    }
+
+    @Config(HetuConstant.INDEX_AUTO_UPDATE_DELAY)
+    @ConfigDescription("The delay to wait after a write before updating the indexes of the table, writes within the delay are batched into one update")
+    public HetuConfig setIndexAutoUpdateDelay(Duration indexAutoUpdateDelay)
+    {
+        this.indexAutoUpdateDelay = indexAutoUpdateDelay;
+        return this;
+    }
+
     public Duration getIndexCacheLoadingDelay()
     {
         return this.indexCacheLoadingDelay;
@@ -284,6 +330,19 @@ public class HetuConfig
         return this;
     }
 
+    public boolean isIncrementalStateUpdateEnabled()
+    {
+        return incrementalStateUpdateEnabled;
+    }
+
+    @Config("hetu.multiple-coordinator.incremental-state-update-enabled")
+    @ConfigDescription("Only update changed query states in binary form to state store, and keep cached states up to date with state store listeners")
+    public HetuConfig setIncrementalStateUpdateEnabled(boolean incrementalStateUpdateEnabled)
+    {
+        this.incrementalStateUpdateEnabled = incrementalStateUpdateEnabled;
+        return this;
+    }
+
     public int getDataCenterSplits()
     {
         return dataCenterSplits;
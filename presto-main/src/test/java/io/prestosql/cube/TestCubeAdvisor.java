@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.cube;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.hetu.core.spi.cube.aggregator.AggregationSignature.avg;
+import static io.hetu.core.spi.cube.aggregator.AggregationSignature.count;
+import static io.hetu.core.spi.cube.aggregator.AggregationSignature.sum;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestCubeAdvisor
+{
+    @Test
+    public void testMergeCandidates()
+    {
+        CubeAdvisor advisor = new CubeAdvisor(true, 10);
+        AtomicInteger estimations = new AtomicInteger();
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderdate", "orderpriority"), ImmutableList.of(sum("totalprice", false)), () -> {
+            estimations.incrementAndGet();
+            return new CubeAdvisor.SizeEstimate(15000, 12000);
+        });
+        // the rule may be applied more than once to the same query
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderpriority", "orderdate"), ImmutableList.of(sum("totalprice", false)), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordAggregation("query2", "hive.tpch.orders", ImmutableSet.of("orderpriority", "orderdate"), ImmutableList.of(count(), avg("totalprice", false)), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        // the rules of queries planned concurrently interleave
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderpriority", "orderdate"), ImmutableList.of(sum("totalprice", false)), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+
+        List<CubeAdvisor.Candidate> recommendations = advisor.getRecommendations();
+        assertEquals(recommendations.size(), 1);
+        CubeAdvisor.Candidate candidate = recommendations.get(0);
+        assertEquals(estimations.get(), 1);
+        assertEquals(candidate.getQueryCount(), 2);
+        assertEquals(candidate.getEstimatedCubeRows(), 12000.0);
+        assertEquals(candidate.getEstimatedBenefit(), 6000.0);
+        assertEquals(candidate.getCreateCubeStatement(), "CREATE CUBE hive.tpch.orders_orderdate_orderpriority_cube ON hive.tpch.orders " +
+                "WITH (AGGREGATIONS = (avg(totalprice), count(*), sum(totalprice)), GROUP = (orderdate, orderpriority))");
+    }
+
+    @Test
+    public void testRankByBenefit()
+    {
+        CubeAdvisor advisor = new CubeAdvisor(true, 10);
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderdate"), ImmutableList.of(count()), () -> new CubeAdvisor.SizeEstimate(15000, 2400));
+        advisor.recordAggregation("query2", "hive.tpch.orders", ImmutableSet.of("orderstatus"), ImmutableList.of(count()), () -> new CubeAdvisor.SizeEstimate(15000, 3));
+        advisor.recordAggregation("query3", "hive.tpch.lineitem", ImmutableSet.of("shipmode"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordAggregation("query4", "hive.tpch.lineitem", ImmutableSet.of("shipmode"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+
+        List<CubeAdvisor.Candidate> recommendations = advisor.getRecommendations();
+        assertEquals(recommendations.stream().map(CubeAdvisor.Candidate::getCubeName).collect(ImmutableList.toImmutableList()), ImmutableList.of(
+                "hive.tpch.orders_orderstatus_cube",
+                "hive.tpch.orders_orderdate_cube",
+                // candidates without estimates come last
+                "hive.tpch.lineitem_shipmode_cube"));
+    }
+
+    @Test
+    public void testEvictLeastRecentlySeenCandidate()
+    {
+        CubeAdvisor advisor = new CubeAdvisor(true, 2);
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderdate"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordAggregation("query2", "hive.tpch.orders", ImmutableSet.of("orderstatus"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordAggregation("query3", "hive.tpch.orders", ImmutableSet.of("orderdate"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordAggregation("query4", "hive.tpch.orders", ImmutableSet.of("clerk"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+
+        assertEquals(advisor.getRecommendations().stream().map(CubeAdvisor.Candidate::getCubeName).collect(ImmutableSet.toImmutableSet()), ImmutableSet.of(
+                "hive.tpch.orders_orderdate_cube",
+                "hive.tpch.orders_clerk_cube"));
+    }
+
+    @Test
+    public void testCubeUsage()
+    {
+        CubeAdvisor advisor = new CubeAdvisor(true, 10);
+        assertFalse(advisor.getCubeUsage("hive.tpch.orders_cube").isPresent());
+        advisor.recordCubeUsage("query1", "hive.tpch.orders_cube");
+        advisor.recordCubeUsage("query2", "hive.tpch.orders_cube");
+        // the rule may be applied more than once to the same query
+        advisor.recordCubeUsage("query1", "hive.tpch.orders_cube");
+        assertEquals(advisor.getCubeUsage("hive.tpch.orders_cube").get().getQueryCount(), 2);
+        assertTrue(advisor.getCubeUsage("hive.tpch.orders_cube").get().getLastUsedTime() > 0);
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        CubeAdvisor advisor = new CubeAdvisor(false, 10);
+        advisor.recordAggregation("query1", "hive.tpch.orders", ImmutableSet.of("orderdate"), ImmutableList.of(count()), () -> CubeAdvisor.SizeEstimate.UNKNOWN);
+        advisor.recordCubeUsage("query1", "hive.tpch.orders_cube");
+        assertTrue(advisor.getRecommendations().isEmpty());
+        assertFalse(advisor.getCubeUsage("hive.tpch.orders_cube").isPresent());
+    }
+}
@@ -216,6 +216,9 @@ public class TestQueryStats
 
             new DataSize(30, BYTE),
 
+            new Duration(31, NANOSECONDS),
+            32,
+
             ImmutableList.of(new StageGcStatistics(
                     101,
                     102,
@@ -299,6 +302,9 @@ public class TestQueryStats
 
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(30, BYTE));
 
+        assertEquals(actual.getTotalIndexEvaluationTime(), new Duration(31, NANOSECONDS));
+        assertEquals(actual.getIndexFilteredSplits(), 32);
+
         assertEquals(actual.getStageGcStatistics().size(), 1);
         StageGcStatistics gcStatistics = actual.getStageGcStatistics().get(0);
         assertEquals(gcStatistics.getStageId(), 101);
@@ -76,6 +76,9 @@ public class TestStageStats
 
             new DataSize(26, BYTE),
 
+            new Duration(27, NANOSECONDS),
+            28,
+
             new StageGcStatistics(
                     101,
                     102,
@@ -143,6 +146,9 @@ public class TestStageStats
 
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(26, BYTE));
 
+        assertEquals(actual.getTotalIndexEvaluationTime(), new Duration(27, NANOSECONDS));
+        assertEquals(actual.getIndexFilteredSplits(), 28);
+
         assertEquals(actual.getGcInfo().getStageId(), 101);
         assertEquals(actual.getGcInfo().getTasks(), 102);
         assertEquals(actual.getGcInfo().getFullGcTasks(), 103);
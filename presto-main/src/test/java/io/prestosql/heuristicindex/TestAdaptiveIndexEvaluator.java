@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.heuristicindex;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestAdaptiveIndexEvaluator
+{
+    private static final List<String> INDEX_TYPES = ImmutableList.of("MINMAX", "BLOOM", "NGRAM");
+
+    @Test
+    public void testDefaultOrder()
+    {
+        AdaptiveIndexEvaluator evaluator = new AdaptiveIndexEvaluator(INDEX_TYPES, 10);
+        assertEquals(evaluator.getEvaluationOrder(ImmutableList.of("NGRAM", "BLOOM", "MINMAX")), INDEX_TYPES);
+        assertEquals(evaluator.getEvaluationOrder(ImmutableList.of("BTREE", "BLOOM")), ImmutableList.of("BLOOM", "BTREE"));
+    }
+
+    @Test
+    public void testOrderByCostPerPrunedSplit()
+    {
+        AdaptiveIndexEvaluator evaluator = new AdaptiveIndexEvaluator(INDEX_TYPES, 0);
+        for (int i = 0; i < 100; i++) {
+            // cheap, but rarely prunes
+            evaluator.record("MINMAX", 1_000, i % 50 == 0);
+            // more expensive, but prunes most splits
+            evaluator.record("BLOOM", 5_000, i % 10 != 0);
+        }
+        // NGRAM was not evaluated yet
+        assertEquals(evaluator.getEvaluationOrder(INDEX_TYPES), ImmutableList.of("NGRAM", "BLOOM", "MINMAX"));
+
+        for (int i = 0; i < 100; i++) {
+            evaluator.record("NGRAM", 100_000, i % 2 == 0);
+        }
+        assertEquals(evaluator.getEvaluationOrder(INDEX_TYPES), ImmutableList.of("BLOOM", "MINMAX", "NGRAM"));
+    }
+
+    @Test
+    public void testDisableUnusedIndex()
+    {
+        AdaptiveIndexEvaluator evaluator = new AdaptiveIndexEvaluator(INDEX_TYPES, 3);
+        for (int i = 0; i < 3; i++) {
+            evaluator.record("MINMAX", 1_000, false);
+            evaluator.record("BLOOM", 1_000, i == 2);
+        }
+        assertFalse(evaluator.isEnabled("MINMAX"));
+        assertTrue(evaluator.isEnabled("BLOOM"));
+        assertTrue(evaluator.isEnabled("NGRAM"));
+        assertEquals(evaluator.getEvaluationOrder(INDEX_TYPES), ImmutableList.of("NGRAM", "BLOOM"));
+
+        // 0 never disables an index
+        AdaptiveIndexEvaluator alwaysEnabled = new AdaptiveIndexEvaluator(INDEX_TYPES, 0);
+        for (int i = 0; i < 1000; i++) {
+            alwaysEnabled.record("MINMAX", 1_000, false);
+        }
+        assertTrue(alwaysEnabled.isEnabled("MINMAX"));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.heuristicindex;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.units.Duration;
+import io.prestosql.spi.heuristicindex.IndexClient;
+import io.prestosql.spi.heuristicindex.IndexRecord;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+@Test(singleThreaded = true)
+public class TestIndexAutoUpdater
+{
+    private ScheduledExecutorService executor;
+    private BlockingQueue<Statement> statements;
+    private IndexAutoUpdater updater;
+
+    @BeforeMethod
+    public void setUp()
+            throws Exception
+    {
+        IndexClient indexClient = mock(IndexClient.class);
+        when(indexClient.getAllIndexRecords()).thenReturn(ImmutableList.of(
+                createRecord("idx_stripe", "hive.test.orders", "STRIPE"),
+                createRecord("idx_partition", "hive.test.lineitem", "PARTITION"),
+                createRecord("idx_table", "hive.test.orders", "TABLE"),
+                createRecord("idx_partitions", "hive.test.events", "STRIPE", ImmutableList.of("ds=2021-01-01", "ds=2021-01-02")),
+                createRecord("idx_timestamps", "hive.test.events", "STRIPE", ImmutableList.of("TS=2021-01-01 10:00"))));
+        HeuristicIndexerManager heuristicIndexerManager = mock(HeuristicIndexerManager.class);
+        when(heuristicIndexerManager.getIndexClient()).thenReturn(indexClient);
+
+        executor = newSingleThreadScheduledExecutor(daemonThreadsNamed("test-index-auto-updater-%s"));
+        statements = new LinkedBlockingQueue<>();
+        updater = new IndexAutoUpdater(heuristicIndexerManager, new Duration(0, MILLISECONDS), executor, (sql, user) -> {
+            Statement statement = new Statement(sql, user);
+            statements.add(statement);
+            return statement.done;
+        });
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUpdatesIndexesOfTable()
+            throws Exception
+    {
+        updater.tableDataUpdated("hive.test.orders", Optional.empty());
+
+        Statement statement = nextStatement();
+        assertEquals(statement.sql, "UPDATE INDEX idx_stripe");
+        assertEquals(statement.user, "user");
+        statement.done.set(null);
+
+        // TABLE level indexes are not updated
+        assertNull(statements.poll(100, MILLISECONDS));
+
+        updater.tableDataUpdated("hive.test.lineitem", Optional.empty());
+        assertEquals(nextStatement().sql, "UPDATE INDEX idx_partition");
+
+        updater.tableDataUpdated("hive.test.customer", Optional.empty());
+        assertNull(statements.poll(100, MILLISECONDS));
+    }
+
+    @Test
+    public void testRerunsUpdateAfterWriteDuringUpdate()
+            throws Exception
+    {
+        updater.tableDataUpdated("hive.test.orders", Optional.empty());
+        Statement first = nextStatement();
+
+        // writes while the update is running are covered by one more update
+        updater.tableDataUpdated("hive.test.orders", Optional.empty());
+        updater.tableDataUpdated("hive.test.orders", Optional.empty());
+        assertNull(statements.poll(100, MILLISECONDS));
+
+        first.done.setException(new RuntimeException("update failed"));
+        Statement second = nextStatement();
+        assertEquals(second.sql, "UPDATE INDEX idx_stripe");
+        second.done.set(null);
+        assertNull(statements.poll(100, MILLISECONDS));
+
+        // once the update finished, a new write schedules a new update
+        updater.tableDataUpdated("hive.test.orders", Optional.empty());
+        assertNotNull(nextStatement());
+    }
+
+    @Test
+    public void testUpdatesIndexOfWrittenPartitions()
+            throws Exception
+    {
+        // the index does not cover the written partitions
+        updater.tableDataUpdated("hive.test.events", Optional.of(ImmutableSet.of("ds=2021-01-03/type=click")));
+        assertNull(statements.poll(100, MILLISECONDS));
+
+        updater.tableDataUpdated("hive.test.events", Optional.of(ImmutableSet.of("ds=2021-01-03/type=click", "ds=2021-01-02/type=view")));
+        Statement statement = nextStatement();
+        assertEquals(statement.sql, "UPDATE INDEX idx_partitions");
+        statement.done.set(null);
+
+        // partition names are escaped and their column names are lower case
+        updater.tableDataUpdated("hive.test.events", Optional.of(ImmutableSet.of("ts=2021-01-01 10%3A00")));
+        assertEquals(nextStatement().sql, "UPDATE INDEX idx_timestamps");
+
+        // the written partitions are not known
+        updater.tableDataUpdated("hive.test.events", Optional.empty());
+        assertEquals(nextStatement().sql, "UPDATE INDEX idx_partitions");
+    }
+
+    private Statement nextStatement()
+            throws InterruptedException
+    {
+        Statement statement = statements.poll(10, SECONDS);
+        assertNotNull(statement, "no statement submitted");
+        return statement;
+    }
+
+    private static IndexRecord createRecord(String name, String table, String level)
+    {
+        return createRecord(name, table, level, Collections.emptyList());
+    }
+
+    private static IndexRecord createRecord(String name, String table, String level, List<String> partitions)
+    {
+        return new IndexRecord(name, "user", table, new String[] {"orderkey"}, "BLOOM", 0L, ImmutableList.of("level=" + level), partitions);
+    }
+
+    private static class Statement
+    {
+        private final String sql;
+        private final String user;
+        private final SettableFuture<?> done = SettableFuture.create();
+
+        Statement(String sql, String user)
+        {
+            this.sql = sql;
+            this.user = user;
+        }
+    }
+}
@@ -58,6 +58,7 @@ import static io.prestosql.heuristicindex.SplitFiltering.rangeSearch;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.LikePatternType.LIKE_PATTERN;
 import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -166,6 +167,18 @@ public class TestSplitFiltering
         testIsSplitFilterApplicableForOperator(
                 inExpression,
                 true);
+
+        // LIKE is supported
+        testIsSplitFilterApplicableForOperator(
+                likeExpression(functionResolution, "a", "%hello%"),
+                true);
+    }
+
+    private static RowExpression likeExpression(FunctionResolution functionResolution, String column, String pattern)
+    {
+        RowExpression likePattern = Expressions.call(OperatorType.CAST.name(), functionResolution.castFunction(VarcharType.VARCHAR.getTypeSignature(), LIKE_PATTERN.getTypeSignature()),
+                LIKE_PATTERN, new ConstantExpression(utf8Slice(pattern), VarcharType.VARCHAR));
+        return Expressions.call("LIKE", functionResolution.likeVarcharFunction(), BOOLEAN, new VariableReferenceExpression(column, VarcharType.VARCHAR), likePattern);
     }
 
     private void testIsSplitFilterApplicableForOperator(RowExpression expression, boolean expected)
@@ -194,6 +207,10 @@ public class TestSplitFiltering
 
         parseExpressionGetColumns(expression1, ImmutableSet.of("col_a", "col_b"));
         parseExpressionGetColumns(expression2, ImmutableSet.of("c1", "c2"));
+
+        FunctionResolution functionResolution = new FunctionResolution(METADATA.getFunctionAndTypeManager());
+        RowExpression expression3 = new SpecialForm(SpecialForm.Form.AND, BOOLEAN, rowExpression3, likeExpression(functionResolution, "c3", "%d%"));
+        parseExpressionGetColumns(expression3, ImmutableSet.of("c1", "c3"));
     }
 
     private void parseExpressionGetColumns(RowExpression expression, Set<String> expected)
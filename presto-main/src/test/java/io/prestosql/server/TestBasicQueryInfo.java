@@ -103,6 +103,8 @@ public class TestBasicQueryInfo
                                 DataSize.valueOf("31GB"),
                                 32,
                                 DataSize.valueOf("32GB"),
+                                Duration.valueOf("33m"),
+                                34,
                                 ImmutableList.of(new StageGcStatistics(
                                         101,
                                         102,
@@ -154,6 +154,8 @@ public class TestQueryStateInfo
                         DataSize.valueOf("31GB"),
                         32,
                         DataSize.valueOf("33GB"),
+                        Duration.valueOf("34m"),
+                        35,
                         ImmutableList.of(),
                         ImmutableList.of()),
                 Optional.empty(),
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.protocol;
+
+import io.airlift.units.Duration;
+import io.prestosql.client.DataCenterQueryResults;
+import io.prestosql.client.StatementStats;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.WebApplicationException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestPageConsumer
+{
+    private static final DataCenterQueryResults RUNNING = createResults("RUNNING", URI.create(""));
+    private static final DataCenterQueryResults FINISHED = createResults("FINISHED", null);
+    private static final DataCenterQueryResults FAILED = createResults("FAILED", null);
+
+    @Test
+    public void testSequentialRequests()
+    {
+        PageConsumer consumer = createConsumer();
+        BlockingQueue<DataCenterQueryResults> queue = new LinkedBlockingQueue<>();
+        DataCenterQueryResults first = createResults("RUNNING", URI.create("1"));
+        queue.add(first);
+
+        TestingSubscriber subscriber = new TestingSubscriber(0);
+        consumer.add(null, subscriber, queue);
+        assertSame(subscriber.getResult(), first);
+
+        // repeated request
+        TestingSubscriber retry = new TestingSubscriber(0);
+        consumer.add(null, retry, queue);
+        assertSame(retry.getResult(), first);
+
+        TestingSubscriber next = new TestingSubscriber(1);
+        consumer.add(null, next, queue);
+        assertSame(next.getResult(), RUNNING);
+    }
+
+    @Test
+    public void testPipelinedRequests()
+    {
+        PageConsumer consumer = createConsumer();
+        BlockingQueue<DataCenterQueryResults> queue = new LinkedBlockingQueue<>();
+        List<DataCenterQueryResults> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DataCenterQueryResults result = createResults("RUNNING", URI.create(String.valueOf(i + 1)));
+            results.add(result);
+            queue.add(result);
+        }
+
+        // the requests for the next tokens arrive before the request for the current token
+        TestingSubscriber third = new TestingSubscriber(2);
+        TestingSubscriber second = new TestingSubscriber(1);
+        consumer.add(null, third, queue);
+        consumer.add(null, second, queue);
+        assertTrue(third.getResults().isEmpty());
+        assertTrue(second.getResults().isEmpty());
+
+        TestingSubscriber first = new TestingSubscriber(0);
+        consumer.add(null, first, queue);
+        assertSame(first.getResult(), results.get(0));
+        assertSame(second.getResult(), results.get(1));
+        assertSame(third.getResult(), results.get(2));
+
+        // a request retried after the following tokens were answered
+        TestingSubscriber retry = new TestingSubscriber(1);
+        consumer.add(null, retry, queue);
+        assertSame(retry.getResult(), results.get(1));
+    }
+
+    @Test
+    public void testRequestTooFarAhead()
+    {
+        PageConsumer consumer = createConsumer();
+        try {
+            consumer.add(null, new TestingSubscriber(100), new LinkedBlockingQueue<>());
+            fail("expected exception");
+        }
+        catch (WebApplicationException e) {
+            assertEquals(e.getResponse().getStatus(), 404);
+        }
+    }
+
+    @Test
+    public void testRetryReplacesParkedRequest()
+    {
+        PageConsumer consumer = createConsumer();
+        BlockingQueue<DataCenterQueryResults> queue = new LinkedBlockingQueue<>();
+        TestingSubscriber parked = new TestingSubscriber(2);
+        consumer.add(null, parked, queue);
+        assertTrue(parked.getResults().isEmpty());
+
+        TestingSubscriber retry = new TestingSubscriber(2);
+        consumer.add(null, retry, queue);
+        assertEquals(parked.getFailure().getResponse().getStatus(), 409);
+        assertTrue(retry.getResults().isEmpty());
+
+        consumer.stop();
+        assertSame(retry.getResult(), FINISHED);
+    }
+
+    @Test
+    public void testStopAnswersParkedRequests()
+    {
+        PageConsumer consumer = createConsumer();
+        TestingSubscriber subscriber = new TestingSubscriber(3);
+        consumer.add(null, subscriber, new LinkedBlockingQueue<>());
+        assertTrue(subscriber.getResults().isEmpty());
+        consumer.stop();
+        assertSame(subscriber.getResult(), FINISHED);
+    }
+
+    @Test
+    public void testFinalStatusAnswersParkedRequests()
+    {
+        PageConsumer consumer = createConsumer();
+        BlockingQueue<DataCenterQueryResults> queue = new LinkedBlockingQueue<>();
+        DataCenterQueryResults last = createResults("FINISHED", null);
+        queue.add(last);
+
+        TestingSubscriber parked = new TestingSubscriber(2);
+        consumer.add(null, parked, queue);
+        assertTrue(parked.getResults().isEmpty());
+
+        TestingSubscriber first = new TestingSubscriber(0);
+        consumer.add(null, first, queue);
+        assertSame(first.getResult(), last);
+        assertSame(parked.getResult(), FINISHED);
+
+        // requests arriving after the final status are not parked either
+        TestingSubscriber late = new TestingSubscriber(3);
+        consumer.add(null, late, queue);
+        assertSame(late.getResult(), FINISHED);
+    }
+
+    private static PageConsumer createConsumer()
+    {
+        return new PageConsumer(RUNNING, FINISHED, FAILED, new Duration(1, MINUTES));
+    }
+
+    private static DataCenterQueryResults createResults(String state, URI nextUri)
+    {
+        return new DataCenterQueryResults("", URI.create(""), null, nextUri, null, null,
+                new StatementStats(state, false, false, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, null), null,
+                Collections.emptyList(), null, true);
+    }
+
+    private static class TestingSubscriber
+            implements PageSubscriber
+    {
+        private final long token;
+        private final List<DataCenterQueryResults> results = new ArrayList<>();
+        private WebApplicationException failure;
+
+        private TestingSubscriber(long token)
+        {
+            this.token = token;
+        }
+
+        @Override
+        public String getId()
+        {
+            return "";
+        }
+
+        @Override
+        public boolean isActive()
+        {
+            return true;
+        }
+
+        @Override
+        public long getToken()
+        {
+            return token;
+        }
+
+        @Override
+        public void send(Query query, DataCenterQueryResults results)
+        {
+            this.results.add(results);
+        }
+
+        @Override
+        public void fail(Throwable cause)
+        {
+            this.failure = (WebApplicationException) cause;
+        }
+
+        private WebApplicationException getFailure()
+        {
+            assertTrue(results.isEmpty());
+            return failure;
+        }
+
+        private List<DataCenterQueryResults> getResults()
+        {
+            return results;
+        }
+
+        private DataCenterQueryResults getResult()
+        {
+            assertEquals(results.size(), 1);
+            return results.get(0);
+        }
+    }
+}
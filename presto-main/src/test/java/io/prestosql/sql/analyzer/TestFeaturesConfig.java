@@ -142,6 +142,9 @@ public class TestFeaturesConfig
                 .setEnableStarTreeIndex(false)
                 .setCubeMetadataCacheSize(5)
                 .setCubeMetadataCacheTtl(new Duration(1, HOURS))
+                .setCubeIncrementalRefreshEnabled(false)
+                .setCubeAdvisorEnabled(false)
+                .setCubeAdvisorMaxCandidates(1000)
                 .setImplicitConversionEnabled(false)
                 .setLegacyCharToVarcharCoercion(false)
                 .setLegacyDateTimestampToVarcharCoercion(false)
@@ -244,6 +247,9 @@ public class TestFeaturesConfig
                 .put("cte.cte-max-prefetch-queue-size", "1024")
                 .put("cube.metadata-cache-size", "10")
                 .put("cube.metadata-cache-ttl", "10m")
+                .put("cube.incremental-refresh-enabled", "true")
+                .put("cube.advisor-enabled", "true")
+                .put("cube.advisor-max-candidates", "100")
                 .put("optimizer.enable-star-tree-index", "true")
                 .put("deprecated.legacy-char-to-varchar-coercion", "true")
                 .put("deprecated.legacy-date-timestamp-to-varchar-coercion", "true")
@@ -345,6 +351,9 @@ public class TestFeaturesConfig
                 .setEnableStarTreeIndex(true)
                 .setCubeMetadataCacheSize(10)
                 .setCubeMetadataCacheTtl(new Duration(10, MINUTES))
+                .setCubeIncrementalRefreshEnabled(true)
+                .setCubeAdvisorEnabled(true)
+                .setCubeAdvisorMaxCandidates(100)
                 .setLegacyCharToVarcharCoercion(true)
                 .setLegacyDateTimestampToVarcharCoercion(true)
                 .setLegacyMapSubscript(true)
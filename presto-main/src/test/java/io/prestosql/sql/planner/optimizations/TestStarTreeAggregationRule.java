@@ -23,6 +23,7 @@ import io.hetu.core.spi.cube.CubeMetadata;
 import io.hetu.core.spi.cube.CubeStatement;
 import io.hetu.core.spi.cube.io.CubeMetaStore;
 import io.prestosql.Session;
+import io.prestosql.cube.CubeAdvisor;
 import io.prestosql.cube.CubeManager;
 import io.prestosql.metadata.FunctionAndTypeManager;
 import io.prestosql.metadata.Metadata;
@@ -33,6 +34,8 @@ import io.prestosql.plugin.tpch.TpchTableLayoutHandle;
 import io.prestosql.plugin.tpch.TpchTransactionHandle;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.QualifiedObjectName;
 import io.prestosql.spi.cube.CubeProvider;
 import io.prestosql.spi.function.FunctionHandle;
@@ -68,6 +71,7 @@ import io.prestosql.sql.tree.QualifiedName;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.mockito.AdditionalAnswers;
 import org.mockito.Mockito;
 import org.mockito.internal.stubbing.answers.Returns;
 import org.testng.annotations.BeforeClass;
@@ -79,7 +83,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
+import static io.prestosql.SystemSessionProperties.CUBE_INCREMENTAL_REFRESH_ENABLED;
 import static io.prestosql.SystemSessionProperties.ENABLE_STAR_TREE_INDEX;
 import static io.prestosql.metadata.AbstractMockMetadata.dummyMetadata;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
@@ -108,6 +114,8 @@ public class TestStarTreeAggregationRule
     private static final FunctionHandle MIN = FUNCTION_MANAGER.lookupFunction("min", fromTypes(DOUBLE));
     private static final FunctionHandle MAX = FUNCTION_MANAGER.lookupFunction("max", fromTypes(DOUBLE));
     private static final FunctionHandle LAG = FUNCTION_MANAGER.lookupFunction("lag", fromTypes(DOUBLE));
+    private static final FunctionHandle APPROX_DISTINCT = FUNCTION_MANAGER.lookupFunction("approx_distinct", fromTypes(DOUBLE));
+    private static final FunctionHandle APPROX_PERCENTILE = FUNCTION_MANAGER.lookupFunction("approx_percentile", fromTypes(DOUBLE, DOUBLE));
 
     private final PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), dummyMetadata());
     private Symbol output;
@@ -234,6 +242,7 @@ public class TestStarTreeAggregationRule
         config.setEnableStarTreeIndex(true);
 
         cubeManager = Mockito.mock(CubeManager.class);
+        Mockito.when(cubeManager.getCubeAdvisor()).thenReturn(new CubeAdvisor(false, 1));
         provider = Mockito.mock(CubeProvider.class);
         cubeMetaStore = Mockito.mock(CubeMetaStore.class);
         cubeMetadata = Mockito.mock(CubeMetadata.class);
@@ -575,6 +584,53 @@ public class TestStarTreeAggregationRule
                 Optional.empty());
         assertTrue(StarTreeAggregationRule.isSupportedAggregation(maxAgg));
 
+        AggregationNode approxDistinctAgg = new AggregationNode(
+                newId(),
+                baseTableScan,
+                ImmutableMap.of(columnOrderkey, new AggregationNode.Aggregation(
+                        Expressions.call(
+                                "approx_distinct",
+                                APPROX_DISTINCT,
+                                BIGINT,
+                                ImmutableList.of(planBuilder.variable(columnTotalprice.getName(), totalpriceHandle.getType()))),
+                        ImmutableList.of(planBuilder.variable(columnTotalprice.getName(), totalpriceHandle.getType())),
+                        false,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.empty())),
+                singleGroupingSet(ImmutableList.of(columnOrderkey)),
+                ImmutableList.of(),
+                SINGLE,
+                Optional.empty(),
+                Optional.empty(),
+                AggregationNode.AggregationType.HASH,
+                Optional.empty());
+        assertTrue(StarTreeAggregationRule.isSupportedAggregation(approxDistinctAgg));
+
+        //approx_percentile with the percentage argument
+        AggregationNode approxPercentileAgg = new AggregationNode(
+                newId(),
+                baseTableScan,
+                ImmutableMap.of(columnOrderkey, new AggregationNode.Aggregation(
+                        Expressions.call(
+                                "approx_percentile",
+                                APPROX_PERCENTILE,
+                                DOUBLE,
+                                ImmutableList.of(planBuilder.variable(columnTotalprice.getName(), totalpriceHandle.getType()), planBuilder.variable("percentage", DOUBLE))),
+                        ImmutableList.of(planBuilder.variable(columnTotalprice.getName(), totalpriceHandle.getType()), planBuilder.variable("percentage", DOUBLE)),
+                        false,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.empty())),
+                singleGroupingSet(ImmutableList.of(columnOrderkey)),
+                ImmutableList.of(),
+                SINGLE,
+                Optional.empty(),
+                Optional.empty(),
+                AggregationNode.AggregationType.HASH,
+                Optional.empty());
+        assertTrue(StarTreeAggregationRule.isSupportedAggregation(approxPercentileAgg));
+
         //function not supported
         AggregationNode lagAgg = new AggregationNode(
                 newId(),
@@ -804,6 +860,56 @@ public class TestStarTreeAggregationRule
         Mockito.verify(cubeMetadata, Mockito.atLeastOnce()).matches(any(CubeStatement.class));
     }
 
+    @Test
+    public void testDoNotUseIncrementallyRefreshedCubeIfQueryRangeUpdated()
+    {
+        Mockito.when(cubeManager.getCubeProvider(anyString())).then(new Returns(Optional.of(provider)));
+        Mockito.when(cubeManager.getMetaStore(anyString())).then(new Returns(Optional.of(cubeMetaStore)));
+
+        TpchTableHandle orders = new TpchTableHandle("orders", 1.0);
+        TableHandle ordersRangeHandle = new TableHandle(tester().getCurrentConnectorId(),
+                orders, TpchTransactionHandle.INSTANCE,
+                Optional.of(new TpchTableLayoutHandle(orders, TupleDomain.none())));
+        Metadata metadata = Mockito.mock(Metadata.class, AdditionalAnswers.delegatesTo(tester().getMetadata()));
+        TableMetadata ordersTableMetadata = Mockito.mock(TableMetadata.class);
+        QualifiedObjectName objectName = new QualifiedObjectName("local", "sf1.0", "orders");
+        Mockito.doReturn(ordersTableMetadata).when(metadata).getTableMetadata(any(Session.class), eq(ordersTableHandle));
+        Mockito.when(ordersTableMetadata.getQualifiedName()).thenReturn(objectName);
+        Mockito.doReturn(new ColumnMetadata("orderdate", DATE)).when(metadata).getColumnMetadata(any(Session.class), eq(ordersTableHandle), any(ColumnHandle.class));
+        Mockito.doReturn(Optional.of(new ConstraintApplicationResult<>(ordersRangeHandle, TupleDomain.all())))
+                .when(metadata).applyFilter(any(Session.class), eq(ordersTableHandle), any(Constraint.class));
+        // the source table was modified after the cube was refreshed, and so was the range of the query
+        Mockito.doReturn((LongSupplier) () -> DateTimeUtils.parseTimestampWithoutTimeZone("2020-01-03 12:00:00"))
+                .when(metadata).getTableLastModifiedTimeSupplier(any(Session.class), eq(ordersTableHandle));
+        Mockito.doReturn((LongSupplier) () -> DateTimeUtils.parseTimestampWithoutTimeZone("2020-01-02 12:00:00"))
+                .when(metadata).getTableLastModifiedTimeSupplier(any(Session.class), eq(ordersRangeHandle));
+
+        CubeMetadata incrementalCubeMetadata = Mockito.mock(CubeMetadata.class);
+        Mockito.when(cubeMetaStore.getMetadataList(eq("local.sf1.0.orders"))).then(new Returns(ImmutableList.of(incrementalCubeMetadata)));
+        Mockito.when(incrementalCubeMetadata.matches(any(CubeStatement.class))).thenReturn(true);
+        Mockito.when(incrementalCubeMetadata.getDimensions()).thenReturn(ImmutableList.of("orderdate"));
+        Mockito.when(incrementalCubeMetadata.isIncrementallyRefreshable()).thenReturn(true);
+        Mockito.when(incrementalCubeMetadata.getSourceTableLastUpdatedTime()).thenReturn(DateTimeUtils.parseTimestampWithoutTimeZone("2020-01-01 12:00:00"));
+
+        StarTreeAggregationRule starTreeAggregationRule = new StarTreeAggregationRule(cubeManager, metadata);
+        tester().assertThat(starTreeAggregationRule)
+                .setSystemProperty(ENABLE_STAR_TREE_INDEX, "true")
+                .setSystemProperty(CUBE_INCREMENTAL_REFRESH_ENABLED, "true")
+                .on(p -> p.aggregation(builder -> builder
+                        .step(SINGLE)
+                        .addAggregation(new Symbol("count_orderkey"), PlanBuilder.expression("count(orderkey)"), ImmutableList.of(BIGINT))
+                        .singleGroupingSet(new Symbol("orderdate"))
+                        .source(
+                                p.filter(expression("orderdate = DATE '2020-01-01'"),
+                                        p.tableScan(ordersTableHandle,
+                                                ImmutableList.of(p.symbol("orderdate", DATE), p.symbol("orderkey", BIGINT)),
+                                                ImmutableMap.of(p.symbol("orderkey", BIGINT), new TpchColumnHandle("orderkey", BIGINT),
+                                                        p.symbol("orderdate", DATE), new TpchColumnHandle("orderdate", DATE)))))))
+                .doesNotFire();
+        Mockito.verify(metadata, Mockito.atLeastOnce()).applyFilter(any(Session.class), eq(ordersTableHandle), any(Constraint.class));
+        Mockito.verify(metadata, Mockito.atLeastOnce()).getTableLastModifiedTimeSupplier(any(Session.class), eq(ordersRangeHandle));
+    }
+
     private static PlanNodeId newId()
     {
         return new PlanNodeId(UUID.randomUUID().toString());
@@ -15,15 +15,23 @@
 package io.prestosql.statestore;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.json.ObjectMapperProvider;
 import io.airlift.units.Duration;
 import io.prestosql.execution.QueryState;
+import io.prestosql.spi.statestore.Member;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
 import io.prestosql.spi.statestore.StateStore;
 import io.prestosql.spi.statestore.StateStoreFactory;
+import io.prestosql.spi.statestore.listener.EntryAddedListener;
+import io.prestosql.spi.statestore.listener.EntryEvent;
+import io.prestosql.spi.statestore.listener.EntryEventType;
+import io.prestosql.spi.statestore.listener.EntryRemovedListener;
+import io.prestosql.spi.statestore.listener.MapListener;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.internal.stubbing.answers.Returns;
 import org.testng.annotations.BeforeMethod;
@@ -37,11 +45,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -271,4 +282,67 @@ public class TestStateFetcher
         Thread.sleep(300);
         verify(stateCollection, atLeastOnce()).getAll();
     }
+
+    @Test
+    public void testIncrementalFetch()
+            throws Exception
+    {
+        supportCollectionTypeMAP(true);
+        StateFetcher incrementalFetcher = new StateFetcher(stateStoreProvider, fetchInterval, stateExpireTime, true);
+        incrementalFetcher.registerStateCollection(STATE_COLLECTION_QUERY);
+        incrementalFetcher.fetchAllStates();
+        assertEquals(StateCacheStore.get().getCachedStates(STATE_COLLECTION_QUERY).size(), CACHED_STATES_MAP_SIZE);
+        ArgumentCaptor<MapListener> listener = ArgumentCaptor.forClass(MapListener.class);
+        verify(stateCollection).addEntryListener(listener.capture());
+
+        // the states are not fetched again before they could expire
+        incrementalFetcher.fetchAllStates();
+        verify(stateCollection, times(1)).getAll();
+
+        SharedQueryState state = SharedQueryStateCodec.decode(stateCollection.getAll().get(STATES_KEY));
+        Member member = new Member("localhost", 8080);
+        ((EntryAddedListener<String, Object>) listener.getValue()).entryAdded(
+                new EntryEvent<>(member, EntryEventType.ADDED.getTypeId(), "20191120_160018_00001_qtvps", SharedQueryStateCodec.encode(state, true)));
+        assertEquals(StateCacheStore.get().getCachedStates(STATE_COLLECTION_QUERY).size(), CACHED_STATES_MAP_SIZE + 1);
+
+        ((EntryRemovedListener<String, Object>) listener.getValue()).entryRemoved(
+                new EntryEvent<>(member, EntryEventType.REMOVED.getTypeId(), STATES_KEY, null));
+        assertEquals(StateCacheStore.get().getCachedStates(STATE_COLLECTION_QUERY).size(), CACHED_STATES_MAP_SIZE);
+
+        incrementalFetcher.stop();
+        verify(stateCollection).removeEntryListener(listener.getValue());
+    }
+
+    @Test
+    public void testIncrementalFetchKeepsChangesDuringFetch()
+            throws Exception
+    {
+        supportCollectionTypeMAP(true);
+        Map<String, String> states = stateCollection.getAll();
+        SharedQueryState state = SharedQueryStateCodec.decode(states.get(STATES_KEY));
+        String addedKey = "20191120_160018_00001_qtvps";
+        AtomicReference<MapListener> listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set((MapListener) invocation.getArguments()[0]);
+            return null;
+        }).when(stateCollection).addEntryListener(any());
+        // the query finishes and another query starts while the states are fetched
+        when(stateCollection.getAll()).then(invocation -> {
+            Member member = new Member("localhost", 8080);
+            ((EntryRemovedListener<String, Object>) listener.get()).entryRemoved(
+                    new EntryEvent<>(member, EntryEventType.REMOVED.getTypeId(), STATES_KEY, null));
+            ((EntryAddedListener<String, Object>) listener.get()).entryAdded(
+                    new EntryEvent<>(member, EntryEventType.ADDED.getTypeId(), addedKey, SharedQueryStateCodec.encode(state, true)));
+            return states;
+        });
+
+        // the other tests share the cached states of the query collection
+        String stateCollectionName = "incremental-query";
+        StateFetcher incrementalFetcher = new StateFetcher(stateStoreProvider, fetchInterval, stateExpireTime, true);
+        incrementalFetcher.registerStateCollection(stateCollectionName);
+        incrementalFetcher.fetchAllStates();
+        Map<String, SharedQueryState> cachedStates = StateCacheStore.get().getCachedStates(stateCollectionName);
+        assertEquals(cachedStates.keySet(), ImmutableSet.of(addedKey));
+        incrementalFetcher.stop();
+    }
 }
@@ -50,10 +50,16 @@ import java.util.Set;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.spi.ErrorType.USER_ERROR;
 import static io.prestosql.spi.StandardErrorCode.CLUSTER_OUT_OF_MEMORY;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
@@ -132,6 +138,11 @@ public class TestStateUpdater
     }
 
     private BasicQueryInfo createBasicQueryInfo()
+    {
+        return createBasicQueryInfo(QueryState.FINISHED);
+    }
+
+    private BasicQueryInfo createBasicQueryInfo(QueryState queryState)
     {
         QueryInfo queryInfo = Mockito.mock(QueryInfo.class);
         when(queryInfo.getQueryStats()).then(new Returns(Mockito.mock(QueryStats.class)));
@@ -148,7 +159,7 @@ public class TestStateUpdater
         ResourceGroupId resourceGroupId = new ResourceGroupId(GLOBAL_RESOURCE_ID);
         Optional<ResourceGroupId> optionalResourceGroupId = Optional.of(resourceGroupId);
         when(queryInfo.getResourceGroupId()).then(new Returns(optionalResourceGroupId));
-        when(queryInfo.getState()).then(new Returns(QueryState.FINISHED));
+        when(queryInfo.getState()).then(new Returns(queryState));
         URI mockURI = URI.create(URI_LOCALHOST);
         when(queryInfo.getSelf()).then(new Returns(mockURI));
         String mockQuery = QUERY_STRING;
@@ -230,4 +241,31 @@ public class TestStateUpdater
         int numberOfCalls = mockingDetails(stateStoreProvider.getStateStore().getStateCollection(any())).getInvocations().size();
         assertNotEquals(numberOfCalls, ERROR_CODE_VALUE_INDEX_TIME_NO_INVOCATION);
     }
+
+    @Test
+    public void testIncrementalUpdateStates()
+            throws JsonProcessingException
+    {
+        DispatchQuery dispatchQuery = mockDispatchQueryData(false);
+        BasicQueryInfo runningQueryInfo = createBasicQueryInfo(QueryState.RUNNING);
+        when(dispatchQuery.getBasicQueryInfo()).then(new Returns(runningQueryInfo));
+        StateStoreProvider stateStoreProvider = Mockito.mock(LocalStateStoreProvider.class);
+        when(stateStoreProvider.getStateStore()).then(new Returns(stateStore));
+        StateMap queries = Mockito.mock(StateMap.class);
+        when(stateStore.getStateCollection(any())).then(new Returns(queries));
+        StateUpdater stateUpdater = new StateUpdater(stateStoreProvider, updateInterval, true, new Duration(1, HOURS));
+        stateUpdater.registerQuery(STATE_COLLECTION_QUERY, dispatchQuery);
+
+        stateUpdater.updateStates();
+        verify(queries, times(1)).put(eq(MOCK_QUERY_ID), isA(byte[].class));
+
+        // unchanged states are not updated
+        stateUpdater.updateStates();
+        verify(queries, times(1)).put(eq(MOCK_QUERY_ID), any());
+
+        when(dispatchQuery.getTotalMemoryReservation()).then(new Returns(new DataSize(TOTAL_DATA_SIZE * 2, DataSize.Unit.BYTE)));
+        stateUpdater.updateStates();
+        verify(queries, times(2)).put(eq(MOCK_QUERY_ID), isA(byte[].class));
+        verify(queries, never()).put(eq(MOCK_QUERY_ID), isA(String.class));
+    }
 }
@@ -40,6 +40,9 @@ public class TestHetuConfig
                 .setIndexCacheLoadingDelay(new Duration(10, TimeUnit.SECONDS))
                 .setIndexCacheSoftReferenceEnabled(true)
                 .setIndexAutoload(true)
+                .setIndexDisableUnusedAfterSplits(1000)
+                .setIndexAutoUpdateEnabled(false)
+                .setIndexAutoUpdateDelay(new Duration(1, TimeUnit.MINUTES))
                 .setExecutionPlanCacheEnabled(false)
                 .setExecutionPlanCacheTimeout(86400000L)
                 .setExecutionPlanCacheMaxItems(10000L)
@@ -49,6 +52,7 @@ public class TestHetuConfig
                 .setStateUpdateInterval(new Duration(100, TimeUnit.MILLISECONDS))
                 .setQuerySubmitTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setStateExpireTime(new Duration(60, TimeUnit.SECONDS))
+                .setIncrementalStateUpdateEnabled(false)
                 .setDataCenterSplits(5)
                 .setDataCenterConsumerTimeout(new Duration(10, TimeUnit.MINUTES))
                 .setSplitCacheMapEnabled(false)
@@ -70,6 +74,9 @@ public class TestHetuConfig
                 .put("hetu.heuristicindex.filter.cache.loading-delay", "1000ms")
                 .put("hetu.heuristicindex.filter.cache.ttl", "20m")
                 .put("hetu.heuristicindex.filter.cache.soft-reference", "false")
+                .put("hetu.heuristicindex.filter.disable-unused-after-splits", "10")
+                .put("hetu.heuristicindex.auto-update.enabled", "true")
+                .put("hetu.heuristicindex.auto-update.delay", "5m")
                 .put("hetu.executionplan.cache.enabled", "true")
                 .put("hetu.executionplan.cache.timeout", "6000")
                 .put("hetu.executionplan.cache.limit", "20000")
@@ -77,6 +84,7 @@ public class TestHetuConfig
                 .put("hetu.multiple-coordinator.enabled", "true")
                 .put("hetu.multiple-coordinator.query-submit-timeout", "20s")
                 .put("hetu.multiple-coordinator.state-expire-time", "20s")
+                .put("hetu.multiple-coordinator.incremental-state-update-enabled", "true")
                 .put("hetu.multiple-coordinator.state-fetch-interval", "5s")
                 .put("hetu.multiple-coordinator.state-update-interval", "5s")
                 .put("hetu.data.center.split.count", "10")
@@ -97,6 +105,9 @@ public class TestHetuConfig
                 .setIndexCacheLoadingDelay(new Duration(1000, TimeUnit.MILLISECONDS))
                 .setIndexCacheSoftReferenceEnabled(false)
                 .setIndexAutoload(false)
+                .setIndexDisableUnusedAfterSplits(10)
+                .setIndexAutoUpdateEnabled(true)
+                .setIndexAutoUpdateDelay(new Duration(5, TimeUnit.MINUTES))
                 .setExecutionPlanCacheEnabled(true)
                 .setExecutionPlanCacheTimeout(6000L)
                 .setExecutionPlanCacheMaxItems(20000L)
@@ -104,6 +115,7 @@ public class TestHetuConfig
                 .setMultipleCoordinatorEnabled(true)
                 .setQuerySubmitTimeout(new Duration(20, TimeUnit.SECONDS))
                 .setStateExpireTime(new Duration(20, TimeUnit.SECONDS))
+                .setIncrementalStateUpdateEnabled(true)
                 .setStateFetchInterval(new Duration(5, TimeUnit.SECONDS))
                 .setStateUpdateInterval(new Duration(5, TimeUnit.SECONDS))
                 .setDataCenterSplits(10)
@@ -43,6 +43,8 @@ public class MemoryConfig
     private Duration processingDelay = new Duration(5, TimeUnit.SECONDS);
     private Path spillRoot;
     private int threadPoolSize = Math.max((Runtime.getRuntime().availableProcessors() / 2), 1);
+    private boolean primitiveIndexEnabled;
+    private boolean offHeapPagesEnabled;
 
     @NotNull
     public Path getSpillRoot()
@@ -149,4 +151,30 @@ public class MemoryConfig
         this.threadPoolSize = threadPoolSize;
         return this;
     }
+
+    public boolean isPrimitiveIndexEnabled()
+    {
+        return primitiveIndexEnabled;
+    }
+
+    @Config("memory.primitive-index-enabled")
+    @ConfigDescription("Index the sort and index columns with per page min and max values stored in primitive arrays, instead of the sparse and minmax indexes (default: false)")
+    public MemoryConfig setPrimitiveIndexEnabled(boolean primitiveIndexEnabled)
+    {
+        this.primitiveIndexEnabled = primitiveIndexEnabled;
+        return this;
+    }
+
+    public boolean isOffHeapPagesEnabled()
+    {
+        return offHeapPagesEnabled;
+    }
+
+    @Config("memory.off-heap-pages-enabled")
+    @ConfigDescription("Keep the pages of processed tables serialized in off-heap memory, pages are deserialized when they are read (default: false)")
+    public MemoryConfig setOffHeapPagesEnabled(boolean offHeapPagesEnabled)
+    {
+        this.offHeapPagesEnabled = offHeapPagesEnabled;
+        return this;
+    }
 }
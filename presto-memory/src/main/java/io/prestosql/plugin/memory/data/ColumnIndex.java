@@ -0,0 +1,580 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.memory.data;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimeType.TIME;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+
+/**
+ * Index of the min and max value of every page of a column of a LogicalPart, stored in primitive arrays.
+ * <p>
+ * Values of all supported types are mapped to order preserving long keys, so pages are looked up
+ * without boxing or comparing Objects. If the pages are sorted on the column, i.e. the page min and max
+ * values never decrease, the first matching page is found by binary search, otherwise all pages are checked.
+ * <p>
+ * Pages without non-null values have a min key greater than their max key and never match.
+ */
+abstract class ColumnIndex
+        implements Serializable
+{
+    private static final long serialVersionUID = 3204561838027516931L;
+
+    protected final int pageCount;
+    private boolean sorted;
+
+    ColumnIndex(int pageCount)
+    {
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Build the index for the given channel of the pages
+     *
+     * @return the index, or empty if the type of the column is not supported
+     */
+    static Optional<ColumnIndex> build(Type type, List<Page> pages, int channel)
+    {
+        ColumnIndex index;
+        if (type.equals(BIGINT) || type.equals(TIMESTAMP) || type.equals(TIME) || (type instanceof DecimalType && ((DecimalType) type).isShort())) {
+            index = new LongColumnIndex(pages.size());
+        }
+        else if (type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE)) {
+            index = new IntColumnIndex(pages.size());
+        }
+        else if (type.equals(DOUBLE) || type.equals(REAL)) {
+            index = new DoubleColumnIndex(pages.size(), type.equals(REAL));
+        }
+        else if (type instanceof VarcharType) {
+            index = new SliceColumnIndex(pages.size());
+        }
+        else {
+            return Optional.empty();
+        }
+
+        for (int page = 0; page < pages.size(); page++) {
+            index.addPage(page, type, pages.get(page).getBlock(channel));
+        }
+        index.finish();
+        return Optional.of(index);
+    }
+
+    boolean isSorted()
+    {
+        return sorted;
+    }
+
+    /**
+     * Add the pages which may contain values in the range to the result
+     *
+     * @return false if the index can not be used for the range, e.g. the lookup value is NaN
+     */
+    boolean addMatchingPages(Range range, BitSet result)
+    {
+        if (range.isAll()) {
+            return false;
+        }
+
+        long lowKey = Long.MIN_VALUE;
+        long highKey = Long.MAX_VALUE;
+        Marker low = range.getLow();
+        Marker high = range.getHigh();
+        if (!low.isLowerUnbounded()) {
+            if (!isSupported(low.getValue())) {
+                return false;
+            }
+            lowKey = toKey(low.getValue());
+            if (low.getBound() == Marker.Bound.ABOVE) {
+                if (lowKey == Long.MAX_VALUE) {
+                    return true;
+                }
+                lowKey++;
+            }
+        }
+        if (!high.isUpperUnbounded()) {
+            if (!isSupported(high.getValue())) {
+                return false;
+            }
+            highKey = toKey(high.getValue());
+            if (high.getBound() == Marker.Bound.BELOW) {
+                if (highKey == Long.MIN_VALUE) {
+                    return true;
+                }
+                highKey--;
+            }
+        }
+        if (lowKey > highKey) {
+            return true;
+        }
+
+        int page = sorted ? firstPageEndingAtOrAfter(lowKey) : 0;
+        for (; page < pageCount; page++) {
+            long minKey = getMinKey(page);
+            if (minKey > highKey) {
+                if (sorted) {
+                    break;
+                }
+                continue;
+            }
+            long maxKey = getMaxKey(page);
+            if (maxKey >= lowKey && minKey <= maxKey) {
+                result.set(page);
+            }
+        }
+        return true;
+    }
+
+    abstract long getRetainedSizeInBytes();
+
+    abstract void addPage(int page, Type type, Block block);
+
+    abstract long getMinKey(int page);
+
+    abstract long getMaxKey(int page);
+
+    abstract boolean isSupported(Object value);
+
+    abstract long toKey(Object value);
+
+    void finish()
+    {
+        sorted = true;
+        for (int page = 0; page < pageCount && sorted; page++) {
+            if (getMinKey(page) > getMaxKey(page)) {
+                sorted = false;
+            }
+            else if (page > 0 && (getMinKey(page) < getMinKey(page - 1) || getMaxKey(page) < getMaxKey(page - 1))) {
+                sorted = false;
+            }
+        }
+    }
+
+    private int firstPageEndingAtOrAfter(long key)
+    {
+        int low = 0;
+        int high = pageCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getMaxKey(mid) < key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * BIGINT, TIMESTAMP, TIME and short DECIMAL columns
+     */
+    static class LongColumnIndex
+            extends ColumnIndex
+    {
+        private static final long serialVersionUID = -2417043519880273645L;
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(LongColumnIndex.class).instanceSize();
+
+        private final long[] mins;
+        private final long[] maxs;
+
+        LongColumnIndex(int pageCount)
+        {
+            super(pageCount);
+            this.mins = new long[pageCount];
+            this.maxs = new long[pageCount];
+        }
+
+        @Override
+        void addPage(int page, Type type, Block block)
+        {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    long value = type.getLong(block, position);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            if (min > max) {
+                mins[page] = 1;
+                maxs[page] = 0;
+            }
+            else {
+                mins[page] = min;
+                maxs[page] = max;
+            }
+        }
+
+        @Override
+        long getMinKey(int page)
+        {
+            return mins[page];
+        }
+
+        @Override
+        long getMaxKey(int page)
+        {
+            return maxs[page];
+        }
+
+        @Override
+        boolean isSupported(Object value)
+        {
+            return value instanceof Long;
+        }
+
+        @Override
+        long toKey(Object value)
+        {
+            return (Long) value;
+        }
+
+        @Override
+        long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + sizeOf(mins) + sizeOf(maxs);
+        }
+    }
+
+    /**
+     * INTEGER, SMALLINT, TINYINT and DATE columns
+     */
+    static class IntColumnIndex
+            extends ColumnIndex
+    {
+        private static final long serialVersionUID = 6626212318498441130L;
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(IntColumnIndex.class).instanceSize();
+
+        private final int[] mins;
+        private final int[] maxs;
+
+        IntColumnIndex(int pageCount)
+        {
+            super(pageCount);
+            this.mins = new int[pageCount];
+            this.maxs = new int[pageCount];
+        }
+
+        @Override
+        void addPage(int page, Type type, Block block)
+        {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    int value = (int) type.getLong(block, position);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            if (min > max) {
+                mins[page] = 1;
+                maxs[page] = 0;
+            }
+            else {
+                mins[page] = min;
+                maxs[page] = max;
+            }
+        }
+
+        @Override
+        long getMinKey(int page)
+        {
+            return mins[page];
+        }
+
+        @Override
+        long getMaxKey(int page)
+        {
+            return maxs[page];
+        }
+
+        @Override
+        boolean isSupported(Object value)
+        {
+            return value instanceof Long;
+        }
+
+        @Override
+        long toKey(Object value)
+        {
+            return (Long) value;
+        }
+
+        @Override
+        long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + sizeOf(mins) + sizeOf(maxs);
+        }
+    }
+
+    /**
+     * DOUBLE and REAL columns. NaN values are not indexed, since they never match a range.
+     */
+    static class DoubleColumnIndex
+            extends ColumnIndex
+    {
+        private static final long serialVersionUID = -5118994217702693385L;
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(DoubleColumnIndex.class).instanceSize();
+
+        private final boolean real;
+        private final double[] mins;
+        private final double[] maxs;
+
+        DoubleColumnIndex(int pageCount, boolean real)
+        {
+            super(pageCount);
+            this.real = real;
+            this.mins = new double[pageCount];
+            this.maxs = new double[pageCount];
+        }
+
+        @Override
+        void addPage(int page, Type type, Block block)
+        {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            boolean hasValues = false;
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    double value = real ? Float.intBitsToFloat((int) type.getLong(block, position)) : type.getDouble(block, position);
+                    if (!Double.isNaN(value)) {
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                        hasValues = true;
+                    }
+                }
+            }
+            if (hasValues) {
+                mins[page] = min;
+                maxs[page] = max;
+            }
+            else {
+                mins[page] = Double.POSITIVE_INFINITY;
+                maxs[page] = Double.NEGATIVE_INFINITY;
+            }
+        }
+
+        @Override
+        long getMinKey(int page)
+        {
+            return toSortableLong(mins[page]);
+        }
+
+        @Override
+        long getMaxKey(int page)
+        {
+            return toSortableLong(maxs[page]);
+        }
+
+        @Override
+        boolean isSupported(Object value)
+        {
+            if (real) {
+                return value instanceof Long && !Float.isNaN(Float.intBitsToFloat(((Long) value).intValue()));
+            }
+            return value instanceof Double && !((Double) value).isNaN();
+        }
+
+        @Override
+        long toKey(Object value)
+        {
+            if (real) {
+                return toSortableLong(Float.intBitsToFloat(((Long) value).intValue()));
+            }
+            return toSortableLong((Double) value);
+        }
+
+        @Override
+        long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + sizeOf(mins) + sizeOf(maxs);
+        }
+
+        private static long toSortableLong(double value)
+        {
+            // adding 0.0 turns -0.0 into 0.0, which are equal in SQL
+            long bits = Double.doubleToLongBits(value + 0.0d);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * VARCHAR columns. The page min and max values are dictionary encoded, the ids of the dictionary are
+     * ordered like its values. The key of a dictionary value is twice its id, values between two
+     * dictionary values get the odd key in between.
+     */
+    static class SliceColumnIndex
+            extends ColumnIndex
+    {
+        private static final long serialVersionUID = 8297260187370150926L;
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(SliceColumnIndex.class).instanceSize();
+
+        private final int[] minIds;
+        private final int[] maxIds;
+        private byte[] dictionary;
+        private int[] dictionaryOffsets;
+
+        private transient Slice[] pageMins;
+        private transient Slice[] pageMaxs;
+        private transient Slice dictionarySlice;
+
+        SliceColumnIndex(int pageCount)
+        {
+            super(pageCount);
+            this.minIds = new int[pageCount];
+            this.maxIds = new int[pageCount];
+            this.pageMins = new Slice[pageCount];
+            this.pageMaxs = new Slice[pageCount];
+        }
+
+        @Override
+        void addPage(int page, Type type, Block block)
+        {
+            Slice min = null;
+            Slice max = null;
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    Slice value = type.getSlice(block, position);
+                    if (min == null || value.compareTo(min) < 0) {
+                        min = value;
+                    }
+                    if (max == null || value.compareTo(max) > 0) {
+                        max = value;
+                    }
+                }
+            }
+            if (min != null) {
+                pageMins[page] = Slices.copyOf(min);
+                pageMaxs[page] = Slices.copyOf(max);
+            }
+        }
+
+        @Override
+        void finish()
+        {
+            TreeSet<Slice> values = new TreeSet<>();
+            for (int page = 0; page < pageCount; page++) {
+                if (pageMins[page] != null) {
+                    values.add(pageMins[page]);
+                    values.add(pageMaxs[page]);
+                }
+            }
+
+            Slice[] sortedValues = values.toArray(new Slice[0]);
+            dictionaryOffsets = new int[sortedValues.length + 1];
+            int size = 0;
+            for (int id = 0; id < sortedValues.length; id++) {
+                dictionaryOffsets[id] = size;
+                size += sortedValues[id].length();
+            }
+            dictionaryOffsets[sortedValues.length] = size;
+            dictionary = new byte[size];
+            for (int id = 0; id < sortedValues.length; id++) {
+                sortedValues[id].getBytes(0, dictionary, dictionaryOffsets[id], sortedValues[id].length());
+            }
+
+            for (int page = 0; page < pageCount; page++) {
+                if (pageMins[page] == null) {
+                    minIds[page] = Integer.MAX_VALUE;
+                    maxIds[page] = -1;
+                }
+                else {
+                    minIds[page] = Arrays.binarySearch(sortedValues, pageMins[page]);
+                    maxIds[page] = Arrays.binarySearch(sortedValues, pageMaxs[page]);
+                }
+            }
+            pageMins = null;
+            pageMaxs = null;
+            super.finish();
+        }
+
+        @Override
+        long getMinKey(int page)
+        {
+            return 2L * minIds[page];
+        }
+
+        @Override
+        long getMaxKey(int page)
+        {
+            return 2L * maxIds[page];
+        }
+
+        @Override
+        boolean isSupported(Object value)
+        {
+            return value instanceof Slice;
+        }
+
+        @Override
+        long toKey(Object value)
+        {
+            Slice slice = (Slice) value;
+            if (dictionarySlice == null) {
+                dictionarySlice = Slices.wrappedBuffer(dictionary);
+            }
+            int low = 0;
+            int high = dictionaryOffsets.length - 2;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int offset = dictionaryOffsets[mid];
+                int comparison = dictionarySlice.compareTo(offset, dictionaryOffsets[mid + 1] - offset, slice, 0, slice.length());
+                if (comparison < 0) {
+                    low = mid + 1;
+                }
+                else if (comparison > 0) {
+                    high = mid - 1;
+                }
+                else {
+                    return 2L * mid;
+                }
+            }
+            return 2L * low - 1;
+        }
+
+        @Override
+        long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + sizeOf(minIds) + sizeOf(maxIds) + sizeOf(dictionary) + sizeOf(dictionaryOffsets);
+        }
+    }
+}
@@ -22,9 +22,11 @@ import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.hetu.core.transport.execution.buffer.PagesSerde;
 import io.hetu.core.transport.execution.buffer.PagesSerdeUtil;
+import io.hetu.core.transport.execution.buffer.SerializedPage;
 import io.prestosql.plugin.memory.MemoryColumnHandle;
 import io.prestosql.plugin.memory.SortingColumn;
 import io.prestosql.spi.Page;
@@ -53,18 +55,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import static io.hetu.core.transport.execution.buffer.PageCodecMarker.MarkerSet.fromByteValue;
 import static java.util.Objects.requireNonNull;
 
 public class LogicalPart
@@ -91,6 +96,8 @@ public class LogicalPart
     private final int maxPageSizeBytes;
     private final int logicalPartNum;
     private final boolean compressionEnabled;
+    private final boolean primitiveIndexEnabled;
+    private final boolean offHeapPagesEnabled;
 
     // indexes
     /*
@@ -125,6 +132,8 @@ public class LogicalPart
     private final TreeMap<Comparable, SparseValue> sparseIdx = new TreeMap<>();
     private final Map<Integer, BloomFilter> bloomIdx = new HashMap<>();
     private final Map<Integer, Map.Entry<Comparable, Comparable>> minMaxIdx = new HashMap<>();
+    // with primitive index enabled, the sparse and minmax indexes are replaced by the page min and max values of the sort and index columns
+    private final Map<Integer, ColumnIndex> columnIdx = new HashMap<>();
 
     private transient Path tableDataRoot;
     private transient PagesSerde pagesSerde;
@@ -133,6 +142,8 @@ public class LogicalPart
     private transient List<Type> types;
     // Using majority of memory and disk space. Serialized and deserialized separately. Only loaded when used.
     private transient List<Page> pages;
+    // with off-heap pages enabled, the pages of a processed LogicalPart are kept serialized in direct memory instead
+    private transient List<SerializedPage> offHeapPages;
 
     public LogicalPart(
             List<MemoryColumnHandle> columns,
@@ -146,6 +157,24 @@ public class LogicalPart
             PagesSerde pagesSerde,
             int logicalPartNum,
             boolean compressionEnabled)
+    {
+        this(columns, sortedBy, indexColumns, tableDataRoot, pageSorter, maxLogicalPartBytes, maxPageSizeBytes, typeManager, pagesSerde, logicalPartNum, compressionEnabled, false, false);
+    }
+
+    public LogicalPart(
+            List<MemoryColumnHandle> columns,
+            List<SortingColumn> sortedBy,
+            List<String> indexColumns,
+            Path tableDataRoot,
+            PageSorter pageSorter,
+            long maxLogicalPartBytes,
+            int maxPageSizeBytes,
+            TypeManager typeManager,
+            PagesSerde pagesSerde,
+            int logicalPartNum,
+            boolean compressionEnabled,
+            boolean primitiveIndexEnabled,
+            boolean offHeapPagesEnabled)
     {
         this.tableDataRoot = tableDataRoot;
         this.logicalPartNum = logicalPartNum;
@@ -153,6 +182,8 @@ public class LogicalPart
         this.maxLogicalPartBytes = maxLogicalPartBytes;
         this.maxPageSizeBytes = maxPageSizeBytes;
         this.compressionEnabled = compressionEnabled;
+        this.primitiveIndexEnabled = primitiveIndexEnabled;
+        this.offHeapPagesEnabled = offHeapPagesEnabled;
         this.pagesSerde = requireNonNull(pagesSerde, "pagesSerde is null");
         this.pageSorter = requireNonNull(pageSorter, "pageSorter is null");
         requireNonNull(columns, "columns is null");
@@ -224,12 +255,13 @@ public class LogicalPart
 
     boolean pageInMemory()
     {
-        return pages != null;
+        return pages != null || offHeapPages != null;
     }
 
     void unloadPages()
     {
         pages = null;
+        offHeapPages = null;
     }
 
     void finishAdding()
@@ -238,6 +270,40 @@ public class LogicalPart
     }
 
     List<Page> getPages()
+    {
+        loadPages();
+        List<SerializedPage> serializedPages = offHeapPages;
+        if (serializedPages != null) {
+            List<Page> result = new ArrayList<>(serializedPages.size());
+            for (SerializedPage serializedPage : serializedPages) {
+                result.add(pagesSerde.deserialize(serializedPage));
+            }
+            return result;
+        }
+        return pages;
+    }
+
+    /**
+     * Get the pages at the set indexes, only these pages are deserialized if the pages are stored off heap
+     */
+    private List<Page> getPages(BitSet pageIndexes)
+    {
+        loadPages();
+        List<SerializedPage> serializedPages = offHeapPages;
+        List<Page> inMemoryPages = pages;
+        List<Page> result = new ArrayList<>(pageIndexes.cardinality());
+        for (int idx = pageIndexes.nextSetBit(0); idx >= 0; idx = pageIndexes.nextSetBit(idx + 1)) {
+            if (serializedPages != null) {
+                result.add(pagesSerde.deserialize(serializedPages.get(idx)));
+            }
+            else {
+                result.add(inMemoryPages.get(idx));
+            }
+        }
+        return result;
+    }
+
+    private void loadPages()
     {
         if (!pageInMemory()) {
             try {
@@ -247,7 +313,6 @@ public class LogicalPart
                 LOG.error("Failed to load pages from " + getPageFileName(), e);
             }
         }
-        return pages;
     }
 
     /**
@@ -275,6 +340,10 @@ public class LogicalPart
             return getPages();
         }
 
+        if (primitiveIndexEnabled) {
+            return getPagesByColumnIndex(predicate);
+        }
+
         // determine which columns in the predicate can utilize indexes
         Map<Integer, List<Range>> minmaxChannelsToRangesMap = new HashMap<>();
         Map<Integer, List<Range>> bloomChannelsToRangesMap = new HashMap<>();
@@ -437,35 +506,8 @@ public class LogicalPart
         }
 
         // bloom filter index
-        // if any column has no range match, the whole logipart can be filtered since it is assumed all column
-        // predicates are AND'd together
-        boolean match = true;
-        for (Map.Entry<Integer, List<Range>> e : bloomChannelsToRangesMap.entrySet()) {
-            int expressionColumnIndex = e.getKey();
-            List<Range> ranges = e.getValue();
-
-            // only filter using bloom if all values in range do not match
-            int falseCount = 0;
-            for (Range range : ranges) {
-                if (range.isSingleValue()) {
-                    Object lookupValue = getNativeValue(range.getSingleValue());
-                    // assumes bloomIdx map will contain the entry since the check should've been done earlier
-                    BloomFilter filter = bloomIdx.get(expressionColumnIndex);
-                    if (!testFilter(filter, lookupValue)) {
-                        falseCount++;
-                    }
-                }
-            }
-
-            // if all ranges for this column had no match, filter this logipart
-            if (falseCount == ranges.size()) {
-                match = false;
-                break;
-            }
-        }
-
         // no match with bloom indexed columns
-        if (!match) {
+        if (!bloomFilterMatches(bloomChannelsToRangesMap)) {
             return Collections.emptyList();
         }
 
@@ -565,16 +607,104 @@ public class LogicalPart
                 }
             }
 
-            List<Page> resultPageList = new ArrayList<>();
-            for (Integer idx : result) {
-                resultPageList.add(getPages().get(idx));
-            }
-            return resultPageList;
+            BitSet resultPages = new BitSet();
+            result.forEach(resultPages::set);
+            return getPages(resultPages);
         }
 
         return getPages();
     }
 
+    /**
+     * If any column has no range match, the whole logipart can be filtered since it is assumed all column
+     * predicates are AND'd together
+     */
+    private boolean bloomFilterMatches(Map<Integer, List<Range>> bloomChannelsToRangesMap)
+    {
+        for (Map.Entry<Integer, List<Range>> e : bloomChannelsToRangesMap.entrySet()) {
+            int expressionColumnIndex = e.getKey();
+            List<Range> ranges = e.getValue();
+
+            // only filter using bloom if all values in range do not match
+            int falseCount = 0;
+            for (Range range : ranges) {
+                if (range.isSingleValue()) {
+                    Object lookupValue = getNativeValue(range.getSingleValue());
+                    // assumes bloomIdx map will contain the entry since the check should've been done earlier
+                    BloomFilter filter = bloomIdx.get(expressionColumnIndex);
+                    if (!testFilter(filter, lookupValue)) {
+                        falseCount++;
+                    }
+                }
+            }
+
+            // if all ranges for this column had no match, filter this logipart
+            if (falseCount == ranges.size()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies the bloom indexes and the page min and max values of the sort and index columns.
+     * A page is returned if it may match the ranges of all columns.
+     */
+    private List<Page> getPagesByColumnIndex(TupleDomain<ColumnHandle> predicate)
+    {
+        Map<Integer, List<Range>> bloomChannelsToRangesMap = new HashMap<>();
+        BitSet matchingPages = null;
+        for (Map.Entry<ColumnHandle, Domain> e : predicate.getDomains().orElse(Collections.emptyMap()).entrySet()) {
+            int expressionColumnIndex = ((MemoryColumnHandle) e.getKey()).getColumnIndex();
+            Domain domain = e.getValue();
+            if (!(domain.getValues() instanceof SortedRangeSet)) {
+                continue;
+            }
+            List<Range> ranges = ((SortedRangeSet) domain.getValues()).getOrderedRanges();
+
+            // e.g. column=null, null values are not indexed
+            if (ranges.isEmpty() || domain.isNullAllowed()) {
+                continue;
+            }
+
+            if (bloomIdx.containsKey(expressionColumnIndex)) {
+                bloomChannelsToRangesMap.put(expressionColumnIndex, ranges);
+            }
+
+            ColumnIndex index = columnIdx.get(expressionColumnIndex);
+            if (index == null) {
+                continue;
+            }
+            BitSet columnMatchingPages = new BitSet();
+            boolean applied = true;
+            for (Range range : ranges) {
+                if (!index.addMatchingPages(range, columnMatchingPages)) {
+                    applied = false;
+                    break;
+                }
+            }
+            if (applied) {
+                if (matchingPages == null) {
+                    matchingPages = columnMatchingPages;
+                }
+                else {
+                    matchingPages.and(columnMatchingPages);
+                }
+            }
+        }
+
+        if (!bloomFilterMatches(bloomChannelsToRangesMap)) {
+            return Collections.emptyList();
+        }
+
+        if (matchingPages == null) {
+            return getPages();
+        }
+
+        return getPages(matchingPages);
+    }
+
     private Integer getLowerPageIndex(Comparable lowestInDom, Comparable lowBound, boolean includeLowBound, Comparable highBound, boolean includeHighBound)
     {
         Map.Entry<Comparable, SparseValue> lowerSparseEntry;
@@ -636,6 +766,9 @@ public class LogicalPart
                 Page page = sortedPages.get(i);
                 newByteSize += page.getSizeInBytes();
                 newRowCount += page.getPositionCount();
+                if (primitiveIndexEnabled) {
+                    continue;
+                }
                 Object value = getNativeValue(types.get(sortChannels.get(0)), page.getBlock(sortChannels.get(0)), 0);
                 if (value != null) {
                     if (!(value instanceof Comparable)) {
@@ -655,14 +788,16 @@ public class LogicalPart
             }
 
             // create minmax index for sort column
-            Page firstPage = sortedPages.get(0);
-            Page lastPage = sortedPages.get(sortedPages.size() - 1);
+            if (!primitiveIndexEnabled) {
+                Page firstPage = sortedPages.get(0);
+                Page lastPage = sortedPages.get(sortedPages.size() - 1);
 
-            Object minValue = getNativeValue(types.get(sortChannels.get(0)), firstPage.getBlock(sortChannels.get(0)), 0);
-            Object maxValue = getNativeValue(types.get(sortChannels.get(0)), lastPage.getBlock(sortChannels.get(0)), lastPage.getPositionCount() - 1);
+                Object minValue = getNativeValue(types.get(sortChannels.get(0)), firstPage.getBlock(sortChannels.get(0)), 0);
+                Object maxValue = getNativeValue(types.get(sortChannels.get(0)), lastPage.getBlock(sortChannels.get(0)), lastPage.getPositionCount() - 1);
 
-            if (minValue instanceof Comparable && maxValue instanceof Comparable) {
-                minMaxIdx.put(sortChannels.get(0), new AbstractMap.SimpleEntry<>((Comparable) minValue, (Comparable) maxValue));
+                if (minValue instanceof Comparable && maxValue instanceof Comparable) {
+                    minMaxIdx.put(sortChannels.get(0), new AbstractMap.SimpleEntry<>((Comparable) minValue, (Comparable) maxValue));
+                }
             }
 
             this.byteSize = newByteSize;
@@ -688,7 +823,8 @@ public class LogicalPart
             // first and last value of the pages, so we can save some computation by skipping this step
             // however, if the column is not being sorted on, the min-max values will need to be
             // determined by doing comparisons
-            boolean createMinMax = !minMaxIdx.containsKey(indexChannel);
+            // with primitive index enabled, the min-max values are kept per page in the column index instead
+            boolean createMinMax = !primitiveIndexEnabled && !minMaxIdx.containsKey(indexChannel);
             Comparable min = null;
             Comparable max = null;
             for (Object value : values) {
@@ -718,15 +854,80 @@ public class LogicalPart
             bloomIdx.put(indexChannel, filter);
         }
 
+        // create primitive index on sort and index columns
+        if (primitiveIndexEnabled) {
+            List<Page> processedPages = getPages();
+            for (Integer indexChannel : indexChannels) {
+                Optional<ColumnIndex> columnIndex = ColumnIndex.build(types.get(indexChannel), processedPages, indexChannel);
+                if (columnIndex.isPresent()) {
+                    columnIdx.put(indexChannel, columnIndex.get());
+                }
+                else {
+                    LOG.warn("Unsupported primitive index column type %s", types.get(indexChannel));
+                }
+            }
+        }
+
         try {
             writePages();
         }
         catch (Exception e) {
             LOG.error("Error spilling LogicalPart " + getPageFileName() + " to disk. Restoring will be unavailable.", e);
         }
+
+        if (offHeapPagesEnabled) {
+            List<SerializedPage> serializedPages = new ArrayList<>(pages.size());
+            for (Page page : pages) {
+                serializedPages.add(toOffHeapPage(pagesSerde.serialize(page)));
+            }
+            this.offHeapPages = serializedPages;
+            this.pages = null;
+        }
+
+        // the memory used by the processed pages and indexes, which is accounted for instead of the size of the added pages
+        if (primitiveIndexEnabled || offHeapPagesEnabled) {
+            this.byteSize = getRetainedSizeInBytes();
+        }
         this.processingState.set(LogicalPartState.COMPLETED);
     }
 
+    private long getRetainedSizeInBytes()
+    {
+        long size = 0;
+        List<SerializedPage> serializedPages = offHeapPages;
+        if (serializedPages != null) {
+            for (SerializedPage page : serializedPages) {
+                size += page.getRetainedSizeInBytes();
+            }
+        }
+        else if (pages != null) {
+            for (Page page : pages) {
+                size += page.getRetainedSizeInBytes();
+            }
+        }
+        for (BloomFilter filter : bloomIdx.values()) {
+            size += filter.getRetainedSizeInBytes();
+        }
+        for (ColumnIndex index : columnIdx.values()) {
+            size += index.getRetainedSizeInBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Copy a serialized page into direct memory. Compressed or encrypted pages stay on heap,
+     * since PagesSerde can only decompress and decrypt heap slices.
+     */
+    private static SerializedPage toOffHeapPage(SerializedPage page)
+    {
+        if (page.isCompressed() || page.isEncrypted()) {
+            return page;
+        }
+        Slice slice = Slices.allocateDirect(page.getSizeInBytes());
+        slice.setBytes(0, page.getSlice());
+        return new SerializedPage(slice, fromByteValue(page.getPageCodecMarkers()), page.getPositionCount(), page.getUncompressedSizeInBytes(), page.getPageMetadata());
+    }
+
     private String getPageFileName()
     {
         return "logicalPartNumber" + logicalPartNum;
@@ -738,7 +939,7 @@ public class LogicalPart
     private synchronized void readPages()
             throws IOException
     {
-        if (pages != null) {
+        if (pageInMemory()) {
             return;
         }
         long start = System.currentTimeMillis();
@@ -746,8 +947,15 @@ public class LogicalPart
         try (InputStream inputStream = Files.newInputStream(pagesFile)) {
             try (InputStream inputStreamToUse = compressionEnabled ? new GZIPInputStream(inputStream) : inputStream) {
                 SliceInput sliceInput = new InputStreamSliceInput(inputStreamToUse);
-                pages = new ArrayList<>();
-                PagesSerdeUtil.readPages(pagesSerde, sliceInput).forEachRemaining(pages::add);
+                if (offHeapPagesEnabled && processingState.get() == LogicalPartState.COMPLETED) {
+                    List<SerializedPage> serializedPages = new ArrayList<>();
+                    PagesSerdeUtil.readSerializedPages(sliceInput).forEachRemaining(page -> serializedPages.add(toOffHeapPage(page)));
+                    offHeapPages = serializedPages;
+                }
+                else {
+                    pages = new ArrayList<>();
+                    PagesSerdeUtil.readPages(pagesSerde, sliceInput).forEachRemaining(pages::add);
+                }
             }
         }
         long dur = System.currentTimeMillis() - start;
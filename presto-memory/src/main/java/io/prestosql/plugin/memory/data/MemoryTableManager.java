@@ -126,10 +126,13 @@ public class MemoryTableManager
             // this should only be called once entire table has been processed
             if (tables.containsKey(id) && tables.get(id).allProcessed()) {
                 try {
+                    Table table = tables.get(id);
+                    long creationBytes = table.getByteSize() * CREATION_SCALE_FACTOR;
+                    table.updateProcessedByteSize();
                     // first spill the table to disk
                     spillTable(id);
                     // release memory overhead used during processing
-                    releaseMemory(tables.get(id).getByteSize() * (CREATION_SCALE_FACTOR - 1), "Finish processing table " + id);
+                    releaseMemory(creationBytes - table.getByteSize(), "Finish processing table " + id);
                 }
                 catch (Exception e) {
                     LOG.error("Failed to serialize table " + id, e);
@@ -99,7 +99,15 @@ public class Table
                     TreeMap.class.getName(),
                     LogicalPart.SparseValue.class.getName(),
                     AtomicReference.class.getName(),
-                    long[].class.getName())
+                    ColumnIndex.class.getName(),
+                    ColumnIndex.LongColumnIndex.class.getName(),
+                    ColumnIndex.IntColumnIndex.class.getName(),
+                    ColumnIndex.DoubleColumnIndex.class.getName(),
+                    ColumnIndex.SliceColumnIndex.class.getName(),
+                    long[].class.getName(),
+                    int[].class.getName(),
+                    double[].class.getName(),
+                    byte[].class.getName())
             .toArray(new String[0]);
 
     private final List<MemoryColumnHandle> columns;
@@ -109,6 +117,8 @@ public class Table
     private final int maxPageSizeBytes;
     private final List<LogicalPart> logicalParts; // actual data (pages) stored here
     private final boolean compressionEnabled;
+    private final boolean primitiveIndexEnabled;
+    private final boolean offHeapPagesEnabled;
     private TableState tableState;
     private long byteSize;
     private final long id;
@@ -128,6 +138,8 @@ public class Table
         this.maxLogicalPartBytes = config.getMaxLogicalPartSize().toBytes();
         this.maxPageSizeBytes = Long.valueOf(config.getMaxPageSize().toBytes()).intValue();
         this.compressionEnabled = compressionEnabled;
+        this.primitiveIndexEnabled = config.isPrimitiveIndexEnabled();
+        this.offHeapPagesEnabled = config.isOffHeapPagesEnabled();
         this.columns = requireNonNull(columns, "columns is null");
         this.sortedBy = requireNonNull(sortedBy, "sortedBy is null");
         this.indexColumns = requireNonNull(indexColumns, "indexColumns is null");
@@ -161,7 +173,7 @@ public class Table
     public void add(Page page)
     {
         if (logicalParts.isEmpty() || !logicalParts.get(logicalParts.size() - 1).canAdd()) {
-            this.logicalParts.add(new LogicalPart(columns, sortedBy, indexColumns, tableDataRoot, pageSorter, maxLogicalPartBytes, maxPageSizeBytes, typeManager, pagesSerde, logicalParts.size() + 1, compressionEnabled));
+            this.logicalParts.add(new LogicalPart(columns, sortedBy, indexColumns, tableDataRoot, pageSorter, maxLogicalPartBytes, maxPageSizeBytes, typeManager, pagesSerde, logicalParts.size() + 1, compressionEnabled, primitiveIndexEnabled, offHeapPagesEnabled));
         }
         logicalParts.get(logicalParts.size() - 1).add(page);
         byteSize += page.getSizeInBytes();
@@ -196,6 +208,22 @@ public class Table
         return size;
     }
 
+    /**
+     * With primitive index or off-heap pages enabled, the size of the processed logical parts differs
+     * from the size of the added pages. Update the size of the table once all logical parts are processed.
+     */
+    public void updateProcessedByteSize()
+    {
+        if (!primitiveIndexEnabled && !offHeapPagesEnabled) {
+            return;
+        }
+        long size = 0;
+        for (LogicalPart logicalPart : logicalParts) {
+            size += logicalPart.getByteSize();
+        }
+        byteSize = size;
+    }
+
     public boolean isSpilled()
     {
         return tableState == TableState.SPILLED;
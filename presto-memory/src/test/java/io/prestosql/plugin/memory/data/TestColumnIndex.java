@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.memory.data;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.RowPagesBuilder;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.spi.predicate.Range.equal;
+import static io.prestosql.spi.predicate.Range.greaterThan;
+import static io.prestosql.spi.predicate.Range.greaterThanOrEqual;
+import static io.prestosql.spi.predicate.Range.lessThan;
+import static io.prestosql.spi.predicate.Range.range;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Float.floatToRawIntBits;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestColumnIndex
+{
+    @Test
+    public void testLongColumnIndex()
+    {
+        ColumnIndex index = buildIndex(BIGINT, 1L, 2L, 3L, null, 3L, 5L, 7L, 7L, 9L);
+        assertTrue(index instanceof ColumnIndex.LongColumnIndex);
+        assertTrue(index.isSorted());
+
+        assertEquals(getMatchingPages(index, equal(BIGINT, 3L)), bitSet(0, 1));
+        // the second page may contain 4
+        assertEquals(getMatchingPages(index, equal(BIGINT, 4L)), bitSet(1));
+        assertEquals(getMatchingPages(index, equal(BIGINT, 0L)), bitSet());
+        assertEquals(getMatchingPages(index, equal(BIGINT, 10L)), bitSet());
+        assertEquals(getMatchingPages(index, greaterThan(BIGINT, 5L)), bitSet(2));
+        assertEquals(getMatchingPages(index, greaterThanOrEqual(BIGINT, 5L)), bitSet(1, 2));
+        assertEquals(getMatchingPages(index, lessThan(BIGINT, 3L)), bitSet(0));
+        assertEquals(getMatchingPages(index, range(BIGINT, 4L, true, 7L, false)), bitSet(1));
+        assertEquals(getMatchingPages(index, range(BIGINT, Long.MIN_VALUE, true, Long.MAX_VALUE, true)), bitSet(0, 1, 2));
+        assertEquals(getMatchingPages(index, greaterThan(BIGINT, Long.MAX_VALUE)), bitSet());
+    }
+
+    @Test
+    public void testIntColumnIndex()
+    {
+        // unsorted pages are all checked
+        ColumnIndex index = buildIndex(INTEGER, 10L, 20L, 30L, 1L, 2L, 3L, 15L, 16L, 17L);
+        assertTrue(index instanceof ColumnIndex.IntColumnIndex);
+        assertFalse(index.isSorted());
+
+        assertEquals(getMatchingPages(index, equal(INTEGER, 16L)), bitSet(0, 2));
+        assertEquals(getMatchingPages(index, equal(INTEGER, 5L)), bitSet());
+        assertEquals(getMatchingPages(index, lessThan(INTEGER, 10L)), bitSet(1));
+        assertEquals(getMatchingPages(index, greaterThan(INTEGER, 17L)), bitSet(0));
+    }
+
+    @Test
+    public void testDoubleColumnIndex()
+    {
+        ColumnIndex index = buildIndex(DOUBLE, -3.5, -0.0, Double.NaN, 0.0, 1.5, 2.5, Double.NaN, Double.NaN, null);
+        assertTrue(index instanceof ColumnIndex.DoubleColumnIndex);
+        // pages without values make the pages unsorted
+        assertFalse(index.isSorted());
+
+        assertEquals(getMatchingPages(index, equal(DOUBLE, 0.0)), bitSet(0, 1));
+        assertEquals(getMatchingPages(index, equal(DOUBLE, -0.0)), bitSet(0, 1));
+        assertEquals(getMatchingPages(index, lessThan(DOUBLE, -1.0)), bitSet(0));
+        assertEquals(getMatchingPages(index, greaterThan(DOUBLE, 2.5)), bitSet());
+        assertEquals(getMatchingPages(index, greaterThanOrEqual(DOUBLE, Double.NEGATIVE_INFINITY)), bitSet(0, 1));
+
+        // NaN lookups can not use the index
+        assertFalse(index.addMatchingPages(equal(DOUBLE, Double.NaN), new BitSet()));
+    }
+
+    @Test
+    public void testRealColumnIndex()
+    {
+        ColumnIndex index = buildIndex(REAL, -1.0f, 0.5f, 1.0f, 2.0f, 3.0f, 4.0f);
+        assertTrue(index.isSorted());
+
+        assertEquals(getMatchingPages(index, equal(REAL, real(0.5f))), bitSet(0));
+        assertEquals(getMatchingPages(index, greaterThan(REAL, real(1.0f))), bitSet(1));
+        assertEquals(getMatchingPages(index, lessThan(REAL, real(-1.0f))), bitSet());
+    }
+
+    @Test
+    public void testSliceColumnIndex()
+    {
+        ColumnIndex index = buildIndex(VARCHAR, "apple", "banana", "cherry", "cherry", "date", "fig", "grape", "kiwi", "lemon");
+        assertTrue(index instanceof ColumnIndex.SliceColumnIndex);
+        assertTrue(index.isSorted());
+
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("cherry"))), bitSet(0, 1));
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("coconut"))), bitSet(1));
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("eggplant"))), bitSet(1));
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("fig2"))), bitSet());
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("a"))), bitSet());
+        assertEquals(getMatchingPages(index, equal(VARCHAR, utf8Slice("zucchini"))), bitSet());
+        assertEquals(getMatchingPages(index, greaterThan(VARCHAR, utf8Slice("fig"))), bitSet(2));
+        assertEquals(getMatchingPages(index, lessThan(VARCHAR, utf8Slice("cherry"))), bitSet(0));
+        assertEquals(getMatchingPages(index, range(VARCHAR, utf8Slice("b"), true, utf8Slice("d"), true)), bitSet(0, 1));
+    }
+
+    @Test
+    public void testUnsupportedType()
+    {
+        List<Page> pages = RowPagesBuilder.rowPagesBuilder(ImmutableList.of(VARBINARY))
+                .row(utf8Slice("a"))
+                .build();
+        assertFalse(ColumnIndex.build(VARBINARY, pages, 0).isPresent());
+    }
+
+    @Test
+    public void testAllRange()
+    {
+        ColumnIndex index = buildIndex(BIGINT, 1L, 2L, 3L);
+        assertFalse(index.addMatchingPages(Range.all(BIGINT), new BitSet()));
+    }
+
+    /**
+     * Build the index of one column with pages of three rows
+     */
+    private static ColumnIndex buildIndex(Type type, Object... values)
+    {
+        RowPagesBuilder builder = RowPagesBuilder.rowPagesBuilder(ImmutableList.of(type));
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0 && i % 3 == 0) {
+                builder.pageBreak();
+            }
+            builder.row(values[i]);
+        }
+        return ColumnIndex.build(type, builder.build(), 0).get();
+    }
+
+    private static BitSet getMatchingPages(ColumnIndex index, Range range)
+    {
+        BitSet result = new BitSet();
+        assertTrue(index.addMatchingPages(range, result));
+        return result;
+    }
+
+    private static BitSet bitSet(int... pages)
+    {
+        BitSet result = new BitSet();
+        for (int page : pages) {
+            result.set(page);
+        }
+        return result;
+    }
+
+    private static long real(float value)
+    {
+        return floatToRawIntBits(value);
+    }
+}
@@ -16,22 +16,40 @@ package io.prestosql.plugin.memory.data;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.hetu.core.common.util.SecureObjectInputStream;
 import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.hetu.core.transport.execution.buffer.PagesSerdeFactory;
+import io.hetu.core.transport.execution.buffer.SerializedPage;
+import io.prestosql.PagesIndexPageSorter;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.operator.PagesIndex;
+import io.prestosql.plugin.memory.MemoryColumnHandle;
+import io.prestosql.plugin.memory.MemoryThreadManager;
+import io.prestosql.plugin.memory.SortingColumn;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageSorter;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.SortedRangeSet;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.predicate.ValueSet;
 import io.prestosql.spi.type.IntegerType;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
+import io.prestosql.spi.type.testing.TestingTypeManager;
 import io.prestosql.spi.util.BloomFilter;
 import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -46,17 +64,28 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.predicate.Range.equal;
 import static io.prestosql.spi.predicate.Range.greaterThan;
 import static io.prestosql.spi.predicate.Range.greaterThanOrEqual;
 import static io.prestosql.spi.predicate.Range.lessThan;
 import static io.prestosql.spi.predicate.Range.lessThanOrEqual;
 import static io.prestosql.spi.predicate.Range.range;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class TestLogicalPart
@@ -2130,6 +2159,130 @@ public class TestLogicalPart
         assertTrue(areListPagesEqual(result, newPages.subList(1, 3)));
     }
 
+    @Test
+    public void testPrimitiveIndexAndOffHeapPages()
+            throws IOException, ClassNotFoundException
+    {
+        Path tableDataRoot = Files.createTempDirectory("test-logical-part");
+        MemoryColumnHandle idColumn = new MemoryColumnHandle("id", 0, BIGINT.getTypeSignature());
+        MemoryColumnHandle nameColumn = new MemoryColumnHandle("name", 1, VARCHAR.getTypeSignature());
+        PagesSerde pagesSerde = new PagesSerdeFactory(createTestMetadataManager().getFunctionAndTypeManager().getBlockEncodingSerde(), false).createPagesSerde();
+        LogicalPart logicalPart = createIndexedOffHeapLogicalPart(tableDataRoot, pagesSerde, idColumn, nameColumn);
+
+        assertEquals(logicalPart.getProcessingState().get(), LogicalPart.LogicalPartState.COMPLETED);
+        assertNull(ReflectionTestUtils.getField(logicalPart, "pages"));
+        List<SerializedPage> offHeapPages = (List<SerializedPage>) ReflectionTestUtils.getField(logicalPart, "offHeapPages");
+        assertTrue(offHeapPages.size() > 1);
+        // direct slices have no base object
+        assertNull(offHeapPages.get(0).getSlice().getBase());
+        assertTrue(logicalPart.getByteSize() > 0);
+
+        assertEquals(getIds(logicalPart.getPages()).size(), 1000);
+
+        Set<Long> ids = getIds(logicalPart.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 500L))));
+        assertTrue(ids.contains(500L));
+        assertTrue(ids.size() < 1000);
+
+        ids = getIds(logicalPart.getPages(withDomain(idColumn, Domain.create(ValueSet.ofRanges(range(BIGINT, 100L, true, 199L, true)), false))));
+        for (long id = 100; id <= 199; id++) {
+            assertTrue(ids.contains(id));
+        }
+        assertTrue(ids.size() < 1000);
+
+        assertEquals(logicalPart.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 1000L))).size(), 0);
+        assertEquals(logicalPart.getPages(withDomain(nameColumn, Domain.singleValue(VARCHAR, utf8Slice("unknown")))).size(), 0);
+        assertEquals(getIds(logicalPart.getPages(withDomain(nameColumn, Domain.singleValue(VARCHAR, utf8Slice("name3"))))).size(), 1000);
+
+        // pages are reloaded into off-heap memory from disk
+        logicalPart.unloadPages();
+        assertEquals(getIds(logicalPart.getPages()).size(), 1000);
+        assertNotNull(ReflectionTestUtils.getField(logicalPart, "offHeapPages"));
+
+        // the column indexes are restored with the LogicalPart
+        if (!MemoryThreadManager.isSharedThreadPoolInitilized()) {
+            MemoryThreadManager.initSharedThreadPool(4);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(output)) {
+            oos.writeObject(logicalPart);
+        }
+        LogicalPart restored;
+        try (SecureObjectInputStream ois = new SecureObjectInputStream(new ByteArrayInputStream(output.toByteArray()), Table.TYPES_WHITELIST)) {
+            restored = (LogicalPart) ois.readObject();
+        }
+        restored.restoreTransientObjects(mock(PageSorter.class), new TestingTypeManager(), pagesSerde, tableDataRoot);
+        assertEquals(restored.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 1000L))).size(), 0);
+        assertTrue(getIds(restored.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 500L)))).contains(500L));
+    }
+
+    @Test
+    public void testOffHeapPagesDeserializedByColumnIndex()
+            throws IOException
+    {
+        Path tableDataRoot = Files.createTempDirectory("test-logical-part");
+        MemoryColumnHandle idColumn = new MemoryColumnHandle("id", 0, BIGINT.getTypeSignature());
+        MemoryColumnHandle nameColumn = new MemoryColumnHandle("name", 1, VARCHAR.getTypeSignature());
+        PagesSerde pagesSerde = spy(new PagesSerdeFactory(createTestMetadataManager().getFunctionAndTypeManager().getBlockEncodingSerde(), false).createPagesSerde());
+        LogicalPart logicalPart = createIndexedOffHeapLogicalPart(tableDataRoot, pagesSerde, idColumn, nameColumn);
+        int pageCount = ((List<?>) ReflectionTestUtils.getField(logicalPart, "offHeapPages")).size();
+        assertTrue(pageCount > 1);
+
+        // only the pages matching the column index are deserialized
+        clearInvocations(pagesSerde);
+        List<Page> result = logicalPart.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 500L)));
+        assertTrue(getIds(result).contains(500L));
+        assertTrue(result.size() < pageCount);
+        verify(pagesSerde, times(result.size())).deserialize(any(SerializedPage.class));
+
+        clearInvocations(pagesSerde);
+        assertEquals(logicalPart.getPages(withDomain(idColumn, Domain.singleValue(BIGINT, 1000L))).size(), 0);
+        verify(pagesSerde, never()).deserialize(any(SerializedPage.class));
+    }
+
+    private static LogicalPart createIndexedOffHeapLogicalPart(Path tableDataRoot, PagesSerde pagesSerde, MemoryColumnHandle idColumn, MemoryColumnHandle nameColumn)
+    {
+        LogicalPart logicalPart = new LogicalPart(
+                ImmutableList.of(idColumn, nameColumn),
+                ImmutableList.of(new SortingColumn("id", SortOrder.ASC_NULLS_LAST)),
+                ImmutableList.of("name"),
+                tableDataRoot,
+                new PagesIndexPageSorter(new PagesIndex.TestingFactory(false)),
+                1024 * 1024,
+                1024,
+                new TestingTypeManager(),
+                pagesSerde,
+                1,
+                false,
+                true,
+                true);
+
+        // add the rows in reverse order, so they are sorted when processed
+        RowPagesBuilder builder = RowPagesBuilder.rowPagesBuilder(BIGINT, VARCHAR);
+        for (long id = 999; id >= 0; id--) {
+            builder.row(id, "name" + (id % 10));
+        }
+        builder.build().forEach(logicalPart::add);
+        logicalPart.finishAdding();
+        logicalPart.process();
+        return logicalPart;
+    }
+
+    private static TupleDomain<ColumnHandle> withDomain(MemoryColumnHandle column, Domain domain)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(column, domain));
+    }
+
+    private static Set<Long> getIds(List<Page> pages)
+    {
+        Set<Long> ids = new HashSet<>();
+        for (Page page : pages) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                ids.add(BIGINT.getLong(page.getBlock(0), position));
+            }
+        }
+        return ids;
+    }
+
     static class BlockComparator
             implements Comparator<long[]>
     {
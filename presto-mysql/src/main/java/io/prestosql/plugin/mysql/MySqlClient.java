@@ -157,7 +157,11 @@ public class MySqlClient
             throws SQLException
     {
         PreparedStatement statement = connection.prepareStatement(sql);
-        if (statement.isWrapperFor(Statement.class)) {
+        if (MySqlClientModule.isCursorFetchEnabled(config)) {
+            // cursor fetch, useCursorFetch is set by the connection factory
+            statement.setFetchSize(fetchSize);
+        }
+        else if (statement.isWrapperFor(Statement.class)) {
             statement.unwrap(Statement.class).enableStreamingResults();
         }
         return statement;
@@ -70,6 +70,10 @@ public class MySqlClientModule
         connectionProperties.setProperty("useUnicode", "true");
         connectionProperties.setProperty("characterEncoding", "utf8");
         connectionProperties.setProperty("tinyInt1isBit", "false");
+        if (isCursorFetchEnabled(config)) {
+            // fetch the results in batches of fetch-size rows through a server side cursor
+            connectionProperties.setProperty("useCursorFetch", "true");
+        }
         if (mySqlConfig.isAutoReconnect()) {
             connectionProperties.setProperty("autoReconnect", String.valueOf(mySqlConfig.isAutoReconnect()));
             connectionProperties.setProperty("maxReconnects", String.valueOf(mySqlConfig.getMaxReconnects()));
@@ -85,4 +89,13 @@ public class MySqlClientModule
                 Optional.ofNullable(config.getPasswordCredentialName()),
                 connectionProperties);
     }
+
+    /**
+     * The record cursor keeps streaming the results row by row, only the page source,
+     * which reads ahead on a background thread, fetches them in batches of fetch-size rows.
+     */
+    static boolean isCursorFetchEnabled(BaseJdbcConfig config)
+    {
+        return config.getPageSourceEnable() && config.getFetchSize() > 0;
+    }
 }
@@ -26,6 +26,7 @@ import java.io.UncheckedIOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -44,8 +45,9 @@ public abstract class AbstractOrcDataSource
     private final DataSize maxBufferSize;
     private final DataSize streamBufferSize;
     private final boolean lazyReadSmallRanges;
-    private long readTimeNanos;
-    private long readBytes;
+    // updated from the reading thread and, with stripe prefetching, from the prefetch thread
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
     private final long lastModifiedTime;
 
     public AbstractOrcDataSource(OrcDataSourceId id, long size, DataSize maxMergeDistance, DataSize maxBufferSize, DataSize streamBufferSize, boolean lazyReadSmallRanges, long lastModifiedTime)
@@ -74,13 +76,13 @@ public abstract class AbstractOrcDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public final long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -111,8 +113,8 @@ public abstract class AbstractOrcDataSource
 
         readInternal(position, buffer, bufferOffset, bufferLength);
 
-        readTimeNanos += System.nanoTime() - start;
-        readBytes += bufferLength;
+        readTimeNanos.addAndGet(System.nanoTime() - start);
+        readBytes.addAndGet(bufferLength);
     }
 
     @Override
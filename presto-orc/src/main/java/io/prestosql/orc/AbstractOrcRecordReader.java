@@ -27,6 +27,7 @@ import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.hetu.core.common.algorithm.SequenceUtils;
 import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.orc.metadata.ColumnEncoding;
 import io.prestosql.orc.metadata.ColumnMetadata;
 import io.prestosql.orc.metadata.MetadataReader;
@@ -49,6 +50,7 @@ import io.prestosql.spi.heuristicindex.IndexMetadata;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.FixedWidthType;
 import io.prestosql.spi.type.Type;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import org.joda.time.DateTimeZone;
 import org.openjdk.jol.info.ClassLayout;
 
@@ -68,6 +70,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
@@ -129,7 +132,11 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
     protected final Optional<OrcWriteValidation.StatisticsValidation> stripeStatisticsValidation;
     protected final Optional<OrcWriteValidation.StatisticsValidation> fileStatisticsValidation;
 
-    Map<StripeInformation, PeekingIterator<Integer>> stripeMatchingRows = new HashMap<>();
+    // rows of a stripe matching the heuristic index, looked up when the stripe is read
+    private final Map<StripeInformation, PeekingIterator<Integer>> stripeMatchingRows = new HashMap<>();
+    // rows of the current stripe matching the heuristic index, as sorted positions within the stripe
+    private int[] currentStripeMatchingPositions;
+    private long indexSkippedRows;
 
     public AbstractOrcRecordReader(
             List<OrcColumn> readColumns,
@@ -246,11 +253,15 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
                 StripeInfo info = stripeInfos.get(i);
                 StripeInformation stripe = info.getStripe();
                 if (splitContainsStripe(splitOffset, splitLength, stripe)
-                        && isStripeIncluded(stripe, info.getStats(), predicate)
-                        && !filterStripeUsingIndex(stripe, stripeOffsetToIndex, domains, orDomains)) {
-                    stripes.add(stripe);
-                    stripeFilePositions.add(fileRowCount);
-                    totalRowCount += stripe.getNumberOfRows();
+                        && isStripeIncluded(stripe, info.getStats(), predicate)) {
+                    if (filterStripeUsingIndex(stripe, stripeOffsetToIndex, domains, orDomains)) {
+                        indexSkippedRows += stripe.getNumberOfRows();
+                    }
+                    else {
+                        stripes.add(stripe);
+                        stripeFilePositions.add(fileRowCount);
+                        totalRowCount += stripe.getNumberOfRows();
+                    }
                 }
                 fileRowCount += stripe.getNumberOfRows();
             }
@@ -356,9 +367,12 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
                 }
             }
             if (!matchings.isEmpty()) {
-                Iterator<Integer> thisStripeMatchingRows = SequenceUtils.intersect(matchings);
-                PeekingIterator<Integer> peekingIterator = Iterators.peekingIterator(thisStripeMatchingRows);
-                this.stripeMatchingRows.put(stripe, peekingIterator);
+                PeekingIterator<Integer> matchingRows = Iterators.peekingIterator(SequenceUtils.intersect(matchings));
+                if (!matchingRows.hasNext()) {
+                    // no row of the stripe matches all the predicates
+                    return true;
+                }
+                this.stripeMatchingRows.put(stripe, matchingRows);
             }
             return false;
         }
@@ -386,6 +400,64 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
         return false;
     }
 
+    private static int[] toPositions(Iterator<Integer> rows)
+    {
+        IntArrayList positions = new IntArrayList();
+        while (rows.hasNext()) {
+            positions.add(rows.next().intValue());
+        }
+        return positions.toIntArray();
+    }
+
+    /**
+     * Positions of the current batch matching the heuristic index, relative to the start of the batch.
+     * The matching rows of a stripe are looked up once when the stripe is read, so every batch only needs a binary search.
+     *
+     * @return the matching positions in ascending order, or null if the index does not filter the rows of the current stripe
+     */
+    protected int[] getIndexMatchingPositions(int batchSize)
+    {
+        int[] stripePositions = currentStripeMatchingPositions;
+        if (stripePositions == null) {
+            return null;
+        }
+
+        // the matching rows before the batch may belong to row groups skipped by the other predicates
+        long batchStart = currentPosition - currentStripePosition;
+        int from = lowerBound(stripePositions, batchStart);
+        int to = lowerBound(stripePositions, batchStart + batchSize);
+        int[] positions = new int[to - from];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = toIntExact(stripePositions[from + i] - batchStart);
+        }
+        indexSkippedRows += batchSize - positions.length;
+        return positions;
+    }
+
+    private static int lowerBound(int[] sortedPositions, long position)
+    {
+        int low = 0;
+        int high = sortedPositions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedPositions[middle] < position) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the number of rows skipped by the heuristic index, in skipped stripes and in the batches read so far
+     */
+    public long getIndexSkippedRows()
+    {
+        return indexSkippedRows;
+    }
+
     private static OptionalInt getFixedWidthRowSize(List<Type> columnTypes)
     {
         int totalFixedWidth = 0;
@@ -619,6 +691,7 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
         currentStripeSystemMemoryContext.close();
         currentStripeSystemMemoryContext = systemMemoryUsage.newAggregatedMemoryContext();
         rowGroups = ImmutableList.<RowGroup>of().iterator();
+        currentStripeMatchingPositions = null;
 
         if (currentStripe >= 0) {
             if (stripeStatisticsValidation.isPresent()) {
@@ -641,7 +714,20 @@ abstract class AbstractOrcRecordReader<T extends AbstractColumnReader>
         StripeInformation stripeInformation = stripes.get(currentStripe);
         validateWriteStripe(stripeInformation.getNumberOfRows());
 
+        PeekingIterator<Integer> matchingRows = stripeMatchingRows.remove(stripeInformation);
+        if (matchingRows != null) {
+            currentStripeMatchingPositions = toPositions(matchingRows);
+            LocalMemoryContext matchingPositionsMemoryContext = currentStripeSystemMemoryContext.newLocalMemoryContext(AbstractOrcRecordReader.class.getSimpleName());
+            matchingPositionsMemoryContext.setBytes(sizeOf(currentStripeMatchingPositions));
+        }
+
         Stripe stripe = stripeReader.readStripe(stripeInformation, currentStripeSystemMemoryContext);
+
+        // start fetching the next stripe while this one is decoded
+        if (orcDataSource instanceof PrefetchingOrcDataSource && currentStripe + 1 < stripes.size()) {
+            ((PrefetchingOrcDataSource) orcDataSource).prefetchStripe(stripes.get(currentStripe + 1), stripeReader::getStreamRanges);
+        }
+
         if (stripe != null) {
             // Give readers access to dictionary streams
             InputStreamSources dictionaryStreamSources = stripe.getDictionaryStreamSources();
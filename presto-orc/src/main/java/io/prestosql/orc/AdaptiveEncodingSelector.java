@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.airlift.units.DataSize;
+import io.prestosql.orc.metadata.CompressionKind;
+import io.prestosql.orc.metadata.OrcColumnId;
+import io.prestosql.orc.metadata.statistics.StringStatisticsBuilder;
+import io.prestosql.orc.stream.StreamDataOutput;
+import io.prestosql.orc.writer.ColumnWriter;
+import io.prestosql.orc.writer.SliceDictionaryColumnWriter;
+import io.prestosql.orc.writer.SliceDirectColumnWriter;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Chooses between dictionary and direct encoding for the string columns of one table.
+ * <p>
+ * The first rows a writer sees for a column are encoded with both encodings and the file compression,
+ * and the encoding with the lower cost is used. The cost of an encoding is its compressed size in bytes
+ * plus {@code cpuCostWeight} bytes for every millisecond spent encoding the sample. The choice is
+ * remembered, so later writers of the same table skip the trial. The dictionary size limits of
+ * {@link DictionaryCompressionOptimizer} still apply to columns that keep dictionary encoding.
+ */
+public class AdaptiveEncodingSelector
+{
+    public enum Encoding
+    {
+        DICTIONARY, DIRECT
+    }
+
+    private final double cpuCostWeight;
+    private final int sampleRowCount;
+    private final ConcurrentMap<String, Encoding> decisions = new ConcurrentHashMap<>();
+
+    public AdaptiveEncodingSelector(double cpuCostWeight, int sampleRowCount)
+    {
+        checkArgument(cpuCostWeight >= 0, "cpuCostWeight is negative");
+        checkArgument(sampleRowCount > 0, "sampleRowCount must be greater than zero");
+        this.cpuCostWeight = cpuCostWeight;
+        this.sampleRowCount = sampleRowCount;
+    }
+
+    public int getSampleRowCount()
+    {
+        return sampleRowCount;
+    }
+
+    public Optional<Encoding> getDecision(String columnName)
+    {
+        return Optional.ofNullable(decisions.get(columnName));
+    }
+
+    public Encoding selectEncoding(
+            String columnName,
+            OrcColumnId columnId,
+            Type type,
+            List<Block> sample,
+            CompressionKind compression,
+            int bufferSize,
+            DataSize stringStatisticsLimit,
+            OrcWriterStats stats)
+    {
+        requireNonNull(sample, "sample is null");
+        checkArgument(!sample.isEmpty(), "sample is empty");
+
+        int stringStatisticsLimitInBytes = toIntExact(stringStatisticsLimit.toBytes());
+        TrialResult dictionary = trialEncode(new SliceDictionaryColumnWriter(columnId, type, compression, bufferSize, stringStatisticsLimit), sample);
+        TrialResult direct = trialEncode(new SliceDirectColumnWriter(columnId, type, compression, bufferSize, () -> new StringStatisticsBuilder(stringStatisticsLimitInBytes)), sample);
+
+        Encoding encoding = getCost(direct) < getCost(dictionary) ? Encoding.DIRECT : Encoding.DICTIONARY;
+        decisions.put(columnName, encoding);
+        stats.recordEncodingTrial(
+                encoding,
+                dictionary.getEncodeNanos() + direct.getEncodeNanos(),
+                encoding == Encoding.DIRECT ? dictionary.getBytes() - direct.getBytes() : 0);
+        return encoding;
+    }
+
+    private double getCost(TrialResult result)
+    {
+        return result.getBytes() + cpuCostWeight * result.getEncodeNanos() / 1_000_000.0;
+    }
+
+    private static TrialResult trialEncode(ColumnWriter writer, List<Block> sample)
+    {
+        long start = System.nanoTime();
+        writer.beginRowGroup();
+        for (Block block : sample) {
+            writer.writeBlock(block);
+        }
+        writer.finishRowGroup();
+        writer.close();
+        long bytes = writer.getDataStreams().stream()
+                .mapToLong(StreamDataOutput::size)
+                .sum();
+        return new TrialResult(bytes, System.nanoTime() - start);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("cpuCostWeight", cpuCostWeight)
+                .add("sampleRowCount", sampleRowCount)
+                .add("decisions", decisions)
+                .toString();
+    }
+
+    private static class TrialResult
+    {
+        private final long bytes;
+        private final long encodeNanos;
+
+        public TrialResult(long bytes, long encodeNanos)
+        {
+            this.bytes = bytes;
+            this.encodeNanos = encodeNanos;
+        }
+
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        public long getEncodeNanos()
+        {
+            return encodeNanos;
+        }
+    }
+}
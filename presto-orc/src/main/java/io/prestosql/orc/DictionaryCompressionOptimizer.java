@@ -41,6 +41,7 @@ public class DictionaryCompressionOptimizer
 
     private final Set<DictionaryColumnManager> allWriters;
     private final Set<DictionaryColumnManager> directConversionCandidates = new HashSet<>();
+    private final Set<DictionaryColumnManager> pinnedDirectColumns = new HashSet<>();
 
     private final int stripeMinBytes;
     private final int stripeMaxBytes;
@@ -100,6 +101,22 @@ public class DictionaryCompressionOptimizer
         directConversionCandidates.addAll(allWriters);
         dictionaryMemoryBytes = 0;
         allWriters.forEach(DictionaryColumnManager::reset);
+        pinnedDirectColumns.forEach(column -> tryConvertToDirect(column, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Converts the column to direct encoding now and after every stripe reset, for the rest of the file.
+     */
+    public void pinDirectEncoding(DictionaryColumn dictionaryColumn)
+    {
+        DictionaryColumnManager column = allWriters.stream()
+                .filter(writer -> writer.getDictionaryColumn() == dictionaryColumn)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown dictionary column"));
+        pinnedDirectColumns.add(column);
+        if (!column.isDirectEncoded()) {
+            tryConvertToDirect(column, Integer.MAX_VALUE);
+        }
     }
 
     public void finalOptimize(int bufferedBytes)
@@ -352,6 +369,11 @@ public class DictionaryCompressionOptimizer
             this.dictionaryColumn = dictionaryColumn;
         }
 
+        DictionaryColumn getDictionaryColumn()
+        {
+            return dictionaryColumn;
+        }
+
         OptionalInt tryConvertToDirect(int maxDirectBytes)
         {
             OptionalInt directBytes = dictionaryColumn.tryConvertToDirect(maxDirectBytes);
@@ -16,7 +16,6 @@ package io.prestosql.orc;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.collect.PeekingIterator;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
@@ -41,14 +40,12 @@ import org.joda.time.DateTimeZone;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 import static io.prestosql.orc.reader.ColumnReaders.createColumnReader;
 import static io.prestosql.spi.HetuConstant.DATASOURCE_FILE_MODIFICATION;
@@ -59,7 +56,6 @@ import static io.prestosql.spi.HetuConstant.DATASOURCE_STRIPE_LENGTH;
 import static io.prestosql.spi.HetuConstant.DATASOURCE_STRIPE_NUMBER;
 import static io.prestosql.spi.HetuConstant.DATASOURCE_STRIPE_OFFSET;
 import static io.prestosql.spi.HetuConstant.DATASOURCE_TOTAL_PAGES;
-import static java.lang.Math.toIntExact;
 
 public class OrcRecordReader
         extends AbstractOrcRecordReader<ColumnReader>
@@ -203,55 +199,8 @@ public class OrcRecordReader
 
     private Block filterRows(Block block)
     {
-        // currentPosition to currentBatchSize
-        StripeInformation stripe = stripes.get(currentStripe);
-
-        if (matchingRowsInBatchArray == null && stripeMatchingRows.containsKey(
-                stripe) && block.getPositionCount() != 0) {
-            long currentPositionInStripe = currentPosition - currentStripePosition;
-
-            PeekingIterator<Integer> matchingRows = stripeMatchingRows.get(stripe);
-            List<Integer> matchingRowsInBlock = new ArrayList<>();
-
-            while (matchingRows.hasNext()) {
-                Integer row = matchingRows.peek();
-                if (row < currentPositionInStripe) {
-                    // this can happen if a row group containing matching rows was filtered out
-                    // for example, if matchingRows is for column1 but query is for column1 and column2.
-                    // since row groups have minmax values, a row group could have been filtered out because of
-                    // column2 predicate. this means that the current matchingRow could be 10 (within the first
-                    // row group), but the first row group might've been filtered out due to column2 predicate,
-                    // so currentPositionInStripe is already in second row group
-                    //
-                    // stripe 1
-                    //    -> row group 1 (rows 1 to 10000) [filtered out due to column2 predicate]
-                    //       1
-                    //       2
-                    //       ...
-                    //       10     <- matchingRows cursor is here, but this row group has been filtered out
-                    //       ...
-                    //       10000
-                    //    -> row group 2 (rows 10001 to 20000)
-                    //       10001
-                    //       10002   <- currentPositionInStripe is here
-                    //       ...
-                    //       20000
-                    matchingRows.next();
-                }
-                else if (row < currentPositionInStripe + currentBatchSize) {
-                    // matchingRows cursor is within current batch
-                    matchingRowsInBlock.add(toIntExact(Long.valueOf(row) - currentPositionInStripe));
-                    matchingRows.next();
-                }
-                else {
-                    // matchingRows cursor is ahead of current batch, next batch will use it
-                    break;
-                }
-            }
-
-            matchingRowsInBatchArray = new int[matchingRowsInBlock.size()];
-            IntStream.range(0, matchingRowsInBlock.size()).forEach(
-                    i -> matchingRowsInBatchArray[i] = matchingRowsInBlock.get(i));
+        if (matchingRowsInBatchArray == null && block.getPositionCount() != 0) {
+            matchingRowsInBatchArray = getIndexMatchingPositions(currentBatchSize);
         }
 
         if (matchingRowsInBatchArray != null) {
@@ -18,6 +18,8 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.UnsignedBytes;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.AdaptiveEncodingSelector.Encoding;
 import io.prestosql.orc.OrcWriteValidation.OrcWriteValidationBuilder;
 import io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode;
 import io.prestosql.orc.OrcWriterStats.FlushReason;
@@ -40,6 +42,7 @@ import io.prestosql.orc.stream.StreamDataOutput;
 import io.prestosql.orc.writer.ColumnWriter;
 import io.prestosql.orc.writer.SliceDictionaryColumnWriter;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
 import org.openjdk.jol.info.ClassLayout;
 
@@ -109,6 +112,9 @@ public final class OrcWriter
 
     private final List<ColumnWriter> columnWriters;
     private final DictionaryCompressionOptimizer dictionaryCompressionOptimizer;
+    private final Optional<AdaptiveEncodingSelector> adaptiveEncodingSelector;
+    private final DataSize stringStatisticsLimit;
+    private final Map<Integer, EncodingTrial> pendingEncodingTrials = new HashMap<>();
     private int stripeRowCount;
     private int rowGroupRowCount;
     private int bufferedBytes;
@@ -168,6 +174,9 @@ public final class OrcWriter
         checkArgument(rootType.getFieldCount() == types.size());
         ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
         ImmutableSet.Builder<SliceDictionaryColumnWriter> sliceColumnWriters = ImmutableSet.builder();
+        ImmutableList.Builder<SliceDictionaryColumnWriter> directEncodedColumnWriters = ImmutableList.builder();
+        this.adaptiveEncodingSelector = requireNonNull(options.getAdaptiveEncodingSelector(), "adaptiveEncodingSelector is null");
+        this.stringStatisticsLimit = options.getMaxStringStatisticsLimit();
         for (int fieldId = 0; fieldId < types.size(); fieldId++) {
             OrcColumnId fieldColumnIndex = rootType.getFieldTypeIndex(fieldId);
             Type fieldType = types.get(fieldId);
@@ -175,7 +184,21 @@ public final class OrcWriter
             columnWriters.add(columnWriter);
 
             if (columnWriter instanceof SliceDictionaryColumnWriter) {
-                sliceColumnWriters.add((SliceDictionaryColumnWriter) columnWriter);
+                SliceDictionaryColumnWriter sliceColumnWriter = (SliceDictionaryColumnWriter) columnWriter;
+                sliceColumnWriters.add(sliceColumnWriter);
+                if (adaptiveEncodingSelector.isPresent()) {
+                    String columnName = columnNames.get(fieldId);
+                    Optional<Encoding> encoding = adaptiveEncodingSelector.get().getDecision(columnName);
+                    if (encoding.isPresent()) {
+                        stats.recordEncodingDecisionReused();
+                        if (encoding.get() == Encoding.DIRECT) {
+                            directEncodedColumnWriters.add(sliceColumnWriter);
+                        }
+                    }
+                    else {
+                        pendingEncodingTrials.put(fieldId, new EncodingTrial(columnName, fieldColumnIndex, fieldType, sliceColumnWriter));
+                    }
+                }
             }
             else {
                 for (ColumnWriter nestedColumnWriter : columnWriter.getNestedColumnWriters()) {
@@ -192,6 +215,7 @@ public final class OrcWriter
                 stripeMaxBytes,
                 stripeMaxRowCount,
                 toIntExact(requireNonNull(options.getDictionaryMaxMemory(), "dictionaryMaxMemory is null").toBytes()));
+        directEncodedColumnWriters.build().forEach(dictionaryCompressionOptimizer::pinDirectEncoding);
 
         for (Entry<String, String> entry : this.userMetadata.entrySet()) {
             recordValidation(validation -> validation.addMetadataProperty(entry.getKey(), utf8Slice(entry.getValue())));
@@ -291,6 +315,10 @@ public final class OrcWriter
             bufferedBytes += writer.getBufferedBytes();
         }
 
+        if (!pendingEncodingTrials.isEmpty()) {
+            sampleEncodingTrials(chunk);
+        }
+
         // update stats
         rowGroupRowCount += chunk.getPositionCount();
         checkState(rowGroupRowCount <= rowGroupMaxRowCount);
@@ -319,6 +347,48 @@ public final class OrcWriter
         columnWritersRetainedBytes = columnWriters.stream().mapToLong(ColumnWriter::getRetainedBytes).sum();
     }
 
+    private void sampleEncodingTrials(Page chunk)
+    {
+        int sampleRowCount = adaptiveEncodingSelector.get().getSampleRowCount();
+        for (Entry<Integer, EncodingTrial> entry : ImmutableList.copyOf(pendingEncodingTrials.entrySet())) {
+            EncodingTrial trial = entry.getValue();
+            Block block = chunk.getBlock(entry.getKey());
+            int positionCount = min(block.getPositionCount(), sampleRowCount - trial.getSampledRowCount());
+            // copy the sample so it does not retain the whole page
+            trial.addSample(block.copyRegion(0, positionCount));
+            if (trial.getSampledRowCount() >= sampleRowCount) {
+                runEncodingTrial(trial);
+                pendingEncodingTrials.remove(entry.getKey());
+            }
+        }
+    }
+
+    private void finishEncodingTrials()
+    {
+        for (EncodingTrial trial : pendingEncodingTrials.values()) {
+            if (trial.getSampledRowCount() > 0) {
+                runEncodingTrial(trial);
+            }
+        }
+        pendingEncodingTrials.clear();
+    }
+
+    private void runEncodingTrial(EncodingTrial trial)
+    {
+        Encoding encoding = adaptiveEncodingSelector.get().selectEncoding(
+                trial.getColumnName(),
+                trial.getColumnId(),
+                trial.getType(),
+                trial.getSample(),
+                compression,
+                maxCompressionBufferSize,
+                stringStatisticsLimit,
+                stats);
+        if (encoding == Encoding.DIRECT) {
+            dictionaryCompressionOptimizer.pinDirectEncoding(trial.getColumnWriter());
+        }
+    }
+
     private void finishRowGroup()
     {
         Map<OrcColumnId, ColumnStatistics> columnStatistics = new HashMap<>();
@@ -338,6 +408,9 @@ public final class OrcWriter
                 //ignored;
             }
         }
+        // files smaller than the sample size decide with the rows seen so far
+        finishEncodingTrials();
+
         List<OrcDataOutput> outputData = new ArrayList<>();
         long stripeStartOffset = orcDataSink.size();
         // add header to first stripe (this is not required but nice to have)
@@ -570,6 +643,60 @@ public final class OrcWriter
         this.userMetadata.put(key, value);
     }
 
+    private static class EncodingTrial
+    {
+        private final String columnName;
+        private final OrcColumnId columnId;
+        private final Type type;
+        private final SliceDictionaryColumnWriter columnWriter;
+        private final List<Block> sample = new ArrayList<>();
+        private int sampledRowCount;
+
+        public EncodingTrial(String columnName, OrcColumnId columnId, Type type, SliceDictionaryColumnWriter columnWriter)
+        {
+            this.columnName = requireNonNull(columnName, "columnName is null");
+            this.columnId = requireNonNull(columnId, "columnId is null");
+            this.type = requireNonNull(type, "type is null");
+            this.columnWriter = requireNonNull(columnWriter, "columnWriter is null");
+        }
+
+        public String getColumnName()
+        {
+            return columnName;
+        }
+
+        public OrcColumnId getColumnId()
+        {
+            return columnId;
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+
+        public SliceDictionaryColumnWriter getColumnWriter()
+        {
+            return columnWriter;
+        }
+
+        public List<Block> getSample()
+        {
+            return sample;
+        }
+
+        public int getSampledRowCount()
+        {
+            return sampledRowCount;
+        }
+
+        public void addSample(Block block)
+        {
+            sample.add(block);
+            sampledRowCount += block.getPositionCount();
+        }
+    }
+
     private static class ClosedStripe
     {
         private static final int INSTANCE_SIZE = ClassLayout.parseClass(ClosedStripe.class).instanceSize() + ClassLayout.parseClass(StripeInformation.class).instanceSize();
@@ -13,6 +13,7 @@
  */
 package io.prestosql.orc;
 
+import io.prestosql.orc.AdaptiveEncodingSelector.Encoding;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -37,6 +38,11 @@ public class OrcWriterStats
     private final OrcWriterFlushStats dictionaryFullFlush = new OrcWriterFlushStats(DICTIONARY_FULL.name());
     private final OrcWriterFlushStats closedFlush = new OrcWriterFlushStats(CLOSED.name());
     private final AtomicLong writerSizeInBytes = new AtomicLong();
+    private final AtomicLong dictionaryEncodingSelected = new AtomicLong();
+    private final AtomicLong directEncodingSelected = new AtomicLong();
+    private final AtomicLong encodingDecisionsReused = new AtomicLong();
+    private final AtomicLong encodingTrialTimeNanos = new AtomicLong();
+    private final AtomicLong encodingTrialBytesSaved = new AtomicLong();
 
     public void recordStripeWritten(FlushReason flushReason, long stripeBytes, int stripeRows, int dictionaryBytes)
     {
@@ -49,6 +55,23 @@ public class OrcWriterStats
         writerSizeInBytes.addAndGet(deltaInBytes);
     }
 
+    public void recordEncodingTrial(Encoding encoding, long trialTimeNanos, long bytesSaved)
+    {
+        if (encoding == Encoding.DIRECT) {
+            directEncodingSelected.incrementAndGet();
+        }
+        else {
+            dictionaryEncodingSelected.incrementAndGet();
+        }
+        encodingTrialTimeNanos.addAndGet(trialTimeNanos);
+        encodingTrialBytesSaved.addAndGet(bytesSaved);
+    }
+
+    public void recordEncodingDecisionReused()
+    {
+        encodingDecisionsReused.incrementAndGet();
+    }
+
     @Managed
     @Nested
     public OrcWriterFlushStats getAllFlush()
@@ -90,6 +113,36 @@ public class OrcWriterStats
         return writerSizeInBytes.get();
     }
 
+    @Managed
+    public long getDictionaryEncodingSelected()
+    {
+        return dictionaryEncodingSelected.get();
+    }
+
+    @Managed
+    public long getDirectEncodingSelected()
+    {
+        return directEncodingSelected.get();
+    }
+
+    @Managed
+    public long getEncodingDecisionsReused()
+    {
+        return encodingDecisionsReused.get();
+    }
+
+    @Managed
+    public long getEncodingTrialTimeNanos()
+    {
+        return encodingTrialTimeNanos.get();
+    }
+
+    @Managed
+    public long getEncodingTrialBytesSaved()
+    {
+        return encodingTrialBytesSaved.get();
+    }
+
     private OrcWriterFlushStats getFlushStats(FlushReason flushReason)
     {
         switch (flushReason) {
@@ -116,6 +169,9 @@ public class OrcWriterStats
                 .add("dictionaryFullFlush", dictionaryFullFlush)
                 .add("closedFlush", closedFlush)
                 .add("writerSizeInBytes", writerSizeInBytes.get())
+                .add("dictionaryEncodingSelected", dictionaryEncodingSelected.get())
+                .add("directEncodingSelected", directEncodingSelected.get())
+                .add("encodingDecisionsReused", encodingDecisionsReused.get())
                 .toString();
     }
 }
@@ -0,0 +1,336 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.orc.metadata.StripeInformation;
+import io.prestosql.orc.stream.MemoryOrcDataReader;
+import io.prestosql.orc.stream.OrcDataReader;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.prestosql.orc.OrcDataSourceUtils.getDiskRangeSlice;
+import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the streams of the next stripe in the background while the current stripe is decoded.
+ * <p>
+ * Only one stripe is prefetched at a time. The prefetch task reads the stripe footer, asks the
+ * {@link StreamRangesProvider} for the stream ranges the reader needs, coalesces nearby ranges and
+ * reads them from the delegate. Reads that fall inside the prefetched stripe wait for the task and
+ * are served from its buffers; everything else is read synchronously from the delegate.
+ * <p>
+ * {@link #getReadTimeNanos()} only includes the time the reading thread was blocked, so the page
+ * source reports blocked time separately from decode time. The time spent reading in the background
+ * is available from {@link #getPrefetchReadTimeNanos()}.
+ */
+public class PrefetchingOrcDataSource
+        implements OrcDataSource
+{
+    private static final Logger log = Logger.get(PrefetchingOrcDataSource.class);
+
+    private final OrcDataSource delegate;
+    private final Executor executor;
+    private final DataSize maxMergeDistance;
+    private final DataSize maxBufferSize;
+    private final LocalMemoryContext memoryContext;
+
+    private final AtomicLong prefetchReadTimeNanos = new AtomicLong();
+    private final AtomicLong prefetchedBytes = new AtomicLong();
+
+    private long blockedTimeNanos;
+    private long syncReadTimeNanos;
+
+    private DiskRange prefetchRegion;
+    private ListenableFutureTask<Map<DiskRange, Slice>> prefetchTask;
+    // set by the task when it starts, or by the reader when the task is abandoned before it started
+    private AtomicBoolean prefetchStarted;
+    // checked by the task between reads, so that an abandoned prefetch stops early
+    private AtomicBoolean prefetchAbandoned;
+    private Map<DiskRange, Slice> prefetchedBuffers;
+
+    public PrefetchingOrcDataSource(OrcDataSource delegate, Executor executor, DataSize maxMergeDistance, DataSize maxBufferSize, LocalMemoryContext memoryContext)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
+        this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+    }
+
+    /**
+     * Starts reading the needed streams of {@code stripe} in the background. Buffers of a previously
+     * prefetched stripe are released, because the reader has already handed them to the stream readers.
+     */
+    public void prefetchStripe(StripeInformation stripe, StreamRangesProvider streamRangesProvider)
+    {
+        requireNonNull(stripe, "stripe is null");
+        requireNonNull(streamRangesProvider, "streamRangesProvider is null");
+
+        releasePrefetchedStripe();
+
+        DiskRange region = new DiskRange(stripe.getOffset(), toIntExact(stripe.getTotalLength()));
+        DiskRange footerRange = new DiskRange(stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength(), toIntExact(stripe.getFooterLength()));
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        ListenableFutureTask<Map<DiskRange, Slice>> task = ListenableFutureTask.create(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // abandoned before it started
+                return ImmutableMap.of();
+            }
+            long start = System.nanoTime();
+            try {
+                Map<DiskRange, Slice> buffers = new LinkedHashMap<>();
+                Slice footer = delegate.readFully(footerRange.getOffset(), footerRange.getLength());
+                buffers.put(footerRange, footer);
+
+                List<DiskRange> streamRanges = streamRangesProvider.getStreamRanges(stripe, footer);
+                for (DiskRange mergedRange : mergeAdjacentDiskRanges(streamRanges, maxMergeDistance, maxBufferSize)) {
+                    if (abandoned.get()) {
+                        return ImmutableMap.of();
+                    }
+                    buffers.put(mergedRange, delegate.readFully(mergedRange.getOffset(), mergedRange.getLength()));
+                    prefetchedBytes.addAndGet(mergedRange.getLength());
+                }
+                return buffers;
+            }
+            finally {
+                prefetchReadTimeNanos.addAndGet(System.nanoTime() - start);
+            }
+        });
+
+        // reserve the whole stripe up front, the exact size is known once the prefetch completes
+        memoryContext.setBytes(stripe.getTotalLength());
+        prefetchRegion = region;
+        prefetchTask = task;
+        prefetchStarted = started;
+        prefetchAbandoned = abandoned;
+        executor.execute(task);
+    }
+
+    /**
+     * Abandons the prefetch of the current stripe. A prefetch which already started reading is not interrupted,
+     * since interrupting a read may break the underlying stream, instead it stops after its current read and this
+     * method waits for it. The delegate is therefore never read by the prefetch task once this method returns.
+     */
+    private void releasePrefetchedStripe()
+    {
+        if (prefetchTask != null) {
+            prefetchAbandoned.set(true);
+            if (!prefetchStarted.compareAndSet(false, true)) {
+                waitForPrefetch(prefetchTask);
+            }
+        }
+        prefetchRegion = null;
+        prefetchTask = null;
+        prefetchStarted = null;
+        prefetchAbandoned = null;
+        prefetchedBuffers = null;
+        memoryContext.setBytes(0);
+    }
+
+    private static void waitForPrefetch(ListenableFutureTask<Map<DiskRange, Slice>> task)
+    {
+        try {
+            task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            // the stripe is not used anymore
+        }
+    }
+
+    /**
+     * Returns the prefetched buffers if the range is part of the prefetched stripe, waiting for the
+     * prefetch to finish if necessary. Returns null if the range has to be read from the delegate.
+     */
+    private Map<DiskRange, Slice> getPrefetchedBuffers(DiskRange diskRange)
+    {
+        if (prefetchRegion == null || !prefetchRegion.contains(diskRange)) {
+            return null;
+        }
+        if (prefetchedBuffers == null) {
+            long start = System.nanoTime();
+            try {
+                prefetchedBuffers = prefetchTask.get();
+                memoryContext.setBytes(prefetchedBuffers.values().stream()
+                        .mapToLong(Slice::length)
+                        .sum());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            catch (ExecutionException e) {
+                // fall back to synchronous reads for this stripe
+                log.debug(e.getCause(), "Error while prefetching ORC stripe of %s. Falling back to default flow", delegate.getId());
+                prefetchedBuffers = ImmutableMap.of();
+                memoryContext.setBytes(0);
+            }
+            finally {
+                blockedTimeNanos += System.nanoTime() - start;
+            }
+        }
+        for (DiskRange bufferRange : prefetchedBuffers.keySet()) {
+            if (bufferRange.contains(diskRange)) {
+                return prefetchedBuffers;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public OrcDataSourceId getId()
+    {
+        return delegate.getId();
+    }
+
+    @Override
+    public long getLastModifiedTime()
+    {
+        return delegate.getLastModifiedTime();
+    }
+
+    @Override
+    public long getReadBytes()
+    {
+        return delegate.getReadBytes();
+    }
+
+    /**
+     * Returns the time the reading thread spent blocked on I/O, either waiting for a prefetch or reading synchronously.
+     */
+    @Override
+    public long getReadTimeNanos()
+    {
+        return blockedTimeNanos + syncReadTimeNanos;
+    }
+
+    public long getBlockedTimeNanos()
+    {
+        return blockedTimeNanos;
+    }
+
+    public long getPrefetchReadTimeNanos()
+    {
+        return prefetchReadTimeNanos.get();
+    }
+
+    public long getPrefetchedBytes()
+    {
+        return prefetchedBytes.get();
+    }
+
+    @Override
+    public long getSize()
+    {
+        return delegate.getSize();
+    }
+
+    @Override
+    public Slice readFully(long position, int length)
+            throws IOException
+    {
+        DiskRange diskRange = new DiskRange(position, length);
+        Map<DiskRange, Slice> buffers = getPrefetchedBuffers(diskRange);
+        if (buffers != null) {
+            return getDiskRangeSlice(diskRange, buffers);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return delegate.readFully(position, length);
+        }
+        finally {
+            syncReadTimeNanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public <K> Map<K, OrcDataReader> readFully(Map<K, DiskRange> diskRanges)
+            throws IOException
+    {
+        requireNonNull(diskRanges, "diskRanges is null");
+
+        ImmutableMap.Builder<K, OrcDataReader> readers = ImmutableMap.builder();
+        Map<K, DiskRange> remainingRanges = new HashMap<>();
+        for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
+            DiskRange diskRange = entry.getValue();
+            Map<DiskRange, Slice> buffers = getPrefetchedBuffers(diskRange);
+            if (buffers != null) {
+                readers.put(entry.getKey(), new MemoryOrcDataReader(delegate.getId(), getDiskRangeSlice(diskRange, buffers), diskRange.getLength()));
+            }
+            else {
+                remainingRanges.put(entry.getKey(), diskRange);
+            }
+        }
+
+        if (!remainingRanges.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                readers.putAll(delegate.readFully(remainingRanges));
+            }
+            finally {
+                syncReadTimeNanos += System.nanoTime() - start;
+            }
+        }
+        return readers.build();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        releasePrefetchedStripe();
+        delegate.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("delegate", delegate)
+                .add("prefetchRegion", prefetchRegion)
+                .toString();
+    }
+
+    public interface StreamRangesProvider
+    {
+        /**
+         * Returns the absolute file ranges of the streams needed from the stripe with the given raw footer.
+         * Called from the prefetch thread.
+         */
+        List<DiskRange> getStreamRanges(StripeInformation stripe, Slice footer)
+                throws IOException;
+    }
+}
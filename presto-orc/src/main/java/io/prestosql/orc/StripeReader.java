@@ -64,6 +64,7 @@ import java.util.concurrent.ExecutionException;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.handleCacheLoadException;
 import static io.prestosql.orc.checkpoint.Checkpoints.getDictionaryStreamCheckpoint;
 import static io.prestosql.orc.checkpoint.Checkpoints.getStreamCheckpoints;
@@ -429,6 +430,33 @@ public class StripeReader
         }
     }
 
+    /**
+     * Returns the absolute file ranges of the streams this reader needs from the stripe, decoded from the raw
+     * stripe footer. Row groups can only be pruned after the row indexes are read, and the streams of a column
+     * are contiguous, so the ranges cover the selected columns of the whole stripe. This method does not touch
+     * the data source, so it can be called from a prefetch thread.
+     */
+    public List<DiskRange> getStreamRanges(StripeInformation stripe, Slice footerBuffer)
+            throws IOException
+    {
+        StripeFooter stripeFooter;
+        try (InputStream inputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), footerBuffer, decompressor, newSimpleAggregatedMemoryContext()))) {
+            stripeFooter = metadataReader.readStripeFooter(types, inputStream, legacyFileTimeZone);
+        }
+
+        Map<StreamId, DiskRange> streamDiskRanges = getDiskRanges(stripeFooter.getStreams());
+        ImmutableList.Builder<DiskRange> diskRanges = ImmutableList.builder();
+        for (Stream stream : stripeFooter.getStreams()) {
+            if (includedOrcColumnIds.contains(stream.getColumnId()) && isSupportedStreamType(stream, types.get(stream.getColumnId()).getOrcTypeKind())) {
+                DiskRange diskRange = streamDiskRanges.get(new StreamId(stream));
+                if (diskRange != null) {
+                    diskRanges.add(new DiskRange(stripe.getOffset() + diskRange.getOffset(), diskRange.getLength()));
+                }
+            }
+        }
+        return diskRanges.build();
+    }
+
     static boolean isIndexStream(Stream stream)
     {
         return stream.getStreamKind() == ROW_INDEX || stream.getStreamKind() == DICTIONARY_COUNT || stream.getStreamKind() == BLOOM_FILTER || stream.getStreamKind() == BLOOM_FILTER_UTF8;
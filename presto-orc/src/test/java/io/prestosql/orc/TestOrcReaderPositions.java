@@ -13,16 +13,24 @@
  */
 package io.prestosql.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import io.airlift.slice.Slice;
 import io.airlift.units.DataSize;
 import io.prestosql.orc.metadata.CompressionKind;
 import io.prestosql.orc.metadata.Footer;
 import io.prestosql.orc.metadata.OrcColumnId;
+import io.prestosql.orc.metadata.StripeInformation;
 import io.prestosql.orc.metadata.statistics.IntegerStatistics;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.CreateIndexMetadata;
+import io.prestosql.spi.heuristicindex.Index;
+import io.prestosql.spi.heuristicindex.IndexMetadata;
+import io.prestosql.spi.heuristicindex.Pair;
+import io.prestosql.spi.predicate.Domain;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
@@ -40,15 +48,24 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
 import static io.prestosql.orc.OrcTester.Format.ORC_12;
+import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static io.prestosql.orc.OrcTester.MAX_BLOCK_SIZE;
 import static io.prestosql.orc.OrcTester.createCustomOrcRecordReader;
 import static io.prestosql.orc.OrcTester.createOrcRecordWriter;
@@ -138,6 +155,62 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testIndexRowFiltering()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), true, tempFile.getFile().lastModified());
+            OrcReader orcReader = new OrcReader(orcDataSource, new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), MAX_BLOCK_SIZE);
+            List<StripeInformation> stripes = orcReader.getFooter().getStripes();
+            assertEquals(stripes.size(), 5);
+
+            // matching rows of each stripe, null if the index can not look up rows
+            List<List<Integer>> stripeMatchingRows = Arrays.asList(
+                    ImmutableList.of(1, 5, 19),
+                    null,
+                    ImmutableList.of(),
+                    ImmutableList.of(0),
+                    null);
+            ImmutableList.Builder<IndexMetadata> indexes = ImmutableList.builder();
+            for (int i = 0; i < stripes.size(); i++) {
+                // the last stripe does not match the predicate at all
+                Index index = new TestingRowIndex(stripeMatchingRows.get(i), i != 4);
+                indexes.add(new IndexMetadata(index, "test_table", new String[] {"test"}, null, null, stripes.get(i).getOffset(), 0));
+            }
+
+            try (OrcRecordReader reader = orcReader.createRecordReader(
+                    orcReader.getRootColumn().getNestedColumns(),
+                    ImmutableList.of(BIGINT),
+                    OrcPredicate.TRUE,
+                    0,
+                    orcDataSource.getSize(),
+                    HIVE_STORAGE_TIME_ZONE,
+                    newSimpleAggregatedMemoryContext(),
+                    MAX_BATCH_SIZE,
+                    RuntimeException::new,
+                    Optional.of(indexes.build()),
+                    null,
+                    ImmutableMap.of("test", Domain.singleValue(BIGINT, 0L)),
+                    OrcCacheStore.CACHE_NOTHING,
+                    new OrcCacheProperties(),
+                    false)) {
+                // the stripes without matching rows are skipped
+                assertEquals(reader.getReaderRowCount(), 60);
+                assertEquals(reader.getIndexSkippedRows(), 40);
+
+                assertEquals(readValues(reader.nextPage()), ImmutableList.of(3L, 15L, 57L));
+                assertEquals(readValues(reader.nextPage()).size(), 20);
+                assertEquals(readValues(reader.nextPage()), ImmutableList.of(180L));
+                assertNull(reader.nextPage());
+
+                assertEquals(reader.getIndexSkippedRows(), 40 + 17 + 19);
+            }
+        }
+    }
+
     @Test
     public void testRowGroupSkipping()
             throws Exception
@@ -402,6 +475,16 @@ public class TestOrcReaderPositions
         }
     }
 
+    private static List<Long> readValues(Page page)
+    {
+        Block block = page.getBlock(0).getLoadedBlock();
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (int i = 0; i < block.getPositionCount(); i++) {
+            values.add(BIGINT.getLong(block, i));
+        }
+        return values.build();
+    }
+
     private static void assertCurrentBatch(Page page, int stripe)
     {
         Block block = page.getBlock(0);
@@ -508,4 +591,63 @@ public class TestOrcReaderPositions
 
         writer.close(false);
     }
+
+    private static class TestingRowIndex
+            implements Index
+    {
+        private final List<Integer> matchingRows;
+        private final boolean matches;
+
+        public TestingRowIndex(List<Integer> matchingRows, boolean matches)
+        {
+            this.matchingRows = matchingRows;
+            this.matches = matches;
+        }
+
+        @Override
+        public Set<CreateIndexMetadata.Level> getSupportedIndexLevels()
+        {
+            return ImmutableSet.of(CreateIndexMetadata.Level.STRIPE);
+        }
+
+        @Override
+        public String getId()
+        {
+            return "TESTING";
+        }
+
+        @Override
+        public boolean addValues(List<Pair<String, List<Object>>> values)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean matches(Object expression)
+        {
+            return matches;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Comparable<T>> Iterator<T> lookUp(Object expression)
+        {
+            if (matchingRows == null) {
+                return null;
+            }
+            return (Iterator<T>) matchingRows.iterator();
+        }
+
+        @Override
+        public void serialize(OutputStream out)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Index deserialize(InputStream in)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
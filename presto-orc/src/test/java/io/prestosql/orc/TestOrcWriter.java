@@ -18,8 +18,12 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
+import io.prestosql.orc.AdaptiveEncodingSelector.Encoding;
 import io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode;
+import io.prestosql.orc.metadata.ColumnEncoding;
+import io.prestosql.orc.metadata.ColumnMetadata;
 import io.prestosql.orc.metadata.Footer;
+import io.prestosql.orc.metadata.OrcColumnId;
 import io.prestosql.orc.metadata.OrcMetadataReader;
 import io.prestosql.orc.metadata.Stream;
 import io.prestosql.orc.metadata.StripeFooter;
@@ -36,16 +40,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.Optional;
+import java.util.UUID;
 
+import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.StripeReader.isIndexStream;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_ROW_GROUP_SIZE;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_STRIPE_SIZE;
+import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY_V2;
+import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT_V2;
 import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.orc.metadata.CompressionKind.ZLIB;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.toIntExact;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
 public class TestOrcWriter
@@ -120,4 +130,73 @@ public class TestOrcWriter
             }
         }
     }
+
+    @Test
+    public void testAdaptiveEncoding()
+            throws IOException
+    {
+        AdaptiveEncodingSelector selector = new AdaptiveEncodingSelector(0, 1000);
+        OrcWriterStats stats = new OrcWriterStats();
+
+        ColumnMetadata<ColumnEncoding> encodings = writeAdaptiveEncodingFile(selector, stats);
+        assertEquals(selector.getDecision("low_cardinality"), Optional.of(Encoding.DICTIONARY));
+        assertEquals(selector.getDecision("unique"), Optional.of(Encoding.DIRECT));
+        assertEquals(stats.getDictionaryEncodingSelected(), 1);
+        assertEquals(stats.getDirectEncodingSelected(), 1);
+        assertEquals(stats.getEncodingDecisionsReused(), 0);
+        assertGreaterThan(stats.getEncodingTrialBytesSaved(), 0L);
+        assertEquals(encodings.get(new OrcColumnId(1)).getColumnEncodingKind(), DICTIONARY_V2);
+        assertEquals(encodings.get(new OrcColumnId(2)).getColumnEncodingKind(), DIRECT_V2);
+
+        // the second file reuses the decisions without a trial
+        encodings = writeAdaptiveEncodingFile(selector, stats);
+        assertEquals(stats.getDictionaryEncodingSelected(), 1);
+        assertEquals(stats.getDirectEncodingSelected(), 1);
+        assertEquals(stats.getEncodingDecisionsReused(), 2);
+        assertEquals(encodings.get(new OrcColumnId(1)).getColumnEncodingKind(), DICTIONARY_V2);
+        assertEquals(encodings.get(new OrcColumnId(2)).getColumnEncodingKind(), DIRECT_V2);
+    }
+
+    private static ColumnMetadata<ColumnEncoding> writeAdaptiveEncodingFile(AdaptiveEncodingSelector selector, OrcWriterStats stats)
+            throws IOException
+    {
+        try (TempFile tempFile = new TempFile()) {
+            OrcWriter writer = new OrcWriter(
+                    new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                    ImmutableList.of("low_cardinality", "unique"),
+                    ImmutableList.of(VARCHAR, VARCHAR),
+                    ZLIB,
+                    new OrcWriterOptions()
+                            .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
+                            .withAdaptiveEncodingSelector(Optional.of(selector)),
+                    false,
+                    ImmutableMap.of(),
+                    true,
+                    OrcWriteValidationMode.BOTH,
+                    stats,
+                    Optional.empty(),
+                    Optional.empty());
+
+            int positionCount = 20_000;
+            BlockBuilder lowCardinality = VARCHAR.createBlockBuilder(null, positionCount);
+            BlockBuilder unique = VARCHAR.createBlockBuilder(null, positionCount);
+            for (int i = 0; i < positionCount; i++) {
+                VARCHAR.writeString(lowCardinality, "value_" + (i % 10));
+                VARCHAR.writeString(unique, UUID.randomUUID().toString());
+            }
+            writer.write(new Page(lowCardinality.build(), unique.build()));
+            writer.close();
+
+            DataSize dataSize = new DataSize(1, MEGABYTE);
+            writer.validate(new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true, tempFile.getFile().lastModified()));
+
+            OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true, tempFile.getFile().lastModified());
+            Footer footer = new OrcReader(orcDataSource, dataSize, dataSize, dataSize).getFooter();
+            StripeInformation stripe = footer.getStripes().get(0);
+            Slice tailBuffer = orcDataSource.readFully(stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength(), toIntExact(stripe.getFooterLength()));
+            try (InputStream inputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), tailBuffer, Optional.of(new OrcZlibDecompressor(orcDataSource.getId(), toIntExact(dataSize.toBytes()))), newSimpleAggregatedMemoryContext()))) {
+                return new OrcMetadataReader().readStripeFooter(footer.getTypes(), inputStream, ZoneId.of("UTC")).getColumnEncodings();
+            }
+        }
+    }
 }
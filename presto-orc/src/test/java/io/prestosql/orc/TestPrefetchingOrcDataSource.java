@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import io.airlift.units.DataSize.Unit;
+import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.orc.metadata.StripeInformation;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
+import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
+import static io.prestosql.orc.metadata.CompressionKind.ZLIB;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+
+public class TestPrefetchingOrcDataSource
+{
+    private static final int POSITION_COUNT = 50_000;
+    private static final int STRIPE_ROW_COUNT = 10_000;
+    private static final DataSize ONE_MEGABYTE = new DataSize(1, Unit.MEGABYTE);
+
+    private TempFile tempFile;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        executor = newCachedThreadPool();
+        tempFile = new TempFile();
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                ImmutableList.of("test"),
+                ImmutableList.of(BIGINT),
+                ZLIB,
+                new OrcWriterOptions().withStripeMaxRowCount(STRIPE_ROW_COUNT),
+                false,
+                ImmutableMap.of(),
+                true,
+                BOTH,
+                new OrcWriterStats(),
+                Optional.empty(),
+                Optional.empty());
+        for (int page = 0; page < POSITION_COUNT / STRIPE_ROW_COUNT; page++) {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, STRIPE_ROW_COUNT);
+            for (int i = 0; i < STRIPE_ROW_COUNT; i++) {
+                BIGINT.writeLong(blockBuilder, (long) page * STRIPE_ROW_COUNT + i);
+            }
+            writer.write(new Page(blockBuilder.build()));
+        }
+        writer.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        tempFile.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadWithPrefetch()
+            throws IOException
+    {
+        OrcDataSource delegate = createFileOrcDataSource();
+        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
+        PrefetchingOrcDataSource orcDataSource = new PrefetchingOrcDataSource(
+                delegate,
+                executor,
+                ONE_MEGABYTE,
+                ONE_MEGABYTE,
+                systemMemoryUsage.newLocalMemoryContext(PrefetchingOrcDataSource.class.getSimpleName()));
+
+        OrcReader orcReader = new OrcReader(orcDataSource, ONE_MEGABYTE, new DataSize(1, Unit.BYTE), ONE_MEGABYTE);
+        List<StripeInformation> stripes = orcReader.getFooter().getStripes();
+        assertGreaterThanOrEqual(stripes.size(), POSITION_COUNT / STRIPE_ROW_COUNT);
+
+        long sum = 0;
+        int positionCount = 0;
+        try (OrcRecordReader orcRecordReader = orcReader.createRecordReader(
+                orcReader.getRootColumn().getNestedColumns(),
+                ImmutableList.of(BIGINT),
+                OrcPredicate.TRUE,
+                HIVE_STORAGE_TIME_ZONE,
+                systemMemoryUsage,
+                INITIAL_BATCH_SIZE,
+                RuntimeException::new)) {
+            while (true) {
+                Page page = orcRecordReader.nextPage();
+                if (page == null) {
+                    break;
+                }
+                Block block = page.getLoadedPage().getBlock(0);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    sum += BIGINT.getLong(block, position);
+                }
+                positionCount += block.getPositionCount();
+            }
+        }
+
+        assertEquals(positionCount, POSITION_COUNT);
+        assertEquals(sum, (long) POSITION_COUNT * (POSITION_COUNT - 1) / 2);
+        // every stripe except the first one is prefetched
+        assertGreaterThan(orcDataSource.getPrefetchedBytes(), 0L);
+    }
+
+    @Test
+    public void testFallbackOnPrefetchFailure()
+            throws IOException
+    {
+        OrcDataSource delegate = createFileOrcDataSource();
+        AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
+        PrefetchingOrcDataSource orcDataSource = new PrefetchingOrcDataSource(
+                delegate,
+                executor,
+                ONE_MEGABYTE,
+                ONE_MEGABYTE,
+                systemMemoryUsage.newLocalMemoryContext(PrefetchingOrcDataSource.class.getSimpleName()));
+
+        StripeInformation stripe = new OrcReader(delegate, ONE_MEGABYTE, new DataSize(1, Unit.BYTE), ONE_MEGABYTE).getFooter().getStripes().get(1);
+        orcDataSource.prefetchStripe(stripe, (stripeInformation, footer) -> {
+            throw new IOException("test failure");
+        });
+        assertEquals(systemMemoryUsage.getBytes(), stripe.getTotalLength());
+
+        Slice prefetched = orcDataSource.readFully(stripe.getOffset(), 16);
+        assertEquals(prefetched, delegate.readFully(stripe.getOffset(), 16));
+        assertEquals(systemMemoryUsage.getBytes(), 0);
+        orcDataSource.close();
+    }
+
+    private FileOrcDataSource createFileOrcDataSource()
+            throws IOException
+    {
+        return new FileOrcDataSource(tempFile.getFile(), ONE_MEGABYTE, ONE_MEGABYTE, ONE_MEGABYTE, true, tempFile.getFile().lastModified());
+    }
+}
@@ -479,7 +479,7 @@ booleanValue
     ;
 
 indexType
-    : BITMAP | BLOOM | MINMAX | BTREE
+    : BITMAP | BLOOM | MINMAX | BTREE | NGRAM
     ;
 
 interval
@@ -644,7 +644,7 @@ nonReserved
     | WORK | WRITE
     | YEAR
     | ZONE
-    | INDEX
+    | INDEX | NGRAM
     ;
 
 ADD: 'ADD';
@@ -865,6 +865,7 @@ BITMAP: 'BITMAP';
 BLOOM: 'BLOOM';
 MINMAX: 'MINMAX';
 BTREE: 'BTREE';
+NGRAM: 'NGRAM';
 REFRESH: 'REFRESH';
 META: 'META';
 
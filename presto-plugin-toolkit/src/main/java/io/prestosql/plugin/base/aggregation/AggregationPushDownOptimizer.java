@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2018-2020. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.base.aggregation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.ConnectorPlanOptimizer;
+import io.prestosql.spi.SymbolAllocator;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.connector.QualifiedObjectName;
+import io.prestosql.spi.function.BuiltInFunctionHandle;
+import io.prestosql.spi.function.FunctionHandle;
+import io.prestosql.spi.function.Signature;
+import io.prestosql.spi.metadata.TableHandle;
+import io.prestosql.spi.operator.ReuseExchangeOperator;
+import io.prestosql.spi.plan.AggregationNode;
+import io.prestosql.spi.plan.AggregationNode.Aggregation;
+import io.prestosql.spi.plan.PlanNode;
+import io.prestosql.spi.plan.PlanNodeIdAllocator;
+import io.prestosql.spi.plan.PlanVisitor;
+import io.prestosql.spi.plan.ProjectNode;
+import io.prestosql.spi.plan.Symbol;
+import io.prestosql.spi.plan.TableScanNode;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.relation.CallExpression;
+import io.prestosql.spi.relation.RowExpression;
+import io.prestosql.spi.relation.VariableReferenceExpression;
+import io.prestosql.spi.type.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.function.FunctionKind.AGGREGATE;
+import static io.prestosql.spi.plan.AggregationNode.Step.SINGLE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pushes count, sum, min and max aggregations over the tables of a connector into the data source.
+ * <p>
+ * The aggregation is replaced by a scan of a table handle with the aggregation, which returns the groups
+ * of every split with their counts, sums, minimums and maximums, and by an aggregation combining the
+ * groups of the splits: the counts are summed up and the other aggregates are aggregated again.
+ * Only aggregations reading the table directly, or through a projection which only renames columns,
+ * are pushed down, so the predicates of the table must be enforced by the table handle.
+ *
+ * @param <C> the column handle of the connector
+ */
+public abstract class AggregationPushDownOptimizer<C extends ColumnHandle>
+        implements ConnectorPlanOptimizer
+{
+    public enum Function
+    {
+        COUNT,
+        SUM,
+        MIN,
+        MAX
+    }
+
+    private static final FunctionHandle SUM_BIGINT = new BuiltInFunctionHandle(new Signature(
+            QualifiedObjectName.valueOfDefaultFunction("sum"),
+            AGGREGATE,
+            BIGINT.getTypeSignature(),
+            BIGINT.getTypeSignature()));
+
+    private final boolean enabled;
+
+    protected AggregationPushDownOptimizer(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return whether an aggregation can be pushed into a scan of the table
+     */
+    protected abstract boolean canPushDown(ConnectorTableHandle table);
+
+    protected abstract boolean isGroupable(C column);
+
+    protected abstract boolean isAggregatable(Function function, C column);
+
+    /**
+     * @return the column of an aggregate in the pages of the splits
+     */
+    protected abstract C createAggregateColumn(String name, Type type);
+
+    /**
+     * @param aggregates the aggregates, the argument is absent for count(*)
+     * @return the table handle computing the groups and aggregates of every split
+     */
+    protected abstract ConnectorTableHandle applyAggregation(ConnectorTableHandle table, List<C> groupingColumns, List<Aggregate<C>> aggregates);
+
+    @Override
+    public PlanNode optimize(
+            PlanNode maxSubPlan,
+            ConnectorSession session,
+            Map<String, Type> types,
+            SymbolAllocator symbolAllocator,
+            PlanNodeIdAllocator idAllocator)
+    {
+        if (!enabled) {
+            return maxSubPlan;
+        }
+        return maxSubPlan.accept(new Visitor(symbolAllocator, idAllocator), null);
+    }
+
+    public static final class Aggregate<C extends ColumnHandle>
+    {
+        private final Function function;
+        private final Optional<C> argument;
+        private final C output;
+
+        public Aggregate(Function function, Optional<C> argument, C output)
+        {
+            this.function = requireNonNull(function, "function is null");
+            this.argument = requireNonNull(argument, "argument is null");
+            this.output = requireNonNull(output, "output is null");
+        }
+
+        public Function getFunction()
+        {
+            return function;
+        }
+
+        public Optional<C> getArgument()
+        {
+            return argument;
+        }
+
+        public C getOutput()
+        {
+            return output;
+        }
+    }
+
+    private class Visitor
+            extends PlanVisitor<PlanNode, Void>
+    {
+        private final SymbolAllocator symbolAllocator;
+        private final PlanNodeIdAllocator idAllocator;
+
+        public Visitor(SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+        {
+            this.symbolAllocator = symbolAllocator;
+            this.idAllocator = idAllocator;
+        }
+
+        @Override
+        public PlanNode visitPlan(PlanNode node, Void context)
+        {
+            List<PlanNode> sources = node.getSources();
+            List<PlanNode> newSources = sources.stream()
+                    .map(source -> source.accept(this, null))
+                    .collect(toImmutableList());
+            for (int i = 0; i < sources.size(); i++) {
+                if (newSources.get(i) != sources.get(i)) {
+                    return node.replaceChildren(newSources);
+                }
+            }
+            return node;
+        }
+
+        @Override
+        public PlanNode visitAggregation(AggregationNode node, Void context)
+        {
+            return pushDownAggregation(node).orElseGet(() -> visitPlan(node, context));
+        }
+
+        private Optional<PlanNode> pushDownAggregation(AggregationNode node)
+        {
+            if (node.getStep() != SINGLE || node.getGroupingSetCount() != 1 || node.getHashSymbol().isPresent() || node.getGroupIdSymbol().isPresent()) {
+                return Optional.empty();
+            }
+
+            // the aggregation may read the table through a projection which only renames columns
+            PlanNode source = node.getSource();
+            Map<String, String> renames = new HashMap<>();
+            if (source instanceof ProjectNode) {
+                for (Map.Entry<Symbol, RowExpression> assignment : ((ProjectNode) source).getAssignments().entrySet()) {
+                    if (!(assignment.getValue() instanceof VariableReferenceExpression)) {
+                        return Optional.empty();
+                    }
+                    renames.put(assignment.getKey().getName(), ((VariableReferenceExpression) assignment.getValue()).getName());
+                }
+                source = ((ProjectNode) source).getSource();
+            }
+            if (!(source instanceof TableScanNode)) {
+                return Optional.empty();
+            }
+            TableScanNode scan = (TableScanNode) source;
+            if (scan.getPredicate().isPresent() || !canPushDown(scan.getTable().getConnectorHandle())) {
+                return Optional.empty();
+            }
+
+            ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
+            ImmutableMap.Builder<Symbol, ColumnHandle> assignments = ImmutableMap.builder();
+
+            ImmutableList.Builder<C> groupingColumns = ImmutableList.builder();
+            for (Symbol groupingKey : node.getGroupingKeys()) {
+                Optional<C> column = getColumn(scan, renames, groupingKey.getName());
+                if (!column.isPresent() || !isGroupable(column.get())) {
+                    return Optional.empty();
+                }
+                groupingColumns.add(column.get());
+                outputs.add(groupingKey);
+                assignments.put(groupingKey, column.get());
+            }
+
+            ImmutableList.Builder<Aggregate<C>> aggregates = ImmutableList.builder();
+            ImmutableMap.Builder<Symbol, Aggregation> combiningAggregations = ImmutableMap.builder();
+            for (Map.Entry<Symbol, Aggregation> entry : node.getAggregations().entrySet()) {
+                Aggregation aggregation = entry.getValue();
+                if (aggregation.isDistinct() || aggregation.getFilter().isPresent() || aggregation.getOrderingScheme().isPresent() || aggregation.getMask().isPresent()) {
+                    return Optional.empty();
+                }
+                Optional<Function> function = getFunction(aggregation.getFunctionCall().getDisplayName());
+                if (!function.isPresent() || aggregation.getArguments().size() > 1) {
+                    return Optional.empty();
+                }
+
+                Optional<C> argument = Optional.empty();
+                if (!aggregation.getArguments().isEmpty()) {
+                    if (!(aggregation.getArguments().get(0) instanceof VariableReferenceExpression)) {
+                        return Optional.empty();
+                    }
+                    argument = getColumn(scan, renames, ((VariableReferenceExpression) aggregation.getArguments().get(0)).getName());
+                    if (!argument.isPresent() || !isAggregatable(function.get(), argument.get())) {
+                        return Optional.empty();
+                    }
+                }
+                else if (function.get() != Function.COUNT) {
+                    return Optional.empty();
+                }
+
+                // the aggregates of the splits are combined by an aggregation of the same type
+                Type resultType = aggregation.getFunctionCall().getType();
+                FunctionHandle combiningFunction = aggregation.getFunctionHandle();
+                if (function.get() == Function.COUNT || (function.get() == Function.SUM && !resultType.equals(aggregation.getArguments().get(0).getType()))) {
+                    combiningFunction = SUM_BIGINT;
+                }
+
+                Symbol partial = symbolAllocator.newSymbol(aggregation.getFunctionCall().getDisplayName(), resultType);
+                C output = createAggregateColumn(partial.getName(), resultType);
+                aggregates.add(new Aggregate<>(function.get(), argument, output));
+                outputs.add(partial);
+                assignments.put(partial, output);
+
+                List<RowExpression> arguments = ImmutableList.of(new VariableReferenceExpression(partial.getName(), resultType));
+                combiningAggregations.put(entry.getKey(), new Aggregation(
+                        new CallExpression(aggregation.getFunctionCall().getDisplayName(), combiningFunction, resultType, arguments, Optional.empty()),
+                        arguments,
+                        false,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.empty()));
+            }
+
+            ConnectorTableHandle aggregatedTable = applyAggregation(scan.getTable().getConnectorHandle(), groupingColumns.build(), aggregates.build());
+            TableScanNode aggregatedScan = new TableScanNode(
+                    idAllocator.getNextId(),
+                    new TableHandle(
+                            scan.getTable().getCatalogName(),
+                            aggregatedTable,
+                            scan.getTable().getTransaction(),
+                            scan.getTable().getLayout()),
+                    outputs.build(),
+                    assignments.build(),
+                    TupleDomain.all(),
+                    Optional.empty(),
+                    ReuseExchangeOperator.STRATEGY.REUSE_STRATEGY_DEFAULT,
+                    new UUID(0, 0),
+                    0,
+                    false);
+
+            return Optional.of(new AggregationNode(
+                    idAllocator.getNextId(),
+                    aggregatedScan,
+                    combiningAggregations.build(),
+                    node.getGroupingSets(),
+                    ImmutableList.of(),
+                    SINGLE,
+                    Optional.empty(),
+                    Optional.empty(),
+                    node.getAggregationType(),
+                    node.getFinalizeSymbol()));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Optional<C> getColumn(TableScanNode scan, Map<String, String> renames, String symbol)
+        {
+            ColumnHandle column = scan.getAssignments().get(new Symbol(renames.getOrDefault(symbol, symbol)));
+            return Optional.ofNullable((C) column);
+        }
+    }
+
+    private static Optional<Function> getFunction(String name)
+    {
+        switch (name) {
+            case "count":
+                return Optional.of(Function.COUNT);
+            case "sum":
+                return Optional.of(Function.SUM);
+            case "min":
+                return Optional.of(Function.MIN);
+            case "max":
+                return Optional.of(Function.MAX);
+            default:
+                return Optional.empty();
+        }
+    }
+}
@@ -90,6 +90,7 @@ public abstract class BasePostgreSqlClient
         extends BaseJdbcClient
 {
     protected static final String DUPLICATE_TABLE_SQLSTATE = "42P07";
+    private static final int DEFAULT_FETCH_SIZE = 1000;
 
     protected final Type jsonType;
     protected final Type uuidType;
@@ -155,7 +156,8 @@ public abstract class BasePostgreSqlClient
     {
         connection.setAutoCommit(false);
         PreparedStatement statement = connection.prepareStatement(sql);
-        statement.setFetchSize(1000);
+        // the results are fetched through a cursor in batches of fetch-size rows only outside of auto commit mode
+        statement.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
         return statement;
     }
 
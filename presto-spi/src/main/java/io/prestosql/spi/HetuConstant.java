@@ -31,6 +31,9 @@ public class HetuConstant
     public static final String FILTER_CACHE_SOFT_REFERENCE = "hetu.heuristicindex.filter.cache.soft-reference";
     public static final String FILTER_CACHE_PRELOAD_INDICES = "hetu.heuristicindex.filter.cache.preload-indices";
     public static final String FILTER_CACHE_AUTOLOAD_DEFAULT = "hetu.heuristicindex.filter.cache.autoload-default";
+    public static final String FILTER_DISABLE_UNUSED_AFTER_SPLITS = "hetu.heuristicindex.filter.disable-unused-after-splits";
+    public static final String INDEX_AUTO_UPDATE_ENABLED = "hetu.heuristicindex.auto-update.enabled";
+    public static final String INDEX_AUTO_UPDATE_DELAY = "hetu.heuristicindex.auto-update.delay";
     public static final String INDEXSTORE_URI = "hetu.heuristicindex.indexstore.uri";
     public static final String INDEXSTORE_FILESYSTEM_PROFILE = "hetu.heuristicindex.indexstore.filesystem.profile";
     public static final String DATA_CENTER_CONNECTOR_NAME = "dc";
@@ -318,7 +318,8 @@ public interface ConnectorMetadata
     }
 
     /**
-     * Returns the modification time of a table if possible.
+     * Returns the modification time of a table if possible. If the handle was constrained by
+     * {@link #applyFilter}, connectors may return the modification time of the matching data only.
      */
     default long getTableModificationTime(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
@@ -43,6 +43,8 @@ public class CreateIndexMetadata
                     "integer", "smallint", "bigint", "tinyint", "varchar", "char", "boolean", "double", "real", "date", "decimal"))
             .put("btree", ImmutableList.of(
                     "integer", "smallint", "bigint", "tinyint", "varchar", "double", "real", "date", "decimal"))
+            .put("ngram", ImmutableList.of(
+                    "varchar", "char"))
             .build();
 
     private final String indexName;
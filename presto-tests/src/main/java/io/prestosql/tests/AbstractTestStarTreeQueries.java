@@ -421,6 +421,73 @@ public abstract class AbstractTestStarTreeQueries
         assertUpdate("DROP CUBE partial_inserts_test_2");
     }
 
+    @Test
+    public void testIncrementalRefresh()
+    {
+        Session sessionIncrementalRefresh = Session.builder(sessionStarTree)
+                .setSystemProperty(SystemSessionProperties.CUBE_INCREMENTAL_REFRESH_ENABLED, "true")
+                .build();
+        // the modification time of the ranges is tracked by the partitions of the source table
+        computeActual("CREATE TABLE nation_table_incremental_refresh_test_1 WITH (partitioned_by = ARRAY['nationkey']) AS " +
+                "SELECT name, regionkey, comment, nationkey FROM nation WHERE nationkey < 10");
+        assertUpdate("CREATE CUBE nation_cube_incremental_refresh_1 ON nation_table_incremental_refresh_test_1 " +
+                "WITH (AGGREGATIONS=(count(*), sum(regionkey), avg(regionkey), count(regionkey), max(regionkey)), GROUP=(nationkey))");
+        assertUpdate("INSERT INTO CUBE nation_cube_incremental_refresh_1 WHERE nationkey < 10", 10);
+        assertUpdate("INSERT INTO nation_table_incremental_refresh_test_1 SELECT name, regionkey, comment, nationkey FROM nation WHERE nationkey >= 10", 15);
+
+        // the cube is not used after the source table was modified, unless the partitions of the query were not modified
+        assertQuery(sessionStarTree,
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation_table_incremental_refresh_test_1 WHERE nationkey < 5 GROUP BY nationkey",
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation WHERE nationkey < 5 GROUP BY nationkey",
+                assertTableScan("nation_table_incremental_refresh_test_1"));
+        assertQuery(sessionIncrementalRefresh,
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation_table_incremental_refresh_test_1 WHERE nationkey < 5 GROUP BY nationkey",
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation WHERE nationkey < 5 GROUP BY nationkey",
+                assertTableScan("nation_cube_incremental_refresh_1"));
+        assertQuery(sessionIncrementalRefresh,
+                "SELECT count(*) FROM nation_table_incremental_refresh_test_1 WHERE nationkey >= 5",
+                "SELECT count(*) FROM nation WHERE nationkey >= 5",
+                assertTableScan("nation_table_incremental_refresh_test_1"));
+
+        // only the new data is inserted into the cube
+        assertQueryFails("INSERT INTO CUBE nation_cube_incremental_refresh_1 WHERE nationkey >= 10",
+                "Cannot insert into cube. Source table has been updated since Cube was last updated.*");
+        assertQueryFails(sessionIncrementalRefresh, "INSERT INTO CUBE nation_cube_incremental_refresh_1 WHERE nationkey >= 5",
+                "Cannot allow insert. Cube already contains data for the given predicate.*");
+        assertUpdate(sessionIncrementalRefresh, "INSERT INTO CUBE nation_cube_incremental_refresh_1 WHERE nationkey >= 10", 15);
+        assertQuery(sessionStarTree,
+                "SELECT count(*), sum(regionkey), avg(regionkey), max(regionkey) FROM nation_table_incremental_refresh_test_1 WHERE nationkey >= 0",
+                "SELECT count(*), sum(regionkey), avg(regionkey), max(regionkey) FROM nation WHERE nationkey >= 0",
+                assertTableScan("nation_cube_incremental_refresh_1"));
+
+        assertUpdate("DROP CUBE nation_cube_incremental_refresh_1");
+        assertUpdate("DROP TABLE nation_table_incremental_refresh_test_1");
+    }
+
+    @Test
+    public void testIncrementalRefreshUnpartitionedTable()
+    {
+        Session sessionIncrementalRefresh = Session.builder(sessionStarTree)
+                .setSystemProperty(SystemSessionProperties.CUBE_INCREMENTAL_REFRESH_ENABLED, "true")
+                .build();
+        computeActual("CREATE TABLE nation_table_incremental_refresh_test_2 AS SELECT * FROM nation WHERE nationkey < 10");
+        assertUpdate("CREATE CUBE nation_cube_incremental_refresh_2 ON nation_table_incremental_refresh_test_2 " +
+                "WITH (AGGREGATIONS=(count(*), sum(regionkey)), GROUP=(nationkey))");
+        assertUpdate("INSERT INTO CUBE nation_cube_incremental_refresh_2 WHERE nationkey < 10", 10);
+        assertUpdate("INSERT INTO nation_table_incremental_refresh_test_2 SELECT * FROM nation WHERE nationkey >= 10", 15);
+
+        // only the modification time of the entire table is known, so the covered ranges may have been modified
+        assertQuery(sessionIncrementalRefresh,
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation_table_incremental_refresh_test_2 WHERE nationkey < 5 GROUP BY nationkey",
+                "SELECT nationkey, count(*), sum(regionkey) FROM nation WHERE nationkey < 5 GROUP BY nationkey",
+                assertTableScan("nation_table_incremental_refresh_test_2"));
+        assertQueryFails(sessionIncrementalRefresh, "INSERT INTO CUBE nation_cube_incremental_refresh_2 WHERE nationkey >= 10",
+                "Cannot insert into cube. Source table data within the ranges covered by the cube has been updated since Cube was last updated.*");
+
+        assertUpdate("DROP CUBE nation_cube_incremental_refresh_2");
+        assertUpdate("DROP TABLE nation_table_incremental_refresh_test_2");
+    }
+
     @Test
     public void testAggregationsWithPartialData()
     {
@@ -572,6 +639,30 @@ public abstract class AbstractTestStarTreeQueries
         assertUpdate("DROP TABLE orders_count_distinct");
     }
 
+    @Test
+    public void testSketchAggregations()
+    {
+        computeActual("CREATE TABLE orders_sketch AS SELECT * FROM orders");
+        computeActual("CREATE CUBE orders_sketch_cube ON orders_sketch WITH (AGGREGATIONS = (approx_distinct(custkey)), GROUP = (orderdate, orderpriority))");
+        assertQuerySucceeds("INSERT INTO CUBE orders_sketch_cube");
+        // the sketches of the cube rows are merged for each group
+        assertQuery(sessionStarTree,
+                "SELECT orderpriority, approx_distinct(custkey) FROM orders_sketch WHERE orderdate BETWEEN date '1992-01-01' AND date '1992-01-10' GROUP BY orderpriority",
+                "SELECT orderpriority, count(distinct custkey) FROM orders WHERE orderdate BETWEEN '1992-01-01' AND '1992-01-10' GROUP BY orderpriority",
+                assertTableScan("orders_sketch_cube"));
+        assertUpdate("DROP CUBE orders_sketch_cube");
+        assertUpdate("DROP TABLE orders_sketch");
+
+        computeActual("CREATE TABLE nation_sketch AS SELECT * FROM nation");
+        computeActual("CREATE CUBE nation_sketch_cube ON nation_sketch WITH (AGGREGATIONS = (approx_percentile(nationkey)), GROUP = (regionkey, name))");
+        assertQuerySucceeds("INSERT INTO CUBE nation_sketch_cube");
+        // the digests are small enough to be exact, so the merged digests return the same percentiles
+        String percentileQuery = "SELECT regionkey, approx_percentile(nationkey, 0.5), approx_percentile(nationkey, 0.9) FROM nation_sketch GROUP BY regionkey ORDER BY regionkey";
+        assertEquals(computeActual(sessionStarTree, percentileQuery).getMaterializedRows(), computeActual(sessionNoStarTree, percentileQuery).getMaterializedRows());
+        assertUpdate("DROP CUBE nation_sketch_cube");
+        assertUpdate("DROP TABLE nation_sketch");
+    }
+
     @Test
     public void testWithSourceFilter()
     {